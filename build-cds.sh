@@ -0,0 +1,75 @@
+#!/bin/bash
+
+# Fleet Navigator - AppCDS Build Script (Class Data Sharing)
+# ==========================================================
+#
+# Alternative zu build-native.sh für Thin Clients: normale JVM, aber die beim Start
+# geladenen Klassen kommen vorverarbeitet aus einem CDS-Archiv.
+#
+# 1. Fat-JAR bauen und entpacken (CDS braucht normale JARs im Klassenpfad, keine verschachtelten)
+# 2. Trainingslauf: Spring startet bis zum Context-Refresh und beendet sich
+#    (-Dspring.context.exit=onRefresh), die JVM schreibt dabei das Archiv
+# 3. Starten mit -XX:SharedArchiveFile
+#
+# Voraussetzung: JDK 17+, keine laufende Instanz auf Port 2025
+
+set -e
+
+cd "$(dirname "$0")"
+OUT=target/cds
+MAIN_CLASS=io.javafleet.fleetnavigator.FleetNavigatorApplication
+
+echo "🚀 Fleet Navigator - AppCDS Build"
+echo "================================="
+echo ""
+
+if [ "$1" != "--skip-build" ]; then
+    echo "📦 Baue JAR..."
+    mvn -B -q clean package -DskipTests
+fi
+
+JAR=$(ls target/fleet-navigator-*.jar | grep -v original | head -1)
+if [ -z "$JAR" ]; then
+    echo "❌ Kein JAR in target/ gefunden"
+    exit 1
+fi
+
+echo "📂 Entpacke $JAR nach $OUT ..."
+rm -rf "$OUT"
+mkdir -p "$OUT/unpacked" "$OUT/lib"
+(cd "$OUT/unpacked" && jar xf "../../../$JAR")
+cp "$OUT"/unpacked/BOOT-INF/lib/*.jar "$OUT/lib/"
+
+# Anwendungs-JAR mit Class-Path im Manifest (feste Reihenfolge, sonst passt das Archiv nicht)
+CLASS_PATH=$(cd "$OUT" && ls lib/*.jar | sort | tr '\n' ' ')
+{
+    echo "Manifest-Version: 1.0"
+    echo "Main-Class: $MAIN_CLASS"
+    echo "Class-Path: $CLASS_PATH" | fold -w 70 | sed '2,$s/^/ /'
+} > "$OUT/MANIFEST.MF"
+jar cfm "$OUT/fleet-navigator.jar" "$OUT/MANIFEST.MF" -C "$OUT/unpacked/BOOT-INF/classes" .
+rm -rf "$OUT/unpacked" "$OUT/MANIFEST.MF"
+
+echo "🏋️ Trainingslauf (schreibt fleet-navigator.jsa)..."
+(cd "$OUT" && java -XX:ArchiveClassesAtExit=fleet-navigator.jsa \
+    -Dspring.context.exit=onRefresh \
+    -jar fleet-navigator.jar \
+    --spring.profiles.active=fast-startup \
+    --fleet-navigator.paths.data-dir=training/data \
+    --fleet-navigator.paths.logs-dir=training/logs > training.log 2>&1) || true
+rm -rf "$OUT/training"
+
+if [ ! -f "$OUT/fleet-navigator.jsa" ]; then
+    echo "❌ Kein CDS-Archiv erzeugt - siehe $OUT/training.log"
+    exit 1
+fi
+
+echo ""
+echo "✅ Build Complete!"
+echo ""
+ls -lh "$OUT/fleet-navigator.jar" "$OUT/fleet-navigator.jsa"
+echo ""
+echo "🚀 Starten (Verzeichnis $OUT mit lib/ zusammen kopieren):"
+echo "   java -XX:SharedArchiveFile=fleet-navigator.jsa -jar fleet-navigator.jar --spring.profiles.active=fast-startup"
+echo ""
+echo "📊 Startzeit vergleichen: GET /api/system/startup (readyAfterMs)"
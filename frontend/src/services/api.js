@@ -228,7 +228,7 @@ export default {
       headers: {
         'Content-Type': 'multipart/form-data'
       },
-      timeout: 60000 // 1 minute for file uploads
+      timeout: 600000 // 10 minutes: large uploads and OCR of long scans
     })
 
     return response.data
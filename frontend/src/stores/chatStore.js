@@ -317,8 +317,9 @@ export const useChatStore = defineStore('chat', () => {
           size: file.size
         })
 
-        if (file.type === 'image' && file.base64Content) {
-          images.push(file.base64Content)
+        if (file.type === 'image' && file.attachmentRef) {
+          // Server-side attachment reference - base64 is resolved by the backend when sending
+          images.push(file.attachmentRef)
         } else if (file.textContent) {
           // All text-based files (pdf, text, json, xml, csv, html)
           documentContext += `\n\n=== ${file.name} ===\n${file.textContent}`
@@ -397,7 +398,7 @@ export const useChatStore = defineStore('chat', () => {
 
         // Add images if present
         if (images.length > 0) {
-          request.images = images
+          request.imageRefs = images
         }
 
         // Add document context if present
@@ -538,7 +539,7 @@ export const useChatStore = defineStore('chat', () => {
 
       // Add images if present
       if (images.length > 0) {
-        requestBody.images = images
+        requestBody.imageRefs = images
       }
 
       // Add document context if present
@@ -741,7 +742,8 @@ export const useChatStore = defineStore('chat', () => {
                     isStreaming: false,
                     isDocumentRequest: streamingMessage.isDocumentRequest || false,  // Keep document flag
                     documentType: streamingMessage.documentType || null,  // PDF, ODT, DOCX
-                    downloadUrl: parsed.downloadUrl || null  // Document download URL if generated
+                    downloadUrl: parsed.downloadUrl || null,  // Document download URL if generated
+                    documentPending: parsed.documentPending || false  // Document still rendering in background
                   }
 
                   // Update context usage for progressbar
@@ -755,6 +757,16 @@ export const useChatStore = defineStore('chat', () => {
                     console.log('📄 Document generated:', parsed.downloadUrl)
                   }
 
+                  // Phase timeline of the request (full trace: /api/stats/traces)
+                  if (parsed.timings) {
+                    console.log(`⏱️ Trace ${parsed.traceId}:`, parsed.timings)
+                  }
+
+                  // Answer is complete - the stream only stays open for the document event
+                  if (parsed.documentPending) {
+                    isLoading.value = false
+                  }
+
                   // Find and replace the streaming message in the array
                   const index = messages.value.findIndex(m => m === streamingMessage)
                   if (index !== -1) {
@@ -801,6 +813,20 @@ export const useChatStore = defineStore('chat', () => {
                   }
 
                   currentRequestId.value = null
+                } else if (parsed.documentReady !== undefined) {
+                  // Document event - background rendering finished after the done event
+                  console.log('📄 Document ready:', parsed.downloadUrl, parsed.documentReady)
+                  const docMessage = messages.value.find(m => m.downloadUrl === parsed.downloadUrl)
+                  if (docMessage) {
+                    docMessage.documentPending = false
+                  }
+                  if (!parsed.documentReady && currentChat.value?.id) {
+                    // Rendering failed - backend restored the full text, reload it
+                    api.getChatHistory(currentChat.value.id).then(chat => {
+                      messages.value = chat.messages || []
+                      saveChatToCache(currentChat.value.id, messages.value)
+                    }).catch(e => console.error('[Cache-Sync] Failed to sync messages:', e))
+                  }
                 } else if (parsed.error) {
                   // Error event
                   console.error('Streaming error:', parsed.error)
@@ -1,7 +1,9 @@
 package io.javafleet.fleetnavigator;
 
+import io.javafleet.fleetnavigator.config.StartupReport;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.io.IOException;
@@ -23,6 +25,8 @@ public class FleetNavigatorApplication {
     private static final int DEFAULT_PORT = 2025;
 
     public static void main(String[] args) {
+        StartupReport.mainStarted();
+
         // Check if port is already in use
         if (isPortInUse(DEFAULT_PORT)) {
             System.err.println("\n╔════════════════════════════════════════════════════════════╗");
@@ -38,7 +42,10 @@ public class FleetNavigatorApplication {
             System.exit(1);
         }
 
-        SpringApplication.run(FleetNavigatorApplication.class, args);
+        // Zeichnet die Startschritte auf (langsamste Beans im Startzeit-Bericht)
+        SpringApplication application = new SpringApplication(FleetNavigatorApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(StartupReport.TIMELINE_CAPACITY));
+        application.run(args);
     }
 
     /**
@@ -1,8 +1,11 @@
 package io.javafleet.fleetnavigator.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.javafleet.fleetnavigator.service.InferenceTelemetry;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -22,13 +25,13 @@ public class CacheConfig {
      *
      * Cache Names:
      * - "modelResponses": Caches LLM responses to avoid redundant calls
-     * - "modelSelection": Caches model selection decisions
+     *
+     * Hit/miss/eviction counters are exported through {@link InferenceTelemetry}.
      */
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(InferenceTelemetry telemetry) {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager(
-            "modelResponses",
-            "modelSelection"
+            "modelResponses"
         );
 
         cacheManager.setCaffeine(Caffeine.newBuilder()
@@ -36,6 +39,21 @@ public class CacheConfig {
             .expireAfterWrite(30, TimeUnit.MINUTES) // Cache for 30 minutes
             .recordStats()); // Enable statistics for monitoring
 
+        for (String name : cacheManager.getCacheNames()) {
+            CaffeineCache cache = (CaffeineCache) cacheManager.getCache(name);
+            telemetry.registerCache(name, new InferenceTelemetry.CacheSource() {
+                @Override
+                public CacheStats stats() {
+                    return cache.getNativeCache().stats();
+                }
+
+                @Override
+                public long size() {
+                    return cache.getNativeCache().estimatedSize();
+                }
+            });
+        }
+
         return cacheManager;
     }
 }
@@ -213,6 +213,32 @@ public class FleetPathsConfiguration {
         return dir;
     }
 
+    /**
+     * Gibt den Pfad für Batch-Jobs zurück (Eingabe- und Ergebnisdateien als JSONL)
+     */
+    public Path getBatchJobsDir() {
+        Path dir = resolvedDataDir.resolve("batch-jobs");
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            log.warn("Konnte batch-jobs Verzeichnis nicht erstellen: {}", e.getMessage());
+        }
+        return dir;
+    }
+
+    /**
+     * Gibt den Pfad für die Segment-Dateien des Blob-Stores zurück (Dokument-Inhalte)
+     */
+    public Path getBlobStoreDir() {
+        Path dir = resolvedDataDir.resolve("blobs");
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            log.warn("Konnte blobs Verzeichnis nicht erstellen: {}", e.getMessage());
+        }
+        return dir;
+    }
+
     /**
      * Gibt den Pfad für den Datei-Index zurück
      */
@@ -226,6 +252,39 @@ public class FleetPathsConfiguration {
         return dir;
     }
 
+    /**
+     * Gibt den Pfad für die Archiv-Segmente inaktiver Chats zurück (Cold Storage)
+     */
+    public Path getChatArchiveDir() {
+        Path dir = resolvedDataDir.resolve("chat-archive");
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            log.warn("Konnte chat-archive Verzeichnis nicht erstellen: {}", e.getMessage());
+        }
+        return dir;
+    }
+
+    /**
+     * Gibt den Pfad für den Volltext-Index des Chat-Verlaufs zurück
+     */
+    public Path getChatIndexDir() {
+        Path dir = resolvedDataDir.resolve("chat-index");
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            log.warn("Konnte chat-index Verzeichnis nicht erstellen: {}", e.getMessage());
+        }
+        return dir;
+    }
+
+    /**
+     * Gibt den Pfad für das Protokoll der Modell-Routing-Entscheidungen zurück (JSONL)
+     */
+    public Path getModelRoutingLogPath() {
+        return resolvedLogsDir.resolve("model-routing.jsonl");
+    }
+
     /**
      * Gibt den Pfad für die Log-Datei zurück
      */
@@ -0,0 +1,52 @@
+package io.javafleet.fleetnavigator.config;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gemeinsamer HTTP-Client für alle Provider und Dienste (llama-server, Ollama, HuggingFace, ...)
+ *
+ * Jeder Dienst leitet seinen Client per {@code newBuilder()} von diesem Bean ab und setzt nur
+ * eigene Timeouts. Damit teilen sich alle einen Connection-Pool und einen Dispatcher: Keep-Alive-
+ * Verbindungen werden pro Upstream (Host/Port) wiederverwendet statt pro Dienst neu aufgebaut,
+ * und es gibt nur noch einen Satz Pool-/Dispatcher-Threads. TLS-Upstreams handeln HTTP/2 per
+ * ALPN aus, lokale Server (Klartext) bleiben bei HTTP/1.1 mit Keep-Alive.
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@Configuration
+@Slf4j
+public class HttpClientConfiguration {
+
+    @Bean
+    public OkHttpClient sharedHttpClient(
+            @Value("${fleet-navigator.http.max-idle-connections:16}") int maxIdleConnections,
+            @Value("${fleet-navigator.http.keep-alive-seconds:300}") long keepAliveSeconds,
+            @Value("${fleet-navigator.http.max-requests:64}") int maxRequests,
+            @Value("${fleet-navigator.http.max-requests-per-host:16}") int maxRequestsPerHost) {
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+        log.info("Gemeinsamer HTTP-Client: {} Idle-Verbindungen, Keep-Alive {}s, max. {} Requests ({} pro Host)",
+                maxIdleConnections, keepAliveSeconds, maxRequests, maxRequestsPerHost);
+
+        return new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS))
+                .dispatcher(dispatcher)
+                .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .retryOnConnectionFailure(true)
+                .build();
+    }
+}
@@ -30,6 +30,7 @@ public class LlamaServerAutoStartListener implements ApplicationListener<Applica
 
     private final LlamaServerProcessManager llamaServerManager;
     private final SettingsService settingsService;
+    private final StartupReport startupReport;
 
     @Value("${llm.default-provider:java-llama-cpp}")
     private String defaultProvider;
@@ -41,9 +42,11 @@ public class LlamaServerAutoStartListener implements ApplicationListener<Applica
     private final AtomicReference<String> startupError = new AtomicReference<>(null);
 
     public LlamaServerAutoStartListener(LlamaServerProcessManager llamaServerManager,
-                                        SettingsService settingsService) {
+                                        SettingsService settingsService,
+                                        StartupReport startupReport) {
         this.llamaServerManager = llamaServerManager;
         this.settingsService = settingsService;
+        this.startupReport = startupReport;
     }
 
     @Override
@@ -58,7 +61,8 @@ public class LlamaServerAutoStartListener implements ApplicationListener<Applica
         log.info("🚀 Fleet Navigator bereit - starte llama-server automatisch...");
 
         // Asynchron starten um App nicht zu blockieren
-        new Thread(this::startLlamaServer, "LlamaServerAutoStart").start();
+        new Thread(() -> startupReport.measureBackground("llama-server.autostart", this::startLlamaServer),
+                "LlamaServerAutoStart").start();
     }
 
     private void startLlamaServer() {
@@ -0,0 +1,57 @@
+package io.javafleet.fleetnavigator.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Authentifiziert den Prometheus-Scrape per Bearer-Token
+ *
+ * Prometheus sendet den Token aus {@code authorization.credentials} (scrape_config) als
+ * {@code Authorization: Bearer <token>}. Passt er zu {@code fleet-navigator.metrics.scrape-token},
+ * gilt nur dieser eine Request als angemeldet - ohne Session. Ohne konfigurierten Token ist der
+ * Endpunkt nur mit normaler Anmeldung erreichbar.
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+public class MetricsScrapeTokenFilter extends OncePerRequestFilter {
+
+    static final String SCRAPE_PATH = "/api/stats/prometheus";
+    private static final String BEARER = "Bearer ";
+
+    private final byte[] token;
+
+    public MetricsScrapeTokenFilter(String token) {
+        this.token = token != null && !token.isBlank() ? token.trim().getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return token == null || !SCRAPE_PATH.equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith(BEARER)
+                && MessageDigest.isEqual(token, header.substring(BEARER.length()).trim().getBytes(StandardCharsets.UTF_8))) {
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                    "prometheus", null, AuthorityUtils.createAuthorityList("ROLE_METRICS")));
+            SecurityContextHolder.setContext(context);
+        }
+        chain.doFilter(request, response);
+    }
+}
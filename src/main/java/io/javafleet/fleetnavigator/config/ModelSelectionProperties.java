@@ -33,4 +33,29 @@ public class ModelSelectionProperties {
      * Model to use for vision tasks (image analysis).
      */
     private String visionModel = "llava:13b";
+
+    /**
+     * Expected seconds to switch to a model that is not loaded yet.
+     */
+    private double switchSeconds = 8.0;
+
+    /**
+     * Decode speed assumed for models without telemetry yet (tokens/s).
+     */
+    private double defaultTokensPerSecond = 15.0;
+
+    /**
+     * Quality points one second of expected latency costs when scoring candidates.
+     */
+    private double latencyWeight = 0.02;
+
+    /**
+     * Keep the loaded model unless another candidate is better by more than this quality margin.
+     */
+    private double stickyMargin = 0.15;
+
+    /**
+     * Append every routing decision to logs/model-routing.jsonl for offline tuning.
+     */
+    private boolean decisionLog = true;
 }
@@ -2,9 +2,11 @@ package io.javafleet.fleetnavigator.config;
 
 import io.javafleet.fleetnavigator.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -15,6 +17,7 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 
 /**
@@ -32,6 +35,10 @@ public class SecurityConfig {
 
     private final PasswordEncoder passwordEncoder;
 
+    // Bearer token for GET /api/stats/prometheus; empty = scrape requires a normal login
+    @Value("${fleet-navigator.metrics.scrape-token:}")
+    private String metricsScrapeToken = "";
+
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
@@ -45,7 +52,28 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    /**
+     * Prometheus scrape: bearer token (see MetricsScrapeTokenFilter) or an existing login session.
+     * Own chain so token scrapes neither create nor register sessions.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain metricsFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher(MetricsScrapeTokenFilter.SCRAPE_PATH)
+            .addFilterBefore(new MetricsScrapeTokenFilter(metricsScrapeToken), AuthorizationFilter.class)
+            .authorizeHttpRequests(auth -> auth.anyRequest().authenticated())
+            .exceptionHandling(ex -> ex
+                .authenticationEntryPoint((request, response, authException) -> {
+                    response.setStatus(401);
+                    response.setHeader("WWW-Authenticate", "Bearer");
+                }));
+
+        return http.build();
+    }
+
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             // CSRF protection with cookie (for SPA)
@@ -15,9 +15,11 @@ public class StartupDiscoveryListener implements ApplicationListener<Application
 
     private static final Logger log = LoggerFactory.getLogger(StartupDiscoveryListener.class);
     private final MateDiscoveryService discoveryService;
+    private final StartupReport startupReport;
 
-    public StartupDiscoveryListener(MateDiscoveryService discoveryService) {
+    public StartupDiscoveryListener(MateDiscoveryService discoveryService, StartupReport startupReport) {
         this.discoveryService = discoveryService;
+        this.startupReport = startupReport;
     }
 
     @Override
@@ -29,7 +31,8 @@ public class StartupDiscoveryListener implements ApplicationListener<Application
             try {
                 // Kurze Verzögerung damit WebSocket-Server bereit ist
                 Thread.sleep(1000);
-                discoveryService.broadcastDiscoveryMultiple(3, 500);
+                startupReport.measureBackground("discovery.broadcast",
+                        () -> discoveryService.broadcastDiscoveryMultiple(3, 500));
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 log.warn("Discovery broadcast interrupted during startup");
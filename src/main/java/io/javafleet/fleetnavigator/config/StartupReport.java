@@ -0,0 +1,224 @@
+package io.javafleet.fleetnavigator.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Startzeit-Bericht und Fast-Startup-Modus
+ *
+ * Erfasst die Phasen des Starts: JVM bis main(), Spring bis "ready", die langsamsten
+ * Bean-Initialisierungen (aus der {@link BufferingApplicationStartup}), die Seeder und
+ * die verzögerten Subsysteme bei ihrer ersten Nutzung. Bei ApplicationReadyEvent wird der
+ * Bericht geloggt; abrufbar über {@code /api/system/startup}.
+ *
+ * Im Fast-Startup-Modus ({@code fleet-navigator.startup.fast=true}, Profil {@code fast-startup}):
+ * - Lucene-Index, Tesseract und Krypto-Schlüssel werden erst bei der ersten Nutzung geöffnet
+ * - die idempotenten Seeder laufen nacheinander in einem Hintergrund-Thread
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@Slf4j
+@Component
+public class StartupReport {
+
+    public static final int TIMELINE_CAPACITY = 10_000;
+
+    private static volatile long mainStartedAt;
+
+    @Value("${fleet-navigator.startup.fast:false}")
+    private boolean fast = false;
+
+    @Value("${fleet-navigator.startup.slow-bean-ms:50}")
+    private long slowBeanMs = 50;
+
+    private final long jvmStartedAt = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final List<Phase> phases = new CopyOnWriteArrayList<>();
+    private final List<Phase> slowBeans = new CopyOnWriteArrayList<>();
+    private final ExecutorService background = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "startup-background");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile long readyAt;
+
+    /**
+     * Von main() aufgerufen, bevor Spring startet
+     */
+    public static void mainStarted() {
+        mainStartedAt = System.currentTimeMillis();
+    }
+
+    public boolean isFast() {
+        return fast;
+    }
+
+    /**
+     * Misst eine Phase im aufrufenden Thread; nach dem Start gilt sie als "lazy" (erste Nutzung)
+     */
+    public void measure(String name, Runnable work) {
+        timed(name, readyAt == 0 ? "startup" : "lazy", work);
+    }
+
+    /**
+     * Misst Arbeit, die ohnehin in einem eigenen Thread läuft (Discovery, llama-server-Autostart)
+     */
+    public void measureBackground(String name, Runnable work) {
+        timed(name, "background", work);
+    }
+
+    /**
+     * Subsystem wird erst bei der ersten Nutzung initialisiert
+     */
+    public void deferred(String name) {
+        phases.add(new Phase(name, "deferred", System.currentTimeMillis() - jvmStartedAt, 0,
+                Thread.currentThread().getName()));
+        log.debug("⏱️ {} verzögert bis zur ersten Nutzung", name);
+    }
+
+    /**
+     * Im Fast-Startup-Modus im Hintergrund-Thread (in Aufrufreihenfolge), sonst sofort
+     */
+    public void background(String name, Runnable work) {
+        if (!fast) {
+            measure(name, work);
+            return;
+        }
+        background.submit(() -> {
+            try {
+                timed(name, "background", work);
+            } catch (RuntimeException e) {
+                log.error("⏱️ Hintergrund-Phase {} fehlgeschlagen: {}", name, e.getMessage(), e);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE) // Nach den Seedern, damit sie im Standard-Modus mitzählen
+    public void onReady(ApplicationReadyEvent event) {
+        readyAt = System.currentTimeMillis();
+        long mainAt = mainStartedAt;
+        if (mainAt > 0) {
+            phases.add(0, new Phase("jvm.boot", "startup", 0, mainAt - jvmStartedAt, "main"));
+        }
+        phases.add(new Phase("spring.ready", "startup", mainAt > 0 ? mainAt - jvmStartedAt : 0,
+                event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : 0, "main"));
+        collectSlowBeans(event.getApplicationContext().getApplicationStartup());
+        logReport();
+    }
+
+    /**
+     * Bericht als JSON-Struktur; Zeiten in ms, {@code offsetMs} ab JVM-Start
+     */
+    public Map<String, Object> getReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("fastStartup", fast);
+        report.put("readyAfterMs", readyAt > 0 ? readyAt - jvmStartedAt : null);
+        report.put("phases", phases.stream().map(Phase::toMap).toList());
+        report.put("slowestBeans", slowBeans.stream().map(Phase::toMap).toList());
+        return report;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        background.shutdownNow();
+    }
+
+    private void timed(String name, String kind, Runnable work) {
+        long start = System.currentTimeMillis();
+        try {
+            work.run();
+        } finally {
+            record(name, kind, start);
+        }
+    }
+
+    private void record(String name, String kind, long start) {
+        long end = System.currentTimeMillis();
+        phases.add(new Phase(name, kind, start - jvmStartedAt, end - start, Thread.currentThread().getName()));
+        if (readyAt > 0) {
+            log.info("⏱️ {} ({}): {} ms", name, kind, end - start);
+        }
+    }
+
+    /**
+     * Instanziierungsdauer pro Bean (inklusive ihrer Abhängigkeiten); nur mit
+     * BufferingApplicationStartup, die main() setzt
+     */
+    private void collectSlowBeans(ApplicationStartup startup) {
+        if (!(startup instanceof BufferingApplicationStartup buffering)) {
+            return;
+        }
+        List<Phase> beans = new ArrayList<>();
+        for (StartupTimeline.TimelineEvent event : buffering.drainBufferedTimeline().getEvents()) {
+            StartupStep step = event.getStartupStep();
+            long ms = event.getDuration().toMillis();
+            if (!"spring.beans.instantiate".equals(step.getName()) || ms < slowBeanMs) {
+                continue;
+            }
+            String bean = "?";
+            for (StartupStep.Tag tag : step.getTags()) {
+                if ("beanName".equals(tag.getKey())) {
+                    bean = tag.getValue();
+                }
+            }
+            beans.add(new Phase(bean, "bean", event.getStartTime().toEpochMilli() - jvmStartedAt, ms, "main"));
+        }
+        beans.sort(Comparator.comparingLong(Phase::durationMs).reversed());
+        slowBeans.clear();
+        slowBeans.addAll(beans.subList(0, Math.min(15, beans.size())));
+    }
+
+    private void logReport() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format(Locale.ROOT, "%n⏱️ Startzeit-Bericht (%s, bereit nach %d ms)%n",
+                fast ? "Fast-Startup" : "Standard", readyAt - jvmStartedAt));
+        for (Phase phase : phases) {
+            table.append(String.format(Locale.ROOT, "   %-28s %-10s %7d ms  (ab %d ms)%n",
+                    phase.name(), phase.kind(), phase.durationMs(), phase.offsetMs()));
+        }
+        if (!slowBeans.isEmpty()) {
+            table.append("   Langsamste Beans (inkl. Abhängigkeiten):\n");
+            for (Phase bean : slowBeans.subList(0, Math.min(5, slowBeans.size()))) {
+                table.append(String.format(Locale.ROOT, "     %-40s %7d ms%n", bean.name(), bean.durationMs()));
+            }
+        }
+        log.info(table.toString());
+    }
+
+    /**
+     * Eine gemessene Phase
+     */
+    public record Phase(String name, String kind, long offsetMs, long durationMs, String thread) {
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("name", name);
+            map.put("kind", kind);
+            map.put("offsetMs", offsetMs);
+            map.put("durationMs", durationMs);
+            map.put("thread", thread);
+            return map;
+        }
+    }
+}
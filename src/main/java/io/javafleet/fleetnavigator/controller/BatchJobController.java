@@ -0,0 +1,157 @@
+package io.javafleet.fleetnavigator.controller;
+
+import io.javafleet.fleetnavigator.dto.BatchJobRequest;
+import io.javafleet.fleetnavigator.model.BatchJob;
+import io.javafleet.fleetnavigator.service.BatchInferenceService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * REST API for offline batch inference jobs.
+ * Jobs run in the background while no interactive chat is active; results are
+ * written to a JSONL file that can be downloaded while the job is still running.
+ */
+@RestController
+@RequestMapping("/api/batch-jobs")
+@RequiredArgsConstructor
+@Slf4j
+public class BatchJobController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final BatchInferenceService batchInferenceService;
+
+    /**
+     * Submit a job with a list of prompts or items
+     */
+    @PostMapping
+    public ResponseEntity<?> submit(@RequestBody BatchJobRequest request) {
+        List<BatchInferenceService.BatchItem> items = new ArrayList<>();
+        if (request.getPrompts() != null) {
+            request.getPrompts().forEach(prompt -> items.add(new BatchInferenceService.BatchItem(null, prompt, null)));
+        }
+        if (request.getItems() != null) {
+            request.getItems().forEach(item -> items.add(
+                    new BatchInferenceService.BatchItem(item.getId(), item.getPrompt(), item.getSystem())));
+        }
+        try {
+            BatchJob job = batchInferenceService.submit(settings(request.getName(), request.getModel(),
+                    request.getSystemPrompt(), request.getTemperature(), request.getTopP(), request.getMaxTokens()), items);
+            return ResponseEntity.status(HttpStatus.CREATED).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            log.error("Failed to create batch job", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Submit a job from an uploaded JSONL file ({"id", "prompt", "system"} per line)
+     */
+    @PostMapping("/upload")
+    public ResponseEntity<?> upload(@RequestParam("file") MultipartFile file,
+                                    @RequestParam("model") String model,
+                                    @RequestParam(value = "name", required = false) String name,
+                                    @RequestParam(value = "systemPrompt", required = false) String systemPrompt,
+                                    @RequestParam(value = "temperature", required = false) Double temperature,
+                                    @RequestParam(value = "topP", required = false) Double topP,
+                                    @RequestParam(value = "maxTokens", required = false) Integer maxTokens) {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "File is empty"));
+        }
+        try (InputStream in = file.getInputStream()) {
+            BatchJob job = batchInferenceService.submitJsonl(settings(
+                    name != null ? name : file.getOriginalFilename(), model, systemPrompt, temperature, topP, maxTokens), in);
+            return ResponseEntity.status(HttpStatus.CREATED).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            log.error("Failed to create batch job from {}", file.getOriginalFilename(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<BatchJob>> getJobs() {
+        return ResponseEntity.ok(batchInferenceService.getJobs());
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(batchInferenceService.getStats());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<BatchJob> getJob(@PathVariable Long id) {
+        return batchInferenceService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{id}/pause")
+    public ResponseEntity<?> pause(@PathVariable Long id) {
+        return control(id, batchInferenceService::pause);
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<?> resume(@PathVariable Long id) {
+        return control(id, batchInferenceService::resume);
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<?> cancel(@PathVariable Long id) {
+        return control(id, batchInferenceService::cancel);
+    }
+
+    /**
+     * Results so far as JSONL (one object per finished item)
+     */
+    @GetMapping("/{id}/results")
+    public ResponseEntity<Resource> getResults(@PathVariable Long id) {
+        return batchInferenceService.getResultFile(id)
+                .<ResponseEntity<Resource>>map(path -> ResponseEntity.ok()
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"batch-" + id + "-results.jsonl\"")
+                        .contentType(NDJSON)
+                        .body(new FileSystemResource(path)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<?> control(Long id, Function<Long, Optional<BatchJob>> action) {
+        try {
+            return action.apply(id)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static BatchJob settings(String name, String model, String systemPrompt,
+                                     Double temperature, Double topP, Integer maxTokens) {
+        BatchJob job = new BatchJob();
+        job.setName(name);
+        job.setModel(model);
+        job.setSystemPrompt(systemPrompt);
+        job.setTemperature(temperature);
+        job.setTopP(topP);
+        job.setMaxTokens(maxTokens);
+        return job;
+    }
+}
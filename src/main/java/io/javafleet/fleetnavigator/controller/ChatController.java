@@ -1,16 +1,23 @@
 package io.javafleet.fleetnavigator.controller;
 
 import io.javafleet.fleetnavigator.dto.*;
+import io.javafleet.fleetnavigator.service.ChatExportService;
+import io.javafleet.fleetnavigator.service.ChatSearchIndex;
 import io.javafleet.fleetnavigator.service.ChatService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST Controller for chat operations
@@ -22,6 +29,8 @@ import java.util.List;
 public class ChatController {
 
     private final ChatService chatService;
+    private final ChatSearchIndex chatSearchIndex;
+    private final ChatExportService chatExportService;
 
     /**
      * POST /api/chat/send - Send a message (non-streaming)
@@ -81,6 +90,48 @@ public class ChatController {
         return ResponseEntity.ok(chats);
     }
 
+    /**
+     * GET /api/chat/search - Full-text search over messages, chat titles and document names
+     *
+     * sort=relevance (default, recent hits rank higher) or sort=recent; pass nextCursor
+     * from the previous page as cursor to continue
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchChats(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) Long chatId,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "relevance") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            ChatSearchIndex.Page page = chatSearchIndex.search(new ChatSearchIndex.SearchRequest(
+                    query, projectId, chatId, type, "recent".equalsIgnoreCase(sort), cursor, limit));
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/chat/search/status - Size and state of the chat search index
+     */
+    @GetMapping("/search/status")
+    public ResponseEntity<Map<String, Object>> getSearchStatus() {
+        return ResponseEntity.ok(chatSearchIndex.getStatus());
+    }
+
+    /**
+     * POST /api/chat/search/reindex - Rebuild the chat search index in the background
+     */
+    @PostMapping("/search/reindex")
+    public ResponseEntity<Map<String, Object>> reindexChats() {
+        log.info("Rebuilding chat search index");
+        chatSearchIndex.rebuild();
+        return ResponseEntity.accepted().body(chatSearchIndex.getStatus());
+    }
+
     /**
      * PATCH /api/chat/{chatId}/rename - Rename a chat
      */
@@ -171,7 +222,7 @@ public class ChatController {
      * POST /api/chat/{chatId}/expert-summary-pdf - Generate expert summary PDF
      */
     @PostMapping("/{chatId}/expert-summary-pdf")
-    public ResponseEntity<byte[]> generateExpertSummaryPdf(
+    public ResponseEntity<StreamingResponseBody> generateExpertSummaryPdf(
             @PathVariable Long chatId,
             @RequestBody java.util.Map<String, Long> request) {
         log.info("Generating expert summary PDF for chat: {}", chatId);
@@ -182,16 +233,17 @@ public class ChatController {
         }
 
         try {
-            byte[] pdfBytes = chatService.generateExpertSummaryPdf(chatId, expertId);
+            ChatService.ExpertSummary summary = chatService.generateExpertSummary(chatId, expertId);
 
             // Generate filename
             String filename = String.format("Abschlussbericht_%s.pdf",
                 java.time.LocalDate.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd")));
 
+            StreamingResponseBody body = out -> chatService.writeExpertSummaryPdf(summary, out);
             return ResponseEntity.ok()
                     .contentType(MediaType.APPLICATION_PDF)
                     .header("Content-Disposition", "attachment; filename=\"" + filename + "\"")
-                    .body(pdfBytes);
+                    .body(body);
 
         } catch (IllegalArgumentException e) {
             log.warn("Bad request for PDF generation: {}", e.getMessage());
@@ -201,4 +253,29 @@ public class ChatController {
             return ResponseEntity.internalServerError().build();
         }
     }
+
+    /**
+     * GET /api/chat/{chatId}/export?format=md|jsonl|pdf - Export a chat
+     * The file is streamed while messages are read page by page.
+     */
+    @GetMapping("/{chatId}/export")
+    public ResponseEntity<StreamingResponseBody> exportChat(
+            @PathVariable Long chatId,
+            @RequestParam(defaultValue = "md") String format) {
+        ChatExportService.ChatExport export;
+        try {
+            export = chatExportService.prepare(chatId, format);
+        } catch (IllegalArgumentException e) {
+            log.warn("Chat export rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        log.info("Exporting chat {} as {}", chatId, export.format());
+
+        StreamingResponseBody body = out -> chatExportService.write(export, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(export.format().getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(export.filename(), StandardCharsets.UTF_8).build().toString())
+                .body(body);
+    }
 }
@@ -3,6 +3,7 @@ package io.javafleet.fleetnavigator.controller;
 import io.javafleet.fleetnavigator.dto.GeneratedDownload;
 import io.javafleet.fleetnavigator.service.CodeGeneratorService;
 import io.javafleet.fleetnavigator.service.DocumentGeneratorService;
+import io.javafleet.fleetnavigator.service.DocumentRenderQueue;
 import io.javafleet.fleetnavigator.service.ZipService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +19,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.UUID;
@@ -35,6 +37,7 @@ public class DownloadController {
     private final CodeGeneratorService codeGeneratorService;
     private final ZipService zipService;
     private final DocumentGeneratorService documentGeneratorService;
+    private final DocumentRenderQueue documentRenderQueue;
 
     // In-memory store for download metadata (in production, use Redis or database)
     private final Map<String, GeneratedDownload> downloadRegistry = new ConcurrentHashMap<>();
@@ -184,6 +187,9 @@ public class DownloadController {
         try {
             log.info("Document download requested: {}", docId);
 
+            // Link is handed out before rendering finishes - wait for a queued document
+            documentRenderQueue.await(docId, Duration.ofSeconds(60));
+
             byte[] bytes = documentGeneratorService.getDocumentBytes(docId);
             if (bytes == null) {
                 log.warn("Document not found: {}", docId);
@@ -55,15 +55,17 @@ public class FileUploadController {
                 response.put("textContent", processedFile.getTextContent());
             }
 
-            if (processedFile.getBase64Content() != null) {
-                response.put("base64Content", processedFile.getBase64Content());
+            // Images stay on disk; the chat request sends the reference back as imageRefs
+            if (processedFile.getAttachmentRef() != null) {
+                response.put("attachmentRef", processedFile.getAttachmentRef());
             }
 
-            // For scanned PDFs: return page images for Vision analysis
-            if (processedFile.getPageImages() != null && !processedFile.getPageImages().isEmpty()) {
-                response.put("pageImages", processedFile.getPageImages());
-                response.put("pageCount", processedFile.getPageImages().size());
-                log.info("Scanned PDF with {} page images for Vision analysis", processedFile.getPageImages().size());
+            // For scanned PDFs: return page image references for Vision analysis
+            if (processedFile.getPageImageRefs() != null && !processedFile.getPageImageRefs().isEmpty()) {
+                response.put("pageImageRefs", processedFile.getPageImageRefs());
+                response.put("pageImageSizes", processedFile.getPageImageSizes());
+                response.put("pageCount", processedFile.getPageImageRefs().size());
+                log.info("Scanned PDF with {} page images for Vision analysis", processedFile.getPageImageRefs().size());
             }
 
             log.info("Datei erfolgreich hochgeladen: {} ({}, {} bytes)",
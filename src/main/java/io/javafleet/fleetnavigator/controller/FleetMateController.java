@@ -1,10 +1,12 @@
 package io.javafleet.fleetnavigator.controller;
 
 import io.javafleet.fleetnavigator.dto.*;
+import io.javafleet.fleetnavigator.llm.providers.MateInferenceProvider;
 import io.javafleet.fleetnavigator.service.CommandExecutionService;
 import io.javafleet.fleetnavigator.service.FleetMateService;
 import io.javafleet.fleetnavigator.service.FleetMateService.MateInfo;
 import io.javafleet.fleetnavigator.service.LogAnalysisService;
+import io.javafleet.fleetnavigator.service.MateTransferService;
 import io.javafleet.fleetnavigator.service.OllamaService;
 import io.javafleet.fleetnavigator.websocket.FleetMateWebSocketHandler;
 import lombok.RequiredArgsConstructor;
@@ -31,6 +33,8 @@ public class FleetMateController {
     private final LogAnalysisService logAnalysisService;
     private final CommandExecutionService commandExecutionService;
     private final OllamaService ollamaService;
+    private final MateTransferService transferService;
+    private final MateInferenceProvider inferenceProvider;
 
     /**
      * Get all registered mates
@@ -145,6 +149,22 @@ public class FleetMateController {
         ));
     }
 
+    /**
+     * Outbound WebSocket queue statistics per connected mate (buffered bytes, rejected sends)
+     */
+    @GetMapping("/outbound-stats")
+    public ResponseEntity<Map<String, Object>> getOutboundStats() {
+        return ResponseEntity.ok(webSocketHandler.getOutboundStats());
+    }
+
+    /**
+     * Mates offering remote inference (loaded model, slots, current load)
+     */
+    @GetMapping("/inference-workers")
+    public ResponseEntity<List<Map<String, Object>>> getInferenceWorkers() {
+        return ResponseEntity.ok(inferenceProvider.getWorkerStatus());
+    }
+
     /**
      * Start AI-powered log analysis
      * Mate will read log file and send to Navigator, which then analyzes with Ollama
@@ -176,6 +196,25 @@ public class FleetMateController {
         payload.put("mode", request.getMode() != null ? request.getMode() : "smart");
         payload.put("lines", request.getLines() != null ? request.getLines() : 1000);
 
+        // Offer chunked transfer - mates without support keep using log_data/log_complete
+        try {
+            MateTransferService.Transfer transfer = transferService.expectTransfer(sessionId, mateId, "log")
+                    .onProgress(progress -> logAnalysisService.sendProgress(sessionId, progress / 2.0)) // Reading is 0-50%
+                    .onData(data -> logAnalysisService.appendLogData(sessionId, data))
+                    .onRestart(() -> logAnalysisService.resetLogData(sessionId));
+            transfer.getCompletion().whenComplete((done, ex) -> {
+                if (ex == null) {
+                    logAnalysisService.updateSessionWithLogContent(sessionId, done.getSpool());
+                } else if (transfer.isStarted()) {
+                    // Legacy mates never start the transfer and deliver via log_data instead
+                    logAnalysisService.failLogContent(sessionId, ex);
+                }
+            });
+            payload.put("transfer", transferService.buildTransferOffer(sessionId));
+        } catch (java.io.IOException e) {
+            log.warn("Chunked transfer not available for session {}: {}", sessionId, e.getMessage());
+        }
+
         MateCommand command = new MateCommand();
         command.setType("read_log");
         command.setPayload(payload);
@@ -199,8 +238,11 @@ public class FleetMateController {
         // 10 minute timeout for large log analysis
         SseEmitter emitter = new SseEmitter(600000L);
 
-        // Set completion callback
-        emitter.onCompletion(() -> log.debug("SSE stream completed for session: {}", sessionId));
+        // Set completion callback - also ends the session if the client disconnected
+        emitter.onCompletion(() -> {
+            log.debug("SSE stream completed for session: {}", sessionId);
+            logAnalysisService.closeSession(sessionId);
+        });
 
         // Set timeout callback
         emitter.onTimeout(() -> {
@@ -212,10 +254,14 @@ public class FleetMateController {
             } catch (Exception e) {
                 log.error("Failed to send timeout event", e);
             }
+            logAnalysisService.closeSession(sessionId);
         });
 
         // Set error callback
-        emitter.onError(ex -> log.error("SSE stream error for session: {}", sessionId, ex));
+        emitter.onError(ex -> {
+            log.error("SSE stream error for session: {}", sessionId, ex);
+            logAnalysisService.closeSession(sessionId);
+        });
 
         // Register emitter for progress updates
         logAnalysisService.registerEmitter(sessionId, emitter);
@@ -1,5 +1,7 @@
 package io.javafleet.fleetnavigator.controller;
 
+import io.javafleet.fleetnavigator.llm.GgufVocabulary;
+import io.javafleet.fleetnavigator.llm.SpeculativeDecoding;
 import io.javafleet.fleetnavigator.model.GgufModelConfig;
 import io.javafleet.fleetnavigator.repository.GgufModelConfigRepository;
 import lombok.RequiredArgsConstructor;
@@ -11,9 +13,11 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * REST API for managing GGUF model configurations.
@@ -26,6 +30,7 @@ import java.util.Map;
 public class GgufModelConfigController {
 
     private final GgufModelConfigRepository ggufModelConfigRepository;
+    private final SpeculativeDecoding speculativeDecoding;
 
     /**
      * Get all GGUF model configurations
@@ -70,6 +75,11 @@ public class GgufModelConfigController {
             return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         }
 
+        Optional<String> draftError = checkDraftModel(config);
+        if (draftError.isPresent()) {
+            return ResponseEntity.badRequest().body(Map.of("error", draftError.get()));
+        }
+
         // If this is marked as default, unset other defaults
         if (Boolean.TRUE.equals(config.getIsDefault())) {
             ggufModelConfigRepository.findByIsDefaultTrue().ifPresent(existing -> {
@@ -124,6 +134,10 @@ public class GgufModelConfigController {
                         error.put("error", "Model configuration with name '" + config.getName() + "' already exists");
                         return ResponseEntity.status(HttpStatus.CONFLICT).body((Object) error);
                     }
+                    Optional<String> draftError = checkDraftModel(config);
+                    if (draftError.isPresent()) {
+                        return ResponseEntity.badRequest().body((Object) Map.of("error", draftError.get()));
+                    }
 
                     // Update fields
                     existing.setName(config.getName());
@@ -137,6 +151,11 @@ public class GgufModelConfigController {
                     existing.setRepeatPenalty(config.getRepeatPenalty());
                     existing.setMaxTokens(config.getMaxTokens());
                     existing.setDescription(config.getDescription());
+                    existing.setDraftModel(config.getDraftModel());
+                    existing.setDraftMax(config.getDraftMax());
+                    existing.setDraftMin(config.getDraftMin());
+                    existing.setDraftPMin(config.getDraftPMin());
+                    existing.setDraftGpuLayers(config.getDraftGpuLayers());
 
                     // Handle default flag
                     if (Boolean.TRUE.equals(config.getIsDefault()) && !existing.getIsDefault()) {
@@ -198,4 +217,58 @@ public class GgufModelConfigController {
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    /**
+     * Check whether the configured draft model can be paired with the base model
+     */
+    @GetMapping("/{id}/draft-check")
+    public ResponseEntity<Map<String, Object>> checkDraft(@PathVariable Long id) {
+        return ggufModelConfigRepository.findById(id)
+                .map(config -> {
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("baseModel", config.getBaseModel());
+                    result.put("draftModel", config.getDraftModel());
+                    Optional<Path> main = speculativeDecoding.resolveModel(config.getBaseModel(), null);
+                    Optional<Path> draft = config.getDraftModel() == null || config.getDraftModel().isBlank()
+                            ? Optional.empty()
+                            : speculativeDecoding.resolveModel(config.getDraftModel(), main.orElse(null));
+                    if (main.isEmpty() || draft.isEmpty()) {
+                        result.put("compatible", false);
+                        result.put("reason", main.isEmpty() ? "Base model file not found" : "Draft model file not found");
+                    } else {
+                        GgufVocabulary.Compatibility compatibility = speculativeDecoding.check(main.get(), draft.get());
+                        result.put("compatible", compatibility.compatible());
+                        result.put("reason", compatibility.reason());
+                    }
+                    return ResponseEntity.ok(result);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Draft acceptance rate per model pairing (speculative decoding)
+     */
+    @GetMapping("/speculative-stats")
+    public ResponseEntity<List<Map<String, Object>>> getSpeculativeStats() {
+        return ResponseEntity.ok(speculativeDecoding.getStats());
+    }
+
+    /**
+     * Rejects a draft model whose vocabulary doesn't match the base model.
+     * Files that aren't downloaded yet are accepted and checked again when the model loads.
+     */
+    private Optional<String> checkDraftModel(GgufModelConfig config) {
+        if (config.getDraftModel() == null || config.getDraftModel().isBlank()) {
+            return Optional.empty();
+        }
+        Optional<Path> main = speculativeDecoding.resolveModel(config.getBaseModel(), null);
+        Optional<Path> draft = speculativeDecoding.resolveModel(config.getDraftModel(), main.orElse(null));
+        if (main.isEmpty() || draft.isEmpty()) {
+            return Optional.empty();
+        }
+        GgufVocabulary.Compatibility compatibility = speculativeDecoding.check(main.get(), draft.get());
+        return compatibility.compatible()
+                ? Optional.empty()
+                : Optional.of("Draft model is not compatible: " + compatibility.reason());
+    }
 }
@@ -8,7 +8,9 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Map;
@@ -38,41 +40,48 @@ public class PdfExportController {
      * }
      */
     @PostMapping("/export-pdf")
-    public ResponseEntity<byte[]> exportPdf(@RequestBody Map<String, String> request) {
-        try {
-            String content = request.get("content");
-            String mateId = request.getOrDefault("mateId", "unknown");
-            String logPath = request.getOrDefault("logPath", "unknown");
-            String sessionId = request.getOrDefault("sessionId", "unknown");
-
-            if (content == null || content.isEmpty()) {
-                return ResponseEntity.badRequest().build();
-            }
-
-            log.info("Generating PDF export for session: {}", sessionId);
-
-            // Generate PDF
-            byte[] pdfBytes = pdfExportService.generatePdfReport(content, sessionId, mateId, logPath);
-
-            // Create filename with timestamp
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            String filename = String.format("log-analysis_%s_%s.pdf", mateId, timestamp);
-
-            // Return PDF as download
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(pdfBytes.length);
+    public ResponseEntity<StreamingResponseBody> exportPdf(@RequestBody Map<String, String> request) {
+        String content = request.get("content");
+        String mateId = request.getOrDefault("mateId", "unknown");
+        String logPath = request.getOrDefault("logPath", "unknown");
+        String sessionId = request.getOrDefault("sessionId", "unknown");
 
-            log.info("PDF exported successfully: {} ({} bytes)", filename, pdfBytes.length);
+        if (content == null || content.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
 
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(pdfBytes);
+        log.info("Generating PDF export for session: {}", sessionId);
 
+        // Parse and render the markdown before anything is committed - errors still get a 500
+        PdfExportService.Report report;
+        try {
+            report = pdfExportService.prepareReport(content, sessionId, mateId, logPath);
         } catch (Exception e) {
             log.error("Failed to export PDF", e);
             return ResponseEntity.status(500).build();
         }
+
+        // Create filename with timestamp
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        String filename = String.format("log-analysis_%s_%s.pdf", mateId, timestamp);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", filename);
+
+        // PDF pages are written to the response while the report is laid out. A layout failure
+        // after the 200 is propagated so the container aborts the connection - the client sees
+        // an incomplete download instead of a truncated PDF that looks complete.
+        StreamingResponseBody body = out -> {
+            try {
+                pdfExportService.writePdfReport(report, out);
+            } catch (RuntimeException e) {
+                log.error("PDF export for session {} failed after the response was committed, aborting", sessionId);
+                throw new IOException("PDF export aborted", e);
+            }
+        };
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
     }
 }
@@ -3,6 +3,8 @@ package io.javafleet.fleetnavigator.controller;
 import io.javafleet.fleetnavigator.dto.RAGRequest;
 import io.javafleet.fleetnavigator.dto.RAGResponse;
 import io.javafleet.fleetnavigator.service.FleetMateService;
+import io.javafleet.fleetnavigator.service.MateContentCache;
+import io.javafleet.fleetnavigator.service.MateRpcService;
 import io.javafleet.fleetnavigator.service.RAGService;
 import io.javafleet.fleetnavigator.websocket.FleetMateWebSocketHandler;
 import lombok.RequiredArgsConstructor;
@@ -28,6 +30,8 @@ public class RAGController {
     private final RAGService ragService;
     private final FleetMateService fleetMateService;
     private final FleetMateWebSocketHandler webSocketHandler;
+    private final MateRpcService rpcService;
+    private final MateContentCache contentCache;
 
     // ==================== Search Files ====================
 
@@ -78,6 +82,40 @@ public class RAGController {
         return searchFiles(request);
     }
 
+    /**
+     * Search the same query on several mates concurrently (all online mates if none given)
+     */
+    @PostMapping("/search-all")
+    public ResponseEntity<?> searchFilesOnMates(
+            @RequestBody RAGRequest.SearchFiles request,
+            @RequestParam(required = false) List<String> mateIds
+    ) {
+        List<String> targets = mateIds != null && !mateIds.isEmpty()
+                ? mateIds.stream().filter(webSocketHandler::isMateConnected).collect(Collectors.toList())
+                : List.copyOf(webSocketHandler.getActiveMateIds());
+
+        log.info("RAG fan-out search: {} mates, query='{}'", targets.size(), request.getQuery());
+
+        if (targets.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Keine Mates verbunden"));
+        }
+
+        try {
+            Map<String, RAGResponse.SearchFilesResponse> results = ragService.searchFilesOnMates(targets, request).join();
+            return ResponseEntity.ok(Map.of(
+                    "results", results,
+                    "mates", targets.size(),
+                    "responded", results.size()
+            ));
+
+        } catch (Exception e) {
+            log.error("Fan-out search failed: {}", e.getMessage());
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "error", "Suche fehlgeschlagen: " + e.getMessage()
+            ));
+        }
+    }
+
     // ==================== Read File ====================
 
     /**
@@ -130,6 +168,34 @@ public class RAGController {
         return readFile(request);
     }
 
+    /**
+     * Read several files from one Mate in a single round-trip
+     */
+    @PostMapping("/read-batch")
+    public ResponseEntity<?> readFiles(
+            @RequestParam String mateId,
+            @RequestParam(defaultValue = "50000") int maxLength,
+            @RequestBody List<String> paths
+    ) {
+        log.info("RAG batch read request: mateId={}, {} files", mateId, paths.size());
+
+        if (!webSocketHandler.isMateConnected(mateId)) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Mate nicht verbunden: " + mateId
+            ));
+        }
+
+        try {
+            return ResponseEntity.ok(ragService.readFiles(mateId, paths, maxLength).join());
+
+        } catch (Exception e) {
+            log.error("Batch read failed: {}", e.getMessage());
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "error", "Lesen fehlgeschlagen: " + e.getMessage()
+            ));
+        }
+    }
+
     // ==================== Context Management ====================
 
     /**
@@ -292,6 +358,22 @@ public class RAGController {
 
     // ==================== Status ====================
 
+    /**
+     * Latency histograms per mate command type and per-mate in-flight counts
+     */
+    @GetMapping("/rpc-stats")
+    public ResponseEntity<?> getRpcStats() {
+        return ResponseEntity.ok(rpcService.getLatencyStats());
+    }
+
+    /**
+     * Hit rates and size of the mate file/search cache
+     */
+    @GetMapping("/cache-stats")
+    public ResponseEntity<?> getCacheStats() {
+        return ResponseEntity.ok(contentCache.getStats());
+    }
+
     /**
      * Get RAG-capable mates (online mates with RAG support)
      */
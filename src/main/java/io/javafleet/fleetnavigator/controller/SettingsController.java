@@ -6,7 +6,6 @@ import io.javafleet.fleetnavigator.service.SettingsService;
 import io.javafleet.fleetnavigator.service.LLMProviderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.CacheManager;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,7 +22,6 @@ public class SettingsController {
 
     private final SettingsService settingsService;
     private final LLMProviderService llmProviderService;
-    private final CacheManager cacheManager;
 
     /**
      * Get model selection settings.
@@ -42,16 +40,9 @@ public class SettingsController {
             @RequestBody ModelSelectionSettingsDTO settings) {
         log.info("PUT /api/settings/model-selection: {}", settings);
 
-        // Update settings
+        // Routing reads the settings per request, so they apply immediately
         ModelSelectionSettingsDTO updated = settingsService.updateModelSelectionSettings(settings);
 
-        // Clear model selection cache to apply new settings immediately
-        var cache = cacheManager.getCache("modelSelection");
-        if (cache != null) {
-            cache.clear();
-            log.info("Cleared modelSelection cache to apply new settings");
-        }
-
         return ResponseEntity.ok(updated);
     }
 
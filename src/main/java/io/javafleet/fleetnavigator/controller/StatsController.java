@@ -2,14 +2,24 @@ package io.javafleet.fleetnavigator.controller;
 
 import io.javafleet.fleetnavigator.dto.StatsResponse;
 import io.javafleet.fleetnavigator.service.ChatService;
+import io.javafleet.fleetnavigator.service.InferenceTelemetry;
+import io.javafleet.fleetnavigator.service.ModelSelectionService;
+import io.javafleet.fleetnavigator.service.RequestTracer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
 /**
  * REST Controller for statistics
  */
@@ -20,6 +30,9 @@ import org.springframework.web.bind.annotation.RestController;
 public class StatsController {
 
     private final ChatService chatService;
+    private final InferenceTelemetry inferenceTelemetry;
+    private final RequestTracer requestTracer;
+    private final ModelSelectionService modelSelectionService;
 
     /**
      * GET /api/stats/global - Get global statistics
@@ -40,4 +53,51 @@ public class StatsController {
         StatsResponse stats = chatService.getChatStats(chatId);
         return ResponseEntity.ok(stats);
     }
+
+    /**
+     * GET /api/stats/inference - Latency and throughput per provider/model (dashboard)
+     */
+    @GetMapping("/inference")
+    public ResponseEntity<Map<String, Object>> getInferenceStats() {
+        return ResponseEntity.ok(inferenceTelemetry.getDashboard());
+    }
+
+    /**
+     * GET /api/stats/prometheus - Inference and cache metrics in Prometheus text format
+     */
+    @GetMapping("/prometheus")
+    public ResponseEntity<String> getPrometheusMetrics() throws IOException {
+        StringWriter out = new StringWriter();
+        inferenceTelemetry.writePrometheus(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/plain; version=0.0.4; charset=utf-8"))
+                .body(out.toString());
+    }
+
+    /**
+     * GET /api/stats/traces - Slowest recent chat requests with their phase timings
+     */
+    @GetMapping("/traces")
+    public ResponseEntity<List<Map<String, Object>>> getSlowestTraces(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(requestTracer.getSlowest(Math.max(1, Math.min(limit, 200))));
+    }
+
+    /**
+     * GET /api/stats/traces/{traceId} - One trace as OTLP/JSON (for Jaeger/Tempo import)
+     */
+    @GetMapping("/traces/{traceId}")
+    public ResponseEntity<Map<String, Object>> getTrace(@PathVariable String traceId) {
+        return requestTracer.getOtlp(traceId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * GET /api/stats/model-routing - Recent model routing decisions with the scored candidates
+     */
+    @GetMapping("/model-routing")
+    public ResponseEntity<List<ModelSelectionService.RoutingDecision>> getModelRouting(
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(modelSelectionService.getRecentDecisions(Math.max(1, Math.min(limit, 200))));
+    }
 }
@@ -2,9 +2,13 @@ package io.javafleet.fleetnavigator.controller;
 
 import io.javafleet.fleetnavigator.config.FleetPathsConfiguration;
 import io.javafleet.fleetnavigator.config.LlamaServerAutoStartListener;
+import io.javafleet.fleetnavigator.config.StartupReport;
 import io.javafleet.fleetnavigator.dto.SystemStatus;
 import io.javafleet.fleetnavigator.llm.dto.ModelInfo;
 import io.javafleet.fleetnavigator.model.DbSizeHistory;
+import io.javafleet.fleetnavigator.service.ChatArchiveService;
+import io.javafleet.fleetnavigator.service.ContentBlobStore;
+import io.javafleet.fleetnavigator.service.DocumentRenderQueue;
 import io.javafleet.fleetnavigator.service.LLMProviderService;
 import io.javafleet.fleetnavigator.service.LlamaServerProcessManager;
 import io.javafleet.fleetnavigator.service.SystemService;
@@ -13,6 +17,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -21,6 +26,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 /**
@@ -37,6 +44,10 @@ public class SystemController {
     private final FleetPathsConfiguration pathsConfig;
     private final LlamaServerAutoStartListener llamaServerAutoStart;
     private final LlamaServerProcessManager llamaServerManager;
+    private final ContentBlobStore contentBlobStore;
+    private final DocumentRenderQueue documentRenderQueue;
+    private final StartupReport startupReport;
+    private final ChatArchiveService chatArchiveService;
 
     @Value("${fleet-navigator.version:0.5.0}")
     private String appVersion;
@@ -93,6 +104,48 @@ public class SystemController {
 
     public record DbSizeHistoryResponse(Long id, long sizeBytes, String formatted, LocalDateTime recordedAt) {}
 
+    /**
+     * GET /api/system/blob-store - Document blob store statistics (dedup, compression, segments)
+     */
+    @GetMapping("/blob-store")
+    public ResponseEntity<Map<String, Object>> getBlobStoreStats() {
+        return ResponseEntity.ok(contentBlobStore.getStats());
+    }
+
+    /**
+     * GET /api/system/archive - Chat cold storage: archived chats, segments, last run and reclaimed space
+     */
+    @GetMapping("/archive")
+    public ResponseEntity<Map<String, Object>> getArchiveStats() {
+        return ResponseEntity.ok(chatArchiveService.getStats());
+    }
+
+    /**
+     * POST /api/system/archive/run - Archive idle chats and compact the database now (in the background)
+     */
+    @PostMapping("/archive/run")
+    public ResponseEntity<Map<String, Object>> runArchive() {
+        log.info("Chat archive run requested");
+        CompletableFuture.runAsync(chatArchiveService::run);
+        return ResponseEntity.accepted().body(Map.of("started", true));
+    }
+
+    /**
+     * GET /api/system/document-queue - Background document rendering statistics
+     */
+    @GetMapping("/document-queue")
+    public ResponseEntity<Map<String, Object>> getDocumentQueueStats() {
+        return ResponseEntity.ok(documentRenderQueue.getStats());
+    }
+
+    /**
+     * GET /api/system/startup - Startup phases, slowest beans and deferred subsystems
+     */
+    @GetMapping("/startup")
+    public ResponseEntity<Map<String, Object>> getStartupReport() {
+        return ResponseEntity.ok(startupReport.getReport());
+    }
+
     /**
      * GET /api/system/version - Get application version for cache invalidation
      * Frontend uses this to detect version changes and clear browser cache
@@ -0,0 +1,27 @@
+package io.javafleet.fleetnavigator.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Request DTO for submitting a batch inference job
+ */
+@Data
+public class BatchJobRequest {
+    private String name;
+    private String model;
+    private String systemPrompt;
+    private Double temperature;
+    private Double topP;
+    private Integer maxTokens;
+    private List<String> prompts;  // Einfache Variante: nur Prompts, IDs = Position
+    private List<Item> items;      // Oder Items mit eigener ID und optionalem System-Prompt
+
+    @Data
+    public static class Item {
+        private String id;
+        private String prompt;
+        private String system;
+    }
+}
@@ -16,6 +16,7 @@ public class ChatDTO {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private List<MessageDTO> messages;
+    private boolean archived; // Messages are in cold storage until the chat is opened
     private Integer totalTokens;
     private Long projectId; // ID of associated project (if any)
     private String projectName; // Name of associated project (if any)
@@ -21,6 +21,9 @@ public class ChatRequest {
     // For Vision models: Base64 encoded images
     private List<String> images;
 
+    // For Vision models: uploaded images by AttachmentStore reference (resolved to Base64 when sending)
+    private List<String> imageRefs;
+
     // For documents: Extracted text content
     private String documentContext;
 
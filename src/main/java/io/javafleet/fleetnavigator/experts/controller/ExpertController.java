@@ -3,6 +3,7 @@ package io.javafleet.fleetnavigator.experts.controller;
 import io.javafleet.fleetnavigator.experts.dto.*;
 import io.javafleet.fleetnavigator.experts.model.Expert;
 import io.javafleet.fleetnavigator.experts.model.ExpertMode;
+import io.javafleet.fleetnavigator.experts.runtime.ExpertRuntimeFactory;
 import io.javafleet.fleetnavigator.experts.service.ExpertSystemService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -44,6 +45,7 @@ import java.util.UUID;
 public class ExpertController {
 
     private final ExpertSystemService expertService;
+    private final ExpertRuntimeFactory expertRuntimeFactory;
 
     // Erlaubte Bildformate
     private static final Set<String> ALLOWED_CONTENT_TYPES = Set.of(
@@ -94,6 +96,7 @@ public class ExpertController {
     public ResponseEntity<?> createExpert(@RequestBody CreateExpertRequest request) {
         try {
             Expert expert = expertService.createExpert(request);
+            expertRuntimeFactory.refreshExpert(expert.getId());
             return ResponseEntity.ok(expert);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest()
@@ -112,6 +115,7 @@ public class ExpertController {
     public ResponseEntity<?> updateExpert(@PathVariable Long id, @RequestBody CreateExpertRequest request) {
         try {
             Expert expert = expertService.updateExpert(id, request);
+            expertRuntimeFactory.refreshExpert(id);
             return ResponseEntity.ok(expert);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest()
@@ -130,6 +134,7 @@ public class ExpertController {
     public ResponseEntity<?> deleteExpert(@PathVariable Long id) {
         try {
             expertService.deleteExpert(id);
+            expertRuntimeFactory.evictProfiles();
             return ResponseEntity.ok(Map.of("message", "Experte gelöscht"));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest()
@@ -164,6 +169,7 @@ public class ExpertController {
     public ResponseEntity<?> addModeToExpert(@PathVariable Long id, @RequestBody CreateExpertModeRequest request) {
         try {
             ExpertMode mode = expertService.addModeToExpert(id, request);
+            expertRuntimeFactory.refreshExpert(id);
             return ResponseEntity.ok(mode);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest()
@@ -182,6 +188,7 @@ public class ExpertController {
     public ResponseEntity<?> updateMode(@PathVariable Long modeId, @RequestBody CreateExpertModeRequest request) {
         try {
             ExpertMode mode = expertService.updateMode(modeId, request);
+            expertRuntimeFactory.refreshExpert(mode.getExpertId());
             return ResponseEntity.ok(mode);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest()
@@ -200,6 +207,7 @@ public class ExpertController {
     public ResponseEntity<?> deleteMode(@PathVariable Long modeId) {
         try {
             expertService.deleteMode(modeId);
+            expertRuntimeFactory.evictProfiles();
             return ResponseEntity.ok(Map.of("message", "Modus gelöscht"));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest()
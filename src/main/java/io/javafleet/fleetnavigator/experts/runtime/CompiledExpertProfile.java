@@ -0,0 +1,130 @@
+package io.javafleet.fleetnavigator.experts.runtime;
+
+import io.javafleet.fleetnavigator.experts.model.Expert;
+import io.javafleet.fleetnavigator.experts.model.ExpertMode;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Vorkompiliertes Profil eines Experten für die Modus-Erkennung
+ *
+ * Wird einmal beim Speichern des Experten (bzw. beim ersten Zugriff) gebaut und in der
+ * {@link ExpertRuntimeFactory} gecacht:
+ * - aktive Modi in Prioritätsreihenfolge (priority absteigend, dann Name)
+ * - ein {@link KeywordAutomaton} über alle Keywords aller Modi
+ * - fertig gerenderte System-Prompts pro Modus (Basis-Prompt + Modus-Zusatz)
+ *
+ * Die Modus-Erkennung ist damit ein linearer Durchlauf über die Nachricht ohne DB-Zugriff.
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+public final class CompiledExpertProfile {
+
+    private final Long expertId;
+    private final String basePrompt;
+    private final List<ExpertMode> modes;
+    private final Map<Long, ExpertMode> modesById = new HashMap<>();
+    private final Map<Long, String> promptsByModeId = new HashMap<>();
+    private final KeywordAutomaton keywords;
+
+    private CompiledExpertProfile(Expert expert, List<ExpertMode> modes) {
+        this.expertId = expert.getId();
+        this.basePrompt = expert.getBasePrompt() != null ? expert.getBasePrompt() : "";
+        this.modes = modes;
+
+        Map<String, Integer> keywordRanks = new LinkedHashMap<>();
+        for (int rank = 0; rank < modes.size(); rank++) {
+            ExpertMode mode = modes.get(rank);
+            modesById.put(mode.getId(), mode);
+            promptsByModeId.put(mode.getId(), renderSystemPrompt(basePrompt, mode));
+            for (String keyword : mode.getKeywordsArray()) {
+                String trimmed = keyword.trim().toLowerCase();
+                if (!trimmed.isEmpty()) {
+                    keywordRanks.merge(trimmed, rank, Math::min);
+                }
+            }
+        }
+        this.keywords = KeywordAutomaton.build(keywordRanks);
+    }
+
+    /**
+     * Kompiliert das Profil aus dem Experten und seinen (eager geladenen) Modi
+     */
+    public static CompiledExpertProfile compile(Expert expert) {
+        List<ExpertMode> active = expert.getModes() == null ? List.of() : expert.getModes().stream()
+                .filter(mode -> Boolean.TRUE.equals(mode.getActive()))
+                .sorted(Comparator.comparing((ExpertMode mode) -> mode.getPriority() != null ? mode.getPriority() : 0)
+                        .reversed()
+                        .thenComparing(ExpertMode::getName, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        return new CompiledExpertProfile(expert, active);
+    }
+
+    /**
+     * System-Prompt: Basis-Prompt des Experten + Zusatz des Modus
+     */
+    public static String renderSystemPrompt(String basePrompt, ExpertMode mode) {
+        StringBuilder prompt = new StringBuilder(basePrompt);
+        if (mode != null && mode.getPromptAddition() != null && !mode.getPromptAddition().isBlank()) {
+            prompt.append("\n\n=== AKTUELLER MODUS: ")
+                  .append(mode.getName())
+                  .append(" ===\n")
+                  .append(mode.getPromptAddition());
+        }
+        return prompt.toString();
+    }
+
+    public Long getExpertId() {
+        return expertId;
+    }
+
+    public boolean hasModes() {
+        return !modes.isEmpty();
+    }
+
+    /**
+     * Aktive Modi in Prioritätsreihenfolge
+     */
+    public List<ExpertMode> getModes() {
+        return modes;
+    }
+
+    /**
+     * Höchstpriorisierter Modus, dessen Keyword in der Nachricht vorkommt
+     */
+    public Optional<ExpertMode> detect(String message) {
+        if (message == null || modes.isEmpty()) {
+            return Optional.empty();
+        }
+        int rank = keywords.bestMatch(message);
+        return rank == KeywordAutomaton.NO_MATCH ? Optional.empty() : Optional.of(modes.get(rank));
+    }
+
+    /**
+     * Aktiver Modus nach ID (inaktive oder fremde Modi: empty)
+     */
+    public Optional<ExpertMode> getMode(Long modeId) {
+        return modeId == null ? Optional.empty() : Optional.ofNullable(modesById.get(modeId));
+    }
+
+    /**
+     * Vorgerenderter System-Prompt für den Modus (null = nur Basis-Prompt)
+     */
+    public String getSystemPrompt(ExpertMode mode) {
+        if (mode == null) {
+            return basePrompt;
+        }
+        String prompt = promptsByModeId.get(mode.getId());
+        return prompt != null ? prompt : renderSystemPrompt(basePrompt, mode);
+    }
+
+    int getKeywordStates() {
+        return keywords.stateCount();
+    }
+}
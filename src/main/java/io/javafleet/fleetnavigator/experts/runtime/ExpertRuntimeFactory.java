@@ -27,6 +27,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * - Auflösung des richtigen LLM-Providers
  * - Auflösung des Modell-Pfades (GGUF)
  * - Caching von ExpertRuntime-Instanzen
+ * - Caching der kompilierten Profile (Modus-Erkennung, System-Prompts)
  *
  * @author JavaFleet Systems Consulting
  * @since 0.5.1
@@ -46,6 +47,9 @@ public class ExpertRuntimeFactory {
     // Cache für ExpertRuntime (Key: expertId_modeId_cpuOnly)
     private final Map<String, ExpertRuntime> runtimeCache = new ConcurrentHashMap<>();
 
+    // Kompilierte Profile pro Experte (neu gebaut beim Speichern über den ExpertController)
+    private final Map<Long, CompiledExpertProfile> profileCache = new ConcurrentHashMap<>();
+
     /**
      * Erstellt oder holt gecachte ExpertRuntime für einen Experten.
      *
@@ -103,6 +107,47 @@ public class ExpertRuntimeFactory {
         return Optional.of(runtime);
     }
 
+    /**
+     * Kompiliertes Profil eines Experten (beim ersten Zugriff gebaut, danach aus dem Cache)
+     *
+     * @return Profil oder empty wenn Experte nicht gefunden
+     */
+    public Optional<CompiledExpertProfile> getProfile(Long expertId) {
+        if (expertId == null) {
+            return Optional.empty();
+        }
+        CompiledExpertProfile cached = profileCache.get(expertId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return expertRepository.findById(expertId).map(this::compileProfile);
+    }
+
+    /**
+     * Profil neu kompilieren und Runtime-Cache verwerfen (nach Speichern von Experte oder Modus)
+     */
+    public void refreshExpert(Long expertId) {
+        clearCacheForExpert(expertId);
+        profileCache.remove(expertId);
+        expertRepository.findById(expertId).ifPresent(this::compileProfile);
+    }
+
+    /**
+     * Experte gelöscht oder Zuordnung unbekannt: alle Profile verwerfen (werden bei Bedarf neu gebaut)
+     */
+    public void evictProfiles() {
+        profileCache.clear();
+        runtimeCache.clear();
+    }
+
+    private CompiledExpertProfile compileProfile(Expert expert) {
+        CompiledExpertProfile profile = CompiledExpertProfile.compile(expert);
+        profileCache.put(expert.getId(), profile);
+        log.debug("🎓 Profil für {} kompiliert: {} aktive Modi, {} Keyword-Zustände",
+            expert.getName(), profile.getModes().size(), profile.getKeywordStates());
+        return profile;
+    }
+
     /**
      * Erstellt ExpertRuntime ohne Caching (für einmalige Verwendung)
      */
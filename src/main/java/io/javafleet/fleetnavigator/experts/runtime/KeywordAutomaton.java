@@ -0,0 +1,147 @@
+package io.javafleet.fleetnavigator.experts.runtime;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick-Automat über Keywords mit Rang
+ *
+ * Findet in einem Durchlauf über den Text das Keyword mit dem kleinsten Rang, das als
+ * Teilstring vorkommt (Groß-/Kleinschreibung egal). Der Rang ist die Position des Modus
+ * in der Prioritätsreihenfolge; damit gewinnt wie bisher der höchstpriorisierte Modus,
+ * unabhängig davon, wo im Text sein Keyword steht.
+ *
+ * Nach dem Aufbau unveränderlich und damit thread-sicher.
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+final class KeywordAutomaton {
+
+    static final int NO_MATCH = Integer.MAX_VALUE;
+
+    // Übergänge pro Zustand: sortierte Zeichen + Zielzustände (binäre Suche)
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] fail;
+    // Kleinster Rang aller Keywords, die in diesem Zustand enden (inkl. Suffixe über fail-Links)
+    private final int[] bestRank;
+
+    private KeywordAutomaton(char[][] edgeChars, int[][] edgeTargets, int[] fail, int[] bestRank) {
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.bestRank = bestRank;
+    }
+
+    /**
+     * Baut den Automaten
+     *
+     * @param keywords Keyword → Rang (kleiner = wichtiger); leere Keywords werden ignoriert
+     */
+    static KeywordAutomaton build(Map<String, Integer> keywords) {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> ranks = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        ranks.add(NO_MATCH);
+
+        for (Map.Entry<String, Integer> entry : keywords.entrySet()) {
+            String keyword = entry.getKey();
+            if (keyword == null || keyword.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = Character.toLowerCase(keyword.charAt(i));
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    ranks.add(NO_MATCH);
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            ranks.set(state, Math.min(ranks.get(state), entry.getValue()));
+        }
+
+        int size = trie.size();
+        char[][] edgeChars = new char[size][];
+        int[][] edgeTargets = new int[size][];
+        for (int state = 0; state < size; state++) {
+            TreeMap<Character, Integer> edges = trie.get(state);
+            edgeChars[state] = new char[edges.size()];
+            edgeTargets[state] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                edgeChars[state][i] = edge.getKey();
+                edgeTargets[state][i] = edge.getValue();
+                i++;
+            }
+        }
+
+        // fail-Links in Breitensuche; Ränge der Suffix-Zustände übernehmen
+        int[] fail = new int[size];
+        int[] bestRank = new int[size];
+        for (int state = 0; state < size; state++) {
+            bestRank[state] = ranks.get(state);
+        }
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int target : edgeTargets[0]) {
+            queue.add(target);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < edgeChars[state].length; i++) {
+                char c = edgeChars[state][i];
+                int child = edgeTargets[state][i];
+                int f = fail[state];
+                while (f != 0 && step(edgeChars, edgeTargets, f, c) < 0) {
+                    f = fail[f];
+                }
+                int next = step(edgeChars, edgeTargets, f, c);
+                fail[child] = next >= 0 && next != child ? next : 0;
+                bestRank[child] = Math.min(bestRank[child], bestRank[fail[child]]);
+                queue.add(child);
+            }
+        }
+        return new KeywordAutomaton(edgeChars, edgeTargets, fail, bestRank);
+    }
+
+    /**
+     * Kleinster Rang eines im Text vorkommenden Keywords, sonst {@link #NO_MATCH}
+     */
+    int bestMatch(CharSequence text) {
+        int best = NO_MATCH;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            int next;
+            while ((next = step(edgeChars, edgeTargets, state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = Math.max(next, 0);
+            if (bestRank[state] < best) {
+                best = bestRank[state];
+                if (best == 0) {
+                    return 0;  // Höchster Rang - besser wird es nicht
+                }
+            }
+        }
+        return best;
+    }
+
+    int stateCount() {
+        return fail.length;
+    }
+
+    private static int step(char[][] edgeChars, int[][] edgeTargets, int state, char c) {
+        int i = Arrays.binarySearch(edgeChars[state], c);
+        return i >= 0 ? edgeTargets[state][i] : -1;
+    }
+}
@@ -0,0 +1,293 @@
+package io.javafleet.fleetnavigator.llm;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tokenizer-Metadaten aus dem Header einer GGUF-Datei
+ *
+ * Liest nur den Key/Value-Block am Dateianfang (keine Tensoren), damit vor dem Laden
+ * geprüft werden kann, ob ein Draft-Modell zum Hauptmodell passt. Die Prüfung
+ * entspricht der von llama.cpp beim spekulativen Dekodieren:
+ * - gleicher Tokenizer-Typ (tokenizer.ggml.model)
+ * - gleiche BOS/EOS-Token-IDs
+ * - Vokabulargröße weicht um höchstens 128 Tokens ab
+ * - gleiche Token-Texte ab ID 5 (die ersten IDs sind Steuer-Tokens)
+ *
+ * Anzahlen und Längen im Header sind unbestätigte Eingaben: Was nicht in den Rest der
+ * Datei passt, wird abgelehnt, bevor dafür Speicher angelegt oder geschleift wird.
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+public record GgufVocabulary(String architecture, String tokenizerModel, List<String> tokens,
+                             Long bosTokenId, Long eosTokenId) {
+
+    private static final int GGUF_MAGIC = 0x46554747;  // "GGUF" little-endian
+    private static final int MAX_SIZE_DIFFERENCE = 128;
+    private static final int CHECK_START_TOKEN_ID = 5;
+    // Kleinstes Key/Value-Paar: Schlüssel-Länge (8) + Typ (4) + 1-Byte-Wert
+    private static final int MIN_KV_BYTES = 13;
+    // Obergrenze für die Vorbelegung der Token-Liste; größere Vokabulare wachsen beim Lesen
+    private static final int MAX_INITIAL_TOKENS = 1 << 18;
+
+    // GGUF-Werttypen
+    private static final int TYPE_UINT8 = 0;
+    private static final int TYPE_INT8 = 1;
+    private static final int TYPE_UINT16 = 2;
+    private static final int TYPE_INT16 = 3;
+    private static final int TYPE_UINT32 = 4;
+    private static final int TYPE_INT32 = 5;
+    private static final int TYPE_FLOAT32 = 6;
+    private static final int TYPE_BOOL = 7;
+    private static final int TYPE_STRING = 8;
+    private static final int TYPE_ARRAY = 9;
+    private static final int TYPE_UINT64 = 10;
+    private static final int TYPE_INT64 = 11;
+    private static final int TYPE_FLOAT64 = 12;
+
+    /**
+     * Ergebnis der Kompatibilitätsprüfung
+     */
+    public record Compatibility(boolean compatible, String reason) {
+        static Compatibility ok() {
+            return new Compatibility(true, null);
+        }
+
+        static Compatibility no(String reason) {
+            return new Compatibility(false, reason);
+        }
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    /**
+     * Liest die Tokenizer-Metadaten einer GGUF-Datei (Version 2 und 3)
+     */
+    public static GgufVocabulary read(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(in, Files.size(file));
+        }
+    }
+
+    static GgufVocabulary read(InputStream stream, long size) throws IOException {
+        Reader in = new Reader(stream, size);
+        if (in.u32() != GGUF_MAGIC) {
+            throw new IOException("Keine GGUF-Datei");
+        }
+        long version = in.u32();
+        if (version < 2) {
+            throw new IOException("GGUF-Version " + version + " wird nicht unterstützt");
+        }
+        in.u64();  // Anzahl Tensoren
+        long kvCount = in.count(in.u64(), MIN_KV_BYTES, "Key/Value-Paare");
+
+        String architecture = null;
+        String tokenizerModel = null;
+        List<String> tokens = List.of();
+        Long bos = null;
+        Long eos = null;
+        for (long i = 0; i < kvCount; i++) {
+            String key = in.string();
+            int type = (int) in.u32();
+            switch (key) {
+                case "general.architecture" -> architecture = (String) in.value(type);
+                case "tokenizer.ggml.model" -> tokenizerModel = (String) in.value(type);
+                case "tokenizer.ggml.bos_token_id" -> bos = ((Number) in.value(type)).longValue();
+                case "tokenizer.ggml.eos_token_id" -> eos = ((Number) in.value(type)).longValue();
+                case "tokenizer.ggml.tokens" -> tokens = in.stringArray(type);
+                default -> in.skip(type);
+            }
+        }
+        return new GgufVocabulary(architecture, tokenizerModel, tokens, bos, eos);
+    }
+
+    /**
+     * Prüft, ob {@code draft} als Draft-Modell für dieses (Haupt-)Modell taugt
+     */
+    public Compatibility acceptsDraft(GgufVocabulary draft) {
+        if (tokens.isEmpty() || draft.tokens.isEmpty()) {
+            return Compatibility.no("Kein Vokabular in der GGUF-Datei");
+        }
+        if (!java.util.Objects.equals(tokenizerModel, draft.tokenizerModel)) {
+            return Compatibility.no("Tokenizer unterschiedlich: " + tokenizerModel + " / " + draft.tokenizerModel);
+        }
+        if (!java.util.Objects.equals(bosTokenId, draft.bosTokenId)
+                || !java.util.Objects.equals(eosTokenId, draft.eosTokenId)) {
+            return Compatibility.no("BOS/EOS-Tokens unterschiedlich");
+        }
+        int difference = Math.abs(size() - draft.size());
+        if (difference > MAX_SIZE_DIFFERENCE) {
+            return Compatibility.no("Vokabulargröße weicht um " + difference + " Tokens ab ("
+                    + size() + " / " + draft.size() + ")");
+        }
+        int common = Math.min(size(), draft.size());
+        for (int id = CHECK_START_TOKEN_ID; id < common; id++) {
+            if (!tokens.get(id).equals(draft.tokens.get(id))) {
+                return Compatibility.no("Token " + id + " unterschiedlich: '" + tokens.get(id)
+                        + "' / '" + draft.tokens.get(id) + "'");
+            }
+        }
+        return Compatibility.ok();
+    }
+
+    /**
+     * Little-Endian-Leser für den GGUF-Header
+     */
+    private static final class Reader {
+        private final DataInputStream in;
+        private final byte[] scratch = new byte[8];
+        private long remaining;
+
+        Reader(InputStream stream, long size) {
+            this.in = new DataInputStream(new BufferedInputStream(stream, 1 << 16));
+            this.remaining = size;
+        }
+
+        /**
+         * Prüft eine Anzahl aus dem Header gegen die restlichen Bytes der Datei
+         */
+        long count(long count, int minEntryBytes, String what) throws IOException {
+            if (count < 0 || count > remaining / minEntryBytes) {
+                throw new IOException("Ungültige Anzahl " + what + " im GGUF-Header: " + Long.toUnsignedString(count));
+            }
+            return count;
+        }
+
+        private void consume(long bytes) throws IOException {
+            if (bytes < 0 || bytes > remaining) {
+                throw new EOFException("GGUF-Header unvollständig");
+            }
+            remaining -= bytes;
+        }
+
+        long u32() throws IOException {
+            consume(4);
+            in.readFully(scratch, 0, 4);
+            return (scratch[0] & 0xFFL) | (scratch[1] & 0xFFL) << 8
+                    | (scratch[2] & 0xFFL) << 16 | (scratch[3] & 0xFFL) << 24;
+        }
+
+        long u64() throws IOException {
+            return u32() | u32() << 32;
+        }
+
+        String string() throws IOException {
+            long length = u64();
+            if (length < 0 || length > Integer.MAX_VALUE || length > remaining) {
+                throw new IOException("Ungültige String-Länge im GGUF-Header: " + Long.toUnsignedString(length));
+            }
+            consume(length);
+            byte[] bytes = new byte[(int) length];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        Object value(int type) throws IOException {
+            return switch (type) {
+                case TYPE_UINT8, TYPE_INT8, TYPE_BOOL -> {
+                    consume(1);
+                    yield (long) in.readUnsignedByte();
+                }
+                case TYPE_UINT16, TYPE_INT16 -> {
+                    consume(2);
+                    in.readFully(scratch, 0, 2);
+                    yield (long) ((scratch[0] & 0xFF) | (scratch[1] & 0xFF) << 8);
+                }
+                case TYPE_UINT32, TYPE_INT32, TYPE_FLOAT32 -> u32();
+                case TYPE_UINT64, TYPE_INT64, TYPE_FLOAT64 -> u64();
+                case TYPE_STRING -> string();
+                case TYPE_ARRAY -> {
+                    skip(type);
+                    yield null;
+                }
+                default -> throw new IOException("Unbekannter GGUF-Typ: " + type);
+            };
+        }
+
+        List<String> stringArray(int type) throws IOException {
+            if (type != TYPE_ARRAY) {
+                throw new IOException("tokenizer.ggml.tokens ist kein Array");
+            }
+            int elementType = (int) u32();
+            if (elementType != TYPE_STRING) {
+                throw new IOException("tokenizer.ggml.tokens hat unerwartetes Format");
+            }
+            long count = count(u64(), minSize(TYPE_STRING), "Tokens");
+            List<String> values = new ArrayList<>((int) Math.min(count, MAX_INITIAL_TOKENS));
+            for (long i = 0; i < count; i++) {
+                values.add(string());
+            }
+            return values;
+        }
+
+        void skip(int type) throws IOException {
+            switch (type) {
+                case TYPE_UINT8, TYPE_INT8, TYPE_BOOL -> skipBytes(1);
+                case TYPE_UINT16, TYPE_INT16 -> skipBytes(2);
+                case TYPE_UINT32, TYPE_INT32, TYPE_FLOAT32 -> skipBytes(4);
+                case TYPE_UINT64, TYPE_INT64, TYPE_FLOAT64 -> skipBytes(8);
+                case TYPE_STRING -> skipBytes(u64());
+                case TYPE_ARRAY -> {
+                    int elementType = (int) u32();
+                    long count = count(u64(), minSize(elementType), "Array-Elemente");
+                    int fixed = fixedSize(elementType);
+                    if (fixed > 0) {
+                        skipBytes(count * fixed);
+                    } else {
+                        for (long i = 0; i < count; i++) {
+                            skip(elementType);
+                        }
+                    }
+                }
+                default -> throw new IOException("Unbekannter GGUF-Typ: " + type);
+            }
+        }
+
+        private static int fixedSize(int type) {
+            return switch (type) {
+                case TYPE_UINT8, TYPE_INT8, TYPE_BOOL -> 1;
+                case TYPE_UINT16, TYPE_INT16 -> 2;
+                case TYPE_UINT32, TYPE_INT32, TYPE_FLOAT32 -> 4;
+                case TYPE_UINT64, TYPE_INT64, TYPE_FLOAT64 -> 8;
+                default -> 0;
+            };
+        }
+
+        /**
+         * Mindestgröße eines Elements: Strings haben ihre Länge, Arrays Typ und Anzahl vorweg
+         */
+        private static int minSize(int type) {
+            return switch (type) {
+                case TYPE_STRING -> 8;
+                case TYPE_ARRAY -> 12;
+                default -> Math.max(1, fixedSize(type));
+            };
+        }
+
+        private void skipBytes(long count) throws IOException {
+            consume(count);
+            long left = count;
+            while (left > 0) {
+                long skipped = in.skip(left);
+                if (skipped <= 0) {
+                    if (in.read() < 0) {
+                        throw new EOFException("GGUF-Header unvollständig");
+                    }
+                    skipped = 1;
+                }
+                left -= skipped;
+            }
+        }
+    }
+}
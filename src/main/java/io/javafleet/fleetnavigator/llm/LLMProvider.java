@@ -105,6 +105,29 @@ public interface LLMProvider {
                 maxTokens, temperature, topP, topK, repeatPenalty, numCtx);
     }
 
+    /**
+     * Strukturierte Antwort (JSON-Schema oder GBNF-Grammatik)
+     *
+     * Provider mit Grammar-Sampling überschreiben diese Methode und erzwingen das
+     * Format beim Dekodieren. Der Default gibt das Schema als Hinweis im System-Prompt
+     * mit und beendet den Stream, sobald das JSON-Objekt vollständig ist.
+     *
+     * @param model Modell-Name
+     * @param prompt User-Prompt
+     * @param systemPrompt Optional: System-Prompt
+     * @param requestId Request-ID für Tracking/Cancellation
+     * @param format JSON-Schema oder GBNF-Grammatik
+     * @param maxTokens Max. Anzahl Tokens (null = Provider-Default)
+     * @return Antwort im geforderten Format
+     * @throws IOException bei Netzwerk-/Provider-Fehlern
+     */
+    default String chatStructured(String model, String prompt, String systemPrompt,
+                                  String requestId, StructuredOutput format,
+                                  Integer maxTokens) throws IOException {
+        return format.collect(consumer -> chatStream(model, prompt, format.withPromptHint(systemPrompt),
+                requestId, consumer, maxTokens, 0.0, null, null, null, null));
+    }
+
     // ===== VISION-SUPPORT =====
 
     /**
@@ -227,6 +250,31 @@ public interface LLMProvider {
         return text.length() / 4;
     }
 
+    /**
+     * Anzahl gleichzeitig bedienbarer Requests (Server-Slots)
+     *
+     * Wird von Map-Reduce-Verarbeitungen genutzt, um nicht mehr parallele
+     * Requests zu starten als der Provider tatsächlich abarbeiten kann.
+     *
+     * @return Anzahl paralleler Slots (mindestens 1)
+     */
+    default int getParallelSlots() {
+        return 1;
+    }
+
+    /**
+     * Aktuell geladene (residente) Modelle
+     *
+     * Wird vom Modell-Routing genutzt: ein residentes Modell spart den Wechsel,
+     * der bei lokalen Providern mehrere Sekunden dauert. Leer, wenn der Provider
+     * das nicht weiß (dann gibt es keinen Wechselaufschlag).
+     *
+     * @return Modellnamen oder Dateinamen der geladenen Modelle
+     */
+    default Set<String> getResidentModels() {
+        return Set.of();
+    }
+
     // ===== FEATURE DETECTION =====
 
     /**
@@ -54,6 +54,11 @@ public enum ProviderFeature {
      */
     FUNCTION_CALLING,
 
+    /**
+     * Constrains output to a JSON schema or GBNF grammar during decoding
+     */
+    STRUCTURED_OUTPUT,
+
     /**
      * Can configure context size per request
      */
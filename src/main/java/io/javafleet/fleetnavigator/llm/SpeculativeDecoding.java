@@ -0,0 +1,210 @@
+package io.javafleet.fleetnavigator.llm;
+
+import io.javafleet.fleetnavigator.config.FleetPathsConfiguration;
+import io.javafleet.fleetnavigator.model.GgufModelConfig;
+import io.javafleet.fleetnavigator.repository.GgufModelConfigRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spekulatives Dekodieren: Paarung von Hauptmodell und Draft-Modell
+ *
+ * Das Draft-Modell (z.B. 0.5B derselben Familie) schlägt mehrere Tokens vor, das
+ * Hauptmodell prüft sie in einem Batch. Auf CPU-Hosts bringt das bei guter
+ * Akzeptanzrate deutlich mehr Tokens/s, bei schlechter kostet es nur Zeit.
+ *
+ * Die Paarung steht in {@link GgufModelConfig#getDraftModel()}. Vor dem Laden wird das
+ * Vokabular beider GGUF-Dateien verglichen ({@link GgufVocabulary}); inkompatible Paare
+ * werden mit Warnung ohne Draft geladen. Die Akzeptanzrate pro Paar wird gesammelt,
+ * soweit der Provider sie meldet (llama-server: timings.draft_n / draft_n_accepted).
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@Service
+@Slf4j
+public class SpeculativeDecoding {
+
+    private static final int DEFAULT_DRAFT_MAX = 16;
+    private static final int DEFAULT_DRAFT_MIN = 0;
+    private static final float DEFAULT_DRAFT_P_MIN = 0.8f;
+
+    private final GgufModelConfigRepository ggufModelConfigRepository;
+    private final FleetPathsConfiguration pathsConfig;
+
+    // Prüfergebnis pro Dateipaar (inkl. Größe/Änderungszeit, damit ersetzte Dateien neu geprüft werden)
+    private final Map<String, GgufVocabulary.Compatibility> checked = new ConcurrentHashMap<>();
+    private final Map<String, PairingStats> stats = new ConcurrentHashMap<>();
+
+    public SpeculativeDecoding(GgufModelConfigRepository ggufModelConfigRepository,
+                               FleetPathsConfiguration pathsConfig) {
+        this.ggufModelConfigRepository = ggufModelConfigRepository;
+        this.pathsConfig = pathsConfig;
+    }
+
+    /**
+     * Aufgelöstes, geprüftes Modellpaar mit den Draft-Parametern
+     */
+    public record DraftPairing(Path mainModel, Path draftModel, int draftMax, int draftMin,
+                               float draftPMin, Integer draftGpuLayers) {
+
+        public String key() {
+            return mainModel.getFileName() + " + " + draftModel.getFileName();
+        }
+
+        /**
+         * Parameter für die llama-server Kommandozeile
+         */
+        public List<String> serverArguments(int defaultGpuLayers) {
+            return List.of(
+                    "--model-draft", draftModel.toString(),
+                    "--draft-max", String.valueOf(draftMax),
+                    "--draft-min", String.valueOf(draftMin),
+                    "--draft-p-min", String.valueOf(draftPMin),
+                    "-ngld", String.valueOf(draftGpuLayers != null ? draftGpuLayers : defaultGpuLayers));
+        }
+    }
+
+    /**
+     * Draft-Paarung für ein Hauptmodell (Suche über den Dateinamen in den GGUF-Konfigurationen)
+     */
+    public Optional<DraftPairing> forModel(Path mainModel) {
+        String fileName = mainModel.getFileName().toString();
+        return ggufModelConfigRepository.findByDraftModelIsNotNull().stream()
+                .filter(cfg -> cfg.getBaseModel() != null
+                        && Paths.get(cfg.getBaseModel()).getFileName().toString().equalsIgnoreCase(fileName))
+                .findFirst()
+                .flatMap(cfg -> forConfig(cfg, mainModel));
+    }
+
+    /**
+     * Draft-Paarung einer Konfiguration, nur wenn die Draft-Datei existiert und kompatibel ist
+     */
+    public Optional<DraftPairing> forConfig(GgufModelConfig cfg, Path mainModel) {
+        if (cfg == null || cfg.getDraftModel() == null || cfg.getDraftModel().isBlank()) {
+            return Optional.empty();
+        }
+        Optional<Path> draft = resolveModel(cfg.getDraftModel(), mainModel);
+        if (draft.isEmpty()) {
+            log.warn("⚡ Draft-Modell {} für {} nicht gefunden - ohne spekulatives Dekodieren",
+                    cfg.getDraftModel(), mainModel.getFileName());
+            return Optional.empty();
+        }
+        GgufVocabulary.Compatibility compatibility = check(mainModel, draft.get());
+        if (!compatibility.compatible()) {
+            log.warn("⚡ Draft-Modell {} passt nicht zu {}: {} - ohne spekulatives Dekodieren",
+                    draft.get().getFileName(), mainModel.getFileName(), compatibility.reason());
+            return Optional.empty();
+        }
+        DraftPairing pairing = new DraftPairing(mainModel, draft.get(),
+                cfg.getDraftMax() != null ? cfg.getDraftMax() : DEFAULT_DRAFT_MAX,
+                cfg.getDraftMin() != null ? cfg.getDraftMin() : DEFAULT_DRAFT_MIN,
+                cfg.getDraftPMin() != null ? cfg.getDraftPMin().floatValue() : DEFAULT_DRAFT_P_MIN,
+                cfg.getDraftGpuLayers());
+        log.info("⚡ Spekulatives Dekodieren: {} (draft-max {}, p-min {})",
+                pairing.key(), pairing.draftMax(), pairing.draftPMin());
+        return Optional.of(pairing);
+    }
+
+    /**
+     * Vokabular-Vergleich von Haupt- und Draft-Modell (gecacht)
+     */
+    public GgufVocabulary.Compatibility check(Path mainModel, Path draftModel) {
+        if (mainModel.toAbsolutePath().normalize().equals(draftModel.toAbsolutePath().normalize())) {
+            return new GgufVocabulary.Compatibility(false, "Draft-Modell ist das Hauptmodell");
+        }
+        String key;
+        try {
+            key = fingerprint(mainModel) + "|" + fingerprint(draftModel);
+        } catch (IOException e) {
+            return new GgufVocabulary.Compatibility(false, "Datei nicht lesbar: " + e.getMessage());
+        }
+        return checked.computeIfAbsent(key, k -> {
+            try {
+                return GgufVocabulary.read(mainModel).acceptsDraft(GgufVocabulary.read(draftModel));
+            } catch (IOException e) {
+                return new GgufVocabulary.Compatibility(false, "GGUF-Header nicht lesbar: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Sucht eine GGUF-Datei: absoluter Pfad, neben dem Hauptmodell, dann im Models-Verzeichnis
+     */
+    public Optional<Path> resolveModel(String fileName, Path nearModel) {
+        Path candidate = Paths.get(fileName);
+        if (candidate.isAbsolute()) {
+            return Files.isRegularFile(candidate) ? Optional.of(candidate) : Optional.empty();
+        }
+        List<Path> dirs = new ArrayList<>();
+        if (nearModel != null && nearModel.getParent() != null) {
+            dirs.add(nearModel.getParent());
+        }
+        Path modelsDir = pathsConfig.getResolvedModelsDir();
+        if (modelsDir != null) {
+            dirs.add(modelsDir);
+            dirs.add(modelsDir.resolve("library"));
+            dirs.add(modelsDir.resolve("custom"));
+        }
+        return dirs.stream()
+                .map(dir -> dir.resolve(fileName))
+                .filter(Files::isRegularFile)
+                .findFirst();
+    }
+
+    /**
+     * Ein Request lief mit Draft-Modell
+     */
+    public void recordUse(DraftPairing pairing) {
+        stats.computeIfAbsent(pairing.key(), k -> new PairingStats()).requests.incrementAndGet();
+    }
+
+    /**
+     * Vom Provider gemeldete Draft-Statistik eines Requests
+     */
+    public void recordAcceptance(DraftPairing pairing, long drafted, long accepted) {
+        PairingStats s = stats.computeIfAbsent(pairing.key(), k -> new PairingStats());
+        s.drafted.addAndGet(drafted);
+        s.accepted.addAndGet(accepted);
+    }
+
+    /**
+     * Akzeptanzrate pro Paar; unter ~50% lohnt sich das Draft-Modell meist nicht
+     */
+    public List<Map<String, Object>> getStats() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        stats.forEach((pair, s) -> {
+            long drafted = s.drafted.get();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("pairing", pair);
+            entry.put("requests", s.requests.get());
+            entry.put("draftedTokens", drafted);
+            entry.put("acceptedTokens", s.accepted.get());
+            entry.put("acceptanceRate", drafted > 0 ? Math.round(s.accepted.get() * 1000.0 / drafted) / 1000.0 : null);
+            result.add(entry);
+        });
+        return result;
+    }
+
+    private static String fingerprint(Path file) throws IOException {
+        return file.toAbsolutePath().normalize() + ":" + Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis();
+    }
+
+    private static final class PairingStats {
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong drafted = new AtomicLong();
+        final AtomicLong accepted = new AtomicLong();
+    }
+}
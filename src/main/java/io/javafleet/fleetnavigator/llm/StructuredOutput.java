@@ -0,0 +1,181 @@
+package io.javafleet.fleetnavigator.llm;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Ausgabe-Constraint für strukturierte Antworten: JSON-Schema oder GBNF-Grammatik.
+ *
+ * Provider mit Grammar-Sampling (llama.cpp, llama-server, Ollama) erzwingen das Format
+ * beim Dekodieren - das Modell kann nur gültige Ausgaben erzeugen, ein Parse-Fallback
+ * entfällt. Provider ohne Constraint-Unterstützung bekommen das Schema als Hinweis im
+ * System-Prompt.
+ *
+ * Für JSON-Schema-Ausgaben bricht der {@link Collector} den Stream ab, sobald das
+ * äußere Objekt geschlossen ist (kein Auslaufen bis max_tokens). Grammatik-Ausgaben
+ * werden unverändert gesammelt.
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+public final class StructuredOutput {
+
+    private final String jsonSchema;
+    private final String grammar;
+
+    private StructuredOutput(String jsonSchema, String grammar) {
+        this.jsonSchema = jsonSchema;
+        this.grammar = grammar;
+    }
+
+    /**
+     * Antwort muss dem JSON-Schema entsprechen
+     *
+     * @param schema JSON-Schema als String
+     */
+    public static StructuredOutput jsonSchema(String schema) {
+        return new StructuredOutput(schema, null);
+    }
+
+    /**
+     * Antwort muss der GBNF-Grammatik entsprechen (llama.cpp Syntax, Startregel "root")
+     */
+    public static StructuredOutput grammar(String gbnf) {
+        return new StructuredOutput(null, gbnf);
+    }
+
+    public boolean isJsonSchema() {
+        return jsonSchema != null;
+    }
+
+    public String getJsonSchema() {
+        return jsonSchema;
+    }
+
+    public String getGrammar() {
+        return grammar;
+    }
+
+    /**
+     * System-Prompt mit Format-Hinweis für Provider ohne Constraint-Unterstützung
+     */
+    public String withPromptHint(String systemPrompt) {
+        String hint = isJsonSchema()
+                ? "Antworte ausschließlich mit einem JSON-Objekt nach diesem Schema, ohne weiteren Text:\n" + jsonSchema
+                : "Antworte ausschließlich in diesem Format (GBNF-Grammatik), ohne weiteren Text:\n" + grammar;
+        return systemPrompt == null || systemPrompt.isBlank() ? hint : systemPrompt + "\n\n" + hint;
+    }
+
+    /**
+     * Streaming-Aufruf, dem der Collector als Chunk-Consumer übergeben wird
+     */
+    @FunctionalInterface
+    public interface StreamCall {
+        void run(Consumer<String> chunkConsumer) throws IOException;
+    }
+
+    /**
+     * Führt den Aufruf aus und sammelt die Antwort; endet vorzeitig, sobald das JSON-Objekt vollständig ist
+     */
+    public String collect(StreamCall call) throws IOException {
+        Collector collector = new Collector(isJsonSchema());
+        try {
+            call.run(collector);
+        } catch (Complete e) {
+            // Vorzeitiges Ende: Objekt vollständig
+        } catch (IOException e) {
+            if (!isComplete(e)) {
+                throw e;
+            }
+        }
+        return collector.result();
+    }
+
+    private static boolean isComplete(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof Complete) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sammelt Chunks und erkennt das Ende des äußeren JSON-Werts (Strings und Escapes werden beachtet)
+     */
+    public static final class Collector implements Consumer<String> {
+        private final boolean json;
+        private final StringBuilder text = new StringBuilder();
+        private int depth;
+        private boolean started;
+        private boolean inString;
+        private boolean escaped;
+        private boolean complete;
+
+        /**
+         * @param json true: JSON-Ende erkennen und Text davor verwerfen; false: nur sammeln
+         */
+        public Collector(boolean json) {
+            this.json = json;
+        }
+
+        @Override
+        public void accept(String chunk) {
+            if (complete) {
+                return;
+            }
+            if (!json) {
+                text.append(chunk);
+                return;
+            }
+            for (int i = 0; i < chunk.length(); i++) {
+                char c = chunk.charAt(i);
+                if (!started) {
+                    if (c == '{' || c == '[') {
+                        started = true;
+                    } else {
+                        // Text vor dem JSON (z.B. ```json) verwerfen
+                        continue;
+                    }
+                }
+                text.append(c);
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (c == '\\') {
+                        escaped = true;
+                    } else if (c == '"') {
+                        inString = false;
+                    }
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                    if (depth == 0) {
+                        complete = true;
+                        throw new Complete();
+                    }
+                }
+            }
+        }
+
+        public boolean isComplete() {
+            return complete;
+        }
+
+        public String result() {
+            return text.toString();
+        }
+    }
+
+    /**
+     * Signal zum Abbruch des Streams, sobald die Antwort vollständig ist
+     */
+    public static final class Complete extends RuntimeException {
+        Complete() {
+            super("structured output complete", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package io.javafleet.fleetnavigator.llm;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Dekodiert gestreamte LLM-Antworten (SSE "data: {...}" oder NDJSON) ohne JSON-Bäume
+ *
+ * Ein einziger nicht-blockierender Jackson-Parser wird über den ganzen Stream mit den
+ * JSON-Bytes jeder Zeile gefüttert; Zeilen landen in einem wiederverwendeten Puffer.
+ * Pro Token entsteht damit nur noch der Token-String selbst - statt Zeilen-String,
+ * Teilstring und kompletter ObjectNode-Struktur wie bei readLine + readTree.
+ *
+ * Erkannte Felder:
+ * - Token: choices[0].delta.content (OpenAI), content (llama.cpp /completion),
+ *   response (Ollama /api/generate), message.content (Ollama /api/chat)
+ * - Ende: [DONE], done=true (Ollama), stop=true (llama.cpp)
+ * - Spekulatives Dekodieren: timings.draft_n / timings.draft_n_accepted
+ *
+ * Nicht thread-safe; eine Instanz pro Antwort-Stream.
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+public class TokenStreamDecoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final byte[] DATA_PREFIX = {'d', 'a', 't', 'a', ':'};
+    private static final byte[] DONE_MARKER = {'[', 'D', 'O', 'N', 'E', ']'};
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final byte[] readBuffer = new byte[8192];
+    private byte[] line = new byte[1024];
+    private int lineLength;
+
+    private boolean finished;
+    private int tokenCount;
+    private long draftTokens = -1;
+    private long draftAccepted = -1;
+
+    public TokenStreamDecoder() {
+        try {
+            this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("Jackson non-blocking parser nicht verfügbar", e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Liest den Stream bis zum Ende, bis [DONE]/done/stop oder bis {@code cancelled} true liefert
+     *
+     * @param in       Antwort-Body (wird nicht geschlossen)
+     * @param tokens   Empfänger der nicht-leeren Tokens in Stream-Reihenfolge
+     * @param cancelled Abbruch-Prüfung, wird vor jeder Zeile abgefragt
+     */
+    public void decode(InputStream in, Consumer<String> tokens, BooleanSupplier cancelled) throws IOException {
+        int read;
+        while (!finished && (read = in.read(readBuffer)) != -1) {
+            int start = 0;
+            for (int i = 0; i < read && !finished; i++) {
+                if (readBuffer[i] == '\n') {
+                    append(readBuffer, start, i - start);
+                    start = i + 1;
+                    if (cancelled.getAsBoolean()) {
+                        return;
+                    }
+                    decodeLine(tokens);
+                }
+            }
+            if (!finished) {
+                append(readBuffer, start, read - start);
+            }
+        }
+        if (!finished && lineLength > 0 && !cancelled.getAsBoolean()) {
+            decodeLine(tokens);
+        }
+    }
+
+    /**
+     * true, sobald der Server das Ende gemeldet hat ([DONE], done=true oder stop=true)
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Anzahl der gelieferten (nicht-leeren) Tokens
+     */
+    public int getTokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * Letztes timings.draft_n, -1 wenn nie gemeldet
+     */
+    public long getDraftTokens() {
+        return draftTokens;
+    }
+
+    /**
+     * Letztes timings.draft_n_accepted, -1 wenn nie gemeldet
+     */
+    public long getDraftAccepted() {
+        return draftAccepted;
+    }
+
+    private void append(byte[] source, int offset, int length) {
+        if (lineLength + length > line.length) {
+            byte[] grown = new byte[Math.max(line.length * 2, lineLength + length)];
+            System.arraycopy(line, 0, grown, 0, lineLength);
+            line = grown;
+        }
+        System.arraycopy(source, offset, line, lineLength, length);
+        lineLength += length;
+    }
+
+    private void decodeLine(Consumer<String> tokens) throws IOException {
+        int start = 0;
+        int end = lineLength;
+        lineLength = 0;
+        if (end > 0 && line[end - 1] == '\r') {
+            end--;
+        }
+        if (startsWith(line, start, end, DATA_PREFIX)) {
+            start += DATA_PREFIX.length;
+            if (start < end && line[start] == ' ') {
+                start++;
+            }
+        } else if (start < end && line[start] != '{') {
+            return;  // SSE-Kommentar, event:/id:-Zeile oder Leerzeile
+        }
+        while (start < end && line[start] == ' ') {
+            start++;
+        }
+        if (start == end) {
+            return;
+        }
+        if (startsWith(line, start, end, DONE_MARKER)) {
+            finished = true;
+            return;
+        }
+
+        feeder.feedInput(line, start, end);
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.NOT_AVAILABLE && token != null) {
+            switch (token) {
+                case VALUE_STRING -> onString(tokens);
+                case VALUE_TRUE -> onTrue();
+                case VALUE_NUMBER_INT -> onNumber();
+                default -> { }
+            }
+        }
+    }
+
+    private void onString(Consumer<String> tokens) throws IOException {
+        JsonStreamContext object = parser.getParsingContext();
+        String name = object.getCurrentName();
+        if (!"content".equals(name) && !"response".equals(name)) {
+            return;
+        }
+        JsonStreamContext parent = object.getParent();
+        boolean match;
+        if (parent.inRoot()) {
+            match = true;                                                  // content / response
+        } else if ("response".equals(name)) {
+            match = false;
+        } else if (isRootField(parent, "message")) {
+            match = true;                                                  // message.content
+        } else {
+            JsonStreamContext array = parent.getParent();                  // choices[0].delta.content
+            match = "delta".equals(parent.getCurrentName()) && array != null && array.inArray()
+                    && array.getCurrentIndex() == 0 && isRootField(array.getParent(), "choices");
+        }
+        if (match) {
+            String text = parser.getText();
+            if (!text.isEmpty()) {
+                tokenCount++;
+                tokens.accept(text);
+            }
+        }
+    }
+
+    private void onTrue() {
+        JsonStreamContext object = parser.getParsingContext();
+        if (object.getParent() != null && object.getParent().inRoot()) {
+            String name = object.getCurrentName();
+            if ("done".equals(name) || "stop".equals(name)) {
+                finished = true;
+            }
+        }
+    }
+
+    private void onNumber() throws IOException {
+        JsonStreamContext object = parser.getParsingContext();
+        if (isRootField(object.getParent(), "timings")) {
+            String name = object.getCurrentName();
+            if ("draft_n".equals(name)) {
+                draftTokens = parser.getLongValue();
+            } else if ("draft_n_accepted".equals(name)) {
+                draftAccepted = parser.getLongValue();
+            }
+        }
+    }
+
+    /**
+     * true, wenn {@code context} das Wurzelobjekt ist und gerade im Feld {@code name} steht
+     */
+    private static boolean isRootField(JsonStreamContext context, String name) {
+        return context != null && context.inObject() && context.getParent().inRoot()
+                && name.equals(context.getCurrentName());
+    }
+
+    private static boolean startsWith(byte[] bytes, int start, int end, byte[] prefix) {
+        if (end - start < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[start + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -5,14 +5,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.javafleet.fleetnavigator.config.LLMConfigProperties;
 import io.javafleet.fleetnavigator.llm.LLMProvider;
 import io.javafleet.fleetnavigator.llm.ProviderFeature;
+import io.javafleet.fleetnavigator.llm.StructuredOutput;
+import io.javafleet.fleetnavigator.llm.TokenStreamDecoder;
 import io.javafleet.fleetnavigator.llm.dto.ModelInfo;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
 import org.springframework.stereotype.Component;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -43,7 +43,8 @@ public class ExternalLlamaServerProvider implements LLMProvider {
         ProviderFeature.BLOCKING,
         ProviderFeature.MODEL_DETAILS,
         ProviderFeature.EMBEDDINGS,
-        ProviderFeature.VISION
+        ProviderFeature.VISION,
+        ProviderFeature.STRUCTURED_OUTPUT
     );
 
     private static final String PROVIDER_NAME = "llama-server";
@@ -56,12 +57,12 @@ public class ExternalLlamaServerProvider implements LLMProvider {
     // Track active requests for cancellation
     private final Map<String, Call> activeRequests = new ConcurrentHashMap<>();
 
-    public ExternalLlamaServerProvider(LLMConfigProperties config) {
+    public ExternalLlamaServerProvider(LLMConfigProperties config, OkHttpClient sharedHttpClient) {
         this.config = config;
         this.objectMapper = new ObjectMapper();
 
-        // Build OkHttp client with timeout
-        this.client = new OkHttpClient.Builder()
+        // Shared connection pool and dispatcher, own timeouts
+        this.client = sharedHttpClient.newBuilder()
                 .connectTimeout(30, TimeUnit.SECONDS)
                 .readTimeout(300, TimeUnit.SECONDS)
                 .writeTimeout(60, TimeUnit.SECONDS)
@@ -275,6 +276,25 @@ public class ExternalLlamaServerProvider implements LLMProvider {
                            Integer maxTokens, Double temperature,
                            Double topP, Integer topK, Double repeatPenalty,
                            Integer numCtx) throws IOException {
+        streamCompletion(prompt, systemPrompt, requestId, chunkConsumer,
+                maxTokens, temperature, topP, topK, repeatPenalty, null);
+    }
+
+    /**
+     * Strukturierte Antwort über Grammar-Sampling von /completion (Felder json_schema/grammar)
+     */
+    @Override
+    public String chatStructured(String model, String prompt, String systemPrompt,
+                                 String requestId, StructuredOutput format,
+                                 Integer maxTokens) throws IOException {
+        return format.collect(consumer -> streamCompletion(prompt, systemPrompt, requestId, consumer,
+                maxTokens, 0.0, null, null, null, format));
+    }
+
+    private void streamCompletion(String prompt, String systemPrompt, String requestId,
+                                  Consumer<String> chunkConsumer, Integer maxTokens,
+                                  Double temperature, Double topP, Integer topK,
+                                  Double repeatPenalty, StructuredOutput format) throws IOException {
 
         String url = String.format("http://localhost:%d/completion", serverPort);
 
@@ -287,6 +307,13 @@ public class ExternalLlamaServerProvider implements LLMProvider {
         if (topP != null) requestBody.put("top_p", topP);
         if (topK != null) requestBody.put("top_k", topK);
         if (repeatPenalty != null) requestBody.put("repeat_penalty", repeatPenalty);
+        if (format != null) {
+            if (format.isJsonSchema()) {
+                requestBody.put("json_schema", objectMapper.readTree(format.getJsonSchema()));
+            } else {
+                requestBody.put("grammar", format.getGrammar());
+            }
+        }
 
         String json = objectMapper.writeValueAsString(requestBody);
         RequestBody body = RequestBody.create(json, MediaType.parse("application/json"));
@@ -306,30 +333,8 @@ public class ExternalLlamaServerProvider implements LLMProvider {
                 throw new IOException("Unexpected response: " + response.code());
             }
 
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(response.body().byteStream()))) {
-
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (line.startsWith("data: ")) {
-                        String data = line.substring(6);
-                        if ("[DONE]".equals(data)) {
-                            break;
-                        }
-
-                        JsonNode chunk = objectMapper.readTree(data);
-                        String content = chunk.path("content").asText("");
-                        if (!content.isEmpty()) {
-                            chunkConsumer.accept(content);
-                        }
-
-                        // Check if generation stopped
-                        if (chunk.has("stop") && chunk.get("stop").asBoolean()) {
-                            break;
-                        }
-                    }
-                }
-            }
+            // content per SSE chunk until stop=true or [DONE], without JSON trees
+            new TokenStreamDecoder().decode(response.body().byteStream(), chunkConsumer, call::isCanceled);
         } finally {
             if (requestId != null) {
                 activeRequests.remove(requestId);
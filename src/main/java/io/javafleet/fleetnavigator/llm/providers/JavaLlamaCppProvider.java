@@ -8,6 +8,8 @@ import io.javafleet.fleetnavigator.config.LLMConfigProperties;
 import io.javafleet.fleetnavigator.llm.LLMProvider;
 import io.javafleet.fleetnavigator.llm.ModelMappingService;
 import io.javafleet.fleetnavigator.llm.ProviderFeature;
+import io.javafleet.fleetnavigator.llm.SpeculativeDecoding;
+import io.javafleet.fleetnavigator.llm.StructuredOutput;
 import io.javafleet.fleetnavigator.llm.dto.ModelInfo;
 import io.javafleet.fleetnavigator.model.GgufModelConfig;
 import io.javafleet.fleetnavigator.repository.GgufModelConfigRepository;
@@ -47,27 +49,33 @@ public class JavaLlamaCppProvider implements LLMProvider {
         ProviderFeature.BLOCKING,
         ProviderFeature.LIST_MODELS,
         ProviderFeature.DYNAMIC_CONTEXT_SIZE,
-        ProviderFeature.GPU_ACCELERATION
+        ProviderFeature.GPU_ACCELERATION,
+        ProviderFeature.STRUCTURED_OUTPUT
     );
 
     private final LLMConfigProperties config;
     private final GgufModelConfigRepository ggufModelConfigRepository;
     private final ModelMappingService modelMappingService;
     private final io.javafleet.fleetnavigator.config.FleetPathsConfiguration pathsConfig;
+    private final SpeculativeDecoding speculativeDecoding;
     // Thread-safe model cache - fixes "stream aborted on second message" bug
     private final Map<String, LlamaModel> loadedModels = new ConcurrentHashMap<>();
     private final Set<String> activeRequests = Collections.synchronizedSet(new HashSet<>());
     // Lock to ensure only one generate() runs at a time per model (java-llama.cpp limitation)
     private final Map<String, ReentrantLock> modelLocks = new ConcurrentHashMap<>();
+    // Draft-Modell pro geladenem Modell (cacheKey), falls spekulatives Dekodieren aktiv ist
+    private final Map<String, SpeculativeDecoding.DraftPairing> draftPairings = new ConcurrentHashMap<>();
 
     public JavaLlamaCppProvider(LLMConfigProperties config,
                                  GgufModelConfigRepository ggufModelConfigRepository,
                                  ModelMappingService modelMappingService,
-                                 io.javafleet.fleetnavigator.config.FleetPathsConfiguration pathsConfig) {
+                                 io.javafleet.fleetnavigator.config.FleetPathsConfiguration pathsConfig,
+                                 SpeculativeDecoding speculativeDecoding) {
         this.config = config;
         this.ggufModelConfigRepository = ggufModelConfigRepository;
         this.modelMappingService = modelMappingService;
         this.pathsConfig = pathsConfig;
+        this.speculativeDecoding = speculativeDecoding;
         log.info("🦙 JavaLlamaCppProvider initialized (JNI-based) with ModelMappingService");
     }
 
@@ -221,6 +229,26 @@ public class JavaLlamaCppProvider implements LLMProvider {
                            Integer maxTokens, Double temperature,
                            Double topP, Integer topK, Double repeatPenalty,
                            Integer numCtx, Boolean cpuOnly) throws IOException {
+        generate(model, prompt, systemPrompt, requestId, chunkConsumer,
+                 maxTokens, temperature, topP, topK, repeatPenalty, numCtx, cpuOnly, null);
+    }
+
+    /**
+     * Strukturierte Antwort über llama.cpp Grammar-Sampling (JSON-Schema wird per JNI in GBNF übersetzt)
+     */
+    @Override
+    public String chatStructured(String model, String prompt, String systemPrompt,
+                                 String requestId, StructuredOutput format,
+                                 Integer maxTokens) throws IOException {
+        return format.collect(consumer -> generate(model, prompt, systemPrompt, requestId, consumer,
+                maxTokens, 0.0, null, null, null, null, false, format));
+    }
+
+    private void generate(String model, String prompt, String systemPrompt,
+                          String requestId, Consumer<String> chunkConsumer,
+                          Integer maxTokens, Double temperature,
+                          Double topP, Integer topK, Double repeatPenalty,
+                          Integer numCtx, Boolean cpuOnly, StructuredOutput format) throws IOException {
         // Note: numCtx is configured at JNI level, not per-request for java-llama.cpp
         if (numCtx != null) {
             log.info("📏 numCtx={} requested (configured at startup for java-llama.cpp)", numCtx);
@@ -255,6 +283,10 @@ public class JavaLlamaCppProvider implements LLMProvider {
         try {
             // Get or load model (with CPU-Only support)
             LlamaModel llamaModel = getOrLoadModel(model, Boolean.TRUE.equals(cpuOnly));
+            SpeculativeDecoding.DraftPairing draft = draftPairings.get(cacheKey);
+            if (draft != null) {
+                speculativeDecoding.recordUse(draft);
+            }
 
             // Build full prompt with system message
             String fullPrompt = buildPrompt(effectiveSystemPrompt, prompt, model);
@@ -367,6 +399,13 @@ public class JavaLlamaCppProvider implements LLMProvider {
                 log.debug("Applied advanced parameters from custom config for model: {}", model);
             }
 
+            // Grammar-Sampling für strukturierte Ausgaben
+            if (format != null) {
+                params.setGrammar(format.isJsonSchema()
+                        ? LlamaModel.jsonSchemaToGrammar(format.getJsonSchema())
+                        : format.getGrammar());
+            }
+
             // Stream generation with token buffering for proper end-token detection
             // Buffer to accumulate tokens (end tokens can be split across chunks)
             StringBuilder tokenBuffer = new StringBuilder();
@@ -441,6 +480,9 @@ public class JavaLlamaCppProvider implements LLMProvider {
                     chunkConsumer.accept(remaining);
                 }
             }
+        } catch (StructuredOutput.Complete e) {
+            // Strukturierte Antwort vollständig - Generierung vorzeitig beendet
+            throw e;
         } catch (Exception e) {
             log.error("Error during streaming generation", e);
             throw new IOException("Streaming generation failed: " + e.getMessage(), e);
@@ -609,6 +651,13 @@ public class JavaLlamaCppProvider implements LLMProvider {
         return new ArrayList<>(loadedModels.keySet());
     }
 
+    @Override
+    public Set<String> getResidentModels() {
+        return loadedModels.keySet().stream()
+                .map(key -> key.endsWith("_CPU_ONLY") ? key.substring(0, key.length() - "_CPU_ONLY".length()) : key)
+                .collect(Collectors.toSet());
+    }
+
     /**
      * Unload all models except the one we're about to load.
      * This frees GPU memory before loading a new model.
@@ -801,6 +850,22 @@ public class JavaLlamaCppProvider implements LLMProvider {
             // }
         }
 
+        // Speculative Decoding: Draft-Modell nur wenn Vokabular kompatibel (sonst ohne Draft laden)
+        Optional<SpeculativeDecoding.DraftPairing> draft = customConfig.isPresent()
+                ? speculativeDecoding.forConfig(customConfig.get(), modelPath)
+                : speculativeDecoding.forModel(modelPath);
+        if (draft.isPresent()) {
+            SpeculativeDecoding.DraftPairing pairing = draft.get();
+            modelParams.setModelDraft(pairing.draftModel().toString())
+                    .setDraftMax(pairing.draftMax())
+                    .setDraftMin(pairing.draftMin())
+                    .setDraftPMin(pairing.draftPMin())
+                    .setGpuLayersDraft(cpuOnly ? 0 : pairing.draftGpuLayers() != null ? pairing.draftGpuLayers() : gpuLayers);
+            draftPairings.put(cacheKey, pairing);
+        } else {
+            draftPairings.remove(cacheKey);
+        }
+
         // Load model
         String modelPathString = modelPath.toString();
         try {
@@ -1,10 +1,12 @@
 package io.javafleet.fleetnavigator.llm.providers;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.javafleet.fleetnavigator.config.LLMConfigProperties;
 import io.javafleet.fleetnavigator.llm.LLMProvider;
 import io.javafleet.fleetnavigator.llm.ProviderFeature;
+import io.javafleet.fleetnavigator.llm.SpeculativeDecoding;
+import io.javafleet.fleetnavigator.llm.StructuredOutput;
+import io.javafleet.fleetnavigator.llm.TokenStreamDecoder;
 import io.javafleet.fleetnavigator.llm.dto.ModelInfo;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
@@ -46,24 +48,32 @@ public class LlamaCppProvider implements LLMProvider {
         ProviderFeature.BLOCKING,
         ProviderFeature.MODEL_DETAILS,
         ProviderFeature.EMBEDDINGS,
-        ProviderFeature.VISION
+        ProviderFeature.VISION,
+        ProviderFeature.STRUCTURED_OUTPUT
     );
 
+    // llama-server -np: parallel slots (requests processed simultaneously)
+    private static final int PARALLEL_SLOTS = 4;
+
     private final LLMConfigProperties config;
+    private final SpeculativeDecoding speculativeDecoding;
     private final OkHttpClient client;
     private final ObjectMapper objectMapper;
     private Process llamaServerProcess;
     private Path currentModel;
+    private volatile SpeculativeDecoding.DraftPairing currentDraft;
 
     // Track active requests for cancellation
     private final Map<String, Call> activeRequests = new ConcurrentHashMap<>();
 
-    public LlamaCppProvider(LLMConfigProperties config) {
+    public LlamaCppProvider(LLMConfigProperties config, SpeculativeDecoding speculativeDecoding,
+                            OkHttpClient sharedHttpClient) {
         this.config = config;
+        this.speculativeDecoding = speculativeDecoding;
         this.objectMapper = new ObjectMapper();
 
-        // Build OkHttp client with timeout
-        this.client = new OkHttpClient.Builder()
+        // Shared connection pool and dispatcher, own timeouts
+        this.client = sharedHttpClient.newBuilder()
                 .connectTimeout(60, TimeUnit.SECONDS)
                 .readTimeout(300, TimeUnit.SECONDS)
                 .writeTimeout(60, TimeUnit.SECONDS)
@@ -183,6 +193,25 @@ public class LlamaCppProvider implements LLMProvider {
                            Integer maxTokens, Double temperature,
                            Double topP, Integer topK, Double repeatPenalty,
                            Integer numCtx) throws IOException {
+        streamChatCompletion(model, prompt, systemPrompt, requestId, chunkConsumer,
+                maxTokens, temperature, topP, numCtx, null);
+    }
+
+    /**
+     * Strukturierte Antwort über Grammar-Sampling von llama-server (Felder json_schema/grammar)
+     */
+    @Override
+    public String chatStructured(String model, String prompt, String systemPrompt,
+                                 String requestId, StructuredOutput format,
+                                 Integer maxTokens) throws IOException {
+        return format.collect(consumer -> streamChatCompletion(model, prompt, systemPrompt, requestId,
+                consumer, maxTokens, 0.0, null, null, format));
+    }
+
+    private void streamChatCompletion(String model, String prompt, String systemPrompt,
+                                      String requestId, Consumer<String> chunkConsumer,
+                                      Integer maxTokens, Double temperature, Double topP,
+                                      Integer numCtx, StructuredOutput format) throws IOException {
         // Note: numCtx for llama-server is configured at server startup via -c flag
         if (numCtx != null) {
             log.info("📏 numCtx={} requested (llama-server uses -c at startup)", numCtx);
@@ -190,6 +219,9 @@ public class LlamaCppProvider implements LLMProvider {
 
         // Ensure llama-server is running with the correct model
         ensureLlamaServerRunning(model);
+        if (currentDraft != null) {
+            speculativeDecoding.recordUse(currentDraft);
+        }
 
         // Build messages array for OpenAI-compatible format
         List<Map<String, String>> messages = new ArrayList<>();
@@ -226,6 +258,15 @@ public class LlamaCppProvider implements LLMProvider {
         // Note: OpenAI format doesn't support top_k and repeat_penalty directly
         // llama-server might support them anyway
 
+        // Grammar-Sampling: llama-server wandelt json_schema selbst in eine Grammatik um
+        if (format != null) {
+            if (format.isJsonSchema()) {
+                requestBody.put("json_schema", objectMapper.readTree(format.getJsonSchema()));
+            } else {
+                requestBody.put("grammar", format.getGrammar());
+            }
+        }
+
         String json = objectMapper.writeValueAsString(requestBody);
 
         // llama-server uses /v1/chat/completions endpoint (OpenAI-compatible)
@@ -255,55 +296,14 @@ public class LlamaCppProvider implements LLMProvider {
                 throw new IOException("llama-server API error: " + response.code() + " - " + errorBody);
             }
 
-            // Read the streaming response line by line
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(response.body().byteStream()))) {
-
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (call.isCanceled()) {
-                        log.info("llama.cpp request {} was cancelled", requestId);
-                        break;
-                    }
-
-                    // Skip "data: " prefix if present (SSE format)
-                    if (line.startsWith("data: ")) {
-                        line = line.substring(6);
-                    }
-
-                    // Skip empty lines
-                    if (line.trim().isEmpty()) {
-                        continue;
-                    }
-
-                    // Check for [DONE] marker (OpenAI format)
-                    if (line.trim().equals("[DONE]")) {
-                        log.debug("llama.cpp streaming completed for request: {}", requestId);
-                        break;
-                    }
-
-                    // Parse each JSON line
-                    JsonNode jsonNode = objectMapper.readTree(line);
-
-                    // Extract content from OpenAI format: choices[0].delta.content
-                    if (jsonNode.has("choices") && jsonNode.get("choices").isArray() &&
-                        jsonNode.get("choices").size() > 0) {
-                        JsonNode choice = jsonNode.get("choices").get(0);
-                        if (choice.has("delta")) {
-                            JsonNode delta = choice.get("delta");
-                            if (delta.has("content")) {
-                                String chunk = delta.get("content").asText();
-                                chunkConsumer.accept(chunk);
-                            }
-                        }
-                    }
-
-                    // Fallback: Legacy format (old llama.cpp)
-                    if (jsonNode.has("content")) {
-                        String chunk = jsonNode.get("content").asText();
-                        chunkConsumer.accept(chunk);
-                    }
-                }
+            // Decode SSE chunks without building JSON trees (choices[0].delta.content, legacy content)
+            TokenStreamDecoder decoder = new TokenStreamDecoder();
+            decoder.decode(response.body().byteStream(), chunkConsumer, call::isCanceled);
+            recordDraftTimings(decoder);
+            if (call.isCanceled()) {
+                log.info("llama.cpp request {} was cancelled", requestId);
+            } else {
+                log.debug("llama.cpp streaming completed for request {}: {} chunks", requestId, decoder.getTokenCount());
             }
         } catch (IOException e) {
             if (call.isCanceled()) {
@@ -357,6 +357,9 @@ public class LlamaCppProvider implements LLMProvider {
 
         // Ensure llama-server is running with the correct model
         ensureLlamaServerRunning(model);
+        if (currentDraft != null) {
+            speculativeDecoding.recordUse(currentDraft);
+        }
 
         // Build messages array for OpenAI-compatible vision format
         List<Map<String, Object>> messages = new ArrayList<>();
@@ -494,49 +497,14 @@ public class LlamaCppProvider implements LLMProvider {
                 throw new IOException("llama-server vision API error: " + response.code() + " - " + errorBody);
             }
 
-            // Read the streaming response line by line (same as regular chat)
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(response.body().byteStream()))) {
-
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (call.isCanceled()) {
-                        log.info("llama.cpp vision request {} was cancelled", requestId);
-                        break;
-                    }
-
-                    // Skip "data: " prefix if present (SSE format)
-                    if (line.startsWith("data: ")) {
-                        line = line.substring(6);
-                    }
-
-                    // Skip empty lines
-                    if (line.trim().isEmpty()) {
-                        continue;
-                    }
-
-                    // Check for [DONE] marker
-                    if (line.trim().equals("[DONE]")) {
-                        log.debug("llama.cpp vision streaming completed for request: {}", requestId);
-                        break;
-                    }
-
-                    // Parse each JSON line
-                    JsonNode jsonNode = objectMapper.readTree(line);
-
-                    // Extract content from OpenAI format
-                    if (jsonNode.has("choices") && jsonNode.get("choices").isArray() &&
-                        jsonNode.get("choices").size() > 0) {
-                        JsonNode choice = jsonNode.get("choices").get(0);
-                        if (choice.has("delta")) {
-                            JsonNode delta = choice.get("delta");
-                            if (delta.has("content")) {
-                                String chunk = delta.get("content").asText();
-                                chunkConsumer.accept(chunk);
-                            }
-                        }
-                    }
-                }
+            // Decode SSE chunks the same way as regular chat
+            TokenStreamDecoder decoder = new TokenStreamDecoder();
+            decoder.decode(response.body().byteStream(), chunkConsumer, call::isCanceled);
+            recordDraftTimings(decoder);
+            if (call.isCanceled()) {
+                log.info("llama.cpp vision request {} was cancelled", requestId);
+            } else {
+                log.debug("llama.cpp vision streaming completed for request: {}", requestId);
             }
         } catch (IOException e) {
             if (call.isCanceled()) {
@@ -700,6 +668,19 @@ public class LlamaCppProvider implements LLMProvider {
         return false;
     }
 
+    @Override
+    public int getParallelSlots() {
+        return PARALLEL_SLOTS;
+    }
+
+    @Override
+    public Set<String> getResidentModels() {
+        Path model = currentModel;
+        return model != null && llamaServerProcess != null && llamaServerProcess.isAlive()
+                ? Set.of(model.getFileName().toString())
+                : Set.of();
+    }
+
     // ===== HELPER METHODS =====
 
     /**
@@ -722,6 +703,17 @@ public class LlamaCppProvider implements LLMProvider {
         currentModel = modelPath;
     }
 
+    /**
+     * Draft acceptance reported by llama-server in the final chunk (timings.draft_n / draft_n_accepted)
+     */
+    private void recordDraftTimings(TokenStreamDecoder decoder) {
+        SpeculativeDecoding.DraftPairing draft = currentDraft;
+        if (draft != null && decoder.getDraftTokens() >= 0) {
+            speculativeDecoding.recordAcceptance(draft, decoder.getDraftTokens(),
+                    Math.max(0, decoder.getDraftAccepted()));
+        }
+    }
+
     /**
      * Finds MMPROJ file for vision models
      * Searches for mmproj*.gguf files in the same directory as the model
@@ -789,9 +781,15 @@ public class LlamaCppProvider implements LLMProvider {
         command.add("-ub"); // ubatch-size (micro-batch for prompt processing)
         command.add("256");
         command.add("-np");  // parallel slots (multiple requests simultaneously)
-        command.add("4");
+        command.add(String.valueOf(PARALLEL_SLOTS));
         command.add("--flash-attn");  // Flash Attention (if supported)
 
+        // Speculative decoding: draft model proposes tokens, main model verifies them in one batch
+        currentDraft = speculativeDecoding.forModel(modelPath).orElse(null);
+        if (currentDraft != null) {
+            command.addAll(currentDraft.serverArguments(config.getLlamacpp().getGpuLayers()));
+        }
+
         // Add MMPROJ file for vision models (LLaVA, etc.)
         Optional<Path> mmprojFile = findMmprojFile(modelPath);
         if (mmprojFile.isPresent()) {
@@ -0,0 +1,534 @@
+package io.javafleet.fleetnavigator.llm.providers;
+
+import io.javafleet.fleetnavigator.dto.HardwareStats;
+import io.javafleet.fleetnavigator.dto.MateCommand;
+import io.javafleet.fleetnavigator.llm.LLMProvider;
+import io.javafleet.fleetnavigator.llm.ProviderFeature;
+import io.javafleet.fleetnavigator.llm.dto.ModelInfo;
+import io.javafleet.fleetnavigator.service.FleetMateService;
+import io.javafleet.fleetnavigator.websocket.FleetMateWebSocketHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Remote-Inference Provider: Generierung läuft auf Fleet Mates statt auf dem Navigator
+ *
+ * Mates mit lokalem llama-server melden per {@code inference_status} ihre Modelle,
+ * das aktuell geladene Modell und ihre Slots. Ein Request wird an den Mate mit
+ * freier Kapazität geroutet, der das Modell anbietet; bevorzugt wird der Mate, auf
+ * dem das Modell bereits geladen ist (kein Modellwechsel), danach der mit der
+ * geringsten Last (Slots, CPU, GPU aus den {@link HardwareStats}).
+ *
+ * Protokoll (Navigator -> Mate):
+ * - {@code inference_request} {requestId, model, prompt, systemPrompt, options}
+ * - {@code inference_cancel} {requestId}
+ *
+ * Protokoll (Mate -> Navigator):
+ * - {@code inference_status} {models[], loadedModel, slots, activeSlots}
+ * - {@code inference_token} {requestId, content}
+ * - {@code inference_done} {requestId, tokens, tokensPerSecond}
+ * - {@code inference_error} {requestId, error}
+ *
+ * Tokens werden vom WebSocket-Thread nur in eine Queue gelegt; der aufrufende
+ * Thread reicht sie an den Consumer weiter, damit ein langsamer SSE-Client nie
+ * den Mate-Kanal blockiert.
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@Component
+@Slf4j
+public class MateInferenceProvider implements LLMProvider {
+
+    private static final Set<ProviderFeature> SUPPORTED_FEATURES = EnumSet.of(
+        ProviderFeature.STREAMING,
+        ProviderFeature.BLOCKING,
+        ProviderFeature.LIST_MODELS,
+        ProviderFeature.MODEL_DETAILS
+    );
+
+    private static final String PROVIDER_NAME = "fleet-mate";
+
+    // Gewichtung im Routing-Score
+    private static final double RESIDENT_MODEL_BONUS = 1.0;
+    private static final double SLOT_LOAD_WEIGHT = 1.0;
+    private static final double HARDWARE_LOAD_WEIGHT = 0.5;
+
+    private final FleetMateService fleetMateService;
+    private final FleetMateWebSocketHandler webSocketHandler;
+
+    // mateId -> zuletzt gemeldeter Inference-Status
+    private final Map<String, WorkerState> workers = new ConcurrentHashMap<>();
+
+    // requestId -> laufender Stream
+    private final Map<String, RemoteStream> activeStreams = new ConcurrentHashMap<>();
+
+    @Value("${fleet-navigator.mate-inference.idle-timeout-seconds:120}")
+    private long idleTimeoutSeconds = 120;
+
+    @Value("${fleet-navigator.mate-inference.status-max-age-seconds:90}")
+    private long statusMaxAgeSeconds = 90;
+
+    public MateInferenceProvider(FleetMateService fleetMateService,
+                                 @Lazy FleetMateWebSocketHandler webSocketHandler) {
+        this.fleetMateService = fleetMateService;
+        this.webSocketHandler = webSocketHandler;
+    }
+
+    @Override
+    public boolean supportsFeature(ProviderFeature feature) {
+        return SUPPORTED_FEATURES.contains(feature);
+    }
+
+    @Override
+    public Set<ProviderFeature> getSupportedFeatures() {
+        return SUPPORTED_FEATURES;
+    }
+
+    @Override
+    public String getProviderName() {
+        return PROVIDER_NAME;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return workers.values().stream().anyMatch(this::isOnline);
+    }
+
+    // ===== CHAT-GENERIERUNG =====
+
+    @Override
+    public String chat(String model, String prompt, String systemPrompt, String requestId) throws IOException {
+        StringBuilder response = new StringBuilder();
+        chatStream(model, prompt, systemPrompt, requestId, response::append,
+                null, null, null, null, null, null);
+        return response.toString();
+    }
+
+    @Override
+    public void chatStream(String model, String prompt, String systemPrompt,
+                           String requestId, Consumer<String> chunkConsumer,
+                           Integer maxTokens, Double temperature,
+                           Double topP, Integer topK, Double repeatPenalty,
+                           Integer numCtx) throws IOException {
+        String id = requestId != null ? requestId : UUID.randomUUID().toString();
+
+        Map<String, Object> options = new HashMap<>();
+        if (maxTokens != null) options.put("maxTokens", maxTokens);
+        if (temperature != null) options.put("temperature", temperature);
+        if (topP != null) options.put("topP", topP);
+        if (topK != null) options.put("topK", topK);
+        if (repeatPenalty != null) options.put("repeatPenalty", repeatPenalty);
+        if (numCtx != null) options.put("numCtx", numCtx);
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("requestId", id);
+        payload.put("model", model);
+        payload.put("prompt", prompt);
+        if (systemPrompt != null) payload.put("systemPrompt", systemPrompt);
+        payload.put("options", options);
+
+        // Mates, die die Anfrage nicht angenommen haben - der nächstbeste kommt dran
+        Set<String> rejectedBy = new HashSet<>();
+        while (true) {
+            WorkerState worker = reserveWorker(model, rejectedBy);
+            if (worker == null) {
+                throw new IOException("Kein Fleet Mate mit freier Kapazität für Modell: " + model
+                        + (rejectedBy.isEmpty() ? "" : " (nicht angenommen von " + rejectedBy + ")"));
+            }
+
+            RemoteStream stream = new RemoteStream(id, worker.mateId);
+            activeStreams.put(id, stream);
+            try {
+                log.info("🛰️ Routing inference {} (model {}) to mate {}", id, model, worker.mateId);
+                if (!webSocketHandler.sendCommandAuto(worker.mateId, new MateCommand("inference_request", payload))) {
+                    log.warn("Mate {} hat inference {} nicht angenommen (Verbindung getrennt oder Sende-Queue voll)",
+                            worker.mateId, id);
+                    rejectedBy.add(worker.mateId);
+                    continue;
+                }
+
+                drain(stream, chunkConsumer);
+                return;
+            } finally {
+                activeStreams.remove(id);
+                worker.release();
+            }
+        }
+    }
+
+    /**
+     * Reicht Tokens im Thread des Aufrufers weiter, bis der Mate fertig meldet
+     */
+    private void drain(RemoteStream stream, Consumer<String> chunkConsumer) throws IOException {
+        try {
+            while (true) {
+                StreamEvent event = stream.events.poll(idleTimeoutSeconds, TimeUnit.SECONDS);
+                if (event == null) {
+                    sendCancel(stream);
+                    throw new IOException("Fleet Mate " + stream.mateId + " antwortet nicht (Timeout nach "
+                            + idleTimeoutSeconds + "s)");
+                }
+                switch (event.kind) {
+                    case TOKEN -> chunkConsumer.accept(event.text);
+                    case DONE -> {
+                        return;
+                    }
+                    case ERROR -> throw new IOException("Fleet Mate " + stream.mateId + ": " + event.text);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendCancel(stream);
+            throw new InterruptedIOException("Remote inference interrupted");
+        }
+    }
+
+    // ===== ROUTING =====
+
+    /**
+     * Wählt den Mate für ein Modell: Modell muss angeboten werden und ein Slot frei sein.
+     * Score = Bonus für bereits geladenes Modell - Slot-Auslastung - Hardware-Last.
+     */
+    WorkerState selectWorker(String model) {
+        List<WorkerState> ranked = rankWorkers(model, Set.of());
+        return ranked.isEmpty() ? null : ranked.get(0);
+    }
+
+    /**
+     * Belegt einen Slot beim besten Mate. Hat ein paralleler Request den letzten Slot
+     * inzwischen genommen, kommt der nächste Kandidat dran.
+     */
+    WorkerState reserveWorker(String model, Set<String> excluded) {
+        for (WorkerState worker : rankWorkers(model, excluded)) {
+            if (worker.tryReserve()) {
+                log.debug("Selected mate {} for model {}", worker.mateId, model);
+                return worker;
+            }
+        }
+        return null;
+    }
+
+    private List<WorkerState> rankWorkers(String model, Set<String> excluded) {
+        Map<WorkerState, Double> scores = new HashMap<>();
+        for (WorkerState worker : workers.values()) {
+            if (excluded.contains(worker.mateId) || !isOnline(worker) || !worker.offers(model)
+                    || worker.freeSlots() <= 0) {
+                continue;
+            }
+            scores.put(worker, score(worker, model));
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<WorkerState, Double>comparingByValue().reversed())
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private double score(WorkerState worker, String model) {
+        double score = model != null && model.equals(worker.loadedModel) ? RESIDENT_MODEL_BONUS : 0.0;
+        score -= SLOT_LOAD_WEIGHT * worker.busySlots() / (double) worker.slots;
+        score -= HARDWARE_LOAD_WEIGHT * hardwareLoad(fleetMateService.getLatestStats(worker.mateId));
+        return score;
+    }
+
+    /**
+     * Last 0..1 aus CPU und (falls vorhanden) GPU-Auslastung
+     */
+    private static double hardwareLoad(HardwareStats stats) {
+        if (stats == null) {
+            return 0.5;
+        }
+        double cpu = stats.getCpu() != null ? stats.getCpu().getUsagePercent() / 100.0 : 0.5;
+        if (stats.getGpu() == null || stats.getGpu().isEmpty()) {
+            return cpu;
+        }
+        double gpu = stats.getGpu().stream()
+                .mapToDouble(HardwareStats.GPUStats::getUtilizationGpu)
+                .min().orElse(100.0) / 100.0;
+        return (cpu + gpu) / 2.0;
+    }
+
+    private boolean isOnline(WorkerState worker) {
+        return System.currentTimeMillis() - worker.updatedAt <= TimeUnit.SECONDS.toMillis(statusMaxAgeSeconds)
+                && webSocketHandler.isMateConnected(worker.mateId);
+    }
+
+    // ===== MATE-NACHRICHTEN =====
+
+    /**
+     * Verarbeitet inference_* Nachrichten eines Mates
+     *
+     * @return true wenn die Nachricht zu diesem Provider gehört
+     */
+    @SuppressWarnings("unchecked")
+    public boolean handleMateMessage(String mateId, String type, Object data) {
+        if (!(data instanceof Map)) {
+            return false;
+        }
+        Map<String, Object> map = (Map<String, Object>) data;
+        switch (type) {
+            case "inference_status" -> updateWorker(mateId, map);
+            case "inference_token" -> offer(map, StreamEvent.Kind.TOKEN, (String) map.get("content"));
+            case "inference_done" -> {
+                offer(map, StreamEvent.Kind.DONE, null);
+                log.debug("Remote inference {} done on mate {}: {} tokens, {} tok/s",
+                        map.get("requestId"), mateId, map.get("tokens"), map.get("tokensPerSecond"));
+            }
+            case "inference_error" -> offer(map, StreamEvent.Kind.ERROR,
+                    map.get("error") != null ? map.get("error").toString() : "unbekannter Fehler");
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void updateWorker(String mateId, Map<String, Object> data) {
+        List<String> models = data.get("models") instanceof List
+                ? new ArrayList<>((List<String>) data.get("models"))
+                : List.of();
+        int slots = data.get("slots") instanceof Number n ? Math.max(1, n.intValue()) : 1;
+        int active = data.get("activeSlots") instanceof Number n ? n.intValue() : 0;
+
+        WorkerState worker = workers.computeIfAbsent(mateId, WorkerState::new);
+        worker.models = models;
+        worker.loadedModel = (String) data.get("loadedModel");
+        worker.slots = slots;
+        worker.reportedActive = active;
+        worker.updatedAt = System.currentTimeMillis();
+        log.debug("Mate {} inference status: loaded={}, slots {}/{}, {} models",
+                mateId, worker.loadedModel, active, slots, models.size());
+    }
+
+    private void offer(Map<String, Object> data, StreamEvent.Kind kind, String text) {
+        Object requestId = data.get("requestId");
+        RemoteStream stream = requestId != null ? activeStreams.get(requestId.toString()) : null;
+        if (stream == null) {
+            log.debug("Inference message for unknown request {}", requestId);
+            return;
+        }
+        if (kind == StreamEvent.Kind.TOKEN && (text == null || text.isEmpty())) {
+            return;
+        }
+        stream.events.add(new StreamEvent(kind, text));
+    }
+
+    /**
+     * Mate getrennt: Worker entfernen und laufende Streams mit Fehler beenden
+     */
+    public void onMateDisconnected(String mateId) {
+        if (workers.remove(mateId) == null) {
+            return;
+        }
+        activeStreams.values().stream()
+                .filter(s -> s.mateId.equals(mateId))
+                .forEach(s -> s.events.add(new StreamEvent(StreamEvent.Kind.ERROR, "Verbindung getrennt")));
+    }
+
+    /**
+     * Übersicht der Inference-Worker für Dashboard/REST
+     */
+    public List<Map<String, Object>> getWorkerStatus() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (WorkerState worker : workers.values()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("mateId", worker.mateId);
+            entry.put("online", isOnline(worker));
+            entry.put("loadedModel", worker.loadedModel);
+            entry.put("models", worker.models);
+            entry.put("slots", worker.slots);
+            entry.put("busySlots", worker.busySlots());
+            entry.put("hardwareLoad", hardwareLoad(fleetMateService.getLatestStats(worker.mateId)));
+            result.add(entry);
+        }
+        return result;
+    }
+
+    // ===== VISION-SUPPORT =====
+
+    @Override
+    public String chatWithVision(String model, String prompt, List<String> images,
+                                 String systemPrompt, String requestId) throws IOException {
+        throw new IOException("Vision wird über Fleet Mates nicht unterstützt");
+    }
+
+    @Override
+    public void chatStreamWithVision(String model, String prompt, List<String> images,
+                                     String systemPrompt, String requestId,
+                                     Consumer<String> chunkConsumer) throws IOException {
+        throw new IOException("Vision wird über Fleet Mates nicht unterstützt");
+    }
+
+    // ===== MODELL-MANAGEMENT =====
+
+    @Override
+    public List<ModelInfo> getAvailableModels() {
+        Map<String, ModelInfo> models = new TreeMap<>();
+        for (WorkerState worker : workers.values()) {
+            if (!isOnline(worker)) {
+                continue;
+            }
+            for (String model : worker.models) {
+                models.computeIfAbsent(model, name -> ModelInfo.builder()
+                        .name(name)
+                        .displayName(name)
+                        .provider(PROVIDER_NAME)
+                        .description("Auf Fleet Mate " + worker.mateId)
+                        .build());
+            }
+        }
+        return new ArrayList<>(models.values());
+    }
+
+    @Override
+    public void pullModel(String modelName, Consumer<String> progressConsumer) throws IOException {
+        progressConsumer.accept("{\"status\":\"error\",\"message\":\"Modelle werden direkt auf den Fleet Mates verwaltet.\"}");
+    }
+
+    @Override
+    public boolean deleteModel(String modelName) {
+        log.warn("Modelle werden direkt auf den Fleet Mates verwaltet");
+        return false;
+    }
+
+    @Override
+    public Map<String, Object> getModelDetails(String modelName) {
+        Map<String, Object> details = new HashMap<>();
+        details.put("name", modelName);
+        details.put("provider", PROVIDER_NAME);
+        details.put("mates", workers.values().stream()
+                .filter(w -> w.offers(modelName))
+                .map(w -> w.mateId)
+                .sorted()
+                .toList());
+        return details;
+    }
+
+    // ===== REQUEST-MANAGEMENT =====
+
+    @Override
+    public boolean cancelRequest(String requestId) {
+        RemoteStream stream = activeStreams.get(requestId);
+        if (stream == null) {
+            return false;
+        }
+        sendCancel(stream);
+        stream.events.add(new StreamEvent(StreamEvent.Kind.DONE, null));
+        return true;
+    }
+
+    /**
+     * Freie Slots über alle erreichbaren Mates
+     */
+    @Override
+    public int getParallelSlots() {
+        int free = workers.values().stream()
+                .filter(this::isOnline)
+                .mapToInt(w -> Math.max(0, w.freeSlots()))
+                .sum();
+        return Math.max(1, free);
+    }
+
+    /**
+     * Auf erreichbaren Mates geladene Modelle
+     */
+    @Override
+    public Set<String> getResidentModels() {
+        return workers.values().stream()
+                .filter(this::isOnline)
+                .map(w -> w.loadedModel)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private void sendCancel(RemoteStream stream) {
+        try {
+            webSocketHandler.sendCommandAuto(stream.mateId,
+                    new MateCommand("inference_cancel", new HashMap<>(Map.of("requestId", stream.requestId))));
+        } catch (Exception e) {
+            log.debug("Could not send inference_cancel to {}: {}", stream.mateId, e.getMessage());
+        }
+    }
+
+    // ===== INTERNE TYPEN =====
+
+    /**
+     * Inference-Status eines Mates
+     */
+    static final class WorkerState {
+        final String mateId;
+        final AtomicInteger dispatched = new AtomicInteger();
+        volatile List<String> models = List.of();
+        volatile String loadedModel;
+        volatile int slots = 1;
+        volatile int reportedActive;
+        volatile long updatedAt;
+
+        WorkerState(String mateId) {
+            this.mateId = mateId;
+        }
+
+        boolean offers(String model) {
+            return model == null || model.equals(loadedModel) || models.contains(model);
+        }
+
+        /**
+         * Der Status des Mates hinkt hinterher - eigene Zuteilungen zählen sofort
+         */
+        int busySlots() {
+            return Math.max(reportedActive, dispatched.get());
+        }
+
+        int freeSlots() {
+            return slots - busySlots();
+        }
+
+        /**
+         * Belegt einen Slot per CAS - zwei Requests können nie denselben letzten Slot bekommen
+         */
+        boolean tryReserve() {
+            while (true) {
+                int current = dispatched.get();
+                if (slots - Math.max(reportedActive, current) <= 0) {
+                    return false;
+                }
+                if (dispatched.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            dispatched.decrementAndGet();
+        }
+    }
+
+    private static final class RemoteStream {
+        final String requestId;
+        final String mateId;
+        final BlockingQueue<StreamEvent> events = new LinkedBlockingQueue<>();
+
+        RemoteStream(String requestId, String mateId) {
+            this.requestId = requestId;
+            this.mateId = mateId;
+        }
+    }
+
+    private record StreamEvent(Kind kind, String text) {
+        enum Kind { TOKEN, DONE, ERROR }
+    }
+}
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.javafleet.fleetnavigator.config.LLMConfigProperties;
 import io.javafleet.fleetnavigator.llm.LLMProvider;
 import io.javafleet.fleetnavigator.llm.ProviderFeature;
+import io.javafleet.fleetnavigator.llm.StructuredOutput;
 import io.javafleet.fleetnavigator.llm.dto.ModelInfo;
 import io.javafleet.fleetnavigator.service.OllamaService;
 import lombok.extern.slf4j.Slf4j;
@@ -35,11 +36,11 @@ public class OllamaProvider implements LLMProvider {
     private final OkHttpClient httpClient;
     private final ObjectMapper objectMapper;
 
-    public OllamaProvider(OllamaService ollamaService, LLMConfigProperties config) {
+    public OllamaProvider(OllamaService ollamaService, LLMConfigProperties config, OkHttpClient sharedHttpClient) {
         this.ollamaService = ollamaService;
         this.enabled = config.getOllama() != null && config.getOllama().isEnabled();
         this.ollamaBaseUrl = config.getOllama() != null ? config.getOllama().getBaseUrl() : "http://localhost:11434";
-        this.httpClient = new OkHttpClient();
+        this.httpClient = sharedHttpClient;
         this.objectMapper = new ObjectMapper();
 
         if (enabled) {
@@ -91,6 +92,18 @@ public class OllamaProvider implements LLMProvider {
                 maxTokens, temperature, topP, topK, repeatPenalty, numCtx, cpuOnly);
     }
 
+    /**
+     * Strukturierte Antwort über Ollama "format" (JSON-Schema wird beim Dekodieren erzwungen)
+     */
+    @Override
+    public String chatStructured(String model, String prompt, String systemPrompt, String requestId,
+                                 StructuredOutput format, Integer maxTokens) throws IOException {
+        if (!enabled) {
+            throw new UnsupportedOperationException("Ollama provider is disabled in configuration");
+        }
+        return ollamaService.chatStructured(model, prompt, systemPrompt, requestId, format, maxTokens);
+    }
+
     @Override
     public String chatWithVision(String model, String prompt, List<String> images,
                                  String systemPrompt, String requestId) throws IOException {
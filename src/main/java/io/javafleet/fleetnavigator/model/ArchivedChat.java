@@ -0,0 +1,53 @@
+package io.javafleet.fleetnavigator.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * ArchivedChat Entity - Index entry of a chat in cold storage.
+ * The chat row stays in place; its messages, documents and context items were moved
+ * into one compressed record of an archive segment file (segment, offset).
+ */
+@Entity
+@Table(name = "archived_chat", indexes = @Index(name = "idx_archived_chat_segment", columnList = "segment"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedChat {
+
+    @Id
+    @Column(name = "chat_id")
+    private Long chatId;
+
+    @Column(name = "segment", nullable = false)
+    private Integer segment;
+
+    // Start of the compressed record inside the segment file
+    @Column(name = "segment_offset", nullable = false)
+    private Long offset;
+
+    @Column(name = "stored_length", nullable = false)
+    private Integer storedLength;
+
+    // UTF-8 length of the uncompressed JSON record
+    @Column(name = "raw_length", nullable = false)
+    private Integer rawLength;
+
+    @Column(name = "message_count", nullable = false)
+    private Integer messageCount;
+
+    @Column(name = "document_count", nullable = false)
+    private Integer documentCount;
+
+    // Sum of the archived messages' tokens, so chat and project totals still include them.
+    // Null for entries written before the column existed; the next archive run fills it in.
+    @Column(name = "token_count")
+    private Integer tokenCount;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
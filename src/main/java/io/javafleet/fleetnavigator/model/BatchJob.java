@@ -0,0 +1,83 @@
+package io.javafleet.fleetnavigator.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Offline batch inference job: a list of prompts run against one model with fixed
+ * sampling settings. Items live in a JSONL input file, results are appended to a
+ * JSONL result file, so a job can resume after a restart where it stopped.
+ */
+@Entity
+@Table(name = "batch_job")
+@Data
+@NoArgsConstructor
+public class BatchJob {
+
+    public enum Status {
+        QUEUED, RUNNING, PAUSED, COMPLETED, FAILED, CANCELLED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String name;
+
+    @Column(nullable = false)
+    private String model;
+
+    /**
+     * Default system prompt for items that don't bring their own
+     */
+    @Column(columnDefinition = "TEXT")
+    private String systemPrompt;
+
+    private Double temperature;
+
+    private Double topP;
+
+    private Integer maxTokens;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.QUEUED;
+
+    private int totalItems;
+
+    private int completedItems;
+
+    private int failedItems;
+
+    /**
+     * JSONL with one {@code {"id", "prompt", "system"}} object per line
+     */
+    @Column(length = 1024)
+    private String inputFile;
+
+    /**
+     * JSONL with one result object per finished item
+     */
+    @Column(length = 1024)
+    private String resultFile;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package io.javafleet.fleetnavigator.model;
 
+import io.javafleet.fleetnavigator.service.ChatSearchIndexListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -13,6 +14,7 @@ import java.util.List;
  * Chat Entity - Represents a conversation with an LLM model
  */
 @Entity
+@EntityListeners(ChatSearchIndexListener.class)
 @Table(name = "chat")
 @Data
 @NoArgsConstructor
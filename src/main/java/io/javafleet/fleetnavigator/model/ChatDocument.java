@@ -1,5 +1,6 @@
 package io.javafleet.fleetnavigator.model;
 
+import io.javafleet.fleetnavigator.service.ChatSearchIndexListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -12,6 +13,7 @@ import java.time.LocalDateTime;
  * This allows the document context to persist across sessions
  */
 @Entity
+@EntityListeners(ChatSearchIndexListener.class)
 @Table(name = "chat_document")
 @Data
 @NoArgsConstructor
@@ -32,9 +34,14 @@ public class ChatDocument {
     @Column(name = "file_type", length = 50)
     private String fileType;
 
+    // Inline content (documents stored before the blob store); null when contentHash is set
     @Column(name = "content", columnDefinition = "LONGTEXT")
     private String content;
 
+    // Content in the ContentBlobStore (SHA-256); read via ContentBlobStore.contentOf
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @Column(name = "content_size")
     private Integer contentSize;
 
@@ -43,7 +50,10 @@ public class ChatDocument {
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        // Rows restored from the chat archive keep their original timestamp
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
         if (content != null) {
             contentSize = content.length();
         }
@@ -0,0 +1,60 @@
+package io.javafleet.fleetnavigator.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * ContentBlob Entity - Index entry of the content-addressed blob store.
+ * The compressed text lives in a segment file outside the database; this row
+ * only records where (segment, offset) and how many entities reference it.
+ */
+@Entity
+@Table(name = "content_blob", indexes = @Index(name = "idx_content_blob_segment", columnList = "segment"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentBlob {
+
+    // SHA-256 of the UTF-8 text (hex)
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    @Column(name = "segment", nullable = false)
+    private Integer segment;
+
+    // Start of the compressed data inside the segment file
+    @Column(name = "segment_offset", nullable = false)
+    private Long offset;
+
+    @Column(name = "stored_length", nullable = false)
+    private Integer storedLength;
+
+    // UTF-8 length of the uncompressed text
+    @Column(name = "raw_length", nullable = false)
+    private Integer rawLength;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Last time a reference was taken; the sweep keeps fresh blobs whose referencing row is not saved yet
+    @Column(name = "last_referenced_at", nullable = false)
+    private LocalDateTime lastReferencedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (lastReferencedAt == null) {
+            lastReferencedAt = createdAt;
+        }
+    }
+}
@@ -26,9 +26,14 @@ public class ContextFile {
     @Column(nullable = false)
     private String filename;
 
+    // Inline content (files stored before the blob store); empty when contentHash is set
     @Column(columnDefinition = "TEXT", nullable = false)
     private String content;
 
+    // Content in the ContentBlobStore (SHA-256); read via ContentBlobStore.contentOf
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @Column(name = "file_type")
     private String fileType; // .txt, .md, .java, .py, etc.
 
@@ -47,6 +52,6 @@ public class ContextFile {
      * Estimate tokens in this file (rough estimate: 1 token ≈ 4 characters)
      */
     public int estimateTokens() {
-        return content.length() / 4;
+        return (int) (size / 4);
     }
 }
@@ -39,6 +39,9 @@ public class ContextItem {
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        // Rows restored from the chat archive keep their original timestamp
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
     }
 }
@@ -0,0 +1,43 @@
+package io.javafleet.fleetnavigator.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * ExtractedContent Entity - Remembers the text extracted from an uploaded file.
+ * Keyed by the SHA-256 of the file bytes, so a re-upload of the same file skips
+ * PDF parsing and OCR and reuses the stored blob.
+ */
+@Entity
+@Table(name = "extracted_content")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtractedContent {
+
+    // SHA-256 of the uploaded file (hex)
+    @Id
+    @Column(name = "source_hash", length = 64)
+    private String sourceHash;
+
+    // Blob with the extracted text
+    @Column(name = "content_hash", length = 64, nullable = false)
+    private String contentHash;
+
+    @Column(name = "ocr_used", nullable = false)
+    private Boolean ocrUsed;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
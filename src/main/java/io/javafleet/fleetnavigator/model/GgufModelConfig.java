@@ -181,6 +181,35 @@ public class GgufModelConfig {
      */
     private Boolean mlockEnabled;
 
+    // ========== Speculative Decoding ==========
+
+    /**
+     * Draft model GGUF filename (small model of the same family, e.g. "qwen2.5-0.5b-instruct-q4_k_m.gguf").
+     * Proposes tokens that the main model verifies in one batch; null = disabled.
+     * Vocabulary compatibility is checked before the pair is loaded.
+     */
+    private String draftModel;
+
+    /**
+     * Maximum tokens drafted per step (default: 16)
+     */
+    private Integer draftMax;
+
+    /**
+     * Minimum tokens drafted per step (default: 0)
+     */
+    private Integer draftMin;
+
+    /**
+     * Minimum draft probability to keep drafting (default: 0.8)
+     */
+    private Double draftPMin;
+
+    /**
+     * GPU layers for the draft model (null = same as main model)
+     */
+    private Integer draftGpuLayers;
+
     // ========== Organization/Metadata ==========
 
     /**
@@ -1,5 +1,6 @@
 package io.javafleet.fleetnavigator.model;
 
+import io.javafleet.fleetnavigator.service.ChatSearchIndexListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -11,6 +12,7 @@ import java.time.LocalDateTime;
  * Message Entity - Represents a single message in a chat
  */
 @Entity
+@EntityListeners(ChatSearchIndexListener.class)
 @Table(name = "message")
 @Data
 @NoArgsConstructor
@@ -60,7 +62,10 @@ public class Message {
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        // Rows restored from the chat archive keep their original timestamp
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
     }
 
     /**
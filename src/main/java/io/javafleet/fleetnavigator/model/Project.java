@@ -7,6 +7,7 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Project entity - groups chats and provides shared context
@@ -61,8 +62,10 @@ public class Project {
 
     /**
      * Get combined context from all files
+     *
+     * @param contentLoader loads the file content (inline or from the blob store)
      */
-    public String getCombinedContext() {
+    public String getCombinedContext(Function<ContextFile, String> contentLoader) {
         StringBuilder combined = new StringBuilder();
         combined.append("=== PROJECT CONTEXT: ").append(name).append(" ===\n\n");
 
@@ -72,7 +75,7 @@ public class Project {
 
         for (ContextFile file : contextFiles) {
             combined.append("--- File: ").append(file.getFilename()).append(" ---\n");
-            combined.append(file.getContent()).append("\n\n");
+            combined.append(contentLoader.apply(file)).append("\n\n");
         }
 
         return combined.toString();
@@ -0,0 +1,49 @@
+package io.javafleet.fleetnavigator.repository;
+
+import io.javafleet.fleetnavigator.model.ArchivedChat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedChatRepository extends JpaRepository<ArchivedChat, Long> {
+
+    /**
+     * IDs of all chats in cold storage
+     */
+    @Query("SELECT a.chatId FROM ArchivedChat a")
+    List<Long> findAllChatIds();
+
+    /**
+     * Archive entries whose chat was deleted in the meantime
+     */
+    @Query("SELECT a FROM ArchivedChat a WHERE NOT EXISTS (SELECT c.id FROM Chat c WHERE c.id = a.chatId)")
+    List<ArchivedChat> findOrphans();
+
+    /**
+     * Archived tokens of all chats in a project (complements MessageRepository.sumTokensByProjectId)
+     */
+    @Query("SELECT COALESCE(SUM(a.tokenCount), 0) FROM ArchivedChat a " +
+           "WHERE a.chatId IN (SELECT c.id FROM Chat c WHERE c.project.id = :projectId)")
+    Long sumTokensByProjectId(Long projectId);
+
+    /**
+     * Entries archived before token totals were recorded
+     */
+    List<ArchivedChat> findByTokenCountIsNull();
+
+    /**
+     * Live data per segment: [segment, sum of stored lengths, record count]
+     */
+    @Query("SELECT a.segment, SUM(a.storedLength), COUNT(a) FROM ArchivedChat a GROUP BY a.segment")
+    List<Object[]> sumStoredLengthBySegment();
+
+    /**
+     * Totals: [chat count, message count, document count, raw bytes, stored bytes]
+     */
+    @Query("SELECT COUNT(a), COALESCE(SUM(a.messageCount), 0), COALESCE(SUM(a.documentCount), 0), " +
+           "COALESCE(SUM(a.rawLength), 0), COALESCE(SUM(a.storedLength), 0) FROM ArchivedChat a")
+    List<Object[]> totals();
+}
@@ -0,0 +1,21 @@
+package io.javafleet.fleetnavigator.repository;
+
+import io.javafleet.fleetnavigator.model.BatchJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BatchJobRepository extends JpaRepository<BatchJob, Long> {
+
+    /**
+     * Oldest job in the given state (the dispatcher runs jobs first come, first served)
+     */
+    Optional<BatchJob> findFirstByStatusOrderByCreatedAtAsc(BatchJob.Status status);
+
+    List<BatchJob> findByStatus(BatchJob.Status status);
+
+    List<BatchJob> findAllByOrderByCreatedAtDesc();
+}
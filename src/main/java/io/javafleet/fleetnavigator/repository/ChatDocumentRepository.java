@@ -1,7 +1,10 @@
 package io.javafleet.fleetnavigator.repository;
 
 import io.javafleet.fleetnavigator.model.ChatDocument;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -23,4 +26,23 @@ public interface ChatDocumentRepository extends JpaRepository<ChatDocument, Long
      * Count documents for a chat
      */
     long countByChatId(Long chatId);
+
+    /**
+     * Blob references per content hash: [content hash, count]
+     */
+    @Query("SELECT d.contentHash, COUNT(d) FROM ChatDocument d WHERE d.contentHash IS NOT NULL GROUP BY d.contentHash")
+    List<Object[]> countByContentHash();
+
+    /**
+     * Documents whose content is still stored inline in the database
+     */
+    @Query("SELECT d FROM ChatDocument d WHERE d.contentHash IS NULL AND d.content IS NOT NULL")
+    List<ChatDocument> findInlineContent(Pageable pageable);
+
+    /**
+     * Next batch of document names for the chat search index (keyset by ID, content is not loaded)
+     */
+    @Query("SELECT d.id AS id, d.chat.id AS chatId, d.fileName AS text, d.createdAt AS createdAt " +
+           "FROM ChatDocument d WHERE d.id > :afterId ORDER BY d.id")
+    List<SearchIndexRow> findSearchRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
@@ -1,11 +1,13 @@
 package io.javafleet.fleetnavigator.repository;
 
 import io.javafleet.fleetnavigator.model.Chat;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,4 +38,28 @@ public interface ChatRepository extends JpaRepository<Chat, Long> {
      */
     @Query("SELECT c FROM Chat c LEFT JOIN FETCH c.project p LEFT JOIN FETCH p.contextFiles WHERE c.id = :id")
     Optional<Chat> findByIdWithProject(@Param("id") Long id);
+
+    /**
+     * IDs of all chats in a project (search filter)
+     */
+    @Query("SELECT c.id FROM Chat c WHERE c.project.id = :projectId")
+    List<Long> findIdsByProjectId(@Param("projectId") Long projectId);
+
+    /**
+     * Chats without activity since the cutoff, oldest first (archival candidates)
+     */
+    @Query("SELECT c.id FROM Chat c WHERE c.updatedAt < :cutoff ORDER BY c.updatedAt")
+    List<Long> findIdleIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Whether the chat is still idle (re-checked right before it is archived)
+     */
+    boolean existsByIdAndUpdatedAtBefore(Long id, LocalDateTime cutoff);
+
+    /**
+     * Next batch of chat titles for the chat search index (keyset by ID)
+     */
+    @Query("SELECT c.id AS id, c.id AS chatId, c.title AS text, c.updatedAt AS createdAt " +
+           "FROM Chat c WHERE c.id > :afterId ORDER BY c.id")
+    List<SearchIndexRow> findSearchRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
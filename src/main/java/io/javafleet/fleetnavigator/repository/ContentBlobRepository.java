@@ -0,0 +1,29 @@
+package io.javafleet.fleetnavigator.repository;
+
+import io.javafleet.fleetnavigator.model.ContentBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ContentBlobRepository extends JpaRepository<ContentBlob, String> {
+
+    /**
+     * All blobs stored in a segment file
+     */
+    List<ContentBlob> findBySegment(Integer segment);
+
+    /**
+     * Live (still indexed) data per segment: [segment, sum of stored lengths, blob count]
+     */
+    @Query("SELECT b.segment, SUM(b.storedLength), COUNT(b) FROM ContentBlob b GROUP BY b.segment")
+    List<Object[]> sumStoredLengthBySegment();
+
+    /**
+     * Totals: [blob count, raw bytes, stored bytes, references]
+     */
+    @Query("SELECT COUNT(b), COALESCE(SUM(b.rawLength), 0), COALESCE(SUM(b.storedLength), 0), COALESCE(SUM(b.refCount), 0) FROM ContentBlob b")
+    List<Object[]> totals();
+}
@@ -1,6 +1,7 @@
 package io.javafleet.fleetnavigator.repository;
 
 import io.javafleet.fleetnavigator.model.ContextFile;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -25,4 +26,16 @@ public interface ContextFileRepository extends JpaRepository<ContextFile, Long>
      * Count files in a project
      */
     Long countByProjectId(Long projectId);
+
+    /**
+     * Blob references per content hash: [content hash, count]
+     */
+    @Query("SELECT cf.contentHash, COUNT(cf) FROM ContextFile cf WHERE cf.contentHash IS NOT NULL GROUP BY cf.contentHash")
+    List<Object[]> countByContentHash();
+
+    /**
+     * Files whose content is still stored inline in the database
+     */
+    @Query("SELECT cf FROM ContextFile cf WHERE cf.contentHash IS NULL")
+    List<ContextFile> findInlineContent(Pageable pageable);
 }
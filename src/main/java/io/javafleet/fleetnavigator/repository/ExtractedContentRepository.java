@@ -0,0 +1,18 @@
+package io.javafleet.fleetnavigator.repository;
+
+import io.javafleet.fleetnavigator.model.ExtractedContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ExtractedContentRepository extends JpaRepository<ExtractedContent, String> {
+
+    /**
+     * References per blob: [content hash, count]
+     */
+    @Query("SELECT e.contentHash, COUNT(e) FROM ExtractedContent e GROUP BY e.contentHash")
+    List<Object[]> countByContentHash();
+}
@@ -4,6 +4,7 @@ import io.javafleet.fleetnavigator.model.GgufModelConfig;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -23,4 +24,9 @@ public interface GgufModelConfigRepository extends JpaRepository<GgufModelConfig
      * Find the default model configuration
      */
     Optional<GgufModelConfig> findByIsDefaultTrue();
+
+    /**
+     * Find configurations that pair their base model with a draft model
+     */
+    List<GgufModelConfig> findByDraftModelIsNotNull();
 }
@@ -1,10 +1,13 @@
 package io.javafleet.fleetnavigator.repository;
 
 import io.javafleet.fleetnavigator.model.Message;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,4 +43,41 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
      * Find message by downloadUrl (used to update Fleet-Mate document path)
      */
     Optional<Message> findByDownloadUrl(String downloadUrl);
+
+    /**
+     * Next batch of messages for the chat search index (keyset by ID, no entity loading)
+     */
+    @Query("SELECT m.id AS id, m.chat.id AS chatId, m.role AS role, m.content AS text, m.createdAt AS createdAt " +
+           "FROM Message m WHERE m.id > :afterId ORDER BY m.id")
+    List<MessageSearchRow> findSearchRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Next page of a chat's messages for export (keyset by ID, no entity loading)
+     */
+    @Query("SELECT m.id AS id, m.role AS role, m.content AS content, m.modelName AS modelName, " +
+           "m.createdAt AS createdAt FROM Message m WHERE m.chat.id = :chatId AND m.id > :afterId ORDER BY m.id")
+    List<MessageExportRow> findExportRowsAfter(@Param("chatId") Long chatId, @Param("afterId") Long afterId,
+                                               Pageable pageable);
+
+    /**
+     * Search index row of a message
+     */
+    interface MessageSearchRow extends SearchIndexRow {
+        Message.MessageRole getRole();
+    }
+
+    /**
+     * Message as written by the chat export
+     */
+    interface MessageExportRow {
+        Long getId();
+
+        Message.MessageRole getRole();
+
+        String getContent();
+
+        String getModelName();
+
+        LocalDateTime getCreatedAt();
+    }
 }
@@ -0,0 +1,17 @@
+package io.javafleet.fleetnavigator.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a message, chat title or document name as read by the chat search index
+ */
+public interface SearchIndexRow {
+
+    Long getId();
+
+    Long getChatId();
+
+    String getText();
+
+    LocalDateTime getCreatedAt();
+}
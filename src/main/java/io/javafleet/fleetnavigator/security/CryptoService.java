@@ -1,7 +1,9 @@
 package io.javafleet.fleetnavigator.security;
 
 import jakarta.annotation.PostConstruct;
+import io.javafleet.fleetnavigator.config.StartupReport;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -37,12 +39,44 @@ public class CryptoService {
     private KeyPair signKeyPair;      // Ed25519 for signing
     private KeyPair exchangeKeyPair;  // X25519 for key exchange
 
+    @Autowired(required = false)
+    private StartupReport startupReport;
+
+    private volatile boolean keysLoaded;
+
     @PostConstruct
     public void init() {
+        if (startupReport != null && startupReport.isFast()) {
+            startupReport.deferred("crypto.keys");
+        } else {
+            ensureKeys();
+        }
+    }
+
+    /**
+     * Lädt die Schlüssel beim ersten Aufruf (im Fast-Startup-Modus erst beim ersten Pairing/Handshake)
+     */
+    private void ensureKeys() {
+        if (keysLoaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!keysLoaded) {
+                if (startupReport != null) {
+                    startupReport.measure("crypto.keys", this::initKeys);
+                } else {
+                    initKeys();
+                }
+                keysLoaded = true;
+                log.info("Crypto service initialized with Navigator public key: {}",
+                        getPublicKeyBase64().substring(0, 20) + "...");
+            }
+        }
+    }
+
+    private void initKeys() {
         try {
             loadOrGenerateKeys();
-            log.info("Crypto service initialized with Navigator public key: {}",
-                    getPublicKeyBase64().substring(0, 20) + "...");
         } catch (Exception e) {
             log.error("Failed to initialize crypto service", e);
             throw new RuntimeException("Crypto initialization failed", e);
@@ -160,7 +194,7 @@ public class CryptoService {
      * Get Navigator's Ed25519 public key as Base64 (raw 32 bytes for Go compatibility)
      */
     public String getPublicKeyBase64() {
-        byte[] encoded = signKeyPair.getPublic().getEncoded();
+        byte[] encoded = signKeys().getPublic().getEncoded();
         // Extract raw 32-byte key from X.509 format
         byte[] raw = new byte[32];
         System.arraycopy(encoded, ED25519_X509_HEADER_LENGTH, raw, 0, 32);
@@ -171,7 +205,7 @@ public class CryptoService {
      * Get Navigator's X25519 public key as Base64 (raw 32 bytes for Go compatibility)
      */
     public String getExchangePublicKeyBase64() {
-        byte[] encoded = exchangeKeyPair.getPublic().getEncoded();
+        byte[] encoded = exchangeKeys().getPublic().getEncoded();
         // Extract raw 32-byte key from X.509 format
         byte[] raw = new byte[32];
         System.arraycopy(encoded, X25519_X509_HEADER_LENGTH, raw, 0, 32);
@@ -185,7 +219,7 @@ public class CryptoService {
      */
     public String sign(String message) throws GeneralSecurityException {
         Signature sig = Signature.getInstance("Ed25519");
-        sig.initSign(signKeyPair.getPrivate());
+        sig.initSign(signKeys().getPrivate());
         sig.update(message.getBytes(StandardCharsets.UTF_8));
         return Base64.getEncoder().encodeToString(sig.sign());
     }
@@ -254,7 +288,7 @@ public class CryptoService {
         PublicKey peerKey = kf.generatePublic(new X509EncodedKeySpec(pubBytes));
 
         KeyAgreement ka = KeyAgreement.getInstance("X25519");
-        ka.init(exchangeKeyPair.getPrivate());
+        ka.init(exchangeKeys().getPrivate());
         ka.doPhase(peerKey, true);
 
         // Hash the shared secret to get a proper AES key
@@ -371,4 +405,14 @@ public class CryptoService {
             return "0000:0000:0000";
         }
     }
+
+    private KeyPair signKeys() {
+        ensureKeys();
+        return signKeyPair;
+    }
+
+    private KeyPair exchangeKeys() {
+        ensureKeys();
+        return exchangeKeyPair;
+    }
 }
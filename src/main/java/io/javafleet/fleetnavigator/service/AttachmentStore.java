@@ -0,0 +1,149 @@
+package io.javafleet.fleetnavigator.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Disk store for uploaded binary attachments (images, rendered PDF pages).
+ *
+ * Uploads return a short reference instead of a base64 string. The base64 form the
+ * providers need (Ollama and llama-server both take images inline) is produced only
+ * when a chat request actually sends the image, and is dropped after that request.
+ * Files older than the TTL are purged periodically.
+ */
+@Slf4j
+@Service
+public class AttachmentStore {
+
+    private static final Pattern REF = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+
+    @Value("${fleet-navigator.upload.attachment-dir:}")
+    private String attachmentDir = "";
+
+    @Value("${fleet-navigator.upload.attachment-ttl-hours:24}")
+    private long ttlHours = 24;
+
+    private Path directory;
+
+    @PostConstruct
+    void init() throws IOException {
+        directory = attachmentDir == null || attachmentDir.isBlank()
+                ? Path.of(System.getProperty("java.io.tmpdir"), "fleet-navigator-attachments")
+                : Path.of(attachmentDir);
+        Files.createDirectories(directory);
+        log.info("Attachment store: {}", directory);
+    }
+
+    /**
+     * Copy a stream to the store (never buffered in heap)
+     *
+     * @return reference for {@link #readBase64(String)}
+     */
+    public String store(InputStream in) throws IOException {
+        String ref = UUID.randomUUID().toString();
+        Files.copy(in, directory.resolve(ref), StandardCopyOption.REPLACE_EXISTING);
+        return ref;
+    }
+
+    /**
+     * Encode an image as PNG straight into the store
+     */
+    public String storePng(BufferedImage image) throws IOException {
+        String ref = UUID.randomUUID().toString();
+        try (OutputStream out = Files.newOutputStream(directory.resolve(ref))) {
+            ImageIO.write(image, "PNG", out);
+        }
+        return ref;
+    }
+
+    /**
+     * Size of a stored attachment in bytes
+     */
+    public long size(String ref) throws IOException {
+        return Files.size(resolve(ref));
+    }
+
+    /**
+     * Base64 form of an attachment, encoded while streaming from disk
+     */
+    public String readBase64(String ref) throws IOException {
+        Path path = resolve(ref);
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE - 8,
+                (Files.size(path) + 2) / 3 * 4));
+        try (InputStream in = Files.newInputStream(path);
+             OutputStream out = Base64.getEncoder().wrap(encoded)) {
+            in.transferTo(out);
+        }
+        return encoded.toString(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Base64 forms of several attachments; unknown or expired references are skipped
+     */
+    public List<String> readBase64(List<String> refs) {
+        List<String> images = new ArrayList<>(refs.size());
+        for (String ref : refs) {
+            try {
+                images.add(readBase64(ref));
+            } catch (IOException | IllegalArgumentException e) {
+                log.warn("Attachment {} not available: {}", ref, e.getMessage());
+            }
+        }
+        return images;
+    }
+
+    /**
+     * Delete attachments older than the TTL
+     */
+    @Scheduled(fixedRate = 60 * 60 * 1000, initialDelay = 60 * 60 * 1000)
+    public void purgeExpired() {
+        Instant cutoff = Instant.now().minus(Duration.ofHours(ttlHours));
+        int deleted = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                try {
+                    if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff) && Files.deleteIfExists(file)) {
+                        deleted++;
+                    }
+                } catch (IOException e) {
+                    log.debug("Could not purge attachment {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not list attachment store: {}", e.getMessage());
+        }
+        if (deleted > 0) {
+            log.info("Purged {} expired attachments", deleted);
+        }
+    }
+
+    private Path resolve(String ref) {
+        // References come from the client - only accept our own UUID names
+        if (ref == null || !REF.matcher(ref).matches()) {
+            throw new IllegalArgumentException("Invalid attachment reference: " + ref);
+        }
+        return directory.resolve(ref);
+    }
+}
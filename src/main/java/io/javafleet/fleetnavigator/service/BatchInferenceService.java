@@ -0,0 +1,599 @@
+package io.javafleet.fleetnavigator.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.javafleet.fleetnavigator.config.FleetPathsConfiguration;
+import io.javafleet.fleetnavigator.model.BatchJob;
+import io.javafleet.fleetnavigator.repository.BatchJobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Offline batch inference: bulk prompt lists (chat summaries, contextSummary regeneration,
+ * email backlogs, ...) run in the background while nobody is chatting.
+ *
+ * One dispatcher thread picks the oldest queued job and keeps as many items in flight as
+ * the active provider has parallel slots (llama-server {@code --parallel}; the JNI provider
+ * has one sequence per model). Before every item it waits until the
+ * {@link InferencePriorityGate} reports no interactive call for {@code idle-seconds}; when
+ * an interactive call starts, all in-flight batch items are cancelled and queued again.
+ *
+ * Results are appended to {@code <id>.results.jsonl} as items finish. On startup (or
+ * resume) the result file is read back and finished items are skipped, so a job survives
+ * restarts and pauses without redoing work.
+ */
+@Slf4j
+@Service
+public class BatchInferenceService {
+
+    private static final String INPUT_SUFFIX = ".input.jsonl";
+    private static final String RESULT_SUFFIX = ".results.jsonl";
+    private static final long POLL_MS = 200;
+
+    private final BatchJobRepository batchJobRepository;
+    private final LLMProviderService llmProviderService;
+    private final InferencePriorityGate priorityGate;
+    private final FleetPathsConfiguration pathsConfig;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${fleet-navigator.batch.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${fleet-navigator.batch.dir:}")
+    private String dir = "";
+
+    @Value("${fleet-navigator.batch.idle-seconds:5}")
+    private int idleSeconds = 5;
+
+    @Value("${fleet-navigator.batch.poll-seconds:5}")
+    private int pollSeconds = 5;
+
+    @Value("${fleet-navigator.batch.max-attempts:3}")
+    private int maxAttempts = 3;
+
+    // requestId -> jobId of the batch items currently at the provider
+    private final Map<String, Long> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> preempted = ConcurrentHashMap.newKeySet();
+    // Pause/cancel for the job that is currently running (others are changed in the database)
+    private final Map<Long, BatchJob.Status> stopRequests = new ConcurrentHashMap<>();
+    private final Object wakeUp = new Object();
+    private final AtomicLong itemsProcessed = new AtomicLong();
+    private final AtomicLong preemptions = new AtomicLong();
+
+    private volatile Long runningJobId;
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    public BatchInferenceService(BatchJobRepository batchJobRepository,
+                                 LLMProviderService llmProviderService,
+                                 InferencePriorityGate priorityGate,
+                                 FleetPathsConfiguration pathsConfig) {
+        this.batchJobRepository = batchJobRepository;
+        this.llmProviderService = llmProviderService;
+        this.priorityGate = priorityGate;
+        this.pathsConfig = pathsConfig;
+    }
+
+    /**
+     * One prompt of a job; {@code system} overrides the job's system prompt
+     */
+    public record BatchItem(String id, String prompt, String system) {}
+
+    private record Attempt(BatchItem item, int number) {
+        Attempt retry() {
+            return new Attempt(item, number + 1);
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        // Jobs interrupted by a shutdown continue where their result file ends
+        for (BatchJob job : batchJobRepository.findByStatus(BatchJob.Status.RUNNING)) {
+            job.setStatus(BatchJob.Status.QUEUED);
+            batchJobRepository.save(job);
+            log.info("Batch job {} was interrupted, queued for resume", job.getId());
+        }
+        priorityGate.onInteractive(this::preempt);
+        if (!enabled) {
+            log.info("Batch inference disabled");
+            return;
+        }
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "batch-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        inFlight.keySet().forEach(llmProviderService::cancelRequest);
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+    }
+
+    /**
+     * Create a job and queue it; the items are written to the job's input file
+     *
+     * @param settings unsaved job carrying name, model and sampling settings
+     */
+    public BatchJob submit(BatchJob settings, List<BatchItem> items) throws IOException {
+        if (settings.getModel() == null || settings.getModel().isBlank()) {
+            throw new IllegalArgumentException("Model is required");
+        }
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Job has no items");
+        }
+        settings.setId(null);
+        settings.setStatus(BatchJob.Status.QUEUED);
+        settings.setTotalItems(items.size());
+        BatchJob job = batchJobRepository.save(settings);
+
+        Path input = jobsDir().resolve(job.getId() + INPUT_SUFFIX);
+        try (BufferedWriter out = Files.newBufferedWriter(input, StandardCharsets.UTF_8)) {
+            Set<String> ids = new HashSet<>();
+            for (int i = 0; i < items.size(); i++) {
+                BatchItem item = items.get(i);
+                if (item.prompt() == null || item.prompt().isBlank()) {
+                    throw new IllegalArgumentException("Item " + (i + 1) + " has no prompt");
+                }
+                String id = item.id() != null && !item.id().isBlank() ? item.id() : String.valueOf(i + 1);
+                if (!ids.add(id)) {
+                    throw new IllegalArgumentException("Duplicate item id: " + id);
+                }
+                ObjectNode line = objectMapper.createObjectNode()
+                        .put("id", id)
+                        .put("prompt", item.prompt());
+                if (item.system() != null) {
+                    line.put("system", item.system());
+                }
+                out.write(objectMapper.writeValueAsString(line));
+                out.newLine();
+            }
+        } catch (IOException | RuntimeException e) {
+            batchJobRepository.delete(job);
+            Files.deleteIfExists(input);
+            throw e;
+        }
+        job.setInputFile(input.toString());
+        job.setResultFile(jobsDir().resolve(job.getId() + RESULT_SUFFIX).toString());
+        job = batchJobRepository.save(job);
+        log.info("Batch job {} queued: {} items for {}", job.getId(), job.getTotalItems(), job.getModel());
+        wakeDispatcher();
+        return job;
+    }
+
+    /**
+     * Create a job from JSONL: one {@code {"id", "prompt", "system"}} object per line,
+     * only {@code prompt} is required (ID defaults to the line number)
+     */
+    public BatchJob submitJsonl(BatchJob settings, InputStream jsonl) throws IOException {
+        List<BatchItem> items = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(jsonl, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + " is not valid JSON");
+            }
+            if (!node.hasNonNull("prompt")) {
+                throw new IllegalArgumentException("Line " + lineNumber + " has no prompt");
+            }
+            items.add(new BatchItem(
+                    node.hasNonNull("id") ? node.get("id").asText() : String.valueOf(lineNumber),
+                    node.get("prompt").asText(),
+                    node.hasNonNull("system") ? node.get("system").asText() : null));
+        }
+        return submit(settings, items);
+    }
+
+    public List<BatchJob> getJobs() {
+        return batchJobRepository.findAllByOrderByCreatedAtDesc();
+    }
+
+    public Optional<BatchJob> getJob(Long id) {
+        return batchJobRepository.findById(id);
+    }
+
+    /**
+     * Stop after the current items; unfinished items run again on resume
+     */
+    public Optional<BatchJob> pause(Long id) {
+        return stop(id, BatchJob.Status.PAUSED);
+    }
+
+    public Optional<BatchJob> cancel(Long id) {
+        return stop(id, BatchJob.Status.CANCELLED);
+    }
+
+    public Optional<BatchJob> resume(Long id) {
+        return batchJobRepository.findById(id).map(job -> {
+            if (job.getStatus() != BatchJob.Status.PAUSED && job.getStatus() != BatchJob.Status.FAILED) {
+                throw new IllegalStateException("Job " + id + " is " + job.getStatus());
+            }
+            job.setStatus(BatchJob.Status.QUEUED);
+            job.setFinishedAt(null);
+            BatchJob saved = batchJobRepository.save(job);
+            wakeDispatcher();
+            return saved;
+        });
+    }
+
+    private Optional<BatchJob> stop(Long id, BatchJob.Status target) {
+        return batchJobRepository.findById(id).map(job -> {
+            if (id.equals(runningJobId)) {
+                stopRequests.put(id, target);
+                cancelInFlight(id);
+                return job;
+            }
+            boolean allowed = job.getStatus() == BatchJob.Status.QUEUED
+                    || (target == BatchJob.Status.CANCELLED && job.getStatus() == BatchJob.Status.PAUSED);
+            if (!allowed) {
+                throw new IllegalStateException("Job " + id + " is " + job.getStatus());
+            }
+            job.setStatus(target);
+            if (target == BatchJob.Status.CANCELLED) {
+                job.setFinishedAt(LocalDateTime.now());
+            }
+            return batchJobRepository.save(job);
+        });
+    }
+
+    /**
+     * Result file of a job, if it has any results yet
+     */
+    public Optional<Path> getResultFile(Long id) {
+        return batchJobRepository.findById(id)
+                .map(BatchJob::getResultFile)
+                .map(Paths::get)
+                .filter(Files::isRegularFile);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("runningJob", runningJobId);
+        stats.put("inFlight", inFlight.size());
+        stats.put("queuedJobs", batchJobRepository.findByStatus(BatchJob.Status.QUEUED).size());
+        stats.put("itemsProcessed", itemsProcessed.get());
+        stats.put("preemptions", preemptions.get());
+        stats.put("interactiveInFlight", priorityGate.getInteractiveInFlight());
+        return stats;
+    }
+
+    /**
+     * An interactive call started: give the slots back right away
+     */
+    void preempt() {
+        for (String requestId : inFlight.keySet()) {
+            if (preempted.add(requestId)) {
+                preemptions.incrementAndGet();
+                llmProviderService.cancelRequest(requestId);
+            }
+        }
+    }
+
+    private void cancelInFlight(Long jobId) {
+        inFlight.forEach((requestId, owner) -> {
+            if (owner.equals(jobId)) {
+                llmProviderService.cancelRequest(requestId);
+            }
+        });
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                Optional<BatchJob> next = batchJobRepository.findFirstByStatusOrderByCreatedAtAsc(BatchJob.Status.QUEUED);
+                if (next.isPresent() && priorityGate.isIdle(quietPeriod())) {
+                    runJob(next.get());
+                    continue;
+                }
+                synchronized (wakeUp) {
+                    wakeUp.wait(pollSeconds * 1000L);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Batch dispatcher error: {}", e.getMessage(), e);
+                try {
+                    Thread.sleep(pollSeconds * 1000L);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void wakeDispatcher() {
+        synchronized (wakeUp) {
+            wakeUp.notifyAll();
+        }
+    }
+
+    /**
+     * Run (or resume) a job until all items are done or it is paused/cancelled
+     */
+    void runJob(BatchJob job) throws InterruptedException {
+        Long jobId = job.getId();
+        stopRequests.remove(jobId);
+        runningJobId = jobId;
+        job.setStatus(BatchJob.Status.RUNNING);
+        job.setLastError(null);
+        if (job.getStartedAt() == null) {
+            job.setStartedAt(LocalDateTime.now());
+        }
+        ExecutorService workers = null;
+        try {
+            Path resultFile = Paths.get(job.getResultFile());
+            Set<String> done = readFinished(resultFile, job);
+            batchJobRepository.save(job);
+
+            LinkedBlockingDeque<Attempt> queue = new LinkedBlockingDeque<>();
+            for (BatchItem item : readItems(Paths.get(job.getInputFile()))) {
+                if (!done.contains(item.id())) {
+                    queue.add(new Attempt(item, 1));
+                }
+            }
+            int slots = llmProviderService.getParallelSlots();
+            log.info("Batch job {}: {} of {} items pending, {} slot(s)", jobId, queue.size(), job.getTotalItems(), slots);
+
+            AtomicInteger threadNumber = new AtomicInteger();
+            workers = Executors.newFixedThreadPool(slots, runnable -> {
+                Thread thread = new Thread(runnable, "batch-worker-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            Semaphore permits = new Semaphore(slots);
+            AtomicInteger active = new AtomicInteger();
+
+            try (BufferedWriter out = Files.newBufferedWriter(resultFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                while (running && !stopRequests.containsKey(jobId)) {
+                    if (queue.isEmpty() && active.get() == 0) {
+                        break;
+                    }
+                    if (!priorityGate.isIdle(quietPeriod())) {
+                        Thread.sleep(POLL_MS);
+                        continue;
+                    }
+                    if (!permits.tryAcquire(POLL_MS, TimeUnit.MILLISECONDS)) {
+                        continue;
+                    }
+                    Attempt attempt = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                    if (attempt == null) {
+                        permits.release();
+                        continue;
+                    }
+                    active.incrementAndGet();
+                    workers.execute(() -> {
+                        try {
+                            runItem(job, attempt, queue, out);
+                        } finally {
+                            active.decrementAndGet();
+                            permits.release();
+                        }
+                    });
+                }
+                workers.shutdown();
+                if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                    log.warn("Batch job {}: workers did not stop in time", jobId);
+                }
+            }
+
+            BatchJob.Status stop = stopRequests.remove(jobId);
+            synchronized (job) {
+                if (stop != null) {
+                    job.setStatus(stop);
+                } else if (!running) {
+                    job.setStatus(BatchJob.Status.QUEUED);
+                } else {
+                    job.setStatus(BatchJob.Status.COMPLETED);
+                }
+                if (job.getStatus() == BatchJob.Status.COMPLETED || job.getStatus() == BatchJob.Status.CANCELLED) {
+                    job.setFinishedAt(LocalDateTime.now());
+                }
+                batchJobRepository.save(job);
+            }
+            log.info("Batch job {} {}: {} ok, {} failed", jobId, job.getStatus(), job.getCompletedItems(), job.getFailedItems());
+        } catch (IOException | RuntimeException e) {
+            log.error("Batch job {} failed: {}", jobId, e.getMessage(), e);
+            synchronized (job) {
+                job.setStatus(BatchJob.Status.FAILED);
+                job.setLastError(e.getMessage());
+                job.setFinishedAt(LocalDateTime.now());
+                batchJobRepository.save(job);
+            }
+        } finally {
+            if (workers != null) {
+                workers.shutdownNow();
+            }
+            stopRequests.remove(jobId);
+            runningJobId = null;
+        }
+    }
+
+    private void runItem(BatchJob job, Attempt attempt, LinkedBlockingDeque<Attempt> queue, BufferedWriter out) {
+        BatchItem item = attempt.item();
+        String requestId = InferencePriorityGate.BATCH_REQUEST_PREFIX + job.getId() + "-" + UUID.randomUUID();
+        String systemPrompt = item.system() != null ? item.system() : job.getSystemPrompt();
+        StringBuilder response = new StringBuilder();
+        long start = System.currentTimeMillis();
+        inFlight.put(requestId, job.getId());
+        try {
+            llmProviderService.chatStream(job.getModel(), item.prompt(), systemPrompt, requestId, response::append,
+                    job.getMaxTokens(), job.getTemperature(), job.getTopP(), null, null, null);
+            if (interrupted(job, attempt, requestId, queue)) {
+                return;
+            }
+            writeResult(job, out, item, attempt.number(), System.currentTimeMillis() - start, response.toString(), null);
+        } catch (Exception e) {
+            if (interrupted(job, attempt, requestId, queue)) {
+                return;
+            }
+            if (attempt.number() < maxAttempts) {
+                log.debug("Batch job {}: item {} failed (attempt {}), retrying: {}",
+                        job.getId(), item.id(), attempt.number(), e.getMessage());
+                queue.addLast(attempt.retry());
+                return;
+            }
+            writeResult(job, out, item, attempt.number(), System.currentTimeMillis() - start, null,
+                    e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            inFlight.remove(requestId);
+            preempted.remove(requestId);
+        }
+    }
+
+    /**
+     * Item was cancelled for an interactive call (queued again, same attempt) or for pause/cancel
+     */
+    private boolean interrupted(BatchJob job, Attempt attempt, String requestId, LinkedBlockingDeque<Attempt> queue) {
+        if (preempted.contains(requestId)) {
+            queue.addFirst(attempt);
+            return true;
+        }
+        return stopRequests.containsKey(job.getId()) || !running;
+    }
+
+    private void writeResult(BatchJob job, BufferedWriter out, BatchItem item, int attempts, long durationMs,
+                             String response, String error) {
+        ObjectNode line = objectMapper.createObjectNode()
+                .put("id", item.id())
+                .put("status", error == null ? "ok" : "error")
+                .put("attempts", attempts)
+                .put("durationMs", durationMs);
+        if (error == null) {
+            line.put("response", response);
+        } else {
+            line.put("error", error);
+        }
+        try {
+            synchronized (out) {
+                out.write(objectMapper.writeValueAsString(line));
+                out.newLine();
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Not counted as finished: the item runs again when the job resumes
+            log.error("Batch job {}: could not write result for item {}: {}", job.getId(), item.id(), e.getMessage());
+            return;
+        }
+        itemsProcessed.incrementAndGet();
+        synchronized (job) {
+            if (error == null) {
+                job.setCompletedItems(job.getCompletedItems() + 1);
+            } else {
+                job.setFailedItems(job.getFailedItems() + 1);
+            }
+            batchJobRepository.save(job);
+        }
+    }
+
+    /**
+     * IDs already in the result file; also recounts the job's progress from it
+     */
+    private Set<String> readFinished(Path resultFile, BatchJob job) throws IOException {
+        Set<String> done = new HashSet<>();
+        int ok = 0;
+        int failed = 0;
+        if (Files.isRegularFile(resultFile)) {
+            try (BufferedReader reader = Files.newBufferedReader(resultFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    JsonNode node;
+                    try {
+                        node = objectMapper.readTree(line);
+                    } catch (IOException e) {
+                        continue;  // truncated last line after a crash
+                    }
+                    if (node.hasNonNull("id") && done.add(node.get("id").asText())) {
+                        if ("ok".equals(node.path("status").asText())) {
+                            ok++;
+                        } else {
+                            failed++;
+                        }
+                    }
+                }
+            }
+        }
+        job.setCompletedItems(ok);
+        job.setFailedItems(failed);
+        return done;
+    }
+
+    private List<BatchItem> readItems(Path inputFile) throws IOException {
+        List<BatchItem> items = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(inputFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node = objectMapper.readTree(line);
+                items.add(new BatchItem(node.get("id").asText(), node.get("prompt").asText(),
+                        node.hasNonNull("system") ? node.get("system").asText() : null));
+            }
+        }
+        return items;
+    }
+
+    private Duration quietPeriod() {
+        return Duration.ofSeconds(idleSeconds);
+    }
+
+    private Path jobsDir() throws IOException {
+        if (dir != null && !dir.isBlank()) {
+            Path path = Paths.get(dir);
+            Files.createDirectories(path);
+            return path;
+        }
+        return pathsConfig.getBatchJobsDir();
+    }
+}
@@ -0,0 +1,530 @@
+package io.javafleet.fleetnavigator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.javafleet.fleetnavigator.config.FleetPathsConfiguration;
+import io.javafleet.fleetnavigator.model.ArchivedChat;
+import io.javafleet.fleetnavigator.model.Chat;
+import io.javafleet.fleetnavigator.model.ChatDocument;
+import io.javafleet.fleetnavigator.model.ContextItem;
+import io.javafleet.fleetnavigator.model.Message;
+import io.javafleet.fleetnavigator.repository.ArchivedChatRepository;
+import io.javafleet.fleetnavigator.repository.ChatDocumentRepository;
+import io.javafleet.fleetnavigator.repository.ChatRepository;
+import io.javafleet.fleetnavigator.repository.ContextItemRepository;
+import io.javafleet.fleetnavigator.repository.MessageRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Cold storage for chats without activity for {@code idle-days}.
+ *
+ * The chat row stays (title, model, project, expert - the chat list is unchanged); its
+ * messages, documents and context items are written as one deflate-compressed JSON record
+ * to an append-only archive segment and deleted from the database. Opening the chat
+ * ({@link ChatService#getChatHistory}, sending a message) restores the rows first, with their
+ * original timestamps; the record becomes garbage, and segments without live records are
+ * deleted by the next run.
+ *
+ * The nightly run archives, then compacts the H2 file so the freed pages are actually
+ * returned to the file system ({@link SystemService#compactDatabase}). Document text is
+ * kept in the record itself, so the blob store may drop it; restoring puts it back.
+ *
+ * Archived chats stay searchable: the rows are removed with bulk deletes, which bypass the
+ * {@link ChatSearchIndexListener}, so their index entries keep pointing at the chat (hits are
+ * flagged as archived; opening the chat restores it). Records keep the original row IDs, so
+ * a rebuild of the index re-adds them ({@link #forEachRecord}) and a restore replaces them.
+ */
+@Slf4j
+@Service
+public class ChatArchiveService {
+
+    // Record key: chat ID (long) - lets a segment be read without the index
+    private static final String SEGMENT_PREFIX = "archive-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final ChatRepository chatRepository;
+    private final MessageRepository messageRepository;
+    private final ChatDocumentRepository chatDocumentRepository;
+    private final ContextItemRepository contextItemRepository;
+    private final ArchivedChatRepository archivedChatRepository;
+    private final ContentBlobStore contentBlobStore;
+    private final SystemService systemService;
+    private final FleetPathsConfiguration pathsConfiguration;
+    private final ObjectProvider<ChatSearchIndex> chatSearchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Value("${fleet-navigator.archive.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${fleet-navigator.archive.idle-days:90}")
+    private int idleDays = 90;
+
+    @Value("${fleet-navigator.archive.max-chats-per-run:500}")
+    private int maxChatsPerRun = 500;
+
+    @Value("${fleet-navigator.archive.dir:}")
+    private String archiveDir = "";
+
+    @Value("${fleet-navigator.archive.segment-max-mb:64}")
+    private long segmentMaxMb = 64;
+
+    @Value("${fleet-navigator.archive.compression-level:6}")
+    private int compressionLevel = 6;
+
+    @Value("${fleet-navigator.archive.compact-database:true}")
+    private boolean compactDatabase = true;
+
+    @Value("${fleet-navigator.archive.defrag-database:false}")
+    private boolean defragDatabase = false;
+
+    private SegmentStore segments;
+    private final Object writeLock = new Object();
+
+    // Archived chat IDs; loaded on first use, afterwards only changed by this service
+    private final Set<Long> archivedIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean idsLoaded;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong rehydrated = new AtomicLong();
+    private volatile Map<String, Object> lastRun;
+
+    public ChatArchiveService(ChatRepository chatRepository,
+                              MessageRepository messageRepository,
+                              ChatDocumentRepository chatDocumentRepository,
+                              ContextItemRepository contextItemRepository,
+                              ArchivedChatRepository archivedChatRepository,
+                              ContentBlobStore contentBlobStore,
+                              SystemService systemService,
+                              FleetPathsConfiguration pathsConfiguration,
+                              ObjectProvider<ChatSearchIndex> chatSearchIndex,
+                              PlatformTransactionManager transactionManager) {
+        this.chatRepository = chatRepository;
+        this.messageRepository = messageRepository;
+        this.chatDocumentRepository = chatDocumentRepository;
+        this.contextItemRepository = contextItemRepository;
+        this.archivedChatRepository = archivedChatRepository;
+        this.contentBlobStore = contentBlobStore;
+        this.systemService = systemService;
+        this.pathsConfiguration = pathsConfiguration;
+        this.chatSearchIndex = chatSearchIndex;
+        // One chat per transaction; also when called from within a caller's read-only transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        Path directory = archiveDir == null || archiveDir.isBlank() ? pathsConfiguration.getChatArchiveDir() : Path.of(archiveDir);
+        segments = new SegmentStore(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX, Long.BYTES);
+        segments.open();
+    }
+
+    @PreDestroy
+    void close() {
+        synchronized (writeLock) {
+            segments.close();
+        }
+    }
+
+    // ==================== Archive / restore ====================
+
+    /**
+     * Whether the chat's messages are in cold storage
+     */
+    public boolean isArchived(Long chatId) {
+        if (chatId == null) {
+            return false;
+        }
+        if (!idsLoaded) {
+            loadIds();
+        }
+        return archivedIds.contains(chatId);
+    }
+
+    /**
+     * Restore an archived chat into the database; no-op (one set lookup) for active chats
+     *
+     * @return true if rows were restored
+     */
+    public boolean rehydrate(Long chatId) {
+        if (!isArchived(chatId)) {
+            return false;
+        }
+        long start = System.currentTimeMillis();
+        synchronized (writeLock) {
+            ArchiveRecord record = transactionTemplate.execute(status -> {
+                ArchivedChat entry = archivedChatRepository.findById(chatId).orElse(null);
+                if (entry == null) {
+                    return null;
+                }
+                if (!chatRepository.existsById(chatId)) {
+                    archivedChatRepository.delete(entry);
+                    return null;
+                }
+                ArchiveRecord restored = read(entry);
+                // The rows come back with new IDs: their index entries replace the archived ones
+                chatSearchIndex.ifAvailable(index -> index.onRestored(
+                        restored.messages().stream().map(ArchivedMessage::id).filter(Objects::nonNull).toList(),
+                        restored.documents().stream().map(ArchivedDocument::id).filter(Objects::nonNull).toList()));
+                restore(restored);
+                archivedChatRepository.delete(entry);
+                return restored;
+            });
+            archivedIds.remove(chatId);
+            if (record == null) {
+                return false;
+            }
+            rehydrated.incrementAndGet();
+            log.info("Chat {} restored from archive: {} messages, {} documents in {} ms", chatId,
+                    record.messages().size(), record.documents().size(), System.currentTimeMillis() - start);
+            return true;
+        }
+    }
+
+    /**
+     * Index entry of an archived chat (message count, token total); empty for active chats without a query
+     */
+    public Optional<ArchivedChat> findEntry(Long chatId) {
+        return isArchived(chatId) ? archivedChatRepository.findById(chatId) : Optional.empty();
+    }
+
+    /**
+     * Tokens of the archived chats in a project; their messages are no longer in the message table
+     */
+    public long archivedTokensByProject(Long projectId) {
+        if (!idsLoaded) {
+            loadIds();
+        }
+        if (archivedIds.isEmpty()) {
+            return 0;
+        }
+        Long tokens = archivedChatRepository.sumTokensByProjectId(projectId);
+        return tokens != null ? tokens : 0;
+    }
+
+    /**
+     * Drop the archive entry of a deleted chat (its record becomes garbage)
+     */
+    public void forget(Long chatId) {
+        if (isArchived(chatId)) {
+            archivedChatRepository.deleteById(chatId);
+            archivedIds.remove(chatId);
+        }
+    }
+
+    /**
+     * Move one chat into cold storage if it has been idle since the cutoff
+     *
+     * @return true if the chat was archived
+     */
+    public boolean archive(Long chatId, LocalDateTime cutoff) {
+        synchronized (writeLock) {
+            Boolean archived = transactionTemplate.execute(status -> {
+                if (archivedChatRepository.existsById(chatId)
+                        || !chatRepository.existsByIdAndUpdatedAtBefore(chatId, cutoff)) {
+                    return false;
+                }
+                List<Message> messages = messageRepository.findByChatIdOrderByCreatedAtAsc(chatId);
+                List<ChatDocument> documents = chatDocumentRepository.findByChatIdOrderByCreatedAtAsc(chatId);
+                List<ContextItem> contextItems = contextItemRepository.findByChatIdOrderByCreatedAtAsc(chatId);
+                if (messages.isEmpty() && documents.isEmpty() && contextItems.isEmpty()) {
+                    return false;
+                }
+
+                LocalDateTime now = LocalDateTime.now();
+                ArchiveRecord record = new ArchiveRecord(chatId, now,
+                        messages.stream().map(m -> new ArchivedMessage(m.getId(), m.getRole(), m.getContent(), m.getTokens(),
+                                m.getModelName(), m.getCreatedAt(), m.getAttachments(), m.getDownloadUrl())).toList(),
+                        documents.stream().map(d -> new ArchivedDocument(d.getId(), d.getFileName(), d.getFileType(),
+                                contentBlobStore.contentOf(d), d.getCreatedAt())).toList(),
+                        contextItems.stream().map(c -> new ArchivedContextItem(c.getFilename(), c.getContent(),
+                                c.getTokens(), c.getCreatedAt())).toList());
+                try {
+                    byte[] raw = objectMapper.writeValueAsBytes(record);
+                    byte[] compressed = SegmentStore.deflate(raw, compressionLevel);
+                    // Record is on disk (forced) before the rows go; a rollback only leaves garbage
+                    long offset = segments.append(ByteBuffer.allocate(Long.BYTES).putLong(chatId).array(), raw.length,
+                            compressed, segmentMaxMb * 1024 * 1024);
+                    archivedChatRepository.save(new ArchivedChat(chatId, segments.activeSegment(), offset, compressed.length,
+                            raw.length, messages.size(), documents.size(), tokenSum(record), now));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not archive chat " + chatId, e);
+                }
+                // Bulk deletes skip the entity listeners: the chat search index keeps the entries
+                messageRepository.deleteAllByIdInBatch(messages.stream().map(Message::getId).toList());
+                chatDocumentRepository.deleteAllByIdInBatch(documents.stream().map(ChatDocument::getId).toList());
+                contextItemRepository.deleteAll(contextItems);
+                return true;
+            });
+            if (Boolean.TRUE.equals(archived)) {
+                archivedIds.add(chatId);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Reads every archived record, e.g. to rebuild the chat search index; unreadable records are skipped
+     */
+    public void forEachRecord(Consumer<ArchiveRecord> consumer) {
+        for (ArchivedChat entry : archivedChatRepository.findAll()) {
+            ArchiveRecord record;
+            try {
+                record = read(entry);
+            } catch (UncheckedIOException e) {
+                log.warn("Skipping archived chat {}: {}", entry.getChatId(), e.getMessage());
+                continue;
+            }
+            consumer.accept(record);
+        }
+    }
+
+    // ==================== Maintenance ====================
+
+    @Scheduled(cron = "${fleet-navigator.archive.cron:0 0 3 * * *}")
+    public void scheduledRun() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    /**
+     * Archive idle chats, delete dead segments and compact the database
+     *
+     * @return summary of the run (also kept for {@link #getStats()})
+     */
+    public Map<String, Object> run() {
+        if (!running.compareAndSet(false, true)) {
+            return Map.of("skipped", "already running");
+        }
+        try {
+            long start = System.currentTimeMillis();
+            LocalDateTime startedAt = LocalDateTime.now();
+            int orphans = dropOrphans();
+            backfillTokenCounts();
+
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(idleDays);
+            int chats = 0;
+            int failed = 0;
+            for (Long chatId : chatRepository.findIdleIds(cutoff, PageRequest.of(0, maxChatsPerRun))) {
+                try {
+                    if (archive(chatId, cutoff)) {
+                        chats++;
+                    }
+                } catch (RuntimeException e) {
+                    failed++;
+                    log.warn("Could not archive chat {}: {}", chatId, e.getMessage());
+                }
+            }
+            int deletedSegments = deleteDeadSegments();
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("startedAt", startedAt.toString());
+            summary.put("archivedChats", chats);
+            summary.put("failedChats", failed);
+            summary.put("orphanedEntriesRemoved", orphans);
+            summary.put("segmentsDeleted", deletedSegments);
+            summary.put("compaction", compactDatabase
+                    ? systemService.compactDatabase(defragDatabase)
+                    : SystemService.CompactionResult.skipped("disabled"));
+            summary.put("durationMs", System.currentTimeMillis() - start);
+            lastRun = summary;
+            log.info("Chat archive run: {} chats archived ({} failed), {} segments deleted in {} ms",
+                    chats, failed, deletedSegments, System.currentTimeMillis() - start);
+            return summary;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Archive statistics and the last run (for /api/system/archive)
+     */
+    public Map<String, Object> getStats() {
+        Object[] totals = archivedChatRepository.totals().get(0);
+        long segmentBytes = 0;
+        List<Integer> segmentNumbers = segments.segmentNumbers();
+        for (int segment : segmentNumbers) {
+            try {
+                segmentBytes += Files.size(segments.segmentPath(segment));
+            } catch (IOException e) {
+                // Segment removed concurrently
+            }
+        }
+        long storedBytes = ((Number) totals[4]).longValue();
+        long chats = ((Number) totals[0]).longValue();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("idleDays", idleDays);
+        stats.put("archivedChats", chats);
+        stats.put("archivedMessages", ((Number) totals[1]).longValue());
+        stats.put("archivedDocuments", ((Number) totals[2]).longValue());
+        stats.put("rawBytes", ((Number) totals[3]).longValue());
+        stats.put("storedBytes", storedBytes);
+        stats.put("segments", segmentNumbers.size());
+        stats.put("segmentBytes", segmentBytes);
+        stats.put("garbageBytes", Math.max(0, segmentBytes - storedBytes - chats * segments.recordHeaderBytes()));
+        stats.put("rehydrated", rehydrated.get());
+        stats.put("databaseBytes", systemService.getDatabaseSizeBytes());
+        stats.put("running", running.get());
+        stats.put("lastRun", lastRun);
+        return stats;
+    }
+
+    private synchronized void loadIds() {
+        if (!idsLoaded) {
+            archivedIds.addAll(archivedChatRepository.findAllChatIds());
+            idsLoaded = true;
+        }
+    }
+
+    private int dropOrphans() {
+        Integer removed = transactionTemplate.execute(status -> {
+            List<ArchivedChat> orphans = archivedChatRepository.findOrphans();
+            archivedChatRepository.deleteAll(orphans);
+            orphans.forEach(o -> archivedIds.remove(o.getChatId()));
+            return orphans.size();
+        });
+        return removed != null ? removed : 0;
+    }
+
+    /**
+     * Fill in token totals of entries archived before they were recorded
+     */
+    private void backfillTokenCounts() {
+        for (ArchivedChat entry : archivedChatRepository.findByTokenCountIsNull()) {
+            try {
+                entry.setTokenCount(tokenSum(read(entry)));
+                archivedChatRepository.save(entry);
+            } catch (UncheckedIOException e) {
+                log.warn("Could not count tokens of archived chat {}: {}", entry.getChatId(), e.getMessage());
+            }
+        }
+    }
+
+    private static int tokenSum(ArchiveRecord record) {
+        return record.messages().stream().mapToInt(m -> m.tokens() != null ? m.tokens() : 0).sum();
+    }
+
+    private void restore(ArchiveRecord record) {
+        Chat chat = chatRepository.getReferenceById(record.chatId());
+        for (ArchivedMessage archived : record.messages()) {
+            Message message = new Message();
+            message.setChat(chat);
+            message.setRole(archived.role());
+            message.setContent(archived.content());
+            message.setTokens(archived.tokens());
+            message.setModelName(archived.modelName());
+            message.setCreatedAt(archived.createdAt());
+            message.setAttachments(archived.attachments());
+            message.setDownloadUrl(archived.downloadUrl());
+            messageRepository.save(message);
+        }
+        for (ArchivedDocument archived : record.documents()) {
+            ChatDocument document = new ChatDocument();
+            document.setChat(chat);
+            document.setFileName(archived.fileName());
+            document.setFileType(archived.fileType());
+            document.setCreatedAt(archived.createdAt());
+            if (archived.content() != null) {
+                contentBlobStore.attach(document, archived.content());
+            }
+            chatDocumentRepository.save(document);
+        }
+        for (ArchivedContextItem archived : record.contextItems()) {
+            ContextItem item = new ContextItem();
+            item.setChat(chat);
+            item.setFilename(archived.filename());
+            item.setContent(archived.content());
+            item.setTokens(archived.tokens());
+            item.setCreatedAt(archived.createdAt());
+            contextItemRepository.save(item);
+        }
+    }
+
+    /**
+     * Delete sealed segments that no longer hold a live record
+     */
+    private int deleteDeadSegments() {
+        Map<Integer, Long> live = new HashMap<>();
+        for (Object[] row : archivedChatRepository.sumStoredLengthBySegment()) {
+            live.put(((Number) row[0]).intValue(), ((Number) row[2]).longValue());
+        }
+        int deleted = 0;
+        synchronized (writeLock) {
+            for (int segment : segments.segmentNumbers()) {
+                if (segment != segments.activeSegment() && live.getOrDefault(segment, 0L) == 0) {
+                    try {
+                        Files.deleteIfExists(segments.segmentPath(segment));
+                        deleted++;
+                    } catch (IOException e) {
+                        log.warn("Could not delete archive segment {}: {}", segment, e.getMessage());
+                    }
+                }
+            }
+        }
+        return deleted;
+    }
+
+    // ==================== Segment files ====================
+
+    private ArchiveRecord read(ArchivedChat entry) {
+        try {
+            ByteBuffer compressed = segments.read(entry.getSegment(), entry.getOffset(), entry.getStoredLength());
+            return objectMapper.readValue(SegmentStore.inflate(compressed, entry.getRawLength()), ArchiveRecord.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archived chat " + entry.getChatId(), e);
+        }
+    }
+
+    // ==================== Record format ====================
+
+    /**
+     * One archived chat: everything that hangs off the chat row
+     */
+    public record ArchiveRecord(long chatId, LocalDateTime archivedAt, List<ArchivedMessage> messages,
+                                List<ArchivedDocument> documents, List<ArchivedContextItem> contextItems) {}
+
+    /**
+     * {@code id}: the message's row ID before archiving (its chat search index entry)
+     */
+    public record ArchivedMessage(Long id, Message.MessageRole role, String content, Integer tokens, String modelName,
+                                  LocalDateTime createdAt, String attachments, String downloadUrl) {}
+
+    public record ArchivedDocument(Long id, String fileName, String fileType, String content, LocalDateTime createdAt) {}
+
+    public record ArchivedContextItem(String filename, String content, Integer tokens, LocalDateTime createdAt) {}
+}
@@ -0,0 +1,265 @@
+package io.javafleet.fleetnavigator.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.javafleet.fleetnavigator.model.Chat;
+import io.javafleet.fleetnavigator.model.Message;
+import io.javafleet.fleetnavigator.repository.ChatRepository;
+import io.javafleet.fleetnavigator.repository.MessageRepository;
+import io.javafleet.fleetnavigator.repository.MessageRepository.MessageExportRow;
+import io.javafleet.fleetnavigator.util.FleetUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Service for exporting a chat as Markdown, JSON Lines or PDF
+ *
+ * Messages are read page by page as projections (no managed entities) and written to the
+ * target stream as they arrive, so memory stays constant regardless of chat length.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ChatExportService {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private static final String PDF_STYLESHEET =
+            "body { font-family: 'DejaVu Sans', Arial, sans-serif; font-size: 10pt; line-height: 1.5; color: #333; }" +
+            "h1 { color: #FF6B35; border-bottom: 3px solid #FF6B35; padding-bottom: 8px; margin: 0 0 10px 0; }" +
+            ".meta { color: #888; font-size: 9pt; margin-bottom: 20px; }" +
+            ".role { font-weight: bold; font-size: 10pt; margin: 16px 0 4px 0; padding-bottom: 2px; border-bottom: 1px solid #e5e5e5; }" +
+            ".role.user { color: #FF6B35; }" +
+            ".role.assistant { color: #6B21A8; }" +
+            ".role .time { color: #999; font-weight: normal; font-size: 8pt; }" +
+            "code { background-color: #f4f4f4; font-family: 'Courier New', monospace; font-size: 9pt; }" +
+            "pre { background-color: #f8f8f8; border-left: 3px solid #FF6B35; padding: 8px; font-size: 8pt; }" +
+            "blockquote { border-left: 3px solid #FF8C42; padding-left: 10px; color: #666; }" +
+            "table { border-collapse: collapse; width: 100%; }" +
+            "th, td { border: 1px solid #ddd; padding: 4px; }";
+
+    private final ChatRepository chatRepository;
+    private final MessageRepository messageRepository;
+    private final ChatArchiveService chatArchiveService;
+    private final ObjectProvider<PdfExportService> pdfExportService;
+
+    @Value("${fleet-navigator.export.page-size:200}")
+    private int pageSize = 200;
+
+    /**
+     * Export format with file extension and content type
+     */
+    public enum Format {
+        MARKDOWN("md", "text/markdown;charset=UTF-8"),
+        JSONL("jsonl", "application/x-ndjson"),
+        PDF("pdf", "application/pdf");
+
+        private final String extension;
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * Parse a format name or file extension (case-insensitive)
+         */
+        public static Format of(String value) {
+            String normalized = value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+            for (Format format : values()) {
+                if (format.extension.equals(normalized) || format.name().toLowerCase(Locale.ROOT).equals(normalized)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unbekanntes Exportformat: " + value);
+        }
+    }
+
+    /**
+     * Chat header of a prepared export
+     */
+    public record ChatExport(Long chatId, String title, String model, LocalDateTime createdAt, Format format) {
+
+        public String filename() {
+            return FleetUtils.sanitizeFilename(title) + "_" + LocalDateTime.now().format(FleetUtils.FILENAME_TIMESTAMP)
+                    + "." + format.getExtension();
+        }
+    }
+
+    /**
+     * Prepare an export before the response is committed: restores an archived chat and
+     * validates chat and format, so errors can still be answered with a status code
+     *
+     * @throws IllegalArgumentException if the chat does not exist or the format is unknown
+     */
+    public ChatExport prepare(Long chatId, String format) {
+        Format parsed = Format.of(format);
+        chatArchiveService.rehydrate(chatId);
+        Chat chat = chatRepository.findById(chatId)
+                .orElseThrow(() -> new IllegalArgumentException("Chat nicht gefunden: " + chatId));
+        return new ChatExport(chat.getId(), chat.getTitle(), chat.getModel(), chat.getCreatedAt(), parsed);
+    }
+
+    /**
+     * Write the export to the given stream (not closed)
+     *
+     * @return number of exported messages
+     */
+    public int write(ChatExport export, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        int count = switch (export.format()) {
+            case MARKDOWN -> writeMarkdown(export, out);
+            case JSONL -> writeJsonl(export, out);
+            case PDF -> writePdf(export, out);
+        };
+        log.info("Exported chat {} as {}: {} messages in {}ms",
+                export.chatId(), export.format(), count, System.currentTimeMillis() - start);
+        return count;
+    }
+
+    private int writeMarkdown(ChatExport export, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("# " + export.title() + "\n\n");
+        writer.write("_Exportiert am " + LocalDateTime.now().format(FleetUtils.DATETIME_GERMAN)
+                + (export.model() != null ? " · Modell: " + export.model() : "") + "_\n");
+
+        int count = forEachPage(export.chatId(), page -> {
+            for (MessageExportRow row : page) {
+                writer.write("\n---\n\n### " + roleLabel(row) + " · " + formatTime(row.getCreatedAt()) + "\n\n");
+                writer.write(row.getContent());
+                writer.write("\n");
+            }
+            writer.flush();
+        });
+        writer.flush();
+        return count;
+    }
+
+    private int writeJsonl(ChatExport export, OutputStream out) throws IOException {
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("type", "chat");
+            json.writeNumberField("id", export.chatId());
+            json.writeStringField("title", export.title());
+            json.writeStringField("model", export.model());
+            json.writeStringField("createdAt", String.valueOf(export.createdAt()));
+            json.writeEndObject();
+            json.writeRaw('\n');
+
+            return forEachPage(export.chatId(), page -> {
+                for (MessageExportRow row : page) {
+                    json.writeStartObject();
+                    json.writeStringField("type", "message");
+                    json.writeNumberField("id", row.getId());
+                    json.writeStringField("role", row.getRole().name());
+                    json.writeStringField("model", row.getModelName());
+                    json.writeStringField("createdAt", String.valueOf(row.getCreatedAt()));
+                    json.writeStringField("content", row.getContent());
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                }
+                json.flush();
+            });
+        }
+    }
+
+    private int writePdf(ChatExport export, OutputStream out) throws IOException {
+        // Flexmark is only available when PDF export is enabled; otherwise plain paragraphs
+        PdfExportService markdown = pdfExportService.getIfAvailable();
+        Function<String, String> toHtml = markdown != null ? markdown::renderMarkdown : ChatExportService::plainHtml;
+
+        try (StreamingPdfWriter pdf = new StreamingPdfWriter(out, export.title(), PDF_STYLESHEET)) {
+            pdf.add("<h1>" + FleetUtils.escapeHtml(export.title()) + "</h1>" +
+                    "<div class=\"meta\">Exportiert am " + LocalDateTime.now().format(FleetUtils.DATETIME_GERMAN) +
+                    (export.model() != null ? " · Modell: " + FleetUtils.escapeHtml(export.model()) : "") + "</div>");
+
+            int count = forEachPage(export.chatId(), page -> {
+                for (MessageExportRow row : page) {
+                    String cssClass = row.getRole() == Message.MessageRole.USER ? "user" : "assistant";
+                    pdf.add("<div class=\"role " + cssClass + "\">" + FleetUtils.escapeHtml(roleLabel(row)) +
+                            " <span class=\"time\">" + formatTime(row.getCreatedAt()) + "</span></div>" +
+                            toHtml.apply(row.getContent()));
+                }
+                out.flush();
+            });
+            if (count == 0) {
+                pdf.add("<p>Keine Nachrichten.</p>");
+            }
+            pdf.finish();
+            return count;
+        }
+    }
+
+    /**
+     * Run the consumer for each page of messages in chronological order
+     *
+     * @return total number of messages
+     */
+    private int forEachPage(Long chatId, PageConsumer consumer) throws IOException {
+        long afterId = 0;
+        int total = 0;
+        while (true) {
+            List<MessageExportRow> page = messageRepository.findExportRowsAfter(
+                    chatId, afterId, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                return total;
+            }
+            consumer.accept(page);
+            total += page.size();
+            afterId = page.get(page.size() - 1).getId();
+            if (page.size() < pageSize) {
+                return total;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface PageConsumer {
+        void accept(List<MessageExportRow> page) throws IOException;
+    }
+
+    private static String roleLabel(MessageExportRow row) {
+        return switch (row.getRole()) {
+            case USER -> "Benutzer";
+            case ASSISTANT -> row.getModelName() != null ? "Assistent (" + row.getModelName() + ")" : "Assistent";
+            case SYSTEM -> "System";
+        };
+    }
+
+    private static String formatTime(LocalDateTime time) {
+        return time != null ? time.format(FleetUtils.DATETIME_GERMAN) : "";
+    }
+
+    private static String plainHtml(String text) {
+        StringBuilder html = new StringBuilder();
+        for (String paragraph : text.split("\\n\\s*\\n")) {
+            html.append("<p>").append(FleetUtils.escapeHtml(paragraph).replace("\n", "<br/>")).append("</p>");
+        }
+        return html.toString();
+    }
+}
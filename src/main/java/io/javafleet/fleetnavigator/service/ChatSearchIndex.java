@@ -0,0 +1,891 @@
+package io.javafleet.fleetnavigator.service;
+
+import io.javafleet.fleetnavigator.config.FleetPathsConfiguration;
+import io.javafleet.fleetnavigator.config.StartupReport;
+import io.javafleet.fleetnavigator.model.Chat;
+import io.javafleet.fleetnavigator.model.ChatDocument;
+import io.javafleet.fleetnavigator.model.Message;
+import io.javafleet.fleetnavigator.repository.ChatDocumentRepository;
+import io.javafleet.fleetnavigator.repository.ChatRepository;
+import io.javafleet.fleetnavigator.repository.MessageRepository;
+import io.javafleet.fleetnavigator.repository.SearchIndexRow;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queries.function.FunctionScoreQuery;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.DoubleValues;
+import org.apache.lucene.search.DoubleValuesSource;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.highlight.Highlighter;
+import org.apache.lucene.search.highlight.InvalidTokenOffsetsException;
+import org.apache.lucene.search.highlight.QueryScorer;
+import org.apache.lucene.search.highlight.SimpleFragmenter;
+import org.apache.lucene.search.highlight.SimpleHTMLEncoder;
+import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Full-text index over the chat history: message contents, chat titles and the names of
+ * documents attached to chats, kept in a Lucene index under {@code {data-dir}/chat-index}.
+ *
+ * Saves and deletes of {@link Message}, {@link Chat} and {@link ChatDocument} reach the index
+ * through {@link ChatSearchIndexListener} once their transaction has committed. All index writes
+ * run on one worker thread, so a rebuild and the live updates queued behind it never interleave;
+ * searches see changes as soon as the worker has drained its queue (near-real-time reader),
+ * the commit to disk happens every few seconds. After a restart, messages saved after the last
+ * commit are caught up by ID; an empty index (or one built by an older schema) is rebuilt in the
+ * background, reading the tables in keyset-paged batches of projections.
+ *
+ * Chats in cold storage ({@link ChatArchiveService}) keep their entries: their hits carry
+ * {@code archived = true}, a rebuild reads the archived records as well.
+ *
+ * Ranking: BM25 over title (boost 3), document name (boost 2) and content, multiplied by a
+ * recency factor that halves with {@code recency-half-life-days}. Results are keyset-paginated:
+ * the cursor carries the sort values of the last hit (and the reference time of the recency
+ * factor), so deep pages cost the same as the first one.
+ */
+@Slf4j
+@Service
+public class ChatSearchIndex {
+
+    static final String TYPE_MESSAGE = "message";
+    static final String TYPE_CHAT = "chat";
+    static final String TYPE_DOCUMENT = "document";
+
+    // Bump when the document layout changes; the index is rebuilt on the next start
+    private static final String SCHEMA_VERSION = "1";
+    private static final String COMMIT_SCHEMA = "schema";
+    private static final String COMMIT_LAST_MESSAGE_ID = "lastMessageId";
+
+    private static final String F_UID = "uid";
+    private static final String F_TYPE = "type";
+    private static final String F_ID = "id";
+    private static final String F_CHAT_ID = "chatId";
+    private static final String F_CREATED_AT = "createdAt";
+    private static final String F_ROLE = "role";
+    private static final String F_CONTENT = "content";
+    private static final String F_TITLE = "title";
+    private static final String F_FILE_NAME = "fileName";
+
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(F_TITLE, 3f, F_FILE_NAME, 2f, F_CONTENT, 1f);
+    private static final int SNIPPET_CHARS = 160;
+
+    private final FleetPathsConfiguration pathsConfiguration;
+    private final MessageRepository messageRepository;
+    private final ChatRepository chatRepository;
+    private final ChatDocumentRepository chatDocumentRepository;
+    private final StartupReport startupReport;
+    private final ObjectProvider<ChatArchiveService> chatArchiveService;
+
+    @Value("${fleet-navigator.chat-search.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${fleet-navigator.chat-search.recency-half-life-days:30}")
+    private double recencyHalfLifeDays = 30;
+
+    /** A brand-new hit scores up to (1 + weight) times an old one with the same text relevance */
+    @Value("${fleet-navigator.chat-search.recency-weight:1.0}")
+    private double recencyWeight = 1.0;
+
+    @Value("${fleet-navigator.chat-search.rebuild-batch-size:500}")
+    private int rebuildBatchSize = 500;
+
+    @Value("${fleet-navigator.chat-search.max-page-size:100}")
+    private int maxPageSize = 100;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final ThreadPoolExecutor worker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r, "chat-search-index");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private volatile Directory directory;
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+    private volatile boolean rebuilding;
+    private volatile String lastRebuild;
+    private volatile long lastMessageId;
+    private volatile boolean dirty;
+
+    public ChatSearchIndex(FleetPathsConfiguration pathsConfiguration,
+                           MessageRepository messageRepository,
+                           ChatRepository chatRepository,
+                           ChatDocumentRepository chatDocumentRepository,
+                           StartupReport startupReport,
+                           ObjectProvider<ChatArchiveService> chatArchiveService) {
+        this.pathsConfiguration = pathsConfiguration;
+        this.messageRepository = messageRepository;
+        this.chatRepository = chatRepository;
+        this.chatDocumentRepository = chatDocumentRepository;
+        this.startupReport = startupReport;
+        this.chatArchiveService = chatArchiveService;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Opens the index after the start and rebuilds or catches up in the background
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!enabled) {
+            return;
+        }
+        worker.execute(() -> startupReport.measureBackground("chat-index.open", () -> {
+            ensureOpen();
+            if (writer.getDocStats().numDocs == 0
+                    || !SCHEMA_VERSION.equals(commitData().get(COMMIT_SCHEMA))) {
+                rebuildNow();
+            } else {
+                catchUpMessages();
+            }
+        }));
+    }
+
+    // ==================== Updates (called by ChatSearchIndexListener) ====================
+
+    /**
+     * Message, chat or document saved: the index entry is replaced after the commit
+     */
+    public void onSaved(Object entity) {
+        Document doc = toDocument(entity);
+        if (doc != null) {
+            afterCommit(() -> {
+                writer.updateDocument(new Term(F_UID, doc.get(F_UID)), doc);
+                if (TYPE_MESSAGE.equals(doc.get(F_TYPE))) {
+                    lastMessageId = Math.max(lastMessageId, doc.getField(F_ID).numericValue().longValue());
+                }
+            });
+        }
+    }
+
+    /**
+     * Message, chat or document deleted; a chat takes its messages and documents along
+     */
+    public void onRemoved(Object entity) {
+        if (entity instanceof Chat chat && chat.getId() != null) {
+            Long chatId = chat.getId();
+            afterCommit(() -> writer.deleteDocuments(LongPoint.newExactQuery(F_CHAT_ID, chatId)));
+        } else if (entity instanceof Message message && message.getId() != null) {
+            String uid = uid(TYPE_MESSAGE, message.getId());
+            afterCommit(() -> writer.deleteDocuments(new Term(F_UID, uid)));
+        } else if (entity instanceof ChatDocument document && document.getId() != null) {
+            String uid = uid(TYPE_DOCUMENT, document.getId());
+            afterCommit(() -> writer.deleteDocuments(new Term(F_UID, uid)));
+        }
+    }
+
+    /**
+     * Archived messages and documents were restored under new IDs: drop the entries of the old ones
+     */
+    public void onRestored(List<Long> messageIds, List<Long> documentIds) {
+        Term[] uids = Stream.concat(
+                messageIds.stream().map(id -> new Term(F_UID, uid(TYPE_MESSAGE, id))),
+                documentIds.stream().map(id -> new Term(F_UID, uid(TYPE_DOCUMENT, id)))).toArray(Term[]::new);
+        if (uids.length > 0) {
+            afterCommit(() -> writer.deleteDocuments(uids));
+        }
+    }
+
+    /**
+     * Drops the index and rebuilds it from the database in the background
+     */
+    public void rebuild() {
+        if (enabled && !worker.isShutdown()) {
+            worker.execute(() -> {
+                ensureOpen();
+                rebuildNow();
+            });
+        }
+    }
+
+    /**
+     * Waits until all queued updates are applied and visible to searches
+     */
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        Future<?> done = worker.submit(this::refresh);
+        try {
+            done.get(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | java.util.concurrent.TimeoutException e) {
+            log.warn("Chat search index flush failed: {}", e.toString());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${fleet-navigator.chat-search.commit-interval-ms:5000}")
+    public void scheduledCommit() {
+        if (enabled && writer != null && !worker.isShutdown()) {
+            worker.execute(this::commit);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdown();
+        try {
+            worker.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            try {
+                if (writer != null) {
+                    commit();
+                    searcherManager.close();
+                    writer.close();
+                    directory.close();
+                }
+            } catch (IOException e) {
+                log.warn("Closing chat search index failed: {}", e.getMessage());
+            } finally {
+                writer = null;
+            }
+        }
+    }
+
+    // ==================== Search ====================
+
+    /**
+     * Search request; {@code recent} sorts by time instead of relevance
+     */
+    public record SearchRequest(String text, Long projectId, Long chatId, String type,
+                                boolean recent, String cursor, int limit) {}
+
+    /**
+     * One hit; {@code snippet} is HTML-escaped with matches in {@code <mark>}. For an
+     * {@code archived} chat the message/document {@code id} is the one before archiving;
+     * opening the chat restores it.
+     */
+    public record Hit(String type, Long id, Long chatId, String chatTitle, String role,
+                      LocalDateTime createdAt, Float score, String snippet, boolean archived) {}
+
+    /**
+     * One page of hits; pass {@code nextCursor} to get the next page (null on the last page)
+     */
+    public record Page(List<Hit> hits, long totalHits, boolean totalHitsExact, String nextCursor, long tookMs) {}
+
+    /**
+     * @throws IllegalArgumentException for an empty query, an unknown type or an invalid cursor
+     */
+    public Page search(SearchRequest request) {
+        long start = System.nanoTime();
+        if (request.text() == null || request.text().isBlank()) {
+            throw new IllegalArgumentException("Query must not be empty");
+        }
+        if (!enabled) {
+            return new Page(List.of(), 0, true, null, 0);
+        }
+        ensureOpen();
+        int limit = Math.max(1, Math.min(request.limit() <= 0 ? 20 : request.limit(), maxPageSize));
+        Cursor after = request.cursor() != null && !request.cursor().isBlank()
+                ? Cursor.decode(request.cursor(), request.recent()) : null;
+
+        Query text = parse(request.text());
+        BooleanQuery.Builder filtered = new BooleanQuery.Builder().add(text, BooleanClause.Occur.MUST);
+        if (request.type() != null && !request.type().isBlank()) {
+            if (!Set.of(TYPE_MESSAGE, TYPE_CHAT, TYPE_DOCUMENT).contains(request.type())) {
+                throw new IllegalArgumentException("Unknown type: " + request.type());
+            }
+            filtered.add(new TermQuery(new Term(F_TYPE, request.type())), BooleanClause.Occur.FILTER);
+        }
+        if (request.chatId() != null) {
+            filtered.add(LongPoint.newExactQuery(F_CHAT_ID, request.chatId()), BooleanClause.Occur.FILTER);
+        }
+        if (request.projectId() != null) {
+            List<Long> chatIds = chatRepository.findIdsByProjectId(request.projectId());
+            if (chatIds.isEmpty()) {
+                return new Page(List.of(), 0, true, null, elapsedMs(start));
+            }
+            filtered.add(LongPoint.newSetQuery(F_CHAT_ID, chatIds), BooleanClause.Occur.FILTER);
+        }
+
+        long now = after != null ? after.now() : System.currentTimeMillis();
+        Query query = request.recent() ? filtered.build()
+                : FunctionScoreQuery.boostByValue(filtered.build(),
+                        new RecencyBoost(now, recencyHalfLifeDays * 86_400_000d, recencyWeight));
+        Sort sort = request.recent()
+                ? new Sort(new SortField(F_CREATED_AT, SortField.Type.LONG, true), new SortField(F_UID, SortField.Type.STRING))
+                : new Sort(SortField.FIELD_SCORE, new SortField(F_CREATED_AT, SortField.Type.LONG, true),
+                        new SortField(F_UID, SortField.Type.STRING));
+
+        IndexSearcher searcher = acquire();
+        try {
+            // One extra hit tells whether there is a next page
+            TopFieldDocs top = searcher.searchAfter(after != null ? after.toFieldDoc(searcher.getIndexReader().maxDoc()) : null,
+                    query, limit + 1, sort, !request.recent());
+            ScoreDoc[] docs = top.scoreDocs;
+            int count = Math.min(limit, docs.length);
+            StoredFields stored = searcher.storedFields();
+
+            List<Document> page = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                page.add(stored.document(docs[i].doc));
+            }
+            Map<Long, String> titles = chatTitles(searcher, page);
+            ChatArchiveService archive = chatArchiveService.getIfAvailable();
+
+            List<Hit> hits = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Document doc = page.get(i);
+                Long chatId = doc.getField(F_CHAT_ID).numericValue().longValue();
+                hits.add(new Hit(doc.get(F_TYPE),
+                        doc.getField(F_ID).numericValue().longValue(),
+                        chatId,
+                        titles.get(chatId),
+                        doc.get(F_ROLE),
+                        toDateTime(doc.getField(F_CREATED_AT).numericValue().longValue()),
+                        request.recent() ? null : docs[i].score,
+                        snippet(text, doc),
+                        archive != null && archive.isArchived(chatId)));
+            }
+            String nextCursor = docs.length > limit
+                    ? Cursor.of((FieldDoc) docs[limit - 1], request.recent(), now).encode()
+                    : null;
+            return new Page(hits, top.totalHits.value,
+                    top.totalHits.relation == TotalHits.Relation.EQUAL_TO, nextCursor, elapsedMs(start));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Chat search failed", e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    /**
+     * Size and state of the index
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("open", writer != null);
+        status.put("rebuilding", rebuilding);
+        status.put("pendingUpdates", worker.getQueue().size());
+        status.put("lastRebuild", lastRebuild);
+        IndexWriter current = writer;
+        if (current != null) {
+            status.put("documents", current.getDocStats().numDocs);
+        }
+        return status;
+    }
+
+    // ==================== Index maintenance (worker thread) ====================
+
+    private synchronized void ensureOpen() {
+        if (writer != null) {
+            return;
+        }
+        try {
+            Path dir = pathsConfiguration.getChatIndexDir();
+            directory = FSDirectory.open(dir);
+            IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+            IndexWriter opened = new IndexWriter(directory, config);
+            searcherManager = new SearcherManager(opened, null);
+            writer = opened;
+            String committed = commitData().get(COMMIT_LAST_MESSAGE_ID);
+            lastMessageId = committed != null ? Long.parseLong(committed) : 0;
+            log.info("Chat search index opened: {} ({} documents)", dir, opened.getDocStats().numDocs);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open chat search index", e);
+        }
+    }
+
+    private void rebuildNow() {
+        rebuilding = true;
+        long start = System.currentTimeMillis();
+        try {
+            writer.deleteAll();
+            lastMessageId = 0;
+            int chats = indexRows(TYPE_CHAT, after -> chatRepository.findSearchRowsAfter(after, batch()));
+            int documents = indexRows(TYPE_DOCUMENT, after -> chatDocumentRepository.findSearchRowsAfter(after, batch()));
+            int messages = catchUpMessages();
+            int archived = indexArchived();
+            commit();
+            lastRebuild = Instant.now().toString();
+            log.info("Chat search index rebuilt: {} messages, {} chats, {} documents, {} archived entries in {} ms",
+                    messages, chats, documents, archived, System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            log.error("Chat search index rebuild failed: {}", e.getMessage(), e);
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    /**
+     * Indexes the messages saved after the last one in the index
+     */
+    private int catchUpMessages() {
+        int count = indexRows(TYPE_MESSAGE, after -> messageRepository.findSearchRowsAfter(after, batch()),
+                lastMessageId);
+        if (count > 0) {
+            log.info("Chat search index: {} messages caught up", count);
+        }
+        refresh();
+        return count;
+    }
+
+    /**
+     * Indexes messages and document names of chats in cold storage under their original IDs
+     */
+    private int indexArchived() {
+        ChatArchiveService archive = chatArchiveService.getIfAvailable();
+        if (archive == null) {
+            return 0;
+        }
+        int[] count = {0};
+        archive.forEachRecord(record -> {
+            List<Document> docs = new ArrayList<>();
+            for (ChatArchiveService.ArchivedMessage message : record.messages()) {
+                if (message.id() != null) {
+                    docs.add(document(TYPE_MESSAGE, message.id(), record.chatId(), message.content(),
+                            message.role() != null ? message.role().name() : null, message.createdAt()));
+                }
+            }
+            for (ChatArchiveService.ArchivedDocument archivedDocument : record.documents()) {
+                if (archivedDocument.id() != null) {
+                    docs.add(document(TYPE_DOCUMENT, archivedDocument.id(), record.chatId(),
+                            archivedDocument.fileName(), null, archivedDocument.createdAt()));
+                }
+            }
+            for (Document doc : docs) {
+                try {
+                    writer.updateDocument(new Term(F_UID, doc.get(F_UID)), doc);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            count[0] += docs.size();
+        });
+        dirty |= count[0] > 0;
+        return count[0];
+    }
+
+    private int indexRows(String type, Function<Long, List<? extends SearchIndexRow>> nextBatch) {
+        return indexRows(type, nextBatch, 0L);
+    }
+
+    private int indexRows(String type, Function<Long, List<? extends SearchIndexRow>> nextBatch, long afterId) {
+        int count = 0;
+        List<? extends SearchIndexRow> rows;
+        do {
+            rows = nextBatch.apply(afterId);
+            for (SearchIndexRow row : rows) {
+                String role = row instanceof MessageRepository.MessageSearchRow message && message.getRole() != null
+                        ? message.getRole().name() : null;
+                Document doc = document(type, row.getId(), row.getChatId(), row.getText(), role, row.getCreatedAt());
+                try {
+                    writer.updateDocument(new Term(F_UID, doc.get(F_UID)), doc);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                afterId = row.getId();
+                count++;
+            }
+            if (TYPE_MESSAGE.equals(type)) {
+                lastMessageId = Math.max(lastMessageId, afterId);
+            }
+            dirty |= !rows.isEmpty();
+        } while (rows.size() == rebuildBatchSize);
+        return count;
+    }
+
+    private void refresh() {
+        try {
+            if (searcherManager != null) {
+                searcherManager.maybeRefreshBlocking();
+            }
+        } catch (IOException e) {
+            log.warn("Chat search index refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private void commit() {
+        if (!dirty || writer == null) {
+            return;
+        }
+        try {
+            writer.setLiveCommitData(Map.of(
+                    COMMIT_SCHEMA, SCHEMA_VERSION,
+                    COMMIT_LAST_MESSAGE_ID, Long.toString(lastMessageId)).entrySet());
+            writer.commit();
+            dirty = false;
+        } catch (IOException e) {
+            log.warn("Chat search index commit failed: {}", e.getMessage());
+        }
+    }
+
+    private Map<String, String> commitData() {
+        Map<String, String> data = new HashMap<>();
+        Iterable<Map.Entry<String, String>> live = writer.getLiveCommitData();
+        if (live != null) {
+            live.forEach(e -> data.put(e.getKey(), e.getValue()));
+        }
+        return data;
+    }
+
+    /**
+     * Runs the index write after the surrounding transaction commits (a rollback leaves the index alone)
+     */
+    private void afterCommit(IndexWrite write) {
+        if (!enabled || worker.isShutdown()) {
+            return;
+        }
+        Runnable submit = () -> worker.execute(() -> {
+            ensureOpen();
+            try {
+                write.apply();
+                dirty = true;
+            } catch (IOException e) {
+                log.warn("Chat search index update failed: {}", e.getMessage());
+            }
+            // Refresh once the queue is drained, not after every single save
+            if (worker.getQueue().isEmpty()) {
+                refresh();
+            }
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit.run();
+                }
+            });
+        } else {
+            submit.run();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexWrite {
+        void apply() throws IOException;
+    }
+
+    // ==================== Documents ====================
+
+    private Document toDocument(Object entity) {
+        if (entity instanceof Message message && message.getId() != null && message.getChat() != null) {
+            return document(TYPE_MESSAGE, message.getId(), message.getChat().getId(), message.getContent(),
+                    message.getRole() != null ? message.getRole().name() : null, message.getCreatedAt());
+        }
+        if (entity instanceof Chat chat && chat.getId() != null) {
+            return document(TYPE_CHAT, chat.getId(), chat.getId(), chat.getTitle(), null, chat.getUpdatedAt());
+        }
+        if (entity instanceof ChatDocument document && document.getId() != null && document.getChat() != null) {
+            return document(TYPE_DOCUMENT, document.getId(), document.getChat().getId(), document.getFileName(),
+                    null, document.getCreatedAt());
+        }
+        return null;
+    }
+
+    private static Document document(String type, long id, long chatId, String text, String role,
+                                     LocalDateTime createdAt) {
+        String uid = uid(type, id);
+        long created = createdAt != null ? createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+
+        Document doc = new Document();
+        doc.add(new StringField(F_UID, uid, Field.Store.YES));
+        doc.add(new SortedDocValuesField(F_UID, new BytesRef(uid)));
+        doc.add(new StringField(F_TYPE, type, Field.Store.YES));
+        doc.add(new StoredField(F_ID, id));
+        doc.add(new LongPoint(F_CHAT_ID, chatId));
+        doc.add(new StoredField(F_CHAT_ID, chatId));
+        doc.add(new NumericDocValuesField(F_CREATED_AT, created));
+        doc.add(new StoredField(F_CREATED_AT, created));
+        if (role != null) {
+            doc.add(new StoredField(F_ROLE, role));
+        }
+        doc.add(new TextField(textField(type), text != null ? text : "", Field.Store.YES));
+        return doc;
+    }
+
+    private static String textField(String type) {
+        return switch (type) {
+            case TYPE_CHAT -> F_TITLE;
+            case TYPE_DOCUMENT -> F_FILE_NAME;
+            default -> F_CONTENT;
+        };
+    }
+
+    private static String uid(String type, long id) {
+        return type.charAt(0) + ":" + id;
+    }
+
+    // ==================== Query helpers ====================
+
+    private Query parse(String text) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(
+                new String[]{F_TITLE, F_FILE_NAME, F_CONTENT}, analyzer, FIELD_BOOSTS);
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        try {
+            return parser.parse(text);
+        } catch (ParseException e) {
+            // Free text with stray quotes, brackets or colons
+            try {
+                return parser.parse(QueryParser.escape(text));
+            } catch (ParseException escaped) {
+                throw new IllegalArgumentException("Invalid query: " + text);
+            }
+        }
+    }
+
+    /**
+     * Titles of the chats on this page, read from the chat entries of the index itself
+     */
+    private Map<Long, String> chatTitles(IndexSearcher searcher, List<Document> page) throws IOException {
+        Set<BytesRef> uids = new LinkedHashSet<>();
+        for (Document doc : page) {
+            uids.add(new BytesRef(uid(TYPE_CHAT, doc.getField(F_CHAT_ID).numericValue().longValue())));
+        }
+        Map<Long, String> titles = new HashMap<>();
+        if (uids.isEmpty()) {
+            return titles;
+        }
+        TopDocs chats = searcher.search(new TermInSetQuery(F_UID, uids), uids.size());
+        StoredFields stored = searcher.storedFields();
+        for (ScoreDoc hit : chats.scoreDocs) {
+            Document chat = stored.document(hit.doc);
+            titles.put(chat.getField(F_ID).numericValue().longValue(), chat.get(F_TITLE));
+        }
+        return titles;
+    }
+
+    private String snippet(Query query, Document doc) {
+        String field = textField(doc.get(F_TYPE));
+        String text = doc.get(field);
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        SimpleHTMLEncoder encoder = new SimpleHTMLEncoder();
+        QueryScorer scorer = new QueryScorer(query, field);
+        Highlighter highlighter = new Highlighter(new SimpleHTMLFormatter("<mark>", "</mark>"), encoder, scorer);
+        highlighter.setTextFragmenter(new SimpleFragmenter(SNIPPET_CHARS));
+        try {
+            String fragment = highlighter.getBestFragment(analyzer, field, text);
+            if (fragment != null) {
+                return fragment;
+            }
+        } catch (IOException | InvalidTokenOffsetsException e) {
+            log.debug("Highlighting failed for {}: {}", doc.get(F_UID), e.getMessage());
+        }
+        return encoder.encodeText(text.length() > SNIPPET_CHARS ? text.substring(0, SNIPPET_CHARS) + "…" : text);
+    }
+
+    private IndexSearcher acquire() {
+        try {
+            return searcherManager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Chat search index not available", e);
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            log.debug("Releasing searcher failed: {}", e.getMessage());
+        }
+    }
+
+    private PageRequest batch() {
+        return PageRequest.of(0, rebuildBatchSize);
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Sort values of the last hit on a page; relevance cursors also keep the reference
+     * time of the recency factor so that scores stay comparable across pages
+     */
+    private record Cursor(boolean recent, long now, float score, long createdAt, String uid) {
+
+        static Cursor of(FieldDoc last, boolean recent, long now) {
+            if (recent) {
+                return new Cursor(true, now, 0, (Long) last.fields[0], ((BytesRef) last.fields[1]).utf8ToString());
+            }
+            return new Cursor(false, now, (Float) last.fields[0], (Long) last.fields[1],
+                    ((BytesRef) last.fields[2]).utf8ToString());
+        }
+
+        String encode() {
+            String raw = recent
+                    ? "t|" + createdAt + "|" + uid
+                    : "r|" + now + "|" + score + "|" + createdAt + "|" + uid;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor, boolean recent) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+                if (recent && parts.length == 3 && "t".equals(parts[0])) {
+                    return new Cursor(true, 0, 0, Long.parseLong(parts[1]), parts[2]);
+                }
+                if (!recent && parts.length == 5 && "r".equals(parts[0])) {
+                    return new Cursor(false, Long.parseLong(parts[1]), Float.parseFloat(parts[2]),
+                            Long.parseLong(parts[3]), parts[4]);
+                }
+            } catch (IllegalArgumentException e) {
+                // falls through
+            }
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        FieldDoc toFieldDoc(int maxDoc) {
+            // Only the cursor hit itself equals all sort values; a doc ID past every real one skips it
+            Object[] fields = recent
+                    ? new Object[]{createdAt, new BytesRef(uid)}
+                    : new Object[]{score, createdAt, new BytesRef(uid)};
+            return new FieldDoc(maxDoc - 1, recent ? Float.NaN : score, fields);
+        }
+    }
+
+    /**
+     * 1 + weight * 0.5^(age / half-life), read from the createdAt doc values
+     */
+    static final class RecencyBoost extends DoubleValuesSource {
+
+        private final long now;
+        private final double halfLifeMillis;
+        private final double weight;
+
+        RecencyBoost(long now, double halfLifeMillis, double weight) {
+            this.now = now;
+            this.halfLifeMillis = halfLifeMillis;
+            this.weight = weight;
+        }
+
+        @Override
+        public DoubleValues getValues(LeafReaderContext ctx, DoubleValues scores) throws IOException {
+            NumericDocValues createdAt = DocValues.getNumeric(ctx.reader(), F_CREATED_AT);
+            return new DoubleValues() {
+                private double value;
+
+                @Override
+                public double doubleValue() {
+                    return value;
+                }
+
+                @Override
+                public boolean advanceExact(int doc) throws IOException {
+                    if (!createdAt.advanceExact(doc) || halfLifeMillis <= 0) {
+                        value = 1;
+                    } else {
+                        double age = Math.max(0, now - createdAt.longValue());
+                        value = 1 + weight * Math.pow(0.5, age / halfLifeMillis);
+                    }
+                    return true;
+                }
+            };
+        }
+
+        @Override
+        public boolean needsScores() {
+            return false;
+        }
+
+        @Override
+        public DoubleValuesSource rewrite(IndexSearcher searcher) {
+            return this;
+        }
+
+        @Override
+        public boolean isCacheable(LeafReaderContext ctx) {
+            return DocValues.isCacheable(ctx, F_CREATED_AT);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof RecencyBoost other && now == other.now
+                    && halfLifeMillis == other.halfLifeMillis && weight == other.weight;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(now, halfLifeMillis, weight);
+        }
+
+        @Override
+        public String toString() {
+            return "recency(" + F_CREATED_AT + ", halfLife=" + halfLifeMillis + "ms)";
+        }
+    }
+}
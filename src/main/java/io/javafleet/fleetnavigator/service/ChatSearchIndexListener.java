@@ -0,0 +1,39 @@
+package io.javafleet.fleetnavigator.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener on Message, Chat and ChatDocument that keeps the {@link ChatSearchIndex}
+ * current, wherever the entities are saved or deleted.
+ *
+ * Hibernate obtains the listener from the Spring context; the index is looked up per event
+ * because it depends on repositories, which in turn need the entity manager factory.
+ */
+@Component
+public class ChatSearchIndexListener {
+
+    private final ObjectProvider<ChatSearchIndex> index;
+
+    public ChatSearchIndexListener(ObjectProvider<ChatSearchIndex> index) {
+        this.index = index;
+    }
+
+    @PostPersist
+    public void persisted(Object entity) {
+        index.ifAvailable(i -> i.onSaved(entity));
+    }
+
+    @PostUpdate
+    public void updated(Object entity) {
+        index.ifAvailable(i -> i.onSaved(entity));
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        index.ifAvailable(i -> i.onRemoved(entity));
+    }
+}
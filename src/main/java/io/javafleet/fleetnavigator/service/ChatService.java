@@ -4,11 +4,12 @@ import io.javafleet.fleetnavigator.dto.*;
 import io.javafleet.fleetnavigator.experts.model.Expert;
 import io.javafleet.fleetnavigator.util.FleetUtils;
 import io.javafleet.fleetnavigator.experts.model.ExpertMode;
-import io.javafleet.fleetnavigator.experts.repository.ExpertModeRepository;
 import io.javafleet.fleetnavigator.experts.repository.ExpertRepository;
+import io.javafleet.fleetnavigator.experts.runtime.CompiledExpertProfile;
 import io.javafleet.fleetnavigator.experts.runtime.ExpertRuntime;
 import io.javafleet.fleetnavigator.experts.runtime.ExpertRuntimeFactory;
 import io.javafleet.fleetnavigator.model.AppSettings;
+import io.javafleet.fleetnavigator.model.ArchivedChat;
 import io.javafleet.fleetnavigator.model.Chat;
 import io.javafleet.fleetnavigator.model.ChatDocument;
 import io.javafleet.fleetnavigator.model.ContextFile;
@@ -23,6 +24,7 @@ import io.javafleet.fleetnavigator.repository.MessageRepository;
 import io.javafleet.fleetnavigator.websocket.FleetMateWebSocketHandler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
@@ -34,6 +36,8 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -58,10 +62,15 @@ public class ChatService {
     private final ZipService zipService;
     private final WebSearchService webSearchService;  // Web Search RAG
     private final ExpertRepository expertRepository;  // Expert System für searchDomains
-    private final ExpertModeRepository expertModeRepository;  // Expert Modi für Keyword-Erkennung
     private final ExpertRuntimeFactory expertRuntimeFactory;  // Expert Runtime Factory
     private final DocumentGeneratorService documentGeneratorService;  // Briefe und PDFs generieren
+    private final DocumentRenderQueue documentRenderQueue;  // Dokumente im Hintergrund rendern
     private final FleetMateService fleetMateService;  // Fleet-Mate Management
+    private final AttachmentStore attachmentStore;  // Hochgeladene Bilder (imageRefs)
+    private final ContentBlobStore contentBlobStore;  // Dokument-Inhalte (dedupliziert, außerhalb der DB)
+    private final InferenceTelemetry inferenceTelemetry;  // TTFT, Tokens/s pro Modell/Provider/Experte
+    private final RequestTracer requestTracer;  // Phasen-Timeline pro Streaming-Request
+    private final ChatArchiveService chatArchiveService;  // Inaktive Chats im Cold Storage
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     // Fleet-Mate WebSocket Handler (set via setter to avoid circular dependency)
@@ -70,8 +79,18 @@ public class ChatService {
     // Thread pool for handling streaming requests
     private final ExecutorService executorService = Executors.newCachedThreadPool();
 
-    // Pending document generation requests: sessionId -> PendingDocument
-    // Used to track Fleet-Mate document generation and send file links back to frontend
+    // Deadlines der optionalen Kontext-Stufen beim Streaming (ab Start der Kontextsammlung)
+    @Value("${fleet-navigator.chat.url-fetch-deadline-ms:3000}")
+    private long urlFetchDeadlineMs = 3000;
+
+    @Value("${fleet-navigator.chat.web-search-deadline-ms:6000}")
+    private long webSearchDeadlineMs = 6000;
+
+    @Value("${fleet-navigator.chat.web-content-deadline-ms:2500}")
+    private long webContentDeadlineMs = 2500;
+
+    // Pending document generation requests: sessionId/documentId -> PendingDocument
+    // Used to track Fleet-Mate and background document generation and send file links back to frontend
     private final java.util.concurrent.ConcurrentHashMap<String, PendingDocument> pendingDocuments =
             new java.util.concurrent.ConcurrentHashMap<>();
 
@@ -136,6 +155,21 @@ public class ChatService {
         return mapToChatDTO(chat);
     }
 
+    /**
+     * Load uploaded images referenced by imageRefs as Base64 (only for the duration of this request)
+     */
+    private void resolveImageRefs(ChatRequest request) {
+        if (request.getImageRefs() == null || request.getImageRefs().isEmpty()) {
+            return;
+        }
+        List<String> images = new ArrayList<>();
+        if (request.getImages() != null) {
+            images.addAll(request.getImages());
+        }
+        images.addAll(attachmentStore.readBase64(request.getImageRefs()));
+        request.setImages(images);
+    }
+
     /**
      * Send a message and get response from LLM (java-llama-cpp)
      */
@@ -143,10 +177,13 @@ public class ChatService {
     public ChatResponse sendMessage(ChatRequest request) throws IOException {
         // Generate request ID for tracking
         String requestId = UUID.randomUUID().toString();
+        inferenceTelemetry.accepted(requestId);
+        resolveImageRefs(request);
 
         // Get or create chat
         Chat chat;
         if (request.getChatId() != null) {
+            chatArchiveService.rehydrate(request.getChatId());
             chat = chatRepository.findById(request.getChatId())
                     .orElseThrow(() -> new IllegalArgumentException("Chat not found: " + request.getChatId()));
         } else {
@@ -186,7 +223,7 @@ public class ChatService {
 
         // Add project context if chat is assigned to a project
         if (chat.getProject() != null && !chat.getProject().getContextFiles().isEmpty()) {
-            completeMessageBuilder.append(chat.getProject().getCombinedContext());
+            completeMessageBuilder.append(chat.getProject().getCombinedContext(contentBlobStore::contentOf));
             completeMessageBuilder.append("\n\n---\n\n");
             log.info("Added project context '{}' ({} bytes) to message",
                     chat.getProject().getName(), chat.getProject().getTotalContextSize());
@@ -231,7 +268,7 @@ public class ChatService {
             completeMessageBuilder.append("⚠️ DIESE DOKUMENTE HABEN PRIORITÄT! Beantworte Fragen primär basierend auf diesen Dokumenten.\n\n");
             for (ChatDocument doc : savedDocuments) {
                 completeMessageBuilder.append("**Dokument:** ").append(doc.getFileName()).append("\n");
-                completeMessageBuilder.append(doc.getContent()).append("\n\n");
+                completeMessageBuilder.append(contentBlobStore.contentOf(doc)).append("\n\n");
             }
             completeMessageBuilder.append("---\n\n");
             log.info("Loaded {} saved documents from database for chat {} (PRIMARY CONTEXT)", savedDocuments.size(), chat.getId());
@@ -253,7 +290,7 @@ public class ChatService {
             newDoc.setChat(chat);
             newDoc.setFileName(fileName);
             newDoc.setFileType(fileType);
-            newDoc.setContent(request.getDocumentContext());
+            contentBlobStore.attach(newDoc, request.getDocumentContext());
             chatDocumentRepository.save(newDoc);
             log.info("Saved document '{}' ({}) to database for chat {}", fileName, fileType, chat.getId());
 
@@ -343,9 +380,9 @@ public class ChatService {
         } else {
             // Use smart selection based on prompt content
             String defaultModel = chat.getModel();
-            modelToUse = modelSelectionService.selectModel(request.getMessage(), defaultModel);
-            ModelSelectionService.TaskType taskType = modelSelectionService.getTaskType(request.getMessage());
-            log.info("Smart model selection: {} (task type: {})", modelToUse, taskType);
+            var routing = modelSelectionService.route(request.getMessage(), defaultModel, requestId);
+            modelToUse = routing.model();
+            log.info("Smart model selection: {} (task type: {}, {})", modelToUse, routing.taskType(), routing.reason());
         }
 
         // Load model selection settings for vision chaining configuration
@@ -408,7 +445,7 @@ public class ChatService {
                     visionDoc.setChat(chat);
                     visionDoc.setFileName(imageName + " (OCR/Vision)");
                     visionDoc.setFileType("vision-ocr");
-                    visionDoc.setContent(visionResult.visionOutput());
+                    contentBlobStore.attach(visionDoc, visionResult.visionOutput());
                     chatDocumentRepository.save(visionDoc);
                     log.info("Vision/OCR-Ergebnis als Dokument '{}' gespeichert ({} Zeichen)",
                             visionDoc.getFileName(), visionResult.visionOutput().length());
@@ -464,7 +501,10 @@ public class ChatService {
         // Check for document generation request (Brief, PDF-Zusammenfassung)
         // Funktioniert auch ohne Experten (mit Default-Werten)
         if (downloadUrl == null) {
-            downloadUrl = checkAndGenerateDocument(request.getMessage(), finalResponse, request.getExpertId());
+            DocumentRenderQueue.Ticket document = checkAndGenerateDocument(request.getMessage(), finalResponse, request.getExpertId());
+            if (document != null) {
+                downloadUrl = documentDownloadUrl(document);
+            }
         }
 
         ChatResponse chatResponse = new ChatResponse(
@@ -483,16 +523,47 @@ public class ChatService {
         return chatResponse;
     }
 
+    /**
+     * Web search for a streaming request: request domains, else the expert's domains.
+     * Page contents that miss the content deadline keep their search snippet.
+     */
+    private List<WebSearchService.SearchResult> searchForStream(ChatRequest request, Expert expert) {
+        int maxResults = request.getMaxSearchResults() != null ? request.getMaxSearchResults() : 5;
+
+        // Search-Domains ermitteln: Request > Expert > null
+        List<String> domains = request.getSearchDomains();
+        if ((domains == null || domains.isEmpty()) && expert != null
+                && expert.getSearchDomains() != null && !expert.getSearchDomains().isBlank()) {
+            domains = expert.getSearchDomainsAsList();
+            log.info("Verwende Experten-Domains (Streaming) für {}: {}", expert.getName(), domains);
+        }
+
+        // Erweiterte Suche mit vollständigem Content-Abruf
+        WebSearchService.SearchOptions searchOptions = new WebSearchService.SearchOptions();
+        searchOptions.setMaxResults(maxResults);
+        searchOptions.setDomains(domains);
+        searchOptions.setFetchFullContent(true);  // Vollständige Seiteninhalte laden!
+        searchOptions.setMaxContentLength(2000);  // Max 2000 Zeichen pro Seite
+        searchOptions.setContentDeadlineMs(webContentDeadlineMs);
+        searchOptions.setOptimizeQuery(true);
+        searchOptions.setReRank(true);
+        return webSearchService.searchEnhanced(request.getMessage(), searchOptions);
+    }
+
     /**
      * Send a message with STREAMING enabled
-     * Returns an SseEmitter that will send chunks in real-time
+     * Returns an SseEmitter right away; context gathering and generation run on a worker
+     * and send their chunks in real-time
      */
     public SseEmitter sendMessageStream(ChatRequest request) {
         // Generate request ID for tracking
         String requestId = UUID.randomUUID().toString();
+        inferenceTelemetry.accepted(requestId);
+        resolveImageRefs(request);
 
         // Create SSE emitter with 30 minute timeout (for large generation tasks)
         SseEmitter emitter = new SseEmitter(1_800_000L);
+        RequestTracer.Trace trace = requestTracer.begin("chat.stream", requestId).phase("queue");
 
         // Track emitter completion state
         final boolean[] isCompleted = {false};
@@ -501,6 +572,7 @@ public class ChatService {
         emitter.onTimeout(() -> {
             log.warn("SSE emitter timed out for request: {}", requestId);
             isCompleted[0] = true;
+            trace.tag("timeout", true).end();
             llmProviderService.cancelRequest(requestId);
         });
 
@@ -512,244 +584,260 @@ public class ChatService {
         emitter.onError((ex) -> {
             log.error("SSE emitter error for request: {}", requestId, ex);
             isCompleted[0] = true;
+            trace.fail(ex);
             llmProviderService.cancelRequest(requestId);
         });
 
-        // IMPORTANT: Load chat WITH project and context files BEFORE async execution
-        // to avoid LazyInitializationException
-        Chat chat;
-        String projectContext = null;
-        String projectName = null;
-        long projectContextSize = 0;
+        // Alles Weitere läuft im Worker - der Servlet-Thread gibt den Emitter sofort zurück
+        executorService.execute(() -> {
+            try {
+                // ===== Kontext sammeln =====
+                // Experte, ExpertRuntime, Verlauf, Dokumente, URL-Inhalte und Web-Suche hängen nicht
+                // voneinander ab (die Suche nur von den Domains des Experten) und laufen parallel.
+                // URLs und Web-Suche sind optional: nach ihrer Deadline geht es ohne sie weiter.
+                ContextStages stages = new ContextStages(executorService, trace);
+                Long expertId = request.getExpertId();
+                Long chatId = request.getChatId();
+                if (chatId != null) {
+                    // Archivierte Chats zuerst zurückholen, sonst sehen Verlauf und Dokumente leere Tabellen
+                    chatArchiveService.rehydrate(chatId);
+                }
 
-        if (request.getChatId() != null) {
-            // Use findByIdWithProject to eagerly load Project + ContextFiles (avoids LazyInitializationException)
-            chat = chatRepository.findByIdWithProject(request.getChatId())
-                    .orElseThrow(() -> new IllegalArgumentException("Chat not found: " + request.getChatId()));
+                java.util.concurrent.CompletableFuture<Expert> expertStage = stages.start("expert.load",
+                        () -> expertId != null ? expertRepository.findById(expertId).orElse(null) : null);
+                java.util.concurrent.CompletableFuture<ExpertRuntime> runtimeStage = stages.start("expert.runtime",
+                        () -> expertId != null
+                                ? expertRuntimeFactory.getRuntime(expertId, request.getActiveExpertModeId(), request.getCpuOnly()).orElse(null)
+                                : null);
+                java.util.concurrent.CompletableFuture<List<Message>> historyStage = stages.start("history.load",
+                        () -> chatId != null ? messageRepository.findByChatIdOrderByCreatedAtAsc(chatId) : List.<Message>of());
+                java.util.concurrent.CompletableFuture<List<ChatDocument>> documentsStage = stages.start("documents.load",
+                        () -> chatId != null ? chatDocumentRepository.findByChatIdOrderByCreatedAtAsc(chatId) : List.<ChatDocument>of());
+
+                // URL-Erkennung: Wenn URLs in der Nachricht sind, Inhalte parallel abrufen
+                List<String> detectedUrlsStreaming = extractUrls(request.getMessage());
+                List<java.util.concurrent.CompletableFuture<String>> urlStages = new ArrayList<>();
+                for (String url : detectedUrlsStreaming) {
+                    urlStages.add(stages.start("url.fetch", () -> webSearchService.fetchPageContent(url, 3000)));
+                }
 
-            // Project and ContextFiles are already loaded via JOIN FETCH
-            if (chat.getProject() != null) {
-                Project project = chat.getProject();
-                if (project.getContextFiles() != null && !project.getContextFiles().isEmpty()) {
-                    projectContext = project.getCombinedContext();
-                    projectName = project.getName();
-                    projectContextSize = project.getTotalContextSize();
-                    log.info("📁 Project context loaded: {} ({} bytes)", projectName, projectContextSize);
+                // Web Search RAG: Suche startet, sobald die Domains des Experten bekannt sind
+                boolean includeSourceUrlsStreaming = Boolean.TRUE.equals(request.getIncludeSourceUrls());
+                java.util.concurrent.CompletableFuture<List<WebSearchService.SearchResult>> searchStage =
+                        Boolean.TRUE.equals(request.getWebSearchEnabled())
+                                ? expertStage.thenCompose(expert -> stages.start("web.search", () -> searchForStream(request, expert)))
+                                : java.util.concurrent.CompletableFuture.completedFuture(List.of());
+
+                trace.phase("chat.load");
+
+                // Chat MIT Projekt und Kontextdateien laden (JOIN FETCH, kein LazyInitializationException)
+                Chat chat;
+                String projectContext = null;
+                String projectName = null;
+                long projectContextSize = 0;
+
+                if (chatId != null) {
+                    chat = chatRepository.findByIdWithProject(chatId)
+                            .orElseThrow(() -> new IllegalArgumentException("Chat not found: " + chatId));
+
+                    // Project and ContextFiles are already loaded via JOIN FETCH
+                    if (chat.getProject() != null) {
+                        Project project = chat.getProject();
+                        if (project.getContextFiles() != null && !project.getContextFiles().isEmpty()) {
+                            projectContext = project.getCombinedContext(contentBlobStore::contentOf);
+                            projectName = project.getName();
+                            projectContextSize = project.getTotalContextSize();
+                            log.info("📁 Project context loaded: {} ({} bytes)", projectName, projectContextSize);
+                        }
+                    }
+                } else {
+                    // Create new chat
+                    chat = new Chat();
+                    chat.setTitle("New Chat");
+                    chat.setModel(request.getModel() != null ? request.getModel() : "qwen2.5-coder:7b");
+                    chat = chatRepository.save(chat);
                 }
-            }
-        } else {
-            // Create new chat
-            chat = new Chat();
-            chat.setTitle("New Chat");
-            chat.setModel(request.getModel() != null ? request.getModel() : "qwen2.5-coder:7b");
-            chat = chatRepository.save(chat);
-        }
 
-        // Load model selection settings for vision chaining configuration
-        var modelSettings = settingsService.getModelSelectionSettings();
+                trace.tag("chat.id", chat.getId()).phase("model.select");
 
-        // Smart model selection: auto-select best model if user didn't specify one
-        String modelToUse;
-        boolean useSmartSelectionForVision = false;
+                // Load model selection settings for vision chaining configuration
+                var modelSettings = settingsService.getModelSelectionSettings();
 
-        if (request.getModel() != null) {
-            // User explicitly chose a model
-            modelToUse = request.getModel();
-            log.info("Using user-selected model: {}", modelToUse);
-        } else {
-            // Check if this is a vision chaining request with smart selection enabled
-            if (request.getImages() != null && !request.getImages().isEmpty() &&
-                request.getVisionChainEnabled() != null && request.getVisionChainEnabled() &&
-                modelSettings.isVisionChainingSmartSelection()) {
-                // Vision chaining with smart selection: select main model based on prompt
-                useSmartSelectionForVision = true;
-                String defaultModel = chat.getModel();
-                modelToUse = modelSelectionService.selectModel(request.getMessage(), defaultModel);
-                ModelSelectionService.TaskType taskType = modelSelectionService.getTaskType(request.getMessage());
-                log.info("Vision-Chaining Smart Selection: {} (task type: {})", modelToUse, taskType);
-            } else {
-                // Regular smart selection or no selection
-                String defaultModel = chat.getModel();
-                modelToUse = modelSelectionService.selectModel(request.getMessage(), defaultModel);
-                ModelSelectionService.TaskType taskType = modelSelectionService.getTaskType(request.getMessage());
-                log.info("Smart model selection: {} (task type: {})", modelToUse, taskType);
-            }
-        }
+                // Smart model selection: auto-select best model if user didn't specify one
+                String modelToUse;
+                boolean useSmartSelectionForVision = false;
 
-        // ===== ExpertRuntime Integration =====
-        // Wenn ein Experte ausgewählt ist, verwende ExpertRuntime für korrektes Model-Mapping
-        ExpertRuntime expertRuntime = null;
-        if (request.getExpertId() != null) {
-            var runtimeOpt = expertRuntimeFactory.getRuntime(
-                request.getExpertId(),
-                request.getActiveExpertModeId(),
-                request.getCpuOnly()
-            );
-            if (runtimeOpt.isPresent()) {
-                expertRuntime = runtimeOpt.get();
-                // Überschreibe modelToUse mit dem korrekt aufgelösten Pfad
-                if (expertRuntime.getResolvedModelPath() != null) {
-                    modelToUse = expertRuntime.getResolvedModelPath().toString();
-                    log.info("🎓 ExpertRuntime Model: {}", modelToUse);
-                } else if (expertRuntime.getModelName() != null) {
-                    modelToUse = expertRuntime.getModelName();
-                    log.info("🎓 ExpertRuntime Model (Name): {}", modelToUse);
+                if (request.getModel() != null) {
+                    // User explicitly chose a model
+                    modelToUse = request.getModel();
+                    log.info("Using user-selected model: {}", modelToUse);
+                } else {
+                    // Check if this is a vision chaining request with smart selection enabled
+                    if (request.getImages() != null && !request.getImages().isEmpty() &&
+                        request.getVisionChainEnabled() != null && request.getVisionChainEnabled() &&
+                        modelSettings.isVisionChainingSmartSelection()) {
+                        // Vision chaining with smart selection: select main model based on prompt
+                        useSmartSelectionForVision = true;
+                        String defaultModel = chat.getModel();
+                        var routing = modelSelectionService.route(request.getMessage(), defaultModel, requestId);
+                        modelToUse = routing.model();
+                        log.info("Vision-Chaining Smart Selection: {} (task type: {}, {})",
+                                modelToUse, routing.taskType(), routing.reason());
+                    } else {
+                        // Regular smart selection or no selection
+                        String defaultModel = chat.getModel();
+                        var routing = modelSelectionService.route(request.getMessage(), defaultModel, requestId);
+                        modelToUse = routing.model();
+                        log.info("Smart model selection: {} (task type: {}, {})",
+                                modelToUse, routing.taskType(), routing.reason());
+                    }
                 }
-            }
-        }
-        final ExpertRuntime finalExpertRuntime = expertRuntime;
-
-        // Make final variables for use in lambda
-        final Chat finalChat = chat;
-        final String finalProjectContext = projectContext;
-        final String finalProjectName = projectName;
-        final long finalProjectContextSize = projectContextSize;
-        final String finalModel = modelToUse;
-        final String finalVisionModel = modelSettings.getVisionModel();
-        final boolean finalVisionChainingEnabled = modelSettings.isVisionChainingEnabled();
-        final boolean finalUseSmartSelectionForVision = useSmartSelectionForVision;
-
-        // Expert-Einstellungen: Lade aus ExpertRuntime oder direkt aus DB
-        Integer expertNumCtx = null;
-        Integer expertMaxTokens = null;
-        if (finalExpertRuntime != null) {
-            // Verwende ExpertRuntime (bereits aufgelöst)
-            expertNumCtx = finalExpertRuntime.getContextSize();
-            expertMaxTokens = finalExpertRuntime.getMaxTokens();
-            log.info("📏 ExpertRuntime {}: numCtx={}, maxTokens={}",
-                finalExpertRuntime.getName(), expertNumCtx, expertMaxTokens);
-        } else if (request.getExpertId() != null) {
-            // Fallback: Direkt aus DB laden
-            Expert expert = expertRepository.findById(request.getExpertId()).orElse(null);
-            if (expert != null) {
-                if (expert.getDefaultNumCtx() != null) {
-                    expertNumCtx = expert.getDefaultNumCtx();
+
+                // ===== ExpertRuntime Integration =====
+                // Wenn ein Experte ausgewählt ist, verwende ExpertRuntime für korrektes Model-Mapping
+                trace.phase("expert.mode");
+                ExpertRuntime expertRuntime = stages.require(runtimeStage);
+                if (expertRuntime != null) {
+                    // Überschreibe modelToUse mit dem korrekt aufgelösten Pfad
+                    if (expertRuntime.getResolvedModelPath() != null) {
+                        modelToUse = expertRuntime.getResolvedModelPath().toString();
+                        log.info("🎓 ExpertRuntime Model: {}", modelToUse);
+                    } else if (expertRuntime.getModelName() != null) {
+                        modelToUse = expertRuntime.getModelName();
+                        log.info("🎓 ExpertRuntime Model (Name): {}", modelToUse);
+                    }
                 }
-                if (expert.getDefaultMaxTokens() != null) {
-                    expertMaxTokens = expert.getDefaultMaxTokens();
+                final ExpertRuntime finalExpertRuntime = expertRuntime;
+                final Expert finalExpert = stages.require(expertStage);
+                if (expertRuntime != null) {
+                    inferenceTelemetry.tagExpert(requestId, expertRuntime.getName());
+                    trace.tag("expert", expertRuntime.getName());
                 }
-                log.info("📏 Expert {}: numCtx={}, maxTokens={}", expert.getName(), expertNumCtx, expertMaxTokens);
-            }
-        }
-        final Integer finalExpertNumCtx = expertNumCtx;
-        // Verwende Experten-maxTokens falls Request keinen Wert hat
-        final Integer finalMaxTokens = request.getMaxTokens() != null ? request.getMaxTokens() : expertMaxTokens;
-
-        // Expert-Modus-Erkennung: Erkennt passenden Modus basierend auf Keywords
-        String modeSwitchNotice = null;
-        String expertSystemPrompt = request.getSystemPrompt();  // Default
-        if (request.getExpertId() != null) {
-            Expert expert = expertRepository.findById(request.getExpertId()).orElse(null);
-            if (expert != null) {
-                ExpertModeResult modeResult = detectAndUpdateExpertMode(chat, request.getExpertId(), request.getMessage());
-                if (modeResult.switchNotice() != null) {
-                    modeSwitchNotice = modeResult.switchNotice();
+                trace.tag("model", modelToUse);
+
+                // Make final variables for use in lambda
+                final Chat finalChat = chat;
+                final String finalProjectContext = projectContext;
+                final String finalProjectName = projectName;
+                final long finalProjectContextSize = projectContextSize;
+                final String finalModel = modelToUse;
+                final String finalVisionModel = modelSettings.getVisionModel();
+                final boolean finalVisionChainingEnabled = modelSettings.isVisionChainingEnabled();
+                final boolean finalUseSmartSelectionForVision = useSmartSelectionForVision;
+
+                // Expert-Einstellungen: Lade aus ExpertRuntime oder direkt aus DB
+                Integer expertNumCtx = null;
+                Integer expertMaxTokens = null;
+                if (finalExpertRuntime != null) {
+                    // Verwende ExpertRuntime (bereits aufgelöst)
+                    expertNumCtx = finalExpertRuntime.getContextSize();
+                    expertMaxTokens = finalExpertRuntime.getMaxTokens();
+                    log.info("📏 ExpertRuntime {}: numCtx={}, maxTokens={}",
+                        finalExpertRuntime.getName(), expertNumCtx, expertMaxTokens);
+                } else if (finalExpert != null) {
+                    // Fallback: Werte des Experten aus der DB
+                    inferenceTelemetry.tagExpert(requestId, finalExpert.getName());
+                    if (finalExpert.getDefaultNumCtx() != null) {
+                        expertNumCtx = finalExpert.getDefaultNumCtx();
+                    }
+                    if (finalExpert.getDefaultMaxTokens() != null) {
+                        expertMaxTokens = finalExpert.getDefaultMaxTokens();
+                    }
+                    log.info("📏 Expert {}: numCtx={}, maxTokens={}", finalExpert.getName(), expertNumCtx, expertMaxTokens);
                 }
-                // Baue System-Prompt mit Experten-Basis + Modus-Addition
-                expertSystemPrompt = buildExpertSystemPrompt(expert, modeResult.mode());
-                log.info("🎓 Expert-Modus: {} (Prompt-Länge: {})",
-                    modeResult.mode() != null ? modeResult.mode().getName() : "Allgemein",
-                    expertSystemPrompt != null ? expertSystemPrompt.length() : 0);
-            }
-        }
-        final String finalModeSwitchNotice = modeSwitchNotice;
-        final String finalExpertSystemPrompt = expertSystemPrompt;
-
-        // URL-Erkennung: Wenn URLs in der Nachricht sind, Inhalte abrufen
-        String urlContext = null;
-        List<String> detectedUrlsStreaming = extractUrls(request.getMessage());
-        if (!detectedUrlsStreaming.isEmpty()) {
-            log.info("🔗 {} URL(s) in Nachricht erkannt (Streaming) - lade Inhalte", detectedUrlsStreaming.size());
-            StringBuilder urlContextBuilder = new StringBuilder("=== WEBSEITEN-INHALTE ===\n");
-            for (String url : detectedUrlsStreaming) {
-                String content = webSearchService.fetchPageContent(url, 3000);
-                if (content != null && !content.isBlank()) {
-                    urlContextBuilder.append("\n**Quelle:** ").append(url).append("\n");
-                    urlContextBuilder.append("**Inhalt:**\n").append(content).append("\n\n");
-                    log.info("📄 Inhalt von {} geladen ({} Zeichen)", url, content.length());
-                } else {
-                    urlContextBuilder.append("\n**Quelle:** ").append(url).append("\n");
-                    urlContextBuilder.append("**Hinweis:** Inhalt konnte nicht geladen werden.\n\n");
-                    log.warn("⚠️ Konnte Inhalt von {} nicht laden", url);
+                final Integer finalExpertNumCtx = expertNumCtx;
+                // Verwende Experten-maxTokens falls Request keinen Wert hat
+                final Integer finalMaxTokens = request.getMaxTokens() != null ? request.getMaxTokens() : expertMaxTokens;
+
+                // Expert-Modus-Erkennung: Erkennt passenden Modus basierend auf Keywords
+                String modeSwitchNotice = null;
+                String expertSystemPrompt = request.getSystemPrompt();  // Default
+                if (finalExpert != null) {
+                    ExpertModeResult modeResult = detectAndUpdateExpertMode(chat, expertId, request.getMessage());
+                    if (modeResult.switchNotice() != null) {
+                        modeSwitchNotice = modeResult.switchNotice();
+                    }
+                    // System-Prompt mit Experten-Basis + Modus-Addition (im Profil vorgerendert)
+                    expertSystemPrompt = expertRuntimeFactory.getProfile(expertId)
+                            .map(profile -> profile.getSystemPrompt(modeResult.mode()))
+                            .orElseGet(() -> buildExpertSystemPrompt(finalExpert, modeResult.mode()));
+                    log.info("🎓 Expert-Modus: {} (Prompt-Länge: {})",
+                        modeResult.mode() != null ? modeResult.mode().getName() : "Allgemein",
+                        expertSystemPrompt != null ? expertSystemPrompt.length() : 0);
                 }
-            }
-            urlContextBuilder.append("---\n\n");
-            urlContext = urlContextBuilder.toString();
-        }
-        final String finalUrlContext = urlContext;
-
-        // Web Search RAG: Suche vor async execution durchführen
-        // WICHTIG: fetchFullContent=true lädt die vollständigen Seiteninhalte!
-        String webSearchContext = null;
-        boolean includeSourceUrlsStreaming = Boolean.TRUE.equals(request.getIncludeSourceUrls());
-        List<WebSearchService.SearchResult> streamingSearchResults = null;  // Für Quellen-Footer
-        if (Boolean.TRUE.equals(request.getWebSearchEnabled())) {
-            int maxResults = request.getMaxSearchResults() != null ? request.getMaxSearchResults() : 5;
-
-            // Search-Domains ermitteln: Request > Expert > null
-            List<String> effectiveSearchDomainsStreaming = request.getSearchDomains();
-            if ((effectiveSearchDomainsStreaming == null || effectiveSearchDomainsStreaming.isEmpty()) && request.getExpertId() != null) {
-                Expert expert = expertRepository.findById(request.getExpertId()).orElse(null);
-                if (expert != null && expert.getSearchDomains() != null && !expert.getSearchDomains().isBlank()) {
-                    effectiveSearchDomainsStreaming = expert.getSearchDomainsAsList();
-                    log.info("Verwende Experten-Domains (Streaming) für {}: {}", expert.getName(), effectiveSearchDomainsStreaming);
+                final String finalModeSwitchNotice = modeSwitchNotice;
+                final String finalExpertSystemPrompt = expertSystemPrompt;
+
+                // Optionale Stufen einsammeln - was die Deadline verpasst, fehlt im Prompt
+                trace.phase("context.wait");
+                String urlContext = null;
+                if (!detectedUrlsStreaming.isEmpty()) {
+                    log.info("🔗 {} URL(s) in Nachricht erkannt (Streaming) - lade Inhalte", detectedUrlsStreaming.size());
+                    StringBuilder urlContextBuilder = new StringBuilder("=== WEBSEITEN-INHALTE ===\n");
+                    for (int i = 0; i < detectedUrlsStreaming.size(); i++) {
+                        String url = detectedUrlsStreaming.get(i);
+                        String content = stages.await("url.fetch", urlStages.get(i), urlFetchDeadlineMs, null);
+                        if (content != null && !content.isBlank()) {
+                            urlContextBuilder.append("\n**Quelle:** ").append(url).append("\n");
+                            urlContextBuilder.append("**Inhalt:**\n").append(content).append("\n\n");
+                            log.info("📄 Inhalt von {} geladen ({} Zeichen)", url, content.length());
+                        } else {
+                            urlContextBuilder.append("\n**Quelle:** ").append(url).append("\n");
+                            urlContextBuilder.append("**Hinweis:** Inhalt konnte nicht geladen werden.\n\n");
+                            log.warn("⚠️ Konnte Inhalt von {} nicht laden", url);
+                        }
+                    }
+                    urlContextBuilder.append("---\n\n");
+                    urlContext = urlContextBuilder.toString();
                 }
-            }
-
-            // Erweiterte Suche mit vollständigem Content-Abruf
-            WebSearchService.SearchOptions searchOptions = new WebSearchService.SearchOptions();
-            searchOptions.setMaxResults(maxResults);
-            searchOptions.setDomains(effectiveSearchDomainsStreaming);
-            searchOptions.setFetchFullContent(true);  // Vollständige Seiteninhalte laden!
-            searchOptions.setMaxContentLength(2000);  // Max 2000 Zeichen pro Seite
-            searchOptions.setOptimizeQuery(true);
-            searchOptions.setReRank(true);
-
-            var webSearchResults = webSearchService.searchEnhanced(request.getMessage(), searchOptions);
-
-            if (!webSearchResults.isEmpty()) {
-                // Wenn includeSourceUrls aktiv, erhält das LLM Anweisungen die URLs einzubauen
-                webSearchContext = webSearchService.formatForContext(webSearchResults, includeSourceUrlsStreaming);
-                streamingSearchResults = webSearchResults;  // Für Quellen-Footer speichern
-                log.info("Web-Suche (Streaming): {} Ergebnisse MIT VOLLSTÄNDIGEM INHALT als RAG-Kontext (includeSourceUrls={})",
-                        webSearchResults.size(), includeSourceUrlsStreaming);
-            }
-        }
-        final String finalWebSearchContext = webSearchContext;
-        final boolean finalIncludeSourceUrls = includeSourceUrlsStreaming;
-        final List<WebSearchService.SearchResult> finalSearchResults = streamingSearchResults;
-
-        // Modifiziere System-Prompt wenn Web-Suche mit URLs aktiv ist (Streaming)
-        // Verwende Expert-System-Prompt falls erkannt, sonst Request-Prompt
-        String systemPromptForStreaming = finalExpertSystemPrompt != null ? finalExpertSystemPrompt : request.getSystemPrompt();
-        if (webSearchContext != null && includeSourceUrlsStreaming) {
-            String urlInstruction = "\n\n🔗 WICHTIG: Du hast Web-Suchergebnisse erhalten. " +
-                "Füge in deiner Antwort klickbare Markdown-Links ein: [Titel](URL). " +
-                "Antworte immer auf DEUTSCH!";
-            if (systemPromptForStreaming != null && !systemPromptForStreaming.isBlank()) {
-                systemPromptForStreaming = systemPromptForStreaming + urlInstruction;
-            } else {
-                systemPromptForStreaming = "Du bist ein hilfreicher Assistent." + urlInstruction;
-            }
-            log.info("System-Prompt (Streaming) erweitert mit URL-Anweisung für Web-Suche");
-        } else {
-            // KEINE Web-Suche aktiv: Vermeide erfundene URLs (Streaming)
-            String noFakeUrlInstruction = "\n\n⚠️ WICHTIG: Erfinde NIEMALS URLs oder Weblinks! " +
-                "Wenn du keine verifizierte Quelle hast, erwähne keine Websites. " +
-                "Nutze nur URLs, die dir explizit durch Web-Suche bereitgestellt wurden.";
-            if (systemPromptForStreaming != null && !systemPromptForStreaming.isBlank()) {
-                systemPromptForStreaming = systemPromptForStreaming + noFakeUrlInstruction;
-            } else {
-                systemPromptForStreaming = "Du bist ein hilfreicher Assistent." + noFakeUrlInstruction;
-            }
-        }
-        final String finalSystemPrompt = systemPromptForStreaming;
-
-        executorService.execute(() -> {
-            try {
+                final String finalUrlContext = urlContext;
+
+                String webSearchContext = null;
+                List<WebSearchService.SearchResult> streamingSearchResults = null;  // Für Quellen-Footer
+                List<WebSearchService.SearchResult> webSearchResults =
+                        stages.await("web.search", searchStage, webSearchDeadlineMs, List.of());
+                if (!webSearchResults.isEmpty()) {
+                    // Wenn includeSourceUrls aktiv, erhält das LLM Anweisungen die URLs einzubauen
+                    webSearchContext = webSearchService.formatForContext(webSearchResults, includeSourceUrlsStreaming);
+                    streamingSearchResults = webSearchResults;  // Für Quellen-Footer speichern
+                    log.info("Web-Suche (Streaming): {} Ergebnisse MIT VOLLSTÄNDIGEM INHALT als RAG-Kontext (includeSourceUrls={})",
+                            webSearchResults.size(), includeSourceUrlsStreaming);
+                }
+                final String finalWebSearchContext = webSearchContext;
+                final boolean finalIncludeSourceUrls = includeSourceUrlsStreaming;
+                final List<WebSearchService.SearchResult> finalSearchResults = streamingSearchResults;
+
+                // Modifiziere System-Prompt wenn Web-Suche mit URLs aktiv ist (Streaming)
+                // Verwende Expert-System-Prompt falls erkannt, sonst Request-Prompt
+                String systemPromptForStreaming = finalExpertSystemPrompt != null ? finalExpertSystemPrompt : request.getSystemPrompt();
+                if (webSearchContext != null && includeSourceUrlsStreaming) {
+                    String urlInstruction = "\n\n🔗 WICHTIG: Du hast Web-Suchergebnisse erhalten. " +
+                        "Füge in deiner Antwort klickbare Markdown-Links ein: [Titel](URL). " +
+                        "Antworte immer auf DEUTSCH!";
+                    if (systemPromptForStreaming != null && !systemPromptForStreaming.isBlank()) {
+                        systemPromptForStreaming = systemPromptForStreaming + urlInstruction;
+                    } else {
+                        systemPromptForStreaming = "Du bist ein hilfreicher Assistent." + urlInstruction;
+                    }
+                    log.info("System-Prompt (Streaming) erweitert mit URL-Anweisung für Web-Suche");
+                } else {
+                    // KEINE Web-Suche aktiv: Vermeide erfundene URLs (Streaming)
+                    String noFakeUrlInstruction = "\n\n⚠️ WICHTIG: Erfinde NIEMALS URLs oder Weblinks! " +
+                        "Wenn du keine verifizierte Quelle hast, erwähne keine Websites. " +
+                        "Nutze nur URLs, die dir explizit durch Web-Suche bereitgestellt wurden.";
+                    if (systemPromptForStreaming != null && !systemPromptForStreaming.isBlank()) {
+                        systemPromptForStreaming = systemPromptForStreaming + noFakeUrlInstruction;
+                    } else {
+                        systemPromptForStreaming = "Du bist ein hilfreicher Assistent." + noFakeUrlInstruction;
+                    }
+                }
+                final String finalSystemPrompt = systemPromptForStreaming;
 
                 // Load previous messages from database to maintain conversation context
-                List<Message> previousMessages = messageRepository.findByChatIdOrderByCreatedAtAsc(finalChat.getId());
+                List<Message> previousMessages = stages.require(historyStage);
+                trace.attribute("message.count", previousMessages.size())
+                        .attribute("timed_out", stages.getTimedOut().isEmpty() ? null : String.join(",", stages.getTimedOut()))
+                        .phase("prompt.build");
 
                 // Build complete message (with chat history, project context and document context if provided)
                 StringBuilder completeMessageBuilder = new StringBuilder();
@@ -785,14 +873,14 @@ public class ChatService {
 
                 // PRIORITÄT 1: Hochgeladene Dokumente ZUERST (höchste Priorität für RAG)
                 // Load saved documents from database for this chat (persistent context)
-                List<ChatDocument> savedDocs = chatDocumentRepository.findByChatIdOrderByCreatedAtAsc(finalChat.getId());
+                List<ChatDocument> savedDocs = stages.require(documentsStage);
                 boolean streamHasDocuments = !savedDocs.isEmpty();
                 if (streamHasDocuments) {
                     completeMessageBuilder.append("=== WICHTIG: HOCHGELADENE DOKUMENTE (Primärer Kontext) ===\n\n");
                     completeMessageBuilder.append("⚠️ DIESE DOKUMENTE HABEN PRIORITÄT! Beantworte Fragen primär basierend auf diesen Dokumenten.\n\n");
                     for (ChatDocument doc : savedDocs) {
                         completeMessageBuilder.append("**Dokument:** ").append(doc.getFileName()).append("\n");
-                        completeMessageBuilder.append(doc.getContent()).append("\n\n");
+                        completeMessageBuilder.append(contentBlobStore.contentOf(doc)).append("\n\n");
                     }
                     completeMessageBuilder.append("---\n\n");
                     log.info("Loaded {} saved documents from database for streaming chat {} (PRIMARY CONTEXT)", savedDocs.size(), finalChat.getId());
@@ -814,7 +902,7 @@ public class ChatService {
                     newDoc.setChat(finalChat);
                     newDoc.setFileName(fileName);
                     newDoc.setFileType(fileType);
-                    newDoc.setContent(request.getDocumentContext());
+                    contentBlobStore.attach(newDoc, request.getDocumentContext());
                     chatDocumentRepository.save(newDoc);
                     log.info("Saved document '{}' to database for streaming chat {}", fileName, finalChat.getId());
 
@@ -852,6 +940,7 @@ public class ChatService {
                 completeMessageBuilder.append(messageForLlm);
 
                 String completeMessage = completeMessageBuilder.toString();
+                trace.attribute("prompt.chars", completeMessage.length()).phase("message.save");
 
                 // Save user message (original, without enhancement)
                 Message userMessage = new Message();
@@ -903,8 +992,11 @@ public class ChatService {
                     request.getTopK(), request.getRepeatPenalty());
                 log.info("🔍 DEBUG request.getCpuOnly() = {}", request.getCpuOnly());
 
+                trace.phase("generation");
+
                 // Use vision streaming if images are provided
                 if (request.getImages() != null && !request.getImages().isEmpty()) {
+                    trace.attribute("images", request.getImages().size());
                     // Check if Vision-Chaining is enabled (from settings or request)
                     boolean visionChainingEnabled = finalVisionChainingEnabled ||
                         (request.getVisionChainEnabled() != null && request.getVisionChainEnabled());
@@ -931,6 +1023,7 @@ public class ChatService {
                                         return;
                                     }
                                     try {
+                                        trace.event("first_token");
                                         log.debug("Sending chunk to frontend: {}", chunk);
                                         emitter.send(SseEmitter.event()
                                                 .name("chunk")
@@ -958,7 +1051,7 @@ public class ChatService {
                                         visionDoc.setChat(finalChat);
                                         visionDoc.setFileName(imageName + " (OCR/Vision)");
                                         visionDoc.setFileType("vision-ocr");
-                                        visionDoc.setContent(visionOutput);
+                                        contentBlobStore.attach(visionDoc, visionOutput);
                                         chatDocumentRepository.save(visionDoc);
                                         log.info("Vision/OCR-Ergebnis als Dokument '{}' gespeichert ({} Zeichen)",
                                                 visionDoc.getFileName(), visionOutput.length());
@@ -980,6 +1073,7 @@ public class ChatService {
                                         return;
                                     }
                                     try {
+                                        trace.event("first_token");
                                         log.debug("Sending chunk to frontend: {}", chunk);
                                         emitter.send(SseEmitter.event()
                                                 .name("chunk")
@@ -1008,6 +1102,7 @@ public class ChatService {
                                     return;
                                 }
                                 try {
+                                    trace.event("first_token");
                                     log.debug("Sending chunk to frontend: {}", chunk);
                                     emitter.send(SseEmitter.event()
                                             .name("chunk")
@@ -1031,6 +1126,7 @@ public class ChatService {
                     );
                 }
                 log.info("LLM chatStream completed. Full response length: {}", fullResponse.length());
+                trace.attribute("response.chars", fullResponse.length()).phase("postprocess");
 
                 // Automatisch Quellen-Footer anhängen und an Frontend senden
                 String sourcesFooter = "";
@@ -1055,11 +1151,13 @@ public class ChatService {
 
                 // Check for document generation request BEFORE saving message
                 // Funktioniert auch ohne Experten (mit Default-Werten)
-                String documentDownloadUrl = checkAndGenerateDocument(
+                // Rendering runs in the background - the URL is valid right away
+                DocumentRenderQueue.Ticket document = checkAndGenerateDocument(
                     request.getMessage(),
                     fullResponse.toString(),
                     request.getExpertId()
                 );
+                String documentDownloadUrl = document != null ? documentDownloadUrl(document) : null;
 
                 // Save assistant message to database
                 Message assistantMessage = new Message();
@@ -1075,7 +1173,7 @@ public class ChatService {
                 assistantMessage.setTokens(llmProviderService.estimateTokens(contentToStore));
                 assistantMessage.setModelName(request.getModel());  // Store which model was used
                 assistantMessage.setDownloadUrl(documentDownloadUrl);  // Save download URL for document
-                messageRepository.save(assistantMessage);
+                Message savedAssistantMessage = messageRepository.save(assistantMessage);
 
                 // Update global stats
                 updateGlobalStats(assistantMessage.getTokens());
@@ -1090,13 +1188,7 @@ public class ChatService {
                                 .sum();
 
                         // Get max context from expert if available
-                        Integer maxContextTokens = null;
-                        if (request.getExpertId() != null) {
-                            Expert expert = expertRepository.findById(request.getExpertId()).orElse(null);
-                            if (expert != null && expert.getDefaultNumCtx() != null) {
-                                maxContextTokens = expert.getDefaultNumCtx();
-                            }
-                        }
+                        Integer maxContextTokens = finalExpert != null ? finalExpert.getDefaultNumCtx() : null;
 
                         // Build done event JSON with context usage info
                         StringBuilder doneJson = new StringBuilder();
@@ -1107,14 +1199,21 @@ public class ChatService {
                         }
                         if (documentDownloadUrl != null) {
                             doneJson.append(",\"downloadUrl\":\"").append(documentDownloadUrl).append("\"");
+                            doneJson.append(",\"documentPending\":true");
                         }
+                        // Phase timeline of this request (ms), full trace via /api/stats/traces
+                        trace.endPhase();
+                        doneJson.append(",\"traceId\":\"").append(trace.getTraceId()).append("\"");
+                        doneJson.append(",\"timings\":").append(objectMapper.writeValueAsString(trace.timings()));
                         doneJson.append("}");
 
                         emitter.send(SseEmitter.event()
                                 .name("done")
                                 .data(doneJson.toString()));
                         isCompleted[0] = true;
-                        emitter.complete();
+                        if (document == null) {
+                            emitter.complete();
+                        }
                         log.info("Streaming completed for chat {} (tokens: {}/{}, downloadUrl: {})",
                                 finalChat.getId(), totalChatTokens, maxContextTokens, documentDownloadUrl);
                     } catch (Exception e) {
@@ -1124,9 +1223,21 @@ public class ChatService {
                 } else {
                     log.warn("Emitter was already completed before sending done event");
                 }
+                trace.end();
+
+                // The text is final - report the document on the same stream once it is rendered
+                if (document != null) {
+                    pendingDocuments.put(document.documentId(), new PendingDocument(
+                            emitter, finalChat.getId(), document.job().expert().getName()));
+                    String fullText = fullResponse.toString();
+                    document.result().whenComplete((generated, error) ->
+                            completePendingDocument(document.documentId(), generated, error,
+                                    savedAssistantMessage, fullText));
+                }
 
             } catch (Exception e) {
                 log.error("Error during streaming", e);
+                trace.fail(e);
                 if (!isCompleted[0]) {
                     try {
                         // Create user-friendly error message based on active provider
@@ -1186,6 +1297,7 @@ public class ChatService {
      */
     @Transactional(readOnly = true)
     public ChatDTO getChatHistory(Long chatId) {
+        chatArchiveService.rehydrate(chatId);
         Chat chat = chatRepository.findById(chatId)
                 .orElseThrow(() -> new IllegalArgumentException("Chat not found: " + chatId));
 
@@ -1252,6 +1364,7 @@ public class ChatService {
      */
     @Transactional
     public void deleteChat(Long chatId) {
+        chatArchiveService.forget(chatId);
         chatRepository.deleteById(chatId);
         log.info("Deleted chat: {}", chatId);
     }
@@ -1318,7 +1431,7 @@ public class ChatService {
             for (ChatDocument doc : documents) {
                 contextBuilder.append("Dokument '").append(doc.getFileName()).append("': ");
                 // Nur erste 500 Zeichen pro Dokument für Zusammenfassung
-                String content = doc.getContent();
+                String content = contentBlobStore.contentOf(doc);
                 if (content.length() > 500) {
                     content = content.substring(0, 500) + "...";
                 }
@@ -1365,12 +1478,17 @@ public class ChatService {
     public StatsResponse getChatStats(Long chatId) {
         Integer totalTokens = messageRepository.sumTokensByChatId(chatId);
         Long messageCount = messageRepository.countByChatId(chatId);
+        long tokens = totalTokens != null ? totalTokens : 0L;
+        int messages = messageCount != null ? messageCount.intValue() : 0;
 
-        return new StatsResponse(
-                totalTokens != null ? totalTokens.longValue() : 0L,
-                messageCount != null ? messageCount.intValue() : 0,
-                1
-        );
+        // Archived messages live in the archive record, not in the message table
+        Optional<ArchivedChat> archived = chatArchiveService.findEntry(chatId);
+        if (archived.isPresent()) {
+            tokens += Objects.requireNonNullElse(archived.get().getTokenCount(), 0);
+            messages += archived.get().getMessageCount();
+        }
+
+        return new StatsResponse(tokens, messages, 1);
     }
 
     /**
@@ -1414,6 +1532,7 @@ public class ChatService {
         dto.setModel(chat.getModel());
         dto.setCreatedAt(chat.getCreatedAt());
         dto.setUpdatedAt(chat.getUpdatedAt());
+        dto.setArchived(chatArchiveService.isArchived(chat.getId()));
 
         // Add project info if chat is assigned to a project
         if (chat.getProject() != null) {
@@ -1428,7 +1547,9 @@ public class ChatService {
 
             // Calculate total tokens from ALL chats in the project
             Integer projectTotalChatTokens = messageRepository.sumTokensByProjectId(chat.getProject().getId());
-            dto.setProjectTotalChatTokens(projectTotalChatTokens != null ? projectTotalChatTokens : 0);
+            long archivedProjectTokens = chatArchiveService.archivedTokensByProject(chat.getProject().getId());
+            dto.setProjectTotalChatTokens((int) ((projectTotalChatTokens != null ? projectTotalChatTokens : 0)
+                    + archivedProjectTokens));
 
             // Count chats in project
             dto.setProjectChatCount(chat.getProject().getChats().size());
@@ -1443,7 +1564,10 @@ public class ChatService {
 
         // Calculate total tokens
         Integer totalTokens = messageRepository.sumTokensByChatId(chat.getId());
-        dto.setTotalTokens(totalTokens != null ? totalTokens : 0);
+        int archivedTokens = chatArchiveService.findEntry(chat.getId())
+                .map(entry -> Objects.requireNonNullElse(entry.getTokenCount(), 0))
+                .orElse(0);
+        dto.setTotalTokens((totalTokens != null ? totalTokens : 0) + archivedTokens);
 
         // Expert info
         dto.setExpertId(chat.getExpertId());
@@ -1812,14 +1936,14 @@ public class ChatService {
     }
 
     /**
-     * Check if user requested a document (Brief, PDF) and generate it
+     * Check if user requested a document (Brief, PDF) and queue it for rendering
      *
      * @param userMessage The user's message
      * @param aiResponse  The AI's response (content for the document)
      * @param expertId    The expert ID (for letterhead etc.)
-     * @return Download URL if generated, null otherwise
+     * @return Ticket of the queued document, null if none was requested or the queue is full
      */
-    private String checkAndGenerateDocument(String userMessage, String aiResponse, Long expertId) {
+    private DocumentRenderQueue.Ticket checkAndGenerateDocument(String userMessage, String aiResponse, Long expertId) {
         try {
             // Detect document request
             DocumentGeneratorService.DocumentRequest docRequest =
@@ -1883,35 +2007,17 @@ public class ChatService {
             */
 
             // Generate document locally with download URL (proper ODT with Liberation Sans + DIN 5008)
-            DocumentGeneratorService.GeneratedDocument doc;
-
-            if (docRequest.type() == DocumentGeneratorService.DocumentType.ODT ||
-                docRequest.type() == DocumentGeneratorService.DocumentType.DOCX) {
-                // Generate letter in requested format (ODT or DOCX)
-                doc = documentGeneratorService.generateLetter(
-                    expert,
-                    aiResponse,
-                    null, // recipient - could be extracted from message
-                    extractSubject(userMessage), // subject from user message
-                    docRequest.type() // ODT oder DOCX
-                );
-            } else if (docRequest.type() == DocumentGeneratorService.DocumentType.PDF) {
-                // Generate PDF summary
-                doc = documentGeneratorService.generatePdfSummary(
-                    expert,
-                    aiResponse,
-                    "Zusammenfassung"
-                );
-            } else {
-                return null;
-            }
-
-            if (doc != null) {
-                String downloadUrl = "/api/downloads/doc/" + doc.id();
-                log.info("Document generated: {} -> {}", doc.filename(), downloadUrl);
-                return downloadUrl;
-            }
-
+            // ODT/DOCX: letter with subject from user message, PDF: summary
+            String subject = docRequest.type() == DocumentGeneratorService.DocumentType.PDF
+                ? "Zusammenfassung"
+                : extractSubject(userMessage);
+            DocumentRenderQueue.Ticket ticket = documentRenderQueue.submit(
+                new DocumentRenderQueue.DocumentJob(expert, aiResponse, subject, docRequest.type()));
+            log.info("Document queued: {} -> {}", docRequest.type(), documentDownloadUrl(ticket));
+            return ticket;
+
+        } catch (java.util.concurrent.RejectedExecutionException e) {
+            log.warn("Document render queue full - keeping the response as text");
         } catch (Exception e) {
             log.error("Failed to generate document", e);
         }
@@ -1919,6 +2025,44 @@ public class ChatService {
         return null;
     }
 
+    private static String documentDownloadUrl(DocumentRenderQueue.Ticket ticket) {
+        return "/api/downloads/doc/" + ticket.documentId();
+    }
+
+    /**
+     * Send the result of a background rendered document to the waiting stream and close it.
+     * If rendering failed, the assistant message gets its full text back instead of the placeholder.
+     */
+    private void completePendingDocument(String documentId, DocumentGeneratorService.GeneratedDocument generated,
+                                         Throwable error, Message assistantMessage, String fullText) {
+        if (error != null) {
+            assistantMessage.setContent(fullText);
+            assistantMessage.setTokens(llmProviderService.estimateTokens(fullText));
+            assistantMessage.setDownloadUrl(null);
+            messageRepository.save(assistantMessage);
+        }
+
+        PendingDocument pending = pendingDocuments.remove(documentId);
+        if (pending == null) {
+            return;
+        }
+        try {
+            java.util.Map<String, Object> data = new java.util.LinkedHashMap<>();
+            data.put("documentReady", error == null);
+            data.put("downloadUrl", "/api/downloads/doc/" + documentId);
+            if (generated != null) {
+                data.put("filename", generated.filename());
+            }
+            pending.getEmitter().send(SseEmitter.event().name("document").data(objectMapper.writeValueAsString(data)));
+            pending.getEmitter().complete();
+            log.info("Document {} for chat {} ({}) reported after {}ms", documentId, pending.getChatId(),
+                    pending.getExpertName(), System.currentTimeMillis() - pending.getCreatedAt());
+        } catch (Exception e) {
+            // Client already left - the download URL in the message still works
+            log.debug("Could not report document {}: {}", documentId, e.getMessage());
+        }
+    }
+
     /**
      * Select the right Fleet-Mate for document generation
      *
@@ -2107,18 +2251,25 @@ public class ChatService {
     }
 
     /**
-     * Generate an expert summary PDF from a chat
-     * The expert summarizes all questions and answers into a final report
+     * Expert summary of a chat, ready to be rendered as PDF
+     */
+    public record ExpertSummary(String expertName, String expertRole, String chatTitle, String summary) {}
+
+    /**
+     * Generate an expert summary of a chat
+     * The expert summarizes all questions and answers into a final report.
+     * Runs before the response is committed; the PDF is then written by {@link #writeExpertSummaryPdf}.
      *
      * @param chatId   The chat ID
      * @param expertId The expert ID
-     * @return PDF as byte array
+     * @return Summary to render
      */
     @Transactional(readOnly = true)
-    public byte[] generateExpertSummaryPdf(Long chatId, Long expertId) throws IOException {
+    public ExpertSummary generateExpertSummary(Long chatId, Long expertId) throws IOException {
         log.info("Generating expert summary PDF for chat {} with expert {}", chatId, expertId);
 
         // Get chat and messages
+        chatArchiveService.rehydrate(chatId);
         Chat chat = chatRepository.findById(chatId)
                 .orElseThrow(() -> new IllegalArgumentException("Chat nicht gefunden: " + chatId));
         List<Message> messages = messageRepository.findByChatIdOrderByCreatedAtAsc(chatId);
@@ -2191,14 +2342,15 @@ public class ChatService {
 
         log.info("Generated summary with {} characters", summary.length());
 
-        // Generate PDF
-        return generatePdfFromSummary(expert, summary, chat.getTitle());
+        return new ExpertSummary(expert.getName(), expert.getRole(), chat.getTitle(), summary);
     }
 
     /**
-     * Generate a PDF document from the summary
+     * Write the expert summary as PDF directly to the given stream
      */
-    private byte[] generatePdfFromSummary(Expert expert, String summary, String chatTitle) throws IOException {
+    public void writeExpertSummaryPdf(ExpertSummary expertSummary, java.io.OutputStream outputStream) {
+        String chatTitle = expertSummary.chatTitle();
+        String summary = expertSummary.summary();
         java.time.LocalDateTime now = java.time.LocalDateTime.now();
         java.time.format.DateTimeFormatter dateFormatter = java.time.format.DateTimeFormatter.ofPattern("dd.MM.yyyy");
         java.time.format.DateTimeFormatter timeFormatter = java.time.format.DateTimeFormatter.ofPattern("HH:mm");
@@ -2305,24 +2457,21 @@ public class ChatService {
             </html>
             """,
                 FleetUtils.escapeHtml(chatTitle),
-                FleetUtils.escapeHtml(expert.getName()),
-                FleetUtils.escapeHtml(expert.getRole()),
+                FleetUtils.escapeHtml(expertSummary.expertName()),
+                FleetUtils.escapeHtml(expertSummary.expertRole()),
                 now.format(dateFormatter),
                 now.format(timeFormatter),
                 FleetUtils.escapeHtml(chatTitle),
                 formatSummaryAsHtml(summary),
-                FleetUtils.escapeHtml(expert.getName()),
-                FleetUtils.escapeHtml(expert.getRole())
+                FleetUtils.escapeHtml(expertSummary.expertName()),
+                FleetUtils.escapeHtml(expertSummary.expertRole())
         );
 
-        // Convert HTML to PDF using iText
-        java.io.ByteArrayOutputStream outputStream = new java.io.ByteArrayOutputStream();
-        com.itextpdf.html2pdf.HtmlConverter.convertToPdf(html, outputStream);
-
-        byte[] pdfBytes = outputStream.toByteArray();
-        log.info("Generated PDF with {} bytes", pdfBytes.length);
-
-        return pdfBytes;
+        // Convert HTML to PDF using iText, straight into the response
+        com.itextpdf.kernel.pdf.PdfWriter writer = new com.itextpdf.kernel.pdf.PdfWriter(outputStream);
+        writer.setCloseStream(false);
+        com.itextpdf.html2pdf.HtmlConverter.convertToPdf(html, writer);
+        log.info("Generated expert summary PDF for chat '{}'", chatTitle);
     }
 
     /**
@@ -2404,34 +2553,24 @@ public class ChatService {
             return new ExpertModeResult(null, false, null);
         }
 
-        // Lade alle aktiven Modi des Experten
-        List<ExpertMode> modes = expertModeRepository.findActiveByExpertIdOrderByPriority(expertId);
-        if (modes.isEmpty()) {
+        // Kompiliertes Profil: aktive Modi, Keyword-Automat (ein Durchlauf, kein DB-Zugriff)
+        CompiledExpertProfile profile = expertRuntimeFactory.getProfile(expertId).orElse(null);
+        if (profile == null || !profile.hasModes()) {
             return new ExpertModeResult(null, false, null);
         }
 
         // Suche passenden Modus basierend auf Keywords
-        String lowerMessage = message.toLowerCase();
-        ExpertMode detectedMode = null;
-
-        for (ExpertMode mode : modes) {
-            if (matchesKeywords(mode, lowerMessage)) {
-                detectedMode = mode;
-                break;
-            }
-        }
+        ExpertMode detectedMode = profile.detect(message).orElse(null);
 
         // Kein Keyword-Match? Verwende aktuellen Chat-Modus oder Default
         if (detectedMode == null) {
-            if (chat.getActiveExpertModeId() != null) {
-                // Behalte aktuellen Modus bei
-                detectedMode = expertModeRepository.findById(chat.getActiveExpertModeId()).orElse(null);
-                if (detectedMode != null) {
-                    return new ExpertModeResult(detectedMode, false, null);
-                }
+            // Behalte aktuellen Modus bei
+            detectedMode = profile.getMode(chat.getActiveExpertModeId()).orElse(null);
+            if (detectedMode != null) {
+                return new ExpertModeResult(detectedMode, false, null);
             }
             // Fallback: Erster Modus (normalerweise "Allgemein")
-            detectedMode = modes.get(0);
+            detectedMode = profile.getModes().get(0);
         }
 
         // Prüfe ob Modus gewechselt hat
@@ -2458,23 +2597,6 @@ public class ChatService {
         return new ExpertModeResult(detectedMode, modeChanged, switchNotice);
     }
 
-    /**
-     * Prüft ob die Nachricht Keywords des Modus enthält
-     */
-    private boolean matchesKeywords(ExpertMode mode, String lowerMessage) {
-        String[] keywords = mode.getKeywordsArray();
-        if (keywords == null || keywords.length == 0) {
-            return false;
-        }
-        for (String keyword : keywords) {
-            String trimmedKeyword = keyword.trim().toLowerCase();
-            if (!trimmedKeyword.isEmpty() && lowerMessage.contains(trimmedKeyword)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     /**
      * Baut den System-Prompt mit Experten-Basis + Modus-Addition
      */
@@ -2483,16 +2605,7 @@ public class ChatService {
             return null;
         }
 
-        StringBuilder prompt = new StringBuilder(expert.getBasePrompt());
-
-        if (mode != null && mode.getPromptAddition() != null && !mode.getPromptAddition().isBlank()) {
-            prompt.append("\n\n=== AKTUELLER MODUS: ")
-                  .append(mode.getName())
-                  .append(" ===\n")
-                  .append(mode.getPromptAddition());
-        }
-
-        return prompt.toString();
+        return CompiledExpertProfile.renderSystemPrompt(expert.getBasePrompt(), mode);
     }
 
 }
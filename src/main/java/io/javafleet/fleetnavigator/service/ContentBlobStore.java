@@ -0,0 +1,529 @@
+package io.javafleet.fleetnavigator.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.javafleet.fleetnavigator.config.FleetPathsConfiguration;
+import io.javafleet.fleetnavigator.model.ChatDocument;
+import io.javafleet.fleetnavigator.model.ContentBlob;
+import io.javafleet.fleetnavigator.model.ContextFile;
+import io.javafleet.fleetnavigator.model.ExtractedContent;
+import io.javafleet.fleetnavigator.repository.ChatDocumentRepository;
+import io.javafleet.fleetnavigator.repository.ContentBlobRepository;
+import io.javafleet.fleetnavigator.repository.ContextFileRepository;
+import io.javafleet.fleetnavigator.repository.ExtractedContentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content-addressed store for document text (ChatDocument, ContextFile, extracted uploads).
+ *
+ * Text is keyed by its SHA-256: the same PDF in ten chats is stored once. Bodies are
+ * deflate-compressed and appended to segment files outside the database; the
+ * {@link ContentBlob} table only holds the index (segment, offset, lengths, references).
+ * Sealed segments are read through a memory map.
+ *
+ * A nightly sweep recounts references from the referencing rows (so cascading chat
+ * deletes need no hooks), drops unreferenced blobs, rewrites segments that are mostly
+ * garbage, and moves documents still stored inline in the database into the store.
+ * Index changes happen under the write lock against freshly read rows; a rewritten
+ * segment is only deleted by the following sweep, so readers that resolved the old
+ * location in the meantime can still map it.
+ */
+@Slf4j
+@Service
+public class ContentBlobStore {
+
+    // Record key: SHA-256 (32 bytes) - lets a segment be rebuilt without the index
+    private static final int DIGEST_BYTES = 32;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".blob";
+    private static final int MIGRATION_BATCH = 100;
+
+    private final ContentBlobRepository blobRepository;
+    private final ExtractedContentRepository extractedContentRepository;
+    private final ChatDocumentRepository chatDocumentRepository;
+    private final ContextFileRepository contextFileRepository;
+    private final FleetPathsConfiguration pathsConfiguration;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${fleet-navigator.blob-store.dir:}")
+    private String storeDir = "";
+
+    @Value("${fleet-navigator.blob-store.segment-max-mb:64}")
+    private long segmentMaxMb = 64;
+
+    @Value("${fleet-navigator.blob-store.compression-level:1}")
+    private int compressionLevel = 1;
+
+    @Value("${fleet-navigator.blob-store.cache-max-bytes:33554432}")
+    private long cacheMaxBytes = 32 * 1024 * 1024;
+
+    /** Segments with at least this share of dead bytes are rewritten */
+    @Value("${fleet-navigator.blob-store.compact-garbage-ratio:0.5}")
+    private double compactGarbageRatio = 0.5;
+
+    /** Unreferenced blobs are kept this long (the referencing row may not be saved yet) */
+    @Value("${fleet-navigator.blob-store.sweep-grace-minutes:60}")
+    private long sweepGraceMinutes = 60;
+
+    @Value("${fleet-navigator.blob-store.migrate-inline:true}")
+    private boolean migrateInline = true;
+
+    private SegmentStore segments;
+    private final Object writeLock = new Object();
+    private final Map<Integer, MappedByteBuffer> sealedSegments = new ConcurrentHashMap<>();
+    // Segments emptied by compaction -> when; deleted by the next sweep
+    private final Map<Integer, Long> retiredSegments = new ConcurrentHashMap<>();
+
+    // Hash -> text; chats re-read all their documents with every message
+    private Cache<String, String> contentCache;
+
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong extractionHits = new AtomicLong();
+
+    public ContentBlobStore(ContentBlobRepository blobRepository,
+                            ExtractedContentRepository extractedContentRepository,
+                            ChatDocumentRepository chatDocumentRepository,
+                            ContextFileRepository contextFileRepository,
+                            FleetPathsConfiguration pathsConfiguration,
+                            PlatformTransactionManager transactionManager) {
+        this.blobRepository = blobRepository;
+        this.extractedContentRepository = extractedContentRepository;
+        this.chatDocumentRepository = chatDocumentRepository;
+        this.contextFileRepository = contextFileRepository;
+        this.pathsConfiguration = pathsConfiguration;
+        // Index rows commit before the write lock is released (no duplicate inserts for the same hash)
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        Path directory = storeDir == null || storeDir.isBlank() ? pathsConfiguration.getBlobStoreDir() : Path.of(storeDir);
+        segments = new SegmentStore(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX, DIGEST_BYTES);
+        contentCache = Caffeine.newBuilder()
+                .maximumWeight(cacheMaxBytes)
+                .weigher((String hash, String text) -> text.length() * 2)
+                .build();
+
+        segments.open();
+        log.info("Blob store: {} (active segment {}, {} bytes)", directory, segments.activeSegment(), segments.activeSize());
+    }
+
+    @PreDestroy
+    void close() {
+        synchronized (writeLock) {
+            segments.close();
+        }
+    }
+
+    // ==================== Content ====================
+
+    /**
+     * Store text and take a reference on it (existing content only gains a reference)
+     *
+     * @return SHA-256 hash of the text
+     */
+    public String put(String content) {
+        byte[] raw = content.getBytes(StandardCharsets.UTF_8);
+        byte[] digest = sha256(raw);
+        String hash = HexFormat.of().formatHex(digest);
+
+        synchronized (writeLock) {
+            transactionTemplate.executeWithoutResult(status -> {
+                ContentBlob blob = blobRepository.findById(hash).orElse(null);
+                if (blob != null) {
+                    blob.setRefCount(blob.getRefCount() + 1);
+                    blob.setLastReferencedAt(LocalDateTime.now());
+                    blobRepository.save(blob);
+                    deduplicated.incrementAndGet();
+                    return;
+                }
+                byte[] compressed = SegmentStore.deflate(raw, compressionLevel);
+                try {
+                    long offset = append(digest, raw.length, compressed);
+                    blobRepository.save(new ContentBlob(hash, segments.activeSegment(), offset, compressed.length,
+                            raw.length, 1, null, LocalDateTime.now()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not write blob " + hash, e);
+                }
+            });
+        }
+        contentCache.put(hash, content);
+        return hash;
+    }
+
+    /**
+     * Read text by hash
+     *
+     * @throws IllegalStateException if the blob is unknown
+     */
+    public String get(String hash) {
+        String cached = contentCache.getIfPresent(hash);
+        if (cached != null) {
+            return cached;
+        }
+        ContentBlob blob = blobRepository.findById(hash)
+                .orElseThrow(() -> new IllegalStateException("Blob not found: " + hash));
+        try {
+            String content = read(blob);
+            contentCache.put(hash, content);
+            return content;
+        } catch (IOException e) {
+            // Compaction may have moved the blob after we read its location: retry once at the new one
+            ContentBlob moved = blobRepository.findById(hash).orElse(null);
+            if (moved == null || (moved.getSegment().equals(blob.getSegment()) && moved.getOffset().equals(blob.getOffset()))) {
+                throw new UncheckedIOException("Could not read blob " + hash, e);
+            }
+            try {
+                String content = read(moved);
+                contentCache.put(hash, content);
+                return content;
+            } catch (IOException retry) {
+                throw new UncheckedIOException("Could not read blob " + hash, retry);
+            }
+        }
+    }
+
+    private String read(ContentBlob blob) throws IOException {
+        byte[] raw = SegmentStore.inflate(region(blob.getSegment(), blob.getOffset(), blob.getStoredLength()), blob.getRawLength());
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Content of a chat document (blob store or legacy inline column)
+     */
+    public String contentOf(ChatDocument document) {
+        return document.getContentHash() != null ? get(document.getContentHash()) : document.getContent();
+    }
+
+    /**
+     * Content of a project context file (blob store or legacy inline column)
+     */
+    public String contentOf(ContextFile file) {
+        return file.getContentHash() != null ? get(file.getContentHash()) : file.getContent();
+    }
+
+    /**
+     * Store the document text in the blob store; the caller saves the entity
+     */
+    public void attach(ChatDocument document, String content) {
+        document.setContentHash(put(content));
+        document.setContent(null);
+        document.setContentSize(content.length());
+    }
+
+    /**
+     * Store the file text in the blob store; the caller saves the entity.
+     * The inline column is NOT NULL in existing databases and stays empty.
+     */
+    public void attach(ContextFile file, String content) {
+        file.setContentHash(put(content));
+        file.setContent("");
+        file.setSize((long) content.length());
+    }
+
+    // ==================== Extraction cache ====================
+
+    /**
+     * Text previously extracted from a file with this SHA-256
+     */
+    public Optional<Extraction> findExtraction(String sourceHash) {
+        try {
+            return extractedContentRepository.findById(sourceHash).map(e -> {
+                extractionHits.incrementAndGet();
+                return new Extraction(get(e.getContentHash()), Boolean.TRUE.equals(e.getOcrUsed()));
+            });
+        } catch (RuntimeException e) {
+            log.warn("Extraction cache lookup failed for {}: {}", sourceHash, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Remember the text extracted from a file so a re-upload skips parsing and OCR
+     */
+    public void rememberExtraction(String sourceHash, String text, boolean ocrUsed) {
+        if (extractedContentRepository.existsById(sourceHash)) {
+            return;
+        }
+        extractedContentRepository.save(new ExtractedContent(sourceHash, put(text), ocrUsed, null));
+    }
+
+    public record Extraction(String text, boolean ocrUsed) {}
+
+    /**
+     * SHA-256 of a file (hex), streamed
+     */
+    public static String sha256(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // ==================== Maintenance ====================
+
+    /**
+     * Migrate inline content, recount references, drop unreferenced blobs and compact segments
+     */
+    @Scheduled(cron = "${fleet-navigator.blob-store.sweep-cron:0 30 3 * * *}")
+    public void sweep() {
+        long start = System.currentTimeMillis();
+        int deleted = deleteRetiredSegments(start);
+        int migrated = migrateInline ? migrateInlineContent() : 0;
+
+        // Blobs referenced after this point may have rows the counts below do not see yet
+        LocalDateTime countedAt = LocalDateTime.now();
+        Map<String, Long> references = new HashMap<>();
+        countInto(references, chatDocumentRepository.countByContentHash());
+        countInto(references, contextFileRepository.countByContentHash());
+        countInto(references, extractedContentRepository.countByContentHash());
+
+        LocalDateTime graceLimit = countedAt.minusMinutes(sweepGraceMinutes);
+        List<String> candidates = blobRepository.findAll().stream()
+                .filter(blob -> needsSweep(blob, references.getOrDefault(blob.getHash(), 0L), countedAt, graceLimit))
+                .map(ContentBlob::getHash)
+                .toList();
+
+        // put() takes the same lock and commits before releasing it: re-read and re-check each candidate
+        int[] removed = {0};
+        synchronized (writeLock) {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (String hash : candidates) {
+                    ContentBlob blob = blobRepository.findById(hash).orElse(null);
+                    long count = references.getOrDefault(hash, 0L);
+                    if (blob == null || !needsSweep(blob, count, countedAt, graceLimit)) {
+                        continue;
+                    }
+                    if (count == 0) {
+                        blobRepository.delete(blob);
+                        contentCache.invalidate(hash);
+                        removed[0]++;
+                    } else {
+                        blob.setRefCount((int) count);
+                        blobRepository.save(blob);
+                    }
+                }
+            });
+        }
+
+        int compacted = compactSegments();
+        log.info("Blob store sweep: {} migrated, {} unreferenced removed, {} segments compacted, {} old segments deleted in {}ms",
+                migrated, removed[0], compacted, deleted, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Unreferenced past the grace period (delete) or stale reference count (fix); never for
+     * blobs referenced since the counts were taken
+     */
+    private static boolean needsSweep(ContentBlob blob, long count, LocalDateTime countedAt, LocalDateTime graceLimit) {
+        if (!blob.getLastReferencedAt().isBefore(countedAt)) {
+            return false;
+        }
+        return count == 0 ? !blob.getLastReferencedAt().isAfter(graceLimit) : blob.getRefCount() != count;
+    }
+
+    /**
+     * Store statistics (for /api/system/blob-store)
+     */
+    public Map<String, Object> getStats() {
+        Object[] totals = blobRepository.totals().get(0);
+        long segmentBytes = 0;
+        List<Integer> segmentNumbers = segments.segmentNumbers();
+        for (int segment : segmentNumbers) {
+            try {
+                segmentBytes += Files.size(segments.segmentPath(segment));
+            } catch (IOException e) {
+                // Segment removed concurrently
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("blobs", ((Number) totals[0]).longValue());
+        stats.put("rawBytes", ((Number) totals[1]).longValue());
+        stats.put("storedBytes", ((Number) totals[2]).longValue());
+        stats.put("references", ((Number) totals[3]).longValue());
+        stats.put("segments", segmentNumbers.size());
+        stats.put("segmentBytes", segmentBytes);
+        stats.put("deduplicatedWrites", deduplicated.get());
+        stats.put("extractionCacheHits", extractionHits.get());
+        stats.put("cachedEntries", contentCache.estimatedSize());
+        return stats;
+    }
+
+    private int migrateInlineContent() {
+        int migrated = 0;
+        List<ChatDocument> documents;
+        while (!(documents = chatDocumentRepository.findInlineContent(PageRequest.of(0, MIGRATION_BATCH))).isEmpty()) {
+            documents.forEach(d -> attach(d, d.getContent()));
+            chatDocumentRepository.saveAll(documents);
+            migrated += documents.size();
+        }
+        List<ContextFile> files;
+        while (!(files = contextFileRepository.findInlineContent(PageRequest.of(0, MIGRATION_BATCH))).isEmpty()) {
+            files.forEach(f -> attach(f, f.getContent()));
+            contextFileRepository.saveAll(files);
+            migrated += files.size();
+        }
+        return migrated;
+    }
+
+    private static void countInto(Map<String, Long> references, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            references.merge((String) row[0], ((Number) row[1]).longValue(), Long::sum);
+        }
+    }
+
+    /**
+     * Rewrite sealed segments whose live share dropped below the threshold; delete empty ones
+     */
+    private int compactSegments() {
+        Map<Integer, long[]> live = new HashMap<>();
+        for (Object[] row : blobRepository.sumStoredLengthBySegment()) {
+            live.put(((Number) row[0]).intValue(),
+                    new long[]{((Number) row[1]).longValue(), ((Number) row[2]).longValue()});
+        }
+
+        int compacted = 0;
+        for (int segment : segments.segmentNumbers()) {
+            if (segment == segments.activeSegment() || retiredSegments.containsKey(segment)) {
+                continue;
+            }
+            try {
+                long fileSize = Files.size(segments.segmentPath(segment));
+                long[] stats = live.getOrDefault(segment, new long[]{0, 0});
+                long liveBytes = stats[0] + stats[1] * segments.recordHeaderBytes();
+                if (liveBytes == 0 || 1.0 - (double) liveBytes / fileSize >= compactGarbageRatio) {
+                    moveLiveBlobs(segment);
+                    compacted++;
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not compact blob segment {}: {}", segment, e.getMessage());
+            }
+        }
+        return compacted;
+    }
+
+    private void moveLiveBlobs(int segment) throws IOException {
+        synchronized (writeLock) {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (ContentBlob blob : blobRepository.findBySegment(segment)) {
+                    try {
+                        ByteBuffer data = region(segment, blob.getOffset(), blob.getStoredLength());
+                        byte[] compressed = new byte[blob.getStoredLength()];
+                        data.get(compressed);
+                        long offset = append(HexFormat.of().parseHex(blob.getHash()), blob.getRawLength(), compressed);
+                        blob.setSegment(segments.activeSegment());
+                        blob.setOffset(offset);
+                        blobRepository.save(blob);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        }
+        // Readers may still hold the old location: the file stays until the next sweep
+        retiredSegments.put(segment, System.currentTimeMillis());
+    }
+
+    /**
+     * Delete segments retired by an earlier sweep
+     */
+    private int deleteRetiredSegments(long sweepStart) {
+        int deleted = 0;
+        for (Map.Entry<Integer, Long> entry : retiredSegments.entrySet()) {
+            if (entry.getValue() >= sweepStart) {
+                continue;
+            }
+            int segment = entry.getKey();
+            try {
+                // Open readers keep their mapping; the file disappears once they are done
+                sealedSegments.remove(segment);
+                Files.deleteIfExists(segments.segmentPath(segment));
+                retiredSegments.remove(segment);
+                deleted++;
+            } catch (IOException e) {
+                log.warn("Could not delete blob segment {}: {}", segment, e.getMessage());
+            }
+        }
+        return deleted;
+    }
+
+    // ==================== Segment files ====================
+
+    private long append(byte[] digest, int rawLength, byte[] compressed) throws IOException {
+        return segments.append(digest, rawLength, compressed, segmentMaxMb * 1024 * 1024);
+    }
+
+    /**
+     * Compressed bytes of a blob: sealed segments via a cached memory map, the active one via a fresh map
+     */
+    private ByteBuffer region(int segment, long offset, int length) throws IOException {
+        if (segment != segments.activeSegment()) {
+            try {
+                MappedByteBuffer map = sealedSegments.computeIfAbsent(segment, this::mapSegment);
+                return map.slice((int) offset, length);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        try (FileChannel channel = FileChannel.open(segments.segmentPath(segment), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        }
+    }
+
+    private MappedByteBuffer mapSegment(int segment) {
+        try (FileChannel channel = FileChannel.open(segments.segmentPath(segment), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] sha256(byte[] data) {
+        return newDigest().digest(data);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
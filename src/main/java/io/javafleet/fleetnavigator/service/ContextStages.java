@@ -0,0 +1,136 @@
+package io.javafleet.fleetnavigator.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Parallel stages of the context gathering before a chat request is generated.
+ *
+ * Each stage runs on the given executor and is recorded as its own span in the trace.
+ * Required stages are joined; optional ones (URL contents, web search) are awaited with a
+ * deadline counted from the start of the gathering, so a slow stage is dropped and the
+ * prompt is built from whatever arrived in time. A dropped stage is cancelled and its
+ * worker interrupted, so it does not keep holding a pool thread (or a connection) for a
+ * result nobody reads.
+ */
+@Slf4j
+final class ContextStages {
+
+    private final Executor executor;
+    private final RequestTracer.Trace trace;
+    private final long startNanos = System.nanoTime();
+    private final List<String> timedOut = new ArrayList<>();
+
+    ContextStages(Executor executor, RequestTracer.Trace trace) {
+        this.executor = executor;
+        this.trace = trace;
+    }
+
+    /**
+     * Start a stage now; {@code cancel(true)} on the returned future interrupts the running work
+     */
+    <T> CompletableFuture<T> start(String name, Supplier<T> work) {
+        RequestTracer.Trace.Stage stage = trace.stage(name);
+        InterruptibleStage<T> future = new InterruptibleStage<>();
+        future.whenComplete((result, error) -> stage.end());
+        executor.execute(() -> future.run(work));
+        return future;
+    }
+
+    /**
+     * Result of a stage the prompt cannot do without; its failure fails the request
+     */
+    <T> T require(CompletableFuture<T> stage) {
+        try {
+            return stage.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Result of an optional stage, or {@code fallback} if it fails or misses its deadline
+     */
+    <T> T await(String name, CompletableFuture<T> stage, long deadlineMs, T fallback) {
+        long remaining = startNanos + TimeUnit.MILLISECONDS.toNanos(deadlineMs) - System.nanoTime();
+        try {
+            return stage.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            synchronized (timedOut) {
+                timedOut.add(name);
+            }
+            stage.cancel(true);
+            trace.tag(name + ".timeout", true);
+            log.warn("⏱️ Kontext-Stufe {} nach {} ms abgebrochen - weiter ohne", name, deadlineMs);
+            return fallback;
+        } catch (ExecutionException e) {
+            log.warn("Kontext-Stufe {} fehlgeschlagen: {}", name, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            return fallback;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback;
+        }
+    }
+
+    /**
+     * Optional stages that missed their deadline
+     */
+    List<String> getTimedOut() {
+        synchronized (timedOut) {
+            return List.copyOf(timedOut);
+        }
+    }
+
+    /**
+     * Future that knows its worker thread: CompletableFuture itself ignores mayInterruptIfRunning
+     */
+    private static final class InterruptibleStage<T> extends CompletableFuture<T> {
+
+        private Thread runner;
+
+        void run(Supplier<T> work) {
+            synchronized (this) {
+                if (isDone()) {
+                    return;
+                }
+                runner = Thread.currentThread();
+            }
+            try {
+                complete(work.get());
+            } catch (Throwable e) {
+                completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    runner = null;
+                    // Do not hand a pending interrupt on to the next task of this pool thread
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled && mayInterruptIfRunning) {
+                synchronized (this) {
+                    if (runner != null) {
+                        runner.interrupt();
+                    }
+                }
+            }
+            return cancelled;
+        }
+    }
+}
@@ -5,9 +5,6 @@ import io.javafleet.fleetnavigator.model.PersonalInfo;
 import io.javafleet.fleetnavigator.repository.LetterTemplateRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.context.event.ApplicationReadyEvent;
-import org.springframework.context.event.EventListener;
-import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,8 +23,9 @@ public class DefaultDataInitializer {
     private final LetterTemplateRepository letterTemplateRepository;
     private final PersonalInfoService personalInfoService;
 
-    @EventListener(ApplicationReadyEvent.class)
-    @Order(2) // Nach SystemHealthCheckService (Order 1)
+    /**
+     * Wird beim Start von {@link StartupSeeder} aufgerufen (idempotent)
+     */
     @Transactional
     public void initializeDefaultData() {
         boolean isGerman = detectGermanLocale();
@@ -6,9 +6,6 @@ import io.javafleet.fleetnavigator.repository.ChatRepository;
 import io.javafleet.fleetnavigator.repository.MessageRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.context.event.ApplicationReadyEvent;
-import org.springframework.context.event.EventListener;
-import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,8 +24,9 @@ public class DemoChatsInitializer {
     private final ChatRepository chatRepository;
     private final MessageRepository messageRepository;
 
-    @EventListener(ApplicationReadyEvent.class)
-    @Order(3) // Nach SystemHealthCheckService (1) und DefaultDataInitializer (2)
+    /**
+     * Wird beim Start von {@link StartupSeeder} aufgerufen (nach den Default-Daten)
+     */
     @Transactional
     public void initializeDemoChats() {
         // Nur beim allerersten Start (keine Chats vorhanden)
@@ -1,5 +1,10 @@
 package io.javafleet.fleetnavigator.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itextpdf.html2pdf.ConverterProperties;
+import com.itextpdf.html2pdf.HtmlConverter;
+import com.itextpdf.html2pdf.resolver.font.DefaultFontProvider;
 import io.javafleet.fleetnavigator.experts.model.Expert;
 import io.javafleet.fleetnavigator.model.PersonalInfo;
 import io.javafleet.fleetnavigator.util.FleetUtils;
@@ -15,8 +20,10 @@ import org.odftoolkit.odfdom.incubator.doc.text.OdfTextParagraph;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.*;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigInteger;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -34,6 +41,10 @@ import java.util.UUID;
  * - Absender-Adresse aus PersonalInfo
  * - Empfänger-Adresse (oder Platzhalter)
  * - Professionelles DIN 5008 Briefformat
+ *
+ * Stile, Briefkopf und PDF-Rahmen werden je Experte und PersonalInfo-Stand einmal
+ * als Vorlage gebaut und danach nur noch mit dem Inhalt gefüllt. Asynchron gerendert
+ * wird über {@link DocumentRenderQueue}.
  */
 @Service
 @Slf4j
@@ -41,6 +52,14 @@ public class DocumentGeneratorService {
 
     private final PersonalInfoService personalInfoService;
 
+    // Vorlagen je Format + Experte + PersonalInfo-Stand
+    private final Cache<String, Skeleton> skeletons = Caffeine.newBuilder().maximumSize(64).build();
+
+    // FontProvider ist teuer (lädt die mitgelieferten Schriften) und nicht thread-safe:
+    // einmal pro Thread bauen und für alle PDFs dieses Threads wiederverwenden
+    private static final ThreadLocal<ConverterProperties> CONVERTER_PROPERTIES = ThreadLocal.withInitial(
+            () -> new ConverterProperties().setFontProvider(new DefaultFontProvider()));
+
     // Benutzerfreundlicher Dokumenten-Ordner im Home-Verzeichnis
     private static final String DOCS_DIR;
     private static final String DOCS_DIR_DISPLAY;  // Für Anzeige an Benutzer
@@ -79,8 +98,7 @@ public class DocumentGeneratorService {
     /**
      * Holt Absender-Informationen aus PersonalInfo oder gibt Platzhalter zurück
      */
-    private String getSenderAddress() {
-        Optional<PersonalInfo> infoOpt = personalInfoService.getPersonalInfo();
+    private String getSenderAddress(Optional<PersonalInfo> infoOpt) {
         if (infoOpt.isPresent()) {
             PersonalInfo info = infoOpt.get();
             StringBuilder sb = new StringBuilder();
@@ -136,6 +154,54 @@ public class DocumentGeneratorService {
         return DOCS_DIR;
     }
 
+    /**
+     * Wärmt den aktuellen Thread auf: FontProvider, iText-/POI-/ODFDOM-Klassen.
+     * Wird von den Render-Workern beim Start aufgerufen.
+     */
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        try {
+            HtmlConverter.convertToPdf("<html><body><p>Fleet Navigator</p></body></html>",
+                    OutputStream.nullOutputStream(), CONVERTER_PROPERTIES.get());
+            OdfTextDocument.newTextDocument().close();
+            new XWPFDocument().close();
+            log.debug("Dokument-Renderer auf {} in {}ms aufgewärmt",
+                    Thread.currentThread().getName(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("Aufwärmen des Dokument-Renderers fehlgeschlagen: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Vorlage für Format und Experte; wird neu gebaut, sobald sich PersonalInfo ändert
+     */
+    private Skeleton skeleton(DocumentType type, Expert expert) {
+        Optional<PersonalInfo> infoOpt = personalInfoService.getPersonalInfo();
+        String key = type + "|" + expert.getId() + "|" + expert.getName() + "|" + expert.getRole() + "|"
+                + infoOpt.map(info -> Integer.toHexString(info.hashCode())).orElse("-");
+        return skeletons.get(key, k -> {
+            try {
+                return buildSkeleton(type, expert, infoOpt);
+            } catch (Exception e) {
+                throw new IllegalStateException("Vorlage für " + type + " konnte nicht erstellt werden", e);
+            }
+        });
+    }
+
+    private Skeleton buildSkeleton(DocumentType type, Expert expert, Optional<PersonalInfo> infoOpt) throws Exception {
+        String senderAddress = getSenderAddress(infoOpt);
+        String city = infoOpt.map(PersonalInfo::getCity).orElse("");
+        String signerName = infoOpt.map(PersonalInfo::getFullName)
+                .filter(n -> !n.isBlank())
+                .orElse(expert.getName());
+
+        return switch (type) {
+            case ODT -> new Skeleton(city, signerName, buildOdtSkeleton(senderAddress), null, null);
+            case DOCX -> new Skeleton(city, signerName, buildDocxSkeleton(senderAddress), null, null);
+            case PDF -> new Skeleton(city, signerName, null, buildPdfHead(expert), buildPdfFooter(expert));
+        };
+    }
+
     /**
      * Erkennt ob eine Nachricht eine Dokumentanfrage enthält
      */
@@ -216,10 +282,17 @@ public class DocumentGeneratorService {
      * Generiert ein professionelles Schreiben im gewünschten Format
      */
     public GeneratedDocument generateLetter(Expert expert, String letterContent, String recipient, String subject, DocumentType format) throws IOException {
+        return generateLetter(UUID.randomUUID().toString(), expert, letterContent, recipient, subject, format);
+    }
+
+    /**
+     * Generiert ein Schreiben unter einer vorab vergebenen Dokument-ID
+     */
+    public GeneratedDocument generateLetter(String fileId, Expert expert, String letterContent, String recipient, String subject, DocumentType format) throws IOException {
         if (format == DocumentType.DOCX) {
-            return generateDocxLetter(expert, letterContent, recipient, subject);
+            return generateDocxLetter(fileId, expert, letterContent, recipient, subject);
         } else {
-            return generateOdtLetter(expert, letterContent, recipient, subject);
+            return generateOdtLetter(fileId, expert, letterContent, recipient, subject);
         }
     }
 
@@ -230,63 +303,16 @@ public class DocumentGeneratorService {
      * Schriftart: Liberation Sans (moderne Sans-Serif, kompatibel mit Arial)
      */
     public GeneratedDocument generateOdtLetter(Expert expert, String letterContent, String recipient, String subject) throws IOException {
+        return generateOdtLetter(UUID.randomUUID().toString(), expert, letterContent, recipient, subject);
+    }
+
+    private GeneratedDocument generateOdtLetter(String fileId, Expert expert, String letterContent, String recipient, String subject) throws IOException {
         log.info("Generiere ODT-Brief für Experte: {}", expert.getName());
 
         try {
-            OdfTextDocument document = OdfTextDocument.newTextDocument();
-
-            // ===== STILE DEFINIEREN =====
-            // Liberation Sans ist auf allen Systemen verfügbar und entspricht Arial
-            OdfOfficeStyles styles = document.getOrCreateDocumentStyles();
-
-            // Absender-Stil (klein, grau)
-            OdfStyle senderStyle = styles.newStyle("SenderStyle", OdfStyleFamily.Paragraph);
-            StyleTextPropertiesElement senderTextProps = senderStyle.newStyleTextPropertiesElement(null);
-            senderTextProps.setFoFontFamilyAttribute("Liberation Sans");
-            senderTextProps.setFoFontSizeAttribute("9pt");
-            senderTextProps.setFoColorAttribute("#666666");
-
-            // Normal-Stil (Standard-Text)
-            OdfStyle normalStyle = styles.newStyle("NormalStyle", OdfStyleFamily.Paragraph);
-            StyleTextPropertiesElement normalTextProps = normalStyle.newStyleTextPropertiesElement(null);
-            normalTextProps.setFoFontFamilyAttribute("Liberation Sans");
-            normalTextProps.setFoFontSizeAttribute("11pt");
-            normalTextProps.setFoColorAttribute("#000000");
-
-            // Betreff-Stil (fett)
-            OdfStyle subjectStyle = styles.newStyle("SubjectStyle", OdfStyleFamily.Paragraph);
-            StyleTextPropertiesElement subjectTextProps = subjectStyle.newStyleTextPropertiesElement(null);
-            subjectTextProps.setFoFontFamilyAttribute("Liberation Sans");
-            subjectTextProps.setFoFontSizeAttribute("11pt");
-            subjectTextProps.setFoFontWeightAttribute("bold");
-            subjectTextProps.setFoColorAttribute("#000000");
-
-            // Datum-Stil (rechtsbündig)
-            OdfStyle dateStyle = styles.newStyle("DateStyle", OdfStyleFamily.Paragraph);
-            StyleTextPropertiesElement dateTextProps = dateStyle.newStyleTextPropertiesElement(null);
-            dateTextProps.setFoFontFamilyAttribute("Liberation Sans");
-            dateTextProps.setFoFontSizeAttribute("11pt");
-            StyleParagraphPropertiesElement dateParaProps = dateStyle.newStyleParagraphPropertiesElement();
-            dateParaProps.setFoTextAlignAttribute("end");
-
-            // Inhalt-Stil (Blocksatz)
-            OdfStyle contentStyle = styles.newStyle("ContentStyle", OdfStyleFamily.Paragraph);
-            StyleTextPropertiesElement contentTextProps = contentStyle.newStyleTextPropertiesElement(null);
-            contentTextProps.setFoFontFamilyAttribute("Liberation Sans");
-            contentTextProps.setFoFontSizeAttribute("11pt");
-            StyleParagraphPropertiesElement contentParaProps = contentStyle.newStyleParagraphPropertiesElement();
-            contentParaProps.setFoTextAlignAttribute("justify");
-            contentParaProps.setFoMarginBottomAttribute("0.3cm");
-
-            // ===== ABSENDER (Rücksendeangabe nach DIN 5008) =====
-            String senderAddress = getSenderAddress();
-            String senderOneLine = senderAddress.replace("\n", " · ");
-            OdfTextParagraph senderPara = document.newParagraph();
-            senderPara.setStyleName("SenderStyle");
-            senderPara.addContent(senderOneLine);
-
-            // Leerzeilen nach Absender
-            document.newParagraph();
+            // Vorlage enthält Stile und Absenderzeile
+            Skeleton skeleton = skeleton(DocumentType.ODT, expert);
+            OdfTextDocument document = OdfTextDocument.loadDocument(new ByteArrayInputStream(skeleton.document()));
 
             // ===== EMPFÄNGER (Anschriftfeld nach DIN 5008) =====
             String recipientAddress = getRecipientAddress(recipient);
@@ -302,8 +328,7 @@ public class DocumentGeneratorService {
             document.newParagraph();
 
             // ===== DATUM (rechtsbündig nach DIN 5008) =====
-            Optional<PersonalInfo> infoOpt = personalInfoService.getPersonalInfo();
-            String city = infoOpt.map(PersonalInfo::getCity).orElse("");
+            String city = skeleton.city();
             String dateLocation = (!city.isBlank() ? city + ", " : "") + LocalDate.now().format(FleetUtils.DATE_GERMAN_LONG);
 
             OdfTextParagraph datePara = document.newParagraph();
@@ -343,16 +368,13 @@ public class DocumentGeneratorService {
             document.newParagraph();
 
             // ===== UNTERSCHRIFT =====
-            String signerName = infoOpt.map(PersonalInfo::getFullName)
-                    .filter(n -> !n.isBlank())
-                    .orElse(expert.getName());
+            String signerName = skeleton.signerName();
 
             OdfTextParagraph signaturePara = document.newParagraph();
             signaturePara.setStyleName("NormalStyle");
             signaturePara.addContent(signerName);
 
             // In Datei speichern
-            String fileId = UUID.randomUUID().toString();
             String topic = FleetUtils.sanitizeFilename(subject != null && !subject.isBlank() ? subject : "Brief");
             String timestamp = LocalDateTime.now().format(FleetUtils.FILENAME_TIMESTAMP);
             String filename = topic + "_" + timestamp + ".odt";
@@ -371,6 +393,70 @@ public class DocumentGeneratorService {
         }
     }
 
+    /**
+     * Baut die ODT-Vorlage: Stile und Absenderzeile (Rücksendeangabe nach DIN 5008)
+     */
+    private byte[] buildOdtSkeleton(String senderAddress) throws Exception {
+        OdfTextDocument document = OdfTextDocument.newTextDocument();
+
+        // ===== STILE DEFINIEREN =====
+        // Liberation Sans ist auf allen Systemen verfügbar und entspricht Arial
+        OdfOfficeStyles styles = document.getOrCreateDocumentStyles();
+
+        // Absender-Stil (klein, grau)
+        OdfStyle senderStyle = styles.newStyle("SenderStyle", OdfStyleFamily.Paragraph);
+        StyleTextPropertiesElement senderTextProps = senderStyle.newStyleTextPropertiesElement(null);
+        senderTextProps.setFoFontFamilyAttribute("Liberation Sans");
+        senderTextProps.setFoFontSizeAttribute("9pt");
+        senderTextProps.setFoColorAttribute("#666666");
+
+        // Normal-Stil (Standard-Text)
+        OdfStyle normalStyle = styles.newStyle("NormalStyle", OdfStyleFamily.Paragraph);
+        StyleTextPropertiesElement normalTextProps = normalStyle.newStyleTextPropertiesElement(null);
+        normalTextProps.setFoFontFamilyAttribute("Liberation Sans");
+        normalTextProps.setFoFontSizeAttribute("11pt");
+        normalTextProps.setFoColorAttribute("#000000");
+
+        // Betreff-Stil (fett)
+        OdfStyle subjectStyle = styles.newStyle("SubjectStyle", OdfStyleFamily.Paragraph);
+        StyleTextPropertiesElement subjectTextProps = subjectStyle.newStyleTextPropertiesElement(null);
+        subjectTextProps.setFoFontFamilyAttribute("Liberation Sans");
+        subjectTextProps.setFoFontSizeAttribute("11pt");
+        subjectTextProps.setFoFontWeightAttribute("bold");
+        subjectTextProps.setFoColorAttribute("#000000");
+
+        // Datum-Stil (rechtsbündig)
+        OdfStyle dateStyle = styles.newStyle("DateStyle", OdfStyleFamily.Paragraph);
+        StyleTextPropertiesElement dateTextProps = dateStyle.newStyleTextPropertiesElement(null);
+        dateTextProps.setFoFontFamilyAttribute("Liberation Sans");
+        dateTextProps.setFoFontSizeAttribute("11pt");
+        StyleParagraphPropertiesElement dateParaProps = dateStyle.newStyleParagraphPropertiesElement();
+        dateParaProps.setFoTextAlignAttribute("end");
+
+        // Inhalt-Stil (Blocksatz)
+        OdfStyle contentStyle = styles.newStyle("ContentStyle", OdfStyleFamily.Paragraph);
+        StyleTextPropertiesElement contentTextProps = contentStyle.newStyleTextPropertiesElement(null);
+        contentTextProps.setFoFontFamilyAttribute("Liberation Sans");
+        contentTextProps.setFoFontSizeAttribute("11pt");
+        StyleParagraphPropertiesElement contentParaProps = contentStyle.newStyleParagraphPropertiesElement();
+        contentParaProps.setFoTextAlignAttribute("justify");
+        contentParaProps.setFoMarginBottomAttribute("0.3cm");
+
+        // ===== ABSENDER (Rücksendeangabe nach DIN 5008) =====
+        String senderOneLine = senderAddress.replace("\n", " · ");
+        OdfTextParagraph senderPara = document.newParagraph();
+        senderPara.setStyleName("SenderStyle");
+        senderPara.addContent(senderOneLine);
+
+        // Leerzeilen nach Absender
+        document.newParagraph();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        document.save(out);
+        document.close();
+        return out.toByteArray();
+    }
+
     /**
      * Fügt formatierten Inhalt zum ODT-Dokument hinzu (mit Stil)
      */
@@ -399,36 +485,15 @@ public class DocumentGeneratorService {
      * Enthält Absender-Adresse, Empfänger-Adresse, Datum, Betreff und Briefinhalt
      */
     public GeneratedDocument generateDocxLetter(Expert expert, String letterContent, String recipient, String subject) throws IOException {
-        log.info("Generiere DOCX-Brief für Experte: {}", expert.getName());
-
-        try (XWPFDocument document = new XWPFDocument()) {
-            // Seitenränder setzen (2.5cm)
-            CTSectPr sectPr = document.getDocument().getBody().addNewSectPr();
-            CTPageMar pageMar = sectPr.addNewPgMar();
-            pageMar.setLeft(BigInteger.valueOf(1440));
-            pageMar.setRight(BigInteger.valueOf(1440));
-            pageMar.setTop(BigInteger.valueOf(1440));
-            pageMar.setBottom(BigInteger.valueOf(1440));
-
-            // ===== ABSENDER (klein, oben) =====
-            String senderAddress = getSenderAddress();
-            XWPFParagraph senderPara = document.createParagraph();
-            XWPFRun senderRun = senderPara.createRun();
-            senderRun.setFontFamily("Times New Roman");
-            senderRun.setFontSize(9);
-            senderRun.setColor("666666");
-            for (String line : senderAddress.split("\n")) {
-                senderRun.setText(line);
-                senderRun.addBreak();
-            }
-
-            // Trennlinie
-            XWPFParagraph linePara = document.createParagraph();
-            linePara.setBorderBottom(Borders.SINGLE);
+        return generateDocxLetter(UUID.randomUUID().toString(), expert, letterContent, recipient, subject);
+    }
 
-            // Leerzeile
-            document.createParagraph();
+    private GeneratedDocument generateDocxLetter(String fileId, Expert expert, String letterContent, String recipient, String subject) throws IOException {
+        log.info("Generiere DOCX-Brief für Experte: {}", expert.getName());
 
+        // Vorlage enthält Seitenränder, Absender und Trennlinie
+        Skeleton skeleton = skeleton(DocumentType.DOCX, expert);
+        try (XWPFDocument document = new XWPFDocument(new ByteArrayInputStream(skeleton.document()))) {
             // ===== EMPFÄNGER =====
             String recipientAddress = getRecipientAddress(recipient);
             XWPFParagraph recipientPara = document.createParagraph();
@@ -445,8 +510,7 @@ public class DocumentGeneratorService {
             document.createParagraph();
 
             // ===== DATUM (rechtsbündig) =====
-            Optional<PersonalInfo> infoOpt = personalInfoService.getPersonalInfo();
-            String city = infoOpt.map(PersonalInfo::getCity).orElse("");
+            String city = skeleton.city();
             String dateLocation = (!city.isBlank() ? city + ", " : "") + LocalDate.now().format(FleetUtils.DATE_GERMAN_LONG);
 
             XWPFParagraph datePara = document.createParagraph();
@@ -495,9 +559,7 @@ public class DocumentGeneratorService {
             document.createParagraph();
 
             // ===== UNTERSCHRIFT =====
-            String signerName = infoOpt.map(PersonalInfo::getFullName)
-                    .filter(n -> !n.isBlank())
-                    .orElse(expert.getName());
+            String signerName = skeleton.signerName();
 
             XWPFParagraph signaturePara = document.createParagraph();
             XWPFRun signatureRun = signaturePara.createRun();
@@ -506,7 +568,6 @@ public class DocumentGeneratorService {
             signatureRun.setText(signerName);
 
             // In Datei speichern - mit Thema und Zeitstempel
-            String fileId = UUID.randomUUID().toString();
             String topic = FleetUtils.sanitizeFilename(subject != null && !subject.isBlank() ? subject : "Brief");
             String timestamp = LocalDateTime.now().format(FleetUtils.FILENAME_TIMESTAMP);
             String filename = topic + "_" + timestamp + ".docx";
@@ -523,6 +584,43 @@ public class DocumentGeneratorService {
         }
     }
 
+    /**
+     * Baut die DOCX-Vorlage: Seitenränder, Absender und Trennlinie
+     */
+    private byte[] buildDocxSkeleton(String senderAddress) throws IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            // Seitenränder setzen (2.5cm)
+            CTSectPr sectPr = document.getDocument().getBody().addNewSectPr();
+            CTPageMar pageMar = sectPr.addNewPgMar();
+            pageMar.setLeft(BigInteger.valueOf(1440));
+            pageMar.setRight(BigInteger.valueOf(1440));
+            pageMar.setTop(BigInteger.valueOf(1440));
+            pageMar.setBottom(BigInteger.valueOf(1440));
+
+            // ===== ABSENDER (klein, oben) =====
+            XWPFParagraph senderPara = document.createParagraph();
+            XWPFRun senderRun = senderPara.createRun();
+            senderRun.setFontFamily("Times New Roman");
+            senderRun.setFontSize(9);
+            senderRun.setColor("666666");
+            for (String line : senderAddress.split("\n")) {
+                senderRun.setText(line);
+                senderRun.addBreak();
+            }
+
+            // Trennlinie
+            XWPFParagraph linePara = document.createParagraph();
+            linePara.setBorderBottom(Borders.SINGLE);
+
+            // Leerzeile
+            document.createParagraph();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.write(out);
+            return out.toByteArray();
+        }
+    }
+
     /**
      * Fügt formatierten Inhalt zum DOCX-Dokument hinzu
      */
@@ -555,23 +653,28 @@ public class DocumentGeneratorService {
      * Generiert eine PDF-Zusammenfassung
      */
     public GeneratedDocument generatePdfSummary(Expert expert, String summaryContent, String title) throws IOException {
+        return generatePdfSummary(UUID.randomUUID().toString(), expert, summaryContent, title);
+    }
+
+    /**
+     * Generiert eine PDF-Zusammenfassung unter einer vorab vergebenen Dokument-ID
+     */
+    public GeneratedDocument generatePdfSummary(String fileId, Expert expert, String summaryContent, String title) throws IOException {
         log.info("Generiere PDF-Zusammenfassung für Experte: {}", expert.getName());
 
         // HTML für PDF
-        String html = buildPdfHtml(expert, summaryContent, title);
-
-        // PDF generieren mit iText
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        com.itextpdf.html2pdf.HtmlConverter.convertToPdf(html, outputStream);
+        String html = buildPdfHtml(skeleton(DocumentType.PDF, expert), summaryContent, title);
 
         // In Datei speichern - mit Titel/Thema und Zeitstempel
-        String fileId = UUID.randomUUID().toString();
         String topic = FleetUtils.sanitizeFilename(title != null && !title.isBlank() ? title : "Zusammenfassung");
         String timestamp = LocalDateTime.now().format(FleetUtils.FILENAME_TIMESTAMP);
         String filename = topic + "_" + timestamp + ".pdf";
         Path filePath = Path.of(DOCS_DIR, fileId + ".pdf");
 
-        Files.write(filePath, outputStream.toByteArray());
+        // PDF generieren mit iText (direkt in die Datei, Schriften des Threads wiederverwenden)
+        try (OutputStream outputStream = Files.newOutputStream(filePath)) {
+            HtmlConverter.convertToPdf(html, outputStream, CONVERTER_PROPERTIES.get());
+        }
 
         log.info("PDF erstellt: {} ({} bytes)", filename, Files.size(filePath));
 
@@ -579,9 +682,9 @@ public class DocumentGeneratorService {
     }
 
     /**
-     * Baut HTML für PDF-Generierung
+     * Baut HTML für PDF-Generierung aus der Vorlage des Experten
      */
-    private String buildPdfHtml(Expert expert, String content, String title) {
+    private String buildPdfHtml(Skeleton skeleton, String content, String title) {
         String date = LocalDate.now().format(FleetUtils.DATE_GERMAN_LONG);
 
         // Escape HTML und formatiere
@@ -589,6 +692,23 @@ public class DocumentGeneratorService {
                 .replace("\n\n", "</p><p>")
                 .replace("\n", "<br>");
 
+        return skeleton.htmlHead() + String.format("""
+                <div class="date">%s</div>
+                <div class="title">%s</div>
+                <div class="content">
+                    <p>%s</p>
+                </div>
+            """,
+            date,
+            FleetUtils.escapeHtml(title != null ? title : "Zusammenfassung"),
+            formattedContent
+        ) + skeleton.htmlFooter();
+    }
+
+    /**
+     * PDF-Vorlage: Kopf mit Stylesheet und Briefkopf des Experten
+     */
+    private String buildPdfHead(Expert expert) {
         return String.format("""
             <!DOCTYPE html>
             <html>
@@ -649,11 +769,17 @@ public class DocumentGeneratorService {
                     <p class="expert-name">%s</p>
                     <p class="expert-role">%s</p>
                 </div>
-                <div class="date">%s</div>
-                <div class="title">%s</div>
-                <div class="content">
-                    <p>%s</p>
-                </div>
+            """,
+            FleetUtils.escapeHtml(expert.getName()),
+            FleetUtils.escapeHtml(expert.getRole())
+        );
+    }
+
+    /**
+     * PDF-Vorlage: Fußzeile mit Experte
+     */
+    private String buildPdfFooter(Expert expert) {
+        return String.format("""
                 <div class="footer">
                     Erstellt von Fleet Navigator | %s, %s
                 </div>
@@ -661,11 +787,6 @@ public class DocumentGeneratorService {
             </html>
             """,
             FleetUtils.escapeHtml(expert.getName()),
-            FleetUtils.escapeHtml(expert.getRole()),
-            date,
-            FleetUtils.escapeHtml(title != null ? title : "Zusammenfassung"),
-            formattedContent,
-            FleetUtils.escapeHtml(expert.getName()),
             FleetUtils.escapeHtml(expert.getRole())
         );
     }
@@ -720,5 +841,7 @@ public class DocumentGeneratorService {
     // DTOs
     public record DocumentRequest(DocumentType type, String purpose) {}
     public record GeneratedDocument(String id, String filename, String contentType, Path path) {}
+    // Vorlage: Briefkopf-Daten plus vorgefertigtes Dokument (ODT/DOCX) bzw. HTML-Rahmen (PDF)
+    private record Skeleton(String city, String signerName, byte[] document, String htmlHead, String htmlFooter) {}
     public enum DocumentType { DOCX, PDF, ODT }
 }
@@ -0,0 +1,166 @@
+package io.javafleet.fleetnavigator.service;
+
+import io.javafleet.fleetnavigator.experts.model.Expert;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background rendering of generated documents (letters, PDF summaries).
+ *
+ * Jobs run on a small fixed pool with a bounded queue, so the chat thread only hands
+ * the text over and gets the document ID back immediately. Each worker warms its
+ * iText font provider and the POI/ODFDOM classes when it starts. A full queue rejects
+ * the job instead of blocking the caller.
+ */
+@Slf4j
+@Service
+public class DocumentRenderQueue {
+
+    private final DocumentGeneratorService documentGeneratorService;
+
+    @Value("${fleet-navigator.documents.render-workers:2}")
+    private int workers = 2;
+
+    @Value("${fleet-navigator.documents.queue-capacity:32}")
+    private int queueCapacity = 32;
+
+    private final Map<String, CompletableFuture<DocumentGeneratorService.GeneratedDocument>> inFlight =
+            new ConcurrentHashMap<>();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong renderMillis = new AtomicLong();
+
+    private ThreadPoolExecutor executor;
+
+    public DocumentRenderQueue(DocumentGeneratorService documentGeneratorService) {
+        this.documentGeneratorService = documentGeneratorService;
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(() -> {
+                        documentGeneratorService.warmUp();
+                        runnable.run();
+                    }, "document-render-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // Warm the workers now rather than on the first document
+        executor.prestartAllCoreThreads();
+        log.info("Document render queue: {} workers, capacity {}", workers, queueCapacity);
+    }
+
+    /**
+     * Queue a document for rendering
+     *
+     * @return ticket with the document ID (valid for download right away) and its completion
+     * @throws java.util.concurrent.RejectedExecutionException if the queue is full
+     */
+    public Ticket submit(DocumentJob job) {
+        String documentId = UUID.randomUUID().toString();
+        CompletableFuture<DocumentGeneratorService.GeneratedDocument> result = new CompletableFuture<>();
+        inFlight.put(documentId, result);
+        try {
+            executor.execute(() -> render(documentId, job, result));
+        } catch (RuntimeException e) {
+            inFlight.remove(documentId);
+            rejected.incrementAndGet();
+            throw e;
+        }
+        return new Ticket(documentId, job, result);
+    }
+
+    /**
+     * Wait for a document that may still be rendering
+     *
+     * @return the document if it was queued here and finished within the timeout
+     */
+    public Optional<DocumentGeneratorService.GeneratedDocument> await(String documentId, Duration timeout) {
+        CompletableFuture<DocumentGeneratorService.GeneratedDocument> result = inFlight.get(documentId);
+        if (result == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(result.get(timeout.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.debug("Document {} not available: {}", documentId, e.toString());
+        }
+        return Optional.empty();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long done = completed.get();
+        stats.put("workers", workers);
+        stats.put("queued", executor.getQueue().size());
+        stats.put("active", executor.getActiveCount());
+        stats.put("completed", done);
+        stats.put("failed", failed.get());
+        stats.put("rejected", rejected.get());
+        stats.put("avgRenderMs", done > 0 ? renderMillis.get() / done : 0);
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private void render(String documentId, DocumentJob job,
+                        CompletableFuture<DocumentGeneratorService.GeneratedDocument> result) {
+        long start = System.currentTimeMillis();
+        try {
+            DocumentGeneratorService.GeneratedDocument document = job.type() == DocumentGeneratorService.DocumentType.PDF
+                    ? documentGeneratorService.generatePdfSummary(documentId, job.expert(), job.content(), job.subject())
+                    : documentGeneratorService.generateLetter(documentId, job.expert(), job.content(), null,
+                            job.subject(), job.type());
+            renderMillis.addAndGet(System.currentTimeMillis() - start);
+            completed.incrementAndGet();
+            inFlight.remove(documentId);
+            result.complete(document);
+        } catch (Exception e) {
+            log.error("Rendering {} document {} failed", job.type(), documentId, e);
+            failed.incrementAndGet();
+            inFlight.remove(documentId);
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Content and layout of a document to render
+     */
+    public record DocumentJob(Expert expert, String content, String subject,
+                              DocumentGeneratorService.DocumentType type) {}
+
+    /**
+     * A queued document: its ID is usable for the download URL before rendering finishes
+     */
+    public record Ticket(String documentId, DocumentJob job,
+                         CompletableFuture<DocumentGeneratorService.GeneratedDocument> result) {}
+}
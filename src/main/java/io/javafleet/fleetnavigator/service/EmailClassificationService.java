@@ -1,13 +1,46 @@
 package io.javafleet.fleetnavigator.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.javafleet.fleetnavigator.llm.StructuredOutput;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
- * Service for AI-powered email classification
+ * Service for AI-powered email classification.
+ *
+ * Each email passes three stages, cheapest first:
+ * <ol>
+ *   <li>Fingerprint cache: sender + normalized subject, and for senders that were
+ *       classified as advertising several times in a row, the sender alone</li>
+ *   <li>Rule fast path: bulk senders, social networks, unsubscribe hints and urgency
+ *       keywords - only taken above a confidence threshold</li>
+ *   <li>LLM: the category definitions form a stable system prompt (shared prefix the
+ *       backend can keep cached); in batch mode many emails go into one request. Answers
+ *       are schema-constrained JSON, so there is no free text to parse</li>
+ * </ol>
  */
 @Slf4j
 @Service
@@ -16,8 +49,80 @@ public class EmailClassificationService {
 
     private final OllamaService ollamaService;
     private final SettingsService settingsService;
+    private final ObjectMapper objectMapper;
     private static final String FALLBACK_MODEL = "llama3.2:3b"; // Fixed: exact model name
 
+    private static final int BATCH_PREVIEW_CHARS = 300;
+
+    private static final String CATEGORY_ENUM = "{\"type\":\"string\",\"enum\":[\"wichtig\",\"abzuarbeiten\",\"werbung\"]}";
+    private static final String CONFIDENCE = "{\"type\":\"number\",\"minimum\":0,\"maximum\":1}";
+
+    // Single email: category, confidence and a one-line reason (~20-40 tokens)
+    private static final StructuredOutput SINGLE_FORMAT = StructuredOutput.jsonSchema(
+            "{\"type\":\"object\",\"properties\":{\"category\":" + CATEGORY_ENUM
+                    + ",\"confidence\":" + CONFIDENCE
+                    + ",\"reason\":{\"type\":\"string\",\"maxLength\":100}},"
+                    + "\"required\":[\"category\",\"confidence\",\"reason\"]}");
+
+    private static final Pattern BULK_SENDER = Pattern.compile(
+            "^(no-?reply|do-?not-?reply|newsletter|news|marketing|notifications?|notify|promo|angebote?|deals|mailer)[^@]*@");
+    private static final Pattern SOCIAL_DOMAIN = Pattern.compile(
+            "@([a-z0-9-]+\\.)*(linkedin|xing|facebook|facebookmail|twitter|x|instagram)\\.com$");
+    private static final Pattern UNSUBSCRIBE = Pattern.compile(
+            "\\b(unsubscribe|abmelden|abbestellen|newsletter)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern URGENT = Pattern.compile("\\b(DRINGEND|URGENT|ASAP|WICHTIG)\\b");
+    private static final Pattern SUBJECT_PREFIX = Pattern.compile("^((re|aw|fwd?|wg)\\s*:\\s*)+");
+    private static final Pattern ADDRESS = Pattern.compile("<([^>]+)>");
+
+    @Value("${fleet-navigator.email-classification.batch-size:10}")
+    private int batchSize = 10;
+
+    @Value("${fleet-navigator.email-classification.rule-confidence-threshold:0.85}")
+    private double ruleConfidenceThreshold = 0.85;
+
+    @Value("${fleet-navigator.email-classification.cache-max-size:5000}")
+    private long cacheMaxSize = 5000;
+
+    @Value("${fleet-navigator.email-classification.cache-ttl-hours:24}")
+    private long cacheTtlHours = 24;
+
+    @Value("${fleet-navigator.email-classification.sender-streak:3}")
+    private int senderStreak = 3;
+
+    // definitions|sender|subject shape -> classification
+    private Cache<String, EmailClassification> fingerprintCache;
+    // definitions|sender -> last LLM category and how often in a row it was assigned
+    private Cache<String, SenderStats> senderCache;
+
+    // One batch at a time: the local model serializes requests anyway
+    private final ExecutorService batchExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "email-classifier");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong ruleHits = new AtomicLong();
+    private final AtomicLong llmRequests = new AtomicLong();
+    private final AtomicLong llmClassified = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        fingerprintCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofHours(cacheTtlHours))
+                .build();
+        senderCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofHours(cacheTtlHours))
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        batchExecutor.shutdownNow();
+    }
+
     /**
      * Classify email into categories: wichtig, abzuarbeiten, werbung
      */
@@ -30,8 +135,259 @@ public class EmailClassificationService {
         @SuppressWarnings("unchecked")
         Map<String, String> categoryPrompts = (Map<String, String>) emailData.get("categoryPrompts");
 
+        EmailClassification quick = classifyWithoutModel(from, subject, preview, categoryPrompts);
+        if (quick != null) {
+            return quick;
+        }
+
+        String model = resolveModel((String) emailData.get("preferredModel"));
+
+        log.info("Classifying email from: {} - Subject: {} with model: {}", from, subject, model);
+
+        try {
+            EmailClassification classification = classifySingle(model, from, subject, preview, categoryPrompts);
+
+            log.info("Email classified as: {} (confidence: {})",
+                    classification.category, classification.confidence);
+
+            return classification;
+
+        } catch (Exception e) {
+            log.error("Failed to classify email", e);
+            // Fallback classification
+            return new EmailClassification("abzuarbeiten", 0.5, "Fehler bei Klassifizierung");
+        }
+    }
+
+    /**
+     * Classify many emails at once; each result is passed to {@code onResult} as soon as it is known.
+     * Cache and rule hits arrive immediately, LLM results per batch.
+     *
+     * @param emails          email maps (messageId, from, subject, preview, ...)
+     * @param categoryPrompts custom category definitions (may be null)
+     * @param preferredModel  mate's preferred model (may be null)
+     * @param onResult        receives every result, in completion order
+     * @return future that completes with the summary once every email has a result
+     */
+    public CompletableFuture<BatchSummary> classifyBatch(List<Map<String, Object>> emails,
+                                                         Map<String, String> categoryPrompts,
+                                                         String preferredModel,
+                                                         Consumer<BatchResult> onResult) {
+        return CompletableFuture.supplyAsync(
+                () -> runBatch(emails, categoryPrompts, preferredModel, onResult), batchExecutor);
+    }
+
+    private BatchSummary runBatch(List<Map<String, Object>> emails, Map<String, String> categoryPrompts,
+                                  String preferredModel, Consumer<BatchResult> onResult) {
+        long start = System.currentTimeMillis();
+        int quick = 0;
+        int requests = 0;
+        List<Map<String, Object>> pending = new ArrayList<>();
+
+        for (Map<String, Object> email : emails) {
+            EmailClassification result = classifyWithoutModel((String) email.get("from"),
+                    (String) email.get("subject"), (String) email.get("preview"), categoryPrompts);
+            if (result != null) {
+                quick++;
+                onResult.accept(new BatchResult(messageId(email), email, result));
+            } else {
+                pending.add(email);
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            String model = resolveModel(preferredModel);
+            for (int i = 0; i < pending.size(); i += Math.max(1, batchSize)) {
+                List<Map<String, Object>> batch = pending.subList(i, Math.min(pending.size(), i + Math.max(1, batchSize)));
+                requests += classifyChunk(model, batch, categoryPrompts, onResult);
+            }
+        }
+
+        BatchSummary summary = new BatchSummary(emails.size(), quick, emails.size() - quick, requests,
+                System.currentTimeMillis() - start);
+        log.info("Batch classification: {} emails, {} from cache/rules, {} LLM requests in {} ms",
+                summary.total(), summary.withoutModel(), summary.llmRequests(), summary.durationMs());
+        return summary;
+    }
+
+    /**
+     * One LLM request for a chunk of emails; emails the model skipped are classified individually
+     *
+     * @return number of LLM requests made
+     */
+    private int classifyChunk(String model, List<Map<String, Object>> batch, Map<String, String> categoryPrompts,
+                              Consumer<BatchResult> onResult) {
+        int requests = 1;
+        Map<Integer, EmailClassification> parsed;
+        try {
+            llmRequests.incrementAndGet();
+            String response = ollamaService.chatStructured(model, buildBatchPrompt(batch),
+                    buildCategorySystemPrompt(categoryPrompts), null, batchFormat(batch.size()),
+                    16 + 20 * batch.size());
+            parsed = parseBatchResponse(response, batch.size());
+        } catch (Exception e) {
+            log.warn("Batch classification request failed, falling back to single requests: {}", e.getMessage());
+            parsed = Map.of();
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            Map<String, Object> email = batch.get(i);
+            String from = (String) email.get("from");
+            String subject = (String) email.get("subject");
+            EmailClassification result = parsed.get(i + 1);
+            if (result == null) {
+                requests++;
+                try {
+                    result = classifySingle(model, from, subject, (String) email.get("preview"), categoryPrompts);
+                } catch (Exception e) {
+                    log.error("Failed to classify email {}", messageId(email), e);
+                    result = new EmailClassification("abzuarbeiten", 0.5, "Fehler bei Klassifizierung");
+                }
+            } else {
+                llmClassified.incrementAndGet();
+                remember(from, subject, categoryPrompts, result);
+            }
+            onResult.accept(new BatchResult(messageId(email), email, result));
+        }
+        return requests;
+    }
+
+    /**
+     * Single email via LLM (schema-constrained answer with a short reason)
+     */
+    private EmailClassification classifySingle(String model, String from, String subject, String preview,
+                                               Map<String, String> categoryPrompts) throws Exception {
+        llmRequests.incrementAndGet();
+        String prompt = buildClassificationPrompt(from, subject, preview);
+        String response = ollamaService.chatStructured(model, prompt, buildCategorySystemPrompt(categoryPrompts),
+                null, SINGLE_FORMAT, 64);
+        EmailClassification classification = parseStructured(response);
+        llmClassified.incrementAndGet();
+        remember(from, subject, categoryPrompts, classification);
+        return classification;
+    }
+
+    // ==================== Cache and Rules ====================
+
+    /**
+     * Cache lookup, then rule fast path; null if the model has to decide
+     */
+    private EmailClassification classifyWithoutModel(String from, String subject, String preview,
+                                                     Map<String, String> categoryPrompts) {
+        String sender = normalizeSender(from);
+        String definitions = definitionsKey(categoryPrompts);
+
+        EmailClassification cached = fingerprintCache.getIfPresent(fingerprint(definitions, sender, subject));
+        if (cached == null && !sender.isEmpty()) {
+            SenderStats stats = senderCache.getIfPresent(definitions + "|" + sender);
+            if (stats != null && stats.streak() >= senderStreak && "werbung".equals(stats.category())) {
+                cached = new EmailClassification("werbung", stats.confidence(), "Bekannter Werbe-Absender");
+            }
+        }
+        if (cached != null) {
+            cacheHits.incrementAndGet();
+            log.debug("Classification cache hit for {}: {}", sender, cached.category);
+            return cached.withSource("cache");
+        }
+
+        EmailClassification rule = applyRules(sender, subject, preview);
+        if (rule != null && rule.confidence >= ruleConfidenceThreshold) {
+            ruleHits.incrementAndGet();
+            log.debug("Rule classification for {}: {} ({})", sender, rule.category, rule.reasoning);
+            return rule;
+        }
+        return null;
+    }
+
+    /**
+     * Keyword and sender rules; the second matching signal adds a little confidence
+     */
+    private EmailClassification applyRules(String sender, String subject, String preview) {
+        String subjectText = subject != null ? subject : "";
+        String previewText = preview != null ? preview : "";
+
+        boolean bulkSender = BULK_SENDER.matcher(sender).find();
+        boolean social = SOCIAL_DOMAIN.matcher(sender).find();
+        boolean unsubscribe = UNSUBSCRIBE.matcher(subjectText).find() || UNSUBSCRIBE.matcher(previewText).find();
+
+        if (bulkSender || social || unsubscribe) {
+            int signals = (bulkSender ? 1 : 0) + (social ? 1 : 0) + (unsubscribe ? 1 : 0);
+            double confidence = (bulkSender || social ? 0.9 : 0.8) + 0.05 * (signals - 1);
+            String reason = bulkSender ? "Massen-Absender" : social ? "Social-Media-Benachrichtigung" : "Newsletter-Hinweis";
+            return new EmailClassification("werbung", Math.min(0.99, confidence), "Regel: " + reason, "rule");
+        }
+        if (URGENT.matcher(subjectText).find()) {
+            return new EmailClassification("wichtig", 0.85, "Regel: Dringlichkeits-Stichwort im Betreff", "rule");
+        }
+        return null;
+    }
+
+    private void remember(String from, String subject, Map<String, String> categoryPrompts,
+                          EmailClassification classification) {
+        String sender = normalizeSender(from);
+        String definitions = definitionsKey(categoryPrompts);
+        fingerprintCache.put(fingerprint(definitions, sender, subject), classification);
+        if (!sender.isEmpty()) {
+            senderCache.asMap().compute(definitions + "|" + sender, (key, previous) ->
+                    previous != null && previous.category().equals(classification.category)
+                            ? new SenderStats(classification.category, previous.streak() + 1,
+                                    Math.min(previous.confidence(), classification.confidence))
+                            : new SenderStats(classification.category, 1, classification.confidence));
+        }
+    }
+
+    private static String fingerprint(String definitions, String sender, String subject) {
+        String shape = subject == null ? "" : SUBJECT_PREFIX.matcher(subject.trim().toLowerCase(Locale.ROOT))
+                .replaceFirst("")
+                .replaceAll("\\d+", "#")
+                .replaceAll("\\s+", " ");
+        return definitions + "|" + sender + "|" + shape;
+    }
+
+    private static String normalizeSender(String from) {
+        if (from == null) {
+            return "";
+        }
+        Matcher m = ADDRESS.matcher(from);
+        String address = m.find() ? m.group(1) : from;
+        return address.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Custom definitions change the meaning of the categories - keep their results apart
+     */
+    private static String definitionsKey(Map<String, String> categoryPrompts) {
+        return categoryPrompts == null || categoryPrompts.isEmpty()
+                ? "default"
+                : Integer.toHexString(Objects.hashCode(categoryPrompts));
+    }
+
+    private static String messageId(Map<String, Object> email) {
+        Object id = email.get("messageId");
+        return id != null ? id.toString() : "unknown";
+    }
+
+    /**
+     * Counters since startup (cache hits, rule hits, LLM requests)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cacheHits", cacheHits.get());
+        stats.put("ruleHits", ruleHits.get());
+        stats.put("llmRequests", llmRequests.get());
+        stats.put("llmClassified", llmClassified.get());
+        stats.put("cachedFingerprints", fingerprintCache.estimatedSize());
+        return stats;
+    }
+
+    // ==================== Prompts ====================
+
+    /**
+     * Model priority: mate's preferred model, email settings model, selected model, fallback
+     */
+    private String resolveModel(String preferredModel) {
         // Priority 1: Mate's preferred model
-        String model = (String) emailData.get("preferredModel");
+        String model = preferredModel;
 
         if (model == null || model.isEmpty()) {
             // Priority 2: Email settings model
@@ -52,31 +408,14 @@ public class EmailClassificationService {
         } else {
             log.info("Using mate's preferred model: {}", model);
         }
-
-        log.info("Classifying email from: {} - Subject: {} with model: {}", from, subject, model);
-
-        String prompt = buildClassificationPrompt(from, subject, preview, categoryPrompts);
-
-        try {
-            String response = ollamaService.chat(model, prompt, null, null);
-            EmailClassification classification = parseClassification(response);
-
-            log.info("Email classified as: {} (confidence: {})",
-                    classification.category, classification.confidence);
-
-            return classification;
-
-        } catch (Exception e) {
-            log.error("Failed to classify email", e);
-            // Fallback classification
-            return new EmailClassification("abzuarbeiten", 0.5, "Fehler bei Klassifizierung");
-        }
+        return model;
     }
 
     /**
-     * Build classification prompt
+     * Category definitions as system prompt - identical for every request with the same
+     * definitions, so single and batch requests share one cached prefix
      */
-    private String buildClassificationPrompt(String from, String subject, String preview, Map<String, String> customPrompts) {
+    private String buildCategorySystemPrompt(Map<String, String> customPrompts) {
         // Default category definitions (detailliert)
         String wichtigDef = """
             Wichtige Emails von bekannten Kontakten, Vorgesetzten, wichtigen Kunden.
@@ -118,12 +457,12 @@ public class EmailClassificationService {
             if (customPrompts.containsKey("werbung") && !customPrompts.get("werbung").isEmpty()) {
                 werbungDef = customPrompts.get("werbung");
             }
-            log.info("Using custom category prompts from Mate");
+            log.debug("Using custom category prompts from Mate");
         }
 
         return String.format("""
             Du bist ein intelligenter Email-Klassifizierungs-Assistent.
-            Klassifiziere folgende Email in GENAU EINE dieser Kategorien:
+            Jede Email gehört in GENAU EINE dieser Kategorien:
 
             **WICHTIG:**
             %s
@@ -133,24 +472,115 @@ public class EmailClassificationService {
 
             **WERBUNG:**
             %s
+            """,
+            wichtigDef, abzuarbeitenDef, werbungDef
+        );
+    }
 
+    /**
+     * Build classification prompt for a single email
+     */
+    private String buildClassificationPrompt(String from, String subject, String preview) {
+        return String.format("""
             **ZU KLASSIFIZIERENDE EMAIL:**
             Von: %s
             Betreff: %s
             Vorschau: %s
 
-            **ANTWORT-FORMAT (GENAU SO):**
-            Kategorie: [wichtig|abzuarbeiten|werbung]
-            Confidence: [0.0-1.0]
-            Begründung: [1-2 Sätze warum]
+            **ANTWORT-FORMAT (JSON):**
+            {"category": "wichtig|abzuarbeiten|werbung", "confidence": 0.0-1.0, "reason": "ein kurzer Satz warum"}
             """,
-            wichtigDef, abzuarbeitenDef, werbungDef,
             from, subject, preview
         );
     }
 
     /**
-     * Parse AI response into classification
+     * Numbered list of emails; the answer is one short line per email
+     */
+    private String buildBatchPrompt(List<Map<String, Object>> batch) {
+        StringBuilder emails = new StringBuilder();
+        for (int i = 0; i < batch.size(); i++) {
+            Map<String, Object> email = batch.get(i);
+            String preview = Objects.toString(email.get("preview"), "").replaceAll("\\s+", " ").trim();
+            if (preview.length() > BATCH_PREVIEW_CHARS) {
+                preview = preview.substring(0, BATCH_PREVIEW_CHARS) + "…";
+            }
+            emails.append('[').append(i + 1).append("] Von: ").append(email.get("from"))
+                    .append(" | Betreff: ").append(email.get("subject"))
+                    .append(" | Vorschau: ").append(preview).append('\n');
+        }
+
+        return String.format("""
+            **ZU KLASSIFIZIERENDE EMAILS:**
+            %s
+            **ANTWORT-FORMAT (JSON, ein Eintrag pro Email, keine Begründung):**
+            {"results": [{"nr": 1, "category": "werbung", "confidence": 0.9}, ...]}
+
+            Antworte mit genau %d Einträgen.
+            """,
+            emails, batch.size()
+        );
+    }
+
+    /**
+     * Batch schema: exactly one entry per email
+     */
+    private static StructuredOutput batchFormat(int size) {
+        return StructuredOutput.jsonSchema(
+                "{\"type\":\"object\",\"properties\":{\"results\":{\"type\":\"array\",\"minItems\":" + size
+                        + ",\"maxItems\":" + size + ",\"items\":{\"type\":\"object\",\"properties\":{"
+                        + "\"nr\":{\"type\":\"integer\",\"minimum\":1,\"maximum\":" + size + "},"
+                        + "\"category\":" + CATEGORY_ENUM + ",\"confidence\":" + CONFIDENCE + "},"
+                        + "\"required\":[\"nr\",\"category\",\"confidence\"]}}},\"required\":[\"results\"]}");
+    }
+
+    /**
+     * Parse the batch JSON; unknown numbers and duplicates are ignored (those emails are retried singly)
+     */
+    private Map<Integer, EmailClassification> parseBatchResponse(String response, int size) {
+        Map<Integer, EmailClassification> results = new HashMap<>();
+        JsonNode entries;
+        try {
+            entries = objectMapper.readTree(response).path("results");
+        } catch (Exception e) {
+            log.warn("Batch classification response is not valid JSON: {}", e.getMessage());
+            return results;
+        }
+        for (JsonNode entry : entries) {
+            int index = entry.path("nr").asInt(-1);
+            String category = entry.path("category").asText("").toLowerCase(Locale.ROOT);
+            if (index < 1 || index > size || results.containsKey(index) || !isCategory(category)) {
+                continue;
+            }
+            double confidence = Math.max(0.0, Math.min(1.0, entry.path("confidence").asDouble(0.7)));
+            results.put(index, new EmailClassification(category, confidence, "Batch-Klassifizierung", "llm"));
+        }
+        return results;
+    }
+
+    /**
+     * Parse the schema-constrained answer; backends that ignore the schema fall back to the lenient parser
+     */
+    private EmailClassification parseStructured(String response) {
+        try {
+            JsonNode node = objectMapper.readTree(response);
+            String category = node.path("category").asText("").toLowerCase(Locale.ROOT);
+            if (isCategory(category)) {
+                double confidence = Math.max(0.0, Math.min(1.0, node.path("confidence").asDouble(0.7)));
+                return new EmailClassification(category, confidence, node.path("reason").asText(""));
+            }
+        } catch (Exception e) {
+            log.debug("Classification response is not JSON, parsing as text");
+        }
+        return parseClassification(response);
+    }
+
+    private static boolean isCategory(String category) {
+        return "wichtig".equals(category) || "abzuarbeiten".equals(category) || "werbung".equals(category);
+    }
+
+    /**
+     * Parse free-text AI response into classification (fallback for backends without schema support)
      */
     private EmailClassification parseClassification(String response) {
         String category = "abzuarbeiten"; // default
@@ -215,11 +645,37 @@ public class EmailClassificationService {
         public String category;
         public double confidence;
         public String reasoning;
+        /** Where the result came from: llm, rule or cache */
+        public String source;
 
         public EmailClassification(String category, double confidence, String reasoning) {
+            this(category, confidence, reasoning, "llm");
+        }
+
+        public EmailClassification(String category, double confidence, String reasoning, String source) {
             this.category = category;
             this.confidence = confidence;
             this.reasoning = reasoning;
+            this.source = source;
+        }
+
+        EmailClassification withSource(String newSource) {
+            return new EmailClassification(category, confidence, reasoning, newSource);
         }
     }
+
+    /**
+     * One streamed result of a batch
+     */
+    public record BatchResult(String messageId, Map<String, Object> email, EmailClassification classification) {
+    }
+
+    /**
+     * Totals of a finished batch
+     */
+    public record BatchSummary(int total, int withoutModel, int classifiedByModel, int llmRequests, long durationMs) {
+    }
+
+    private record SenderStats(String category, int streak, double confidence) {
+    }
 }
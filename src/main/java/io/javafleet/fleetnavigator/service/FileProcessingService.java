@@ -1,29 +1,48 @@
 package io.javafleet.fleetnavigator.service;
 
+import io.javafleet.fleetnavigator.exception.FileUploadException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.sourceforge.tess4j.TesseractException;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.rendering.PDFRenderer;
 import org.apache.pdfbox.rendering.ImageType;
 import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Service for processing uploaded files (PDFs, images, text files)
  *
  * Verwendet Tesseract OCR für gescannte PDFs (zuverlässige Textextraktion).
  * Vision Models werden nur für echte Bildanalyse verwendet, nicht für OCR.
+ *
+ * Gescannte PDFs werden Seite für Seite in Graustufen gerendert und direkt an den
+ * OCR-Pool übergeben; die Auflösung richtet sich nach der Seitengröße.
+ *
+ * PDFs werden in eine Temp-Datei gespoolt und von PDFBox mit begrenztem Heap gelesen
+ * (Rest in Scratch-Dateien), Text wird Seite für Seite extrahiert. Bilder und
+ * gerenderte Seiten landen im {@link AttachmentStore} - die Antwort enthält nur
+ * Referenzen statt Base64-Strings.
+ *
+ * Textformate (TXT, MD, HTML, JSON, XML, CSV) landen komplett im Heap und in der Antwort;
+ * sie werden daher begrenzt aus dem Upload-Stream gelesen, unabhängig vom Upload-Limit.
+ *
+ * Extrahierter PDF-Text wird über den SHA-256 der Datei im {@link ContentBlobStore}
+ * gemerkt: lädt jemand dieselbe Datei erneut hoch, entfallen Parsing und OCR.
  */
 @Service
 @Slf4j
@@ -31,6 +50,33 @@ import java.util.List;
 public class FileProcessingService {
 
     private final TesseractOCRService tesseractService;
+    private final AttachmentStore attachmentStore;
+    private final ContentBlobStore contentBlobStore;
+
+    /** Max. Heap für PDFBox pro Dokument, darüber Scratch-Dateien */
+    @Value("${fleet-navigator.upload.pdf-max-main-memory-mb:16}")
+    private long pdfMaxMainMemoryMb = 16;
+
+    // Seitenbilder für das Vision-Fallback liegen als Base64 im Heap und im Modell-Kontext
+    private static final int MAX_VISION_PAGES = 10;
+
+    /** Max. Größe für Textformate, die vollständig gepuffert werden */
+    @Value("${fleet-navigator.upload.text-max-mb:16}")
+    private long textMaxMb = 16;
+
+    /** Max. Seiten für OCR (0 = alle) */
+    @Value("${fleet-navigator.ocr.max-pages:0}")
+    private int ocrMaxPages = 0;
+
+    @Value("${fleet-navigator.ocr.max-dpi:300}")
+    private int ocrMaxDpi = 300;
+
+    @Value("${fleet-navigator.ocr.min-dpi:150}")
+    private int ocrMinDpi = 150;
+
+    /** Pixel-Budget pro Seite: A4 bei 300 DPI (~8,7 Megapixel) */
+    @Value("${fleet-navigator.ocr.target-megapixels:8.7}")
+    private double ocrTargetMegapixels = 8.7;
 
     /**
      * Process uploaded file based on its type
@@ -61,44 +107,41 @@ public class FileProcessingService {
             processPDF(file, result);
 
         } else if (contentType.startsWith("image/")) {
-            // Encode image as Base64 for Vision models (PNG, JPG, WebP, BMP, GIF, TIFF)
+            // Store image for Vision models (PNG, JPG, WebP, BMP, GIF, TIFF); base64 is produced at send time
             // Vision models are appropriate for actual image analysis (photos, diagrams)
-            String base64 = encodeImageToBase64(file);
-            result.setBase64Content(base64);
+            try (InputStream in = file.getInputStream()) {
+                result.setAttachmentRef(attachmentStore.store(in));
+            }
+            log.info("Stored image as attachment {} ({} bytes)", result.getAttachmentRef(), file.getSize());
             result.setType("image");
 
         } else if (contentType.equals("application/json") || lowerFilename.endsWith(".json")) {
             // JSON file
-            String text = new String(file.getBytes(), StandardCharsets.UTF_8);
-            result.setTextContent(text);
+            result.setTextContent(readText(file));
             result.setType("json");
 
         } else if (contentType.equals("application/xml") || contentType.equals("text/xml") ||
                    lowerFilename.endsWith(".xml")) {
             // XML file
-            String text = new String(file.getBytes(), StandardCharsets.UTF_8);
-            result.setTextContent(text);
+            result.setTextContent(readText(file));
             result.setType("xml");
 
         } else if (contentType.equals("text/csv") || lowerFilename.endsWith(".csv")) {
             // CSV file - format nicely for LLM
-            String text = new String(file.getBytes(), StandardCharsets.UTF_8);
-            result.setTextContent(text);
+            result.setTextContent(readText(file));
             result.setType("csv");
 
         } else if (contentType.equals("text/html") || lowerFilename.endsWith(".html") ||
                    lowerFilename.endsWith(".htm")) {
             // HTML file
-            String text = new String(file.getBytes(), StandardCharsets.UTF_8);
-            result.setTextContent(text);
+            result.setTextContent(readText(file));
             result.setType("html");
 
         } else if (contentType.startsWith("text/") ||
                    lowerFilename.endsWith(".txt") ||
                    lowerFilename.endsWith(".md")) {
             // Plain text or Markdown file
-            String text = new String(file.getBytes(), StandardCharsets.UTF_8);
-            result.setTextContent(text);
+            result.setTextContent(readText(file));
             result.setType("text");
 
         } else {
@@ -109,16 +152,60 @@ public class FileProcessingService {
         return result;
     }
 
+    /**
+     * Liest ein Textformat als UTF-8 - höchstens {@code text-max-mb}, auch wenn getSize() nicht stimmt
+     */
+    private String readText(MultipartFile file) throws IOException {
+        long limit = textMaxMb * 1024 * 1024;
+        if (file.getSize() > limit) {
+            throw FileUploadException.fileTooLarge(textMaxMb);
+        }
+        try (InputStream in = file.getInputStream()) {
+            byte[] bytes = in.readNBytes(Math.toIntExact(limit + 1));
+            if (bytes.length > limit) {
+                throw FileUploadException.fileTooLarge(textMaxMb);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
     /**
      * Process PDF file - determines if it's text-based or scanned
      * Uses Tesseract OCR for scanned PDFs (reliable text extraction)
      */
     private void processPDF(MultipartFile file, ProcessedFile result) throws IOException {
-        try (PDDocument document = PDDocument.load(file.getInputStream())) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            String text = stripper.getText(document);
-            int textLength = text.trim().length();
+        // Spool to disk: PDFBox reads the file lazily instead of copying the stream into heap
+        Path spooled = Files.createTempFile("fleet-upload-", ".pdf");
+        try {
+            file.transferTo(spooled);
+            String sourceHash = ContentBlobStore.sha256(spooled);
+
+            Optional<ContentBlobStore.Extraction> known = contentBlobStore.findExtraction(sourceHash);
+            if (known.isPresent()) {
+                result.setTextContent(known.get().text());
+                result.setType("pdf");
+                result.setOcrUsed(known.get().ocrUsed());
+                log.info("PDF already known ({}), reusing extracted text", sourceHash.substring(0, 12));
+                return;
+            }
+
+            processPDF(spooled, result);
+
+            // Vision fallback produces images, not text - nothing to remember
+            if ("pdf".equals(result.getType()) && result.getTextContent() != null) {
+                contentBlobStore.rememberExtraction(sourceHash, result.getTextContent(), result.isOcrUsed());
+            }
+        } finally {
+            Files.deleteIfExists(spooled);
+        }
+    }
+
+    private void processPDF(Path pdf, ProcessedFile result) throws IOException {
+        MemoryUsageSetting memory = MemoryUsageSetting.setupMixed(pdfMaxMainMemoryMb * 1024 * 1024);
+        try (PDDocument document = PDDocument.load(pdf.toFile(), memory)) {
             int pageCount = document.getNumberOfPages();
+            String text = extractText(document, pageCount);
+            int textLength = text.trim().length();
 
             log.info("PDF has {} pages, extracted {} characters of text", pageCount, textLength);
 
@@ -135,22 +222,34 @@ public class FileProcessingService {
         }
     }
 
+    /**
+     * Extract text page by page (parsed page content can be released after each page)
+     */
+    private String extractText(PDDocument document, int pageCount) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        StringBuilder text = new StringBuilder();
+        for (int page = 1; page <= pageCount; page++) {
+            stripper.setStartPage(page);
+            stripper.setEndPage(page);
+            text.append(stripper.getText(document));
+        }
+        return text.toString();
+    }
+
     /**
      * Process scanned PDF - renders pages and applies Tesseract OCR
      * Falls back to Vision model images only if Tesseract is unavailable
      */
     private void processScannedPDF(PDDocument document, ProcessedFile result, int pageCount) throws IOException {
-        int maxPages = Math.min(pageCount, 10); // Max 10 pages
-
         // Check if Tesseract is available
         if (tesseractService.isAvailable()) {
-            log.info("Using Tesseract OCR for scanned PDF ({} pages)", maxPages);
+            int ocrPages = ocrMaxPages > 0 ? Math.min(pageCount, ocrMaxPages) : pageCount;
+            log.info("Using Tesseract OCR for scanned PDF ({} pages)", ocrPages);
             try {
-                // Render pages to BufferedImages
-                List<BufferedImage> pageImages = renderPDFPagesToImages(document, maxPages);
-
-                // Perform OCR on all pages
-                String ocrText = tesseractService.performOCROnPages(pageImages);
+                // Pages are rendered one at a time while earlier pages are being recognized
+                PDFRenderer renderer = new PDFRenderer(document);
+                String ocrText = tesseractService.performOCROnPages(ocrPages,
+                        page -> renderPageForOCR(document, renderer, page));
 
                 if (ocrText != null && !ocrText.trim().isEmpty()) {
                     result.setTextContent(ocrText);
@@ -169,71 +268,66 @@ public class FileProcessingService {
                     tesseractService.getUnavailableReason());
         }
 
-        // Fallback: Render as Base64 images for Vision model
+        // Fallback: Render as images for Vision model
         // Note: Vision models may hallucinate - this is a fallback only!
         log.info("Falling back to Vision model for scanned PDF (may be less accurate)");
-        List<String> pageImagesBase64 = renderPDFPagesToBase64(document, maxPages);
-        result.setPageImages(pageImagesBase64);
+        renderPDFPagesToAttachments(document, MAX_VISION_PAGES, result);
         result.setType("scanned-pdf");
         result.setTextContent("SCANNED_PDF:" + pageCount + " pages (Vision fallback - install Tesseract for better results)");
     }
 
     /**
-     * Render PDF pages to BufferedImages for Tesseract OCR
+     * Render a single PDF page for Tesseract OCR.
+     * Grayscale (Tesseract binarizes anyway) at a DPI chosen from the page size.
      */
-    private List<BufferedImage> renderPDFPagesToImages(PDDocument document, int maxPages) throws IOException {
-        List<BufferedImage> images = new ArrayList<>();
-        PDFRenderer renderer = new PDFRenderer(document);
-
-        int pagesToRender = Math.min(document.getNumberOfPages(), maxPages);
-        log.info("Rendering {} PDF pages to images for OCR", pagesToRender);
+    private BufferedImage renderPageForOCR(PDDocument document, PDFRenderer renderer, int page) throws IOException {
+        PDRectangle box = document.getPage(page).getMediaBox();
+        float dpi = adaptiveDpi(box.getWidth(), box.getHeight());
+        log.debug("Rendering page {} for OCR at {} DPI", page + 1, Math.round(dpi));
+        return renderer.renderImageWithDPI(page, dpi, ImageType.GRAY);
+    }
 
-        for (int page = 0; page < pagesToRender; page++) {
-            // Render at 300 DPI for good OCR quality
-            BufferedImage image = renderer.renderImageWithDPI(page, 300, ImageType.RGB);
-            images.add(image);
-            log.debug("Rendered page {} for OCR", page + 1);
+    /**
+     * DPI for a page so that the rendered image stays within the pixel budget:
+     * A4 and smaller get max DPI, large formats (A3, plans) are scaled down, never below min DPI
+     *
+     * @param widthPt  page width in PDF points (1/72 inch)
+     * @param heightPt page height in PDF points
+     */
+    float adaptiveDpi(float widthPt, float heightPt) {
+        double areaSquareInches = (widthPt / 72.0) * (heightPt / 72.0);
+        if (areaSquareInches <= 0) {
+            return ocrMaxDpi;
         }
-
-        return images;
+        double dpi = Math.sqrt(ocrTargetMegapixels * 1_000_000 / areaSquareInches);
+        return (float) Math.max(ocrMinDpi, Math.min(ocrMaxDpi, dpi));
     }
 
     /**
-     * Render PDF pages to Base64 images for Vision model analysis
+     * Render PDF pages to PNG attachments for Vision model analysis
      * Only used as fallback when Tesseract is unavailable
      */
-    private List<String> renderPDFPagesToBase64(PDDocument document, int maxPages) throws IOException {
-        List<String> pageImages = new ArrayList<>();
+    private void renderPDFPagesToAttachments(PDDocument document, int maxPages, ProcessedFile result)
+            throws IOException {
+        List<String> refs = new ArrayList<>();
+        List<Long> sizes = new ArrayList<>();
         PDFRenderer renderer = new PDFRenderer(document);
 
         int pagesToRender = Math.min(document.getNumberOfPages(), maxPages);
-        log.info("Rendering {} PDF pages to Base64 for Vision model", pagesToRender);
+        log.info("Rendering {} PDF pages to images for Vision model", pagesToRender);
 
         for (int page = 0; page < pagesToRender; page++) {
-            // Render at 300 DPI for better quality
+            // Render at 300 DPI for better quality, PNG is written straight to disk
             BufferedImage image = renderer.renderImageWithDPI(page, 300, ImageType.RGB);
-
-            // Convert to PNG Base64
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ImageIO.write(image, "PNG", baos);
-            String base64 = Base64.getEncoder().encodeToString(baos.toByteArray());
-
-            pageImages.add(base64);
-            log.debug("Rendered page {} to Base64 ({} bytes)", page + 1, baos.size());
+            String ref = attachmentStore.storePng(image);
+            refs.add(ref);
+            sizes.add(attachmentStore.size(ref));
+            log.debug("Rendered page {} to attachment {}", page + 1, ref);
         }
 
-        log.info("Rendered {} pages to Base64 images", pageImages.size());
-        return pageImages;
-    }
-
-    /**
-     * Encode image to Base64 for Vision models
-     */
-    private String encodeImageToBase64(MultipartFile file) throws IOException {
-        byte[] bytes = file.getBytes();
-        String base64 = Base64.getEncoder().encodeToString(bytes);
-        log.info("Encoded image to Base64 ({} bytes)", bytes.length);
-        return base64;
+        result.setPageImageRefs(refs);
+        result.setPageImageSizes(sizes);
+        log.info("Rendered {} pages to image attachments", refs.size());
     }
 
     /**
@@ -245,8 +339,9 @@ public class FileProcessingService {
         private long size;
         private String type; // "pdf", "image", "text", "scanned-pdf"
         private String textContent; // For PDFs and text files
-        private String base64Content; // For images
-        private List<String> pageImages; // For scanned PDFs (rendered pages as Base64)
+        private String attachmentRef; // For images (AttachmentStore reference)
+        private List<String> pageImageRefs; // For scanned PDFs (rendered pages in the AttachmentStore)
+        private List<Long> pageImageSizes; // PNG size per rendered page
         private boolean ocrUsed = false; // True if Tesseract OCR was used
 
         public String getFilename() {
@@ -289,20 +384,28 @@ public class FileProcessingService {
             this.textContent = textContent;
         }
 
-        public String getBase64Content() {
-            return base64Content;
+        public String getAttachmentRef() {
+            return attachmentRef;
+        }
+
+        public void setAttachmentRef(String attachmentRef) {
+            this.attachmentRef = attachmentRef;
+        }
+
+        public List<String> getPageImageRefs() {
+            return pageImageRefs;
         }
 
-        public void setBase64Content(String base64Content) {
-            this.base64Content = base64Content;
+        public void setPageImageRefs(List<String> pageImageRefs) {
+            this.pageImageRefs = pageImageRefs;
         }
 
-        public List<String> getPageImages() {
-            return pageImages;
+        public List<Long> getPageImageSizes() {
+            return pageImageSizes;
         }
 
-        public void setPageImages(List<String> pageImages) {
-            this.pageImages = pageImages;
+        public void setPageImageSizes(List<Long> pageImageSizes) {
+            this.pageImageSizes = pageImageSizes;
         }
 
         public boolean isOcrUsed() {
@@ -3,6 +3,7 @@ package io.javafleet.fleetnavigator.service;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.javafleet.fleetnavigator.config.StartupReport;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
@@ -86,8 +87,37 @@ public class FileSearchService {
             ".pdf", ".docx", ".doc", ".odt", ".txt", ".md", ".rtf"
     );
 
+    @Autowired
+    private StartupReport startupReport;
+
+    // Index geöffnet und Ordner-Konfiguration geladen (im Fast-Startup-Modus erst bei der ersten Nutzung)
+    private volatile boolean indexReady;
+
     @PostConstruct
     public void init() {
+        if (startupReport.isFast()) {
+            startupReport.deferred("lucene.open");
+        } else {
+            ensureIndex();
+        }
+    }
+
+    /**
+     * Öffnet Index und lädt die Ordner beim ersten Aufruf
+     */
+    private void ensureIndex() {
+        if (indexReady) {
+            return;
+        }
+        synchronized (this) {
+            if (!indexReady) {
+                startupReport.measure("lucene.open", this::openIndex);
+                indexReady = true;
+            }
+        }
+    }
+
+    private void openIndex() {
         try {
             // Create index directory
             Path indexDir = Paths.get(indexPath);
@@ -297,6 +327,7 @@ public class FileSearchService {
     // ==================== Folder Management ====================
 
     public void addSearchFolder(FileSearchConfig config) {
+        ensureIndex();
         if (config.getFolderId() == null) {
             config.setFolderId(UUID.randomUUID().toString());
         }
@@ -317,6 +348,7 @@ public class FileSearchService {
     }
 
     public void removeSearchFolder(String folderId) {
+        ensureIndex();
         FileSearchConfig config = searchConfigs.remove(folderId);
         if (config != null) {
             // Remove documents from index
@@ -337,6 +369,7 @@ public class FileSearchService {
      * Update a folder configuration and persist
      */
     public void updateSearchFolder(FileSearchConfig config) {
+        ensureIndex();
         if (config.getFolderId() != null && searchConfigs.containsKey(config.getFolderId())) {
             searchConfigs.put(config.getFolderId(), config);
             saveFolderConfigsToDatabase();
@@ -344,10 +377,12 @@ public class FileSearchService {
     }
 
     public List<FileSearchConfig> getSearchFolders() {
+        ensureIndex();
         return new ArrayList<>(searchConfigs.values());
     }
 
     public Optional<FileSearchConfig> getSearchFolder(String folderId) {
+        ensureIndex();
         return Optional.ofNullable(searchConfigs.get(folderId));
     }
 
@@ -365,6 +400,7 @@ public class FileSearchService {
      * Index all configured folders
      */
     public void indexAllFolders() {
+        ensureIndex();
         for (String folderId : searchConfigs.keySet()) {
             indexFolder(folderId);
         }
@@ -374,6 +410,7 @@ public class FileSearchService {
      * Index a specific folder
      */
     public void indexFolder(String folderId) {
+        ensureIndex();
         FileSearchConfig config = searchConfigs.get(folderId);
         if (config == null || !config.isEnabled()) return;
 
@@ -473,6 +510,7 @@ public class FileSearchService {
      * Main search method
      */
     public List<FileSearchResult> search(String query, SearchOptions options) {
+        ensureIndex();
         List<FileSearchResult> results = new ArrayList<>();
 
         if (query == null || query.trim().isEmpty()) {
@@ -816,6 +854,7 @@ public class FileSearchService {
     // ==================== Status ====================
 
     public Map<String, Object> getStatus() {
+        ensureIndex();
         Map<String, Object> status = new HashMap<>();
         status.put("indexingInProgress", indexingInProgress.get());
         status.put("indexedFileCount", indexedFileCount.get());
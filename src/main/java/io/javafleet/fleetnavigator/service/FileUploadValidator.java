@@ -2,6 +2,7 @@ package io.javafleet.fleetnavigator.service;
 
 import io.javafleet.fleetnavigator.exception.FileUploadException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -16,9 +17,9 @@ import java.util.regex.Pattern;
 @Slf4j
 public class FileUploadValidator {
 
-    // Maximale Dateigröße: 50 MB
-    private static final long MAX_FILE_SIZE_BYTES = 50 * 1024 * 1024;
-    private static final long MAX_FILE_SIZE_MB = 50;
+    // Maximale Dateigröße (Uploads werden gespoolt, der Heap-Bedarf hängt nicht von der Größe ab)
+    @Value("${fleet-navigator.upload.max-file-size-mb:512}")
+    private long maxFileSizeMb = 512;
 
     // Erlaubte Dateiendungen (Whitelist)
     private static final Set<String> ALLOWED_EXTENSIONS = Set.of(
@@ -119,10 +120,11 @@ public class FileUploadValidator {
      * Prüft die Dateigröße.
      */
     private void validateFileSize(MultipartFile file) {
-        if (file.getSize() > MAX_FILE_SIZE_BYTES) {
+        long maxBytes = maxFileSizeMb * 1024 * 1024;
+        if (file.getSize() > maxBytes) {
             log.warn("Datei zu groß: {} bytes (max: {} bytes)",
-                file.getSize(), MAX_FILE_SIZE_BYTES);
-            throw FileUploadException.fileTooLarge(MAX_FILE_SIZE_MB);
+                file.getSize(), maxBytes);
+            throw FileUploadException.fileTooLarge(maxFileSizeMb);
         }
     }
 
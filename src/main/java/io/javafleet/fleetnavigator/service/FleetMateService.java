@@ -2,10 +2,12 @@ package io.javafleet.fleetnavigator.service;
 
 import io.javafleet.fleetnavigator.dto.HardwareStats;
 import io.javafleet.fleetnavigator.dto.LogAnalysisRequest;
+import io.javafleet.fleetnavigator.util.SpoolFile;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.socket.WebSocketSession;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -23,7 +25,7 @@ public class FleetMateService {
     private final Map<String, MateInfo> mates = new ConcurrentHashMap<>();
     private final Map<String, HardwareStats> latestStats = new ConcurrentHashMap<>();
     private final Map<String, LogAnalysisRequest> pendingAnalyses = new ConcurrentHashMap<>();
-    private final Map<String, StringBuilder> logDataBuffers = new ConcurrentHashMap<>();
+    private final Map<String, SpoolFile> logDataBuffers = new ConcurrentHashMap<>();
 
     /**
      * Register a new Fleet Mate
@@ -137,26 +139,34 @@ public class FleetMateService {
      */
     public void storePendingAnalysis(String sessionId, LogAnalysisRequest request) {
         pendingAnalyses.put(sessionId, request);
-        logDataBuffers.put(sessionId, new StringBuilder());
+        try {
+            logDataBuffers.put(sessionId, SpoolFile.create("fleet-log-"));
+        } catch (IOException e) {
+            log.error("Could not create log spool for session {}: {}", sessionId, e.getMessage());
+        }
         log.info("Stored pending analysis: {}", sessionId);
     }
 
     /**
-     * Append log data chunk
+     * Append log data chunk (spooled to disk, not kept in heap)
      */
     public void appendLogData(String sessionId, String data) {
-        StringBuilder buffer = logDataBuffers.get(sessionId);
+        SpoolFile buffer = logDataBuffers.get(sessionId);
         if (buffer != null) {
-            buffer.append(data);
+            try {
+                buffer.append(data);
+            } catch (IOException e) {
+                log.error("Failed to spool log chunk for session {}: {}", sessionId, e.getMessage());
+            }
         }
     }
 
     /**
-     * Get complete log data and analysis request
+     * Hand over the spooled log data of a session.
+     * The caller owns the returned spool and must close it when done.
      */
-    public String getLogData(String sessionId) {
-        StringBuilder buffer = logDataBuffers.get(sessionId);
-        return buffer != null ? buffer.toString() : null;
+    public SpoolFile detachLogData(String sessionId) {
+        return logDataBuffers.remove(sessionId);
     }
 
     /**
@@ -171,7 +181,10 @@ public class FleetMateService {
      */
     public void removePendingAnalysis(String sessionId) {
         pendingAnalyses.remove(sessionId);
-        logDataBuffers.remove(sessionId);
+        SpoolFile buffer = logDataBuffers.remove(sessionId);
+        if (buffer != null) {
+            buffer.close();
+        }
     }
 
     /**
@@ -29,8 +29,8 @@ public class HuggingFaceService {
     private final OkHttpClient httpClient;
     private final ObjectMapper objectMapper;
 
-    public HuggingFaceService() {
-        this.httpClient = new OkHttpClient.Builder()
+    public HuggingFaceService(OkHttpClient sharedHttpClient) {
+        this.httpClient = sharedHttpClient.newBuilder()
                 .connectTimeout(30, TimeUnit.SECONDS)
                 .readTimeout(30, TimeUnit.SECONDS)
                 .build();
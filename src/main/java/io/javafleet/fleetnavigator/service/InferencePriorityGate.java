@@ -0,0 +1,66 @@
+package io.javafleet.fleetnavigator.service;
+
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks interactive LLM calls so background work can yield to them.
+ *
+ * Every call through {@link LLMProviderService} passes this gate. Calls whose request ID
+ * starts with {@link #BATCH_REQUEST_PREFIX} are background work; everything else is
+ * interactive. Listeners are told when an interactive call starts, so batch jobs can
+ * cancel their in-flight items and free the slots (or the JNI model lock) right away.
+ */
+@Service
+public class InferencePriorityGate {
+
+    public static final String BATCH_REQUEST_PREFIX = "batch-";
+
+    private final AtomicInteger interactive = new AtomicInteger();
+    private volatile long lastInteractiveNanos;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    public static boolean isBatchRequest(String requestId) {
+        return requestId != null && requestId.startsWith(BATCH_REQUEST_PREFIX);
+    }
+
+    public void begin(String requestId) {
+        if (isBatchRequest(requestId)) {
+            return;
+        }
+        interactive.incrementAndGet();
+        lastInteractiveNanos = System.nanoTime();
+        listeners.forEach(Runnable::run);
+    }
+
+    public void end(String requestId) {
+        if (isBatchRequest(requestId)) {
+            return;
+        }
+        interactive.decrementAndGet();
+        lastInteractiveNanos = System.nanoTime();
+    }
+
+    /**
+     * No interactive call running and none finished within {@code quietPeriod}
+     */
+    public boolean isIdle(Duration quietPeriod) {
+        long last = lastInteractiveNanos;
+        return interactive.get() == 0 && (last == 0 || System.nanoTime() - last >= quietPeriod.toNanos());
+    }
+
+    public int getInteractiveInFlight() {
+        return interactive.get();
+    }
+
+    /**
+     * Called on the caller's thread whenever an interactive call starts; keep it short
+     */
+    public void onInteractive(Runnable listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,472 @@
+package io.javafleet.fleetnavigator.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Inference telemetry: timing and throughput of every LLM call, per model, provider and expert.
+ *
+ * Measured around the provider call in {@link LLMProviderService}, so it works the same for
+ * java-llama-cpp, llamacpp, llama-server, Ollama and Fleet-Mate:
+ * - queue wait: request accepted by ChatService until the provider call starts
+ * - time to first token (TTFT); for streaming calls this is where prefill happens
+ * - prefill tokens/s (prompt tokens / TTFT) and decode tokens/s (after the first token)
+ * - tokens in/out, cancellations and errors
+ *
+ * Token counts use the same ~4 chars/token heuristic as {@code LLMProvider.estimateTokens}.
+ * Histograms are exported in Prometheus text format; the rolling dashboard is built from
+ * a bounded window of recent calls.
+ */
+@Slf4j
+@Service
+public class InferenceTelemetry {
+
+    // Bucket bounds in seconds (latencies) and tokens/s (throughput)
+    private static final double[] SECONDS_BUCKETS = {0.05, 0.1, 0.25, 0.5, 1, 2, 5, 10, 30, 60, 120, 300};
+    private static final double[] RATE_BUCKETS = {1, 2, 5, 10, 20, 30, 50, 75, 100, 200, 500, 1000, 5000};
+
+    @Value("${fleet-navigator.telemetry.window-size:1000}")
+    private int windowSize = 1000;
+
+    // Per-request bookkeeping; expires on its own so abandoned requests leave nothing behind
+    private final Cache<String, Long> acceptedAt = requestCache();
+    private final Cache<String, String> experts = requestCache();
+    private final Cache<String, Boolean> cancelled = requestCache();
+
+    private final Map<Labels, Series> series = new ConcurrentHashMap<>();
+    private final Deque<Sample> window = new ArrayDeque<>();
+    private final Map<String, CacheSource> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Request accepted by ChatService; queue wait is measured from here
+     */
+    public void accepted(String requestId) {
+        acceptedAt.put(requestId, System.nanoTime());
+    }
+
+    /**
+     * Label the calls of a request with the expert that answers it
+     */
+    public void tagExpert(String requestId, String expert) {
+        if (expert != null) {
+            experts.put(requestId, expert);
+        }
+    }
+
+    /**
+     * Request cancelled by the user or a closed stream
+     */
+    public void cancelled(String requestId) {
+        if (requestId != null) {
+            cancelled.put(requestId, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Start measuring one provider call
+     *
+     * @param prompt prompt and system prompt as sent (for the input token estimate)
+     */
+    public Call start(String requestId, String model, String provider, String mode, String... prompt) {
+        long chars = 0;
+        for (String part : prompt) {
+            chars += part != null ? part.length() : 0;
+        }
+        String baseRequestId = baseRequestId(requestId);
+        Long accepted = baseRequestId != null ? acceptedAt.asMap().remove(baseRequestId) : null;
+        String expert = baseRequestId != null ? experts.asMap().getOrDefault(baseRequestId, "none") : "none";
+        return new Call(requestId, baseRequestId, new Labels(label(model), label(provider), expert, mode),
+                chars / 4, accepted);
+    }
+
+    /**
+     * Average decode tokens/s of a model over the recent window; 0 if it has not run yet
+     */
+    public double getDecodeRate(String model) {
+        String name = label(model);
+        List<Sample> samples;
+        synchronized (window) {
+            samples = window.stream().filter(s -> s.labels().model().equalsIgnoreCase(name)).toList();
+        }
+        return average(samples, Sample::decodeRate);
+    }
+
+    /**
+     * Publish statistics of a Caffeine-backed cache
+     */
+    public void registerCache(String name, CacheSource source) {
+        caches.put(name, source);
+    }
+
+    /**
+     * Rolling dashboard over the recent window, grouped by model and provider
+     */
+    public Map<String, Object> getDashboard() {
+        List<Sample> samples;
+        synchronized (window) {
+            samples = new ArrayList<>(window);
+        }
+        Map<String, List<Sample>> byModel = samples.stream().collect(Collectors.groupingBy(
+                s -> s.labels().provider() + "/" + s.labels().model(), LinkedHashMap::new, Collectors.toList()));
+
+        List<Map<String, Object>> models = new ArrayList<>();
+        byModel.forEach((key, group) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("provider", group.get(0).labels().provider());
+            entry.put("model", group.get(0).labels().model());
+            entry.put("calls", group.size());
+            entry.put("errors", group.stream().filter(s -> "error".equals(s.outcome())).count());
+            entry.put("cancelled", group.stream().filter(s -> "cancelled".equals(s.outcome())).count());
+            entry.put("ttftMsP50", percentile(group, Sample::ttftMs, 0.5));
+            entry.put("ttftMsP95", percentile(group, Sample::ttftMs, 0.95));
+            entry.put("queueWaitMsP95", percentile(group, Sample::queueWaitMs, 0.95));
+            entry.put("prefillTokensPerSecond", average(group, Sample::prefillRate));
+            entry.put("decodeTokensPerSecond", average(group, Sample::decodeRate));
+            entry.put("tokensIn", group.stream().mapToLong(Sample::tokensIn).sum());
+            entry.put("tokensOut", group.stream().mapToLong(Sample::tokensOut).sum());
+            entry.put("experts", group.stream().map(s -> s.labels().expert()).distinct().toList());
+            models.add(entry);
+        });
+
+        Map<String, Object> dashboard = new LinkedHashMap<>();
+        dashboard.put("windowSize", windowSize);
+        dashboard.put("samples", samples.size());
+        dashboard.put("since", samples.isEmpty() ? null : samples.get(0).timestamp());
+        dashboard.put("models", models);
+        dashboard.put("caches", cacheStats());
+        return dashboard;
+    }
+
+    /**
+     * All metrics in Prometheus text exposition format (version 0.0.4)
+     */
+    public void writePrometheus(Writer out) throws IOException {
+        List<Map.Entry<Labels, Series>> entries = series.entrySet().stream()
+                .sorted(Comparator.comparing(e -> e.getKey().toString()))
+                .toList();
+
+        writeHistogram(out, entries, "fleet_inference_queue_wait_seconds",
+                "Time from request accepted to provider call", s -> s.queueWait);
+        writeHistogram(out, entries, "fleet_inference_ttft_seconds",
+                "Time to first token (prefill)", s -> s.ttft);
+        writeHistogram(out, entries, "fleet_inference_duration_seconds",
+                "Duration of the provider call", s -> s.duration);
+        writeHistogram(out, entries, "fleet_inference_prefill_tokens_per_second",
+                "Prompt tokens per second of time to first token", s -> s.prefillRate);
+        writeHistogram(out, entries, "fleet_inference_decode_tokens_per_second",
+                "Generated tokens per second after the first token", s -> s.decodeRate);
+
+        writeCounter(out, entries, "fleet_inference_tokens_in_total", "Prompt tokens (estimated)", s -> s.tokensIn);
+        writeCounter(out, entries, "fleet_inference_tokens_out_total", "Generated tokens (estimated)", s -> s.tokensOut);
+        writeCounter(out, entries, "fleet_inference_cancellations_total", "Cancelled calls", s -> s.cancellations);
+        writeCounter(out, entries, "fleet_inference_errors_total", "Failed calls", s -> s.errors);
+
+        Map<String, Map<String, Object>> cacheStats = cacheStats();
+        if (!cacheStats.isEmpty()) {
+            out.write("# HELP fleet_cache_requests_total Cache lookups\n# TYPE fleet_cache_requests_total counter\n");
+            for (Map.Entry<String, Map<String, Object>> cache : cacheStats.entrySet()) {
+                out.write("fleet_cache_requests_total{cache=\"" + escape(cache.getKey()) + "\",result=\"hit\"} "
+                        + cache.getValue().get("hits") + "\n");
+                out.write("fleet_cache_requests_total{cache=\"" + escape(cache.getKey()) + "\",result=\"miss\"} "
+                        + cache.getValue().get("misses") + "\n");
+            }
+            out.write("# HELP fleet_cache_evictions_total Cache evictions\n# TYPE fleet_cache_evictions_total counter\n");
+            for (Map.Entry<String, Map<String, Object>> cache : cacheStats.entrySet()) {
+                out.write("fleet_cache_evictions_total{cache=\"" + escape(cache.getKey()) + "\"} "
+                        + cache.getValue().get("evictions") + "\n");
+            }
+            out.write("# HELP fleet_cache_size Cache entries\n# TYPE fleet_cache_size gauge\n");
+            for (Map.Entry<String, Map<String, Object>> cache : cacheStats.entrySet()) {
+                out.write("fleet_cache_size{cache=\"" + escape(cache.getKey()) + "\"} "
+                        + cache.getValue().get("size") + "\n");
+            }
+        }
+    }
+
+    private void record(Sample sample) {
+        Series s = series.computeIfAbsent(sample.labels(), l -> new Series());
+        if (sample.queueWaitMs() >= 0) {
+            s.queueWait.observe(sample.queueWaitMs() / 1000.0);
+        }
+        if (sample.ttftMs() >= 0) {
+            s.ttft.observe(sample.ttftMs() / 1000.0);
+        }
+        s.duration.observe(sample.durationMs() / 1000.0);
+        if (sample.prefillRate() > 0) {
+            s.prefillRate.observe(sample.prefillRate());
+        }
+        if (sample.decodeRate() > 0) {
+            s.decodeRate.observe(sample.decodeRate());
+        }
+        s.tokensIn.add(sample.tokensIn());
+        s.tokensOut.add(sample.tokensOut());
+        if ("cancelled".equals(sample.outcome())) {
+            s.cancellations.increment();
+        } else if ("error".equals(sample.outcome())) {
+            s.errors.increment();
+        }
+
+        synchronized (window) {
+            window.addLast(sample);
+            while (window.size() > windowSize) {
+                window.removeFirst();
+            }
+        }
+        log.debug("Inference {}: ttft={}ms, decode={} tok/s, out={} tokens, {}",
+                sample.labels(), sample.ttftMs(), String.format(Locale.ROOT, "%.1f", sample.decodeRate()),
+                sample.tokensOut(), sample.outcome());
+    }
+
+    private Map<String, Map<String, Object>> cacheStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        caches.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(cache -> {
+            CacheStats cs = cache.getValue().stats();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("hits", cs.hitCount());
+            entry.put("misses", cs.missCount());
+            entry.put("hitRate", cs.requestCount() > 0 ? cs.hitRate() : 0.0);
+            entry.put("evictions", cs.evictionCount());
+            entry.put("size", cache.getValue().size());
+            stats.put(cache.getKey(), entry);
+        });
+        return stats;
+    }
+
+    private static void writeHistogram(Writer out, List<Map.Entry<Labels, Series>> entries, String name,
+                                       String help, Function<Series, Histogram> histogram)
+            throws IOException {
+        out.write("# HELP " + name + " " + help + "\n# TYPE " + name + " histogram\n");
+        for (Map.Entry<Labels, Series> entry : entries) {
+            Histogram h = histogram.apply(entry.getValue());
+            String labels = entry.getKey().prometheus();
+            long cumulative = 0;
+            for (int i = 0; i < h.bounds.length; i++) {
+                cumulative += h.buckets[i].sum();
+                out.write(name + "_bucket{" + labels + ",le=\"" + format(h.bounds[i]) + "\"} " + cumulative + "\n");
+            }
+            out.write(name + "_bucket{" + labels + ",le=\"+Inf\"} " + h.count.sum() + "\n");
+            out.write(name + "_sum{" + labels + "} " + format(h.sum()) + "\n");
+            out.write(name + "_count{" + labels + "} " + h.count.sum() + "\n");
+        }
+    }
+
+    private static void writeCounter(Writer out, List<Map.Entry<Labels, Series>> entries, String name,
+                                     String help, Function<Series, LongAdder> counter)
+            throws IOException {
+        out.write("# HELP " + name + " " + help + "\n# TYPE " + name + " counter\n");
+        for (Map.Entry<Labels, Series> entry : entries) {
+            out.write(name + "{" + entry.getKey().prometheus() + "} " + counter.apply(entry.getValue()).sum() + "\n");
+        }
+    }
+
+    private static long percentile(List<Sample> samples, ToLongFunction<Sample> value, double p) {
+        long[] values = samples.stream().mapToLong(value).filter(v -> v >= 0).sorted().toArray();
+        if (values.length == 0) {
+            return -1;
+        }
+        return values[(int) Math.min(values.length - 1, Math.ceil(p * values.length) - 1)];
+    }
+
+    private static double average(List<Sample> samples, ToDoubleFunction<Sample> value) {
+        double avg = samples.stream().mapToDouble(value).filter(v -> v > 0).average().orElse(0);
+        return Math.round(avg * 10) / 10.0;
+    }
+
+    private static <V> Cache<String, V> requestCache() {
+        return Caffeine.newBuilder().expireAfterWrite(Duration.ofHours(1)).maximumSize(10_000).build();
+    }
+
+    private static String baseRequestId(String requestId) {
+        if (requestId == null) {
+            return null;
+        }
+        // Sub-calls use suffixed IDs (e.g. "<id>-main", "<id>-vision")
+        return requestId.length() > 36 && requestId.charAt(36) == '-' ? requestId.substring(0, 36) : requestId;
+    }
+
+    private static String label(String value) {
+        if (value == null || value.isBlank()) {
+            return "unknown";
+        }
+        // Resolved GGUF paths: the file name is the model
+        int slash = Math.max(value.lastIndexOf('/'), value.lastIndexOf('\\'));
+        return slash >= 0 && slash < value.length() - 1 ? value.substring(slash + 1) : value;
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15
+                ? String.valueOf((long) value) + ".0"
+                : String.format(Locale.ROOT, "%.6f", value);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * One provider call being measured
+     */
+    public final class Call {
+        private final String requestId;
+        private final String baseRequestId;
+        private final Labels labels;
+        private final long tokensIn;
+        private final long queueWaitMs;
+        private final long start = System.nanoTime();
+        private volatile long firstChunk;
+        private final AtomicLong firstChunkChars = new AtomicLong();
+        private final AtomicLong chars = new AtomicLong();
+
+        private Call(String requestId, String baseRequestId, Labels labels, long tokensIn, Long acceptedNanos) {
+            this.requestId = requestId;
+            this.baseRequestId = baseRequestId;
+            this.labels = labels;
+            this.tokensIn = tokensIn;
+            this.queueWaitMs = acceptedNanos != null ? (start - acceptedNanos) / 1_000_000 : -1;
+        }
+
+        /**
+         * Wrap a chunk consumer to record first token and output length
+         */
+        public Consumer<String> wrap(Consumer<String> chunkConsumer) {
+            return chunk -> {
+                if (chunk != null && !chunk.isEmpty()) {
+                    if (firstChunk == 0) {
+                        firstChunk = System.nanoTime();
+                        firstChunkChars.set(chunk.length());
+                    }
+                    chars.addAndGet(chunk.length());
+                }
+                chunkConsumer.accept(chunk);
+            };
+        }
+
+        /**
+         * Non-streaming call finished with its full response
+         */
+        public void finish(String response) {
+            if (response != null) {
+                chars.addAndGet(response.length());
+            }
+            finish();
+        }
+
+        public void finish() {
+            complete(wasCancelled() ? "cancelled" : "ok");
+        }
+
+        public void fail(Throwable error) {
+            complete(wasCancelled() ? "cancelled" : "error");
+        }
+
+        private boolean wasCancelled() {
+            return requestId != null
+                    && (cancelled.getIfPresent(requestId) != null || cancelled.getIfPresent(baseRequestId) != null);
+        }
+
+        private void complete(String outcome) {
+            long end = System.nanoTime();
+            long durationMs = (end - start) / 1_000_000;
+            long ttftMs = firstChunk > 0 ? (firstChunk - start) / 1_000_000 : -1;
+            long tokensOut = chars.get() / 4;
+
+            double prefillRate = ttftMs > 0 ? tokensIn * 1000.0 / ttftMs : 0;
+            double decodeRate = 0;
+            if (firstChunk > 0 && end > firstChunk) {
+                long decodeTokens = (chars.get() - firstChunkChars.get()) / 4;
+                decodeRate = decodeTokens * 1_000_000_000.0 / (end - firstChunk);
+            } else if (firstChunk == 0 && durationMs > 0) {
+                // Non-streaming: only the overall rate is known
+                decodeRate = tokensOut * 1000.0 / durationMs;
+            }
+            record(new Sample(labels, System.currentTimeMillis(), queueWaitMs, ttftMs, durationMs,
+                    prefillRate, decodeRate, tokensIn, tokensOut, outcome));
+        }
+    }
+
+    /**
+     * Cache statistics source (Caffeine caches with recordStats)
+     */
+    public interface CacheSource {
+        CacheStats stats();
+
+        long size();
+    }
+
+    private record Labels(String model, String provider, String expert, String mode) {
+        String prometheus() {
+            return "model=\"" + escape(model) + "\",provider=\"" + escape(provider)
+                    + "\",expert=\"" + escape(expert) + "\",mode=\"" + escape(mode) + "\"";
+        }
+    }
+
+    private record Sample(Labels labels, long timestamp, long queueWaitMs, long ttftMs, long durationMs,
+                          double prefillRate, double decodeRate, long tokensIn, long tokensOut, String outcome) {}
+
+    private static final class Series {
+        final Histogram queueWait = new Histogram(SECONDS_BUCKETS);
+        final Histogram ttft = new Histogram(SECONDS_BUCKETS);
+        final Histogram duration = new Histogram(SECONDS_BUCKETS);
+        final Histogram prefillRate = new Histogram(RATE_BUCKETS);
+        final Histogram decodeRate = new Histogram(RATE_BUCKETS);
+        final LongAdder tokensIn = new LongAdder();
+        final LongAdder tokensOut = new LongAdder();
+        final LongAdder cancellations = new LongAdder();
+        final LongAdder errors = new LongAdder();
+    }
+
+    private static final class Histogram {
+        final double[] bounds;
+        final LongAdder[] buckets;
+        final LongAdder count = new LongAdder();
+        // Sum in micro-units to stay lock-free
+        final LongAdder sumMicros = new LongAdder();
+
+        Histogram(double[] bounds) {
+            this.bounds = bounds;
+            this.buckets = new LongAdder[bounds.length];
+            for (int i = 0; i < bounds.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void observe(double value) {
+            for (int i = 0; i < bounds.length; i++) {
+                if (value <= bounds[i]) {
+                    buckets[i].increment();
+                    break;
+                }
+            }
+            count.increment();
+            sumMicros.add(Math.round(value * 1_000_000));
+        }
+
+        double sum() {
+            return sumMicros.sum() / 1_000_000.0;
+        }
+    }
+}
@@ -3,11 +3,13 @@ package io.javafleet.fleetnavigator.service;
 import io.javafleet.fleetnavigator.config.LLMConfigProperties;
 import io.javafleet.fleetnavigator.llm.LLMProvider;
 import io.javafleet.fleetnavigator.llm.LLMProviderType;
+import io.javafleet.fleetnavigator.llm.StructuredOutput;
 import io.javafleet.fleetnavigator.llm.dto.ModelInfo;
 import io.javafleet.fleetnavigator.llm.providers.LlamaCppProvider;
 import io.javafleet.fleetnavigator.llm.providers.JavaLlamaCppProvider;
 import io.javafleet.fleetnavigator.llm.providers.OllamaProvider;
 import io.javafleet.fleetnavigator.llm.providers.ExternalLlamaServerProvider;
+import io.javafleet.fleetnavigator.llm.providers.MateInferenceProvider;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -39,6 +41,8 @@ public class LLMProviderService {
     private final Map<String, LLMProvider> providers;
     private final LLMConfigProperties config;
     private final SettingsService settingsService;
+    private final InferenceTelemetry telemetry;
+    private final InferencePriorityGate priorityGate;
     private LLMProvider activeProvider;
 
     /**
@@ -51,8 +55,11 @@ public class LLMProviderService {
             JavaLlamaCppProvider javaLlamaCppProvider,
             OllamaProvider ollamaProvider,
             ExternalLlamaServerProvider externalLlamaServerProvider,
+            MateInferenceProvider mateInferenceProvider,
             LLMConfigProperties config,
-            SettingsService settingsService
+            SettingsService settingsService,
+            InferenceTelemetry telemetry,
+            InferencePriorityGate priorityGate
     ) {
         // Manuelle Map-Erstellung statt Reflection
         // LinkedHashMap für definierte Reihenfolge: llama-server zuerst (Default für FleetCode)
@@ -61,9 +68,12 @@ public class LLMProviderService {
         providers.put("java-llama-cpp", javaLlamaCppProvider);  // JNI-based provider
         providers.put("llamacpp", llamaCppProvider);  // Server-based provider (legacy)
         providers.put("ollama", ollamaProvider);     // Ollama provider
+        providers.put("fleet-mate", mateInferenceProvider);  // Remote inference on Fleet Mates
 
         this.config = config;
         this.settingsService = settingsService;
+        this.telemetry = telemetry;
+        this.priorityGate = priorityGate;
         this.activeProvider = detectActiveProvider();
     }
 
@@ -138,7 +148,20 @@ public class LLMProviderService {
      * Generiert Text mit aktivem Provider (non-streaming)
      */
     public String chat(String model, String prompt, String systemPrompt, String requestId) throws IOException {
-        return activeProvider.chat(model, prompt, systemPrompt, requestId);
+        LLMProvider provider = activeProvider;
+        InferenceTelemetry.Call call = telemetry.start(requestId, model, provider.getProviderName(), "chat",
+                prompt, systemPrompt);
+        priorityGate.begin(requestId);
+        try {
+            String response = provider.chat(model, prompt, systemPrompt, requestId);
+            call.finish(response);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            call.fail(e);
+            throw e;
+        } finally {
+            priorityGate.end(requestId);
+        }
     }
 
     /**
@@ -162,8 +185,41 @@ public class LLMProviderService {
                            Integer maxTokens, Double temperature,
                            Double topP, Integer topK, Double repeatPenalty,
                            Integer numCtx, Boolean cpuOnly) throws IOException {
-        activeProvider.chatStream(model, prompt, systemPrompt, requestId, chunkConsumer,
-                maxTokens, temperature, topP, topK, repeatPenalty, numCtx, cpuOnly);
+        LLMProvider provider = activeProvider;
+        InferenceTelemetry.Call call = telemetry.start(requestId, model, provider.getProviderName(), "stream",
+                prompt, systemPrompt);
+        priorityGate.begin(requestId);
+        try {
+            provider.chatStream(model, prompt, systemPrompt, requestId, call.wrap(chunkConsumer),
+                    maxTokens, temperature, topP, topK, repeatPenalty, numCtx, cpuOnly);
+            call.finish();
+        } catch (IOException | RuntimeException e) {
+            call.fail(e);
+            throw e;
+        } finally {
+            priorityGate.end(requestId);
+        }
+    }
+
+    /**
+     * Strukturierte Antwort (JSON-Schema/GBNF) mit aktivem Provider
+     */
+    public String chatStructured(String model, String prompt, String systemPrompt, String requestId,
+                                 StructuredOutput format, Integer maxTokens) throws IOException {
+        LLMProvider provider = activeProvider;
+        InferenceTelemetry.Call call = telemetry.start(requestId, model, provider.getProviderName(), "structured",
+                prompt, systemPrompt);
+        priorityGate.begin(requestId);
+        try {
+            String response = provider.chatStructured(model, prompt, systemPrompt, requestId, format, maxTokens);
+            call.finish(response);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            call.fail(e);
+            throw e;
+        } finally {
+            priorityGate.end(requestId);
+        }
     }
 
     // ===== VISION-SUPPORT =====
@@ -173,7 +229,20 @@ public class LLMProviderService {
      */
     public String chatWithVision(String model, String prompt, List<String> images,
                                   String systemPrompt, String requestId) throws IOException {
-        return activeProvider.chatWithVision(model, prompt, images, systemPrompt, requestId);
+        LLMProvider provider = activeProvider;
+        InferenceTelemetry.Call call = telemetry.start(requestId, model, provider.getProviderName(), "vision",
+                prompt, systemPrompt);
+        priorityGate.begin(requestId);
+        try {
+            String response = provider.chatWithVision(model, prompt, images, systemPrompt, requestId);
+            call.finish(response);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            call.fail(e);
+            throw e;
+        } finally {
+            priorityGate.end(requestId);
+        }
     }
 
     /**
@@ -270,7 +339,19 @@ public class LLMProviderService {
     public void chatStreamWithVision(String model, String prompt, List<String> images,
                                       String systemPrompt, String requestId,
                                       Consumer<String> chunkConsumer) throws IOException {
-        activeProvider.chatStreamWithVision(model, prompt, images, systemPrompt, requestId, chunkConsumer);
+        LLMProvider provider = activeProvider;
+        InferenceTelemetry.Call call = telemetry.start(requestId, model, provider.getProviderName(), "vision-stream",
+                prompt, systemPrompt);
+        priorityGate.begin(requestId);
+        try {
+            provider.chatStreamWithVision(model, prompt, images, systemPrompt, requestId, call.wrap(chunkConsumer));
+            call.finish();
+        } catch (IOException | RuntimeException e) {
+            call.fail(e);
+            throw e;
+        } finally {
+            priorityGate.end(requestId);
+        }
     }
 
     /**
@@ -408,6 +489,7 @@ public class LLMProviderService {
      * Request abbrechen (aktiver Provider)
      */
     public boolean cancelRequest(String requestId) {
+        telemetry.cancelled(requestId);
         return activeProvider.cancelRequest(requestId);
     }
 
@@ -420,6 +502,20 @@ public class LLMProviderService {
         return activeProvider.estimateTokens(text);
     }
 
+    /**
+     * Parallele Slots des aktiven Providers
+     */
+    public int getParallelSlots() {
+        return Math.max(1, activeProvider.getParallelSlots());
+    }
+
+    /**
+     * Geladene Modelle des aktiven Providers (leer wenn unbekannt)
+     */
+    public Set<String> getResidentModels() {
+        return activeProvider.getResidentModels();
+    }
+
     // ===== PROVIDER-MANAGEMENT =====
 
     /**
@@ -1,25 +1,63 @@
 package io.javafleet.fleetnavigator.service;
 
 import io.javafleet.fleetnavigator.dto.LogAnalysisRequest;
+import io.javafleet.fleetnavigator.util.LogTemplateMiner;
+import io.javafleet.fleetnavigator.util.LogWindowSplitter;
+import io.javafleet.fleetnavigator.util.SpoolFile;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Service for AI-powered log analysis using LLMProviderService
+ * Service for AI-powered log analysis using LLMProviderService.
+ *
+ * Logs of any size are analyzed as a streaming map-reduce:
+ * <ul>
+ *   <li>A template-mining pre-pass ({@link LogTemplateMiner}) collapses repeated lines
+ *       into counted templates; only the first occurrences reach the LLM</li>
+ *   <li>While the log is still arriving it is cut into token-budgeted windows
+ *       ({@link LogWindowSplitter}); each full window is summarized right away</li>
+ *   <li>Window summaries run in parallel, limited to the provider's slot count</li>
+ *   <li>Partial findings are reduced (hierarchically if needed) into a final
+ *       report that is streamed to the client; if a reduce round fails, the
+ *       partial findings are streamed as they are</li>
+ * </ul>
+ * Logs that fit into a single window are analyzed directly in one pass.
+ *
+ * A session ends when the SSE client goes away ({@link #closeSession}) or, if no
+ * client ever starts the analysis, after {@code pending-ttl-seconds} without data.
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class LogAnalysisService {
 
+    private static final String SYSTEM_PROMPT = "Du bist ein erfahrener Linux System-Administrator und Experte für Log-Analyse. " +
+            "Analysiere das Log präzise, strukturiert und auf Deutsch.";
+
     private final LLMProviderService llmProviderService;
     private final SettingsService settingsService;
     private final ExecutorService executorService = Executors.newCachedThreadPool();
@@ -27,6 +65,33 @@ public class LogAnalysisService {
     // Store active analysis sessions
     private final Map<String, AnalysisSession> activeSessions = new ConcurrentHashMap<>();
 
+    @Value("${fleet-navigator.log-analysis.window-tokens:2000}")
+    private int windowTokens = 2000;
+
+    @Value("${fleet-navigator.log-analysis.map-output-tokens:384}")
+    private int mapOutputTokens = 384;
+
+    @Value("${fleet-navigator.log-analysis.reduce-input-tokens:2500}")
+    private int reduceInputTokens = 2500;
+
+    @Value("${fleet-navigator.log-analysis.max-parallel:8}")
+    private int maxParallel = 8;
+
+    @Value("${fleet-navigator.log-analysis.idle-timeout-seconds:60}")
+    private int idleTimeoutSeconds = 60;
+
+    @Value("${fleet-navigator.log-analysis.pending-ttl-seconds:300}")
+    private int pendingTtlSeconds = 300;
+
+    @Value("${fleet-navigator.log-analysis.max-templates:1000}")
+    private int maxTemplates = 1000;
+
+    @Value("${fleet-navigator.log-analysis.template-exemplars:2}")
+    private int templateExemplars = 2;
+
+    @Value("${fleet-navigator.log-analysis.template-digest-tokens:1500}")
+    private int templateDigestTokens = 1500;
+
     /**
      * Create pending session (before log is read) so SSE can connect
      */
@@ -50,6 +115,8 @@ public class LogAnalysisService {
         session.prompt = request.getPrompt();
         session.logContent = null; // Will be set later when log is read
         session.emitter = null; // Will be set when SSE connects
+        session.splitter = newSplitter(session);
+        session.miner = newMiner(session);
 
         activeSessions.put(sessionId, session);
 
@@ -67,37 +134,134 @@ public class LogAnalysisService {
     }
 
     /**
-     * Send progress update to SSE stream
+     * The SSE client is gone (completion, timeout or error): drop queued LLM calls and the log spool
+     */
+    public void closeSession(String sessionId) {
+        AnalysisSession session = activeSessions.get(sessionId);
+        if (session != null) {
+            close(session);
+        }
+    }
+
+    /**
+     * Close sessions whose analysis was never started and that received no data for the TTL
+     */
+    @Scheduled(fixedRate = 60 * 1000, initialDelay = 60 * 1000)
+    public void expireAbandonedSessions() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(pendingTtlSeconds);
+        for (AnalysisSession session : activeSessions.values()) {
+            if (!session.started && session.lastDataAt < cutoff) {
+                log.info("Closing log analysis session {}: no client started it within {} s",
+                        session.sessionId, pendingTtlSeconds);
+                close(session);
+            }
+        }
+    }
+
+    /**
+     * Send progress update to SSE stream (reading phase reports 0-50%)
      */
     public void sendProgress(String sessionId, double progress) {
+        AnalysisSession session = activeSessions.get(sessionId);
+        if (session != null) {
+            session.lastDataAt = System.currentTimeMillis();
+            if (progress < 50) {
+                session.readProgress = progress;
+            }
+        }
+        sendProgress(sessionId, progress, progress < 50 ? "reading" : "analyzing", Map.of());
+    }
+
+    private void sendProgress(String sessionId, double progress, String phase, Map<String, Object> details) {
         AnalysisSession session = activeSessions.get(sessionId);
         if (session != null && session.emitter != null) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("progress", progress);
+            data.put("phase", phase);
+            data.putAll(details);
             try {
                 session.emitter.send(SseEmitter.event()
                     .name("progress")
-                    .data(Map.of(
-                        "progress", progress,
-                        "phase", progress < 50 ? "reading" : "analyzing"
-                    )));
-            } catch (IOException e) {
+                    .data(data));
+            } catch (IOException | IllegalStateException e) {
                 log.debug("Failed to send progress event: {}", e.getMessage());
             }
         }
     }
 
     /**
-     * Update session with log content when reading is complete
+     * Feed log text while it is still arriving; full windows are summarized immediately
+     */
+    public void appendLogData(String sessionId, String text) {
+        AnalysisSession session = activeSessions.get(sessionId);
+        if (session != null) {
+            synchronized (session) {
+                session.streamed = true;
+                session.lastDataAt = System.currentTimeMillis();
+                session.miner.append(text);
+            }
+        }
+    }
+
+    /**
+     * Feed raw UTF-8 log bytes (chunked transfers)
+     */
+    public void appendLogData(String sessionId, byte[] data) {
+        AnalysisSession session = activeSessions.get(sessionId);
+        if (session != null) {
+            synchronized (session) {
+                session.streamed = true;
+                session.lastDataAt = System.currentTimeMillis();
+                session.miner.append(data);
+            }
+        }
+    }
+
+    /**
+     * The log is being re-sent from the start (e.g. transfer restart): drop windows seen so far
+     */
+    public void resetLogData(String sessionId) {
+        AnalysisSession session = activeSessions.get(sessionId);
+        if (session != null) {
+            synchronized (session) {
+                session.generation++;
+                session.pendingTasks.clear();
+                session.partials.clear();
+                session.mapsDone.set(0);
+                session.splitter = newSplitter(session);
+                session.miner = newMiner(session);
+            }
+            log.info("Log data for session {} restarted, discarding partial windows", sessionId);
+        }
+    }
+
+    /**
+     * Update session with log content when reading is complete.
+     * The session takes ownership of the spool and deletes it after the analysis.
      */
-    public void updateSessionWithLogContent(String sessionId, String logContent) {
+    public void updateSessionWithLogContent(String sessionId, SpoolFile logContent) {
         AnalysisSession session = activeSessions.get(sessionId);
         if (session != null) {
             session.logContent = logContent;
-            log.info("Updated session {} with log content ({} bytes)", sessionId, logContent.length());
+            session.logReady.complete(logContent);
+            log.info("Updated session {} with log content ({} bytes)", sessionId, logContent.size());
+        } else {
+            logContent.close();
         }
     }
 
     /**
-     * Analyze log with Ollama and stream results to SSE emitter
+     * Reading the log failed (transfer error) - end the analysis instead of waiting for the timeout
+     */
+    public void failLogContent(String sessionId, Throwable error) {
+        AnalysisSession session = activeSessions.get(sessionId);
+        if (session != null) {
+            session.logReady.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Analyze log and stream results to SSE emitter
      */
     public void analyzeLogWithStreaming(String sessionId, SseEmitter emitter) {
         AnalysisSession session = activeSessions.get(sessionId);
@@ -112,100 +276,57 @@ public class LogAnalysisService {
             }
             return;
         }
+        session.emitter = emitter;
+        session.started = true;
 
         executorService.execute(() -> {
             try {
-                // Wait for log content to be available (max 60 seconds for large logs)
-                int maxWaitSeconds = 60;
-                int waited = 0;
-                while (session.logContent == null && waited < maxWaitSeconds) {
-                    Thread.sleep(1000);
-                    waited++;
-
-                    // Log progress every 10 seconds
-                    if (waited % 10 == 0) {
-                        log.info("Still waiting for log content for session {}, waited {} seconds", sessionId, waited);
-                    }
-                }
-
-                if (session.logContent == null) {
-                    log.error("Timeout waiting for log content for session {} after {} seconds", sessionId, waited);
-                    emitter.send(SseEmitter.event()
-                        .name("error")
-                        .data("Timeout: Log-Inhalt wurde nicht empfangen. Möglicherweise ist die WebSocket-Verbindung abgebrochen."));
-                    emitter.completeWithError(new Exception("Log content not received after " + waited + " seconds"));
-                    activeSessions.remove(sessionId);
-                    return;
-                }
-
-                // Limit log content to prevent context overflow (max ~50k chars ≈ 12k tokens)
-                String logContent = session.logContent;
-                if (logContent.length() > 50000) {
-                    log.warn("Log content too large ({} chars), truncating to 50k", logContent.length());
-                    logContent = logContent.substring(0, 50000) + "\n\n[... Log gekürzt, zu groß für Kontext ...]";
-                }
-
-                String analysisPrompt = buildAnalysisPrompt(logContent, session.prompt);
+                awaitLogContent(session);
+                checkOpen(session);
 
                 // Send start event
                 emitter.send(SseEmitter.event()
                     .name("start")
                     .data(Map.of("model", session.model, "timestamp", System.currentTimeMillis())));
 
-                // Signal analysis phase starting (50%)
-                sendProgress(sessionId, 50.0);
-
-                // Use LLMProviderService for streaming analysis
-                String systemPrompt = "Du bist ein erfahrener Linux System-Administrator und Experte für Log-Analyse. " +
-                    "Analysiere das Log präzise, strukturiert und auf Deutsch.";
-
-                // Track tokens for progress estimation
-                final int[] tokenCount = {0};
-                final int estimatedMaxTokens = 4096;
-
-                llmProviderService.chatStream(
-                    session.model,
-                    analysisPrompt,
-                    systemPrompt,
-                    sessionId,
-                    chunk -> {
-                        try {
-                            // Send chunk immediately (don't batch)
-                            emitter.send(SseEmitter.event()
-                                .name("chunk")
-                                .data(Map.of("chunk", chunk, "done", false)));
-
-                            // Update analysis progress (50-100% based on token generation)
-                            tokenCount[0] += chunk.length() / 4; // Rough estimate: 4 chars = 1 token
-                            double analysisProgress = 50.0 + (50.0 * Math.min(1.0, (double) tokenCount[0] / estimatedMaxTokens));
-                            sendProgress(sessionId, analysisProgress);
-
-                            // Small delay to prevent overwhelming the connection
-                            Thread.sleep(10);
-                        } catch (IOException e) {
-                            log.error("Error sending chunk to SSE emitter: {}", e.getMessage());
-                            throw new RuntimeException("SSE connection broken", e);
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                            throw new RuntimeException("Stream interrupted", e);
-                        }
-                    },
-                    4096,  // maxTokens - limit output length
-                    0.7,   // temperature
-                    null,  // topP
-                    null,  // topK
-                    null,  // repeatPenalty
-                    null   // numCtx
-                );
+                // Mates without streamed data: window the spooled log now
+                if (!session.streamed) {
+                    feedFromSpool(session);
+                }
+
+                String singleWindow = null;
+                int windowCount;
+                synchronized (session) {
+                    session.miner.finish();
+                    session.templateDigest = session.miner.render(templateDigestTokens * 4);
+                    if (session.splitter.isSingleWindow()) {
+                        singleWindow = session.splitter.takeRemainder();
+                    } else {
+                        session.splitter.finish();
+                    }
+                    windowCount = session.splitter.getWindowCount();
+                    session.logComplete = true;
+                }
+                log.info("Template mining for session {}: {} lines -> {} templates, {} lines forwarded to the LLM",
+                        sessionId, session.miner.getLineCount(), session.miner.getTemplateCount(),
+                        session.miner.getForwardedLines());
+
+                if (singleWindow != null) {
+                    analyzeSinglePass(session, singleWindow);
+                } else {
+                    log.info("Map-reduce analysis for session {}: {} windows ({} chars)",
+                            sessionId, windowCount, session.splitter.getTotalChars());
+                    List<String> findings = awaitMapPhase(session);
+                    reduceAndStream(session, findings);
+                }
 
                 // Send completion event
                 emitter.send(SseEmitter.event()
                     .name("done")
                     .data(Map.of("timestamp", System.currentTimeMillis())));
 
+                close(session);
                 emitter.complete();
-                activeSessions.remove(sessionId);
-
                 log.info("Completed log analysis session: {}", sessionId);
 
             } catch (Exception e) {
@@ -213,24 +334,345 @@ public class LogAnalysisService {
                 try {
                     emitter.send(SseEmitter.event()
                         .name("error")
-                        .data("Analysis failed: " + e.getMessage()));
+                        .data(errorMessage(e)));
                     emitter.completeWithError(e);
-                } catch (IOException ioEx) {
+                } catch (IOException | IllegalStateException ioEx) {
                     log.error("Failed to send error event", ioEx);
                 }
+            } finally {
+                close(session);
+            }
+        });
+    }
+
+    /**
+     * Wait for the completion signal; only give up if no data arrived for the idle timeout
+     */
+    private void awaitLogContent(AnalysisSession session) throws Exception {
+        while (true) {
+            try {
+                session.logReady.get(5, TimeUnit.SECONDS);
+                return;
+            } catch (TimeoutException e) {
+                checkOpen(session);
+                long idleMs = System.currentTimeMillis() - session.lastDataAt;
+                if (idleMs > TimeUnit.SECONDS.toMillis(idleTimeoutSeconds)) {
+                    log.error("Timeout waiting for log content for session {} ({} s without data)",
+                            session.sessionId, idleMs / 1000);
+                    throw new TimeoutException("Log content not received after " + idleMs / 1000 + " seconds");
+                }
+            } catch (ExecutionException e) {
+                throw new IOException("Log konnte nicht gelesen werden: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    private static void checkOpen(AnalysisSession session) throws IOException {
+        if (session.closed) {
+            throw new IOException("Analyse abgebrochen: Client getrennt");
+        }
+    }
+
+    private static String errorMessage(Exception e) {
+        if (e instanceof TimeoutException) {
+            return "Timeout: Log-Inhalt wurde nicht empfangen. Möglicherweise ist die WebSocket-Verbindung abgebrochen.";
+        }
+        return "Analysis failed: " + e.getMessage();
+    }
+
+    private void feedFromSpool(AnalysisSession session) throws IOException {
+        char[] buffer = new char[64 * 1024];
+        try (Reader reader = session.logContent.openReader()) {
+            int read;
+            while ((read = reader.read(buffer)) > 0) {
+                synchronized (session) {
+                    session.miner.append(java.nio.CharBuffer.wrap(buffer, 0, read));
+                }
+            }
+        }
+    }
+
+    // ==================== Single Pass ====================
+
+    /**
+     * Small logs: one prompt, streamed directly
+     */
+    private void analyzeSinglePass(AnalysisSession session, String logContent) throws IOException {
+        sendProgress(session.sessionId, 50.0, "analyzing", Map.of());
+        streamToClient(session, buildAnalysisPrompt(logContent, session.templateDigest, session.prompt), 50.0, 100.0);
+    }
+
+    // ==================== Map Phase ====================
+
+    private LogWindowSplitter newSplitter(AnalysisSession session) {
+        return new LogWindowSplitter(windowTokens * 4, window -> submitMap(session, window));
+    }
+
+    /**
+     * Pre-pass in front of the splitter: repeated lines are only counted, novel ones are windowed
+     */
+    private LogTemplateMiner newMiner(AnalysisSession session) {
+        return new LogTemplateMiner(maxTemplates, templateExemplars, line -> session.splitter.append(line));
+    }
+
+    /**
+     * Called under the session lock whenever the splitter emits a full window
+     */
+    private void submitMap(AnalysisSession session, LogWindowSplitter.Window window) {
+        int generation = session.generation;
+        CompletableFuture<String> summary = submitLlmTask(session,
+                () -> summarize(session, buildMapPrompt(window, session.prompt), "map-" + window.index()))
+                .exceptionally(ex -> {
+                    log.warn("Window {} of session {} failed: {}", window.index(), session.sessionId, ex.getMessage());
+                    return "[Abschnitt Zeilen " + window.firstLine() + "-" + window.lastLine()
+                            + " konnte nicht analysiert werden]";
+                });
+        session.partials.add(summary);
+        summary.thenRun(() -> {
+            if (generation == session.generation) {
+                onMapDone(session);
             }
         });
     }
 
+    private void onMapDone(AnalysisSession session) {
+        int done = session.mapsDone.incrementAndGet();
+        int total = session.partials.size();
+        // Before the log is complete the total is still growing - keep reporting read progress
+        double progress = session.logComplete
+                ? 50.0 + 40.0 * done / Math.max(1, total)
+                : session.readProgress;
+        sendProgress(session.sessionId, progress, "mapping", Map.of("windowsDone", done, "windowsTotal", total));
+    }
+
+    private List<String> awaitMapPhase(AnalysisSession session) {
+        List<CompletableFuture<String>> partials;
+        synchronized (session) {
+            partials = new ArrayList<>(session.partials);
+        }
+        sendProgress(session.sessionId, 50.0 + 40.0 * session.mapsDone.get() / Math.max(1, partials.size()),
+                "mapping", Map.of("windowsDone", session.mapsDone.get(), "windowsTotal", partials.size()));
+        CompletableFuture.allOf(partials.toArray(new CompletableFuture[0])).join();
+        return partials.stream().map(CompletableFuture::join).toList();
+    }
+
+    // ==================== Reduce Phase ====================
+
+    /**
+     * Merge findings until they fit into one prompt, then stream the final report
+     */
+    private void reduceAndStream(AnalysisSession session, List<String> findings) throws IOException {
+        int budgetChars = reduceInputTokens * 4;
+        int round = 0;
+        while (totalLength(findings) > budgetChars && findings.size() > 1) {
+            checkOpen(session);
+            round++;
+            List<List<String>> groups = group(findings, budgetChars);
+            log.info("Reduce round {} for session {}: {} findings -> {} groups",
+                    round, session.sessionId, findings.size(), groups.size());
+
+            List<CompletableFuture<String>> merged = new ArrayList<>(groups.size());
+            AtomicInteger done = new AtomicInteger();
+            final int currentRound = round;
+            for (int i = 0; i < groups.size(); i++) {
+                List<String> group = groups.get(i);
+                String requestSuffix = "reduce-" + round + "-" + i;
+                CompletableFuture<String> future = submitLlmTask(session,
+                        () -> summarize(session, buildReducePrompt(group, null, session.prompt, false), requestSuffix));
+                future.thenRun(() -> sendProgress(session.sessionId,
+                        90.0 + 5.0 * done.incrementAndGet() / groups.size(), "reducing",
+                        Map.of("round", currentRound, "groupsDone", done.get(), "groupsTotal", groups.size())));
+                merged.add(future);
+            }
+            try {
+                findings = merged.stream().map(CompletableFuture::join).toList();
+            } catch (CompletionException | CancellationException e) {
+                checkOpen(session);
+                log.warn("Reduce round {} for session {} failed, streaming {} partial findings instead: {}",
+                        round, session.sessionId, findings.size(), e.getMessage());
+                streamFindings(session, findings);
+                return;
+            }
+        }
+
+        sendProgress(session.sessionId, 95.0, "reducing", Map.of("round", round + 1, "final", true));
+        streamToClient(session, buildReducePrompt(findings, session.templateDigest, session.prompt, true), 95.0, 100.0);
+    }
+
+    /**
+     * Fallback without a final LLM pass: send the partial findings as the report
+     */
+    private void streamFindings(AnalysisSession session, List<String> findings) throws IOException {
+        StringBuilder report = new StringBuilder(
+                "⚠️ Die Zusammenfassung konnte nicht erstellt werden. Teilbefunde der Log-Abschnitte:\n\n");
+        for (String finding : findings) {
+            report.append(finding).append("\n\n");
+        }
+        session.emitter.send(SseEmitter.event()
+                .name("chunk")
+                .data(Map.of("chunk", report.toString(), "done", false)));
+        sendProgress(session.sessionId, 100.0, "analyzing", Map.of());
+    }
+
+    private static int totalLength(List<String> parts) {
+        return parts.stream().mapToInt(String::length).sum();
+    }
+
+    /**
+     * Greedy grouping into chunks below the budget (each group has at least two parts to guarantee progress)
+     */
+    private static List<List<String>> group(List<String> parts, int budgetChars) {
+        List<List<String>> groups = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int size = 0;
+        for (String part : parts) {
+            if (current.size() >= 2 && size + part.length() > budgetChars) {
+                groups.add(current);
+                current = new ArrayList<>();
+                size = 0;
+            }
+            current.add(part);
+            size += part.length();
+        }
+        if (!current.isEmpty()) {
+            groups.add(current);
+        }
+        return groups;
+    }
+
+    // ==================== LLM Calls ====================
+
+    /**
+     * Queue an LLM call; at most {@code slots} calls of a session run at once
+     */
+    private CompletableFuture<String> submitLlmTask(AnalysisSession session, Callable<String> task) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        synchronized (session) {
+            if (session.closed) {
+                return CompletableFuture.failedFuture(new CancellationException("Session closed"));
+            }
+            session.pendingTasks.add(() -> {
+                if (session.closed) {
+                    future.completeExceptionally(new CancellationException("Session closed"));
+                    return;
+                }
+                try {
+                    future.complete(task.call());
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        }
+        pump(session);
+        return future;
+    }
+
+    private void pump(AnalysisSession session) {
+        List<Runnable> toStart = new ArrayList<>();
+        synchronized (session) {
+            int limit = Math.max(1, Math.min(maxParallel, llmProviderService.getParallelSlots()));
+            while (!session.closed && session.inFlight < limit && !session.pendingTasks.isEmpty()) {
+                session.inFlight++;
+                toStart.add(session.pendingTasks.poll());
+            }
+        }
+        for (Runnable task : toStart) {
+            executorService.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    synchronized (session) {
+                        session.inFlight--;
+                    }
+                    pump(session);
+                }
+            });
+        }
+    }
+
     /**
-     * Build analysis prompt for LLM
+     * Non-streamed, short summary (map step or intermediate reduce)
      */
-    private String buildAnalysisPrompt(String logContent, String customPrompt) {
+    private String summarize(AnalysisSession session, String prompt, String requestSuffix) throws IOException {
+        StringBuilder result = new StringBuilder();
+        llmProviderService.chatStream(
+                session.model,
+                prompt,
+                SYSTEM_PROMPT,
+                session.sessionId + "-" + requestSuffix,
+                result::append,
+                mapOutputTokens,
+                0.2,   // low temperature for factual extraction
+                null, null, null, null);
+        return result.toString().trim();
+    }
+
+    /**
+     * Stream the final answer to the client; progress moves from {@code from} to {@code to} with generated tokens
+     */
+    private void streamToClient(AnalysisSession session, String prompt, double from, double to) throws IOException {
+        SseEmitter emitter = session.emitter;
+        final int[] tokenCount = {0};
+        final int estimatedMaxTokens = 4096;
+
+        llmProviderService.chatStream(
+            session.model,
+            prompt,
+            SYSTEM_PROMPT,
+            session.sessionId,
+            chunk -> {
+                try {
+                    // Send chunk immediately (don't batch)
+                    emitter.send(SseEmitter.event()
+                        .name("chunk")
+                        .data(Map.of("chunk", chunk, "done", false)));
+
+                    tokenCount[0] += chunk.length() / 4; // Rough estimate: 4 chars = 1 token
+                    double progress = from + (to - from) * Math.min(1.0, (double) tokenCount[0] / estimatedMaxTokens);
+                    sendProgress(session.sessionId, progress, "analyzing", Map.of());
+                } catch (IOException e) {
+                    log.error("Error sending chunk to SSE emitter: {}", e.getMessage());
+                    throw new RuntimeException("SSE connection broken", e);
+                }
+            },
+            estimatedMaxTokens,  // maxTokens - limit output length
+            0.7,   // temperature
+            null,  // topP
+            null,  // topK
+            null,  // repeatPenalty
+            null   // numCtx
+        );
+    }
+
+    private void close(AnalysisSession session) {
+        List<Runnable> dropped;
+        synchronized (session) {
+            session.closed = true;
+            dropped = new ArrayList<>(session.pendingTasks);
+            session.pendingTasks.clear();
+        }
+        // Queued calls fail fast instead of leaving their futures open
+        dropped.forEach(Runnable::run);
+        activeSessions.remove(session.sessionId);
+        if (session.logContent != null) {
+            session.logContent.close();
+        }
+    }
+
+    // ==================== Prompts ====================
+
+    /**
+     * Build analysis prompt for LLM (template overview plus first occurrences of each template)
+     */
+    private String buildAnalysisPrompt(String logContent, String templateDigest, String customPrompt) {
         String defaultPrompt = """
             Du bist ein erfahrener Linux System-Administrator und Experte für Log-Analyse.
 
             Analysiere folgendes System-Log:
 
+            %s
+            Auszug (erste Vorkommen je Template):
+
             ```
             %s
             ```
@@ -247,11 +689,90 @@ public class LogAnalysisService {
             Verwende Markdown-Formatierung für bessere Lesbarkeit.
             """;
 
-        String task = (customPrompt != null && !customPrompt.isEmpty())
+        return String.format(defaultPrompt, templateSection(templateDigest), logContent, task(customPrompt));
+    }
+
+    /**
+     * Map step: extract findings of one window as short bullet points
+     */
+    private String buildMapPrompt(LogWindowSplitter.Window window, String customPrompt) {
+        String mapPrompt = """
+            Log-Abschnitt %d (Zeilen %d-%d):
+
+            ```
+            %s
+            ```
+
+            Fokus: %s
+
+            Extrahiere nur die relevanten Befunde dieses Abschnitts als kurze Stichpunkte:
+            - Fehler und kritische Meldungen mit Zeitstempel
+            - Warnungen
+            - Auffällige Muster oder Wiederholungen (mit Anzahl)
+            Höchstens 10 Stichpunkte, keine Einleitung.
+            Wenn der Abschnitt unauffällig ist, antworte nur: "Keine Auffälligkeiten (Zeilen %d-%d)".
+            """;
+
+        return String.format(mapPrompt, window.index() + 1, window.firstLine(), window.lastLine(),
+                window.text(), task(customPrompt), window.firstLine(), window.lastLine());
+    }
+
+    /**
+     * Reduce step: merge partial findings; the final step produces the full report
+     */
+    private String buildReducePrompt(List<String> findings, String templateDigest, String customPrompt,
+                                     boolean finalReport) {
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < findings.size(); i++) {
+            joined.append("### Teilbefund ").append(i + 1).append('\n').append(findings.get(i)).append("\n\n");
+        }
+
+        if (!finalReport) {
+            return """
+                Fasse die folgenden Teilbefunde einer Log-Analyse zusammen.
+                Behalte alle Fehler mit Zeitstempel, fasse Wiederholungen mit Anzahl zusammen,
+                lasse unauffällige Abschnitte weg. Nur Stichpunkte, keine Einleitung.
+
+                %s
+                """.formatted(joined);
+        }
+
+        return """
+            Die folgenden Teilbefunde stammen aus der abschnittsweisen Analyse eines großen System-Logs
+            (in zeitlicher Reihenfolge):
+
+            %s
+            %s
+
+            %s
+
+            Erstelle daraus eine strukturierte Gesamtanalyse mit:
+            1. 🔴 Kritische Fehler (CRITICAL/ERROR) - mit Zeitstempel und Kontext
+            2. ⚠️  Warnungen (WARNING) - potenzielle Probleme
+            3. 📊 Auffälligkeiten - ungewöhnliche Muster oder Wiederholungen
+            4. 💡 Empfehlungen - konkrete Handlungsvorschläge
+
+            Antworte auf Deutsch, präzise und technisch fundiert.
+            Verwende Markdown-Formatierung für bessere Lesbarkeit.
+            """.formatted(joined, templateSection(templateDigest), task(customPrompt));
+    }
+
+    private static String templateSection(String templateDigest) {
+        if (templateDigest == null || templateDigest.isEmpty()) {
+            return "";
+        }
+        return """
+            Template-Übersicht des gesamten Logs (Fehler und seltene Muster zuerst;
+            <TS>, <IP>, <NUM>, <UUID>, <HEX> und <*> sind Platzhalter für variable Werte):
+
+            %s
+            """.formatted(templateDigest);
+    }
+
+    private static String task(String customPrompt) {
+        return (customPrompt != null && !customPrompt.isEmpty())
             ? customPrompt
             : "Analysiere das Log nach Fehlern, Warnungen und Auffälligkeiten.";
-
-        return String.format(defaultPrompt, logContent, task);
     }
 
     /**
@@ -261,8 +782,27 @@ public class LogAnalysisService {
         String sessionId;
         String mateId;
         String model;
-        String logContent;
+        volatile SpoolFile logContent;
         String prompt;
-        SseEmitter emitter;
+        volatile SseEmitter emitter;
+
+        // Completion signal for the reading phase
+        final CompletableFuture<SpoolFile> logReady = new CompletableFuture<>();
+        volatile long lastDataAt = System.currentTimeMillis();
+        volatile double readProgress;
+        volatile boolean streamed;
+        volatile boolean logComplete;
+        volatile boolean started;
+
+        // Map-reduce state (guarded by the session lock)
+        LogWindowSplitter splitter;
+        LogTemplateMiner miner;
+        volatile String templateDigest;
+        volatile int generation;
+        final List<CompletableFuture<String>> partials = new ArrayList<>();
+        final Deque<Runnable> pendingTasks = new ArrayDeque<>();
+        final AtomicInteger mapsDone = new AtomicInteger();
+        int inFlight;
+        volatile boolean closed;
     }
 }
@@ -0,0 +1,254 @@
+package io.javafleet.fleetnavigator.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.javafleet.fleetnavigator.dto.RAGRequest;
+import io.javafleet.fleetnavigator.dto.RAGResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.Deflater;
+
+/**
+ * Navigator-side cache for file contents and search results from Fleet Mates.
+ *
+ * File bodies are cached per mate, path and read variant (maxLength/extractText) and
+ * carry the mtime and size they were read at. Before a cached body is served the
+ * caller validates it with a cheap {@code stat_file} round-trip, so a changed file is
+ * never returned stale. The cache is bounded by body bytes; bodies above a threshold
+ * are stored deflate-compressed.
+ *
+ * Mates that do not answer {@code stat_file} in time are remembered for a while; their
+ * cached bodies are revalidated by a full read until the entry expires or the mate
+ * reconnects. All entries of a mate are dropped when it disconnects.
+ *
+ * Search results are memoized for a short TTL. The in-flight future itself is cached,
+ * so identical concurrent searches share one mate round-trip.
+ */
+@Slf4j
+@Component
+public class MateContentCache {
+
+    @Value("${fleet-navigator.mate-cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${fleet-navigator.mate-cache.max-bytes:67108864}")
+    private long maxBytes = 64L * 1024 * 1024;
+
+    @Value("${fleet-navigator.mate-cache.compress-threshold-bytes:4096}")
+    private int compressThresholdBytes = 4096;
+
+    @Value("${fleet-navigator.mate-cache.search-ttl-seconds:60}")
+    private long searchTtlSeconds = 60;
+
+    @Value("${fleet-navigator.mate-cache.stat-retry-minutes:10}")
+    private long statRetryMinutes = 10;
+
+    private Cache<FileKey, CachedFile> fileCache;
+    private Cache<SearchKey, CompletableFuture<RAGResponse.SearchFilesResponse>> searchCache;
+    private Cache<String, Boolean> statUnsupportedMates;
+
+    @PostConstruct
+    void init() {
+        fileCache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((FileKey key, CachedFile value) -> value.body.length + 256)
+                .expireAfterAccess(Duration.ofHours(1))
+                .recordStats()
+                .build();
+
+        searchCache = Caffeine.newBuilder()
+                .maximumSize(500)
+                .expireAfterWrite(Duration.ofSeconds(searchTtlSeconds))
+                .recordStats()
+                .build();
+
+        statUnsupportedMates = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(statRetryMinutes))
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ==================== File Contents ====================
+
+    /**
+     * Cache key: mate, path and the read variant (different maxLength/extractText give different bodies)
+     */
+    public record FileKey(String mateId, String path, Integer maxLength, Boolean extractText) {
+        public static FileKey of(RAGRequest.ReadFile request) {
+            return new FileKey(request.getMateId(), request.getPath(), request.getMaxLength(), request.getExtractText());
+        }
+    }
+
+    /**
+     * Cached body that may be served if the file still has the same mtime and size
+     */
+    public CachedFile getFile(FileKey key) {
+        return enabled ? fileCache.getIfPresent(key) : null;
+    }
+
+    /**
+     * Store a successful read. Responses without mtime/size cannot be validated and are skipped.
+     */
+    public void putFile(FileKey key, RAGResponse.FileContentResponse response) {
+        if (!enabled || response.getContent() == null || response.getError() != null
+                || response.getModifiedAt() == null || response.getSize() == null) {
+            return;
+        }
+        byte[] raw = response.getContent().getBytes(StandardCharsets.UTF_8);
+        boolean compressed = raw.length >= compressThresholdBytes;
+        byte[] body = compressed ? SegmentStore.deflate(raw, Deflater.BEST_SPEED) : raw;
+        fileCache.put(key, new CachedFile(response, body, compressed, raw.length));
+        log.debug("Cached {} from mate {} ({} bytes, stored {} bytes)", key.path(), key.mateId(), raw.length, body.length);
+    }
+
+    public void invalidateFile(FileKey key) {
+        fileCache.invalidate(key);
+    }
+
+    /**
+     * Drop all cached entries of a mate (after it disconnected or was removed)
+     */
+    public void invalidateMate(String mateId) {
+        fileCache.asMap().keySet().removeIf(k -> k.mateId().equals(mateId));
+        searchCache.asMap().keySet().removeIf(k -> k.mateId().equals(mateId));
+        statUnsupportedMates.invalidate(mateId);
+    }
+
+    /**
+     * Remember that a mate did not answer {@code stat_file}; retried after {@code stat-retry-minutes}
+     */
+    public void markStatUnsupported(String mateId) {
+        statUnsupportedMates.put(mateId, Boolean.TRUE);
+    }
+
+    /**
+     * False while cached bodies of this mate cannot be validated with {@code stat_file}
+     */
+    public boolean canValidate(String mateId) {
+        return statUnsupportedMates.getIfPresent(mateId) == null;
+    }
+
+    /**
+     * A cached file body with the mtime/size it was read at
+     */
+    public static final class CachedFile {
+        private final RAGResponse.FileContentResponse meta;
+        private final byte[] body;
+        private final boolean compressed;
+        private final int rawLength;
+
+        private CachedFile(RAGResponse.FileContentResponse response, byte[] body, boolean compressed, int rawLength) {
+            // Keep the metadata without the (possibly large) content string
+            this.meta = RAGResponse.FileContentResponse.builder()
+                    .path(response.getPath())
+                    .name(response.getName())
+                    .contentType(response.getContentType())
+                    .size(response.getSize())
+                    .modifiedAt(response.getModifiedAt())
+                    .truncated(response.getTruncated())
+                    .build();
+            this.body = body;
+            this.compressed = compressed;
+            this.rawLength = rawLength;
+        }
+
+        /**
+         * True if a fresh stat still describes the cached version
+         */
+        public boolean matches(LocalDateTime modifiedAt, Long size) {
+            return Objects.equals(meta.getModifiedAt(), modifiedAt) && Objects.equals(meta.getSize(), size);
+        }
+
+        /**
+         * Rebuild a response for a new request
+         */
+        public RAGResponse.FileContentResponse toResponse(String sessionId) {
+            byte[] raw;
+            try {
+                raw = compressed ? SegmentStore.inflate(ByteBuffer.wrap(body), rawLength) : body;
+            } catch (IOException e) {
+                throw new IllegalStateException("Corrupt cache entry", e);
+            }
+            return RAGResponse.FileContentResponse.builder()
+                    .sessionId(sessionId)
+                    .path(meta.getPath())
+                    .name(meta.getName())
+                    .content(new String(raw, StandardCharsets.UTF_8))
+                    .contentType(meta.getContentType())
+                    .size(meta.getSize())
+                    .modifiedAt(meta.getModifiedAt())
+                    .truncated(meta.getTruncated())
+                    .build();
+        }
+    }
+
+    // ==================== Search Results ====================
+
+    /**
+     * Cache key over all search parameters (sessionId excluded)
+     */
+    public record SearchKey(String mateId, String query, List<String> searchPaths, List<String> fileTypes,
+                            Integer maxResults, Boolean searchContent, Boolean caseSensitive) {
+        public static SearchKey of(String mateId, RAGRequest.SearchFiles request) {
+            return new SearchKey(mateId, request.getQuery(), request.getSearchPaths(), request.getFileTypes(),
+                    request.getMaxResults(), request.getSearchContent(), request.getCaseSensitive());
+        }
+    }
+
+    /**
+     * Return the memoized search future or start a new search via {@code loader}.
+     * Failed searches are evicted so the next call retries.
+     */
+    public CompletableFuture<RAGResponse.SearchFilesResponse> getOrSearch(
+            SearchKey key, java.util.function.Supplier<CompletableFuture<RAGResponse.SearchFilesResponse>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        CompletableFuture<RAGResponse.SearchFilesResponse> future = searchCache.get(key, k -> loader.get());
+        // Registered outside the loader: a future that already failed must be removed after it was stored
+        future.whenComplete((result, ex) -> {
+            if (ex != null) {
+                searchCache.asMap().remove(key, future);
+            }
+        });
+        return future;
+    }
+
+    // ==================== Stats ====================
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("files", describe(fileCache.stats(), fileCache.estimatedSize()));
+        stats.put("fileBytes", fileCache.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L));
+        stats.put("maxBytes", maxBytes);
+        stats.put("searches", describe(searchCache.stats(), searchCache.estimatedSize()));
+        return stats;
+    }
+
+    private static Map<String, Object> describe(CacheStats stats, long size) {
+        return Map.of(
+                "entries", size,
+                "hits", stats.hitCount(),
+                "misses", stats.missCount(),
+                "hitRate", stats.hitRate(),
+                "evictions", stats.evictionCount());
+    }
+}
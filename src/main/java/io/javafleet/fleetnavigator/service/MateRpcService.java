@@ -0,0 +1,466 @@
+package io.javafleet.fleetnavigator.service;
+
+import io.javafleet.fleetnavigator.dto.MateCommand;
+import io.javafleet.fleetnavigator.util.LatencyHistogram;
+import io.javafleet.fleetnavigator.websocket.FleetMateWebSocketHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Correlated request/response multiplexer over the mate WebSocket channel.
+ *
+ * Every call gets a request ID that travels as {@code requestId} and - for
+ * compatibility with existing mates - as {@code sessionId}. Responses are matched
+ * by ID and checked against the response type declared by the {@link Command},
+ * so a late or misrouted message can never complete the wrong future.
+ *
+ * Features:
+ * <ul>
+ *   <li>Pipelining: many calls in flight per mate, limited by {@code max-in-flight};
+ *       excess calls are queued without blocking the caller</li>
+ *   <li>Batching: {@link #callBatch} packs N requests into one {@code batch} message;
+ *       the mate answers per request or with a single {@code batch_results}</li>
+ *   <li>Cancellation: timed out or cancelled calls send {@code rpc_cancel} to the mate</li>
+ *   <li>Fan-out: {@link #fanOut} runs the same command concurrently on several mates</li>
+ *   <li>Latency histograms per command type ({@link #getLatencyStats()})</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class MateRpcService {
+
+    private final FleetMateWebSocketHandler webSocketHandler;
+
+    private final Map<String, PendingCall<?>> pendingCalls = new ConcurrentHashMap<>();
+    private final Map<String, MateChannel> channels = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+    @Value("${fleet-navigator.mate-rpc.max-in-flight:16}")
+    private int maxInFlight = 16;
+
+    @Value("${fleet-navigator.mate-rpc.timeout-seconds:30}")
+    private long timeoutSeconds = 30;
+
+    public MateRpcService(FleetMateWebSocketHandler webSocketHandler) {
+        this.webSocketHandler = webSocketHandler;
+    }
+
+    /**
+     * Typed description of a mate command: request type, expected response type and parser
+     */
+    public static final class Command<T> {
+        private final String type;
+        private final String responseType;
+        private final Function<Map<String, Object>, T> parser;
+        private final long timeoutMillis;
+
+        private Command(String type, String responseType, Function<Map<String, Object>, T> parser, long timeoutMillis) {
+            this.type = type;
+            this.responseType = responseType;
+            this.parser = parser;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        public static <T> Command<T> of(String type, String responseType, Function<Map<String, Object>, T> parser) {
+            return new Command<>(type, responseType, parser, 0);
+        }
+
+        /**
+         * Same command with its own timeout instead of the global {@code timeout-seconds}
+         * (e.g. cheap probes that should fail fast)
+         */
+        public Command<T> withTimeout(Duration timeout) {
+            return new Command<>(type, responseType, parser, timeout.toMillis());
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getResponseType() {
+            return responseType;
+        }
+    }
+
+    // ==================== Calls ====================
+
+    /**
+     * Send a command and return a future for its typed response
+     */
+    public <T> CompletableFuture<T> call(String mateId, Command<T> command, Map<String, Object> payload) {
+        return call(mateId, command, payload, newRequestId());
+    }
+
+    /**
+     * Send a command with a caller-provided request ID
+     */
+    public <T> CompletableFuture<T> call(String mateId, Command<T> command, Map<String, Object> payload, String requestId) {
+        PendingCall<T> call = register(mateId, command, payload, requestId);
+        channel(mateId).submit(new Dispatch(call.future, () -> {
+            call.markSent();
+            if (!webSocketHandler.sendCommandAuto(mateId, new MateCommand(command.type, call.payload))) {
+                call.reject();
+            }
+        }));
+        return call.future;
+    }
+
+    /**
+     * Send several requests of the same type in one round-trip.
+     * The batch occupies a single in-flight slot until all of its calls are done.
+     */
+    public <T> List<CompletableFuture<T>> callBatch(String mateId, Command<T> command, List<Map<String, Object>> payloads) {
+        List<PendingCall<T>> calls = new ArrayList<>(payloads.size());
+        for (Map<String, Object> payload : payloads) {
+            calls.add(register(mateId, command, payload, newRequestId()));
+        }
+        List<CompletableFuture<T>> futures = calls.stream().map(c -> c.future).toList();
+        CompletableFuture<Void> allDone = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .exceptionally(ex -> null);
+
+        String batchId = newRequestId();
+        channel(mateId).submit(new Dispatch(allDone, () -> {
+            List<PendingCall<T>> sent = new ArrayList<>(calls.size());
+            List<Map<String, Object>> commands = new ArrayList<>(calls.size());
+            for (PendingCall<T> call : calls) {
+                if (call.future.isDone()) {
+                    continue;
+                }
+                call.markSent();
+                sent.add(call);
+                commands.add(Map.of("type", command.type, "payload", call.payload));
+            }
+            Map<String, Object> batchPayload = new HashMap<>();
+            batchPayload.put("requestId", batchId);
+            batchPayload.put("commands", commands);
+            if (!webSocketHandler.sendCommandAuto(mateId, new MateCommand("batch", batchPayload))) {
+                sent.forEach(PendingCall::reject);
+                return;
+            }
+            log.debug("Sent batch {} with {} {} requests to mate {}", batchId, commands.size(), command.type, mateId);
+        }));
+        return futures;
+    }
+
+    /**
+     * Run the same command concurrently on several mates; failed mates are skipped
+     */
+    public <T> CompletableFuture<Map<String, T>> fanOut(Collection<String> mateIds, Command<T> command,
+                                                        Function<String, Map<String, Object>> payloadFactory) {
+        Map<String, CompletableFuture<T>> futures = new HashMap<>();
+        for (String mateId : mateIds) {
+            futures.put(mateId, call(mateId, command, payloadFactory.apply(mateId)));
+        }
+        return CompletableFuture.allOf(futures.values().stream()
+                        .map(f -> f.exceptionally(ex -> null))
+                        .toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    Map<String, T> results = new HashMap<>();
+                    futures.forEach((mateId, future) -> {
+                        if (!future.isCompletedExceptionally()) {
+                            T value = future.join();
+                            if (value != null) {
+                                results.put(mateId, value);
+                            }
+                        } else {
+                            log.warn("Fan-out {} to mate {} failed", command.type, mateId);
+                        }
+                    });
+                    return results;
+                });
+    }
+
+    /**
+     * Complete a pending call from outside the response path (e.g. a finished chunked transfer)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> boolean completeExternally(String requestId, T value) {
+        PendingCall<T> call = (PendingCall<T>) pendingCalls.get(requestId);
+        return call != null && call.future.complete(value);
+    }
+
+    /**
+     * Fail a pending call from outside the response path (e.g. a chunked transfer that stalled)
+     */
+    public boolean failExternally(String requestId, Throwable error) {
+        PendingCall<?> call = pendingCalls.get(requestId);
+        return call != null && call.future.completeExceptionally(error);
+    }
+
+    /**
+     * Lift the deadline of a pending call whose lifetime is now owned by the caller,
+     * e.g. a read answered by a chunked transfer with its own idle timeout
+     */
+    public boolean suspendTimeout(String requestId) {
+        PendingCall<?> call = pendingCalls.get(requestId);
+        return call != null && call.deadline.complete(null);
+    }
+
+    /**
+     * Cancel a pending call; the mate is told to stop working on it
+     */
+    public void cancel(String requestId) {
+        PendingCall<?> call = pendingCalls.get(requestId);
+        if (call != null) {
+            call.future.cancel(false);
+        }
+    }
+
+    /**
+     * Fail everything still pending for a mate that went away and drop its channel;
+     * no answer can arrive on the closed session, so callers should not wait for the timeout
+     */
+    public void onMateDisconnected(String mateId) {
+        channels.remove(mateId);
+        int failed = 0;
+        for (PendingCall<?> call : pendingCalls.values()) {
+            if (call.mateId.equals(mateId) && call.future.completeExceptionally(
+                    new IllegalStateException("Mate " + mateId + " disconnected before answering " + call.command.type))) {
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            log.info("Failed {} pending requests of disconnected mate {}", failed, mateId);
+        }
+    }
+
+    // ==================== Responses ====================
+
+    /**
+     * Route a mate response to its pending call.
+     *
+     * @return false if no call with a matching ID and response type is pending
+     */
+    public boolean handleResponse(String responseType, Map<String, Object> data) {
+        Object id = data.get("requestId") != null ? data.get("requestId") : data.get("sessionId");
+        PendingCall<?> call = id != null ? pendingCalls.get(id.toString()) : null;
+        if (call == null) {
+            return false;
+        }
+        if (!call.command.responseType.equals(responseType)) {
+            log.warn("Response type mismatch for request {}: expected {}, got {}",
+                    id, call.command.responseType, responseType);
+            return false;
+        }
+        call.complete(data);
+        return true;
+    }
+
+    /**
+     * Unpack a {@code batch_results} message: {results: [{type, data}, ...]}
+     */
+    @SuppressWarnings("unchecked")
+    public void handleBatchResults(Map<String, Object> data) {
+        Object results = data.get("results");
+        if (!(results instanceof List)) {
+            log.warn("batch_results without results list");
+            return;
+        }
+        for (Object entry : (List<Object>) results) {
+            if (entry instanceof Map) {
+                Map<String, Object> result = (Map<String, Object>) entry;
+                Object inner = result.getOrDefault("data", result.get("payload"));
+                if (inner instanceof Map && result.get("type") != null) {
+                    handleResponse(result.get("type").toString(), (Map<String, Object>) inner);
+                }
+            }
+        }
+    }
+
+    // ==================== Stats ====================
+
+    /**
+     * Latency histograms per command type plus current in-flight/queued counts per mate
+     */
+    public Map<String, Object> getLatencyStats() {
+        Map<String, Object> commands = new TreeMap<>();
+        latencies.forEach((type, histogram) -> commands.put(type, histogram.snapshot()));
+
+        Map<String, Object> mates = new TreeMap<>();
+        channels.forEach((mateId, channel) -> mates.put(mateId, channel.snapshot()));
+
+        return Map.of("commands", commands, "mates", mates, "pending", pendingCalls.size());
+    }
+
+    // ==================== Internals ====================
+
+    private <T> PendingCall<T> register(String mateId, Command<T> command, Map<String, Object> payload, String requestId) {
+        Map<String, Object> fullPayload = new HashMap<>(payload);
+        fullPayload.put("requestId", requestId);
+        fullPayload.putIfAbsent("sessionId", requestId);
+
+        PendingCall<T> call = new PendingCall<>(requestId, mateId, command, fullPayload);
+        pendingCalls.put(requestId, call);
+
+        long timeoutMillis = command.timeoutMillis > 0 ? command.timeoutMillis : TimeUnit.SECONDS.toMillis(timeoutSeconds);
+        // Separate deadline future so the timeout can be lifted without completing the call
+        call.deadline.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, ex) -> {
+                    if (ex != null) {
+                        call.future.completeExceptionally(ex);
+                    }
+                });
+        call.future.whenComplete((result, ex) -> {
+            call.deadline.complete(null);
+            finish(call, ex);
+        });
+        return call;
+    }
+
+    private void finish(PendingCall<?> call, Throwable ex) {
+        pendingCalls.remove(call.requestId);
+        LatencyHistogram histogram = latencies.computeIfAbsent(call.command.type, t -> new LatencyHistogram());
+        histogram.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - call.startNanos));
+
+        if (ex == null) {
+            return;
+        }
+        histogram.recordError();
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof TimeoutException || cause instanceof CancellationException) {
+            log.warn("{} request {} to mate {} {}", call.command.type, call.requestId, call.mateId,
+                    cause instanceof TimeoutException ? "timed out" : "cancelled");
+            if (call.sent) {
+                webSocketHandler.sendCommandAuto(call.mateId, new MateCommand("rpc_cancel",
+                        new HashMap<>(Map.of("requestId", call.requestId, "type", call.command.type))));
+            }
+        }
+    }
+
+    private MateChannel channel(String mateId) {
+        return channels.computeIfAbsent(mateId, id -> new MateChannel());
+    }
+
+    private static String newRequestId() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * A single pending request
+     */
+    private static final class PendingCall<T> {
+        private final String requestId;
+        private final String mateId;
+        private final Command<T> command;
+        private final Map<String, Object> payload;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final CompletableFuture<Void> deadline = new CompletableFuture<>();
+        private final long startNanos = System.nanoTime();
+        private volatile boolean sent;
+
+        PendingCall(String requestId, String mateId, Command<T> command, Map<String, Object> payload) {
+            this.requestId = requestId;
+            this.mateId = mateId;
+            this.command = command;
+            this.payload = payload;
+        }
+
+        void markSent() {
+            sent = true;
+        }
+
+        /**
+         * The outbound queue refused the request - fail the caller now instead of at the timeout
+         */
+        void reject() {
+            sent = false;
+            future.completeExceptionally(new IllegalStateException(
+                    command.type + " request to mate " + mateId + " was not sent: session inactive or outbound queue full"));
+        }
+
+        void complete(Map<String, Object> data) {
+            try {
+                future.complete(command.parser.apply(data));
+            } catch (Exception e) {
+                log.error("Error parsing {} response: {}", command.responseType, e.getMessage());
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Unit of work occupying one in-flight slot until {@code done} completes
+     */
+    private record Dispatch(CompletableFuture<?> done, Runnable send) {
+    }
+
+    /**
+     * Per-mate in-flight limiter; queued dispatches are sent as slots free up.
+     *
+     * One thread at a time drains the queue in a loop. A send that fails synchronously
+     * completes its dispatch and releases the slot from inside that loop, which then just
+     * picks the next dispatch instead of recursing into another send.
+     */
+    private final class MateChannel {
+        private final Queue<Dispatch> queue = new ArrayDeque<>();
+        private int inFlight;
+        private boolean draining;
+
+        void submit(Dispatch dispatch) {
+            synchronized (this) {
+                queue.add(dispatch);
+            }
+            drain();
+        }
+
+        private void release() {
+            synchronized (this) {
+                inFlight--;
+            }
+            drain();
+        }
+
+        private void drain() {
+            synchronized (this) {
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            while (true) {
+                Dispatch next;
+                synchronized (this) {
+                    next = inFlight < maxInFlight ? queue.poll() : null;
+                    if (next == null) {
+                        draining = false;
+                        return;
+                    }
+                    if (next.done.isDone()) {
+                        // Timed out or cancelled while queued - skip without sending
+                        continue;
+                    }
+                    inFlight++;
+                }
+                next.done.whenComplete((r, ex) -> release());
+                try {
+                    next.send.run();
+                } catch (Exception e) {
+                    next.done.completeExceptionally(e);
+                }
+            }
+        }
+
+        synchronized Map<String, Object> snapshot() {
+            return Map.of("inFlight", inFlight, "queued", queue.size());
+        }
+    }
+}
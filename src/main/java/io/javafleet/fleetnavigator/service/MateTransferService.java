@@ -0,0 +1,472 @@
+package io.javafleet.fleetnavigator.service;
+
+import io.javafleet.fleetnavigator.dto.MateCommand;
+import io.javafleet.fleetnavigator.util.SpoolFile;
+import io.javafleet.fleetnavigator.websocket.FleetMateWebSocketHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Chunked, flow-controlled transfer of large files and logs from Fleet Mates.
+ *
+ * Protocol (all messages carry a {@code transferId}):
+ * <pre>
+ * Navigator -> Mate   read_file / read_log with payload.transfer = {transferId, chunkSize, window}
+ * Mate -> Navigator   transfer_start    {transferId, name, path, contentType, totalSize, modifiedAt}
+ * Mate -> Navigator   transfer_chunk    {transferId, seq, offset, data, encoding: text|base64, crc32}
+ * Navigator -> Mate   transfer_credit   {transferId, ackSeq, credits}
+ * Navigator -> Mate   transfer_resume   {transferId, fromSeq, fromOffset}
+ * Mate -> Navigator   transfer_complete {transferId, totalSize, sha256}
+ * Mate -> Navigator   transfer_error    {transferId, error}
+ * Navigator -> Mate   transfer_cancel   {transferId}
+ * </pre>
+ *
+ * The mate may have at most {@code window} unacknowledged chunks in flight. Chunks are
+ * written to a {@link SpoolFile} as they arrive and credits are only granted after the
+ * write, so a slow disk or consumer throttles the sender instead of the heap.
+ * Out-of-order or corrupt chunks (CRC mismatch) trigger a resume from the last
+ * contiguous sequence number; a reconnecting mate resumes its open transfers.
+ */
+@Slf4j
+@Service
+public class MateTransferService {
+
+    private final FleetMateWebSocketHandler webSocketHandler;
+    private final Map<String, Transfer> transfers = new ConcurrentHashMap<>();
+
+    @Value("${fleet-navigator.mate-transfer.chunk-size:262144}")
+    private int chunkSize = 256 * 1024;
+
+    @Value("${fleet-navigator.mate-transfer.window:8}")
+    private int window = 8;
+
+    @Value("${fleet-navigator.mate-transfer.idle-timeout-seconds:120}")
+    private long idleTimeoutSeconds = 120;
+
+    private static final int MAX_RESTARTS = 2;
+
+    public MateTransferService(FleetMateWebSocketHandler webSocketHandler) {
+        this.webSocketHandler = webSocketHandler;
+    }
+
+    /**
+     * Register an expected transfer before the read command is sent to the mate.
+     * The returned transfer's {@link Transfer#getCompletion()} completes once all
+     * chunks are spooled and verified.
+     */
+    public Transfer expectTransfer(String transferId, String mateId, String kind) throws IOException {
+        Transfer transfer = new Transfer(transferId, mateId, kind, SpoolFile.create("fleet-" + kind + "-"));
+        transfers.put(transferId, transfer);
+        log.debug("Expecting {} transfer {} from mate {}", kind, transferId, mateId);
+        return transfer;
+    }
+
+    /**
+     * Transfer parameters to embed in the read command payload
+     */
+    public Map<String, Object> buildTransferOffer(String transferId) {
+        Map<String, Object> offer = new HashMap<>();
+        offer.put("transferId", transferId);
+        offer.put("chunkSize", chunkSize);
+        offer.put("window", window);
+        return offer;
+    }
+
+    public Transfer getTransfer(String transferId) {
+        return transfers.get(transferId);
+    }
+
+    /**
+     * Abort a transfer and delete its spool file
+     */
+    public void cancelTransfer(String transferId) {
+        Transfer transfer = transfers.remove(transferId);
+        if (transfer == null) {
+            return;
+        }
+        if (!transfer.completion.isDone()) {
+            // Legacy mates never started the transfer and don't know the cancel command
+            if (transfer.started) {
+                sendControl(transfer.mateId, "transfer_cancel", Map.of("transferId", transferId));
+            }
+            transfer.completion.cancel(false);
+        }
+        transfer.release();
+    }
+
+    // ==================== Mate Message Handlers ====================
+
+    public void handleTransferStart(String mateId, Map<String, Object> data) {
+        Transfer transfer = lookup(data);
+        if (transfer == null) {
+            sendControl(mateId, "transfer_cancel", Map.of("transferId", String.valueOf(data.get("transferId"))));
+            return;
+        }
+        synchronized (transfer) {
+            transfer.name = (String) data.get("name");
+            transfer.path = (String) data.get("path");
+            transfer.contentType = (String) data.get("contentType");
+            transfer.modifiedAt = data.get("modifiedAt");
+            transfer.expectedSize = toLong(data.get("totalSize"), -1);
+            transfer.started = true;
+            transfer.touch();
+        }
+        log.info("Transfer {} started: {} ({} bytes) from mate {}",
+                transfer.transferId, transfer.name != null ? transfer.name : transfer.kind, transfer.expectedSize, mateId);
+        Runnable startListener = transfer.startListener;
+        if (startListener != null) {
+            startListener.run();
+        }
+    }
+
+    public void handleTransferChunk(String mateId, Map<String, Object> data) {
+        Transfer transfer = lookup(data);
+        if (transfer == null) {
+            return;
+        }
+
+        long seq = toLong(data.get("seq"), -1);
+        String encoding = (String) data.getOrDefault("encoding", "text");
+        String payload = (String) data.get("data");
+        if (payload == null) {
+            log.warn("Transfer {}: chunk {} without data", transfer.transferId, seq);
+            return;
+        }
+        byte[] bytes = "base64".equals(encoding)
+                ? Base64.getDecoder().decode(payload)
+                : payload.getBytes(StandardCharsets.UTF_8);
+
+        synchronized (transfer) {
+            transfer.touch();
+            if (transfer.completion.isDone()) {
+                return;
+            }
+            if (seq < transfer.nextSeq) {
+                // Duplicate after resume - already spooled
+                return;
+            }
+            if (seq != transfer.nextSeq || !crcMatches(bytes, data.get("crc32"))) {
+                if (!transfer.resumeRequested) {
+                    log.warn("Transfer {}: expected chunk {}, got {}{} - requesting resume",
+                            transfer.transferId, transfer.nextSeq, seq,
+                            seq == transfer.nextSeq ? " (CRC mismatch)" : "");
+                    transfer.resumeRequested = true;
+                    requestResume(transfer);
+                }
+                return;
+            }
+
+            try {
+                transfer.spool.append(bytes);
+            } catch (IOException e) {
+                fail(transfer, "Spool write failed: " + e.getMessage());
+                return;
+            }
+            transfer.digest.update(bytes);
+            transfer.nextSeq++;
+            if (transfer.dataListener != null) {
+                try {
+                    transfer.dataListener.accept(bytes);
+                } catch (Exception e) {
+                    log.warn("Transfer {}: data listener failed: {}", transfer.transferId, e.getMessage());
+                }
+            }
+            transfer.resumeRequested = false;
+            transfer.unackedChunks++;
+
+            // Grant credit once half the window is consumed
+            if (transfer.unackedChunks >= Math.max(1, window / 2)) {
+                grantCredit(transfer, transfer.unackedChunks);
+                transfer.unackedChunks = 0;
+            }
+        }
+
+        if (transfer.progressListener != null && transfer.expectedSize > 0) {
+            transfer.progressListener.accept(
+                    Math.min(100.0, 100.0 * transfer.spool.size() / transfer.expectedSize));
+        }
+    }
+
+    public void handleTransferComplete(String mateId, Map<String, Object> data) {
+        Transfer transfer = lookup(data);
+        if (transfer == null) {
+            return;
+        }
+
+        synchronized (transfer) {
+            transfer.touch();
+            long totalSize = toLong(data.get("totalSize"), transfer.expectedSize);
+            if (totalSize >= 0 && transfer.spool.size() < totalSize) {
+                // Trailing chunks still missing (e.g. lost during reconnect)
+                if (!transfer.resumeRequested) {
+                    transfer.resumeRequested = true;
+                    requestResume(transfer);
+                }
+                return;
+            }
+
+            String expectedSha = (String) data.get("sha256");
+            String actualSha = HexFormat.of().formatHex(transfer.digest.digest());
+            if (expectedSha != null && !expectedSha.equalsIgnoreCase(actualSha)) {
+                if (transfer.restarts++ < MAX_RESTARTS) {
+                    log.warn("Transfer {}: checksum mismatch, restarting from offset 0", transfer.transferId);
+                    restart(transfer);
+                } else {
+                    fail(transfer, "Checksum mismatch after " + MAX_RESTARTS + " restarts");
+                }
+                return;
+            }
+
+            transfer.expectedSize = transfer.spool.size();
+        }
+
+        log.info("Transfer {} completed: {} bytes spooled to {}",
+                transfer.transferId, transfer.spool.size(), transfer.spool.getPath());
+        transfers.remove(transfer.transferId);
+        transfer.completion.complete(transfer);
+    }
+
+    public void handleTransferError(String mateId, Map<String, Object> data) {
+        Transfer transfer = lookup(data);
+        if (transfer != null) {
+            fail(transfer, (String) data.getOrDefault("error", "Transfer failed on mate"));
+        }
+    }
+
+    /**
+     * Resume all open transfers of a mate after it (re-)authenticated
+     */
+    public void resumeTransfers(String mateId) {
+        transfers.values().stream()
+                .filter(t -> mateId.equals(t.mateId) && !t.completion.isDone())
+                .forEach(t -> {
+                    synchronized (t) {
+                        log.info("Resuming transfer {} for reconnected mate {} at chunk {}",
+                                t.transferId, mateId, t.nextSeq);
+                        t.touch();
+                        requestResume(t);
+                    }
+                });
+    }
+
+    /**
+     * Resume stalled transfers once, then fail them if the mate stays silent
+     */
+    @Scheduled(fixedRate = 30 * 1000, initialDelay = 30 * 1000)
+    public void checkStalledTransfers() {
+        long now = System.currentTimeMillis();
+        for (Transfer transfer : transfers.values()) {
+            synchronized (transfer) {
+                if (transfer.completion.isDone() || now - transfer.lastActivity < idleTimeoutSeconds * 1000) {
+                    continue;
+                }
+                if (!transfer.stallResumeSent && webSocketHandler.isMateConnected(transfer.mateId)) {
+                    transfer.stallResumeSent = true;
+                    transfer.touch();
+                    requestResume(transfer);
+                } else {
+                    fail(transfer, "Transfer stalled for more than " + idleTimeoutSeconds + "s");
+                }
+            }
+        }
+    }
+
+    // ==================== Internals ====================
+
+    private Transfer lookup(Map<String, Object> data) {
+        Object id = data.get("transferId");
+        Transfer transfer = id != null ? transfers.get(id.toString()) : null;
+        if (transfer == null) {
+            log.warn("Unknown transfer: {}", id);
+        }
+        return transfer;
+    }
+
+    private void grantCredit(Transfer transfer, int credits) {
+        sendControl(transfer.mateId, "transfer_credit", Map.of(
+                "transferId", transfer.transferId,
+                "ackSeq", transfer.nextSeq - 1,
+                "credits", credits));
+    }
+
+    private void requestResume(Transfer transfer) {
+        transfer.unackedChunks = 0;
+        sendControl(transfer.mateId, "transfer_resume", Map.of(
+                "transferId", transfer.transferId,
+                "fromSeq", transfer.nextSeq,
+                "fromOffset", transfer.spool.size(),
+                "window", window));
+    }
+
+    private void restart(Transfer transfer) {
+        try {
+            transfer.spool.truncate(0);
+        } catch (IOException e) {
+            fail(transfer, "Spool truncate failed: " + e.getMessage());
+            return;
+        }
+        transfer.digest.reset();
+        transfer.nextSeq = 0;
+        if (transfer.restartListener != null) {
+            transfer.restartListener.run();
+        }
+        requestResume(transfer);
+    }
+
+    private void fail(Transfer transfer, String error) {
+        log.error("Transfer {} from mate {} failed: {}", transfer.transferId, transfer.mateId, error);
+        transfers.remove(transfer.transferId);
+        transfer.completion.completeExceptionally(new IOException(error));
+        transfer.release();
+    }
+
+    private void sendControl(String mateId, String type, Map<String, Object> payload) {
+        webSocketHandler.sendCommandAuto(mateId, new MateCommand(type, new HashMap<>(payload)));
+    }
+
+    private static boolean crcMatches(byte[] bytes, Object crcValue) {
+        if (crcValue == null) {
+            return true;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue() == toLong(crcValue, -1);
+    }
+
+    private static long toLong(Object value, long fallback) {
+        if (value instanceof Number) return ((Number) value).longValue();
+        if (value instanceof String) {
+            try {
+                return Long.parseLong((String) value);
+            } catch (NumberFormatException ignored) {
+                return fallback;
+            }
+        }
+        return fallback;
+    }
+
+    /**
+     * State of a single inbound transfer
+     */
+    public static class Transfer {
+        private final String transferId;
+        private final String mateId;
+        private final String kind;
+        private final SpoolFile spool;
+        private final MessageDigest digest;
+        private final CompletableFuture<Transfer> completion = new CompletableFuture<>();
+
+        private String name;
+        private String path;
+        private String contentType;
+        private Object modifiedAt;
+        private long expectedSize = -1;
+        private long nextSeq;
+        private int unackedChunks;
+        private int restarts;
+        private volatile boolean started;
+        private boolean resumeRequested;
+        private boolean stallResumeSent;
+        private volatile long lastActivity = System.currentTimeMillis();
+        private volatile DoubleConsumer progressListener;
+        private volatile Consumer<byte[]> dataListener;
+        private volatile Runnable restartListener;
+        private volatile Runnable startListener;
+
+        Transfer(String transferId, String mateId, String kind, SpoolFile spool) {
+            this.transferId = transferId;
+            this.mateId = mateId;
+            this.kind = kind;
+            this.spool = spool;
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        private void touch() {
+            lastActivity = System.currentTimeMillis();
+            stallResumeSent = false;
+        }
+
+        /**
+         * Receive progress updates (0-100%) while chunks arrive
+         */
+        public Transfer onProgress(DoubleConsumer listener) {
+            this.progressListener = listener;
+            return this;
+        }
+
+        /**
+         * Receive each verified chunk in order, e.g. to process content while it is still arriving
+         */
+        public Transfer onData(Consumer<byte[]> listener) {
+            this.dataListener = listener;
+            return this;
+        }
+
+        /**
+         * Notified once the mate has started the transfer (immediately if it already has)
+         */
+        public Transfer onStart(Runnable listener) {
+            this.startListener = listener;
+            if (started) {
+                listener.run();
+            }
+            return this;
+        }
+
+        /**
+         * Notified when the transfer restarts from offset 0; data seen so far must be discarded
+         */
+        public Transfer onRestart(Runnable listener) {
+            this.restartListener = listener;
+            return this;
+        }
+
+        public boolean isStarted() {
+            return started;
+        }
+
+        public CompletableFuture<Transfer> getCompletion() {
+            return completion;
+        }
+
+        /**
+         * Spooled content; the consumer owns it after completion and must {@link #release()} it
+         */
+        public SpoolFile getSpool() {
+            return spool;
+        }
+
+        public void release() {
+            spool.close();
+        }
+
+        public String getTransferId() { return transferId; }
+        public String getMateId() { return mateId; }
+        public String getKind() { return kind; }
+        public String getName() { return name; }
+        public String getPath() { return path; }
+        public String getContentType() { return contentType; }
+        public Object getModifiedAt() { return modifiedAt; }
+        public long getSize() { return spool.size(); }
+    }
+}
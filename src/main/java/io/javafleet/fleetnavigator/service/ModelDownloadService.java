@@ -3,7 +3,6 @@ package io.javafleet.fleetnavigator.service;
 import io.javafleet.fleetnavigator.config.FleetPathsConfiguration;
 import io.javafleet.fleetnavigator.llm.ModelRegistry;
 import io.javafleet.fleetnavigator.llm.ModelRegistryEntry;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
 import org.springframework.stereotype.Service;
@@ -31,7 +30,6 @@ import java.util.function.Consumer;
  * @since 0.2.9
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ModelDownloadService {
 
@@ -42,11 +40,18 @@ public class ModelDownloadService {
     private final Map<String, DownloadProgress> activeDownloads = new ConcurrentHashMap<>();
     private final Map<String, Call> activeDownloadCalls = new ConcurrentHashMap<>();
 
-    private final OkHttpClient client = new OkHttpClient.Builder()
-        .connectTimeout(120, TimeUnit.SECONDS)
-        .readTimeout(0, TimeUnit.SECONDS)  // Kein Read-Timeout für große Downloads
-        .writeTimeout(120, TimeUnit.SECONDS)
-        .build();
+    private final OkHttpClient client;
+
+    public ModelDownloadService(ModelRegistry modelRegistry, FleetPathsConfiguration pathsConfig,
+                                OkHttpClient sharedHttpClient) {
+        this.modelRegistry = modelRegistry;
+        this.pathsConfig = pathsConfig;
+        this.client = sharedHttpClient.newBuilder()
+            .connectTimeout(120, TimeUnit.SECONDS)
+            .readTimeout(0, TimeUnit.SECONDS)  // Kein Read-Timeout für große Downloads
+            .writeTimeout(120, TimeUnit.SECONDS)
+            .build();
+    }
 
     /**
      * Startet Download eines Modells von HuggingFace
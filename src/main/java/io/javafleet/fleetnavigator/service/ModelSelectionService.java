@@ -1,27 +1,63 @@
 package io.javafleet.fleetnavigator.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javafleet.fleetnavigator.config.FleetPathsConfiguration;
 import io.javafleet.fleetnavigator.config.ModelSelectionProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 /**
- * Smart model selection service that automatically chooses the best model
- * based on the prompt content and task type.
- * Inspired by local-llm-demo-full project.
+ * Smart model selection: routes a prompt to the configured default, code or fast model.
+ *
+ * The prompt is classified into a {@link TaskType}; every candidate is then scored as
+ * predicted quality for that task type minus the expected latency, which accounts for
+ * - load state: a model that is not resident pays the switch (and waits for running calls to drain)
+ * - slot occupancy: interactive calls in flight versus the provider's parallel slots
+ * - speed: decode tokens/s measured by {@link InferenceTelemetry}
+ *
+ * The resident model is kept when no other candidate is better by more than the sticky margin.
+ * Decisions are kept in a small ring buffer ({@code /api/stats/model-routing}) and appended
+ * to {@code logs/model-routing.jsonl} for offline tuning. Nothing is cached: the same prompt
+ * can route differently depending on what is loaded.
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class ModelSelectionService {
 
+    private static final int RECENT_DECISIONS = 200;
+    private static final long DECISION_LOG_MAX_BYTES = 10L * 1024 * 1024;
+
     private final ModelSelectionProperties properties;
     private final SettingsService settingsService;
+    private final LLMProviderService llmProviderService;
+    private final InferenceTelemetry inferenceTelemetry;
+    private final InferencePriorityGate priorityGate;
+    private final FleetPathsConfiguration pathsConfig;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Deque<RoutingDecision> recent = new ArrayDeque<>();
 
     // Code-related keywords
     private static final List<String> CODE_KEYWORDS = Arrays.asList(
@@ -45,45 +81,142 @@ public class ModelSelectionService {
     );
 
     /**
-     * Select the best model based on prompt content.
-     * Results are cached to improve performance.
+     * Route a prompt to the best model for it right now.
      *
      * @param prompt The user's prompt
-     * @param defaultModel The default model if no specific routing applies
-     * @return The recommended model name
+     * @param defaultModel The chat's model, used when routing is disabled
+     * @param requestId Request the decision belongs to (for joining with traces), may be null
+     * @return The decision with the chosen model and the scored candidates
      */
-    @Cacheable(value = "modelSelection", key = "#prompt.hashCode()")
-    public String selectModel(String prompt, String defaultModel) {
-        // Load settings from database (cached by Spring)
+    public RoutingDecision route(String prompt, String defaultModel, String requestId) {
         var settings = settingsService.getModelSelectionSettings();
 
-        // Check if smart model selection is enabled
         if (!settings.isEnabled()) {
             log.debug("Smart model selection is disabled, using default model: {}", defaultModel);
-            return defaultModel;
+            return RoutingDecision.unrouted(requestId, defaultModel, "disabled");
         }
-
         if (prompt == null || prompt.trim().isEmpty()) {
-            return defaultModel;
+            return RoutingDecision.unrouted(requestId, defaultModel, "empty-prompt");
         }
 
-        String lowerPrompt = prompt.toLowerCase();
+        TaskType taskType = getTaskType(prompt);
+        Set<String> resident = llmProviderService.getResidentModels();
+        int slots = llmProviderService.getParallelSlots();
+        int busy = priorityGate.getInteractiveInFlight();
 
-        // Check if it's a code-related task
-        if (isCodeRelated(lowerPrompt, prompt)) {
-            log.info("Code-related prompt detected, routing to code model: {}", settings.getCodeModel());
-            return settings.getCodeModel();
+        Map<String, Role> roles = new LinkedHashMap<>();
+        addCandidate(roles, defaultModel, Role.DEFAULT, taskType);
+        addCandidate(roles, settings.getCodeModel(), Role.CODE, taskType);
+        addCandidate(roles, settings.getFastModel(), Role.FAST, taskType);
+        if (roles.isEmpty()) {
+            return RoutingDecision.unrouted(requestId, defaultModel, "no-candidates");
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        roles.forEach((model, role) -> candidates.add(score(model, role, taskType, resident, slots, busy)));
+        candidates.sort(Comparator.comparingDouble(Candidate::score).reversed());
+
+        Candidate best = candidates.get(0);
+        String reason = candidates.size() == 1 ? "single-candidate" : "best-score";
+        if (!best.resident()) {
+            Candidate loaded = candidates.stream().filter(Candidate::resident).findFirst().orElse(null);
+            if (loaded != null && best.quality() - loaded.quality() <= properties.getStickyMargin()) {
+                best = loaded;
+                reason = "sticky";
+            }
+        }
+
+        RoutingDecision decision = new RoutingDecision(Instant.now().toString(), requestId, taskType,
+                best.model(), reason, busy, slots, candidates);
+        record(decision);
+        log.info("Model routing: {} for {} ({}, {} of {} slots busy)", best.model(), taskType, reason, busy, slots);
+        return decision;
+    }
+
+    /**
+     * Most recent routing decisions, newest first
+     */
+    public List<RoutingDecision> getRecentDecisions(int limit) {
+        synchronized (recent) {
+            List<RoutingDecision> decisions = new ArrayList<>(recent);
+            Collections.reverse(decisions);
+            return decisions.subList(0, Math.min(limit, decisions.size()));
+        }
+    }
+
+    private void addCandidate(Map<String, Role> roles, String model, Role role, TaskType taskType) {
+        if (model == null || model.isBlank()) {
+            return;
+        }
+        // The same model may be configured for several roles; it counts with its best one
+        roles.merge(model, role, (a, b) -> a.quality(taskType) >= b.quality(taskType) ? a : b);
+    }
+
+    private Candidate score(String model, Role role, TaskType taskType, Set<String> resident, int slots, int busy) {
+        double quality = role.quality(taskType);
+        double measured = inferenceTelemetry.getDecodeRate(model);
+        double tokensPerSecond = measured > 0 ? measured : properties.getDefaultTokensPerSecond();
+        double generation = taskType.expectedTokens / Math.max(0.1, tokensPerSecond);
+
+        // Unknown load state (empty set): no switch cost for anyone
+        boolean isResident = resident.isEmpty() || resident.stream().anyMatch(r -> sameModel(r, model));
+        double latency = generation;
+        if (busy >= slots) {
+            latency += (busy - slots + 1) * generation / slots;
+        }
+        if (!isResident) {
+            // Switching unloads the current model, so the calls still running have to finish first
+            latency += properties.getSwitchSeconds() + busy * generation / slots;
+        }
+        double score = quality - properties.getLatencyWeight() * latency;
+        return new Candidate(model, role, round(quality), isResident && !resident.isEmpty(),
+                round(tokensPerSecond), round(latency), round(score));
+    }
+
+    private void record(RoutingDecision decision) {
+        synchronized (recent) {
+            recent.addLast(decision);
+            while (recent.size() > RECENT_DECISIONS) {
+                recent.removeFirst();
+            }
+            if (properties.isDecisionLog()) {
+                appendToLog(decision);
+            }
+        }
+    }
+
+    private void appendToLog(RoutingDecision decision) {
+        try {
+            Path file = pathsConfig.getModelRoutingLogPath();
+            if (Files.exists(file) && Files.size(file) > DECISION_LOG_MAX_BYTES) {
+                Files.move(file, file.resolveSibling(file.getFileName() + ".1"), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.writeString(file, objectMapper.writeValueAsString(decision) + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.debug("Could not write model routing log: {}", e.getMessage());
         }
+    }
+
+    /**
+     * Model names from settings, telemetry and providers differ in path and extension
+     */
+    static boolean sameModel(String a, String b) {
+        return normalize(a).equals(normalize(b));
+    }
 
-        // Check if it's a simple Q&A
-        if (isSimpleQuestion(lowerPrompt)) {
-            log.info("Simple question detected, routing to fast model: {}", settings.getFastModel());
-            return settings.getFastModel();
+    private static String normalize(String model) {
+        String name = model.trim();
+        int slash = Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\'));
+        if (slash >= 0 && slash < name.length() - 1) {
+            name = name.substring(slash + 1);
         }
+        name = name.toLowerCase(Locale.ROOT);
+        return name.endsWith(".gguf") ? name.substring(0, name.length() - 5) : name;
+    }
 
-        // Default to the user-specified or system default model
-        log.info("Using default model: {}", defaultModel);
-        return defaultModel;
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
     }
 
     /**
@@ -146,8 +279,62 @@ public class ModelSelectionService {
     }
 
     public enum TaskType {
-        CODE,       // Code generation, debugging, technical tasks
-        SIMPLE_QA,  // Simple questions, definitions
-        COMPLEX     // Complex tasks, analysis, reasoning
+        CODE(500),       // Code generation, debugging, technical tasks
+        SIMPLE_QA(150),  // Simple questions, definitions
+        COMPLEX(600);    // Complex tasks, analysis, reasoning
+
+        /**
+         * Typical answer length in tokens, for the generation time estimate
+         */
+        private final int expectedTokens;
+
+        TaskType(int expectedTokens) {
+            this.expectedTokens = expectedTokens;
+        }
+    }
+
+    /**
+     * What a candidate is configured for; the quality table is the prior the router tunes around
+     */
+    public enum Role {
+        DEFAULT, CODE, FAST;
+
+        double quality(TaskType taskType) {
+            return switch (this) {
+                case DEFAULT -> switch (taskType) {
+                    case CODE -> 0.75;
+                    case SIMPLE_QA -> 0.85;
+                    case COMPLEX -> 1.0;
+                };
+                case CODE -> switch (taskType) {
+                    case CODE -> 1.0;
+                    case SIMPLE_QA -> 0.6;
+                    case COMPLEX -> 0.7;
+                };
+                case FAST -> switch (taskType) {
+                    case CODE -> 0.5;
+                    case SIMPLE_QA -> 0.9;
+                    case COMPLEX -> 0.5;
+                };
+            };
+        }
+    }
+
+    /**
+     * One scored candidate; latency in seconds
+     */
+    public record Candidate(String model, Role role, double quality, boolean resident,
+                            double tokensPerSecond, double expectedLatencySeconds, double score) {}
+
+    /**
+     * A routing decision as logged; {@code reason} is best-score, sticky, single-candidate,
+     * or disabled/empty-prompt/no-candidates when no routing took place
+     */
+    public record RoutingDecision(String timestamp, String requestId, TaskType taskType, String model,
+                                  String reason, int busySlots, int slots, List<Candidate> candidates) {
+
+        static RoutingDecision unrouted(String requestId, String model, String reason) {
+            return new RoutingDecision(Instant.now().toString(), requestId, null, model, reason, 0, 0, List.of());
+        }
     }
 }
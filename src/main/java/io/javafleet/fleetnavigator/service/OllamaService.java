@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.javafleet.fleetnavigator.config.LLMConfigProperties;
 import io.javafleet.fleetnavigator.dto.ModelInfo;
+import io.javafleet.fleetnavigator.llm.StructuredOutput;
+import io.javafleet.fleetnavigator.llm.TokenStreamDecoder;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
 import org.springframework.stereotype.Service;
@@ -37,13 +39,13 @@ public class OllamaService {
     // Track active requests for cancellation
     private final Map<String, Call> activeRequests = new ConcurrentHashMap<>();
 
-    public OllamaService(LLMConfigProperties config) {
+    public OllamaService(LLMConfigProperties config, OkHttpClient sharedHttpClient) {
         this.ollamaBaseUrl = config.getOllama().getBaseUrl();
         this.defaultModel = config.getOllama().getDefaultModel();
         this.objectMapper = new ObjectMapper();
 
         int timeoutSeconds = config.getOllama().getTimeoutSeconds();
-        this.client = new OkHttpClient.Builder()
+        this.client = sharedHttpClient.newBuilder()
                 .connectTimeout(timeoutSeconds, TimeUnit.SECONDS)
                 .readTimeout(timeoutSeconds, TimeUnit.SECONDS)
                 .writeTimeout(timeoutSeconds, TimeUnit.SECONDS)
@@ -67,6 +69,44 @@ public class OllamaService {
             requestBody.put("system", systemPrompt);
         }
 
+        return generate(url, requestBody, requestId);
+    }
+
+    /**
+     * Structured response: Ollama constrains decoding to the JSON schema ("format").
+     * GBNF grammars are not supported by Ollama - they fall back to JSON mode plus a prompt hint.
+     */
+    public String chatStructured(String model, String prompt, String systemPrompt, String requestId,
+                                 StructuredOutput format, Integer maxTokens) throws IOException {
+        String url = ollamaBaseUrl + "/api/generate";
+
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", model != null ? model : defaultModel);
+        requestBody.put("prompt", prompt);
+        requestBody.put("stream", false);
+
+        String effectiveSystemPrompt = systemPrompt;
+        if (format.isJsonSchema()) {
+            requestBody.put("format", objectMapper.readTree(format.getJsonSchema()));
+        } else {
+            requestBody.put("format", "json");
+            effectiveSystemPrompt = format.withPromptHint(systemPrompt);
+        }
+        if (effectiveSystemPrompt != null && !effectiveSystemPrompt.isEmpty()) {
+            requestBody.put("system", effectiveSystemPrompt);
+        }
+
+        Map<String, Object> options = new HashMap<>();
+        options.put("temperature", 0.0);
+        if (maxTokens != null && maxTokens > 0) {
+            options.put("num_predict", maxTokens);
+        }
+        requestBody.put("options", options);
+
+        return generate(url, requestBody, requestId);
+    }
+
+    private String generate(String url, Map<String, Object> requestBody, String requestId) throws IOException {
         String json = objectMapper.writeValueAsString(requestBody);
 
         RequestBody body = RequestBody.create(
@@ -210,30 +250,13 @@ public class OllamaService {
                 throw new IOException("Ollama API error: " + response);
             }
 
-            // Read the streaming response line by line
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(response.body().byteStream()))) {
-
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (call.isCanceled()) {
-                        log.info("Streaming request {} was cancelled", requestId);
-                        break;
-                    }
-
-                    // Parse each JSON line
-                    JsonNode jsonNode = objectMapper.readTree(line);
-                    String chunk = jsonNode.get("response").asText();
-
-                    // Send chunk to consumer
-                    chunkConsumer.accept(chunk);
-
-                    // Check if done
-                    if (jsonNode.has("done") && jsonNode.get("done").asBoolean()) {
-                        log.debug("Streaming completed for request: {}", requestId);
-                        break;
-                    }
-                }
+            // response per NDJSON line until done=true, without JSON trees
+            TokenStreamDecoder decoder = new TokenStreamDecoder();
+            decoder.decode(response.body().byteStream(), chunkConsumer, call::isCanceled);
+            if (call.isCanceled()) {
+                log.info("Streaming request {} was cancelled", requestId);
+            } else {
+                log.debug("Streaming completed for request: {}", requestId);
             }
         } catch (IOException e) {
             if (call.isCanceled()) {
@@ -670,33 +693,13 @@ public class OllamaService {
                 throw new IOException("Ollama API error: " + response);
             }
 
-            // Read the streaming response line by line
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(response.body().byteStream()))) {
-
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (call.isCanceled()) {
-                        log.info("Streaming vision request {} was cancelled", requestId);
-                        break;
-                    }
-
-                    // Parse each JSON line
-                    JsonNode jsonNode = objectMapper.readTree(line);
-
-                    // Extract content from message
-                    JsonNode messageNode = jsonNode.get("message");
-                    if (messageNode != null && messageNode.has("content")) {
-                        String chunk = messageNode.get("content").asText();
-                        chunkConsumer.accept(chunk);
-                    }
-
-                    // Check if done
-                    if (jsonNode.has("done") && jsonNode.get("done").asBoolean()) {
-                        log.debug("Streaming vision completed for request: {}", requestId);
-                        break;
-                    }
-                }
+            // message.content per NDJSON line until done=true, without JSON trees
+            TokenStreamDecoder decoder = new TokenStreamDecoder();
+            decoder.decode(response.body().byteStream(), chunkConsumer, call::isCanceled);
+            if (call.isCanceled()) {
+                log.info("Streaming vision request {} was cancelled", requestId);
+            } else {
+                log.debug("Streaming vision completed for request: {}", requestId);
             }
         } catch (IOException e) {
             if (call.isCanceled()) {
@@ -26,6 +26,7 @@ public class ProjectService {
     private final ProjectRepository projectRepository;
     private final ContextFileRepository contextFileRepository;
     private final ChatRepository chatRepository;
+    private final ContentBlobStore contentBlobStore;
 
     /**
      * Create a new project
@@ -108,9 +109,8 @@ public class ProjectService {
         ContextFile contextFile = new ContextFile();
         contextFile.setProject(project);
         contextFile.setFilename(request.getFilename());
-        contextFile.setContent(request.getContent());
         contextFile.setFileType(request.getFileType());
-        contextFile.setSize((long) request.getContent().length());
+        contentBlobStore.attach(contextFile, request.getContent());
 
         contextFile = contextFileRepository.save(contextFile);
         log.info("Uploaded context file '{}' to project '{}' ({} bytes)",
@@ -126,7 +126,7 @@ public class ProjectService {
     public String getContextFileContent(Long fileId) {
         ContextFile file = contextFileRepository.findById(fileId)
                 .orElseThrow(() -> new IllegalArgumentException("Context file not found: " + fileId));
-        return file.getContent();
+        return contentBlobStore.contentOf(file);
     }
 
     /**
@@ -1,6 +1,5 @@
 package io.javafleet.fleetnavigator.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.javafleet.fleetnavigator.dto.MateCommand;
 import io.javafleet.fleetnavigator.dto.RAGRequest;
 import io.javafleet.fleetnavigator.dto.RAGResponse;
@@ -9,17 +8,19 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Service for RAG (Retrieval-Augmented Generation) operations via Fleet Mates.
  * Handles file search, file reading, and context management.
+ * Request/response correlation, timeouts and limits are handled by {@link MateRpcService}.
  */
 @Slf4j
 @Service
@@ -27,179 +28,326 @@ import java.util.concurrent.TimeUnit;
 public class RAGService {
 
     private final FleetMateWebSocketHandler webSocketHandler;
-    private final ObjectMapper objectMapper;
-
-    // Pending requests waiting for responses
-    private final Map<String, CompletableFuture<RAGResponse.SearchFilesResponse>> pendingSearchRequests = new ConcurrentHashMap<>();
-    private final Map<String, CompletableFuture<RAGResponse.FileContentResponse>> pendingReadRequests = new ConcurrentHashMap<>();
-    private final Map<String, CompletableFuture<RAGResponse.SaveContextResponse>> pendingSaveRequests = new ConcurrentHashMap<>();
-    private final Map<String, CompletableFuture<RAGResponse.LoadContextResponse>> pendingLoadRequests = new ConcurrentHashMap<>();
-    private final Map<String, CompletableFuture<RAGResponse.ListContextsResponse>> pendingListRequests = new ConcurrentHashMap<>();
-    private final Map<String, CompletableFuture<RAGResponse.DeleteContextResponse>> pendingDeleteRequests = new ConcurrentHashMap<>();
-
-    private static final long TIMEOUT_SECONDS = 30;
+    private final MateTransferService transferService;
+    private final MateRpcService rpcService;
+    private final MateContentCache contentCache;
+
+    // Mate commands with their response types
+    private final MateRpcService.Command<RAGResponse.SearchFilesResponse> searchFilesCommand =
+            MateRpcService.Command.of("search_files", "file_search_results", this::parseSearchResults);
+    private final MateRpcService.Command<RAGResponse.FileContentResponse> readFileCommand =
+            MateRpcService.Command.of("read_file", "file_content", this::parseFileContent);
+    private final MateRpcService.Command<RAGResponse.SaveContextResponse> saveContextCommand =
+            MateRpcService.Command.of("save_context", "context_saved", this::parseContextSaved);
+    private final MateRpcService.Command<RAGResponse.LoadContextResponse> loadContextCommand =
+            MateRpcService.Command.of("load_context", "context_loaded", this::parseContextLoaded);
+    private final MateRpcService.Command<RAGResponse.ListContextsResponse> listContextsCommand =
+            MateRpcService.Command.of("list_contexts", "contexts_list", this::parseContextsList);
+    private final MateRpcService.Command<RAGResponse.DeleteContextResponse> deleteContextCommand =
+            MateRpcService.Command.of("delete_context", "context_deleted", this::parseContextDeleted);
+    private final MateRpcService.Command<FileStat> statFileCommand =
+            MateRpcService.Command.of("stat_file", "file_stat", this::parseFileStat).withTimeout(Duration.ofSeconds(3));
+
+    // Upper bound for file content materialized as String when the caller sets no maxLength
+    private static final int DEFAULT_MAX_CONTENT_CHARS = 1_000_000;
 
     // ==================== Search Files ====================
 
     /**
-     * Search files on a Mate's filesystem
+     * Search files on a Mate's filesystem.
+     * Identical searches within the cache TTL share one result (see {@link MateContentCache}).
      */
     public CompletableFuture<RAGResponse.SearchFilesResponse> searchFiles(RAGRequest.SearchFiles request) {
         String sessionId = request.getSessionId() != null ? request.getSessionId() : UUID.randomUUID().toString();
         request.setSessionId(sessionId);
 
-        CompletableFuture<RAGResponse.SearchFilesResponse> future = new CompletableFuture<>();
-        pendingSearchRequests.put(sessionId, future);
+        return contentCache.getOrSearch(MateContentCache.SearchKey.of(request.getMateId(), request), () -> {
+            log.info("Sending search_files command to mate {}: query='{}', sessionId={}",
+                    request.getMateId(), request.getQuery(), sessionId);
+            return rpcService.call(request.getMateId(), searchFilesCommand, buildSearchPayload(request), sessionId);
+        });
+    }
 
-        // Build command payload
+    /**
+     * Search the same query on several mates concurrently.
+     * Mates that fail or time out are left out of the result.
+     */
+    public CompletableFuture<Map<String, RAGResponse.SearchFilesResponse>> searchFilesOnMates(
+            Collection<String> mateIds, RAGRequest.SearchFiles request) {
+        log.info("Fan-out search_files to {} mates: query='{}'", mateIds.size(), request.getQuery());
+        return rpcService.fanOut(mateIds, searchFilesCommand, mateId -> buildSearchPayload(request));
+    }
+
+    private Map<String, Object> buildSearchPayload(RAGRequest.SearchFiles request) {
         Map<String, Object> payload = new HashMap<>();
-        payload.put("sessionId", sessionId);
         payload.put("query", request.getQuery());
         if (request.getSearchPaths() != null) payload.put("searchPaths", request.getSearchPaths());
         if (request.getFileTypes() != null) payload.put("fileTypes", request.getFileTypes());
         if (request.getMaxResults() != null) payload.put("maxResults", request.getMaxResults());
         if (request.getSearchContent() != null) payload.put("searchContent", request.getSearchContent());
         if (request.getCaseSensitive() != null) payload.put("caseSensitive", request.getCaseSensitive());
+        return payload;
+    }
+
+    /**
+     * Parse search results from Mate
+     */
+    @SuppressWarnings("unchecked")
+    private RAGResponse.SearchFilesResponse parseSearchResults(Map<String, Object> data) {
+        List<RAGResponse.FileSearchResult> results = new ArrayList<>();
+        List<Map<String, Object>> rawResults = (List<Map<String, Object>>) data.get("results");
+
+        if (rawResults != null) {
+            for (Map<String, Object> r : rawResults) {
+                results.add(RAGResponse.FileSearchResult.builder()
+                        .path((String) r.get("path"))
+                        .name((String) r.get("name"))
+                        .extension((String) r.get("extension"))
+                        .size(getLong(r.get("size")))
+                        .modifiedAt(parseDateTime(r.get("modifiedAt")))
+                        .matchType((String) r.get("matchType"))
+                        .snippet((String) r.get("snippet"))
+                        .score(getDouble(r.get("score")))
+                        .build());
+            }
+        }
 
-        MateCommand command = new MateCommand("search_files", payload);
+        log.info("Search completed: {} results for session {}", results.size(), data.get("sessionId"));
 
-        log.info("Sending search_files command to mate {}: query='{}', sessionId={}",
-                request.getMateId(), request.getQuery(), sessionId);
+        return RAGResponse.SearchFilesResponse.builder()
+                .sessionId((String) data.get("sessionId"))
+                .results(results)
+                .totalFound(getInt(data.get("totalFound")))
+                .searchTimeMs(getLong(data.get("searchTimeMs")))
+                .query((String) data.get("query"))
+                .build();
+    }
 
-        webSocketHandler.sendCommandAuto(request.getMateId(), command);
+    // ==================== Read File ====================
 
-        // Timeout handling
-        future.orTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                .whenComplete((result, ex) -> {
-                    pendingSearchRequests.remove(sessionId);
-                    if (ex != null) {
-                        log.warn("Search request timed out: {}", sessionId);
+    /**
+     * Read file content from a Mate's filesystem.
+     * A cached copy is served if a {@code stat_file} shows the file unchanged (same
+     * mtime and size); otherwise the file is fetched and the cache refreshed.
+     */
+    public CompletableFuture<RAGResponse.FileContentResponse> readFile(RAGRequest.ReadFile request) {
+        String sessionId = request.getSessionId() != null ? request.getSessionId() : UUID.randomUUID().toString();
+        request.setSessionId(sessionId);
+
+        MateContentCache.FileKey key = MateContentCache.FileKey.of(request);
+        MateContentCache.CachedFile cached = contentCache.getFile(key);
+        if (cached == null || !contentCache.canValidate(request.getMateId())) {
+            return fetchFile(request, key);
+        }
+
+        return statFile(request.getMateId(), request.getPath())
+                .handle((stat, ex) -> {
+                    if (ex == null && stat.exists() && cached.matches(stat.modifiedAt(), stat.size())) {
+                        log.debug("Serving {} from cache (unchanged on mate {})", request.getPath(), request.getMateId());
+                        return CompletableFuture.completedFuture(cached.toResponse(sessionId));
+                    }
+                    if (ex != null && isTimeout(ex)) {
+                        log.info("Mate {} does not answer stat_file, pausing cache validation for it", request.getMateId());
+                        contentCache.markStatUnsupported(request.getMateId());
                     }
-                });
+                    contentCache.invalidateFile(key);
+                    return fetchFile(request, key);
+                })
+                .thenCompose(f -> f);
+    }
 
-        return future;
+    /**
+     * Cheap metadata probe used to validate cached file contents
+     */
+    public CompletableFuture<FileStat> statFile(String mateId, String path) {
+        return rpcService.call(mateId, statFileCommand, Map.of("path", path));
     }
 
     /**
-     * Handle search results from Mate
+     * Mate-side file metadata
      */
-    @SuppressWarnings("unchecked")
-    public void handleSearchResults(Map<String, Object> data) {
-        String sessionId = (String) data.get("sessionId");
-        CompletableFuture<RAGResponse.SearchFilesResponse> future = pendingSearchRequests.get(sessionId);
+    public record FileStat(String path, boolean exists, Long size, LocalDateTime modifiedAt) {
+    }
 
-        if (future == null) {
-            log.warn("No pending search request for sessionId: {}", sessionId);
-            return;
-        }
+    private FileStat parseFileStat(Map<String, Object> data) {
+        return new FileStat((String) data.get("path"),
+                !Boolean.FALSE.equals(data.get("exists")) && data.get("error") == null,
+                getLong(data.get("size")),
+                parseDateTime(data.get("modifiedAt")));
+    }
+
+    private static boolean isTimeout(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        return cause instanceof TimeoutException;
+    }
 
+    /**
+     * Mates supporting chunked transfers stream the file into a spool; only the
+     * requested head (maxLength) is materialized as String.
+     */
+    private CompletableFuture<RAGResponse.FileContentResponse> fetchFile(RAGRequest.ReadFile request,
+                                                                        MateContentCache.FileKey key) {
+        String sessionId = request.getSessionId();
+        Map<String, Object> payload = buildReadPayload(request);
+
+        MateTransferService.Transfer transfer = null;
         try {
-            List<RAGResponse.FileSearchResult> results = new ArrayList<>();
-            List<Map<String, Object>> rawResults = (List<Map<String, Object>>) data.get("results");
-
-            if (rawResults != null) {
-                for (Map<String, Object> r : rawResults) {
-                    results.add(RAGResponse.FileSearchResult.builder()
-                            .path((String) r.get("path"))
-                            .name((String) r.get("name"))
-                            .extension((String) r.get("extension"))
-                            .size(getLong(r.get("size")))
-                            .modifiedAt(parseDateTime(r.get("modifiedAt")))
-                            .matchType((String) r.get("matchType"))
-                            .snippet((String) r.get("snippet"))
-                            .score(getDouble(r.get("score")))
-                            .build());
+            transfer = transferService.expectTransfer(sessionId, request.getMateId(), "file");
+            payload.put("transfer", transferService.buildTransferOffer(sessionId));
+        } catch (java.io.IOException e) {
+            log.warn("Chunked transfer not available, falling back to single message: {}", e.getMessage());
+        }
+
+        log.info("Sending read_file command to mate {}: path='{}', sessionId={}",
+                request.getMateId(), request.getPath(), sessionId);
+
+        CompletableFuture<RAGResponse.FileContentResponse> future =
+                rpcService.call(request.getMateId(), readFileCommand, payload, sessionId);
+
+        if (transfer != null) {
+            // Once chunks flow, the transfer's idle timeout decides - not the RPC deadline
+            transfer.onStart(() -> rpcService.suspendTimeout(sessionId));
+            transfer.getCompletion().whenComplete((done, ex) -> {
+                if (ex == null) {
+                    completeReadFromTransfer(sessionId, done, request.getMaxLength());
+                } else {
+                    rpcService.failExternally(sessionId, ex);
                 }
-            }
+            });
+            future.whenComplete((result, ex) -> transferService.cancelTransfer(sessionId));
+        }
+        return future.thenApply(response -> {
+            contentCache.putFile(key, response);
+            return response;
+        });
+    }
 
-            RAGResponse.SearchFilesResponse response = RAGResponse.SearchFilesResponse.builder()
-                    .sessionId(sessionId)
-                    .results(results)
-                    .totalFound(getInt(data.get("totalFound")))
-                    .searchTimeMs(getLong(data.get("searchTimeMs")))
-                    .query((String) data.get("query"))
-                    .build();
+    /**
+     * Read several files from one Mate in a single round-trip.
+     * Results keep the order of {@code paths}; failed reads carry an error message.
+     */
+    public CompletableFuture<List<RAGResponse.FileContentResponse>> readFiles(String mateId, List<String> paths,
+                                                                             Integer maxLength) {
+        List<Map<String, Object>> payloads = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            payloads.add(buildReadPayload(RAGRequest.ReadFile.builder()
+                    .path(path)
+                    .maxLength(maxLength)
+                    .extractText(true)
+                    .build()));
+        }
 
-            future.complete(response);
-            log.info("Search completed: {} results for session {}", results.size(), sessionId);
+        log.info("Sending batched read_file ({} files) to mate {}", paths.size(), mateId);
 
-        } catch (Exception e) {
-            log.error("Error processing search results: {}", e.getMessage());
-            future.completeExceptionally(e);
+        List<CompletableFuture<RAGResponse.FileContentResponse>> futures =
+                rpcService.callBatch(mateId, readFileCommand, payloads);
+
+        List<CompletableFuture<RAGResponse.FileContentResponse>> safeFutures = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            String path = paths.get(i);
+            safeFutures.add(futures.get(i).exceptionally(ex -> RAGResponse.FileContentResponse.builder()
+                    .path(path)
+                    .error(ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName())
+                    .build()));
         }
+        return CompletableFuture.allOf(safeFutures.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> safeFutures.stream().map(CompletableFuture::join).toList());
     }
 
-    // ==================== Read File ====================
-
     /**
-     * Read file content from a Mate's filesystem
+     * Stream a (large) file from a Mate into a spool file without materializing it.
+     * The caller reads incrementally via {@code transfer.getSpool().openReader()}
+     * and must call {@code transfer.release()} afterwards.
      */
-    public CompletableFuture<RAGResponse.FileContentResponse> readFile(RAGRequest.ReadFile request) {
-        String sessionId = request.getSessionId() != null ? request.getSessionId() : UUID.randomUUID().toString();
-        request.setSessionId(sessionId);
+    public CompletableFuture<MateTransferService.Transfer> streamFile(RAGRequest.ReadFile request) throws java.io.IOException {
+        String transferId = request.getSessionId() != null ? request.getSessionId() : UUID.randomUUID().toString();
+        request.setSessionId(transferId);
 
-        CompletableFuture<RAGResponse.FileContentResponse> future = new CompletableFuture<>();
-        pendingReadRequests.put(sessionId, future);
+        MateTransferService.Transfer transfer = transferService.expectTransfer(transferId, request.getMateId(), "file");
 
         Map<String, Object> payload = new HashMap<>();
-        payload.put("sessionId", sessionId);
+        payload.put("sessionId", transferId);
         payload.put("path", request.getPath());
-        if (request.getMaxLength() != null) payload.put("maxLength", request.getMaxLength());
         if (request.getExtractText() != null) payload.put("extractText", request.getExtractText());
+        payload.put("transfer", transferService.buildTransferOffer(transferId));
 
-        MateCommand command = new MateCommand("read_file", payload);
-
-        log.info("Sending read_file command to mate {}: path='{}', sessionId={}",
-                request.getMateId(), request.getPath(), sessionId);
-
-        webSocketHandler.sendCommandAuto(request.getMateId(), command);
+        log.info("Sending streamed read_file command to mate {}: path='{}', transferId={}",
+                request.getMateId(), request.getPath(), transferId);
 
-        future.orTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                .whenComplete((result, ex) -> {
-                    pendingReadRequests.remove(sessionId);
-                    if (ex != null) {
-                        log.warn("Read request timed out: {}", sessionId);
-                    }
-                });
+        if (!webSocketHandler.sendCommandAuto(request.getMateId(), new MateCommand("read_file", payload))) {
+            transferService.cancelTransfer(transferId);
+            return CompletableFuture.failedFuture(new java.io.IOException(
+                    "read_file to mate " + request.getMateId() + " was not sent: mate offline or outbound queue full"));
+        }
+        return transfer.getCompletion();
+    }
 
-        return future;
+    private Map<String, Object> buildReadPayload(RAGRequest.ReadFile request) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("path", request.getPath());
+        if (request.getMaxLength() != null) payload.put("maxLength", request.getMaxLength());
+        if (request.getExtractText() != null) payload.put("extractText", request.getExtractText());
+        return payload;
     }
 
     /**
-     * Handle file content from Mate
+     * Complete a pending read from a finished chunked transfer
      */
-    public void handleFileContent(Map<String, Object> data) {
-        String sessionId = (String) data.get("sessionId");
-        CompletableFuture<RAGResponse.FileContentResponse> future = pendingReadRequests.get(sessionId);
-
-        if (future == null) {
-            log.warn("No pending read request for sessionId: {}", sessionId);
-            return;
-        }
-
+    private void completeReadFromTransfer(String sessionId, MateTransferService.Transfer transfer, Integer maxLength) {
         try {
-            RAGResponse.FileContentResponse response = RAGResponse.FileContentResponse.builder()
-                    .sessionId(sessionId)
-                    .path((String) data.get("path"))
-                    .name((String) data.get("name"))
-                    .content((String) data.get("content"))
-                    .contentType((String) data.get("contentType"))
-                    .size(getLong(data.get("size")))
-                    .modifiedAt(parseDateTime(data.get("modifiedAt")))
-                    .truncated(getBoolean(data.get("truncated")))
-                    .error((String) data.get("error"))
-                    .build();
-
-            future.complete(response);
-            log.info("File read completed: {} ({} chars) for session {}",
-                    response.getName(), response.getContent() != null ? response.getContent().length() : 0, sessionId);
+            int limit = maxLength != null ? maxLength : DEFAULT_MAX_CONTENT_CHARS;
+            String content = transfer.getSpool().readHead(limit + 1);
+            boolean truncated = content.length() > limit;
+            if (truncated) {
+                content = content.substring(0, limit);
+            }
 
+            boolean completed = rpcService.completeExternally(sessionId, RAGResponse.FileContentResponse.builder()
+                    .sessionId(sessionId)
+                    .path(transfer.getPath())
+                    .name(transfer.getName())
+                    .content(content)
+                    .contentType(transfer.getContentType())
+                    .size(transfer.getSize())
+                    .modifiedAt(parseDateTime(transfer.getModifiedAt()))
+                    .truncated(truncated)
+                    .build());
+
+            if (completed) {
+                log.info("File read completed via transfer: {} ({} bytes spooled) for session {}",
+                        transfer.getName(), transfer.getSize(), sessionId);
+            } else {
+                log.warn("No pending read request for transfer: {}", sessionId);
+            }
         } catch (Exception e) {
-            log.error("Error processing file content: {}", e.getMessage());
-            future.completeExceptionally(e);
+            log.error("Error reading spooled file content: {}", e.getMessage());
+        } finally {
+            transfer.release();
         }
     }
 
+    /**
+     * Parse file content from Mate
+     */
+    private RAGResponse.FileContentResponse parseFileContent(Map<String, Object> data) {
+        RAGResponse.FileContentResponse response = RAGResponse.FileContentResponse.builder()
+                .sessionId((String) data.get("sessionId"))
+                .path((String) data.get("path"))
+                .name((String) data.get("name"))
+                .content((String) data.get("content"))
+                .contentType((String) data.get("contentType"))
+                .size(getLong(data.get("size")))
+                .modifiedAt(parseDateTime(data.get("modifiedAt")))
+                .truncated(getBoolean(data.get("truncated")))
+                .error((String) data.get("error"))
+                .build();
+
+        log.info("File read completed: {} ({} chars) for session {}",
+                response.getName(), response.getContent() != null ? response.getContent().length() : 0,
+                response.getSessionId());
+        return response;
+    }
+
     // ==================== Save Context ====================
 
     /**
@@ -209,64 +357,34 @@ public class RAGService {
         String sessionId = request.getSessionId() != null ? request.getSessionId() : UUID.randomUUID().toString();
         request.setSessionId(sessionId);
 
-        CompletableFuture<RAGResponse.SaveContextResponse> future = new CompletableFuture<>();
-        pendingSaveRequests.put(sessionId, future);
-
         Map<String, Object> payload = new HashMap<>();
-        payload.put("sessionId", sessionId);
         payload.put("expertId", request.getExpertId());
         payload.put("contextName", request.getContextName());
         payload.put("content", request.getContent());
         if (request.getMetadata() != null) payload.put("metadata", request.getMetadata());
 
-        MateCommand command = new MateCommand("save_context", payload);
-
         log.info("Sending save_context command to mate {}: expert={}, context={}, sessionId={}",
                 request.getMateId(), request.getExpertId(), request.getContextName(), sessionId);
 
-        webSocketHandler.sendCommandAuto(request.getMateId(), command);
-
-        future.orTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                .whenComplete((result, ex) -> {
-                    pendingSaveRequests.remove(sessionId);
-                    if (ex != null) {
-                        log.warn("Save context request timed out: {}", sessionId);
-                    }
-                });
-
-        return future;
+        return rpcService.call(request.getMateId(), saveContextCommand, payload, sessionId);
     }
 
     /**
-     * Handle save context response from Mate
+     * Parse save context response from Mate
      */
-    public void handleContextSaved(Map<String, Object> data) {
-        String sessionId = (String) data.get("sessionId");
-        CompletableFuture<RAGResponse.SaveContextResponse> future = pendingSaveRequests.get(sessionId);
-
-        if (future == null) {
-            log.warn("No pending save request for sessionId: {}", sessionId);
-            return;
-        }
-
-        try {
-            RAGResponse.SaveContextResponse response = RAGResponse.SaveContextResponse.builder()
-                    .sessionId(sessionId)
-                    .expertId((String) data.get("expertId"))
-                    .contextName((String) data.get("contextName"))
-                    .path((String) data.get("path"))
-                    .success(getBoolean(data.get("success")))
-                    .error((String) data.get("error"))
-                    .build();
-
-            future.complete(response);
-            log.info("Context saved: expert={}, name={}, success={}",
-                    response.getExpertId(), response.getContextName(), response.getSuccess());
-
-        } catch (Exception e) {
-            log.error("Error processing save context response: {}", e.getMessage());
-            future.completeExceptionally(e);
-        }
+    private RAGResponse.SaveContextResponse parseContextSaved(Map<String, Object> data) {
+        RAGResponse.SaveContextResponse response = RAGResponse.SaveContextResponse.builder()
+                .sessionId((String) data.get("sessionId"))
+                .expertId((String) data.get("expertId"))
+                .contextName((String) data.get("contextName"))
+                .path((String) data.get("path"))
+                .success(getBoolean(data.get("success")))
+                .error((String) data.get("error"))
+                .build();
+
+        log.info("Context saved: expert={}, name={}, success={}",
+                response.getExpertId(), response.getContextName(), response.getSuccess());
+        return response;
     }
 
     // ==================== Load Context ====================
@@ -278,75 +396,45 @@ public class RAGService {
         String sessionId = request.getSessionId() != null ? request.getSessionId() : UUID.randomUUID().toString();
         request.setSessionId(sessionId);
 
-        CompletableFuture<RAGResponse.LoadContextResponse> future = new CompletableFuture<>();
-        pendingLoadRequests.put(sessionId, future);
-
         Map<String, Object> payload = new HashMap<>();
-        payload.put("sessionId", sessionId);
         payload.put("expertId", request.getExpertId());
         if (request.getContextName() != null) payload.put("contextName", request.getContextName());
 
-        MateCommand command = new MateCommand("load_context", payload);
-
         log.info("Sending load_context command to mate {}: expert={}, sessionId={}",
                 request.getMateId(), request.getExpertId(), sessionId);
 
-        webSocketHandler.sendCommandAuto(request.getMateId(), command);
-
-        future.orTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                .whenComplete((result, ex) -> {
-                    pendingLoadRequests.remove(sessionId);
-                    if (ex != null) {
-                        log.warn("Load context request timed out: {}", sessionId);
-                    }
-                });
-
-        return future;
+        return rpcService.call(request.getMateId(), loadContextCommand, payload, sessionId);
     }
 
     /**
-     * Handle load context response from Mate
+     * Parse load context response from Mate
      */
     @SuppressWarnings("unchecked")
-    public void handleContextLoaded(Map<String, Object> data) {
-        String sessionId = (String) data.get("sessionId");
-        CompletableFuture<RAGResponse.LoadContextResponse> future = pendingLoadRequests.get(sessionId);
-
-        if (future == null) {
-            log.warn("No pending load request for sessionId: {}", sessionId);
-            return;
-        }
-
-        try {
-            List<RAGResponse.ContextEntry> contexts = new ArrayList<>();
-            List<Map<String, Object>> rawContexts = (List<Map<String, Object>>) data.get("contexts");
-
-            if (rawContexts != null) {
-                for (Map<String, Object> c : rawContexts) {
-                    contexts.add(RAGResponse.ContextEntry.builder()
-                            .name((String) c.get("name"))
-                            .content((String) c.get("content"))
-                            .metadata((Map<String, Object>) c.get("metadata"))
-                            .createdAt(parseDateTime(c.get("createdAt")))
-                            .modifiedAt(parseDateTime(c.get("modifiedAt")))
-                            .build());
-                }
+    private RAGResponse.LoadContextResponse parseContextLoaded(Map<String, Object> data) {
+        List<RAGResponse.ContextEntry> contexts = new ArrayList<>();
+        List<Map<String, Object>> rawContexts = (List<Map<String, Object>>) data.get("contexts");
+
+        if (rawContexts != null) {
+            for (Map<String, Object> c : rawContexts) {
+                contexts.add(RAGResponse.ContextEntry.builder()
+                        .name((String) c.get("name"))
+                        .content((String) c.get("content"))
+                        .metadata((Map<String, Object>) c.get("metadata"))
+                        .createdAt(parseDateTime(c.get("createdAt")))
+                        .modifiedAt(parseDateTime(c.get("modifiedAt")))
+                        .build());
             }
+        }
 
-            RAGResponse.LoadContextResponse response = RAGResponse.LoadContextResponse.builder()
-                    .sessionId(sessionId)
-                    .expertId((String) data.get("expertId"))
-                    .contexts(contexts)
-                    .error((String) data.get("error"))
-                    .build();
-
-            future.complete(response);
-            log.info("Context loaded: expert={}, {} contexts", response.getExpertId(), contexts.size());
+        RAGResponse.LoadContextResponse response = RAGResponse.LoadContextResponse.builder()
+                .sessionId((String) data.get("sessionId"))
+                .expertId((String) data.get("expertId"))
+                .contexts(contexts)
+                .error((String) data.get("error"))
+                .build();
 
-        } catch (Exception e) {
-            log.error("Error processing load context response: {}", e.getMessage());
-            future.completeExceptionally(e);
-        }
+        log.info("Context loaded: expert={}, {} contexts", response.getExpertId(), contexts.size());
+        return response;
     }
 
     // ==================== List Contexts ====================
@@ -358,70 +446,39 @@ public class RAGService {
         String sessionId = request.getSessionId() != null ? request.getSessionId() : UUID.randomUUID().toString();
         request.setSessionId(sessionId);
 
-        CompletableFuture<RAGResponse.ListContextsResponse> future = new CompletableFuture<>();
-        pendingListRequests.put(sessionId, future);
-
         Map<String, Object> payload = new HashMap<>();
-        payload.put("sessionId", sessionId);
         if (request.getExpertId() != null) payload.put("expertId", request.getExpertId());
 
-        MateCommand command = new MateCommand("list_contexts", payload);
-
         log.info("Sending list_contexts command to mate {}: sessionId={}", request.getMateId(), sessionId);
 
-        webSocketHandler.sendCommandAuto(request.getMateId(), command);
-
-        future.orTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                .whenComplete((result, ex) -> {
-                    pendingListRequests.remove(sessionId);
-                    if (ex != null) {
-                        log.warn("List contexts request timed out: {}", sessionId);
-                    }
-                });
-
-        return future;
+        return rpcService.call(request.getMateId(), listContextsCommand, payload, sessionId);
     }
 
     /**
-     * Handle list contexts response from Mate
+     * Parse list contexts response from Mate
      */
     @SuppressWarnings("unchecked")
-    public void handleContextsList(Map<String, Object> data) {
-        String sessionId = (String) data.get("sessionId");
-        CompletableFuture<RAGResponse.ListContextsResponse> future = pendingListRequests.get(sessionId);
-
-        if (future == null) {
-            log.warn("No pending list request for sessionId: {}", sessionId);
-            return;
-        }
-
-        try {
-            List<RAGResponse.ContextInfo> contexts = new ArrayList<>();
-            List<Map<String, Object>> rawContexts = (List<Map<String, Object>>) data.get("contexts");
-
-            if (rawContexts != null) {
-                for (Map<String, Object> c : rawContexts) {
-                    contexts.add(RAGResponse.ContextInfo.builder()
-                            .expertId((String) c.get("expertId"))
-                            .name((String) c.get("name"))
-                            .size(getLong(c.get("size")))
-                            .modifiedAt(parseDateTime(c.get("modifiedAt")))
-                            .build());
-                }
+    private RAGResponse.ListContextsResponse parseContextsList(Map<String, Object> data) {
+        List<RAGResponse.ContextInfo> contexts = new ArrayList<>();
+        List<Map<String, Object>> rawContexts = (List<Map<String, Object>>) data.get("contexts");
+
+        if (rawContexts != null) {
+            for (Map<String, Object> c : rawContexts) {
+                contexts.add(RAGResponse.ContextInfo.builder()
+                        .expertId((String) c.get("expertId"))
+                        .name((String) c.get("name"))
+                        .size(getLong(c.get("size")))
+                        .modifiedAt(parseDateTime(c.get("modifiedAt")))
+                        .build());
             }
+        }
 
-            RAGResponse.ListContextsResponse response = RAGResponse.ListContextsResponse.builder()
-                    .sessionId(sessionId)
-                    .contexts(contexts)
-                    .build();
-
-            future.complete(response);
-            log.info("Contexts listed: {} entries", contexts.size());
+        log.info("Contexts listed: {} entries", contexts.size());
 
-        } catch (Exception e) {
-            log.error("Error processing list contexts response: {}", e.getMessage());
-            future.completeExceptionally(e);
-        }
+        return RAGResponse.ListContextsResponse.builder()
+                .sessionId((String) data.get("sessionId"))
+                .contexts(contexts)
+                .build();
     }
 
     // ==================== Delete Context ====================
@@ -433,61 +490,31 @@ public class RAGService {
         String sessionId = request.getSessionId() != null ? request.getSessionId() : UUID.randomUUID().toString();
         request.setSessionId(sessionId);
 
-        CompletableFuture<RAGResponse.DeleteContextResponse> future = new CompletableFuture<>();
-        pendingDeleteRequests.put(sessionId, future);
-
         Map<String, Object> payload = new HashMap<>();
-        payload.put("sessionId", sessionId);
         payload.put("expertId", request.getExpertId());
         payload.put("contextName", request.getContextName());
 
-        MateCommand command = new MateCommand("delete_context", payload);
-
         log.info("Sending delete_context command to mate {}: expert={}, context={}, sessionId={}",
                 request.getMateId(), request.getExpertId(), request.getContextName(), sessionId);
 
-        webSocketHandler.sendCommandAuto(request.getMateId(), command);
-
-        future.orTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                .whenComplete((result, ex) -> {
-                    pendingDeleteRequests.remove(sessionId);
-                    if (ex != null) {
-                        log.warn("Delete context request timed out: {}", sessionId);
-                    }
-                });
-
-        return future;
+        return rpcService.call(request.getMateId(), deleteContextCommand, payload, sessionId);
     }
 
     /**
-     * Handle delete context response from Mate
+     * Parse delete context response from Mate
      */
-    public void handleContextDeleted(Map<String, Object> data) {
-        String sessionId = (String) data.get("sessionId");
-        CompletableFuture<RAGResponse.DeleteContextResponse> future = pendingDeleteRequests.get(sessionId);
-
-        if (future == null) {
-            log.warn("No pending delete request for sessionId: {}", sessionId);
-            return;
-        }
-
-        try {
-            RAGResponse.DeleteContextResponse response = RAGResponse.DeleteContextResponse.builder()
-                    .sessionId(sessionId)
-                    .expertId((String) data.get("expertId"))
-                    .contextName((String) data.get("contextName"))
-                    .success(getBoolean(data.get("success")))
-                    .error((String) data.get("error"))
-                    .build();
-
-            future.complete(response);
-            log.info("Context deleted: expert={}, name={}, success={}",
-                    response.getExpertId(), response.getContextName(), response.getSuccess());
-
-        } catch (Exception e) {
-            log.error("Error processing delete context response: {}", e.getMessage());
-            future.completeExceptionally(e);
-        }
+    private RAGResponse.DeleteContextResponse parseContextDeleted(Map<String, Object> data) {
+        RAGResponse.DeleteContextResponse response = RAGResponse.DeleteContextResponse.builder()
+                .sessionId((String) data.get("sessionId"))
+                .expertId((String) data.get("expertId"))
+                .contextName((String) data.get("contextName"))
+                .success(getBoolean(data.get("success")))
+                .error((String) data.get("error"))
+                .build();
+
+        log.info("Context deleted: expert={}, name={}, success={}",
+                response.getExpertId(), response.getContextName(), response.getSuccess());
+        return response;
     }
 
     // ==================== Helper Methods ====================
@@ -0,0 +1,386 @@
+package io.javafleet.fleetnavigator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Phase timeline of a chat request: URL fetch, web search, expert lookup, history,
+ * prompt assembly, generation and so on, each as a span under one trace.
+ *
+ * Finished traces go into a bounded ring buffer (slowest ones listed via
+ * {@code /api/stats/traces}) and, if {@code fleet-navigator.tracing.otlp-endpoint} is set,
+ * are posted as OTLP/JSON to an OpenTelemetry collector. Phases are sequential: starting
+ * a phase ends the previous one, so the call sites in ChatService stay one line each.
+ */
+@Slf4j
+@Service
+public class RequestTracer {
+
+    private static final String SERVICE_NAME = "fleet-navigator";
+
+    @Value("${fleet-navigator.tracing.buffer-size:200}")
+    private int bufferSize = 200;
+
+    @Value("${fleet-navigator.tracing.otlp-endpoint:}")
+    private String otlpEndpoint = "";
+
+    private final Deque<Trace> recent = new ArrayDeque<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    /**
+     * Start a trace; the root span covers the whole request
+     */
+    public Trace begin(String name, String requestId) {
+        return new Trace(name, requestId);
+    }
+
+    /**
+     * Slowest finished traces in the buffer
+     */
+    public List<Map<String, Object>> getSlowest(int limit) {
+        List<Trace> traces;
+        synchronized (recent) {
+            traces = new ArrayList<>(recent);
+        }
+        return traces.stream()
+                .sorted(Comparator.comparingLong(Trace::durationMs).reversed())
+                .limit(limit)
+                .map(Trace::summary)
+                .toList();
+    }
+
+    /**
+     * Single trace in OTLP/JSON form (importable into Jaeger, Tempo, ...)
+     */
+    public Optional<Map<String, Object>> getOtlp(String traceId) {
+        synchronized (recent) {
+            return recent.stream()
+                    .filter(t -> t.traceId.equals(traceId))
+                    .findFirst()
+                    .map(t -> toOtlp(List.of(t)));
+        }
+    }
+
+    private void finished(Trace trace) {
+        synchronized (recent) {
+            recent.addLast(trace);
+            while (recent.size() > bufferSize) {
+                recent.removeFirst();
+            }
+        }
+        log.debug("Trace {} ({}): {}", trace.name, trace.requestId, trace.timings());
+        if (otlpEndpoint != null && !otlpEndpoint.isBlank()) {
+            export(trace);
+        }
+    }
+
+    private void export(Trace trace) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(otlpEndpoint.replaceAll("/+$", "") + "/v1/traces"))
+                    .timeout(Duration.ofSeconds(10))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(
+                            objectMapper.writeValueAsBytes(toOtlp(List.of(trace)))))
+                    .build();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            log.debug("OTLP export failed: {}", error.toString());
+                        } else if (response.statusCode() >= 300) {
+                            log.debug("OTLP export rejected: HTTP {}", response.statusCode());
+                        }
+                    });
+        } catch (Exception e) {
+            log.debug("OTLP export failed: {}", e.toString());
+        }
+    }
+
+    private static Map<String, Object> toOtlp(List<Trace> traces) {
+        List<Map<String, Object>> spans = new ArrayList<>();
+        for (Trace trace : traces) {
+            spans.addAll(trace.otlpSpans());
+        }
+        Map<String, Object> scope = new LinkedHashMap<>();
+        scope.put("scope", Map.of("name", RequestTracer.class.getName()));
+        scope.put("spans", spans);
+
+        Map<String, Object> resource = new LinkedHashMap<>();
+        resource.put("resource", Map.of("attributes", List.of(attribute("service.name", SERVICE_NAME))));
+        resource.put("scopeSpans", List.of(scope));
+        return Map.of("resourceSpans", List.of(resource));
+    }
+
+    private static Map<String, Object> attribute(String key, Object value) {
+        Map<String, Object> typed = value instanceof Long || value instanceof Integer
+                ? Map.of("intValue", String.valueOf(value))
+                : value instanceof Boolean ? Map.of("boolValue", value)
+                : Map.of("stringValue", String.valueOf(value));
+        return Map.of("key", key, "value", typed);
+    }
+
+    private static String randomHex(int bytes) {
+        byte[] id = new byte[bytes];
+        ThreadLocalRandom.current().nextBytes(id);
+        return HexFormat.of().formatHex(id);
+    }
+
+    /**
+     * A request being traced. Thread-safe; the request may hop from the servlet thread to a worker.
+     */
+    public final class Trace {
+        private final String traceId = randomHex(16);
+        private final String name;
+        private final String requestId;
+        private final Span root;
+        private final List<Span> phases = new ArrayList<>();
+        private Span current;
+        private String status = "ok";
+        private boolean ended;
+
+        private Trace(String name, String requestId) {
+            this.name = name;
+            this.requestId = requestId;
+            this.root = new Span(name, null);
+            root.attributes.put("request.id", requestId);
+        }
+
+        public String getTraceId() {
+            return traceId;
+        }
+
+        /**
+         * Start the next phase, ending the current one
+         */
+        public synchronized Trace phase(String phaseName) {
+            if (!ended) {
+                endPhase();
+                current = new Span(phaseName, root.spanId);
+                phases.add(current);
+            }
+            return this;
+        }
+
+        /**
+         * Span running alongside the phases (one stage of the parallel context gathering);
+         * it shows up in {@link #timings()} like a phase once {@link Stage#end()} is called
+         */
+        public synchronized Stage stage(String stageName) {
+            Span span = new Span(stageName, root.spanId);
+            if (!ended) {
+                phases.add(span);
+            }
+            return new Stage(span);
+        }
+
+        /**
+         * Attribute on the request as a whole (chat, model, expert)
+         */
+        public synchronized Trace tag(String key, Object value) {
+            if (value != null) {
+                root.attributes.put(key, value);
+            }
+            return this;
+        }
+
+        /**
+         * Attribute on the current phase (or the request if no phase is open)
+         */
+        public synchronized Trace attribute(String key, Object value) {
+            if (value != null) {
+                (current != null ? current : root).attributes.put(key, value);
+            }
+            return this;
+        }
+
+        /**
+         * Point in time within the current phase, e.g. the first generated token
+         */
+        public synchronized Trace event(String eventName) {
+            Span span = current != null ? current : root;
+            if (span.events.stream().noneMatch(e -> e.name().equals(eventName))) {
+                span.events.add(new Event(eventName, nowNanos()));
+            }
+            return this;
+        }
+
+        /**
+         * Close the current phase without starting a new one
+         */
+        public synchronized Trace endPhase() {
+            if (current != null) {
+                current.end = nowNanos();
+                current = null;
+            }
+            return this;
+        }
+
+        /**
+         * Finish the trace and hand it to the buffer/exporter (idempotent)
+         */
+        public void end() {
+            synchronized (this) {
+                if (ended) {
+                    return;
+                }
+                endPhase();
+                root.end = nowNanos();
+                ended = true;
+            }
+            finished(this);
+        }
+
+        public synchronized void fail(Throwable error) {
+            status = "error";
+            root.attributes.put("error.message", String.valueOf(error.getMessage()));
+            end();
+        }
+
+        /**
+         * Milliseconds per phase plus {@code total}, in execution order; events are
+         * reported relative to their phase (e.g. {@code generation.first_token})
+         */
+        public synchronized Map<String, Long> timings() {
+            Map<String, Long> timings = new LinkedHashMap<>();
+            long now = nowNanos();
+            for (Span phase : phases) {
+                timings.merge(phase.name, phase.durationMs(now), Long::sum);
+                for (Event event : phase.events) {
+                    timings.putIfAbsent(phase.name + "." + event.name(), (event.epochNanos() - phase.startEpochNanos) / 1_000_000);
+                }
+            }
+            timings.put("total", root.durationMs(now));
+            return timings;
+        }
+
+        private synchronized long durationMs() {
+            return root.durationMs(nowNanos());
+        }
+
+        private synchronized Map<String, Object> summary() {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("traceId", traceId);
+            summary.put("requestId", requestId);
+            summary.put("name", name);
+            summary.put("startedAt", Instant.ofEpochMilli(root.startEpochNanos / 1_000_000).toString());
+            summary.put("durationMs", durationMs());
+            summary.put("status", status);
+            summary.put("attributes", new LinkedHashMap<>(root.attributes));
+            summary.put("phases", timings());
+            return summary;
+        }
+
+        private synchronized List<Map<String, Object>> otlpSpans() {
+            List<Map<String, Object>> spans = new ArrayList<>();
+            spans.add(root.otlp(traceId, "error".equals(status) ? 2 : 1));
+            for (Span phase : phases) {
+                spans.add(phase.otlp(traceId, 0));
+            }
+            return spans;
+        }
+
+        /**
+         * Handle of a parallel stage
+         */
+        public final class Stage {
+            private final Span span;
+
+            private Stage(Span span) {
+                this.span = span;
+            }
+
+            public Stage attribute(String key, Object value) {
+                synchronized (Trace.this) {
+                    if (value != null) {
+                        span.attributes.put(key, value);
+                    }
+                }
+                return this;
+            }
+
+            public void end() {
+                synchronized (Trace.this) {
+                    if (span.end == 0) {
+                        span.end = nowNanos();
+                    }
+                }
+            }
+        }
+
+        private long nowNanos() {
+            return root == null ? System.nanoTime() : root.startEpochNanos + (System.nanoTime() - root.startNanos);
+        }
+
+        /**
+         * One phase (or the request root); timestamps are epoch nanos as OTLP expects
+         */
+        private final class Span {
+            private final String spanId = randomHex(8);
+            private final String name;
+            private final String parentSpanId;
+            private final long startNanos = System.nanoTime();
+            private final long startEpochNanos;
+            private final Map<String, Object> attributes = new LinkedHashMap<>();
+            private final List<Event> events = new ArrayList<>();
+            private long end;
+
+            private Span(String name, String parentSpanId) {
+                this.name = name;
+                this.parentSpanId = parentSpanId;
+                Instant now = Instant.now();
+                this.startEpochNanos = root == null
+                        ? now.getEpochSecond() * 1_000_000_000L + now.getNano()
+                        : nowNanos();
+            }
+
+            private long durationMs(long now) {
+                return ((end > 0 ? end : now) - startEpochNanos) / 1_000_000;
+            }
+
+            private Map<String, Object> otlp(String traceId, int statusCode) {
+                Map<String, Object> span = new LinkedHashMap<>();
+                span.put("traceId", traceId);
+                span.put("spanId", spanId);
+                if (parentSpanId != null) {
+                    span.put("parentSpanId", parentSpanId);
+                }
+                span.put("name", name);
+                span.put("kind", parentSpanId == null ? 2 : 1);  // SERVER for the request, INTERNAL for phases
+                span.put("startTimeUnixNano", String.valueOf(startEpochNanos));
+                span.put("endTimeUnixNano", String.valueOf(end > 0 ? end : startEpochNanos));
+                span.put("attributes", attributes.entrySet().stream()
+                        .map(a -> attribute(a.getKey(), a.getValue()))
+                        .toList());
+                span.put("events", events.stream()
+                        .map(e -> Map.of("name", e.name(), "timeUnixNano", String.valueOf(e.epochNanos())))
+                        .toList());
+                span.put("status", Map.of("code", statusCode));
+                return span;
+            }
+        }
+    }
+
+    private record Event(String name, long epochNanos) {}
+}
@@ -0,0 +1,198 @@
+package io.javafleet.fleetnavigator.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Append-only segment files of deflate-compressed records, plus the deflate helpers.
+ *
+ * Used by {@link ContentBlobStore} (document text) and {@link ChatArchiveService} (archived
+ * chats); {@link MateContentCache} uses only {@link #deflate}/{@link #inflate}.
+ *
+ * A record is {@code storedLength (int), rawLength (int), key, body}; the fixed-size key
+ * (a content hash, a chat ID) lets a segment be read without the database index. Segments
+ * are numbered files {@code <prefix>000001<suffix>}; the highest one is the active segment,
+ * which rolls over once a record would push it past the size limit.
+ *
+ * Not thread-safe for writers: callers append under their own write lock.
+ */
+@Slf4j
+final class SegmentStore {
+
+    private final Path directory;
+    private final String prefix;
+    private final String suffix;
+    private final int headerBytes;
+
+    private volatile int activeSegment;
+    private FileChannel activeChannel;
+    private long activeSize;
+
+    /**
+     * @param keyBytes size of the per-record key stored after the two length fields
+     */
+    SegmentStore(Path directory, String prefix, String suffix, int keyBytes) {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.headerBytes = 4 + 4 + keyBytes;
+    }
+
+    /**
+     * Create the directory and continue writing the highest existing segment
+     */
+    void open() throws IOException {
+        Files.createDirectories(directory);
+        activeSegment = segmentNumbers().stream().mapToInt(Integer::intValue).max().orElse(1);
+        openActiveSegment();
+    }
+
+    void close() {
+        try {
+            if (activeChannel != null) {
+                activeChannel.close();
+            }
+        } catch (IOException e) {
+            log.debug("Could not close {} segment: {}", prefix, e.getMessage());
+        }
+    }
+
+    /**
+     * Append a record and force it to disk; starts a new segment if this one would exceed {@code maxSegmentBytes}
+     *
+     * @return offset of the body within {@link #activeSegment()}
+     */
+    long append(byte[] key, int rawLength, byte[] compressed, long maxSegmentBytes) throws IOException {
+        if (key.length != headerBytes - 8) {
+            throw new IllegalArgumentException("Record key must be " + (headerBytes - 8) + " bytes");
+        }
+        int recordLength = headerBytes + compressed.length;
+        if (activeSize > 0 && activeSize + recordLength > maxSegmentBytes) {
+            activeChannel.close();
+            activeSegment++;
+            openActiveSegment();
+        }
+        ByteBuffer record = ByteBuffer.allocate(recordLength);
+        record.putInt(compressed.length).putInt(rawLength).put(key).put(compressed).flip();
+        long start = activeSize;
+        while (record.hasRemaining()) {
+            activeSize += activeChannel.write(record, activeSize);
+        }
+        activeChannel.force(false);
+        return start + headerBytes;
+    }
+
+    /**
+     * Read a record body into a fresh buffer
+     */
+    ByteBuffer read(int segment, long offset, int length) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+            ByteBuffer body = ByteBuffer.allocate(length);
+            long position = offset;
+            while (body.hasRemaining()) {
+                int n = channel.read(body, position);
+                if (n < 0) {
+                    throw new IOException("Segment " + segmentPath(segment).getFileName() + " is truncated");
+                }
+                position += n;
+            }
+            return body.flip();
+        }
+    }
+
+    int activeSegment() {
+        return activeSegment;
+    }
+
+    long activeSize() {
+        return activeSize;
+    }
+
+    int recordHeaderBytes() {
+        return headerBytes;
+    }
+
+    Path segmentPath(int segment) {
+        return directory.resolve(String.format("%s%06d%s", prefix, segment, suffix));
+    }
+
+    List<Integer> segmentNumbers() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(p -> p.getFileName().toString())
+                    .filter(n -> n.startsWith(prefix) && n.endsWith(suffix))
+                    .map(n -> Integer.parseInt(n.substring(prefix.length(), n.length() - suffix.length())))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            log.warn("Could not list {} segments: {}", prefix, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private void openActiveSegment() throws IOException {
+        activeChannel = FileChannel.open(segmentPath(activeSegment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeSize = activeChannel.size();
+    }
+
+    // ==================== Compression ====================
+
+    /**
+     * Raw deflate (no zlib header) at the given level
+     */
+    static byte[] deflate(byte[] raw, int level) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 3));
+            byte[] buffer = new byte[16 * 1024];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Inflate a body produced by {@link #deflate}; the length must match exactly
+     */
+    static byte[] inflate(ByteBuffer compressed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength) {
+                int n = inflater.inflate(raw, read, rawLength - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != rawLength) {
+                throw new IOException("Corrupt record: expected " + rawLength + " bytes, got " + read);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt record: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
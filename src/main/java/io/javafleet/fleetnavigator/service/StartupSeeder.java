@@ -0,0 +1,34 @@
+package io.javafleet.fleetnavigator.service;
+
+import io.javafleet.fleetnavigator.config.StartupReport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs the idempotent first-start seeders once the application is ready, in order:
+ * default data, demo chats, system prompts.
+ *
+ * In fast-startup mode they run one after another on the startup background thread,
+ * so the UI answers while they fill an empty database. The calls go through the
+ * initializer beans, so each seeder keeps its own transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class StartupSeeder {
+
+    private final StartupReport startupReport;
+    private final DefaultDataInitializer defaultDataInitializer;
+    private final DemoChatsInitializer demoChatsInitializer;
+    private final SystemPromptsInitializer systemPromptsInitializer;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(2) // Nach SystemHealthCheckService (Order 1)
+    public void seed() {
+        startupReport.background("seed.default-data", defaultDataInitializer::initializeDefaultData);
+        startupReport.background("seed.demo-chats", demoChatsInitializer::initializeDemoChats);
+        startupReport.background("seed.system-prompts", systemPromptsInitializer::seedIfEmpty);
+    }
+}
@@ -0,0 +1,90 @@
+package io.javafleet.fleetnavigator.service;
+
+import com.itextpdf.html2pdf.ConverterProperties;
+import com.itextpdf.html2pdf.HtmlConverter;
+import com.itextpdf.html2pdf.resolver.font.DefaultFontProvider;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.IBlockElement;
+import com.itextpdf.layout.element.IElement;
+import com.itextpdf.layout.element.Image;
+
+import java.io.Closeable;
+import java.io.OutputStream;
+
+/**
+ * Writes a PDF page by page while HTML fragments are appended
+ *
+ * Each fragment is converted to layout elements with the shared stylesheet and laid out
+ * immediately; finished pages are flushed to the output stream, so memory depends on the
+ * largest fragment rather than on the whole document. The output stream is not closed.
+ *
+ * Only {@link #finish()} writes the trailer. Closing without it (an exception left the
+ * try block) abandons the document, so a failed export stays visibly incomplete instead
+ * of ending as a shorter PDF that looks complete.
+ */
+public class StreamingPdfWriter implements Closeable {
+
+    // FontProvider is expensive (loads the bundled fonts) and not thread-safe: one per thread
+    private static final ThreadLocal<ConverterProperties> CONVERTER_PROPERTIES = ThreadLocal.withInitial(
+            () -> new ConverterProperties().setFontProvider(new DefaultFontProvider()));
+
+    private static final float MARGIN = 56f;  // ~2 cm
+
+    private final String stylesheet;
+    private final PdfDocument pdfDocument;
+    private final Document document;
+
+    public StreamingPdfWriter(OutputStream out, String title, String stylesheet) {
+        this.stylesheet = stylesheet;
+        PdfWriter writer = new PdfWriter(out);
+        writer.setCloseStream(false);
+        this.pdfDocument = new PdfDocument(writer);
+        this.pdfDocument.getDocumentInfo().setTitle(title);
+        this.document = new Document(pdfDocument, PageSize.A4, true);
+        this.document.setMargins(MARGIN, MARGIN, MARGIN, MARGIN);
+    }
+
+    /**
+     * Lays out an HTML body fragment (no html/head/body tags) below the previous one
+     */
+    public void add(String htmlFragment) {
+        String html = "<html><head><meta charset=\"UTF-8\"><style>" + stylesheet + "</style></head><body>"
+                + htmlFragment + "</body></html>";
+        for (IElement element : HtmlConverter.convertToElements(html, CONVERTER_PROPERTIES.get())) {
+            if (element instanceof IBlockElement block) {
+                document.add(block);
+            } else if (element instanceof Image image) {
+                document.add(image);
+            }
+        }
+    }
+
+    /**
+     * Number of pages written or in layout so far
+     */
+    public int getPageCount() {
+        return pdfDocument.getNumberOfPages();
+    }
+
+    /**
+     * Finishes the PDF (cross-reference table and trailer); an empty document gets one blank page
+     */
+    public void finish() {
+        if (pdfDocument.getNumberOfPages() == 0) {
+            pdfDocument.addNewPage();
+        }
+        document.close();
+    }
+
+    /**
+     * Without {@link #finish()} nothing more is written: the document holds no resources
+     * besides heap and the output stream belongs to the caller
+     */
+    @Override
+    public void close() {
+        // Intentionally empty - an unfinished document is simply abandoned
+    }
+}
@@ -41,8 +41,8 @@ public class SystemHealthCheckService {
     private static final long MIN_FREE_RAM_GB = 2;
     private static final String OLLAMA_URL = "http://localhost:11434";
 
-    public SystemHealthCheckService() {
-        this.httpClient = new OkHttpClient.Builder()
+    public SystemHealthCheckService(OkHttpClient sharedHttpClient) {
+        this.httpClient = sharedHttpClient.newBuilder()
                 .connectTimeout(5, TimeUnit.SECONDS)
                 .readTimeout(5, TimeUnit.SECONDS)
                 .build();
@@ -4,9 +4,6 @@ import io.javafleet.fleetnavigator.model.SystemPromptTemplate;
 import io.javafleet.fleetnavigator.repository.SystemPromptTemplateRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.context.event.ApplicationReadyEvent;
-import org.springframework.context.event.EventListener;
-import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,10 +20,11 @@ public class SystemPromptsInitializer {
 
     private final SystemPromptTemplateRepository systemPromptRepository;
 
-    @EventListener(ApplicationReadyEvent.class)
-    @Order(4) // Nach DemoChatsInitializer
+    /**
+     * Wird beim Start von {@link StartupSeeder} aufgerufen (nach den Demo-Chats)
+     */
     @Transactional
-    public void onApplicationReady() {
+    public void seedIfEmpty() {
         // Nur beim ersten Start - mit Prüfung ob bereits vorhanden
         if (systemPromptRepository.count() > 0) {
             log.info("🎭 System prompts already exist, skipping initialization");
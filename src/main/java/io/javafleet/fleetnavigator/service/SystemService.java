@@ -3,6 +3,8 @@ package io.javafleet.fleetnavigator.service;
 import io.javafleet.fleetnavigator.dto.SystemStatus;
 import io.javafleet.fleetnavigator.model.DbSizeHistory;
 import io.javafleet.fleetnavigator.repository.DbSizeHistoryRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.info.BuildProperties;
@@ -12,6 +14,8 @@ import oshi.SystemInfo;
 import oshi.hardware.GraphicsCard;
 import oshi.hardware.HardwareAbstractionLayer;
 
+import javax.sql.DataSource;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 
@@ -24,6 +28,9 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.lang.management.OperatingSystemMXBean;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -38,6 +45,7 @@ public class SystemService {
 
     private final OllamaService ollamaService;
     private final DbSizeHistoryRepository dbSizeHistoryRepository;
+    private final DataSource dataSource;
 
     @Autowired(required = false)
     private BuildProperties buildProperties;
@@ -387,6 +395,70 @@ public class SystemService {
         return path;
     }
 
+    // ========== Database Compaction ==========
+
+    /**
+     * Compact the embedded H2 file with {@code SHUTDOWN COMPACT} (or {@code SHUTDOWN DEFRAG},
+     * which also reorders the pages): H2 closes the database, rewrites the file without the
+     * free pages and reopens it on the next connection. Open connections are closed by the
+     * shutdown, so the pool drops its idle ones right away; a request running at that moment
+     * fails and has to be retried, which is why this only runs from the nightly archive job.
+     * Other databases (PostgreSQL profile) are skipped.
+     *
+     * @param defrag use SHUTDOWN DEFRAG instead of SHUTDOWN COMPACT
+     */
+    public CompactionResult compactDatabase(boolean defrag) {
+        if (extractDbPathFromUrl(datasourceUrl) == null) {
+            return CompactionResult.skipped("not an embedded H2 file database");
+        }
+        long start = System.currentTimeMillis();
+        long before = getDatabaseSizeBytes();
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(defrag ? "SHUTDOWN DEFRAG" : "SHUTDOWN COMPACT");
+            } finally {
+                // Before closing: the pool resets a returned connection, which fails on a closed database
+                evictPooledConnections();
+            }
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Database compaction failed: {}", e.getMessage());
+            return CompactionResult.skipped("failed: " + e.getMessage());
+        }
+        long after = getDatabaseSizeBytes();
+        recordDatabaseSize();
+        log.info("Database compacted: {} MB -> {} MB in {} ms",
+                before / (1024 * 1024), after / (1024 * 1024), System.currentTimeMillis() - start);
+        return new CompactionResult(true, before, after, Math.max(0, before - after),
+                System.currentTimeMillis() - start, null);
+    }
+
+    /**
+     * Pooled connections point at the closed database after SHUTDOWN; retire them instead of
+     * waiting for the pool's validation to notice
+     */
+    private void evictPooledConnections() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+                if (pool != null) {
+                    pool.softEvictConnections();
+                }
+            }
+        } catch (SQLException e) {
+            log.debug("Could not evict pooled connections: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Outcome of a compaction run; {@code skippedReason} is set when nothing was done
+     */
+    public record CompactionResult(boolean compacted, long bytesBefore, long bytesAfter, long reclaimedBytes,
+                                   long durationMs, String skippedReason) {
+        static CompactionResult skipped(String reason) {
+            return new CompactionResult(false, 0, 0, 0, 0, reason);
+        }
+    }
+
     // ========== Database Size History ==========
 
     /**
@@ -1,52 +1,136 @@
 package io.javafleet.fleetnavigator.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.javafleet.fleetnavigator.config.StartupReport;
 import lombok.extern.slf4j.Slf4j;
 import net.sourceforge.tess4j.Tesseract;
 import net.sourceforge.tess4j.TesseractException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service für Tesseract OCR - zuverlässige Textextraktion aus Bildern
  *
  * Verwendet das System-installierte Tesseract für echte OCR statt Vision-Models.
  * Benötigt: tesseract-ocr und tesseract-ocr-deu auf dem System
+ *
+ * Tess4j-Instanzen sind nicht thread-safe: jeder Worker des OCR-Pools hat seine
+ * eigene Instanz. Mehrseitige Dokumente laufen als Pipeline - der Aufrufer rendert
+ * die nächste Seite, während die Worker frühere Seiten erkennen. Höchstens
+ * Pool-Größe + 1 Seitenbilder sind gleichzeitig im Speicher.
+ *
+ * Erkannter Text wird pro Seitenbild (SHA-256 der Pixel) gecacht - wiederholte
+ * Uploads und identische Seiten (Leerseiten, Deckblätter) werden nicht erneut erkannt.
  */
 @Service
 @Slf4j
 public class TesseractOCRService {
 
-    private Tesseract tesseract;
-    private boolean available = false;
+    private static final String LANGUAGE = "deu+eng";
+
+    /** Anzahl paralleler Tesseract-Instanzen (0 = automatisch, halbe Kernzahl, max. 4) */
+    @Value("${fleet-navigator.ocr.pool-size:0}")
+    private int poolSize = 0;
+
+    @Value("${fleet-navigator.ocr.cache-max-size:2000}")
+    private long cacheMaxSize = 2000;
+
+    private String dataPath;
+    private volatile boolean available = false;
     private String unavailableReason = "";
 
+    private ExecutorService ocrPool;
+    private int workers;
+    private final ThreadLocal<Tesseract> workerTesseract = ThreadLocal.withInitial(this::createTesseract);
+
+    // SHA-256 des Seitenbilds -> erkannter Text
+    private volatile Cache<String, String> pageCache;
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong recognizedPages = new AtomicLong();
+
+    @Autowired(required = false)
+    private StartupReport startupReport;
+
+    private volatile boolean initialized;
+
     @PostConstruct
-    public void init() {
-        try {
-            tesseract = new Tesseract();
+    public void startup() {
+        if (startupReport != null && startupReport.isFast()) {
+            startupReport.deferred("tesseract.init");
+        } else {
+            ensureInitialized();
+        }
+    }
 
+    /**
+     * Initialisiert beim ersten Aufruf (im Fast-Startup-Modus erst bei der ersten OCR)
+     *
+     * Das Flag wird erst nach init() gesetzt: wer initialized liest, sieht Cache, Pool und
+     * Verfügbarkeit vollständig.
+     */
+    private void ensureInitialized() {
+        if (initialized) {
+            return;
+        }
+        synchronized (this) {
+            if (!initialized) {
+                if (startupReport != null) {
+                    startupReport.measure("tesseract.init", this::init);
+                } else {
+                    init();
+                }
+                initialized = true;
+            }
+        }
+    }
+
+    private void init() {
+        pageCache = Caffeine.newBuilder().maximumSize(cacheMaxSize).build();
+
+        try {
             // Standard-Datapfade für verschiedene Betriebssysteme
-            String dataPath = findTessDataPath();
+            dataPath = findTessDataPath();
             if (dataPath != null) {
-                tesseract.setDatapath(dataPath);
                 log.info("Tesseract datapath: {}", dataPath);
             }
 
-            // Deutsch als primäre Sprache, Englisch als Fallback
-            tesseract.setLanguage("deu+eng");
-
-            // OCR Engine Mode: LSTM (beste Qualität)
-            tesseract.setOcrEngineMode(1);
+            // Konfigurationstest; die Worker erzeugen ihre Instanzen bei Bedarf
+            createTesseract();
 
-            // Page Segmentation Mode: Auto
-            tesseract.setPageSegMode(3);
+            workers = poolSize > 0 ? poolSize
+                    : Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+            AtomicInteger threadCount = new AtomicInteger();
+            ocrPool = Executors.newFixedThreadPool(workers, r -> {
+                Thread t = new Thread(r, "ocr-worker-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
 
-            // Test ob Tesseract funktioniert (einfacher Init-Test)
-            log.info("Tesseract OCR initialisiert (Sprachen: deu+eng)");
+            log.info("Tesseract OCR initialisiert (Sprachen: {}, {} Worker)", LANGUAGE, workers);
             available = true;
 
         } catch (Exception e) {
@@ -58,6 +142,33 @@ public class TesseractOCRService {
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        if (ocrPool != null) {
+            ocrPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Erzeugt eine konfigurierte Tesseract-Instanz (eine pro Worker-Thread)
+     */
+    private Tesseract createTesseract() {
+        Tesseract tesseract = new Tesseract();
+        if (dataPath != null) {
+            tesseract.setDatapath(dataPath);
+        }
+
+        // Deutsch als primäre Sprache, Englisch als Fallback
+        tesseract.setLanguage(LANGUAGE);
+
+        // OCR Engine Mode: LSTM (beste Qualität)
+        tesseract.setOcrEngineMode(1);
+
+        // Page Segmentation Mode: Auto
+        tesseract.setPageSegMode(3);
+        return tesseract;
+    }
+
     /**
      * Findet den tessdata Pfad je nach Betriebssystem
      */
@@ -93,6 +204,7 @@ public class TesseractOCRService {
      * Prüft ob Tesseract OCR verfügbar ist
      */
     public boolean isAvailable() {
+        ensureInitialized();
         return available;
     }
 
@@ -100,6 +212,7 @@ public class TesseractOCRService {
      * Gibt den Grund zurück, warum Tesseract nicht verfügbar ist
      */
     public String getUnavailableReason() {
+        ensureInitialized();
         return unavailableReason;
     }
 
@@ -111,18 +224,12 @@ public class TesseractOCRService {
      * @throws TesseractException Bei OCR-Fehlern
      */
     public String performOCR(BufferedImage image) throws TesseractException {
-        if (!available) {
-            throw new IllegalStateException("Tesseract OCR ist nicht verfügbar: " + unavailableReason);
+        ensureAvailable();
+        try {
+            return await(submit(image, null));
+        } catch (InterruptedIOException e) {
+            throw new TesseractException(e.getMessage(), e);
         }
-
-        long startTime = System.currentTimeMillis();
-        String result = tesseract.doOCR(image);
-        long duration = System.currentTimeMillis() - startTime;
-
-        log.debug("OCR abgeschlossen in {}ms, {} Zeichen extrahiert",
-                duration, result.length());
-
-        return result.trim();
     }
 
     /**
@@ -132,30 +239,76 @@ public class TesseractOCRService {
      * @return Kombinierter extrahierter Text
      */
     public String performOCROnPages(List<BufferedImage> images) throws TesseractException {
-        if (!available) {
-            throw new IllegalStateException("Tesseract OCR ist nicht verfügbar: " + unavailableReason);
+        try {
+            return performOCROnPages(images.size(), images::get);
+        } catch (IOException e) {
+            throw new TesseractException(e.getMessage(), e);
         }
+    }
+
+    /**
+     * Liefert das Bild einer Seite (wird nacheinander im aufrufenden Thread aufgerufen)
+     */
+    @FunctionalInterface
+    public interface PageRenderer {
+        BufferedImage render(int pageIndex) throws IOException;
+    }
 
-        StringBuilder fullText = new StringBuilder();
-        int pageNum = 1;
+    /**
+     * OCR als Pipeline: Seiten werden nacheinander gerendert und sofort an den Pool übergeben.
+     * Das Rendern blockiert, solange Pool-Größe + 1 Seiten unterwegs sind - der Speicherbedarf
+     * hängt damit nicht von der Seitenzahl ab.
+     *
+     * @param pageCount Anzahl Seiten
+     * @param renderer  rendert eine Seite (nicht thread-safe Quellen wie PDDocument sind erlaubt)
+     * @return Kombinierter extrahierter Text in Seitenreihenfolge
+     */
+    public String performOCROnPages(int pageCount, PageRenderer renderer) throws IOException, TesseractException {
+        ensureAvailable();
 
-        for (BufferedImage image : images) {
-            log.info("OCR Seite {}/{}", pageNum, images.size());
-            String pageText = performOCR(image);
+        long startTime = System.currentTimeMillis();
+        long hitsBefore = cacheHits.get();
+        Semaphore inFlight = new Semaphore(workers + 1);
+        List<Future<String>> pages = new ArrayList<>(pageCount);
 
-            if (!pageText.isEmpty()) {
-                if (fullText.length() > 0) {
-                    fullText.append("\n\n--- Seite ").append(pageNum).append(" ---\n\n");
+        try {
+            for (int page = 0; page < pageCount; page++) {
+                inFlight.acquire();
+                BufferedImage image;
+                try {
+                    image = renderer.render(page);
+                } catch (IOException | RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
+                pages.add(submit(image, inFlight));
+                log.debug("OCR Seite {}/{} eingereiht", page + 1, pageCount);
+            }
+
+            StringBuilder fullText = new StringBuilder();
+            for (int page = 0; page < pages.size(); page++) {
+                String pageText = await(pages.get(page));
+                if (!pageText.isEmpty()) {
+                    if (fullText.length() > 0) {
+                        fullText.append("\n\n--- Seite ").append(page + 1).append(" ---\n\n");
+                    }
+                    fullText.append(pageText);
                 }
-                fullText.append(pageText);
             }
-            pageNum++;
-        }
 
-        log.info("OCR abgeschlossen: {} Seiten, {} Zeichen total",
-                images.size(), fullText.length());
+            log.info("OCR abgeschlossen: {} Seiten ({} aus Cache), {} Zeichen total in {}ms",
+                    pageCount, cacheHits.get() - hitsBefore, fullText.length(),
+                    System.currentTimeMillis() - startTime);
 
-        return fullText.toString();
+            return fullText.toString();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("OCR unterbrochen");
+        } finally {
+            // Bei Fehlern laufende Seiten nicht weiter erkennen
+            pages.forEach(f -> f.cancel(true));
+        }
     }
 
     /**
@@ -165,10 +318,110 @@ public class TesseractOCRService {
      * @return Extrahierter Text
      */
     public String performOCR(File imageFile) throws TesseractException {
+        ensureAvailable();
+        try {
+            return await(ocrPool.submit(() -> workerTesseract.get().doOCR(imageFile).trim()));
+        } catch (InterruptedIOException e) {
+            throw new TesseractException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Cache-Statistik (Seiten erkannt / aus Cache / Pool-Größe)
+     */
+    public Map<String, Object> getStats() {
+        ensureInitialized();
+        return Map.of(
+                "workers", workers,
+                "recognizedPages", recognizedPages.get(),
+                "cacheHits", cacheHits.get(),
+                "cachedPages", pageCache.estimatedSize());
+    }
+
+    /**
+     * Texterkennung mit der Tesseract-Instanz des aktuellen Worker-Threads
+     */
+    String recognize(BufferedImage image) throws TesseractException {
+        long startTime = System.currentTimeMillis();
+        String result = workerTesseract.get().doOCR(image);
+        log.debug("OCR abgeschlossen in {}ms, {} Zeichen extrahiert",
+                System.currentTimeMillis() - startTime, result.length());
+        return result.trim();
+    }
+
+    private Future<String> submit(BufferedImage image, Semaphore inFlight) {
+        return ocrPool.submit(() -> {
+            try {
+                boolean[] computed = new boolean[1];
+                // Gleichzeitige identische Seiten warten auf dieselbe Erkennung
+                String text = pageCache.get(pageHash(image), k -> {
+                    computed[0] = true;
+                    try {
+                        recognizedPages.incrementAndGet();
+                        return recognize(image);
+                    } catch (TesseractException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+                if (!computed[0]) {
+                    cacheHits.incrementAndGet();
+                }
+                return text;
+            } finally {
+                if (inFlight != null) {
+                    inFlight.release();
+                }
+            }
+        });
+    }
+
+    private static String await(Future<String> future) throws TesseractException, InterruptedIOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("OCR unterbrochen");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof TesseractException te) {
+                throw te;
+            }
+            throw new TesseractException(cause.getMessage(), cause);
+        }
+    }
+
+    private void ensureAvailable() {
+        ensureInitialized();
         if (!available) {
             throw new IllegalStateException("Tesseract OCR ist nicht verfügbar: " + unavailableReason);
         }
+    }
+
+    /**
+     * SHA-256 über Bildgröße und Pixel (zeilenweise, ohne Kopie des ganzen Rasters)
+     */
+    static String pageHash(BufferedImage image) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        digest.update(ByteBuffer.allocate(8).putInt(width).putInt(height).array());
 
-        return tesseract.doOCR(imageFile).trim();
+        int[] row = new int[width];
+        ByteBuffer rowBytes = ByteBuffer.allocate(width * 4);
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            rowBytes.clear();
+            rowBytes.asIntBuffer().put(row);
+            digest.update(rowBytes.array());
+        }
+        return HexFormat.of().formatHex(digest.digest());
     }
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.javafleet.fleetnavigator.llm.StructuredOutput;
 import io.javafleet.fleetnavigator.llm.dto.ModelInfo;
 import io.javafleet.fleetnavigator.model.AppSettings;
 import io.javafleet.fleetnavigator.repository.AppSettingsRepository;
@@ -49,10 +50,16 @@ public class WebSearchService {
 
     private final OkHttpClient httpClient;
     private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Optimierte Query als kurzes JSON-Objekt (Grammar-Sampling statt Freitext)
+    private static final StructuredOutput QUERY_FORMAT = StructuredOutput.jsonSchema("""
+            {"type":"object","properties":{"query":{"type":"string","maxLength":150}},"required":["query"]}
+            """);
     private final AppSettingsRepository settingsRepository;
     private final OllamaService ollamaService;
     private final LLMProviderService llmProviderService;
     private final ExecutorService searchExecutor;
+    private final ExecutorService contentFetchExecutor;
 
     // ============ CACHE ============
     private final Cache<String, List<SearchResult>> searchCache;
@@ -108,11 +115,12 @@ public class WebSearchService {
 
     private List<String> searxngInstances = new ArrayList<>(DEFAULT_SEARXNG_INSTANCES);
 
-    public WebSearchService(AppSettingsRepository settingsRepository, OllamaService ollamaService, LLMProviderService llmProviderService) {
+    public WebSearchService(AppSettingsRepository settingsRepository, OllamaService ollamaService,
+                            LLMProviderService llmProviderService, OkHttpClient sharedHttpClient) {
         this.settingsRepository = settingsRepository;
         this.ollamaService = ollamaService;
         this.llmProviderService = llmProviderService;
-        this.httpClient = new OkHttpClient.Builder()
+        this.httpClient = sharedHttpClient.newBuilder()
                 .connectTimeout(10, TimeUnit.SECONDS)
                 .readTimeout(15, TimeUnit.SECONDS)
                 .followRedirects(true)
@@ -131,6 +139,7 @@ public class WebSearchService {
                 .build();
 
         this.searchExecutor = Executors.newFixedThreadPool(3);
+        this.contentFetchExecutor = Executors.newFixedThreadPool(6);
     }
 
     @PostConstruct
@@ -379,13 +388,17 @@ public class WebSearchService {
         }
 
         // 6. Web-Scraping für vollständige Inhalte (wenn aktiviert)
+        boolean complete = true;
         if (contentScrapingEnabled && options.isFetchFullContent()) {
-            results = enrichWithFullContent(results, options.getMaxContentLength());
-            log.info("📄 Vollständige Inhalte abgerufen");
+            ContentEnrichment enrichment = enrichWithFullContent(results, options.getMaxContentLength(),
+                    options.getContentDeadlineMs());
+            results = enrichment.results();
+            complete = enrichment.complete();
+            log.info("📄 Vollständige Inhalte abgerufen{}", complete ? "" : " (teilweise, Deadline erreicht)");
         }
 
-        // 7. Cache speichern
-        if (!results.isEmpty()) {
+        // 7. Cache speichern (nicht bei Teilergebnissen, sonst bleibt der Snippet-Stand 15 Minuten hängen)
+        if (!results.isEmpty() && complete) {
             searchCache.put(cacheKey, results);
         }
 
@@ -445,7 +458,7 @@ public class WebSearchService {
                 1. Extrahiere die Kernbegriffe
                 2. Entferne Füllwörter
                 3. Füge relevante Synonyme hinzu (mit OR)
-                4. Gib NUR die optimierte Suchanfrage zurück, NICHTS anderes
+                4. Gib NUR die optimierte Suchanfrage im Feld "query" zurück, NICHTS anderes
                 5. Maximal 10 Wörter
                 """ + expertHint + """
 
@@ -459,9 +472,11 @@ public class WebSearchService {
             String prompt = "Optimiere diese Suchanfrage (Sprache: " + language + "): " + userQuery;
 
             log.debug("Query-Optimierung mit Modell: {}", effectiveOptimizationModel);
-            String result = ollamaService.chat(effectiveOptimizationModel, prompt, systemPrompt, null);
-            if (result != null && !result.isBlank() && result.length() < 200) {
-                return result.trim().replaceAll("[\"']", "");
+            String result = ollamaService.chatStructured(effectiveOptimizationModel, prompt, systemPrompt, null,
+                    QUERY_FORMAT, 48);
+            String query = extractQuery(result);
+            if (query != null && !query.isBlank() && query.length() < 200) {
+                return query.trim().replaceAll("[\"']", "");
             }
         } catch (Exception e) {
             log.warn("Query-Optimierung fehlgeschlagen ({}): {}", effectiveOptimizationModel, e.getMessage());
@@ -469,6 +484,21 @@ public class WebSearchService {
         return userQuery;
     }
 
+    /**
+     * Liest "query" aus der strukturierten Antwort; ältere Ollama-Versionen ignorieren das Schema
+     * und liefern Freitext, der dann direkt verwendet wird
+     */
+    private String extractQuery(String result) {
+        if (result == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(result).path("query").asText(null);
+        } catch (Exception e) {
+            return result;
+        }
+    }
+
     // ============ MULTI-QUERY ============
 
     private List<SearchResult> executeMultiQuery(String optimizedQuery, String originalQuery, SearchOptions options) {
@@ -615,16 +645,42 @@ public class WebSearchService {
 
     // ============ WEB-SCRAPING ============
 
-    private List<SearchResult> enrichWithFullContent(List<SearchResult> results, int maxLength) {
-        return results.stream()
-            .map(result -> {
-                String content = fetchPageContent(result.url(), maxLength);
-                if (content != null && !content.isBlank()) {
-                    return new SearchResult(result.title(), result.url(), content);
-                }
-                return result;
-            })
+    private record ContentEnrichment(List<SearchResult> results, boolean complete) {}
+
+    /**
+     * Lädt die Seiteninhalte parallel; was bis zur Deadline nicht da ist, behält sein Snippet
+     *
+     * @param deadlineMs 0 = auf alle Seiten warten
+     */
+    private ContentEnrichment enrichWithFullContent(List<SearchResult> results, int maxLength, long deadlineMs) {
+        List<CompletableFuture<String>> pages = results.stream()
+            .map(result -> CompletableFuture.supplyAsync(() -> fetchPageContent(result.url(), maxLength), contentFetchExecutor))
             .collect(Collectors.toList());
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        boolean complete = true;
+        List<SearchResult> enriched = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            SearchResult result = results.get(i);
+            String content = null;
+            try {
+                content = deadlineMs > 0
+                    ? pages.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+                    : pages.get(i).get();
+            } catch (TimeoutException e) {
+                complete = false;
+                log.debug("Seiteninhalt nicht rechtzeitig geladen: {}", result.url());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                complete = false;
+            } catch (ExecutionException e) {
+                log.debug("Konnte Seite nicht laden: {} - {}", result.url(), e.getMessage());
+            }
+            enriched.add(content != null && !content.isBlank()
+                ? new SearchResult(result.title(), result.url(), content)
+                : result);
+        }
+        return new ContentEnrichment(enriched, complete);
     }
 
     /**
@@ -1122,6 +1178,7 @@ public class WebSearchService {
         private boolean multiQuery = false;
         private boolean reRank = true;
         private int maxContentLength = 1000;
+        private long contentDeadlineMs = 0; // 0 = auf alle Seiteninhalte warten
         private String expertContext; // z.B. "Rechtsanwalt", "Steuerberater", "IT-Experte"
 
         public String getExpertContext() { return expertContext; }
@@ -0,0 +1,84 @@
+package io.javafleet.fleetnavigator.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-freies Latenz-Histogramm mit festen, logarithmischen Buckets (in Millisekunden).
+ *
+ * Gedacht für Hot Paths (WebSocket-Handler, Streaming-Callbacks): Aufzeichnen kostet
+ * nur ein paar atomare Inkremente, Perzentile werden erst beim Auslesen geschätzt.
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+public final class LatencyHistogram {
+
+    private static final long[] BOUNDS_MS = {
+            1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, 10_000, 30_000, 60_000, Long.MAX_VALUE
+    };
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS_MS.length);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMs = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private volatile long maxMs;
+
+    public void record(long millis) {
+        int i = 0;
+        while (millis > BOUNDS_MS[i]) {
+            i++;
+        }
+        buckets.incrementAndGet(i);
+        count.increment();
+        sumMs.add(millis);
+        if (millis > maxMs) {
+            maxMs = millis;
+        }
+    }
+
+    public void recordError() {
+        errors.increment();
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Schätzt ein Perzentil (0-100) als obere Bucket-Grenze
+     */
+    public long percentile(double p) {
+        long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long threshold = (long) Math.ceil(total * p / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS_MS.length; i++) {
+            seen += buckets.get(i);
+            if (seen >= threshold) {
+                return BOUNDS_MS[i] == Long.MAX_VALUE ? maxMs : BOUNDS_MS[i];
+            }
+        }
+        return maxMs;
+    }
+
+    /**
+     * Zusammenfassung für REST-Ausgabe
+     */
+    public Map<String, Object> snapshot() {
+        long total = count.sum();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", total);
+        result.put("errors", errors.sum());
+        result.put("avgMs", total > 0 ? sumMs.sum() / total : 0);
+        result.put("p50Ms", percentile(50));
+        result.put("p95Ms", percentile(95));
+        result.put("p99Ms", percentile(99));
+        result.put("maxMs", maxMs);
+        return result;
+    }
+}
@@ -0,0 +1,385 @@
+package io.javafleet.fleetnavigator.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Streaming-Vorverarbeitung für Logs: gruppiert Zeilen zu Templates (Drain-Verfahren).
+ *
+ * Jede Zeile wird maskiert (Zeitstempel, UUIDs, IPs, Hex-Werte und Zahlen werden zu
+ * Platzhaltern), in Tokens zerlegt und über einen Parse-Baum fester Tiefe
+ * (Tokenanzahl → erstes Token → zweites Token) einem Template zugeordnet. Ähnliche
+ * Zeilen verschmelzen, abweichende Tokens werden zu {@code <*>}.
+ *
+ * Nur die ersten Vorkommen eines Templates werden als Rohzeilen an den Downstream
+ * weitergereicht; Wiederholungen werden nur gezählt (mit erstem/letztem Zeitstempel).
+ * Ist die Template-Obergrenze erreicht, landen neue Zeilen je Schweregrad in einem
+ * Sammel-Template {@code <sonstige>}; auch davon gehen nur die ersten Vorkommen durch,
+ * sodass eine späte Fehlermeldung nicht im Rauschen untergeht.
+ *
+ * Laufzeit linear in der Log-Länge, Speicher begrenzt durch Template-Anzahl,
+ * Zeilenlänge und Blattgröße.
+ *
+ * Nicht thread-safe: Aufrufer synchronisieren selbst.
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+public final class LogTemplateMiner {
+
+    /**
+     * Ergebnis-Template mit Statistik
+     */
+    public record Template(String pattern, long count, Severity severity, String firstSeen, String lastSeen,
+                           String exemplar, long firstLine) {
+    }
+
+    public enum Severity {
+        INFO, WARNING, ERROR
+    }
+
+    static final String WILDCARD = "<*>";
+    static final String OTHER = "<sonstige>";
+    private static final int MAX_LINE_CHARS = 2000;
+    private static final int MAX_EXEMPLAR_CHARS = 300;
+    private static final int MAX_TOKENS = 64;
+    private static final int MAX_CHILDREN = 100;
+    private static final int MAX_LEAF_CLUSTERS = 64;
+    private static final double SIMILARITY_THRESHOLD = 0.5;
+
+    // Ein Durchlauf pro Zeile: Gruppen 1-5 = Zeitstempel, UUID, IP, Hex, Zahl
+    private static final Pattern VARIABLES = Pattern.compile(
+            "(\\d{4}-\\d{2}-\\d{2}[T ]\\d{2}:\\d{2}:\\d{2}(?:[.,]\\d+)?(?:Z|[+-]\\d{2}:?\\d{2})?"
+                    + "|\\b[A-Z][a-z]{2} +\\d{1,2} \\d{2}:\\d{2}:\\d{2}\\b"
+                    + "|\\b\\d{2}:\\d{2}:\\d{2}(?:[.,]\\d+)?\\b)"
+                    + "|(\\b[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}\\b)"
+                    + "|(\\b\\d{1,3}(?:\\.\\d{1,3}){3}(?::\\d+)?\\b)"
+                    + "|(\\b0x[0-9a-fA-F]+\\b|\\b[0-9a-fA-F]{16,}\\b)"
+                    + "|(\\b\\d+(?:\\.\\d+)?\\b)");
+    private static final String[] MASKS = {null, "<TS>", "<UUID>", "<IP>", "<HEX>", "<NUM>"};
+
+    private static final Pattern ERROR_LEVEL = Pattern.compile(
+            "\\b(FATAL|CRITICAL|CRIT|ERROR|ERR|SEVERE|PANIC|EMERG|ALERT|Traceback)\\b|\\w*(Exception|Error)\\b");
+    private static final Pattern WARNING_LEVEL = Pattern.compile("\\b(WARN|WARNING)\\b", Pattern.CASE_INSENSITIVE);
+
+    private final int maxTemplates;
+    private final int exemplarLines;
+    private final Consumer<String> passthrough;
+
+    private final Map<Integer, Map<String, Map<String, List<Cluster>>>> tree = new HashMap<>();
+    private final List<Cluster> clusters = new ArrayList<>();
+    // Sammel-Templates für Zeilen jenseits der Obergrenze, eins je Schweregrad
+    private final Map<Severity, Cluster> overflow = new EnumMap<>(Severity.class);
+    private final StringBuilder partialLine = new StringBuilder();
+    private final Utf8ChunkDecoder decoder = new Utf8ChunkDecoder();
+    private long lineCount;
+    private long forwardedLines;
+    private long unclusteredLines;
+
+    /**
+     * @param maxTemplates  Obergrenze für Templates (fester Speicher)
+     * @param exemplarLines So viele Vorkommen je Template werden als Rohzeilen weitergereicht
+     * @param passthrough   Empfänger der weitergereichten Zeilen (inkl. Zeilenumbruch)
+     */
+    public LogTemplateMiner(int maxTemplates, int exemplarLines, Consumer<String> passthrough) {
+        this.maxTemplates = maxTemplates;
+        this.exemplarLines = exemplarLines;
+        this.passthrough = passthrough;
+    }
+
+    /**
+     * Text anhängen; vollständige Zeilen werden sofort verarbeitet
+     */
+    public void append(CharSequence text) {
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                appendPartial(text, start, i);
+                processLine(partialLine.toString());
+                partialLine.setLength(0);
+                start = i + 1;
+            }
+        }
+        appendPartial(text, start, text.length());
+    }
+
+    /**
+     * UTF-8 Bytes anhängen (z.B. Chunks eines Transfers)
+     */
+    public void append(byte[] bytes) {
+        append(decoder.decode(bytes));
+    }
+
+    /**
+     * Stromende: letzte Zeile ohne Umbruch verarbeiten
+     */
+    public void finish() {
+        append(decoder.flush());
+        if (!partialLine.isEmpty()) {
+            processLine(partialLine.toString());
+            partialLine.setLength(0);
+        }
+    }
+
+    /**
+     * Templates sortiert: Fehler vor Warnungen vor Rest, innerhalb davon seltene zuerst
+     */
+    public List<Template> rankedTemplates() {
+        return Stream.concat(clusters.stream(), overflow.values().stream())
+                .sorted(Comparator.comparing((Cluster c) -> c.severity).reversed()
+                        .thenComparingLong(c -> c.count)
+                        .thenComparingLong(c -> c.firstLine))
+                .map(Cluster::toTemplate)
+                .toList();
+    }
+
+    /**
+     * Kompakte Template-Übersicht für den Prompt, auf {@code maxChars} begrenzt
+     */
+    public String render(int maxChars) {
+        StringBuilder out = new StringBuilder();
+        List<Template> ranked = rankedTemplates();
+        int shown = 0;
+        for (Template t : ranked) {
+            StringBuilder entry = new StringBuilder();
+            entry.append("- [").append(t.severity()).append("] ").append(t.count()).append("× ")
+                    .append(t.pattern());
+            if (t.firstSeen() != null) {
+                entry.append(" (").append(t.firstSeen());
+                if (t.count() > 1 && !t.firstSeen().equals(t.lastSeen())) {
+                    entry.append(" bis ").append(t.lastSeen());
+                }
+                entry.append(')');
+            }
+            if (t.pattern().contains("<")) {
+                entry.append("\n  Beispiel: ").append(t.exemplar());
+            }
+            entry.append('\n');
+            if (out.length() + entry.length() > maxChars) {
+                break;
+            }
+            out.append(entry);
+            shown++;
+        }
+        if (shown < ranked.size()) {
+            out.append("- … ").append(ranked.size() - shown).append(" weitere, häufige Templates ausgelassen\n");
+        }
+        if (unclusteredLines > 0) {
+            out.append("- ").append(unclusteredLines).append(" Zeilen ohne eigenes Template (Obergrenze erreicht) sind unter ")
+                    .append(OTHER).append(" zusammengefasst\n");
+        }
+        return out.toString();
+    }
+
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    public long getForwardedLines() {
+        return forwardedLines;
+    }
+
+    public int getTemplateCount() {
+        return clusters.size();
+    }
+
+    // ==================== Drain ====================
+
+    private void appendPartial(CharSequence text, int from, int to) {
+        // Überlange Zeilen nur bis zur Obergrenze puffern (fester Speicher)
+        int room = MAX_LINE_CHARS - partialLine.length();
+        if (room > 0 && to > from) {
+            partialLine.append(text, from, Math.min(to, from + room));
+        }
+    }
+
+    private void processLine(String raw) {
+        String line = raw.endsWith("\r") ? raw.substring(0, raw.length() - 1) : raw;
+        if (line.isBlank()) {
+            return;
+        }
+        lineCount++;
+
+        String timestamp = null;
+        StringBuilder masked = new StringBuilder(line.length());
+        Matcher m = VARIABLES.matcher(line);
+        int last = 0;
+        while (m.find()) {
+            masked.append(line, last, m.start());
+            for (int g = 1; g < MASKS.length; g++) {
+                if (m.group(g) != null) {
+                    if (g == 1 && timestamp == null) {
+                        timestamp = m.group(g);
+                    }
+                    masked.append(MASKS[g]);
+                    break;
+                }
+            }
+            last = m.end();
+        }
+        masked.append(line, last, line.length());
+
+        String[] tokens = masked.toString().trim().split("\\s+", MAX_TOKENS + 1);
+        if (tokens.length > MAX_TOKENS) {
+            // Rest der Zeile als ein variabler Block
+            tokens[MAX_TOKENS] = WILDCARD;
+        }
+
+        Cluster cluster = match(tokens);
+        if (cluster == null) {
+            cluster = addCluster(tokens, line);
+        }
+        if (cluster == null) {
+            unclusteredLines++;
+            Severity severity = severity(line);
+            cluster = overflow.computeIfAbsent(severity, s -> {
+                Cluster other = new Cluster(new String[]{OTHER}, lineCount, exemplar(line));
+                other.severity = s;
+                return other;
+            });
+        }
+
+        cluster.count++;
+        cluster.severity = max(cluster.severity, severity(line));
+        if (timestamp != null) {
+            if (cluster.firstSeen == null) {
+                cluster.firstSeen = timestamp;
+            }
+            cluster.lastSeen = timestamp;
+        }
+        if (cluster.count <= exemplarLines) {
+            forward(line);
+        }
+    }
+
+    private void forward(String line) {
+        forwardedLines++;
+        passthrough.accept(line + "\n");
+    }
+
+    private List<Cluster> leaf(String[] tokens, boolean create) {
+        Map<String, Map<String, List<Cluster>>> byFirst = create
+                ? tree.computeIfAbsent(tokens.length, k -> new HashMap<>())
+                : tree.get(tokens.length);
+        if (byFirst == null) {
+            return null;
+        }
+        String first = nodeKey(byFirst, tokens[0]);
+        Map<String, List<Cluster>> bySecond = create
+                ? byFirst.computeIfAbsent(first, k -> new HashMap<>())
+                : byFirst.get(first);
+        if (bySecond == null) {
+            return null;
+        }
+        String second = nodeKey(bySecond, tokens.length > 1 ? tokens[1] : "");
+        return create ? bySecond.computeIfAbsent(second, k -> new ArrayList<>()) : bySecond.get(second);
+    }
+
+    /**
+     * Tokens mit Platzhaltern und volle Knoten laufen über den Wildcard-Zweig
+     */
+    private static String nodeKey(Map<String, ?> node, String token) {
+        if (token.contains("<")) {
+            return WILDCARD;
+        }
+        if (node.containsKey(token)) {
+            return token;
+        }
+        return node.size() >= MAX_CHILDREN ? WILDCARD : token;
+    }
+
+    private Cluster match(String[] tokens) {
+        List<Cluster> leaf = leaf(tokens, false);
+        if (leaf == null) {
+            return null;
+        }
+        Cluster best = null;
+        double bestScore = -1;
+        for (Cluster candidate : leaf) {
+            double score = similarity(candidate.tokens, tokens);
+            if (score > bestScore) {
+                bestScore = score;
+                best = candidate;
+            }
+        }
+        if (best == null || bestScore < SIMILARITY_THRESHOLD) {
+            return null;
+        }
+        for (int i = 0; i < tokens.length; i++) {
+            if (!best.tokens[i].equals(tokens[i])) {
+                best.tokens[i] = WILDCARD;
+            }
+        }
+        return best;
+    }
+
+    private Cluster addCluster(String[] tokens, String line) {
+        if (clusters.size() >= maxTemplates) {
+            return null;
+        }
+        List<Cluster> leaf = leaf(tokens, true);
+        if (leaf.size() >= MAX_LEAF_CLUSTERS) {
+            return null;
+        }
+        Cluster cluster = new Cluster(tokens.clone(), lineCount, exemplar(line));
+        leaf.add(cluster);
+        clusters.add(cluster);
+        return cluster;
+    }
+
+    private static String exemplar(String line) {
+        return line.length() > MAX_EXEMPLAR_CHARS ? line.substring(0, MAX_EXEMPLAR_CHARS) + "…" : line;
+    }
+
+    private static double similarity(String[] template, String[] tokens) {
+        int same = 0;
+        for (int i = 0; i < tokens.length; i++) {
+            if (template[i].equals(tokens[i])) {
+                same++;
+            }
+        }
+        return (double) same / tokens.length;
+    }
+
+    private static Severity severity(String line) {
+        if (ERROR_LEVEL.matcher(line).find()) {
+            return Severity.ERROR;
+        }
+        if (WARNING_LEVEL.matcher(line).find()) {
+            return Severity.WARNING;
+        }
+        return Severity.INFO;
+    }
+
+    private static Severity max(Severity a, Severity b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    private static final class Cluster {
+        final String[] tokens;
+        final long firstLine;
+        final String exemplar;
+        long count;
+        Severity severity = Severity.INFO;
+        String firstSeen;
+        String lastSeen;
+
+        Cluster(String[] tokens, long firstLine, String exemplar) {
+            this.tokens = tokens;
+            this.firstLine = firstLine;
+            this.exemplar = exemplar;
+        }
+
+        Template toTemplate() {
+            return new Template(String.join(" ", tokens), count, severity, firstSeen, lastSeen, exemplar, firstLine);
+        }
+    }
+}
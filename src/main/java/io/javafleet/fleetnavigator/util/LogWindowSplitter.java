@@ -0,0 +1,125 @@
+package io.javafleet.fleetnavigator.util;
+
+import java.util.function.Consumer;
+
+/**
+ * Zerlegt einen eintreffenden Log-Strom in Fenster mit begrenzter Größe.
+ *
+ * Fenster werden an Zeilengrenzen geschnitten, sobald das Zeichen-Budget erreicht
+ * ist, und sofort an den Sink übergeben - die Verarbeitung kann also beginnen,
+ * während das Log noch übertragen wird. Im Puffer liegt nie mehr als ein Fenster.
+ *
+ * Bytes werden inkrementell als UTF-8 dekodiert; über Chunk-Grenzen geteilte
+ * Zeichen gehen nicht verloren.
+ *
+ * Nicht thread-safe: Aufrufer synchronisieren selbst.
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+public final class LogWindowSplitter {
+
+    /**
+     * Ein Log-Fenster: laufende Nummer, Zeilenbereich (1-basiert) und Text
+     */
+    public record Window(int index, long firstLine, long lastLine, String text) {
+    }
+
+    private final int maxChars;
+    private final Consumer<Window> sink;
+    private final StringBuilder buffer;
+    private final Utf8ChunkDecoder decoder = new Utf8ChunkDecoder();
+    private long linesEmitted;
+    private int windowCount;
+    private long totalChars;
+
+    /**
+     * @param maxChars Maximale Fenstergröße in Zeichen (Token-Budget * ~4)
+     * @param sink     Empfänger fertiger Fenster
+     */
+    public LogWindowSplitter(int maxChars, Consumer<Window> sink) {
+        if (maxChars < 64) {
+            throw new IllegalArgumentException("maxChars too small: " + maxChars);
+        }
+        this.maxChars = maxChars;
+        this.sink = sink;
+        this.buffer = new StringBuilder(Math.min(maxChars + 1024, 1 << 20));
+    }
+
+    /**
+     * Text anhängen; volle Fenster werden sofort ausgegeben
+     */
+    public void append(CharSequence text) {
+        buffer.append(text);
+        totalChars += text.length();
+        while (buffer.length() >= maxChars) {
+            cut();
+        }
+    }
+
+    /**
+     * UTF-8 Bytes anhängen (z.B. Chunks eines Transfers)
+     */
+    public void append(byte[] bytes) {
+        append(decoder.decode(bytes));
+    }
+
+    /**
+     * Bisher nur gepuffert, noch kein Fenster ausgegeben?
+     */
+    public boolean isSingleWindow() {
+        return windowCount == 0;
+    }
+
+    /**
+     * Gepufferten Rest entnehmen, ohne ein Fenster auszugeben (für kleine Logs)
+     */
+    public String takeRemainder() {
+        flushDecoder();
+        String rest = buffer.toString();
+        buffer.setLength(0);
+        return rest;
+    }
+
+    /**
+     * Stromende: Rest als letztes Fenster ausgeben (falls nicht leer)
+     */
+    public void finish() {
+        flushDecoder();
+        if (!buffer.toString().isBlank()) {
+            emit(buffer.length());
+        }
+        buffer.setLength(0);
+    }
+
+    public int getWindowCount() {
+        return windowCount;
+    }
+
+    public long getTotalChars() {
+        return totalChars;
+    }
+
+    private void flushDecoder() {
+        buffer.append(decoder.flush());
+    }
+
+    private void cut() {
+        int newline = buffer.lastIndexOf("\n", maxChars - 1);
+        // Sehr lange Zeile ohne Umbruch: hart am Budget schneiden
+        emit(newline >= 0 ? newline + 1 : maxChars);
+    }
+
+    private void emit(int length) {
+        String text = buffer.substring(0, length);
+        buffer.delete(0, length);
+
+        long lines = text.chars().filter(c -> c == '\n').count();
+        if (!text.endsWith("\n")) {
+            lines++;
+        }
+        long first = linesEmitted + 1;
+        linesEmitted += lines;
+        sink.accept(new Window(windowCount++, first, linesEmitted, text));
+    }
+}
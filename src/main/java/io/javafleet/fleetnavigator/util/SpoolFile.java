@@ -0,0 +1,154 @@
+package io.javafleet.fleetnavigator.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only Temp-Datei für große Datenströme (Logs, Dateien von Fleet Mates).
+ *
+ * Statt eingehende Chunks in einem StringBuilder zu sammeln, werden sie direkt
+ * auf die Platte geschrieben. Konsumenten lesen den Inhalt anschließend
+ * inkrementell über {@link #openReader()} oder begrenzt über {@link #readHead(int)}.
+ * Der Heap-Verbrauch bleibt dadurch unabhängig von der Größe der Daten.
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+public final class SpoolFile implements Closeable {
+
+    private final Path path;
+    private final FileChannel channel;
+    private long size;
+    private boolean closed;
+
+    private SpoolFile(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    /**
+     * Erstellt eine neue, leere Spool-Datei im System-Temp-Verzeichnis
+     */
+    public static SpoolFile create(String prefix) throws IOException {
+        Path path = Files.createTempFile(prefix, ".spool");
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        return new SpoolFile(path, channel);
+    }
+
+    /**
+     * Hängt Bytes an das Ende der Datei an
+     */
+    public synchronized void append(byte[] data) throws IOException {
+        ensureOpen();
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        while (buffer.hasRemaining()) {
+            size += channel.write(buffer, size);
+        }
+    }
+
+    /**
+     * Hängt Text (UTF-8) an das Ende der Datei an
+     */
+    public void append(String text) throws IOException {
+        append(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Kürzt die Datei auf die angegebene Größe (z.B. für einen Neustart ab Offset)
+     */
+    public synchronized void truncate(long newSize) throws IOException {
+        ensureOpen();
+        channel.truncate(newSize);
+        size = Math.min(size, newSize);
+    }
+
+    /**
+     * Aktuelle Größe in Bytes
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Öffnet einen neuen InputStream ab Dateianfang (unabhängig von Schreibzugriffen)
+     */
+    public InputStream openInputStream() throws IOException {
+        ensureOpen();
+        return Files.newInputStream(path, StandardOpenOption.READ);
+    }
+
+    /**
+     * Öffnet einen UTF-8 Reader ab Dateianfang.
+     * Ungültige Byte-Sequenzen (z.B. abgeschnittene Multibyte-Zeichen) werden ersetzt.
+     */
+    public Reader openReader() throws IOException {
+        return new InputStreamReader(openInputStream(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Liest maximal {@code maxChars} Zeichen ab Dateianfang
+     */
+    public String readHead(int maxChars) throws IOException {
+        StringBuilder sb = new StringBuilder((int) Math.min(maxChars, Math.max(16, size())));
+        char[] buffer = new char[8192];
+        try (Reader reader = openReader()) {
+            int read;
+            while (sb.length() < maxChars
+                    && (read = reader.read(buffer, 0, Math.min(buffer.length, maxChars - sb.length()))) != -1) {
+                sb.append(buffer, 0, read);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Liest den kompletten Inhalt als String - nur für kleine Dateien gedacht
+     */
+    public String readAll() throws IOException {
+        return readHead(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Schließt den Kanal und löscht die Datei
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Best effort
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Best effort - Temp-Verzeichnis wird vom OS aufgeräumt
+        }
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Spool-Datei bereits geschlossen: " + path);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.javafleet.fleetnavigator.util;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Inkrementeller UTF-8 Decoder für Byte-Chunks.
+ *
+ * Über Chunk-Grenzen geteilte Multibyte-Zeichen werden bis zum nächsten Chunk
+ * aufgehoben statt als Ersatzzeichen ausgegeben.
+ *
+ * Nicht thread-safe: Aufrufer synchronisieren selbst.
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+public final class Utf8ChunkDecoder {
+
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer pendingBytes = ByteBuffer.allocate(0);
+
+    /**
+     * Chunk dekodieren; eine unvollständige Sequenz am Ende bleibt für den nächsten Chunk liegen
+     */
+    public CharBuffer decode(byte[] bytes) {
+        ByteBuffer in;
+        if (pendingBytes.hasRemaining()) {
+            in = ByteBuffer.allocate(pendingBytes.remaining() + bytes.length);
+            in.put(pendingBytes).put(bytes).flip();
+        } else {
+            in = ByteBuffer.wrap(bytes);
+        }
+        CharBuffer out = CharBuffer.allocate(in.remaining() + 1);
+        decoder.decode(in, out, false);
+        out.flip();
+        pendingBytes = in.hasRemaining() ? ByteBuffer.allocate(in.remaining()).put(in).flip() : ByteBuffer.allocate(0);
+        return out;
+    }
+
+    /**
+     * Stromende: aufgehobene Bytes ausgeben (unvollständige Sequenzen als Ersatzzeichen)
+     */
+    public CharBuffer flush() {
+        if (!pendingBytes.hasRemaining()) {
+            return CharBuffer.allocate(0);
+        }
+        CharBuffer out = CharBuffer.allocate(pendingBytes.remaining() + 1);
+        decoder.decode(pendingBytes, out, true);
+        out.flip();
+        pendingBytes = ByteBuffer.allocate(0);
+        return out;
+    }
+}
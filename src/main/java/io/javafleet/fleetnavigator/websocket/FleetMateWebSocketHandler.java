@@ -5,9 +5,12 @@ import io.javafleet.fleetnavigator.dto.*;
 import io.javafleet.fleetnavigator.security.CryptoService;
 import io.javafleet.fleetnavigator.security.MatePairingService;
 import io.javafleet.fleetnavigator.service.*;
-import io.javafleet.fleetnavigator.service.RAGService;
+import io.javafleet.fleetnavigator.util.SpoolFile;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
@@ -19,6 +22,9 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * WebSocket handler for Fleet Mate communication with authentication.
@@ -37,9 +43,10 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
     private final ObjectMapper objectMapper;
     private final MatePairingService pairingService;
     private final CryptoService cryptoService;
+    private final MateContentCache contentCache;
 
-    // RAG Service injected via setter to avoid circular dependency
-    private RAGService ragService;
+    // RPC Service injected via setter to avoid circular dependency
+    private MateRpcService rpcService;
 
     // ChatService injected via setter to avoid circular dependency
     private io.javafleet.fleetnavigator.service.ChatService chatService;
@@ -47,6 +54,12 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
     // FleetCode Service injected via setter to avoid circular dependency
     private io.javafleet.fleetnavigator.service.FleetCodeService fleetCodeService;
 
+    // Transfer Service injected via setter to avoid circular dependency
+    private MateTransferService transferService;
+
+    // Remote inference provider injected via setter to avoid circular dependency
+    private io.javafleet.fleetnavigator.llm.providers.MateInferenceProvider inferenceProvider;
+
     // Map of mateId -> WebSocketSession
     private final Map<String, WebSocketSession> activeSessions = new ConcurrentHashMap<>();
 
@@ -56,16 +69,35 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
     // Session to mateId mapping for authenticated mates
     private final Map<String, String> sessionToMateId = new ConcurrentHashMap<>();
 
+    // Outbound queues per WebSocket session id (single writer per session)
+    private final Map<String, MateSessionSender> senders = new ConcurrentHashMap<>();
+
+    // Message types that bypass queued bulk data
+    private static final Set<String> CONTROL_TYPES = Set.of(
+            "ping", "collect_stats", "shutdown",
+            "transfer_credit", "transfer_resume", "transfer_cancel", "rpc_cancel", "inference_cancel");
+
+    @Value("${fleet-navigator.mate-ws.writer-threads:8}")
+    private int writerThreads;
+
+    @Value("${fleet-navigator.mate-ws.outbound-buffer-bytes:16777216}")
+    private long outboundBufferBytes;
+
+    @Value("${fleet-navigator.mate-ws.send-time-limit-ms:10000}")
+    private long sendTimeLimitMs;
+
+    private ExecutorService writerPool;
+
     // Pending pairing sessions (requestId -> WebSocketSession)
     // Used to send pairing_approved back to the mate
     private final Map<String, WebSocketSession> pendingPairingSessions = new ConcurrentHashMap<>();
 
     /**
-     * Set RAG service (used to avoid circular dependency)
+     * Set RPC service (used to avoid circular dependency)
      */
     @org.springframework.beans.factory.annotation.Autowired
-    public void setRagService(@org.springframework.context.annotation.Lazy RAGService ragService) {
-        this.ragService = ragService;
+    public void setRpcService(@org.springframework.context.annotation.Lazy MateRpcService rpcService) {
+        this.rpcService = rpcService;
     }
 
     /**
@@ -84,6 +116,37 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
         this.fleetCodeService = fleetCodeService;
     }
 
+    /**
+     * Set MateTransferService (used to avoid circular dependency)
+     */
+    @org.springframework.beans.factory.annotation.Autowired
+    public void setTransferService(@org.springframework.context.annotation.Lazy MateTransferService transferService) {
+        this.transferService = transferService;
+    }
+
+    /**
+     * Set MateInferenceProvider (used to avoid circular dependency)
+     */
+    @org.springframework.beans.factory.annotation.Autowired
+    public void setInferenceProvider(@org.springframework.context.annotation.Lazy io.javafleet.fleetnavigator.llm.providers.MateInferenceProvider inferenceProvider) {
+        this.inferenceProvider = inferenceProvider;
+    }
+
+    @PostConstruct
+    void startWriterPool() {
+        AtomicInteger counter = new AtomicInteger();
+        writerPool = Executors.newFixedThreadPool(Math.max(1, writerThreads), r -> {
+            Thread t = new Thread(r, "mate-writer-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void stopWriterPool() {
+        writerPool.shutdownNow();
+    }
+
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         String mateIdFromPath = extractMateId(session);
@@ -123,8 +186,21 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
             authenticatedSessions.remove(mateId);
             fleetMateService.markOffline(mateId);
             pairingService.endSession(mateId);
+            if (inferenceProvider != null) {
+                inferenceProvider.onMateDisconnected(mateId);
+            }
+            if (rpcService != null) {
+                rpcService.onMateDisconnected(mateId);
+            }
+            // Files may change while the mate is away, and it may come back as a newer version
+            contentCache.invalidateMate(mateId);
         }
         sessionToMateId.remove(sessionId);
+
+        MateSessionSender sender = senders.remove(sessionId);
+        if (sender != null) {
+            sender.close();
+        }
     }
 
     @Override
@@ -152,6 +228,10 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
         authenticatedSessions.remove(mateId);
         fleetMateService.removeMate(mateId);  // Completely remove, not just mark offline
         pairingService.endSession(mateId);
+        if (rpcService != null) {
+            rpcService.onMateDisconnected(mateId);
+        }
+        contentCache.invalidateMate(mateId);
         log.info("Mate {} completely removed from all sessions", mateId);
     }
 
@@ -168,7 +248,8 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
         }
 
         // Only log important messages at INFO level
-        if (!type.equals("stats") && !type.equals("heartbeat")) {
+        if (!type.equals("stats") && !type.equals("heartbeat") && !type.equals("transfer_chunk")
+                && !type.equals("inference_token")) {
             log.info("Received {} message from mate: {}", type, mateId);
         } else {
             log.debug("Received {} message from mate: {}", type, mateId);
@@ -222,6 +303,9 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
             case "classify_email":
                 handleEmailClassification(session, message);
                 break;
+            case "classify_email_batch":
+                handleBatchEmailClassification(session, message);
+                break;
             case "generate_reply":
                 handleReplyGeneration(session, message);
                 break;
@@ -232,24 +316,27 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
                 handleDocumentGeneration(session, message);
                 break;
 
-            // ========== RAG Messages ==========
-            case "file_search_results":
-                handleFileSearchResults(message);
-                break;
-            case "file_content":
-                handleFileContent(message);
-                break;
-            case "context_saved":
-                handleContextSaved(message);
-                break;
-            case "context_loaded":
-                handleContextLoaded(message);
+            // ========== RPC Batches ==========
+            case "batch_results":
+                handleBatchResults(message);
                 break;
-            case "contexts_list":
-                handleContextsList(message);
+
+            // ========== Chunked Transfers ==========
+            case "transfer_start":
+            case "transfer_chunk":
+            case "transfer_complete":
+            case "transfer_error":
+                handleTransferMessage(mateId, message);
                 break;
-            case "context_deleted":
-                handleContextDeleted(message);
+
+            // ========== Remote Inference ==========
+            case "inference_status":
+            case "inference_token":
+            case "inference_done":
+            case "inference_error":
+                if (inferenceProvider != null) {
+                    inferenceProvider.handleMateMessage(mateId, type, message.getData());
+                }
                 break;
 
             // ========== Document Generation Response ==========
@@ -266,7 +353,10 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
                 break;
 
             default:
-                log.warn("Unknown message type from {}: {}", mateId, type);
+                // Correlated responses (file_search_results, file_content, context_*, ...)
+                if (!handleRpcResponse(type, message)) {
+                    log.warn("Unknown message type or no pending request from {}: {}", mateId, type);
+                }
         }
     }
 
@@ -279,12 +369,10 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
         log.warn("Rejected legacy registration from {} - pairing required!", mateId);
         sendError(session, "Legacy registration disabled. Please use pairing flow.");
 
-        // Close the connection after a short delay
-        try {
-            session.close();
-        } catch (Exception e) {
-            log.debug("Error closing session: {}", e.getMessage());
-        }
+        // Close the connection once the error message has been sent
+        senders.computeIfAbsent(session.getId(),
+                id -> new MateSessionSender(session, writerPool, outboundBufferBytes, sendTimeLimitMs))
+                .closeAfterFlush(CloseStatus.NORMAL);
     }
 
     /**
@@ -332,6 +420,7 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
 
         if (sessionId != null && chunk != null) {
             fleetMateService.appendLogData(sessionId, chunk);
+            logAnalysisService.appendLogData(sessionId, chunk);
 
             // Extract metadata
             int currentLine = currentLineObj instanceof Integer ? (Integer) currentLineObj : 0;
@@ -369,8 +458,8 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
             return;
         }
 
-        // Get complete log data
-        String logContent = fleetMateService.getLogData(sessionId);
+        // Take over the spooled log data
+        SpoolFile logContent = fleetMateService.detachLogData(sessionId);
 
         if (logContent != null) {
             log.info("Log reading completed for session: {}, total size: {} bytes", sessionId, totalSize);
@@ -386,29 +475,67 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
 
     /**
      * Send command to specific mate
+     *
+     * @return false if the command was not queued (session inactive, slow consumer, serialization error)
      */
-    public void sendCommand(String mateId, MateCommand command) {
+    public boolean sendCommand(String mateId, MateCommand command) {
         WebSocketSession session = activeSessions.get(mateId);
         if (session == null || !session.isOpen()) {
             log.warn("Cannot send command to {}: session not active", mateId);
-            return;
+            return false;
         }
 
         try {
             String json = objectMapper.writeValueAsString(command);
-            session.sendMessage(new TextMessage(json));
-            log.info("Sent {} command to mate: {}", command.getType(), mateId);
+            if (send(session, json, laneFor(command.getType()))) {
+                log.info("Queued {} command for mate: {}", command.getType(), mateId);
+                return true;
+            }
+            log.warn("Dropped {} command for mate {}: outbound queue rejected it", command.getType(), mateId);
         } catch (IOException e) {
             log.error("Failed to send command to {}: {}", mateId, e.getMessage(), e);
         }
+        return false;
     }
 
     /**
-     * Send ping to all active mates
+     * Send ping to all active mates.
+     * Serialized once; sends run in parallel on the writer pool.
      */
     public void pingAllMates() {
-        MateCommand ping = new MateCommand("ping");
-        activeSessions.keySet().forEach(mateId -> sendCommand(mateId, ping));
+        try {
+            String json = objectMapper.writeValueAsString(new MateCommand("ping"));
+            activeSessions.values().forEach(session -> send(session, json, MateSessionSender.Lane.CONTROL));
+        } catch (IOException e) {
+            log.error("Failed to serialize ping: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Queue a message on the session's outbound queue - never blocks the caller
+     */
+    private boolean send(WebSocketSession session, String json, MateSessionSender.Lane lane) {
+        MateSessionSender sender = senders.computeIfAbsent(session.getId(),
+                id -> new MateSessionSender(session, writerPool, outboundBufferBytes, sendTimeLimitMs));
+        return sender.enqueue(json, lane);
+    }
+
+    private static MateSessionSender.Lane laneFor(String type) {
+        return CONTROL_TYPES.contains(type) ? MateSessionSender.Lane.CONTROL : MateSessionSender.Lane.BULK;
+    }
+
+    /**
+     * Outbound queue statistics per connected mate
+     */
+    public Map<String, Object> getOutboundStats() {
+        Map<String, Object> stats = new java.util.TreeMap<>();
+        activeSessions.forEach((mateId, session) -> {
+            MateSessionSender sender = senders.get(session.getId());
+            if (sender != null) {
+                stats.put(mateId, sender.snapshot());
+            }
+        });
+        return stats;
     }
 
     /**
@@ -523,6 +650,51 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
         }
     }
 
+    /**
+     * Handle batched email classification: every result is sent back as its own
+     * classify_response as soon as it is known, followed by classify_batch_complete
+     */
+    @SuppressWarnings("unchecked")
+    private void handleBatchEmailClassification(WebSocketSession session, MateMessage message) {
+        Map<String, Object> data = (Map<String, Object>) message.getData();
+        String batchId = String.valueOf(data.get("batchId"));
+        java.util.List<Map<String, Object>> emails = (java.util.List<Map<String, Object>>) data.get("emails");
+        Map<String, String> categoryPrompts = (Map<String, String>) data.get("categoryPrompts");
+        String mateId = extractMateId(session);
+
+        if (emails == null || emails.isEmpty()) {
+            sendError(session, "classify_email_batch without emails");
+            return;
+        }
+        log.info("Classifying batch {} with {} emails for mate {}", batchId, emails.size(), mateId);
+
+        String model = mateId != null ? getMateModel(mateId) : null;
+        emailClassificationService.classifyBatch(emails, categoryPrompts, model, result -> {
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("batchId", batchId);
+            payload.put("messageId", result.messageId());
+            payload.put("category", result.classification().category);
+            payload.put("confidence", result.classification().confidence);
+            payload.put("reasoning", result.classification().reasoning);
+            payload.put("source", result.classification().source);
+            payload.put("accountEmail", result.email().getOrDefault("accountEmail", data.get("accountEmail")));
+            sendEncryptedResponse(session, mateId, Map.of("type", "classify_response", "payload", payload));
+        }).whenComplete((summary, error) -> {
+            if (error != null) {
+                log.error("Batch classification {} failed", batchId, error);
+                sendError(session, "Failed to classify email batch: " + error.getMessage());
+                return;
+            }
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("batchId", batchId);
+            payload.put("total", summary.total());
+            payload.put("withoutModel", summary.withoutModel());
+            payload.put("llmRequests", summary.llmRequests());
+            payload.put("durationMs", summary.durationMs());
+            sendEncryptedResponse(session, mateId, Map.of("type", "classify_batch_complete", "payload", payload));
+        });
+    }
+
     /**
      * Handle email reply generation request
      */
@@ -585,7 +757,7 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
             );
 
             String json = objectMapper.writeValueAsString(error);
-            session.sendMessage(new TextMessage(json));
+            send(session, json, MateSessionSender.Lane.CONTROL);
         } catch (IOException e) {
             log.error("Failed to send error message", e);
         }
@@ -664,84 +836,51 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
         }
     }
 
-    // ========== RAG Handlers ==========
+    // ========== RPC Handlers ==========
 
     /**
-     * Handle file search results from Mate
+     * Route a response to its pending RPC call (matched by requestId/sessionId)
+     *
+     * @return false if no call is waiting for this message
      */
     @SuppressWarnings("unchecked")
-    private void handleFileSearchResults(MateMessage message) {
-        if (ragService == null) {
-            log.warn("RAG service not available");
-            return;
+    private boolean handleRpcResponse(String type, MateMessage message) {
+        if (rpcService == null || !(message.getData() instanceof Map)) {
+            return false;
         }
-        Map<String, Object> data = (Map<String, Object>) message.getData();
-        ragService.handleSearchResults(data);
+        return rpcService.handleResponse(type, (Map<String, Object>) message.getData());
     }
 
     /**
-     * Handle file content from Mate
+     * Handle batched responses from Mate
      */
     @SuppressWarnings("unchecked")
-    private void handleFileContent(MateMessage message) {
-        if (ragService == null) {
-            log.warn("RAG service not available");
+    private void handleBatchResults(MateMessage message) {
+        if (rpcService == null) {
+            log.warn("RPC service not available");
             return;
         }
-        Map<String, Object> data = (Map<String, Object>) message.getData();
-        ragService.handleFileContent(data);
+        rpcService.handleBatchResults((Map<String, Object>) message.getData());
     }
 
-    /**
-     * Handle context saved confirmation from Mate
-     */
-    @SuppressWarnings("unchecked")
-    private void handleContextSaved(MateMessage message) {
-        if (ragService == null) {
-            log.warn("RAG service not available");
-            return;
-        }
-        Map<String, Object> data = (Map<String, Object>) message.getData();
-        ragService.handleContextSaved(data);
-    }
+    // ========== Transfer Handlers ==========
 
     /**
-     * Handle context loaded from Mate
+     * Dispatch chunked transfer messages to the MateTransferService
      */
     @SuppressWarnings("unchecked")
-    private void handleContextLoaded(MateMessage message) {
-        if (ragService == null) {
-            log.warn("RAG service not available");
+    private void handleTransferMessage(String mateId, MateMessage message) {
+        if (transferService == null) {
+            log.warn("Transfer service not available");
             return;
         }
         Map<String, Object> data = (Map<String, Object>) message.getData();
-        ragService.handleContextLoaded(data);
-    }
-
-    /**
-     * Handle contexts list from Mate
-     */
-    @SuppressWarnings("unchecked")
-    private void handleContextsList(MateMessage message) {
-        if (ragService == null) {
-            log.warn("RAG service not available");
-            return;
-        }
-        Map<String, Object> data = (Map<String, Object>) message.getData();
-        ragService.handleContextsList(data);
-    }
-
-    /**
-     * Handle context deleted confirmation from Mate
-     */
-    @SuppressWarnings("unchecked")
-    private void handleContextDeleted(MateMessage message) {
-        if (ragService == null) {
-            log.warn("RAG service not available");
-            return;
+        switch (message.getType()) {
+            case "transfer_start" -> transferService.handleTransferStart(mateId, data);
+            case "transfer_chunk" -> transferService.handleTransferChunk(mateId, data);
+            case "transfer_complete" -> transferService.handleTransferComplete(mateId, data);
+            default -> transferService.handleTransferError(mateId, data);
         }
-        Map<String, Object> data = (Map<String, Object>) message.getData();
-        ragService.handleContextDeleted(data);
     }
 
     // ========== Security Handlers ==========
@@ -805,7 +944,7 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
             ));
 
             String json = objectMapper.writeValueAsString(responseData);
-            session.sendMessage(new TextMessage(json));
+            send(session, json, MateSessionSender.Lane.CONTROL);
 
             if (response.getStatus() == MatePairingService.PairingStatus.ALREADY_PAIRED) {
                 log.info("Mate already paired: {}", response.getMateId());
@@ -847,7 +986,7 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
             );
 
             String json = objectMapper.writeValueAsString(response);
-            session.sendMessage(new TextMessage(json));
+            send(session, json, MateSessionSender.Lane.CONTROL);
 
             log.debug("Sent auth challenge to: {}", mateId);
 
@@ -893,10 +1032,15 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
                 );
 
                 String json = objectMapper.writeValueAsString(response);
-                session.sendMessage(new TextMessage(json));
+                send(session, json, MateSessionSender.Lane.CONTROL);
 
                 log.info("Mate {} authenticated and registered successfully", mateId);
 
+                // Continue transfers that were interrupted by the reconnect
+                if (transferService != null) {
+                    transferService.resumeTransfers(mateId);
+                }
+
             } else {
                 Map<String, Object> response = Map.of(
                         "type", "auth_failed",
@@ -906,7 +1050,7 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
                 );
 
                 String json = objectMapper.writeValueAsString(response);
-                session.sendMessage(new TextMessage(json));
+                send(session, json, MateSessionSender.Lane.CONTROL);
 
                 log.warn("Authentication failed for {}: {}", mateId, result.getError());
             }
@@ -953,7 +1097,7 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
             ));
 
             String json = objectMapper.writeValueAsString(responseData);
-            session.sendMessage(new TextMessage(json));
+            send(session, json, MateSessionSender.Lane.CONTROL);
             log.info("Sent pairing_approved to mate: {} (requestId: {})", mateId, requestId);
 
             // Register mate in FleetMateService so it appears on dashboard immediately
@@ -989,7 +1133,7 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
             ));
 
             String json = objectMapper.writeValueAsString(responseData);
-            session.sendMessage(new TextMessage(json));
+            send(session, json, MateSessionSender.Lane.CONTROL);
             log.info("Sent pairing_rejected for requestId: {}", requestId);
             return true;
 
@@ -1063,20 +1207,21 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
 
     /**
      * Send an encrypted command to an authenticated mate
+     *
+     * @return false if the command was not queued
      */
-    public void sendEncryptedCommand(String mateId, MateCommand command) {
+    public boolean sendEncryptedCommand(String mateId, MateCommand command) {
         WebSocketSession session = activeSessions.get(mateId);
         if (session == null || !session.isOpen()) {
             log.warn("Cannot send encrypted command to {}: session not active", mateId);
-            return;
+            return false;
         }
 
         // Verify mate is authenticated
         if (!authenticatedSessions.contains(mateId)) {
             log.warn("Cannot send encrypted command to unauthenticated mate: {}", mateId);
             // Fall back to unencrypted for backwards compatibility
-            sendCommand(mateId, command);
-            return;
+            return sendCommand(mateId, command);
         }
 
         try {
@@ -1084,8 +1229,7 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
             byte[] secret = pairingService.getSessionSecret(mateId);
             if (secret == null) {
                 log.warn("No session secret for {}, sending unencrypted", mateId);
-                sendCommand(mateId, command);
-                return;
+                return sendCommand(mateId, command);
             }
 
             // Serialize the command
@@ -1104,24 +1248,31 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
             );
 
             String json = objectMapper.writeValueAsString(encryptedMessage);
-            session.sendMessage(new TextMessage(json));
+            if (!send(session, json, laneFor(command.getType()))) {
+                log.warn("Dropped encrypted {} command for mate {}: outbound queue rejected it",
+                        command.getType(), mateId);
+                return false;
+            }
 
             log.debug("Sent encrypted {} command to mate: {}", command.getType(), mateId);
+            return true;
 
         } catch (Exception e) {
             log.error("Failed to send encrypted command to {}: {}", mateId, e.getMessage(), e);
+            return false;
         }
     }
 
     /**
      * Send a command - automatically uses encryption if mate is authenticated
+     *
+     * @return false if the command was not queued
      */
-    public void sendCommandAuto(String mateId, MateCommand command) {
+    public boolean sendCommandAuto(String mateId, MateCommand command) {
         if (authenticatedSessions.contains(mateId) && pairingService.getSessionSecret(mateId) != null) {
-            sendEncryptedCommand(mateId, command);
-        } else {
-            sendCommand(mateId, command);
+            return sendEncryptedCommand(mateId, command);
         }
+        return sendCommand(mateId, command);
     }
 
     /**
@@ -1132,7 +1283,7 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
             // Fall back to unencrypted
             try {
                 String json = objectMapper.writeValueAsString(response);
-                session.sendMessage(new TextMessage(json));
+                send(session, json, MateSessionSender.Lane.BULK);
             } catch (Exception e) {
                 log.error("Failed to send response", e);
             }
@@ -1143,7 +1294,7 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
             byte[] secret = pairingService.getSessionSecret(mateId);
             if (secret == null) {
                 String json = objectMapper.writeValueAsString(response);
-                session.sendMessage(new TextMessage(json));
+                send(session, json, MateSessionSender.Lane.BULK);
                 return;
             }
 
@@ -1161,7 +1312,7 @@ public class FleetMateWebSocketHandler extends TextWebSocketHandler {
             );
 
             String json = objectMapper.writeValueAsString(encryptedMessage);
-            session.sendMessage(new TextMessage(json));
+            send(session, json, MateSessionSender.Lane.BULK);
 
         } catch (Exception e) {
             log.error("Failed to send encrypted response to {}: {}", mateId, e.getMessage());
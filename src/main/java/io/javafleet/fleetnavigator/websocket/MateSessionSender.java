@@ -0,0 +1,209 @@
+package io.javafleet.fleetnavigator.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbound queue for a single mate WebSocket session.
+ *
+ * Standard WebSocket sessions must not be written concurrently, so callers only
+ * enqueue and return immediately; a single drain task per session (running on a
+ * shared writer pool) performs the actual sends. Control messages (pings, auth,
+ * transfer credits, cancels) always go before bulk data.
+ *
+ * Slow consumers are detected in two ways: the buffered UTF-8 bytes exceed the limit, or
+ * a single send has been blocked longer than the send-time limit. Bulk messages
+ * are rejected in that state; if even control traffic backs up, the session is
+ * closed so the mate reconnects with a clean channel.
+ */
+@Slf4j
+public class MateSessionSender {
+
+    /**
+     * Priority lane of an outbound message
+     */
+    public enum Lane {
+        CONTROL,
+        BULK
+    }
+
+    private final WebSocketSession session;
+    private final Executor writerPool;
+    private final long bufferLimitBytes;
+    private final long sendTimeLimitMs;
+
+    private final Queue<Outbound> controlQueue = new ConcurrentLinkedQueue<>();
+    private final Queue<Outbound> bulkQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong bufferedBytes = new AtomicLong();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong sentMessages = new AtomicLong();
+    private final AtomicLong rejectedMessages = new AtomicLong();
+    private volatile long sendStartedAt;
+    private volatile boolean closed;
+    private volatile CloseStatus pendingClose;
+
+    public MateSessionSender(WebSocketSession session, Executor writerPool, long bufferLimitBytes, long sendTimeLimitMs) {
+        this.session = session;
+        this.writerPool = writerPool;
+        this.bufferLimitBytes = bufferLimitBytes;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+    }
+
+    /**
+     * Queue a message for sending. Never blocks.
+     *
+     * @return false if the message was rejected (session closed or slow consumer)
+     */
+    public boolean enqueue(String payload, Lane lane) {
+        if (closed || !session.isOpen()) {
+            return false;
+        }
+
+        if (isSendStalled()) {
+            closeAsSlowConsumer("send blocked for more than " + sendTimeLimitMs + " ms");
+            return false;
+        }
+
+        int size = payload.getBytes(StandardCharsets.UTF_8).length;
+        long buffered = bufferedBytes.get();
+        if (buffered + size > bufferLimitBytes) {
+            if (lane == Lane.BULK) {
+                rejectedMessages.incrementAndGet();
+                log.warn("Slow consumer {}: {} bytes buffered, rejecting bulk message ({} bytes)",
+                        session.getId(), buffered, size);
+                return false;
+            }
+            // Control traffic gets extra headroom before we give up on the session
+            if (buffered + size > 2 * bufferLimitBytes) {
+                closeAsSlowConsumer(buffered + " bytes buffered");
+                return false;
+            }
+        }
+
+        bufferedBytes.addAndGet(size);
+        (lane == Lane.CONTROL ? controlQueue : bulkQueue).add(new Outbound(new TextMessage(payload), size));
+        scheduleDrain();
+        return true;
+    }
+
+    /**
+     * Close the session once everything queued so far has been sent
+     */
+    public void closeAfterFlush(CloseStatus status) {
+        pendingClose = status;
+        scheduleDrain();
+    }
+
+    /**
+     * Drop everything still queued (session closed)
+     */
+    public void close() {
+        closed = true;
+        controlQueue.clear();
+        bulkQueue.clear();
+        bufferedBytes.set(0);
+    }
+
+    public Map<String, Object> snapshot() {
+        return Map.of(
+                "bufferedBytes", bufferedBytes.get(),
+                "queuedControl", controlQueue.size(),
+                "queuedBulk", bulkQueue.size(),
+                "sent", sentMessages.get(),
+                "rejected", rejectedMessages.get(),
+                "stalled", isSendStalled()
+        );
+    }
+
+    private boolean isSendStalled() {
+        long started = sendStartedAt;
+        return started != 0 && System.currentTimeMillis() - started > sendTimeLimitMs;
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                writerPool.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                log.error("Writer pool rejected drain for session {}", session.getId());
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            Outbound message;
+            while (!closed && (message = nextMessage()) != null) {
+                bufferedBytes.addAndGet(-message.bytes());
+                sendStartedAt = System.currentTimeMillis();
+                try {
+                    session.sendMessage(message.message());
+                    sentMessages.incrementAndGet();
+                } catch (Exception e) {
+                    log.error("Failed to send to session {}: {}", session.getId(), e.getMessage());
+                    if (!session.isOpen()) {
+                        close();
+                    }
+                } finally {
+                    long duration = System.currentTimeMillis() - sendStartedAt;
+                    sendStartedAt = 0;
+                    if (duration > sendTimeLimitMs) {
+                        log.warn("Slow send to session {}: {} ms for {} bytes",
+                                session.getId(), duration, message.bytes());
+                    }
+                }
+            }
+            CloseStatus status = pendingClose;
+            if (status != null && !closed && controlQueue.isEmpty() && bulkQueue.isEmpty()) {
+                close();
+                try {
+                    session.close(status);
+                } catch (Exception e) {
+                    log.debug("Error closing session {}: {}", session.getId(), e.getMessage());
+                }
+            }
+        } finally {
+            draining.set(false);
+        }
+        // A message may have been queued between the last poll and releasing the flag
+        if (!closed && (!controlQueue.isEmpty() || !bulkQueue.isEmpty())) {
+            scheduleDrain();
+        }
+    }
+
+    private Outbound nextMessage() {
+        Outbound message = controlQueue.poll();
+        return message != null ? message : bulkQueue.poll();
+    }
+
+    private void closeAsSlowConsumer(String reason) {
+        if (closed) {
+            return;
+        }
+        log.warn("Closing slow consumer session {}: {}", session.getId(), reason);
+        close();
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE.withReason("Slow consumer"));
+        } catch (Exception e) {
+            log.debug("Error closing slow session: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Queued message with its encoded size, so enqueue and drain account the same bytes
+     */
+    private record Outbound(TextMessage message, int bytes) {
+    }
+}
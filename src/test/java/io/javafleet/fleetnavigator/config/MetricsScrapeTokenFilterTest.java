@@ -0,0 +1,81 @@
+package io.javafleet.fleetnavigator.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * JUnit-Tests für MetricsScrapeTokenFilter
+ *
+ * Testet:
+ * - Richtiger Bearer-Token meldet nur den Scrape-Request an
+ * - Falscher oder fehlender Token und andere Pfade bleiben anonym
+ * - Ohne konfigurierten Token wird nie angemeldet
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("MetricsScrapeTokenFilter Tests")
+class MetricsScrapeTokenFilterTest {
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Richtiger Token meldet den Scrape-Request an")
+    void validTokenAuthenticatesScrape() throws Exception {
+        Authentication authentication = filter("s3cret", MetricsScrapeTokenFilter.SCRAPE_PATH, "Bearer s3cret");
+
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.isAuthenticated()).isTrue();
+        assertThat(authentication.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_METRICS");
+    }
+
+    @Test
+    @DisplayName("Falscher Token, fehlender Header und andere Pfade bleiben anonym")
+    void otherRequestsStayAnonymous() throws Exception {
+        assertThat(filter("s3cret", MetricsScrapeTokenFilter.SCRAPE_PATH, "Bearer geraten")).isNull();
+        assertThat(filter("s3cret", MetricsScrapeTokenFilter.SCRAPE_PATH, null)).isNull();
+        assertThat(filter("s3cret", MetricsScrapeTokenFilter.SCRAPE_PATH, "Basic czNjcmV0")).isNull();
+        assertThat(filter("s3cret", "/api/stats/traces", "Bearer s3cret")).isNull();
+    }
+
+    @Test
+    @DisplayName("Ohne konfigurierten Token wird nie angemeldet")
+    void noTokenConfigured() throws Exception {
+        assertThat(filter("", MetricsScrapeTokenFilter.SCRAPE_PATH, "Bearer ")).isNull();
+        assertThat(filter(null, MetricsScrapeTokenFilter.SCRAPE_PATH, "Bearer null")).isNull();
+    }
+
+    /**
+     * Authentifizierung, die der Rest der Filterkette sieht
+     */
+    private static Authentication filter(String token, String path, String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                seen.set(SecurityContextHolder.getContext().getAuthentication());
+            }
+        };
+        new MetricsScrapeTokenFilter(token).doFilter(request, new MockHttpServletResponse(), chain);
+        SecurityContextHolder.clearContext();
+        return seen.get();
+    }
+}
@@ -0,0 +1,89 @@
+package io.javafleet.fleetnavigator.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * JUnit-Tests für StartupReport
+ *
+ * Testet:
+ * - Standard-Modus: Hintergrund-Phasen laufen sofort im aufrufenden Thread
+ * - Fast-Startup: Hintergrund-Phasen laufen nacheinander in Aufrufreihenfolge
+ * - Verzögerte Subsysteme erscheinen im Bericht
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("StartupReport Tests")
+class StartupReportTest {
+
+    private final StartupReport report = new StartupReport();
+
+    @AfterEach
+    void tearDown() {
+        report.shutdown();
+    }
+
+    @Test
+    @DisplayName("Standard-Modus führt Hintergrund-Phasen sofort aus")
+    void standardModeRunsInline() {
+        String caller = Thread.currentThread().getName();
+        List<String> threads = new CopyOnWriteArrayList<>();
+
+        report.background("seed.test", () -> threads.add(Thread.currentThread().getName()));
+
+        assertThat(threads).containsExactly(caller);
+        assertThat(phases()).extracting(p -> p.get("name"), p -> p.get("kind"))
+                .containsExactly(tuple("seed.test", "startup"));
+    }
+
+    @Test
+    @DisplayName("Fast-Startup führt Hintergrund-Phasen nacheinander in Reihenfolge aus")
+    void fastModeRunsInBackgroundInOrder() throws Exception {
+        ReflectionTestUtils.setField(report, "fast", true);
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        report.background("seed.a", () -> order.add("a"));
+        report.background("seed.b", () -> {
+            throw new IllegalStateException("kaputt");
+        });
+        report.background("seed.c", () -> order.add("c"));
+        report.background("seed.done", done::countDown);
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(order).containsExactly("a", "c");
+        assertThat(phases().subList(0, 3))
+                .extracting(p -> p.get("name"), p -> p.get("thread"))
+                .containsExactly(tuple("seed.a", "startup-background"),
+                        tuple("seed.b", "startup-background"),
+                        tuple("seed.c", "startup-background"));
+    }
+
+    @Test
+    @DisplayName("Verzögerte Subsysteme stehen im Bericht")
+    void deferredSubsystemsAreReported() {
+        ReflectionTestUtils.setField(report, "fast", true);
+
+        report.deferred("lucene.open");
+        report.measure("lucene.open", () -> { });
+
+        assertThat(report.getReport()).containsEntry("fastStartup", true);
+        assertThat(phases()).extracting(p -> p.get("kind")).containsExactly("deferred", "startup");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> phases() {
+        return (List<Map<String, Object>>) report.getReport().get("phases");
+    }
+}
@@ -0,0 +1,127 @@
+package io.javafleet.fleetnavigator.experts.runtime;
+
+import io.javafleet.fleetnavigator.experts.model.Expert;
+import io.javafleet.fleetnavigator.experts.model.ExpertMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JUnit-Tests für CompiledExpertProfile und KeywordAutomaton
+ *
+ * Testet:
+ * - Höchstpriorisierter Modus gewinnt, egal wo sein Keyword im Text steht
+ * - Groß-/Kleinschreibung, überlappende Keywords, inaktive Modi
+ * - Vorgerenderte System-Prompts pro Modus
+ * - Automat liefert dasselbe Ergebnis wie der bisherige contains-Vergleich
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("CompiledExpertProfile Tests")
+class CompiledExpertProfileTest {
+
+    private Expert roland;
+    private ExpertMode allgemein;
+    private ExpertMode verwaltungsrecht;
+    private ExpertMode strafrecht;
+
+    @BeforeEach
+    void setUp() {
+        roland = new Expert();
+        roland.setId(1L);
+        roland.setName("Roland Navarro");
+        roland.setBasePrompt("Du bist Roland, ein erfahrener Rechtsanwalt.");
+
+        allgemein = mode(10L, "Allgemein", 0, "recht, frage", null);
+        verwaltungsrecht = mode(11L, "Verwaltungsrecht", 5, "behörde,Bescheid , verwaltungsrecht", "Fokus auf Verwaltungsverfahren.");
+        strafrecht = mode(12L, "Strafrecht", 10, "anzeige, straf", "Fokus auf Strafverfahren.");
+        roland.setModes(new ArrayList<>(List.of(allgemein, verwaltungsrecht, strafrecht)));
+    }
+
+    @Test
+    @DisplayName("Priorität entscheidet, nicht die Position im Text")
+    void detect_HighestPriorityWins() {
+        CompiledExpertProfile profile = CompiledExpertProfile.compile(roland);
+
+        assertThat(profile.getModes()).containsExactly(strafrecht, verwaltungsrecht, allgemein);
+        assertThat(profile.detect("Die Behörde hat nach meiner ANZEIGE einen Bescheid geschickt"))
+                .contains(strafrecht);
+        // "verwaltungsrecht" enthält "recht" (Allgemein) - Verwaltungsrecht hat höhere Priorität
+        assertThat(profile.detect("Frage zum Verwaltungsrecht")).contains(verwaltungsrecht);
+        assertThat(profile.detect("Eine allgemeine Rechtsfrage")).contains(allgemein);
+        assertThat(profile.detect("Wie wird das Wetter morgen?")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Inaktive Modi zählen nicht, auch nicht über ihre ID")
+    void inactiveModes_AreIgnored() {
+        strafrecht.setActive(false);
+        CompiledExpertProfile profile = CompiledExpertProfile.compile(roland);
+
+        assertThat(profile.detect("Ich möchte Anzeige erstatten")).isEmpty();
+        assertThat(profile.getMode(12L)).isEmpty();
+        assertThat(profile.getMode(11L)).contains(verwaltungsrecht);
+    }
+
+    @Test
+    @DisplayName("System-Prompts sind vorgerendert: Basis + Modus-Zusatz")
+    void systemPrompts_ArePreRendered() {
+        CompiledExpertProfile profile = CompiledExpertProfile.compile(roland);
+
+        assertThat(profile.getSystemPrompt(strafrecht)).isEqualTo(
+                "Du bist Roland, ein erfahrener Rechtsanwalt.\n\n=== AKTUELLER MODUS: Strafrecht ===\nFokus auf Strafverfahren.");
+        assertThat(profile.getSystemPrompt(allgemein)).isEqualTo("Du bist Roland, ein erfahrener Rechtsanwalt.");
+        assertThat(profile.getSystemPrompt(null)).isEqualTo("Du bist Roland, ein erfahrener Rechtsanwalt.");
+    }
+
+    @Test
+    @DisplayName("Automat entspricht dem contains-Vergleich über alle Keywords")
+    void automaton_MatchesNaiveSearch() {
+        Random random = new Random(42);
+        String alphabet = "abcab ";
+        for (int round = 0; round < 200; round++) {
+            Map<String, Integer> keywords = new java.util.LinkedHashMap<>();
+            for (int k = 0; k < 1 + random.nextInt(8); k++) {
+                keywords.merge(randomText(random, alphabet, 1 + random.nextInt(4)), random.nextInt(5), Math::min);
+            }
+            KeywordAutomaton automaton = KeywordAutomaton.build(keywords);
+            String text = randomText(random, alphabet, random.nextInt(40));
+
+            int expected = keywords.entrySet().stream()
+                    .filter(e -> !e.getKey().isEmpty() && text.contains(e.getKey()))
+                    .mapToInt(Map.Entry::getValue)
+                    .min()
+                    .orElse(KeywordAutomaton.NO_MATCH);
+            assertThat(automaton.bestMatch(text))
+                    .as("Keywords %s in '%s'", keywords, text)
+                    .isEqualTo(expected);
+        }
+    }
+
+    private static String randomText(Random random, String alphabet, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+
+    private static ExpertMode mode(Long id, String name, int priority, String keywords, String promptAddition) {
+        ExpertMode mode = new ExpertMode();
+        mode.setId(id);
+        mode.setName(name);
+        mode.setPriority(priority);
+        mode.setKeywords(keywords);
+        mode.setPromptAddition(promptAddition);
+        mode.setActive(true);
+        return mode;
+    }
+}
@@ -27,6 +27,8 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -543,4 +545,40 @@ class ExpertRuntimeFactoryTest {
             assertThat(result.get().getTemperature()).isEqualTo(0.3);
         }
     }
+
+    @Nested
+    @DisplayName("Kompilierte Profile")
+    class ProfileTests {
+
+        @Test
+        @DisplayName("Profil wird einmal gebaut und danach ohne DB-Zugriff geliefert")
+        void shouldCacheProfile() {
+            testMode.setKeywords("analyse, prüfen");
+            when(expertRepository.findById(1L)).thenReturn(Optional.of(testExpert));
+
+            Optional<CompiledExpertProfile> first = factory.getProfile(1L);
+            Optional<CompiledExpertProfile> second = factory.getProfile(1L);
+
+            assertThat(first).isPresent();
+            assertThat(second.get()).isSameAs(first.get());
+            assertThat(first.get().detect("Bitte PRÜFEN Sie den Vertrag")).contains(testMode);
+            verify(expertRepository, times(1)).findById(1L);
+        }
+
+        @Test
+        @DisplayName("refreshExpert() baut das Profil mit den neuen Keywords neu")
+        void shouldRebuildProfileOnRefresh() {
+            testMode.setKeywords("analyse");
+            when(expertRepository.findById(1L)).thenReturn(Optional.of(testExpert));
+            CompiledExpertProfile before = factory.getProfile(1L).orElseThrow();
+
+            testMode.setKeywords("statistik");
+            factory.refreshExpert(1L);
+            CompiledExpertProfile after = factory.getProfile(1L).orElseThrow();
+
+            assertThat(after).isNotSameAs(before);
+            assertThat(after.detect("Eine Statistik bitte")).contains(testMode);
+            assertThat(after.detect("Eine Analyse bitte")).isEmpty();
+        }
+    }
 }
@@ -0,0 +1,77 @@
+package io.javafleet.fleetnavigator.llm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Schreibt minimale GGUF-Dateien (nur Header mit Tokenizer-Metadaten) für Tests
+ */
+final class GgufTestFiles {
+
+    private GgufTestFiles() {
+    }
+
+    static Path write(Path file, String tokenizer, List<String> tokens, long bos, long eos) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        u32(out, 0x46554747);
+        u32(out, 3);
+        u64(out, 0);   // Tensoren
+        u64(out, 8);   // Key/Value-Paare
+
+        key(out, "general.architecture", 8);
+        string(out, "qwen2");
+        key(out, "general.file_type", 4);
+        u32(out, 15);
+        key(out, "tokenizer.ggml.model", 8);
+        string(out, tokenizer);
+        // Float-Array und String-Array vor den Tokens: müssen übersprungen werden
+        key(out, "tokenizer.ggml.scores", 9);
+        u32(out, 6);
+        u64(out, tokens.size());
+        out.writeBytes(new byte[tokens.size() * 4]);
+        key(out, "tokenizer.ggml.merges", 9);
+        u32(out, 8);
+        u64(out, 2);
+        string(out, "a b");
+        string(out, "ab c");
+        key(out, "tokenizer.ggml.tokens", 9);
+        u32(out, 8);
+        u64(out, tokens.size());
+        for (String token : tokens) {
+            string(out, token);
+        }
+        key(out, "tokenizer.ggml.bos_token_id", 4);
+        u32(out, bos);
+        key(out, "tokenizer.ggml.eos_token_id", 4);
+        u32(out, eos);
+        out.writeBytes(new byte[64]);  // statt Tensor-Daten
+
+        Files.write(file, out.toByteArray());
+        return file;
+    }
+
+    private static void key(ByteArrayOutputStream out, String key, int type) {
+        string(out, key);
+        u32(out, type);
+    }
+
+    private static void string(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        u64(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static void u32(ByteArrayOutputStream out, long value) {
+        out.writeBytes(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt((int) value).array());
+    }
+
+    private static void u64(ByteArrayOutputStream out, long value) {
+        out.writeBytes(ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(value).array());
+    }
+}
@@ -0,0 +1,117 @@
+package io.javafleet.fleetnavigator.llm;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * JUnit-Tests für GgufVocabulary
+ *
+ * Testet:
+ * - Header-Metadaten werden gelesen, andere Arrays übersprungen
+ * - Gleiche Familie mit leicht größerem Vokabular ist als Draft kompatibel
+ * - Abweichender Tokenizer, Token-Text oder Vokabulargröße wird abgelehnt
+ * - Anzahlen im Header, die nicht in die Datei passen, werden abgelehnt
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("GgufVocabulary Tests")
+class GgufVocabularyTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Liest Architektur, Tokenizer, Tokens und BOS/EOS aus dem Header")
+    void read_ParsesTokenizerMetadata() throws Exception {
+        Path file = GgufTestFiles.write(tempDir.resolve("main.gguf"), "gpt2", tokens(300), 1, 2);
+
+        GgufVocabulary vocabulary = GgufVocabulary.read(file);
+
+        assertThat(vocabulary.architecture()).isEqualTo("qwen2");
+        assertThat(vocabulary.tokenizerModel()).isEqualTo("gpt2");
+        assertThat(vocabulary.size()).isEqualTo(300);
+        assertThat(vocabulary.tokens().get(42)).isEqualTo("tok42");
+        assertThat(vocabulary.bosTokenId()).isEqualTo(1L);
+        assertThat(vocabulary.eosTokenId()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Draft derselben Familie (bis 128 Tokens Unterschied) ist kompatibel")
+    void sameFamily_IsCompatible() throws Exception {
+        GgufVocabulary main = vocabulary("main.gguf", "gpt2", tokens(400), 1, 2);
+        GgufVocabulary draft = vocabulary("draft.gguf", "gpt2", tokens(300), 1, 2);
+
+        assertThat(main.acceptsDraft(draft).compatible()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Anderer Tokenizer, andere Tokens oder zu große Abweichung werden abgelehnt")
+    void mismatches_AreRejected() throws Exception {
+        GgufVocabulary main = vocabulary("main.gguf", "gpt2", tokens(400), 1, 2);
+        List<String> changed = new ArrayList<>(tokens(400));
+        changed.set(7, "anders");
+
+        assertThat(main.acceptsDraft(vocabulary("llama.gguf", "llama", tokens(400), 1, 2)).reason())
+                .contains("Tokenizer");
+        assertThat(main.acceptsDraft(vocabulary("changed.gguf", "gpt2", changed, 1, 2)).reason())
+                .contains("Token 7");
+        assertThat(main.acceptsDraft(vocabulary("small.gguf", "gpt2", tokens(200), 1, 2)).reason())
+                .contains("200");
+        assertThat(main.acceptsDraft(vocabulary("eos.gguf", "gpt2", tokens(400), 1, 3)).compatible())
+                .isFalse();
+    }
+
+    @Test
+    @DisplayName("Datei ohne GGUF-Magic wird abgelehnt")
+    void noGguf_Throws() throws Exception {
+        Path file = Files.write(tempDir.resolve("kaputt.gguf"), new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+        assertThatThrownBy(() -> GgufVocabulary.read(file)).hasMessageContaining("GGUF");
+    }
+
+    @Test
+    @DisplayName("Gefälschte Anzahlen im Header werden abgelehnt statt Speicher anzulegen")
+    void forgedCounts_AreRejected() throws Exception {
+        Path tokens = Files.write(tempDir.resolve("tokens.gguf"), header(1, 0x7FFF_FFFFL));
+        Path pairs = Files.write(tempDir.resolve("pairs.gguf"), header(Long.MAX_VALUE, 1));
+        Path negative = Files.write(tempDir.resolve("negative.gguf"), header(1, -1));
+
+        assertThatThrownBy(() -> GgufVocabulary.read(tokens)).hasMessageContaining("Anzahl Tokens");
+        assertThatThrownBy(() -> GgufVocabulary.read(pairs)).hasMessageContaining("Anzahl Key/Value-Paare");
+        assertThatThrownBy(() -> GgufVocabulary.read(negative)).hasMessageContaining("Anzahl Tokens");
+    }
+
+    /**
+     * Header mit einem Token-Array, dessen Anzahl nicht zum Inhalt passen muss
+     */
+    private static byte[] header(long kvCount, long tokenCount) {
+        byte[] key = "tokenizer.ggml.tokens".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(0x46554747).putInt(3).putLong(0).putLong(kvCount)
+                .putLong(key.length).put(key).putInt(9).putInt(8).putLong(tokenCount)
+                .putLong(3).put("tok".getBytes(StandardCharsets.UTF_8));
+        return buffer.array();
+    }
+
+    private GgufVocabulary vocabulary(String name, String tokenizer, List<String> tokens, long bos, long eos)
+            throws Exception {
+        return GgufVocabulary.read(GgufTestFiles.write(tempDir.resolve(name), tokenizer, tokens, bos, eos));
+    }
+
+    private static List<String> tokens(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "tok" + i).toList();
+    }
+}
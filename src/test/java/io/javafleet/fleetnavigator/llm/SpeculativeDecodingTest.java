@@ -0,0 +1,104 @@
+package io.javafleet.fleetnavigator.llm;
+
+import io.javafleet.fleetnavigator.config.FleetPathsConfiguration;
+import io.javafleet.fleetnavigator.model.GgufModelConfig;
+import io.javafleet.fleetnavigator.repository.GgufModelConfigRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * JUnit-Tests für SpeculativeDecoding
+ *
+ * Testet:
+ * - Paarung über den Dateinamen des Hauptmodells, Draft neben dem Hauptmodell gefunden
+ * - Inkompatibles Draft-Modell wird nicht verwendet
+ * - llama-server-Argumente und Akzeptanzrate pro Paar
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("SpeculativeDecoding Tests")
+class SpeculativeDecodingTest {
+
+    @TempDir
+    Path tempDir;
+
+    private GgufModelConfigRepository repository;
+    private SpeculativeDecoding speculativeDecoding;
+    private Path mainModel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        repository = mock(GgufModelConfigRepository.class);
+        FleetPathsConfiguration paths = mock(FleetPathsConfiguration.class);
+        when(paths.getResolvedModelsDir()).thenReturn(tempDir);
+        speculativeDecoding = new SpeculativeDecoding(repository, paths);
+        mainModel = GgufTestFiles.write(tempDir.resolve("qwen2.5-7b-q4_k_m.gguf"), "gpt2", tokens(400), 1, 2);
+    }
+
+    @Test
+    @DisplayName("Hauptmodell wird mit dem konfigurierten Draft gepaart")
+    void forModel_PairsCompatibleDraft() throws Exception {
+        GgufTestFiles.write(tempDir.resolve("qwen2.5-0.5b-q4_k_m.gguf"), "gpt2", tokens(380), 1, 2);
+        when(repository.findByDraftModelIsNotNull()).thenReturn(List.of(config("qwen2.5-0.5b-q4_k_m.gguf")));
+
+        SpeculativeDecoding.DraftPairing pairing = speculativeDecoding.forModel(mainModel).orElseThrow();
+
+        assertThat(pairing.draftModel()).isEqualTo(tempDir.resolve("qwen2.5-0.5b-q4_k_m.gguf"));
+        assertThat(pairing.draftMax()).isEqualTo(8);
+        assertThat(pairing.serverArguments(99)).containsSequence("--model-draft", pairing.draftModel().toString())
+                .containsSequence("--draft-max", "8")
+                .containsSequence("-ngld", "99");
+    }
+
+    @Test
+    @DisplayName("Draft mit anderem Vokabular wird nicht geladen")
+    void forModel_SkipsIncompatibleDraft() throws Exception {
+        GgufTestFiles.write(tempDir.resolve("llama-1b.gguf"), "llama", tokens(400), 1, 2);
+        when(repository.findByDraftModelIsNotNull()).thenReturn(List.of(config("llama-1b.gguf")));
+
+        assertThat(speculativeDecoding.forModel(mainModel)).isEmpty();
+        assertThat(speculativeDecoding.forConfig(config("fehlt.gguf"), mainModel)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Akzeptanzrate wird pro Paar aus den gemeldeten Draft-Tokens berechnet")
+    void stats_ReportAcceptanceRate() throws Exception {
+        GgufTestFiles.write(tempDir.resolve("qwen2.5-0.5b-q4_k_m.gguf"), "gpt2", tokens(400), 1, 2);
+        SpeculativeDecoding.DraftPairing pairing = speculativeDecoding
+                .forConfig(config("qwen2.5-0.5b-q4_k_m.gguf"), mainModel).orElseThrow();
+
+        speculativeDecoding.recordUse(pairing);
+        speculativeDecoding.recordAcceptance(pairing, 100, 70);
+        speculativeDecoding.recordAcceptance(pairing, 100, 80);
+
+        assertThat(speculativeDecoding.getStats()).singleElement()
+                .satisfies(s -> assertThat(s)
+                        .containsEntry("pairing", "qwen2.5-7b-q4_k_m.gguf + qwen2.5-0.5b-q4_k_m.gguf")
+                        .containsEntry("requests", 1L)
+                        .containsEntry("draftedTokens", 200L)
+                        .containsEntry("acceptanceRate", 0.75));
+    }
+
+    private static GgufModelConfig config(String draftModel) {
+        GgufModelConfig config = new GgufModelConfig();
+        config.setName("Qwen mit Draft");
+        config.setBaseModel("qwen2.5-7b-q4_k_m.gguf");
+        config.setDraftModel(draftModel);
+        config.setDraftMax(8);
+        return config;
+    }
+
+    private static List<String> tokens(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "tok" + i).toList();
+    }
+}
@@ -0,0 +1,82 @@
+package io.javafleet.fleetnavigator.llm;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * JUnit-Tests für StructuredOutput
+ *
+ * Testet:
+ * - Vorzeitiges Stream-Ende, sobald das JSON-Objekt vollständig ist
+ * - Klammern in Strings und Escapes beenden das Objekt nicht
+ * - Grammatik-Ausgaben werden unverändert gesammelt
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("StructuredOutput Tests")
+class StructuredOutputTest {
+
+    private static final StructuredOutput SCHEMA = StructuredOutput.jsonSchema("{\"type\":\"object\"}");
+
+    @Test
+    @DisplayName("Stream endet nach dem schließenden Objekt, Text davor wird verworfen")
+    void jsonSchema_StopsAfterClosingBrace() throws IOException {
+        AtomicInteger delivered = new AtomicInteger();
+        List<String> chunks = List.of("```json\n{\"query\":", " \"wetter", " berlin\"}", "\n```", " und mehr Text");
+
+        String result = SCHEMA.collect(consumer -> {
+            for (String chunk : chunks) {
+                delivered.incrementAndGet();
+                consumer.accept(chunk);
+            }
+        });
+
+        assertThat(result).isEqualTo("{\"query\": \"wetter berlin\"}");
+        assertThat(delivered.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Klammern und escapte Anführungszeichen in Strings werden ignoriert")
+    void jsonSchema_IgnoresBracesInsideStrings() throws IOException {
+        String json = "{\"reason\":\"Betreff \\\"{wichtig}\\\" }\",\"nested\":{\"a\":[1,2]}}";
+
+        String result = SCHEMA.collect(consumer -> consumer.accept(json + "{\"zweites\":1}"));
+
+        assertThat(result).isEqualTo(json);
+    }
+
+    @Test
+    @DisplayName("Abbruch-Signal in einer IOException wird als reguläres Ende behandelt")
+    void jsonSchema_WrappedCompleteIsNotAnError() throws IOException {
+        String result = SCHEMA.collect(consumer -> {
+            try {
+                consumer.accept("{\"ok\":true}");
+            } catch (RuntimeException e) {
+                throw new IOException("Stream abgebrochen", e);
+            }
+        });
+
+        assertThat(result).isEqualTo("{\"ok\":true}");
+    }
+
+    @Test
+    @DisplayName("Grammatik-Ausgabe wird vollständig gesammelt")
+    void grammar_CollectsEverything() throws IOException {
+        StructuredOutput format = StructuredOutput.grammar("root ::= \"ja\" | \"nein\"");
+
+        String result = format.collect(consumer -> {
+            consumer.accept("ne");
+            consumer.accept("in");
+        });
+
+        assertThat(result).isEqualTo("nein");
+        assertThat(format.withPromptHint("System")).startsWith("System\n\n").contains("root ::=");
+    }
+}
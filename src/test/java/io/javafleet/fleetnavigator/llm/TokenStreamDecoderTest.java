@@ -0,0 +1,219 @@
+package io.javafleet.fleetnavigator.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * JUnit-Tests für TokenStreamDecoder
+ *
+ * Testet:
+ * - OpenAI-SSE (choices[0].delta.content), [DONE] und Draft-Timings
+ * - llama.cpp /completion (content, stop) und Ollama NDJSON (response, message.content, done)
+ * - Zeilen und UTF-8-Zeichen über Lesegrenzen hinweg, Abbruch
+ * - Allokations-Benchmark gegen readLine + readTree (Tag "benchmark", läuft nur mit -Pbenchmark)
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("TokenStreamDecoder Tests")
+class TokenStreamDecoderTest {
+
+    @Test
+    @DisplayName("OpenAI-SSE: Delta-Inhalte bis [DONE], Draft-Timings")
+    void decodesOpenAiSse() throws IOException {
+        String stream = """
+                data: {"choices":[{"index":0,"delta":{"role":"assistant","content":null}}]}
+
+                data: {"choices":[{"index":0,"delta":{"content":"Hallo"}}],"model":"qwen"}
+
+                : keep-alive
+                data: {"choices":[{"index":0,"delta":{"content":" Welt \\"!\\""}}]}
+
+                data: {"choices":[{"index":0,"delta":{},"finish_reason":"stop"}],"timings":{"draft_n":12,"draft_n_accepted":9}}
+
+                data: [DONE]
+
+                data: {"choices":[{"index":0,"delta":{"content":"zu spät"}}]}
+                """;
+
+        List<String> tokens = new ArrayList<>();
+        TokenStreamDecoder decoder = decode(stream, tokens);
+
+        assertThat(tokens).containsExactly("Hallo", " Welt \"!\"");
+        assertThat(decoder.isFinished()).isTrue();
+        assertThat(decoder.getDraftTokens()).isEqualTo(12);
+        assertThat(decoder.getDraftAccepted()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("llama.cpp /completion und Ollama NDJSON")
+    void decodesCompletionAndNdjson() throws IOException {
+        List<String> completion = new ArrayList<>();
+        decode("""
+                data: {"content":"Eins","stop":false}
+                data: {"content":"","stop":true,"timings":{"predicted_n":2}}
+                data: {"content":"nie"}
+                """, completion);
+        assertThat(completion).containsExactly("Eins");
+
+        List<String> generate = new ArrayList<>();
+        decode("""
+                {"model":"llama3","response":"Guten","done":false}
+                {"model":"llama3","response":" Tag","done":false,"context":[1,2,3]}
+                {"model":"llama3","response":"","done":true,"eval_count":2}
+                """, generate);
+        assertThat(generate).containsExactly("Guten", " Tag");
+
+        List<String> chat = new ArrayList<>();
+        TokenStreamDecoder decoder = decode("""
+                {"message":{"role":"assistant","content":"Das Bild","images":["content"]},"done":false}
+                {"message":{"role":"assistant","content":" zeigt"},"done":false}
+                {"message":{"role":"assistant","content":""},"done":true}
+                """, chat);
+        assertThat(chat).containsExactly("Das Bild", " zeigt");
+        assertThat(decoder.isFinished()).isTrue();
+        assertThat(decoder.getDraftTokens()).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Zeilen und UTF-8-Zeichen über Lesegrenzen, Abbruch")
+    void handlesSplitReadsAndCancellation() throws IOException {
+        StringBuilder stream = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            stream.append("data: {\"choices\":[{\"delta\":{\"content\":\"Größe ").append(i).append(" 🚢\"}}]}\r\n\r\n");
+        }
+        byte[] bytes = stream.toString().getBytes(StandardCharsets.UTF_8);
+
+        List<String> tokens = new ArrayList<>();
+        new TokenStreamDecoder().decode(new TrickleInputStream(bytes, 3), tokens::add, () -> false);
+        assertThat(tokens).hasSize(50).startsWith("Größe 0 🚢").endsWith("Größe 49 🚢");
+
+        List<String> cancelled = new ArrayList<>();
+        new TokenStreamDecoder().decode(new ByteArrayInputStream(bytes), cancelled::add, () -> cancelled.size() >= 5);
+        assertThat(cancelled).hasSize(5);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: pro Token kaum Allokationen gegenüber readLine + readTree")
+    void allocatesFarLessThanTreeParsing() throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeAllocationTracking(threads);
+
+        int tokenCount = 20_000;
+        StringBuilder stream = new StringBuilder();
+        for (int i = 0; i < tokenCount; i++) {
+            stream.append("data: {\"id\":\"chatcmpl-1\",\"object\":\"chat.completion.chunk\",\"created\":1735000000,")
+                    .append("\"model\":\"qwen2.5-7b-instruct\",\"choices\":[{\"index\":0,\"delta\":{\"content\":\"tok")
+                    .append(i % 10).append("\"},\"finish_reason\":null}]}\n\n");
+        }
+        stream.append("data: [DONE]\n\n");
+        byte[] bytes = stream.toString().getBytes(StandardCharsets.UTF_8);
+        ObjectMapper objectMapper = new ObjectMapper();
+        AtomicInteger sink = new AtomicInteger();
+        Consumer<String> consumer = token -> sink.addAndGet(token.length());
+
+        long decoderBytes = Long.MAX_VALUE;
+        long treeBytes = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {  // warm-up rounds; keep the best measurement
+            long before = threads.getCurrentThreadAllocatedBytes();
+            new TokenStreamDecoder().decode(new ByteArrayInputStream(bytes), consumer, () -> false);
+            decoderBytes = Math.min(decoderBytes, threads.getCurrentThreadAllocatedBytes() - before);
+
+            before = threads.getCurrentThreadAllocatedBytes();
+            decodeWithTrees(bytes, objectMapper, consumer);
+            treeBytes = Math.min(treeBytes, threads.getCurrentThreadAllocatedBytes() - before);
+        }
+
+        double decoderPerToken = (double) decoderBytes / tokenCount;
+        double treePerToken = (double) treeBytes / tokenCount;
+        assertThat(decoderPerToken)
+                .as("Bytes pro Token: Decoder %.0f, readLine+readTree %.0f", decoderPerToken, treePerToken)
+                .isLessThan(100)
+                .isLessThan(treePerToken / 10);
+    }
+
+    /**
+     * Bisheriger Weg der Provider: readLine, substring(6), readTree pro Zeile
+     */
+    private static void decodeWithTrees(byte[] bytes, ObjectMapper objectMapper, Consumer<String> consumer)
+            throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("data: ")) {
+                    line = line.substring(6);
+                }
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                if (line.trim().equals("[DONE]")) {
+                    break;
+                }
+                JsonNode delta = objectMapper.readTree(line).path("choices").path(0).path("delta");
+                if (delta.has("content")) {
+                    consumer.accept(delta.get("content").asText());
+                }
+            }
+        }
+    }
+
+    private static void assumeAllocationTracking(com.sun.management.ThreadMXBean threads) {
+        org.junit.jupiter.api.Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    private static TokenStreamDecoder decode(String stream, List<String> tokens) throws IOException {
+        TokenStreamDecoder decoder = new TokenStreamDecoder();
+        decoder.decode(new ByteArrayInputStream(stream.getBytes(StandardCharsets.UTF_8)), tokens::add, () -> false);
+        return decoder;
+    }
+
+    /**
+     * Liefert höchstens {@code chunk} Bytes pro read() - wie ein langsamer Netzwerk-Stream
+     */
+    private static final class TrickleInputStream extends InputStream {
+        private final byte[] data;
+        private final int chunk;
+        private int position;
+
+        TrickleInputStream(byte[] data, int chunk) {
+            this.data = data;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read() {
+            return position < data.length ? data[position++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (position >= data.length) {
+                return -1;
+            }
+            int n = Math.min(Math.min(chunk, length), data.length - position);
+            System.arraycopy(data, position, buffer, offset, n);
+            position += n;
+            return n;
+        }
+    }
+}
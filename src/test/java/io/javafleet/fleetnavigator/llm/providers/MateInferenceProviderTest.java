@@ -0,0 +1,180 @@
+package io.javafleet.fleetnavigator.llm.providers;
+
+import io.javafleet.fleetnavigator.dto.HardwareStats;
+import io.javafleet.fleetnavigator.dto.MateCommand;
+import io.javafleet.fleetnavigator.service.FleetMateService;
+import io.javafleet.fleetnavigator.websocket.FleetMateWebSocketHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * JUnit-Tests für MateInferenceProvider
+ *
+ * Ein Stub-Mate beantwortet inference_request asynchron mit Tokens, wie es ein
+ * echter Mate über den WebSocket tun würde.
+ *
+ * Testet:
+ * - Routing bevorzugt den Mate mit bereits geladenem Modell
+ * - Routing meidet ausgelastete Mates
+ * - Token-Streaming zurück zum Aufrufer
+ * - Fehler wenn kein Mate Kapazität hat
+ * - Slot-Reservierung per CAS und Ausweichen auf den nächsten Mate
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("MateInferenceProvider Tests")
+class MateInferenceProviderTest {
+
+    private FleetMateService fleetMateService;
+    private FleetMateWebSocketHandler handler;
+    private MateInferenceProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        fleetMateService = mock(FleetMateService.class);
+        handler = mock(FleetMateWebSocketHandler.class);
+        when(handler.isMateConnected(anyString())).thenReturn(true);
+        provider = new MateInferenceProvider(fleetMateService, handler);
+    }
+
+    @Test
+    @DisplayName("Mate mit geladenem Modell wird bevorzugt")
+    void routing_PrefersResidentModel() {
+        status("mate-a", "qwen", List.of("qwen", "llama"), 2, 0);
+        status("mate-b", "llama", List.of("qwen", "llama"), 2, 0);
+
+        assertThat(provider.selectWorker("llama").mateId).isEqualTo("mate-b");
+        assertThat(provider.selectWorker("qwen").mateId).isEqualTo("mate-a");
+    }
+
+    @Test
+    @DisplayName("Ausgelastete Mates werden gemieden")
+    void routing_AvoidsBusyMates() {
+        status("mate-a", "llama", List.of("llama"), 1, 1);
+        status("mate-b", null, List.of("llama"), 4, 0);
+        when(fleetMateService.getLatestStats("mate-b")).thenReturn(cpuStats(10));
+
+        assertThat(provider.selectWorker("llama").mateId).isEqualTo("mate-b");
+        assertThat(provider.selectWorker("mistral")).isNull();
+    }
+
+    @Test
+    @DisplayName("Stub-Mate streamt Tokens zurück")
+    @SuppressWarnings("unchecked")
+    void chatStream_StreamsTokensFromStubMate() throws IOException {
+        status("mate-a", "llama", List.of("llama"), 1, 0);
+        doAnswer(invocation -> {
+            MateCommand command = invocation.getArgument(1);
+            String requestId = (String) command.getPayload().get("requestId");
+            CompletableFuture.runAsync(() -> {
+                for (String token : List.of("Hallo", " ", "Welt")) {
+                    provider.handleMateMessage("mate-a", "inference_token", Map.of("requestId", requestId, "content", token));
+                }
+                provider.handleMateMessage("mate-a", "inference_done", Map.of("requestId", requestId, "tokens", 3));
+            });
+            return true;
+        }).when(handler).sendCommandAuto(eq("mate-a"), argThat(c -> "inference_request".equals(c.getType())));
+
+        List<String> chunks = new ArrayList<>();
+        provider.chatStream("llama", "Hi", null, "req-1", chunks::add, 32, 0.7, null, null, null, null);
+
+        assertThat(String.join("", chunks)).isEqualTo("Hallo Welt");
+        assertThat(provider.getWorkerStatus()).singleElement()
+                .satisfies(w -> assertThat(w.get("busySlots")).isEqualTo(0));
+    }
+
+    @Test
+    @DisplayName("Fehler wenn kein Mate Kapazität hat")
+    void chatStream_FailsWithoutCapacity() {
+        status("mate-a", "llama", List.of("llama"), 1, 1);
+
+        assertThatThrownBy(() -> provider.chat("llama", "Hi", null, "req-1"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("llama");
+        assertThat(provider.isAvailable()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Parallele Reservierungen überbuchen keinen Slot")
+    void reserve_NeverOverbooksSlots() throws Exception {
+        status("mate-a", "llama", List.of("llama"), 2, 0);
+        status("mate-b", null, List.of("llama"), 1, 0);
+
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<MateInferenceProvider.WorkerState>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return provider.reserveWorker("llama", Set.of());
+            }));
+        }
+        start.countDown();
+        List<String> reserved = new ArrayList<>();
+        for (var result : results) {
+            MateInferenceProvider.WorkerState worker = result.get();
+            if (worker != null) {
+                reserved.add(worker.mateId);
+            }
+        }
+        pool.shutdown();
+
+        assertThat(reserved).containsExactlyInAnyOrder("mate-a", "mate-a", "mate-b");
+        assertThat(provider.reserveWorker("llama", Set.of())).isNull();
+    }
+
+    @Test
+    @DisplayName("Nimmt ein Mate die Anfrage nicht an, übernimmt der nächste")
+    void chatStream_RetriesNextMateWhenSendRejected() throws IOException {
+        status("mate-a", "llama", List.of("llama"), 1, 0);
+        status("mate-b", null, List.of("llama"), 1, 0);
+        when(handler.sendCommandAuto(eq("mate-a"), any())).thenReturn(false);
+        doAnswer(invocation -> {
+            MateCommand command = invocation.getArgument(1);
+            String requestId = (String) command.getPayload().get("requestId");
+            CompletableFuture.runAsync(() -> {
+                provider.handleMateMessage("mate-b", "inference_token", Map.of("requestId", requestId, "content", "Ja"));
+                provider.handleMateMessage("mate-b", "inference_done", Map.of("requestId", requestId));
+            });
+            return true;
+        }).when(handler).sendCommandAuto(eq("mate-b"), any());
+
+        assertThat(provider.chat("llama", "Hi", null, "req-1")).isEqualTo("Ja");
+        assertThat(provider.getWorkerStatus()).allSatisfy(w -> assertThat(w.get("busySlots")).isEqualTo(0));
+    }
+
+    private void status(String mateId, String loadedModel, List<String> models, int slots, int active) {
+        Map<String, Object> data = new java.util.HashMap<>();
+        data.put("models", models);
+        data.put("loadedModel", loadedModel);
+        data.put("slots", slots);
+        data.put("activeSlots", active);
+        provider.handleMateMessage(mateId, "inference_status", data);
+    }
+
+    private static HardwareStats cpuStats(double usage) {
+        HardwareStats stats = new HardwareStats();
+        HardwareStats.CPUStats cpu = new HardwareStats.CPUStats();
+        cpu.setUsagePercent(usage);
+        stats.setCpu(cpu);
+        return stats;
+    }
+}
@@ -0,0 +1,187 @@
+package io.javafleet.fleetnavigator.service;
+
+import io.javafleet.fleetnavigator.config.FleetPathsConfiguration;
+import io.javafleet.fleetnavigator.model.BatchJob;
+import io.javafleet.fleetnavigator.repository.BatchJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * JUnit-Tests für BatchInferenceService
+ *
+ * Testet (mit gemocktem LLMProviderService und Repository im Speicher):
+ * - Alle Items werden verarbeitet und als JSONL geschrieben
+ * - Fortsetzen überspringt Items, die schon in der Ergebnisdatei stehen
+ * - Interaktiver Chat verdrängt ein laufendes Item, das danach erneut läuft
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("BatchInferenceService Tests")
+class BatchInferenceServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final Map<Long, BatchJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private LLMProviderService llmProviderService;
+    private InferencePriorityGate priorityGate;
+    private BatchInferenceService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        BatchJobRepository repository = mock(BatchJobRepository.class);
+        when(repository.save(any(BatchJob.class))).thenAnswer(i -> {
+            BatchJob job = i.getArgument(0);
+            if (job.getId() == null) {
+                job.setId(ids.incrementAndGet());
+            }
+            jobs.put(job.getId(), job);
+            return job;
+        });
+        when(repository.findById(anyLong())).thenAnswer(i -> Optional.ofNullable(jobs.get(i.<Long>getArgument(0))));
+        when(repository.findByStatus(any())).thenAnswer(i -> jobs.values().stream()
+                .filter(job -> job.getStatus() == i.getArgument(0))
+                .toList());
+
+        llmProviderService = mock(LLMProviderService.class);
+        when(llmProviderService.getParallelSlots()).thenReturn(2);
+        doAnswer(i -> {
+            Consumer<String> consumer = i.getArgument(4);
+            consumer.accept("Antwort: " + i.<String>getArgument(1));
+            return null;
+        }).when(llmProviderService).chatStream(anyString(), anyString(), any(), anyString(), any(),
+                any(), any(), any(), any(), any(), any());
+
+        priorityGate = new InferencePriorityGate();
+        service = new BatchInferenceService(repository, llmProviderService, priorityGate,
+                mock(FleetPathsConfiguration.class));
+        ReflectionTestUtils.setField(service, "enabled", false);
+        ReflectionTestUtils.setField(service, "dir", tempDir.toString());
+        ReflectionTestUtils.setField(service, "idleSeconds", 0);
+        service.init();
+        // Dispatcher-Thread bleibt aus, runJob wird direkt aufgerufen
+        ReflectionTestUtils.setField(service, "running", true);
+    }
+
+    @Test
+    @DisplayName("Alle Prompts werden verarbeitet und in die Ergebnisdatei geschrieben")
+    void runJob_ProcessesAllItems() throws Exception {
+        BatchJob job = service.submit(settings(), List.of(
+                new BatchInferenceService.BatchItem(null, "Fasse Chat 1 zusammen", null),
+                new BatchInferenceService.BatchItem(null, "Fasse Chat 2 zusammen", null),
+                new BatchInferenceService.BatchItem("mail-7", "Klassifiziere E-Mail 7", "Nur eine Kategorie")));
+
+        service.runJob(job);
+
+        assertThat(job.getStatus()).isEqualTo(BatchJob.Status.COMPLETED);
+        assertThat(job.getCompletedItems()).isEqualTo(3);
+        assertThat(job.getFinishedAt()).isNotNull();
+        List<String> results = Files.readAllLines(Path.of(job.getResultFile()));
+        assertThat(results).hasSize(3)
+                .anySatisfy(line -> assertThat(line).contains("\"id\":\"mail-7\"", "Antwort: Klassifiziere E-Mail 7"))
+                .allSatisfy(line -> assertThat(line).contains("\"status\":\"ok\""));
+        verify(llmProviderService).chatStream(eq("qwen2.5-3b"), eq("Klassifiziere E-Mail 7"), eq("Nur eine Kategorie"),
+                startsWith(InferencePriorityGate.BATCH_REQUEST_PREFIX), any(), eq(256), eq(0.2), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Fortsetzen überspringt Items mit vorhandenem Ergebnis")
+    void runJob_ResumesFromResultFile() throws Exception {
+        BatchJob job = service.submit(settings(), List.of(
+                new BatchInferenceService.BatchItem("a", "Prompt A", null),
+                new BatchInferenceService.BatchItem("b", "Prompt B", null),
+                new BatchInferenceService.BatchItem("c", "Prompt C", null)));
+        // Stand vor dem Neustart: a ist fertig, dahinter eine abgebrochene Zeile
+        Files.writeString(Path.of(job.getResultFile()),
+                "{\"id\":\"a\",\"status\":\"ok\",\"response\":\"alt\"}\n{\"id\":\"b\",\"sta");
+        job.setStatus(BatchJob.Status.RUNNING);
+        service.init();
+        assertThat(job.getStatus()).isEqualTo(BatchJob.Status.QUEUED);
+
+        service.runJob(job);
+
+        verify(llmProviderService, never()).chatStream(anyString(), eq("Prompt A"), any(), anyString(), any(),
+                any(), any(), any(), any(), any(), any());
+        verify(llmProviderService, times(2)).chatStream(anyString(), anyString(), any(), anyString(), any(),
+                any(), any(), any(), any(), any(), any());
+        assertThat(job.getCompletedItems()).isEqualTo(3);
+        assertThat(job.getStatus()).isEqualTo(BatchJob.Status.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("Interaktiver Request verdrängt das laufende Item, es läuft danach erneut")
+    void interactiveRequest_PreemptsBatchItem() throws Exception {
+        when(llmProviderService.getParallelSlots()).thenReturn(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(i -> {
+            if (calls.incrementAndGet() == 1) {
+                started.countDown();
+                cancelled.await(5, TimeUnit.SECONDS);
+                throw new IOException("Request abgebrochen");
+            }
+            Consumer<String> consumer = i.getArgument(4);
+            consumer.accept("fertig");
+            return null;
+        }).when(llmProviderService).chatStream(anyString(), anyString(), any(), anyString(), any(),
+                any(), any(), any(), any(), any(), any());
+        when(llmProviderService.cancelRequest(anyString())).thenAnswer(i -> {
+            cancelled.countDown();
+            return true;
+        });
+        BatchJob job = service.submit(settings(), List.of(new BatchInferenceService.BatchItem("x", "Lange Zusammenfassung", null)));
+
+        CompletableFuture<Void> run = CompletableFuture.runAsync(() -> {
+            try {
+                service.runJob(job);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        priorityGate.begin("chat-request-1");
+        priorityGate.end("chat-request-1");
+        run.get(10, TimeUnit.SECONDS);
+
+        verify(llmProviderService).cancelRequest(startsWith(InferencePriorityGate.BATCH_REQUEST_PREFIX + job.getId()));
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(job.getCompletedItems()).isEqualTo(1);
+        assertThat(job.getFailedItems()).isZero();
+        assertThat(Files.readAllLines(Path.of(job.getResultFile())))
+                .singleElement().asString().contains("\"attempts\":1", "fertig");
+        assertThat(service.getStats()).containsEntry("preemptions", 1L);
+    }
+
+    private static BatchJob settings() {
+        BatchJob settings = new BatchJob();
+        settings.setName("Monatsabschluss");
+        settings.setModel("qwen2.5-3b");
+        settings.setTemperature(0.2);
+        settings.setMaxTokens(256);
+        return settings;
+    }
+}
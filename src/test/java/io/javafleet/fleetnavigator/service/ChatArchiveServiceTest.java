@@ -0,0 +1,235 @@
+package io.javafleet.fleetnavigator.service;
+
+import io.javafleet.fleetnavigator.config.FleetPathsConfiguration;
+import io.javafleet.fleetnavigator.model.ArchivedChat;
+import io.javafleet.fleetnavigator.model.Chat;
+import io.javafleet.fleetnavigator.model.ChatDocument;
+import io.javafleet.fleetnavigator.model.Message;
+import io.javafleet.fleetnavigator.repository.ArchivedChatRepository;
+import io.javafleet.fleetnavigator.repository.ChatDocumentRepository;
+import io.javafleet.fleetnavigator.repository.ChatRepository;
+import io.javafleet.fleetnavigator.repository.ContextItemRepository;
+import io.javafleet.fleetnavigator.repository.MessageRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * JUnit-Tests für ChatArchiveService
+ *
+ * Testet (Archiv-Index in einer In-Memory-Map statt H2):
+ * - Archivieren und Wiederherstellen mit Originalinhalt, Reihenfolge und Zeitstempeln
+ * - Suchindex-Einträge bleiben beim Archivieren, Wiederherstellen ersetzt sie
+ * - Aktive Chats werden nicht archiviert
+ * - Lauf löscht Segmente ohne lebende Einträge und meldet die Kompaktierung
+ * - Token-Summe archivierter Chats steht im Index und wird für alte Einträge nachgetragen
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("ChatArchiveService Tests")
+class ChatArchiveServiceTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 3, 14, 9, 26, 53);
+
+    @TempDir
+    Path tempDir;
+
+    private final Map<Long, ArchivedChat> index = new ConcurrentHashMap<>();
+    private ChatRepository chatRepository;
+    private MessageRepository messageRepository;
+    private ChatDocumentRepository chatDocumentRepository;
+    private ContentBlobStore contentBlobStore;
+    private SystemService systemService;
+    private ChatSearchIndex chatSearchIndex;
+    private ChatArchiveService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        chatRepository = mock(ChatRepository.class);
+        when(chatRepository.existsById(anyLong())).thenReturn(true);
+        when(chatRepository.existsByIdAndUpdatedAtBefore(anyLong(), any())).thenReturn(true);
+        when(chatRepository.getReferenceById(anyLong())).thenAnswer(i -> {
+            Chat chat = new Chat();
+            chat.setId(i.getArgument(0));
+            return chat;
+        });
+        messageRepository = mock(MessageRepository.class);
+        chatDocumentRepository = mock(ChatDocumentRepository.class);
+        ContextItemRepository contextItemRepository = mock(ContextItemRepository.class);
+
+        ArchivedChatRepository archivedChatRepository = mock(ArchivedChatRepository.class);
+        when(archivedChatRepository.existsById(anyLong())).thenAnswer(i -> index.containsKey(i.<Long>getArgument(0)));
+        when(archivedChatRepository.findById(anyLong())).thenAnswer(i -> Optional.ofNullable(index.get(i.<Long>getArgument(0))));
+        when(archivedChatRepository.save(any())).thenAnswer(i -> {
+            ArchivedChat entry = i.getArgument(0);
+            index.put(entry.getChatId(), entry);
+            return entry;
+        });
+        doAnswer(i -> index.remove(i.<ArchivedChat>getArgument(0).getChatId())).when(archivedChatRepository).delete(any());
+        when(archivedChatRepository.findAllChatIds()).thenAnswer(i -> new ArrayList<>(index.keySet()));
+        when(archivedChatRepository.findOrphans()).thenReturn(List.of());
+        when(archivedChatRepository.findByTokenCountIsNull()).thenAnswer(i -> index.values().stream()
+                .filter(e -> e.getTokenCount() == null).toList());
+        when(archivedChatRepository.sumStoredLengthBySegment()).thenAnswer(i -> index.values().stream()
+                .collect(Collectors.groupingBy(ArchivedChat::getSegment)).entrySet().stream()
+                .map(e -> new Object[]{e.getKey(),
+                        e.getValue().stream().mapToLong(ArchivedChat::getStoredLength).sum(),
+                        (long) e.getValue().size()})
+                .toList());
+
+        contentBlobStore = mock(ContentBlobStore.class);
+        when(contentBlobStore.contentOf(any(ChatDocument.class))).thenAnswer(i -> i.<ChatDocument>getArgument(0).getContent());
+        systemService = mock(SystemService.class);
+        when(systemService.compactDatabase(anyBoolean()))
+                .thenReturn(new SystemService.CompactionResult(true, 4096, 1024, 3072, 5, null));
+
+        chatSearchIndex = mock(ChatSearchIndex.class);
+        ObjectProvider<ChatSearchIndex> searchIndexProvider = mock(ObjectProvider.class);
+        doAnswer(i -> {
+            i.<Consumer<ChatSearchIndex>>getArgument(0).accept(chatSearchIndex);
+            return null;
+        }).when(searchIndexProvider).ifAvailable(any());
+
+        service = new ChatArchiveService(chatRepository, messageRepository, chatDocumentRepository,
+                contextItemRepository, archivedChatRepository, contentBlobStore, systemService,
+                mock(FleetPathsConfiguration.class), searchIndexProvider, mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "archiveDir", tempDir.toString());
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    @DisplayName("Archivierter Chat wird mit Originalinhalt wiederhergestellt")
+    void archiveAndRehydrateRoundTrip() {
+        List<Message> messages = List.of(
+                message(1L, Message.MessageRole.USER, "Wie heißt die Hauptstadt von Australien?", CREATED),
+                message(2L, Message.MessageRole.ASSISTANT, "Canberra – nicht Sydney.", CREATED.plusSeconds(4)));
+        when(messageRepository.findByChatIdOrderByCreatedAtAsc(7L)).thenReturn(messages);
+        ChatDocument document = new ChatDocument();
+        document.setId(5L);
+        document.setFileName("reise.pdf");
+        document.setFileType("pdf");
+        document.setContent("Reiseplan Canberra");
+        document.setCreatedAt(CREATED);
+        when(chatDocumentRepository.findByChatIdOrderByCreatedAtAsc(7L)).thenReturn(List.of(document));
+
+        assertThat(service.archive(7L, LocalDateTime.now())).isTrue();
+
+        // Bulk deletes: no entity listener fires, the chat search index keeps the entries
+        verify(messageRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(chatDocumentRepository).deleteAllByIdInBatch(List.of(5L));
+        verify(messageRepository, never()).deleteAll(any());
+        verifyNoInteractions(chatSearchIndex);
+        assertThat(service.isArchived(7L)).isTrue();
+        assertThat(index.get(7L).getMessageCount()).isEqualTo(2);
+
+        assertThat(service.rehydrate(7L)).isTrue();
+
+        ArgumentCaptor<Message> restored = ArgumentCaptor.forClass(Message.class);
+        verify(messageRepository, times(2)).save(restored.capture());
+        assertThat(restored.getAllValues())
+                .extracting(Message::getRole, Message::getContent, Message::getCreatedAt)
+                .containsExactly(tuple(Message.MessageRole.USER, "Wie heißt die Hauptstadt von Australien?", CREATED),
+                        tuple(Message.MessageRole.ASSISTANT, "Canberra – nicht Sydney.", CREATED.plusSeconds(4)));
+        assertThat(restored.getValue().getChat().getId()).isEqualTo(7L);
+        verify(chatSearchIndex).onRestored(List.of(1L, 2L), List.of(5L));
+        verify(contentBlobStore).attach(any(ChatDocument.class), eq("Reiseplan Canberra"));
+        assertThat(service.isArchived(7L)).isFalse();
+        assertThat(index).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Chat mit neuer Aktivität wird nicht archiviert")
+    void skipsActiveChat() {
+        when(chatRepository.existsByIdAndUpdatedAtBefore(eq(3L), any())).thenReturn(false);
+
+        assertThat(service.archive(3L, LocalDateTime.now())).isFalse();
+
+        verify(messageRepository, never()).deleteAllByIdInBatch(any());
+        assertThat(service.isArchived(3L)).isFalse();
+        assertThat(service.rehydrate(3L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Lauf archiviert, löscht tote Segmente und meldet die Kompaktierung")
+    void runDeletesDeadSegmentsAndCompacts() throws Exception {
+        when(messageRepository.findByChatIdOrderByCreatedAtAsc(anyLong()))
+                .thenAnswer(i -> List.of(message(1L, Message.MessageRole.USER, "Notiz " + i.getArgument(0), CREATED)));
+        ReflectionTestUtils.setField(service, "segmentMaxMb", 0L);  // every record opens a new segment
+        service.archive(1L, LocalDateTime.now());
+        service.archive(2L, LocalDateTime.now());
+        service.rehydrate(1L);
+        when(chatRepository.findIdleIds(any(), any())).thenReturn(List.of(3L));
+
+        Map<String, Object> summary = service.run();
+
+        assertThat(summary).containsEntry("archivedChats", 1).containsEntry("segmentsDeleted", 1);
+        assertThat(((SystemService.CompactionResult) summary.get("compaction")).reclaimedBytes()).isEqualTo(3072);
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files.map(p -> p.getFileName().toString()))
+                    .containsExactlyInAnyOrder("archive-000002.seg", "archive-000003.seg");
+        }
+        assertThat(service.isArchived(2L)).isTrue();
+        assertThat(service.isArchived(3L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Token-Summe wird beim Archivieren gespeichert und für alte Einträge nachgetragen")
+    void tokenCountIsRecordedAndBackfilled() {
+        Message question = message(1L, Message.MessageRole.USER, "Frage", CREATED);
+        question.setTokens(12);
+        Message answer = message(2L, Message.MessageRole.ASSISTANT, "Antwort", CREATED.plusSeconds(1));
+        answer.setTokens(30);
+        Message pending = message(3L, Message.MessageRole.ASSISTANT, "", CREATED.plusSeconds(2));
+        when(messageRepository.findByChatIdOrderByCreatedAtAsc(7L)).thenReturn(List.of(question, answer, pending));
+
+        service.archive(7L, LocalDateTime.now());
+
+        assertThat(service.findEntry(7L)).get().extracting(ArchivedChat::getTokenCount).isEqualTo(42);
+        assertThat(service.findEntry(8L)).isEmpty();
+
+        // Entry written before the column existed
+        index.get(7L).setTokenCount(null);
+
+        service.run();
+
+        assertThat(index.get(7L).getTokenCount()).isEqualTo(42);
+    }
+
+    private static Message message(Long id, Message.MessageRole role, String content, LocalDateTime createdAt) {
+        Message message = new Message();
+        message.setId(id);
+        message.setRole(role);
+        message.setContent(content);
+        message.setCreatedAt(createdAt);
+        return message;
+    }
+}
@@ -0,0 +1,189 @@
+package io.javafleet.fleetnavigator.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javafleet.fleetnavigator.model.Chat;
+import io.javafleet.fleetnavigator.model.Message;
+import io.javafleet.fleetnavigator.repository.ChatRepository;
+import io.javafleet.fleetnavigator.repository.MessageRepository;
+import io.javafleet.fleetnavigator.repository.MessageRepository.MessageExportRow;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * JUnit-Tests für ChatExportService
+ *
+ * Testet (mit gemockten Repositories):
+ * - Markdown-Export liest seitenweise per Keyset und behält die Reihenfolge
+ * - JSONL-Export: eine gültige JSON-Zeile pro Chat und Nachricht
+ * - PDF-Export schreibt Seiten bereits während des Lesens in den Stream
+ * - Abgebrochener PDF-Export endet ohne Trailer statt als scheinbar vollständiges PDF
+ * - Unbekannter Chat und unbekanntes Format werden abgelehnt
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("ChatExportService Tests")
+class ChatExportServiceTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 3, 14, 9, 26);
+
+    private final List<MessageExportRow> rows = new ArrayList<>();
+    private final List<Long> requestedAfterIds = new ArrayList<>();
+    private ByteArrayOutputStream out;
+    private final List<Integer> bytesWrittenPerPage = new ArrayList<>();
+    private long failAfterId = Long.MAX_VALUE;
+    private ChatRepository chatRepository;
+    private ChatExportService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        out = new ByteArrayOutputStream();
+        chatRepository = mock(ChatRepository.class);
+        Chat chat = new Chat();
+        chat.setId(5L);
+        chat.setTitle("Steuererklärung 2024");
+        chat.setModel("qwen2.5:7b");
+        chat.setCreatedAt(CREATED);
+        when(chatRepository.findById(5L)).thenReturn(Optional.of(chat));
+
+        MessageRepository messageRepository = mock(MessageRepository.class);
+        when(messageRepository.findExportRowsAfter(eq(5L), anyLong(), any())).thenAnswer(inv -> {
+            Long afterId = inv.getArgument(1);
+            Pageable pageable = inv.getArgument(2);
+            if (afterId >= failAfterId) {
+                throw new IllegalStateException("Datenbank nicht erreichbar");
+            }
+            requestedAfterIds.add(afterId);
+            bytesWrittenPerPage.add(out.size());
+            return rows.stream().filter(r -> r.getId() > afterId).limit(pageable.getPageSize()).toList();
+        });
+
+        ObjectProvider<PdfExportService> pdfExportService = mock(ObjectProvider.class);
+        service = new ChatExportService(chatRepository, messageRepository, mock(ChatArchiveService.class),
+                pdfExportService);
+        ReflectionTestUtils.setField(service, "pageSize", 10);
+    }
+
+    @Test
+    @DisplayName("Markdown-Export liest seitenweise und behält die Reihenfolge")
+    void markdownExportPagesThroughMessages() throws Exception {
+        for (int i = 1; i <= 25; i++) {
+            message(i, i % 2 == 1 ? Message.MessageRole.USER : Message.MessageRole.ASSISTANT, "Nachricht " + i);
+        }
+
+        ChatExportService.ChatExport export = service.prepare(5L, "md");
+        int count = service.write(export, out);
+
+        assertThat(count).isEqualTo(25);
+        assertThat(requestedAfterIds).containsExactly(0L, 10L, 20L);
+        String markdown = out.toString(StandardCharsets.UTF_8);
+        assertThat(markdown).startsWith("# Steuererklärung 2024\n");
+        assertThat(markdown).contains("### Benutzer · 14.03.2025 09:26\n\nNachricht 1\n",
+                "### Assistent (qwen2.5:7b) · 14.03.2025 09:26\n\nNachricht 2\n");
+        assertThat(markdown.indexOf("Nachricht 9\n")).isLessThan(markdown.indexOf("Nachricht 10\n"));
+        assertThat(markdown).contains("Nachricht 25");
+        assertThat(export.filename()).startsWith("Steuererklärung_2024_").endsWith(".md");
+    }
+
+    @Test
+    @DisplayName("JSONL-Export schreibt eine JSON-Zeile pro Chat und Nachricht")
+    void jsonlExportWritesOneObjectPerLine() throws Exception {
+        message(1, Message.MessageRole.USER, "Zeile 1\nZeile 2 mit \"Zitat\"");
+        message(2, Message.MessageRole.ASSISTANT, "Antwort");
+
+        service.write(service.prepare(5L, "jsonl"), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode chat = mapper.readTree(lines[0]);
+        assertThat(chat.get("type").asText()).isEqualTo("chat");
+        assertThat(chat.get("title").asText()).isEqualTo("Steuererklärung 2024");
+        JsonNode first = mapper.readTree(lines[1]);
+        assertThat(first.get("role").asText()).isEqualTo("USER");
+        assertThat(first.get("content").asText()).isEqualTo("Zeile 1\nZeile 2 mit \"Zitat\"");
+        assertThat(first.get("createdAt").asText()).isEqualTo("2025-03-14T09:26");
+        assertThat(mapper.readTree(lines[2]).get("model").asText()).isEqualTo("qwen2.5:7b");
+    }
+
+    @Test
+    @DisplayName("PDF-Export schreibt Seiten schon während des Lesens")
+    void pdfExportStreamsPages() throws Exception {
+        String paragraph = "Lorem ipsum dolor sit amet, consetetur sadipscing elitr, sed diam nonumy eirmod tempor. ";
+        for (int i = 1; i <= 60; i++) {
+            message(i, i % 2 == 1 ? Message.MessageRole.USER : Message.MessageRole.ASSISTANT,
+                    paragraph.repeat(6) + "\n\n" + paragraph.repeat(4));
+        }
+
+        int count = service.write(service.prepare(5L, "pdf"), out);
+
+        assertThat(count).isEqualTo(60);
+        // Finished PDF pages reach the stream while later messages are still being read
+        assertThat(bytesWrittenPerPage).isSorted();
+        assertThat(bytesWrittenPerPage.get(3)).isGreaterThan(bytesWrittenPerPage.get(1));
+        assertThat(bytesWrittenPerPage.get(bytesWrittenPerPage.size() - 1)).isGreaterThan(10_000);
+        byte[] pdf = out.toByteArray();
+        assertThat(new String(pdf, 0, 5, StandardCharsets.US_ASCII)).isEqualTo("%PDF-");
+        try (PDDocument document = PDDocument.load(pdf)) {
+            assertThat(document.getNumberOfPages()).isGreaterThan(5);
+            assertThat(document.getDocumentInformation().getTitle()).isEqualTo("Steuererklärung 2024");
+        }
+    }
+
+    @Test
+    @DisplayName("Fehler mitten im PDF-Export hinterlässt kein scheinbar vollständiges PDF")
+    void failedPdfExportStaysIncomplete() {
+        String paragraph = "Lorem ipsum dolor sit amet, consetetur sadipscing elitr, sed diam nonumy eirmod tempor. ";
+        for (int i = 1; i <= 60; i++) {
+            message(i, Message.MessageRole.USER, paragraph.repeat(10));
+        }
+        failAfterId = 30;
+
+        assertThatThrownBy(() -> service.write(service.prepare(5L, "pdf"), out))
+                .hasMessageContaining("Datenbank nicht erreichbar");
+
+        String written = new String(out.toByteArray(), StandardCharsets.ISO_8859_1);
+        assertThat(written).startsWith("%PDF-").doesNotContain("%%EOF");
+    }
+
+    @Test
+    @DisplayName("Unbekannter Chat und unbekanntes Format werden abgelehnt")
+    void rejectsUnknownChatAndFormat() {
+        when(chatRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.prepare(9L, "md")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.prepare(5L, "docx")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(service.prepare(5L, "PDF").format()).isEqualTo(ChatExportService.Format.PDF);
+    }
+
+    private void message(long id, Message.MessageRole role, String content) {
+        rows.add(new Row(id, role, content, role == Message.MessageRole.ASSISTANT ? "qwen2.5:7b" : null, CREATED));
+    }
+
+    private record Row(Long id, Message.MessageRole role, String content, String modelName, LocalDateTime createdAt)
+            implements MessageExportRow {
+        public Long getId() { return id; }
+        public Message.MessageRole getRole() { return role; }
+        public String getContent() { return content; }
+        public String getModelName() { return modelName; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+    }
+}
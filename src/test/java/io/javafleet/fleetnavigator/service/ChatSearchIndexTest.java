@@ -0,0 +1,247 @@
+package io.javafleet.fleetnavigator.service;
+
+import io.javafleet.fleetnavigator.config.FleetPathsConfiguration;
+import io.javafleet.fleetnavigator.config.StartupReport;
+import io.javafleet.fleetnavigator.model.Chat;
+import io.javafleet.fleetnavigator.model.Message;
+import io.javafleet.fleetnavigator.repository.ChatDocumentRepository;
+import io.javafleet.fleetnavigator.repository.ChatRepository;
+import io.javafleet.fleetnavigator.repository.MessageRepository;
+import io.javafleet.fleetnavigator.repository.SearchIndexRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * JUnit-Tests für ChatSearchIndex
+ *
+ * Testet (mit gemockten Repositories):
+ * - Aufbau aus der Datenbank, Treffer mit hervorgehobenem Ausschnitt und Chat-Titel
+ * - Titel-Treffer vor Inhalts-Treffern, neuere Nachrichten vor älteren
+ * - Keyset-Paginierung ohne Duplikate über mehrere Seiten
+ * - Projekt-Filter und Löschen eines Chats samt Nachrichten
+ * - Ungültiger Cursor wird abgelehnt
+ * - Archivierte Chats bleiben durchsuchbar (auch nach Neuaufbau), Wiederherstellen ersetzt die Einträge
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("ChatSearchIndex Tests")
+class ChatSearchIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final List<MessageRepository.MessageSearchRow> messages = new ArrayList<>();
+    private final List<SearchIndexRow> chats = new ArrayList<>();
+    private ChatRepository chatRepository;
+    private ChatArchiveService chatArchiveService;
+    private ChatSearchIndex index;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        FleetPathsConfiguration pathsConfig = mock(FleetPathsConfiguration.class);
+        when(pathsConfig.getChatIndexDir()).thenReturn(tempDir);
+
+        MessageRepository messageRepository = mock(MessageRepository.class);
+        when(messageRepository.findSearchRowsAfter(anyLong(), any()))
+                .thenAnswer(inv -> page(messages, inv.getArgument(0), inv.getArgument(1)));
+        chatRepository = mock(ChatRepository.class);
+        when(chatRepository.findSearchRowsAfter(anyLong(), any()))
+                .thenAnswer(inv -> page(chats, inv.getArgument(0), inv.getArgument(1)));
+        ChatDocumentRepository chatDocumentRepository = mock(ChatDocumentRepository.class);
+        when(chatDocumentRepository.findSearchRowsAfter(anyLong(), any())).thenReturn(List.of());
+
+        chatArchiveService = mock(ChatArchiveService.class);
+        ObjectProvider<ChatArchiveService> archiveProvider = mock(ObjectProvider.class);
+        when(archiveProvider.getIfAvailable()).thenReturn(chatArchiveService);
+
+        index = new ChatSearchIndex(pathsConfig, messageRepository, chatRepository, chatDocumentRepository,
+                new StartupReport(), archiveProvider);
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    @Test
+    @DisplayName("Aufbau aus der Datenbank liefert Treffer mit Ausschnitt und Chat-Titel")
+    void rebuildFindsMessagesWithSnippet() {
+        chat(1, "Urlaubsplanung", 1);
+        message(10, 1, "Welche Fähre fährt nach Mallorca?", 2);
+        message(11, 1, "Die Fähre ab Barcelona braucht acht Stunden & ist günstig.", 1);
+        start();
+
+        ChatSearchIndex.Page page = search("barcelona", null, null);
+
+        assertThat(page.hits()).hasSize(1);
+        ChatSearchIndex.Hit hit = page.hits().get(0);
+        assertThat(hit.type()).isEqualTo("message");
+        assertThat(hit.id()).isEqualTo(11L);
+        assertThat(hit.chatTitle()).isEqualTo("Urlaubsplanung");
+        assertThat(hit.role()).isEqualTo("ASSISTANT");
+        assertThat(hit.snippet()).contains("<mark>Barcelona</mark>").contains("&amp;");
+        assertThat(index.getStatus()).containsEntry("documents", 3);
+    }
+
+    @Test
+    @DisplayName("Titel-Treffer stehen vor Inhalts-Treffern, neuere Nachrichten vor älteren")
+    void ranksTitleAndRecentMessagesHigher() {
+        chat(1, "Kubernetes Cluster", 40);
+        chat(2, "Allgemeines", 1);
+        message(20, 2, "Das Deployment läuft im Kubernetes Cluster", 200);
+        message(21, 2, "Das Deployment läuft im Kubernetes Cluster", 1);
+        start();
+
+        List<ChatSearchIndex.Hit> hits = search("kubernetes", null, null).hits();
+
+        assertThat(hits).extracting(ChatSearchIndex.Hit::type, ChatSearchIndex.Hit::id)
+                .containsExactly(tuple("chat", 1L), tuple("message", 21L), tuple("message", 20L));
+    }
+
+    @Test
+    @DisplayName("Keyset-Paginierung liefert alle Treffer genau einmal")
+    void cursorPaginationCoversAllHits() {
+        chat(1, "Notizen", 1);
+        for (int i = 0; i < 25; i++) {
+            message(100 + i, 1, "Notiz zum Thema Datenbank Nummer " + i, i % 7);
+        }
+        start();
+
+        for (boolean recent : new boolean[]{false, true}) {
+            Set<Long> seen = new HashSet<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                ChatSearchIndex.Page page = index.search(
+                        new ChatSearchIndex.SearchRequest("datenbank", null, null, null, recent, cursor, 10));
+                page.hits().forEach(h -> assertThat(seen.add(h.id())).isTrue());
+                cursor = page.nextCursor();
+                pages++;
+            } while (cursor != null);
+
+            assertThat(seen).hasSize(25);
+            assertThat(pages).isEqualTo(3);
+        }
+    }
+
+    @Test
+    @DisplayName("Projekt-Filter und gelöschter Chat")
+    void projectFilterAndChatDeletion() {
+        chat(1, "Projekt A", 1);
+        chat(2, "Projekt B", 1);
+        message(30, 1, "Rechnung für März", 1);
+        message(31, 2, "Rechnung für April", 1);
+        start();
+        when(chatRepository.findIdsByProjectId(7L)).thenReturn(List.of(2L));
+
+        assertThat(search("rechnung", 7L, null).hits()).extracting(ChatSearchIndex.Hit::id).containsExactly(31L);
+
+        Chat deleted = new Chat();
+        deleted.setId(2L);
+        index.onRemoved(deleted);
+        index.flush();
+
+        assertThat(search("rechnung", null, null).hits()).extracting(ChatSearchIndex.Hit::id).containsExactly(30L);
+        assertThat(search("rechnung", 7L, null).hits()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Ungültiger Cursor wird abgelehnt")
+    void rejectsInvalidCursor() {
+        chat(1, "Test", 1);
+        start();
+
+        assertThatThrownBy(() -> search("test", null, "kein-cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Archivierte Chats bleiben durchsuchbar, Wiederherstellen ersetzt die Einträge")
+    void archivedChatsStaySearchable() {
+        chat(3, "Steuer 2019", 400);
+        message(50, 3, "Die Steuererklärung ist abgegeben", 1);
+        // Messages 40/41 and the document only exist in the archive record now
+        LocalDateTime created = LocalDateTime.now().minusDays(400);
+        ChatArchiveService.ArchiveRecord record = new ChatArchiveService.ArchiveRecord(3L, LocalDateTime.now(),
+                List.of(new ChatArchiveService.ArchivedMessage(40L, Message.MessageRole.USER,
+                                "Welche Belege brauche ich für die Steuererklärung?", 12, null, created, null, null),
+                        new ChatArchiveService.ArchivedMessage(41L, Message.MessageRole.ASSISTANT,
+                                "Lohnsteuerbescheinigung und Spendenquittungen", 9, "qwen", created, null, null)),
+                List.of(new ChatArchiveService.ArchivedDocument(42L, "Steuererklärung Belege.pdf", "pdf", "…", created)),
+                List.of());
+        doAnswer(i -> {
+            i.<Consumer<ChatArchiveService.ArchiveRecord>>getArgument(0).accept(record);
+            return null;
+        }).when(chatArchiveService).forEachRecord(any());
+        when(chatArchiveService.isArchived(3L)).thenReturn(true);
+        start();
+
+        List<ChatSearchIndex.Hit> hits = search("steuererklärung", null, null).hits();
+
+        assertThat(hits).extracting(ChatSearchIndex.Hit::type, ChatSearchIndex.Hit::id)
+                .containsExactlyInAnyOrder(tuple("message", 50L), tuple("message", 40L), tuple("document", 42L));
+        assertThat(hits).allSatisfy(hit -> {
+            assertThat(hit.chatId()).isEqualTo(3L);
+            assertThat(hit.chatTitle()).isEqualTo("Steuer 2019");
+            assertThat(hit.archived()).isTrue();
+        });
+
+        // Restored under new IDs: the old entries go, the listener adds the new ones
+        index.onRestored(List.of(40L, 41L), List.of(42L));
+        index.flush();
+
+        assertThat(search("steuererklärung", null, null).hits()).extracting(ChatSearchIndex.Hit::id).containsExactly(50L);
+        assertThat(search("spendenquittungen", null, null).hits()).isEmpty();
+    }
+
+    private ChatSearchIndex.Page search(String text, Long projectId, String cursor) {
+        return index.search(new ChatSearchIndex.SearchRequest(text, projectId, null, null, false, cursor, 20));
+    }
+
+    private void start() {
+        index.onReady();
+        index.flush();
+    }
+
+    private void chat(long id, String title, int daysAgo) {
+        chats.add(new Row(id, id, title, LocalDateTime.now().minusDays(daysAgo), null));
+    }
+
+    private void message(long id, long chatId, String content, int daysAgo) {
+        messages.add(new Row(id, chatId, content, LocalDateTime.now().minusDays(daysAgo),
+                id % 2 == 0 ? Message.MessageRole.USER : Message.MessageRole.ASSISTANT));
+    }
+
+    private static <T extends SearchIndexRow> List<T> page(List<T> rows, Long afterId, Pageable pageable) {
+        return rows.stream().filter(r -> r.getId() > afterId).limit(pageable.getPageSize()).toList();
+    }
+
+    private record Row(Long id, Long chatId, String text, LocalDateTime createdAt, Message.MessageRole role)
+            implements MessageRepository.MessageSearchRow {
+        public Long getId() { return id; }
+        public Long getChatId() { return chatId; }
+        public String getText() { return text; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public Message.MessageRole getRole() { return role; }
+    }
+}
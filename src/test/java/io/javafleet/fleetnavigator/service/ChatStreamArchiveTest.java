@@ -0,0 +1,102 @@
+package io.javafleet.fleetnavigator.service;
+
+import io.javafleet.fleetnavigator.dto.ChatRequest;
+import io.javafleet.fleetnavigator.dto.ModelSelectionSettingsDTO;
+import io.javafleet.fleetnavigator.experts.repository.ExpertRepository;
+import io.javafleet.fleetnavigator.experts.runtime.ExpertRuntimeFactory;
+import io.javafleet.fleetnavigator.model.Chat;
+import io.javafleet.fleetnavigator.model.ChatDocument;
+import io.javafleet.fleetnavigator.model.Message;
+import io.javafleet.fleetnavigator.repository.ChatDocumentRepository;
+import io.javafleet.fleetnavigator.repository.ChatRepository;
+import io.javafleet.fleetnavigator.repository.GlobalStatsRepository;
+import io.javafleet.fleetnavigator.repository.MessageRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * JUnit-Tests für sendMessageStream mit archivierten Chats
+ *
+ * Testet:
+ * - Ein archivierter Chat wird zurückgeholt, bevor Verlauf und Dokumente geladen werden,
+ *   sodass beide im Prompt landen
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("ChatService Streaming mit archivierten Chats")
+class ChatStreamArchiveTest {
+
+    @Test
+    @DisplayName("Verlauf und Dokumente eines archivierten Chats landen im Prompt")
+    void archivedHistoryReachesPrompt() throws Exception {
+        ChatRepository chatRepository = mock(ChatRepository.class);
+        MessageRepository messageRepository = mock(MessageRepository.class);
+        ChatDocumentRepository chatDocumentRepository = mock(ChatDocumentRepository.class);
+        LLMProviderService llmProviderService = mock(LLMProviderService.class);
+        SettingsService settingsService = mock(SettingsService.class);
+        ContentBlobStore contentBlobStore = mock(ContentBlobStore.class);
+        ChatArchiveService chatArchiveService = mock(ChatArchiveService.class);
+
+        Chat chat = new Chat();
+        chat.setId(7L);
+        chat.setTitle("Mietvertrag");
+        chat.setModel("qwen2.5:7b");
+        when(chatRepository.findByIdWithProject(7L)).thenReturn(Optional.of(chat));
+        when(settingsService.getModelSelectionSettings()).thenReturn(new ModelSelectionSettingsDTO());
+
+        // Until rehydrate() has run, the rows only exist in the cold-storage segment
+        AtomicBoolean rehydrated = new AtomicBoolean();
+        doAnswer(inv -> {
+            rehydrated.set(true);
+            return true;
+        }).when(chatArchiveService).rehydrate(7L);
+        Message question = message(Message.MessageRole.USER, "Wie lang ist die Kündigungsfrist?");
+        Message answer = message(Message.MessageRole.ASSISTANT, "Drei Monate zum Monatsende.");
+        when(messageRepository.findByChatIdOrderByCreatedAtAsc(7L))
+                .thenAnswer(inv -> rehydrated.get() ? List.of(question, answer) : List.of());
+        ChatDocument document = new ChatDocument();
+        document.setFileName("mietvertrag.pdf");
+        when(chatDocumentRepository.findByChatIdOrderByCreatedAtAsc(7L))
+                .thenAnswer(inv -> rehydrated.get() ? List.of(document) : List.of());
+        when(contentBlobStore.contentOf(document)).thenReturn("§ 5 Kündigung: drei Monate");
+
+        ChatService service = new ChatService(chatRepository, messageRepository, chatDocumentRepository,
+                mock(GlobalStatsRepository.class), llmProviderService, mock(ModelSelectionService.class),
+                settingsService, mock(CodeGeneratorService.class), mock(ZipService.class),
+                mock(WebSearchService.class), mock(ExpertRepository.class), mock(ExpertRuntimeFactory.class),
+                mock(DocumentGeneratorService.class), mock(DocumentRenderQueue.class), mock(FleetMateService.class),
+                mock(AttachmentStore.class), contentBlobStore, mock(InferenceTelemetry.class), new RequestTracer(),
+                chatArchiveService);
+
+        ChatRequest request = new ChatRequest();
+        request.setChatId(7L);
+        request.setModel("qwen2.5:7b");
+        request.setMessage("Und bei Eigenbedarf?");
+        service.sendMessageStream(request);
+
+        ArgumentCaptor<String> prompt = ArgumentCaptor.forClass(String.class);
+        verify(llmProviderService, timeout(5000)).chatStream(eq("qwen2.5:7b"), prompt.capture(), any(), any(),
+                any(), any(), any(), any(), any(), any(), any(), any());
+        assertThat(prompt.getValue())
+                .contains("User: Wie lang ist die Kündigungsfrist?", "Assistant: Drei Monate zum Monatsende.")
+                .contains("**Dokument:** mietvertrag.pdf", "§ 5 Kündigung: drei Monate")
+                .endsWith("User question: Und bei Eigenbedarf?");
+    }
+
+    private static Message message(Message.MessageRole role, String content) {
+        Message message = new Message();
+        message.setRole(role);
+        message.setContent(content);
+        return message;
+    }
+}
@@ -0,0 +1,197 @@
+package io.javafleet.fleetnavigator.service;
+
+import io.javafleet.fleetnavigator.config.FleetPathsConfiguration;
+import io.javafleet.fleetnavigator.model.ContentBlob;
+import io.javafleet.fleetnavigator.repository.ChatDocumentRepository;
+import io.javafleet.fleetnavigator.repository.ContentBlobRepository;
+import io.javafleet.fleetnavigator.repository.ContextFileRepository;
+import io.javafleet.fleetnavigator.repository.ExtractedContentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * JUnit-Tests für ContentBlobStore
+ *
+ * Testet (Index in einer In-Memory-Map statt H2):
+ * - Gleicher Inhalt wird nur einmal geschrieben, Referenzen werden gezählt
+ * - Komprimierte Ablage und Lesen über Memory-Map nach Neustart
+ * - Sweep entfernt unreferenzierte Blobs und kompaktiert Segmente
+ * - Sweep überschreibt keine Referenzen, die während des Zählens entstanden sind
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("ContentBlobStore Tests")
+class ContentBlobStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final Map<String, ContentBlob> index = new ConcurrentHashMap<>();
+    private final List<Object[]> documentReferences = new ArrayList<>();
+    private ContentBlobRepository blobRepository;
+    private ChatDocumentRepository chatDocumentRepository;
+    private ContextFileRepository contextFileRepository;
+    private ExtractedContentRepository extractedContentRepository;
+    private ContentBlobStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        blobRepository = mock(ContentBlobRepository.class);
+        when(blobRepository.findById(anyString())).thenAnswer(i -> Optional.ofNullable(index.get(i.<String>getArgument(0))));
+        when(blobRepository.save(any())).thenAnswer(i -> {
+            ContentBlob blob = i.getArgument(0);
+            index.put(blob.getHash(), blob);
+            return blob;
+        });
+        doAnswer(i -> index.remove(i.<ContentBlob>getArgument(0).getHash())).when(blobRepository).delete(any());
+        when(blobRepository.findAll()).thenAnswer(i -> new ArrayList<>(index.values()));
+        when(blobRepository.findBySegment(anyInt())).thenAnswer(i -> index.values().stream()
+                .filter(b -> b.getSegment().equals(i.getArgument(0))).toList());
+        when(blobRepository.sumStoredLengthBySegment()).thenAnswer(i -> index.values().stream()
+                .collect(Collectors.groupingBy(ContentBlob::getSegment)).entrySet().stream()
+                .map(e -> new Object[]{e.getKey(),
+                        e.getValue().stream().mapToLong(ContentBlob::getStoredLength).sum(),
+                        (long) e.getValue().size()})
+                .toList());
+
+        chatDocumentRepository = mock(ChatDocumentRepository.class);
+        when(chatDocumentRepository.countByContentHash()).thenAnswer(i -> documentReferences);
+        contextFileRepository = mock(ContextFileRepository.class);
+        extractedContentRepository = mock(ExtractedContentRepository.class);
+
+        store = newStore();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    @DisplayName("Gleicher Inhalt wird einmal gespeichert und zweimal referenziert")
+    void sameContent_IsStoredOnce() throws Exception {
+        String text = "Vertrag zwischen A und B. ".repeat(200);
+
+        String first = store.put(text);
+        long sizeAfterFirst = segmentBytes();
+        String second = store.put(text);
+
+        assertThat(second).isEqualTo(first).hasSize(64);
+        assertThat(segmentBytes()).isEqualTo(sizeAfterFirst);
+        assertThat(index.get(first).getRefCount()).isEqualTo(2);
+        assertThat(index.get(first).getStoredLength()).isLessThan(index.get(first).getRawLength() / 5);
+    }
+
+    @Test
+    @DisplayName("Inhalt ist nach Neustart über die Segment-Datei lesbar")
+    void content_SurvivesRestart() throws Exception {
+        String text = "Ümlaute, Emojis 🚢 und Zeilen\n".repeat(50);
+        String hash = store.put(text);
+        store.close();
+
+        store = newStore();
+
+        assertThat(store.get(hash)).isEqualTo(text);
+    }
+
+    @Test
+    @DisplayName("Sweep entfernt unreferenzierte Blobs und schreibt Segmente mit viel Müll neu")
+    void sweep_RemovesGarbageAndCompacts() throws Exception {
+        List<String> hashes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            hashes.add(store.put("Dokument " + i + " " + "Inhalt ".repeat(100)));
+        }
+        // Nächster Blob eröffnet ein neues Segment, das erste wird versiegelt
+        ReflectionTestUtils.setField(store, "segmentMaxMb", 0L);
+        String latest = store.put("Neues Dokument");
+        ReflectionTestUtils.setField(store, "segmentMaxMb", 64L);
+        documentReferences.add(new Object[]{hashes.get(1), 2L});
+        documentReferences.add(new Object[]{latest, 1L});
+
+        store.sweep();
+
+        assertThat(index).containsOnlyKeys(hashes.get(1), latest);
+        assertThat(index.get(hashes.get(1)).getRefCount()).isEqualTo(2);
+        // 3 von 4 Blobs im ersten Segment waren Müll: der Rest wurde ins aktive Segment verschoben
+        assertThat(index.get(hashes.get(1)).getSegment()).isEqualTo(index.get(latest).getSegment());
+        // Das alte Segment bleibt für laufende Leser bis zum nächsten Sweep liegen
+        assertThat(segmentFiles()).hasSize(2);
+        Thread.sleep(5);
+        store.sweep();
+        assertThat(segmentFiles()).hasSize(1);
+        store.close();
+        store = newStore();
+        assertThat(store.get(hashes.get(1))).startsWith("Dokument 1 ");
+    }
+
+    @Test
+    @DisplayName("Während des Zählens referenzierte Blobs werden weder gelöscht noch zurückgezählt")
+    void sweep_KeepsReferencesTakenWhileCounting() throws Exception {
+        String orphanText = "Gerade wieder hochgeladen ".repeat(20);
+        String sharedText = "Von zwei Chats genutzt ".repeat(20);
+        String orphan = store.put(orphanText);
+        String shared = store.put(sharedText);
+        store.put(sharedText);
+        documentReferences.add(new Object[]{shared, 2L});
+        Thread.sleep(5);
+
+        // Upload in another request while the sweep is counting: its row is not saved yet
+        when(contextFileRepository.countByContentHash()).thenAnswer(i -> {
+            store.put(orphanText);
+            store.put(sharedText);
+            return List.of();
+        });
+
+        store.sweep();
+
+        assertThat(index).containsKeys(orphan, shared);
+        assertThat(index.get(orphan).getRefCount()).isEqualTo(2);
+        assertThat(index.get(shared).getRefCount()).isEqualTo(3);
+        assertThat(store.get(orphan)).isEqualTo(orphanText);
+    }
+
+    private ContentBlobStore newStore() throws Exception {
+        ContentBlobStore created = new ContentBlobStore(blobRepository, extractedContentRepository,
+                chatDocumentRepository, contextFileRepository, mock(FleetPathsConfiguration.class),
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(created, "storeDir", tempDir.toString());
+        ReflectionTestUtils.setField(created, "sweepGraceMinutes", -1L);
+        ReflectionTestUtils.setField(created, "migrateInline", false);
+        created.init();
+        return created;
+    }
+
+    private long segmentBytes() throws Exception {
+        long total = 0;
+        for (Path file : segmentFiles()) {
+            total += Files.size(file);
+        }
+        return total;
+    }
+
+    private List<Path> segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".blob")).toList();
+        }
+    }
+}
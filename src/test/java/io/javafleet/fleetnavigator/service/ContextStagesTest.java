@@ -0,0 +1,116 @@
+package io.javafleet.fleetnavigator.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * JUnit-Tests für ContextStages
+ *
+ * Testet:
+ * - Unabhängige Stufen laufen parallel (Gesamtzeit ≈ langsamste Stufe)
+ * - Optionale Stufe nach Deadline fällt weg, Ergebnis = Fallback
+ * - Verworfene Stufe wird abgebrochen und ihr Worker unterbrochen
+ * - Fehler einer Pflicht-Stufe wird unverpackt weitergereicht
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("ContextStages Tests")
+class ContextStagesTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final RequestTracer.Trace trace = new RequestTracer().begin("chat.stream", "req-1");
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Stufen laufen parallel und erscheinen einzeln in den Timings")
+    void stages_RunInParallel() {
+        ContextStages stages = new ContextStages(executor, trace);
+        long start = System.nanoTime();
+
+        CompletableFuture<String> expert = stages.start("expert.load", () -> sleepAndReturn(300, "Roland"));
+        CompletableFuture<String> history = stages.start("history.load", () -> sleepAndReturn(300, "Verlauf"));
+        CompletableFuture<String> url = stages.start("url.fetch", () -> sleepAndReturn(300, "Seite"));
+
+        assertThat(stages.require(expert)).isEqualTo("Roland");
+        assertThat(stages.require(history)).isEqualTo("Verlauf");
+        assertThat(stages.await("url.fetch", url, 2000, null)).isEqualTo("Seite");
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        assertThat(elapsedMs).isLessThan(800);
+        Map<String, Long> timings = trace.timings();
+        assertThat(timings).containsKeys("expert.load", "history.load", "url.fetch");
+        assertThat(timings.get("history.load")).isGreaterThanOrEqualTo(250);
+    }
+
+    @Test
+    @DisplayName("Web-Suche über der Deadline: weiter ohne Ergebnis")
+    void await_DeadlineReturnsFallback() {
+        ContextStages stages = new ContextStages(executor, trace);
+        CompletableFuture<String> search = stages.start("web.search", () -> sleepAndReturn(2000, "Treffer"));
+
+        long start = System.nanoTime();
+        assertThat(stages.await("web.search", search, 200, "keine")).isEqualTo("keine");
+
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(1000);
+        assertThat(stages.getTimedOut()).containsExactly("web.search");
+    }
+
+    @Test
+    @DisplayName("Stufe über der Deadline wird abgebrochen und ihr Worker unterbrochen")
+    void await_DeadlineCancelsStage() throws Exception {
+        ContextStages stages = new ContextStages(executor, trace);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<String> url = stages.start("url.fetch", () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "zu spät";
+        });
+
+        assertThat(stages.await("url.fetch", url, 100, null)).isNull();
+
+        assertThat(url.isCancelled()).isTrue();
+        assertThat(interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(trace.timings()).containsKey("url.fetch");
+    }
+
+    @Test
+    @DisplayName("Fehler einer Pflicht-Stufe kommt als Original-Exception an")
+    void require_UnwrapsFailure() {
+        ContextStages stages = new ContextStages(executor, trace);
+        CompletableFuture<String> chat = stages.start("chat.load", () -> {
+            throw new IllegalArgumentException("Chat not found: 42");
+        });
+
+        assertThatThrownBy(() -> stages.require(chat))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Chat not found: 42");
+        assertThat(stages.await("chat.load", chat, 100, "fallback")).isEqualTo("fallback");
+    }
+
+    private static String sleepAndReturn(long millis, String value) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
@@ -200,6 +200,69 @@ class DocumentGeneratorServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Vorlagen")
+    class Skeletons {
+
+        @Test
+        @DisplayName("Geänderte PersonalInfo erscheint im nächsten Brief")
+        void changedPersonalInfoShouldRebuildSkeleton() throws IOException {
+            PersonalInfo personalInfo = new PersonalInfo();
+            personalInfo.setFirstName("Max");
+            personalInfo.setLastName("Mustermann");
+            when(personalInfoService.getPersonalInfo()).thenReturn(Optional.of(personalInfo));
+
+            Expert expert = new Expert();
+            expert.setName("Test");
+            expert.setRole("Test");
+
+            var first = documentGeneratorService.generateOdtLetter(expert, "Inhalt", null, "Betreff");
+            personalInfo.setLastName("Musterfrau");
+            var second = documentGeneratorService.generateOdtLetter(expert, "Inhalt", null, "Betreff");
+
+            assertTrue(readContentXml(first.path()).contains("Mustermann"));
+            assertTrue(readContentXml(second.path()).contains("Musterfrau"),
+                "Briefkopf-Vorlage sollte nach Änderung der PersonalInfo neu gebaut werden");
+
+            // Cleanup
+            Files.deleteIfExists(first.path());
+            Files.deleteIfExists(second.path());
+        }
+
+        @Test
+        @DisplayName("PDF-Zusammenfassung wird mit vorbereitetem Rahmen erzeugt")
+        void pdfSummaryShouldBeGenerated() throws IOException {
+            when(personalInfoService.getPersonalInfo()).thenReturn(Optional.empty());
+
+            Expert expert = new Expert();
+            expert.setName("Test");
+            expert.setRole("Test");
+
+            var first = documentGeneratorService.generatePdfSummary(expert, "Erster Inhalt", "Zusammenfassung");
+            var second = documentGeneratorService.generatePdfSummary(expert, "Zweiter Inhalt", "Zusammenfassung");
+
+            assertEquals("application/pdf", second.contentType());
+            assertTrue(Files.size(first.path()) > 0);
+            assertTrue(new String(Files.readAllBytes(second.path()), 0, 5).startsWith("%PDF"));
+
+            // Cleanup
+            Files.deleteIfExists(first.path());
+            Files.deleteIfExists(second.path());
+        }
+
+        private String readContentXml(Path path) throws IOException {
+            try (ZipInputStream zis = new ZipInputStream(Files.newInputStream(path))) {
+                ZipEntry entry;
+                while ((entry = zis.getNextEntry()) != null) {
+                    if (entry.getName().equals("content.xml")) {
+                        return new String(zis.readAllBytes(), java.nio.charset.StandardCharsets.UTF_8);
+                    }
+                }
+            }
+            return "";
+        }
+    }
+
     @Nested
     @DisplayName("Download-Funktionalität")
     class DownloadFunctionality {
@@ -0,0 +1,121 @@
+package io.javafleet.fleetnavigator.service;
+
+import io.javafleet.fleetnavigator.experts.model.Expert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * JUnit-Tests für DocumentRenderQueue
+ *
+ * Testet (mit gemocktem DocumentGeneratorService):
+ * - Dokument-ID steht sofort zur Verfügung, gerendert wird im Hintergrund
+ * - Download wartet auf ein noch laufendes Dokument
+ * - Volle Warteschlange lehnt ab statt den Aufrufer zu blockieren
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("DocumentRenderQueue Tests")
+class DocumentRenderQueueTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private DocumentGeneratorService generator;
+    private DocumentRenderQueue queue;
+    private Expert expert;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        generator = mock(DocumentGeneratorService.class);
+        when(generator.generateLetter(anyString(), any(), anyString(), isNull(), anyString(), any()))
+                .thenAnswer(i -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return document(i.getArgument(0), ".odt");
+                });
+        when(generator.generatePdfSummary(anyString(), any(), anyString(), anyString()))
+                .thenAnswer(i -> document(i.getArgument(0), ".pdf"));
+
+        queue = new DocumentRenderQueue(generator);
+        ReflectionTestUtils.setField(queue, "workers", 1);
+        ReflectionTestUtils.setField(queue, "queueCapacity", 1);
+        queue.init();
+
+        expert = new Expert();
+        expert.setName("Roland Navarro");
+        expert.setRole("Rechtsanwalt");
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        queue.shutdown();
+    }
+
+    @Test
+    @DisplayName("Ticket kommt sofort zurück, Download wartet auf das fertige Dokument")
+    void submit_ReturnsBeforeRendering() throws Exception {
+        DocumentRenderQueue.Ticket ticket = queue.submit(letter());
+
+        assertThat(ticket.documentId()).isNotBlank();
+        assertThat(ticket.result()).isNotDone();
+        assertThat(queue.await(ticket.documentId(), Duration.ofMillis(50))).isEmpty();
+
+        // Download-Anfrage kommt, während noch gerendert wird
+        CompletableFuture<Optional<DocumentGeneratorService.GeneratedDocument>> download =
+                CompletableFuture.supplyAsync(() -> queue.await(ticket.documentId(), Duration.ofSeconds(5)));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(download.get(5, TimeUnit.SECONDS))
+                .get().extracting(DocumentGeneratorService.GeneratedDocument::id)
+                .isEqualTo(ticket.documentId());
+        verify(generator).warmUp();
+    }
+
+    @Test
+    @DisplayName("PDF-Auftrag rendert die Zusammenfassung unter der Ticket-ID")
+    void pdfJob_UsesTicketId() throws Exception {
+        DocumentRenderQueue.Ticket ticket = queue.submit(new DocumentRenderQueue.DocumentJob(
+                expert, "Inhalt", "Zusammenfassung", DocumentGeneratorService.DocumentType.PDF));
+
+        assertThat(ticket.result().get(5, TimeUnit.SECONDS).path().toString()).endsWith(".pdf");
+        verify(generator).generatePdfSummary(ticket.documentId(), expert, "Inhalt", "Zusammenfassung");
+    }
+
+    @Test
+    @DisplayName("Volle Warteschlange lehnt weitere Dokumente ab")
+    void fullQueue_Rejects() throws Exception {
+        queue.submit(letter());   // läuft und blockiert
+        for (int i = 0; i < 100 && !queue.getStats().get("queued").equals(0); i++) {
+            Thread.sleep(10);
+        }
+        queue.submit(letter());   // wartet in der Queue
+
+        assertThatThrownBy(() -> queue.submit(letter())).isInstanceOf(RejectedExecutionException.class);
+        assertThat(queue.getStats()).containsEntry("rejected", 1L);
+    }
+
+    private DocumentRenderQueue.DocumentJob letter() {
+        return new DocumentRenderQueue.DocumentJob(expert, "Sehr geehrte Damen und Herren", "Kündigung",
+                DocumentGeneratorService.DocumentType.ODT);
+    }
+
+    private static DocumentGeneratorService.GeneratedDocument document(String id, String extension) {
+        return new DocumentGeneratorService.GeneratedDocument(id, "Brief" + extension, "application/octet-stream",
+                Path.of(id + extension));
+    }
+}
@@ -0,0 +1,128 @@
+package io.javafleet.fleetnavigator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javafleet.fleetnavigator.llm.StructuredOutput;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * JUnit-Tests für EmailClassificationService
+ *
+ * Testet:
+ * - Regel-Schnellpfad ohne LLM-Aufruf
+ * - Batch-Klassifizierung mit einer Anfrage für mehrere Emails
+ * - Fingerprint-Cache für wiederkehrende Absender/Betreffe
+ * - Einzel-Fallback für Emails, die das Modell im Batch ausgelassen hat
+ * - Schema-Constraint für Einzel- und Batch-Anfragen
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("EmailClassificationService Tests")
+class EmailClassificationServiceTest {
+
+    private OllamaService ollamaService;
+    private EmailClassificationService service;
+
+    @BeforeEach
+    void setUp() {
+        ollamaService = mock(OllamaService.class);
+        SettingsService settingsService = mock(SettingsService.class);
+        when(settingsService.getEmailModel()).thenReturn("test-model");
+        service = new EmailClassificationService(ollamaService, settingsService, new ObjectMapper());
+        service.init();
+    }
+
+    @Test
+    @DisplayName("Newsletter-Absender wird per Regel ohne LLM klassifiziert")
+    void bulkSender_UsesRuleFastPath() throws Exception {
+        EmailClassificationService.EmailClassification result = service.classifyEmail(Map.of(
+                "from", "Shop <newsletter@shop.example>",
+                "subject", "Nur heute: 20% Rabatt",
+                "preview", "Zum Abmelden hier klicken"));
+
+        assertThat(result.category).isEqualTo("werbung");
+        assertThat(result.source).isEqualTo("rule");
+        verify(ollamaService, never()).chatStructured(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Batch wird mit einer Anfrage klassifiziert und Ergebnisse gestreamt")
+    void batch_UsesOneRequestForManyEmails() throws Exception {
+        when(ollamaService.chatStructured(anyString(), anyString(), anyString(), isNull(),
+                any(StructuredOutput.class), anyInt()))
+                .thenReturn("{\"results\":[{\"nr\":1,\"category\":\"wichtig\",\"confidence\":0.9},"
+                        + "{\"nr\":2,\"category\":\"abzuarbeiten\",\"confidence\":0.8},"
+                        + "{\"nr\":3,\"category\":\"werbung\",\"confidence\":0.7}]}");
+
+        List<EmailClassificationService.BatchResult> results = new CopyOnWriteArrayList<>();
+        EmailClassificationService.BatchSummary summary = service.classifyBatch(List.of(
+                        email(1, "chef@firma.example", "Vertrag Kunde Müller"),
+                        email(2, "kollege@firma.example", "Review für Ticket 4711"),
+                        email(3, "sales@anbieter.example", "Ihr persönliches Angebot")),
+                null, null, results::add).get(5, TimeUnit.SECONDS);
+
+        assertThat(summary.llmRequests()).isEqualTo(1);
+        assertThat(results).extracting(EmailClassificationService.BatchResult::messageId)
+                .containsExactly("1", "2", "3");
+        assertThat(results).extracting(r -> r.classification().category)
+                .containsExactly("wichtig", "abzuarbeiten", "werbung");
+        verify(ollamaService, times(1)).chatStructured(eq("test-model"), contains("[3] Von: sales@anbieter.example"),
+                contains("**WERBUNG:**"), isNull(),
+                argThat(format -> format.isJsonSchema() && format.getJsonSchema().contains("\"maxItems\":3")),
+                anyInt());
+    }
+
+    @Test
+    @DisplayName("Gleicher Absender mit gleichem Betreff-Muster kommt aus dem Cache")
+    void repeatedFingerprint_IsServedFromCache() throws Exception {
+        when(ollamaService.chatStructured(anyString(), anyString(), anyString(), isNull(),
+                any(StructuredOutput.class), anyInt()))
+                .thenReturn("{\"category\":\"abzuarbeiten\",\"confidence\":0.8,\"reason\":\"Rechnung prüfen\"}");
+
+        service.classifyEmail(Map.of("from", "buchhaltung@lieferant.example",
+                "subject", "Rechnung 2024-001", "preview", "Anbei die Rechnung"));
+        EmailClassificationService.EmailClassification second = service.classifyEmail(Map.of(
+                "from", "Buchhaltung <buchhaltung@lieferant.example>",
+                "subject", "AW: Rechnung 2024-117", "preview", "Anbei die Rechnung"));
+
+        assertThat(second.category).isEqualTo("abzuarbeiten");
+        assertThat(second.source).isEqualTo("cache");
+        verify(ollamaService, times(1)).chatStructured(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Im Batch ausgelassene Email wird einzeln nachklassifiziert")
+    void missingBatchLine_FallsBackToSingleRequest() throws Exception {
+        when(ollamaService.chatStructured(anyString(), contains("ein Eintrag pro Email"), anyString(), isNull(),
+                any(StructuredOutput.class), anyInt()))
+                .thenReturn("{\"results\":[{\"nr\":1,\"category\":\"abzuarbeiten\",\"confidence\":0.8}]}");
+        when(ollamaService.chatStructured(anyString(), contains("ZU KLASSIFIZIERENDE EMAIL:"), anyString(), isNull(),
+                any(StructuredOutput.class), anyInt()))
+                .thenReturn("Kategorie: wichtig\nConfidence: 0.9\nBegründung: Vertrag");
+
+        List<EmailClassificationService.BatchResult> results = new CopyOnWriteArrayList<>();
+        EmailClassificationService.BatchSummary summary = service.classifyBatch(List.of(
+                        email(1, "kollege@firma.example", "Frage zum Projekt"),
+                        email(2, "anwalt@kanzlei.example", "Vertragsentwurf")),
+                null, null, results::add).get(5, TimeUnit.SECONDS);
+
+        assertThat(summary.llmRequests()).isEqualTo(2);
+        assertThat(results).extracting(r -> r.classification().category)
+                .containsExactly("abzuarbeiten", "wichtig");
+    }
+
+    private static Map<String, Object> email(int id, String from, String subject) {
+        return Map.of("messageId", id, "from", from, "subject", subject, "preview", "Hallo, bitte ansehen.");
+    }
+}
@@ -0,0 +1,151 @@
+package io.javafleet.fleetnavigator.service;
+
+import io.javafleet.fleetnavigator.exception.FileUploadException;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * JUnit-Tests für FileProcessingService
+ *
+ * Testet:
+ * - Text-PDF wird gespoolt und seitenweise extrahiert
+ * - Bekannte PDFs (gleicher SHA-256) überspringen die Extraktion
+ * - Bilder werden als Attachment-Referenz statt Base64 zurückgegeben
+ * - Ungültige Attachment-Referenzen werden übersprungen
+ * - Textformate werden begrenzt gelesen
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("FileProcessingService Tests")
+class FileProcessingServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private AttachmentStore attachmentStore;
+    private ContentBlobStore contentBlobStore;
+    private FileProcessingService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        attachmentStore = new AttachmentStore();
+        ReflectionTestUtils.setField(attachmentStore, "attachmentDir", tempDir.toString());
+        attachmentStore.init();
+        contentBlobStore = mock(ContentBlobStore.class);
+        service = new FileProcessingService(mock(TesseractOCRService.class), attachmentStore, contentBlobStore);
+    }
+
+    @Test
+    @DisplayName("Text-PDF liefert den Text aller Seiten in Reihenfolge")
+    void textPdf_ExtractsAllPages() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "bericht.pdf", "application/pdf", pdf(3));
+
+        FileProcessingService.ProcessedFile result = service.processFile(file);
+
+        assertThat(result.getType()).isEqualTo("pdf");
+        assertThat(result.getTextContent())
+                .contains("Seite 1", "Seite 2", "Seite 3");
+        assertThat(result.getTextContent().indexOf("Seite 1")).isLessThan(result.getTextContent().indexOf("Seite 3"));
+        verify(contentBlobStore).rememberExtraction(anyString(), eq(result.getTextContent()), eq(false));
+    }
+
+    @Test
+    @DisplayName("Bekanntes PDF wird nicht erneut extrahiert")
+    void knownPdf_ReusesExtractedText() throws Exception {
+        byte[] bytes = pdf(1);
+        when(contentBlobStore.findExtraction(anyString()))
+                .thenReturn(Optional.of(new ContentBlobStore.Extraction("gemerkter OCR-Text", true)));
+
+        FileProcessingService.ProcessedFile result = service.processFile(
+                new MockMultipartFile("file", "scan.pdf", "application/pdf", bytes));
+
+        assertThat(result.getTextContent()).isEqualTo("gemerkter OCR-Text");
+        assertThat(result.isOcrUsed()).isTrue();
+        verify(contentBlobStore, never()).rememberExtraction(anyString(), anyString(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Bild wird als Referenz gespeichert und erst beim Senden kodiert")
+    void image_IsStoredAsReference() throws Exception {
+        byte[] png = {(byte) 0x89, 'P', 'N', 'G', 1, 2, 3};
+        MockMultipartFile file = new MockMultipartFile("file", "foto.png", "image/png", png);
+
+        FileProcessingService.ProcessedFile result = service.processFile(file);
+
+        assertThat(result.getType()).isEqualTo("image");
+        assertThat(result.getAttachmentRef()).isNotBlank();
+        assertThat(attachmentStore.readBase64(result.getAttachmentRef()))
+                .isEqualTo(Base64.getEncoder().encodeToString(png));
+    }
+
+    @Test
+    @DisplayName("Textformate werden bis zum Limit gelesen, größere abgelehnt")
+    void textFormats_AreSizeBounded() throws Exception {
+        ReflectionTestUtils.setField(service, "textMaxMb", 1L);
+
+        FileProcessingService.ProcessedFile csv = service.processFile(
+                new MockMultipartFile("file", "werte.csv", "text/csv", "a;b\nÄ;1\n".getBytes(StandardCharsets.UTF_8)));
+        assertThat(csv.getType()).isEqualTo("csv");
+        assertThat(csv.getTextContent()).isEqualTo("a;b\nÄ;1\n");
+
+        MockMultipartFile large = new MockMultipartFile("file", "log.txt", "text/plain", new byte[1024 * 1024 + 1]);
+        assertThatThrownBy(() -> service.processFile(large)).isInstanceOf(FileUploadException.class);
+
+        // getSize() may understate the upload - the stream is bounded as well
+        MockMultipartFile understated = spy(large);
+        when(understated.getSize()).thenReturn(10L);
+        assertThatThrownBy(() -> service.processFile(understated)).isInstanceOf(FileUploadException.class);
+    }
+
+    @Test
+    @DisplayName("Unbekannte oder manipulierte Referenzen werden übersprungen")
+    void invalidReferences_AreSkipped() throws Exception {
+        String ref = attachmentStore.store(new ByteArrayInputStream(new byte[]{42}));
+
+        List<String> images = attachmentStore.readBase64(List.of(ref, "../../etc/passwd",
+                "00000000-0000-0000-0000-000000000000"));
+
+        assertThat(images).containsExactly("Kg==");
+    }
+
+    private static byte[] pdf(int pages) throws Exception {
+        try (PDDocument document = new PDDocument()) {
+            for (int i = 1; i <= pages; i++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 12);
+                    content.newLineAtOffset(50, 700);
+                    // Genug Text pro Seite, damit das PDF nicht als Scan gilt
+                    content.showText("Seite " + i + " " + "Inhalt eines Berichts mit ausreichend Text. ".repeat(3));
+                    content.endText();
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package io.javafleet.fleetnavigator.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * JUnit-Tests für InferenceTelemetry
+ *
+ * Testet:
+ * - Streaming-Aufruf misst Wartezeit, TTFT und Decode-Rate, Chunks kommen unverändert durch
+ * - Abbrüche und Fehler werden pro Modell/Provider/Experte gezählt
+ * - Prometheus-Ausgabe enthält Histogramm-Buckets und Cache-Metriken
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("InferenceTelemetry Tests")
+class InferenceTelemetryTest {
+
+    private InferenceTelemetry telemetry;
+
+    @BeforeEach
+    void setUp() {
+        telemetry = new InferenceTelemetry();
+    }
+
+    @Test
+    @DisplayName("Streaming-Aufruf liefert TTFT, Decode-Rate und Experten-Label")
+    void stream_RecordsTtftAndDecodeRate() throws Exception {
+        String requestId = UUID.randomUUID().toString();
+        telemetry.accepted(requestId);
+        telemetry.tagExpert(requestId, "Roland Navarro");
+        Thread.sleep(5);
+
+        InferenceTelemetry.Call call = telemetry.start(requestId + "-main", "/models/qwen2.5-7b.gguf",
+                "java-llama-cpp", "stream", "x".repeat(400));
+        List<String> received = new ArrayList<>();
+        Consumer<String> consumer = call.wrap(received::add);
+        Thread.sleep(20);
+        consumer.accept("Hallo ");
+        Thread.sleep(20);
+        consumer.accept("x".repeat(400));
+        call.finish();
+
+        assertThat(received).containsExactly("Hallo ", "x".repeat(400));
+        Map<String, Object> model = onlyModel();
+        assertThat(model).containsEntry("model", "qwen2.5-7b.gguf")
+                .containsEntry("provider", "java-llama-cpp")
+                .containsEntry("calls", 1)
+                .containsEntry("tokensIn", 100L)
+                .containsEntry("experts", List.of("Roland Navarro"));
+        assertThat((Long) model.get("ttftMsP50")).isGreaterThanOrEqualTo(20);
+        assertThat((Long) model.get("queueWaitMsP95")).isGreaterThanOrEqualTo(5);
+        assertThat((Double) model.get("decodeTokensPerSecond")).isPositive();
+    }
+
+    @Test
+    @DisplayName("Abgebrochene und fehlgeschlagene Aufrufe werden getrennt gezählt")
+    void cancelAndError_AreCounted() throws Exception {
+        String cancelledId = UUID.randomUUID().toString();
+        InferenceTelemetry.Call cancelled = telemetry.start(cancelledId, "llama3", "ollama", "stream", "Frage");
+        telemetry.cancelled(cancelledId);
+        cancelled.fail(new RuntimeException("Stream closed"));
+
+        telemetry.start(UUID.randomUUID().toString(), "llama3", "ollama", "chat", "Frage")
+                .fail(new RuntimeException("Connection refused"));
+        telemetry.start(UUID.randomUUID().toString(), "llama3", "ollama", "chat", "Frage")
+                .finish("Antwort");
+
+        assertThat(onlyModel()).containsEntry("calls", 3)
+                .containsEntry("cancelled", 1L)
+                .containsEntry("errors", 1L);
+        String metrics = prometheus();
+        assertThat(metrics)
+                .contains("fleet_inference_cancellations_total{model=\"llama3\",provider=\"ollama\",expert=\"none\",mode=\"stream\"} 1")
+                .contains("fleet_inference_errors_total{model=\"llama3\",provider=\"ollama\",expert=\"none\",mode=\"chat\"} 1");
+    }
+
+    @Test
+    @DisplayName("Prometheus-Ausgabe enthält kumulative Buckets und Cache-Trefferquote")
+    void prometheus_ContainsHistogramsAndCaches() throws Exception {
+        telemetry.start(null, "llama3", "llama-server", "chat", "Frage").finish("Antwort");
+        Cache<String, String> cache = Caffeine.newBuilder().recordStats().build();
+        cache.put("a", "1");
+        cache.getIfPresent("a");
+        cache.getIfPresent("b");
+        telemetry.registerCache("modelSelection", new InferenceTelemetry.CacheSource() {
+            @Override
+            public CacheStats stats() {
+                return cache.stats();
+            }
+
+            @Override
+            public long size() {
+                return cache.estimatedSize();
+            }
+        });
+
+        String metrics = prometheus();
+
+        assertThat(metrics)
+                .contains("# TYPE fleet_inference_duration_seconds histogram")
+                .contains("fleet_inference_duration_seconds_bucket{model=\"llama3\",provider=\"llama-server\","
+                        + "expert=\"none\",mode=\"chat\",le=\"+Inf\"} 1")
+                .contains("fleet_inference_duration_seconds_count{model=\"llama3\",provider=\"llama-server\","
+                        + "expert=\"none\",mode=\"chat\"} 1")
+                .contains("fleet_cache_requests_total{cache=\"modelSelection\",result=\"hit\"} 1")
+                .contains("fleet_cache_requests_total{cache=\"modelSelection\",result=\"miss\"} 1")
+                .contains("fleet_cache_size{cache=\"modelSelection\"} 1");
+        // Ohne Stream gibt es keinen ersten Token: TTFT bleibt leer
+        assertThat(metrics).contains("fleet_inference_ttft_seconds_count{model=\"llama3\",provider=\"llama-server\","
+                + "expert=\"none\",mode=\"chat\"} 0");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> onlyModel() {
+        List<Map<String, Object>> models = (List<Map<String, Object>>) telemetry.getDashboard().get("models");
+        assertThat(models).hasSize(1);
+        return models.get(0);
+    }
+
+    private String prometheus() throws Exception {
+        StringWriter out = new StringWriter();
+        telemetry.writePrometheus(out);
+        return out.toString();
+    }
+}
@@ -7,6 +7,7 @@ import io.javafleet.fleetnavigator.llm.providers.JavaLlamaCppProvider;
 import io.javafleet.fleetnavigator.llm.providers.LlamaCppProvider;
 import io.javafleet.fleetnavigator.llm.providers.OllamaProvider;
 import io.javafleet.fleetnavigator.llm.providers.ExternalLlamaServerProvider;
+import io.javafleet.fleetnavigator.llm.providers.MateInferenceProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -18,6 +19,7 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -53,6 +55,9 @@ class LLMProviderServiceTest {
     @Mock
     private ExternalLlamaServerProvider externalLlamaServerProvider;
 
+    @Mock
+    private MateInferenceProvider mateInferenceProvider;
+
     @Mock
     private LLMConfigProperties config;
 
@@ -68,6 +73,7 @@ class LLMProviderServiceTest {
         when(llamaCppProvider.getProviderName()).thenReturn("llamacpp");
         when(ollamaProvider.getProviderName()).thenReturn("ollama");
         when(externalLlamaServerProvider.getProviderName()).thenReturn("llama-server");
+        when(mateInferenceProvider.getProviderName()).thenReturn("fleet-mate");
 
         when(javaLlamaCppProvider.isAvailable()).thenReturn(true);
         when(llamaCppProvider.isAvailable()).thenReturn(true);
@@ -84,8 +90,10 @@ class LLMProviderServiceTest {
             javaLlamaCppProvider,
             ollamaProvider,
             externalLlamaServerProvider,
+            mateInferenceProvider,
             config,
-            settingsService
+            settingsService,
+            new InferenceTelemetry(), new InferencePriorityGate()
         );
     }
 
@@ -378,7 +386,8 @@ class LLMProviderServiceTest {
         @DisplayName("Streaming geht an aktiven Provider")
         void chatStream_goesToActiveProvider() throws IOException {
             // Given
-            Consumer<String> consumer = chunk -> {};
+            List<String> received = new ArrayList<>();
+            Consumer<String> consumer = received::add;
 
             // When
             service.chatStream("model", "prompt", "system", "req-1", consumer,
@@ -387,7 +396,7 @@ class LLMProviderServiceTest {
             // Then
             verify(javaLlamaCppProvider).chatStream(
                 eq("model"), eq("prompt"), eq("system"), eq("req-1"),
-                eq(consumer), eq(100), eq(0.7), eq(0.9), eq(40), eq(1.1), eq(4096), eq(false)
+                forwardsTo(received), eq(100), eq(0.7), eq(0.9), eq(40), eq(1.1), eq(4096), eq(false)
             );
         }
 
@@ -395,7 +404,8 @@ class LLMProviderServiceTest {
         @DisplayName("Streaming mit CPU-Only geht an aktiven Provider")
         void chatStream_cpuOnlyGoesToActiveProvider() throws IOException {
             // Given
-            Consumer<String> consumer = chunk -> {};
+            List<String> received = new ArrayList<>();
+            Consumer<String> consumer = received::add;
 
             // When
             service.chatStream("model", "prompt", "system", "req-1", consumer,
@@ -404,7 +414,7 @@ class LLMProviderServiceTest {
             // Then
             verify(javaLlamaCppProvider).chatStream(
                 eq("model"), eq("prompt"), eq("system"), eq("req-1"),
-                eq(consumer), eq(100), eq(0.7), eq(0.9), eq(40), eq(1.1), eq(4096), eq(true)
+                forwardsTo(received), eq(100), eq(0.7), eq(0.9), eq(40), eq(1.1), eq(4096), eq(true)
             );
         }
 
@@ -440,12 +450,13 @@ class LLMProviderServiceTest {
             // When
             Map<String, Boolean> status = service.getProviderStatus();
 
-            // Then - 4 Provider: java-llama-cpp, llamacpp, ollama, llama-server
-            assertThat(status).hasSize(4);
+            // Then - 5 Provider: java-llama-cpp, llamacpp, ollama, llama-server, fleet-mate
+            assertThat(status).hasSize(5);
             assertThat(status.get("java-llama-cpp")).isTrue();
             assertThat(status.get("llamacpp")).isTrue();
             assertThat(status.get("ollama")).isTrue();
             assertThat(status).containsKey("llama-server");
+            assertThat(status).containsEntry("fleet-mate", false);
         }
 
         @Test
@@ -790,13 +801,15 @@ class LLMProviderServiceTest {
         void chatStreamWithVision_delegatesToActiveProvider() throws IOException {
             // Given
             List<String> images = List.of("base64image");
-            Consumer<String> consumer = chunk -> {};
+            List<String> received = new ArrayList<>();
+            Consumer<String> consumer = received::add;
 
             // When
             service.chatStreamWithVision("llava", "Describe", images, "system", "req-1", consumer);
 
             // Then
-            verify(javaLlamaCppProvider).chatStreamWithVision("llava", "Describe", images, "system", "req-1", consumer);
+            verify(javaLlamaCppProvider).chatStreamWithVision(eq("llava"), eq("Describe"), eq(images), eq("system"),
+                eq("req-1"), forwardsTo(received));
         }
     }
 
@@ -888,8 +901,10 @@ class LLMProviderServiceTest {
                 javaLlamaCppProvider,
                 ollamaProvider,
                 externalLlamaServerProvider,
+                mateInferenceProvider,
                 config,
-                settingsService
+                settingsService,
+                new InferenceTelemetry(), new InferencePriorityGate()
             );
 
             // Then
@@ -910,8 +925,10 @@ class LLMProviderServiceTest {
                 javaLlamaCppProvider,
                 ollamaProvider,
                 externalLlamaServerProvider,
+                mateInferenceProvider,
                 config,
-                settingsService
+                settingsService,
+                new InferenceTelemetry(), new InferencePriorityGate()
             );
 
             // Then - Fallback zu java-llama-cpp
@@ -930,7 +947,8 @@ class LLMProviderServiceTest {
         void streamingGoesToLlamaServer() throws IOException {
             // Given
             service.switchProvider("llama-server");
-            Consumer<String> consumer = chunk -> {};
+            List<String> received = new ArrayList<>();
+            Consumer<String> consumer = received::add;
 
             // When
             service.chatStream("model", "prompt", "system", "req-1", consumer,
@@ -939,7 +957,7 @@ class LLMProviderServiceTest {
             // Then
             verify(externalLlamaServerProvider).chatStream(
                 eq("model"), eq("prompt"), eq("system"), eq("req-1"),
-                eq(consumer), eq(100), eq(0.7), eq(0.9), eq(40), eq(1.1), eq(4096), eq(false)
+                forwardsTo(received), eq(100), eq(0.7), eq(0.9), eq(40), eq(1.1), eq(4096), eq(false)
             );
         }
     }
@@ -996,4 +1014,16 @@ class LLMProviderServiceTest {
             verify(settingsService, times(1)).saveActiveProvider("java-llama-cpp");
         }
     }
+
+    /**
+     * Matcher für den an den Provider gereichten Consumer: Telemetrie wickelt ihn ein,
+     * Chunks müssen trotzdem beim ursprünglichen Consumer ankommen
+     */
+    private static Consumer<String> forwardsTo(List<String> received) {
+        return argThat(consumer -> {
+            received.clear();
+            consumer.accept("Token");
+            return received.equals(List.of("Token"));
+        });
+    }
 }
@@ -0,0 +1,268 @@
+package io.javafleet.fleetnavigator.service;
+
+import io.javafleet.fleetnavigator.dto.LogAnalysisRequest;
+import io.javafleet.fleetnavigator.util.SpoolFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * JUnit-Tests für LogAnalysisService
+ *
+ * Testet:
+ * - Map-Reduce für große Logs (kein Abschneiden, Fenster schon während des Empfangs)
+ * - Direkte Analyse kleiner Logs in einem Durchlauf
+ * - Template-Mining: Wiederholungen werden gezählt statt wiederholt
+ * - Sofortiger Abbruch bei Lesefehler statt Warten auf Timeout
+ * - Fehlgeschlagene Reduce-Runde liefert die Teilbefunde
+ * - Sitzungen ohne Client laufen ab, Client-Abbruch beendet die Sitzung
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("LogAnalysisService Tests")
+class LogAnalysisServiceTest {
+
+    private LLMProviderService llmProviderService;
+    private LogAnalysisService service;
+    private final List<String> prompts = new CopyOnWriteArrayList<>();
+    private final List<String> requestIds = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        llmProviderService = mock(LLMProviderService.class);
+        SettingsService settingsService = mock(SettingsService.class);
+        when(settingsService.getSelectedModel()).thenReturn("test-model");
+        when(llmProviderService.getParallelSlots()).thenReturn(2);
+
+        doAnswer(invocation -> {
+            prompts.add(invocation.getArgument(1));
+            requestIds.add(invocation.getArgument(3));
+            Consumer<String> consumer = invocation.getArgument(4);
+            consumer.accept("Befund");
+            return null;
+        }).when(llmProviderService).chatStream(anyString(), anyString(), anyString(), anyString(), any(Consumer.class),
+                any(), any(), any(), any(), any(), any());
+
+        service = new LogAnalysisService(llmProviderService, settingsService);
+    }
+
+    @Test
+    @DisplayName("Großes Log wird vollständig per Map-Reduce analysiert")
+    void largeLog_IsMapReducedWithoutTruncation() throws Exception {
+        service.createPendingSession("s-1", "mate-1", new LogAnalysisRequest());
+        RecordingEmitter emitter = new RecordingEmitter();
+        service.registerEmitter("s-1", emitter);
+
+        // Lauter verschiedene Zeilen - das Template-Mining kann nichts zusammenfassen,
+        // die Obergrenze liegt darüber, damit alle Zeilen beim LLM ankommen
+        ReflectionTestUtils.setField(service, "maxTemplates", 10_000);
+        StringBuilder log = new StringBuilder(distinctLines(3000));
+        log.append("2025-01-15 11:59:59 ERROR FINAL-ERROR disk full\n");
+
+        // Chunks kommen an, bevor das Log vollständig ist
+        String content = log.toString();
+        for (int offset = 0; offset < content.length(); offset += 4096) {
+            service.appendLogData("s-1", content.substring(offset, Math.min(content.length(), offset + 4096)));
+        }
+        assertThat(requestIds).as("Map-Schritte laufen schon während des Empfangs").isNotEmpty();
+
+        SpoolFile spool = SpoolFile.create("log-test");
+        spool.append(content);
+        service.updateSessionWithLogContent("s-1", spool);
+        service.analyzeLogWithStreaming("s-1", emitter);
+
+        assertThat(emitter.completed.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(requestIds).anyMatch(id -> id.contains("-map-"));
+        assertThat(prompts).anyMatch(p -> p.contains("FINAL-ERROR"));
+        assertThat(prompts.get(prompts.size() - 1)).contains("Teilbefund");
+        assertThat(emitter.events).anyMatch(e -> e.contains("mapping"));
+        assertThat(emitter.events).anyMatch(e -> e.contains("Befund"));
+        assertThat(spool.isClosed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Kleines Log wird direkt in einem Durchlauf analysiert")
+    void smallLog_IsAnalyzedInSinglePass() throws Exception {
+        service.createPendingSession("s-2", "mate-1", new LogAnalysisRequest());
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        SpoolFile spool = SpoolFile.create("log-test");
+        spool.append("ERROR kurz\n");
+        service.updateSessionWithLogContent("s-2", spool);
+        service.analyzeLogWithStreaming("s-2", emitter);
+
+        assertThat(emitter.completed.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(prompts).singleElement().satisfies(p -> assertThat(p).contains("ERROR kurz"));
+        assertThat(requestIds).containsExactly("s-2");
+    }
+
+    @Test
+    @DisplayName("Wiederholte Zeilen werden zu Templates mit Anzahl zusammengefasst")
+    void repetitiveLog_IsCondensedToTemplates() throws Exception {
+        service.createPendingSession("s-4", "mate-1", new LogAnalysisRequest());
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        StringBuilder log = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            log.append("2025-01-15 10:").append(String.format("%02d:%02d", (i / 60) % 60, i % 60))
+                    .append(" INFO connection reset by peer 10.0.0.").append(i % 250).append(" after ").append(i)
+                    .append(" ms\n");
+        }
+        log.append("2025-01-15 11:59:59 ERROR FINAL-ERROR disk full\n");
+        String content = log.toString();
+        service.appendLogData("s-4", content);
+
+        SpoolFile spool = SpoolFile.create("log-test");
+        spool.append(content);
+        service.updateSessionWithLogContent("s-4", spool);
+        service.analyzeLogWithStreaming("s-4", emitter);
+
+        assertThat(emitter.completed.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(requestIds).containsExactly("s-4");
+        String prompt = prompts.get(0);
+        assertThat(prompt.length()).isLessThan(content.length() / 10);
+        assertThat(prompt).contains("5000× <TS> INFO connection reset by peer <IP> after <NUM> ms");
+        assertThat(prompt.indexOf("FINAL-ERROR")).isLessThan(prompt.indexOf("5000×"));
+    }
+
+    @Test
+    @DisplayName("Lesefehler beendet die Analyse sofort")
+    void readFailure_EndsAnalysis() throws Exception {
+        service.createPendingSession("s-3", "mate-1", new LogAnalysisRequest());
+        RecordingEmitter emitter = new RecordingEmitter();
+        service.analyzeLogWithStreaming("s-3", emitter);
+
+        service.failLogContent("s-3", new IOException("Transfer stalled"));
+
+        assertThat(emitter.completed.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.events).anyMatch(e -> e.contains("Transfer stalled"));
+        assertThat(prompts).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Fehlgeschlagene Reduce-Runde streamt die Teilbefunde statt abzubrechen")
+    @SuppressWarnings("unchecked")
+    void failedReduceRound_StreamsPartialFindings() throws Exception {
+        doAnswer(invocation -> {
+            String requestId = invocation.getArgument(3);
+            if (requestId.contains("-reduce-")) {
+                throw new IOException("Modell nicht erreichbar");
+            }
+            // Long enough that the findings need an intermediate reduce round
+            ((Consumer<String>) invocation.getArgument(4)).accept("Teilbefund " + "x".repeat(3000));
+            return null;
+        }).when(llmProviderService).chatStream(anyString(), anyString(), anyString(), anyString(), any(Consumer.class),
+                any(), any(), any(), any(), any(), any());
+
+        ReflectionTestUtils.setField(service, "maxTemplates", 10_000);
+        service.createPendingSession("s-5", "mate-1", new LogAnalysisRequest());
+        RecordingEmitter emitter = new RecordingEmitter();
+        SpoolFile spool = SpoolFile.create("log-test");
+        spool.append(distinctLines(3000));
+        service.updateSessionWithLogContent("s-5", spool);
+        service.analyzeLogWithStreaming("s-5", emitter);
+
+        assertThat(emitter.completed.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.events).anyMatch(e -> e.contains("Teilbefunde der Log-Abschnitte"));
+        assertThat(emitter.events).noneMatch(e -> e.contains("Analysis failed"));
+        assertThat(emitter.events).anyMatch(e -> e.contains("timestamp") && !e.contains("model"));
+    }
+
+    @Test
+    @DisplayName("Sitzung ohne Client läuft ab und gibt das Log frei")
+    void abandonedSession_Expires() throws Exception {
+        service.createPendingSession("s-6", "mate-1", new LogAnalysisRequest());
+        SpoolFile spool = SpoolFile.create("log-test");
+        spool.append("ERROR niemand schaut zu\n");
+        service.updateSessionWithLogContent("s-6", spool);
+
+        service.expireAbandonedSessions();
+        assertThat(spool.isClosed()).as("TTL noch nicht erreicht").isFalse();
+
+        ReflectionTestUtils.setField(service, "pendingTtlSeconds", -1);
+        service.expireAbandonedSessions();
+
+        assertThat(spool.isClosed()).isTrue();
+        RecordingEmitter emitter = new RecordingEmitter();
+        service.analyzeLogWithStreaming("s-6", emitter);
+        assertThat(emitter.events).anyMatch(e -> e.contains("Session not found"));
+    }
+
+    @Test
+    @DisplayName("Client-Abbruch beendet die Sitzung und verwirft wartende LLM-Aufrufe")
+    void closedClient_EndsSession() throws Exception {
+        service.createPendingSession("s-7", "mate-1", new LogAnalysisRequest());
+        RecordingEmitter emitter = new RecordingEmitter();
+        service.analyzeLogWithStreaming("s-7", emitter);
+
+        service.closeSession("s-7");
+        SpoolFile spool = SpoolFile.create("log-test");
+        spool.append(distinctLines(3000));
+        service.updateSessionWithLogContent("s-7", spool);
+
+        assertThat(spool.isClosed()).isTrue();
+        service.appendLogData("s-7", distinctLines(3000));
+        assertThat(prompts).isEmpty();
+    }
+
+    /**
+     * Jede Zeile ein eigenes Template: die ersten beiden Tokens bleiben unter der Knotenbreite des Parse-Baums
+     */
+    private static String distinctLines(int count) {
+        StringBuilder log = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            log.append(word(i % 50)).append(' ').append(word(i / 50 + 100)).append(' ').append(word(i * 13 + 5))
+                    .append(' ').append(word(i * 31 + 11)).append('\n');
+        }
+        return log.toString();
+    }
+
+    private static String word(int n) {
+        StringBuilder w = new StringBuilder();
+        do {
+            w.append((char) ('a' + n % 26));
+            n /= 26;
+        } while (n > 0);
+        return w.append("x").toString();
+    }
+
+    /**
+     * SseEmitter, der gesendete Events als Text mitschreibt
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            events.add(text.toString());
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            completed.countDown();
+        }
+    }
+}
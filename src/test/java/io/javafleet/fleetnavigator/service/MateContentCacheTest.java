@@ -0,0 +1,147 @@
+package io.javafleet.fleetnavigator.service;
+
+import io.javafleet.fleetnavigator.dto.RAGRequest;
+import io.javafleet.fleetnavigator.dto.RAGResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * JUnit-Tests für MateContentCache
+ *
+ * Testet:
+ * - Komprimierte Ablage und verlustfreie Wiederherstellung
+ * - Validierung über mtime/Größe
+ * - Gemeinsame Suchergebnisse und Verwerfen fehlgeschlagener Suchen
+ * - Verwerfen aller Einträge eines Mates und Ablauf der stat_file-Sperre
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("MateContentCache Tests")
+class MateContentCacheTest {
+
+    private static final LocalDateTime MTIME = LocalDateTime.of(2025, 1, 15, 10, 30);
+
+    private MateContentCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new MateContentCache();
+        cache.init();
+    }
+
+    @Test
+    @DisplayName("Große Inhalte werden komprimiert und unverändert zurückgegeben")
+    void largeContent_RoundTripsThroughCompression() {
+        String content = "Zeile mit Umlauten äöü\n".repeat(1000);
+        MateContentCache.FileKey key = new MateContentCache.FileKey("mate-1", "/tmp/a.txt", null, true);
+
+        cache.putFile(key, response(content, 4096L));
+
+        MateContentCache.CachedFile cached = cache.getFile(key);
+        assertThat(cached).isNotNull();
+        assertThat(cached.toResponse("s-2").getContent()).isEqualTo(content);
+        assertThat(cached.toResponse("s-2").getSessionId()).isEqualTo("s-2");
+        assertThat((Long) cache.getStats().get("fileBytes")).isLessThan(content.length());
+    }
+
+    @Test
+    @DisplayName("Eintrag passt nur bei gleicher mtime und Größe")
+    void cachedFile_MatchesOnlySameVersion() {
+        MateContentCache.FileKey key = new MateContentCache.FileKey("mate-1", "/tmp/a.txt", 100, true);
+        cache.putFile(key, response("kurz", 4L));
+
+        MateContentCache.CachedFile cached = cache.getFile(key);
+        assertThat(cached.matches(MTIME, 4L)).isTrue();
+        assertThat(cached.matches(MTIME.plusSeconds(1), 4L)).isFalse();
+        assertThat(cached.matches(MTIME, 5L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Antworten ohne mtime werden nicht gecacht")
+    void responseWithoutMtime_IsNotCached() {
+        MateContentCache.FileKey key = new MateContentCache.FileKey("mate-1", "/tmp/a.txt", null, null);
+        cache.putFile(key, RAGResponse.FileContentResponse.builder().content("x").size(1L).build());
+
+        assertThat(cache.getFile(key)).isNull();
+    }
+
+    @Test
+    @DisplayName("Gleiche Suchen teilen sich ein Ergebnis, Fehler werden nicht gecacht")
+    void identicalSearches_ShareResult() {
+        RAGRequest.SearchFiles request = RAGRequest.SearchFiles.builder().mateId("mate-1").query("rechnung").build();
+        MateContentCache.SearchKey key = MateContentCache.SearchKey.of("mate-1", request);
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<RAGResponse.SearchFilesResponse> failed = cache.getOrSearch(key, () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalStateException("offline"));
+        });
+        assertThat(failed).isCompletedExceptionally();
+
+        RAGResponse.SearchFilesResponse result = RAGResponse.SearchFilesResponse.builder().query("rechnung").build();
+        CompletableFuture<RAGResponse.SearchFilesResponse> first = cache.getOrSearch(key, () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(result);
+        });
+        CompletableFuture<RAGResponse.SearchFilesResponse> second = cache.getOrSearch(key, () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        });
+
+        assertThat(second).isCompletedWithValue(result);
+        assertThat(first).isSameAs(second);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("invalidateMate verwirft Dateien, Suchen und die stat_file-Sperre nur dieses Mates")
+    void invalidateMate_DropsOnlyThatMate() {
+        MateContentCache.FileKey own = new MateContentCache.FileKey("mate-1", "/tmp/a.txt", null, null);
+        MateContentCache.FileKey other = new MateContentCache.FileKey("mate-2", "/tmp/a.txt", null, null);
+        cache.putFile(own, response("eins", 4L));
+        cache.putFile(other, response("zwei", 4L));
+        cache.markStatUnsupported("mate-1");
+        cache.markStatUnsupported("mate-2");
+        assertThat(cache.canValidate("mate-1")).isFalse();
+
+        cache.invalidateMate("mate-1");
+
+        assertThat(cache.getFile(own)).isNull();
+        assertThat(cache.getFile(other)).isNotNull();
+        assertThat(cache.canValidate("mate-1")).isTrue();
+        assertThat(cache.canValidate("mate-2")).isFalse();
+    }
+
+    @Test
+    @DisplayName("stat_file-Sperre läuft ab")
+    void statUnsupported_Expires() {
+        ReflectionTestUtils.setField(cache, "statRetryMinutes", 0L);
+        cache.init();
+
+        cache.markStatUnsupported("mate-1");
+
+        assertThat(cache.canValidate("mate-1")).isTrue();
+    }
+
+    private static RAGResponse.FileContentResponse response(String content, Long size) {
+        return RAGResponse.FileContentResponse.builder()
+                .sessionId("s-1")
+                .path("/tmp/a.txt")
+                .name("a.txt")
+                .content(content)
+                .contentType("text/plain")
+                .size(size)
+                .modifiedAt(MTIME)
+                .truncated(false)
+                .build();
+    }
+}
@@ -0,0 +1,183 @@
+package io.javafleet.fleetnavigator.service;
+
+import io.javafleet.fleetnavigator.dto.MateCommand;
+import io.javafleet.fleetnavigator.websocket.FleetMateWebSocketHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * JUnit-Tests für MateRpcService
+ *
+ * Testet:
+ * - Korrelation von Antworten über requestId und Antwort-Typ
+ * - Begrenzung paralleler Anfragen pro Mate
+ * - Batching mehrerer Anfragen in einer Nachricht
+ * - Abbruch-Nachricht bei Cancel
+ * - Abgelehnte Sendungen lassen Aufrufe sofort scheitern
+ * - Aufgehobene Deadline (laufender Transfer) und externes Scheitern
+ * - Viele abgelehnte Sendungen in der Warteschlange ohne Rekursion
+ * - Trennung des Mates lässt offene Aufrufe scheitern
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("MateRpcService Tests")
+class MateRpcServiceTest {
+
+    private static final MateRpcService.Command<String> ECHO =
+            MateRpcService.Command.of("echo", "echo_result", data -> (String) data.get("value"));
+
+    private FleetMateWebSocketHandler handler;
+    private MateRpcService rpc;
+
+    @BeforeEach
+    void setUp() {
+        handler = mock(FleetMateWebSocketHandler.class);
+        when(handler.sendCommandAuto(anyString(), any())).thenReturn(true);
+        rpc = new MateRpcService(handler);
+    }
+
+    @Test
+    @DisplayName("Antwort mit passender ID und Typ vervollständigt den Aufruf")
+    void matchingResponse_CompletesCall() {
+        CompletableFuture<String> future = rpc.call("mate-1", ECHO, Map.of(), "req-1");
+
+        assertThat(rpc.handleResponse("other_type", Map.of("requestId", "req-1", "value", "x"))).isFalse();
+        assertThat(rpc.handleResponse("echo_result", Map.of("sessionId", "req-1", "value", "pong"))).isTrue();
+
+        assertThat(future).isCompletedWithValue("pong");
+    }
+
+    @Test
+    @DisplayName("Überzählige Aufrufe werden pro Mate eingereiht")
+    void callsBeyondLimit_AreQueued() {
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(rpc.call("mate-1", ECHO, Map.of(), "req-" + i));
+        }
+        verify(handler, times(16)).sendCommandAuto(eq("mate-1"), any());
+
+        rpc.handleResponse("echo_result", Map.of("requestId", "req-0", "value", "ok"));
+        verify(handler, times(17)).sendCommandAuto(eq("mate-1"), any());
+        assertThat(futures.get(0)).isCompletedWithValue("ok");
+    }
+
+    @Test
+    @DisplayName("Batch sendet eine Nachricht und verteilt batch_results")
+    @SuppressWarnings("unchecked")
+    void batch_SendsSingleMessage() {
+        List<CompletableFuture<String>> futures = rpc.callBatch("mate-1", ECHO, List.of(Map.of(), Map.of()));
+
+        ArgumentCaptor<MateCommand> captor = ArgumentCaptor.forClass(MateCommand.class);
+        verify(handler, times(1)).sendCommandAuto(eq("mate-1"), captor.capture());
+        assertThat(captor.getValue().getType()).isEqualTo("batch");
+
+        List<Map<String, Object>> commands = (List<Map<String, Object>>) captor.getValue().getPayload().get("commands");
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Map<String, Object> command : commands) {
+            Map<String, Object> payload = (Map<String, Object>) command.get("payload");
+            results.add(Map.of("type", "echo_result", "data", Map.of("requestId", payload.get("requestId"), "value", "r")));
+        }
+        rpc.handleBatchResults(Map.of("results", results));
+
+        assertThat(futures).allSatisfy(f -> assertThat(f).isCompletedWithValue("r"));
+    }
+
+    @Test
+    @DisplayName("Cancel schickt rpc_cancel an den Mate")
+    void cancel_SendsCancelMessage() {
+        CompletableFuture<String> future = rpc.call("mate-1", ECHO, Map.of(), "req-1");
+        rpc.cancel("req-1");
+
+        assertThat(future).isCancelled();
+        ArgumentCaptor<MateCommand> captor = ArgumentCaptor.forClass(MateCommand.class);
+        verify(handler, times(2)).sendCommandAuto(eq("mate-1"), captor.capture());
+        assertThat(captor.getAllValues().get(1).getType()).isEqualTo("rpc_cancel");
+        assertThat(rpc.getLatencyStats()).containsKey("commands");
+    }
+
+    @Test
+    @DisplayName("Abgelehnte Sendung lässt Aufruf und Batch sofort scheitern und gibt den Slot frei")
+    void rejectedSend_FailsCallers() {
+        when(handler.sendCommandAuto(eq("mate-1"), any())).thenReturn(false);
+
+        CompletableFuture<String> single = rpc.call("mate-1", ECHO, Map.of(), "req-1");
+        List<CompletableFuture<String>> batch = rpc.callBatch("mate-1", ECHO, List.of(Map.of(), Map.of()));
+
+        assertThat(single).isCompletedExceptionally();
+        assertThatThrownBy(single::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(batch).allSatisfy(f -> assertThat(f).isCompletedExceptionally());
+        // No rpc_cancel for requests that never left the queue
+        verify(handler, times(2)).sendCommandAuto(eq("mate-1"), any());
+
+        when(handler.sendCommandAuto(eq("mate-1"), any())).thenReturn(true);
+        CompletableFuture<String> next = rpc.call("mate-1", ECHO, Map.of(), "req-2");
+        rpc.handleResponse("echo_result", Map.of("requestId", "req-2", "value", "ok"));
+        assertThat(next).isCompletedWithValue("ok");
+    }
+
+    @Test
+    @DisplayName("Aufgehobene Deadline läuft nicht ab, externes Scheitern beendet den Aufruf")
+    void suspendedTimeout_LeavesCallToCaller() throws Exception {
+        MateRpcService.Command<String> fast = ECHO.withTimeout(Duration.ofMillis(100));
+        CompletableFuture<String> expiring = rpc.call("mate-1", fast, Map.of(), "req-1");
+        CompletableFuture<String> streaming = rpc.call("mate-1", fast, Map.of(), "req-2");
+
+        assertThat(rpc.suspendTimeout("req-2")).isTrue();
+        Thread.sleep(400);
+
+        assertThatThrownBy(expiring::join).hasCauseInstanceOf(TimeoutException.class);
+        assertThat(streaming).isNotDone();
+
+        assertThat(rpc.failExternally("req-2", new java.io.IOException("Transfer stalled"))).isTrue();
+        assertThatThrownBy(streaming::join).hasMessageContaining("Transfer stalled");
+        assertThat(rpc.suspendTimeout("req-2")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Tausende abgelehnte Sendungen in der Warteschlange laufen ohne Stack-Überlauf ab")
+    void rejectedBurst_DrainsWithoutRecursion() {
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            futures.add(rpc.call("mate-1", ECHO, Map.of(), "req-" + i));
+        }
+        when(handler.sendCommandAuto(eq("mate-1"), any())).thenReturn(false);
+
+        rpc.handleResponse("echo_result", Map.of("requestId", "req-0", "value", "ok"));
+
+        assertThat(futures.subList(16, futures.size())).allSatisfy(f -> assertThat(f).isCompletedExceptionally());
+        assertThat(futures.get(1)).isNotDone();
+    }
+
+    @Test
+    @DisplayName("Getrennter Mate: offene und eingereihte Aufrufe scheitern sofort, Kanal wird entfernt")
+    @SuppressWarnings("unchecked")
+    void mateDisconnect_FailsPendingCalls() {
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(rpc.call("mate-1", ECHO, Map.of(), "req-" + i));
+        }
+        CompletableFuture<String> other = rpc.call("mate-2", ECHO, Map.of(), "req-other");
+
+        rpc.onMateDisconnected("mate-1");
+
+        assertThat(futures).allSatisfy(f ->
+                assertThatThrownBy(f::join).hasMessageContaining("disconnected"));
+        assertThat(other).isNotDone();
+        assertThat((Map<String, Object>) rpc.getLatencyStats().get("mates")).containsOnlyKeys("mate-2");
+        // No rpc_cancel to a closed session
+        verify(handler, never()).sendCommandAuto(eq("mate-1"), argThat(c -> c.getType().equals("rpc_cancel")));
+    }
+}
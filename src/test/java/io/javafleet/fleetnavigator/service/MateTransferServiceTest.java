@@ -0,0 +1,134 @@
+package io.javafleet.fleetnavigator.service;
+
+import io.javafleet.fleetnavigator.dto.MateCommand;
+import io.javafleet.fleetnavigator.websocket.FleetMateWebSocketHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * JUnit-Tests für MateTransferService
+ *
+ * Testet:
+ * - Sequenzierte Chunks werden gespoolt und per Credit quittiert
+ * - Lücken und CRC-Fehler lösen einen Resume aus
+ * - SHA-256 Prüfung beim Abschluss
+ * - Start-Listener wird auch bei bereits laufendem Transfer benachrichtigt
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("MateTransferService Tests")
+class MateTransferServiceTest {
+
+    private FleetMateWebSocketHandler handler;
+    private MateTransferService service;
+    private MateTransferService.Transfer transfer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        handler = mock(FleetMateWebSocketHandler.class);
+        service = new MateTransferService(handler);
+        transfer = service.expectTransfer("t1", "mate-1", "file");
+        service.handleTransferStart("mate-1", new HashMap<>(Map.of("transferId", "t1", "name", "app.log", "totalSize", 12)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transfer.release();
+    }
+
+    @Test
+    @DisplayName("Chunks in Reihenfolge werden gespoolt und mit Credits quittiert")
+    void inOrderChunks_AreSpooledAndCredited() throws Exception {
+        // Default window 8 -> credit after 4 chunks
+        service.handleTransferChunk("mate-1", chunk(0, "Hel"));
+        service.handleTransferChunk("mate-1", chunk(1, "lo "));
+        service.handleTransferChunk("mate-1", chunk(2, "Wor"));
+        service.handleTransferChunk("mate-1", chunk(3, "ld!"));
+        service.handleTransferComplete("mate-1", Map.of("transferId", "t1", "totalSize", 12, "sha256", sha256("Hello World!")));
+
+        assertThat(transfer.getCompletion()).isCompleted();
+        assertThat(transfer.getSpool().readAll()).isEqualTo("Hello World!");
+        assertThat(sentTypes()).contains("transfer_credit");
+    }
+
+    @Test
+    @DisplayName("Fehlender Chunk löst einen Resume ab der letzten Sequenz aus")
+    void gap_TriggersResume() throws Exception {
+        service.handleTransferChunk("mate-1", chunk(0, "Hello "));
+        service.handleTransferChunk("mate-1", chunk(2, "World!"));
+
+        ArgumentCaptor<MateCommand> captor = ArgumentCaptor.forClass(MateCommand.class);
+        verify(handler, atLeastOnce()).sendCommandAuto(eq("mate-1"), captor.capture());
+        MateCommand resume = captor.getAllValues().stream()
+                .filter(c -> c.getType().equals("transfer_resume")).findFirst().orElseThrow();
+        assertThat(resume.getPayload()).containsEntry("fromSeq", 1L).containsEntry("fromOffset", 6L);
+        assertThat(transfer.getSpool().readAll()).isEqualTo("Hello ");
+    }
+
+    @Test
+    @DisplayName("Chunk mit falscher CRC wird verworfen")
+    void corruptChunk_IsDiscarded() throws Exception {
+        Map<String, Object> corrupt = chunk(0, "Hello ");
+        corrupt.put("crc32", 42L);
+        service.handleTransferChunk("mate-1", corrupt);
+
+        assertThat(transfer.getSize()).isZero();
+        assertThat(sentTypes()).contains("transfer_resume");
+    }
+
+    @Test
+    @DisplayName("Falsche Prüfsumme startet den Transfer neu")
+    void checksumMismatch_RestartsTransfer() throws Exception {
+        service.handleTransferChunk("mate-1", chunk(0, "Hello World!"));
+        service.handleTransferComplete("mate-1", Map.of("transferId", "t1", "totalSize", 12, "sha256", sha256("other")));
+
+        assertThat(transfer.getCompletion()).isNotDone();
+        assertThat(transfer.getSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("Start-Listener wird beim Start oder sofort benachrichtigt")
+    void startListener_IsNotified() throws Exception {
+        List<String> started = new java.util.ArrayList<>();
+        transfer.onStart(() -> started.add("t1"));
+
+        MateTransferService.Transfer pending = service.expectTransfer("t2", "mate-1", "file");
+        pending.onStart(() -> started.add("t2"));
+        assertThat(started).containsExactly("t1");
+
+        service.handleTransferStart("mate-1", new HashMap<>(Map.of("transferId", "t2", "name", "b.log")));
+        assertThat(started).containsExactly("t1", "t2");
+        service.cancelTransfer("t2");
+    }
+
+    private Map<String, Object> chunk(long seq, String text) {
+        CRC32 crc = new CRC32();
+        crc.update(text.getBytes(StandardCharsets.UTF_8));
+        return new HashMap<>(Map.of("transferId", "t1", "seq", seq, "data", text, "crc32", crc.getValue()));
+    }
+
+    private List<String> sentTypes() {
+        ArgumentCaptor<MateCommand> captor = ArgumentCaptor.forClass(MateCommand.class);
+        verify(handler, atLeastOnce()).sendCommandAuto(eq("mate-1"), captor.capture());
+        return captor.getAllValues().stream().map(MateCommand::getType).toList();
+    }
+
+    private static String sha256(String text) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,118 @@
+package io.javafleet.fleetnavigator.service;
+
+import io.javafleet.fleetnavigator.config.FleetPathsConfiguration;
+import io.javafleet.fleetnavigator.config.ModelSelectionProperties;
+import io.javafleet.fleetnavigator.dto.ModelSelectionSettingsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * JUnit-Tests für ModelSelectionService
+ *
+ * Testet (mit gemocktem LLMProviderService und SettingsService):
+ * - Code-Prompts gehen an das Code-Modell, die Entscheidung landet im JSONL-Protokoll
+ * - Bei kleinem Qualitätsunterschied bleibt das geladene Modell
+ * - Bei großem Qualitätsunterschied lohnt sich der Modellwechsel
+ * - Deaktiviertes Routing liefert das Standardmodell ohne Protokoll
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("ModelSelectionService Tests")
+class ModelSelectionServiceTest {
+
+    private static final String DEFAULT_MODEL = "qwen2.5-7b-instruct.gguf";
+    private static final String CODE_MODEL = "qwen2.5-coder-7b.gguf";
+    private static final String FAST_MODEL = "llama-3.2-1b.gguf";
+
+    @TempDir
+    Path tempDir;
+
+    private ModelSelectionSettingsDTO settings;
+    private LLMProviderService llmProviderService;
+    private ModelSelectionService service;
+
+    @BeforeEach
+    void setUp() {
+        settings = new ModelSelectionSettingsDTO();
+        settings.setEnabled(true);
+        settings.setCodeModel(CODE_MODEL);
+        settings.setFastModel(FAST_MODEL);
+        SettingsService settingsService = mock(SettingsService.class);
+        when(settingsService.getModelSelectionSettings()).thenReturn(settings);
+
+        llmProviderService = mock(LLMProviderService.class);
+        when(llmProviderService.getParallelSlots()).thenReturn(1);
+        when(llmProviderService.getResidentModels()).thenReturn(Set.of());
+
+        FleetPathsConfiguration pathsConfig = mock(FleetPathsConfiguration.class);
+        when(pathsConfig.getModelRoutingLogPath()).thenReturn(tempDir.resolve("model-routing.jsonl"));
+
+        service = new ModelSelectionService(new ModelSelectionProperties(), settingsService, llmProviderService,
+                new InferenceTelemetry(), new InferencePriorityGate(), pathsConfig);
+    }
+
+    @Test
+    @DisplayName("Code-Prompt wird an das Code-Modell geleitet und protokolliert")
+    void codePromptRoutesToCodeModel() throws Exception {
+        var decision = service.route("Please refactor this java class and fix the bug", DEFAULT_MODEL, "req-1");
+
+        assertThat(decision.taskType()).isEqualTo(ModelSelectionService.TaskType.CODE);
+        assertThat(decision.model()).isEqualTo(CODE_MODEL);
+        assertThat(decision.candidates()).hasSize(3);
+
+        List<String> lines = Files.readAllLines(tempDir.resolve("model-routing.jsonl"));
+        assertThat(lines).hasSize(1);
+        assertThat(lines.get(0)).contains("\"requestId\":\"req-1\"").contains("\"model\":\"" + CODE_MODEL + "\"");
+        assertThat(service.getRecentDecisions(10)).containsExactly(decision);
+    }
+
+    @Test
+    @DisplayName("Kleiner Qualitätsvorteil rechtfertigt keinen Modellwechsel")
+    void keepsResidentModelForSmallQualityGain() {
+        when(llmProviderService.getResidentModels()).thenReturn(Set.of(DEFAULT_MODEL));
+
+        var decision = service.route("Was ist ein Monad?", "/models/library/" + DEFAULT_MODEL, null);
+
+        assertThat(decision.taskType()).isEqualTo(ModelSelectionService.TaskType.SIMPLE_QA);
+        assertThat(decision.model()).isEqualTo("/models/library/" + DEFAULT_MODEL);
+        assertThat(decision.candidates())
+                .filteredOn(ModelSelectionService.Candidate::resident)
+                .extracting(ModelSelectionService.Candidate::role)
+                .containsExactly(ModelSelectionService.Role.DEFAULT);
+    }
+
+    @Test
+    @DisplayName("Großer Qualitätsvorteil rechtfertigt den Modellwechsel")
+    void switchesModelForLargeQualityGain() {
+        when(llmProviderService.getResidentModels()).thenReturn(Set.of(DEFAULT_MODEL));
+
+        var decision = service.route("Implement a function in python that parses the SQL database dump",
+                DEFAULT_MODEL, null);
+
+        assertThat(decision.model()).isEqualTo(CODE_MODEL);
+        assertThat(decision.reason()).isEqualTo("best-score");
+    }
+
+    @Test
+    @DisplayName("Deaktiviertes Routing liefert das Standardmodell ohne Protokoll")
+    void disabledReturnsDefaultModel() {
+        settings.setEnabled(false);
+
+        var decision = service.route("Implement a java class", DEFAULT_MODEL, null);
+
+        assertThat(decision.model()).isEqualTo(DEFAULT_MODEL);
+        assertThat(decision.reason()).isEqualTo("disabled");
+        assertThat(tempDir.resolve("model-routing.jsonl")).doesNotExist();
+    }
+}
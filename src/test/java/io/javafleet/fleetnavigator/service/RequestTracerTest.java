@@ -0,0 +1,94 @@
+package io.javafleet.fleetnavigator.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * JUnit-Tests für RequestTracer
+ *
+ * Testet:
+ * - Phasen laufen nacheinander, Timings in Ausführungsreihenfolge inkl. Ereignissen
+ * - Ringpuffer behält nur die letzten Traces, Liste sortiert nach Dauer
+ * - OTLP/JSON-Export mit Root-Span und Kind-Spans
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("RequestTracer Tests")
+class RequestTracerTest {
+
+    private RequestTracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        tracer = new RequestTracer();
+        ReflectionTestUtils.setField(tracer, "bufferSize", 3);
+    }
+
+    @Test
+    @DisplayName("Timings enthalten jede Phase in Reihenfolge, erstes Token relativ zur Generierung")
+    void timings_FollowPhaseOrder() throws Exception {
+        RequestTracer.Trace trace = tracer.begin("chat.stream", "req-1").phase("history.load");
+        Thread.sleep(5);
+        trace.phase("generation");
+        Thread.sleep(20);
+        trace.event("first_token");
+        Thread.sleep(5);
+        trace.event("first_token");  // nur das erste zählt
+        trace.end();
+
+        Map<String, Long> timings = trace.timings();
+
+        assertThat(timings.keySet()).containsExactly("history.load", "generation", "generation.first_token", "total");
+        assertThat(timings.get("generation.first_token")).isBetween(20L, timings.get("generation"));
+        assertThat(timings.get("total")).isGreaterThanOrEqualTo(timings.get("history.load") + timings.get("generation"));
+    }
+
+    @Test
+    @DisplayName("Ringpuffer listet die langsamsten der letzten Requests")
+    void slowest_FromBoundedBuffer() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            RequestTracer.Trace trace = tracer.begin("chat.stream", "req-" + i).phase("generation");
+            Thread.sleep(i == 2 ? 30 : 1);
+            trace.end();
+        }
+
+        List<Map<String, Object>> slowest = tracer.getSlowest(10);
+
+        assertThat(slowest).hasSize(3)
+                .extracting(t -> t.get("requestId"))
+                .doesNotContain("req-0")
+                .first().isEqualTo("req-2");
+    }
+
+    @Test
+    @DisplayName("Fehlgeschlagener Trace wird als OTLP mit Fehlerstatus exportiert")
+    @SuppressWarnings("unchecked")
+    void otlp_ContainsRootAndPhases() {
+        RequestTracer.Trace trace = tracer.begin("chat.stream", "req-9").tag("model", "llama3");
+        trace.phase("web.search").attribute("result.count", 5);
+        trace.fail(new IllegalStateException("Connection refused"));
+
+        Map<String, Object> otlp = tracer.getOtlp(trace.getTraceId()).orElseThrow();
+
+        Map<String, Object> resource = ((List<Map<String, Object>>) otlp.get("resourceSpans")).get(0);
+        Map<String, Object> scope = ((List<Map<String, Object>>) resource.get("scopeSpans")).get(0);
+        List<Map<String, Object>> spans = (List<Map<String, Object>>) scope.get("spans");
+        assertThat(spans).hasSize(2);
+        assertThat(spans.get(0)).containsEntry("name", "chat.stream")
+                .containsEntry("traceId", trace.getTraceId())
+                .containsEntry("status", Map.of("code", 2))
+                .doesNotContainKey("parentSpanId");
+        assertThat(spans.get(1)).containsEntry("name", "web.search")
+                .containsEntry("parentSpanId", spans.get(0).get("spanId"));
+        assertThat((String) spans.get(0).get("traceId")).hasSize(32);
+        assertThat(tracer.getOtlp("unbekannt")).isEmpty();
+    }
+}
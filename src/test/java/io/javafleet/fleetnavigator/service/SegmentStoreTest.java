@@ -0,0 +1,85 @@
+package io.javafleet.fleetnavigator.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * JUnit-Tests für SegmentStore
+ *
+ * Testet:
+ * - Datensätze werden angehängt und über Segment/Offset wieder gelesen
+ * - Neues Segment, wenn die Größengrenze überschritten würde; Fortsetzen nach dem Öffnen
+ * - Beschädigte oder zu kurze Daten werden beim Entpacken erkannt
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("SegmentStore Tests")
+class SegmentStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Angehängter Datensatz wird mit Header geschrieben und wieder gelesen")
+    void appendAndRead() throws IOException {
+        SegmentStore store = new SegmentStore(tempDir, "test-", ".seg", Long.BYTES);
+        store.open();
+        byte[] raw = "Hallo Segment ".repeat(100).getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = SegmentStore.deflate(raw, 6);
+
+        long offset = store.append(ByteBuffer.allocate(Long.BYTES).putLong(42L).array(), raw.length, compressed, 1 << 20);
+        store.close();
+
+        assertThat(offset).isEqualTo(store.recordHeaderBytes()).isEqualTo(16);
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(store.segmentPath(1)));
+        assertThat(header.getInt()).isEqualTo(compressed.length);
+        assertThat(header.getInt()).isEqualTo(raw.length);
+        assertThat(header.getLong()).isEqualTo(42L);
+        assertThat(SegmentStore.inflate(store.read(1, offset, compressed.length), raw.length)).isEqualTo(raw);
+    }
+
+    @Test
+    @DisplayName("Größengrenze startet ein neues Segment, Öffnen setzt beim höchsten fort")
+    void rollsOverAndResumes() throws IOException {
+        SegmentStore store = new SegmentStore(tempDir, "test-", ".seg", Long.BYTES);
+        store.open();
+        byte[] body = SegmentStore.deflate(new byte[100], Deflater.BEST_SPEED);
+        store.append(new byte[Long.BYTES], 100, body, 1);
+        store.append(new byte[Long.BYTES], 100, body, 1);
+        store.close();
+
+        assertThat(store.segmentNumbers()).containsExactly(1, 2);
+        assertThat(store.activeSegment()).isEqualTo(2);
+
+        SegmentStore reopened = new SegmentStore(tempDir, "test-", ".seg", Long.BYTES);
+        reopened.open();
+        assertThat(reopened.activeSegment()).isEqualTo(2);
+        assertThat(reopened.activeSize()).isEqualTo(16 + body.length);
+        reopened.close();
+
+        assertThatThrownBy(() -> store.append(new byte[4], 100, body, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Beschädigte Daten und falsche Länge werden erkannt")
+    void corruptDataIsDetected() {
+        byte[] compressed = SegmentStore.deflate("abc".repeat(50).getBytes(StandardCharsets.UTF_8), 1);
+
+        assertThatThrownBy(() -> SegmentStore.inflate(ByteBuffer.wrap(compressed), 200))
+                .isInstanceOf(IOException.class).hasMessageContaining("Corrupt record");
+        assertThatThrownBy(() -> SegmentStore.inflate(ByteBuffer.wrap(new byte[]{(byte) 0xff, 1, 2, 3}), 10))
+                .isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,96 @@
+package io.javafleet.fleetnavigator.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * JUnit-Tests für TesseractOCRService
+ *
+ * Testet (mit simulierter Texterkennung, ohne installiertes Tesseract):
+ * - Seitenreihenfolge bei paralleler OCR, auch über 10 Seiten hinaus
+ * - Seiten-Cache für identische Seitenbilder
+ * - Begrenzte Anzahl gleichzeitig gerenderter Seiten (konstanter Speicher)
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("TesseractOCRService Tests")
+class TesseractOCRServiceTest {
+
+    private static final int WORKERS = 3;
+
+    private final AtomicInteger recognized = new AtomicInteger();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger maxOutstanding = new AtomicInteger();
+    private TesseractOCRService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TesseractOCRService() {
+            @Override
+            String recognize(BufferedImage image) {
+                recognized.incrementAndGet();
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                outstanding.decrementAndGet();
+                return "Text " + (image.getRGB(0, 0) & 0xFFFFFF);
+            }
+        };
+        ReflectionTestUtils.setField(service, "poolSize", WORKERS);
+        service.startup();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Alle Seiten werden in Reihenfolge erkannt, auch über 10 Seiten")
+    void manyPages_KeepPageOrder() throws Exception {
+        String text = service.performOCROnPages(25, this::page);
+
+        assertThat(text).startsWith("Text 0");
+        assertThat(text).contains("--- Seite 11 ---\n\nText 10");
+        assertThat(text).endsWith("--- Seite 25 ---\n\nText 24");
+        assertThat(text.indexOf("Text 9")).isLessThan(text.indexOf("Text 10"));
+        assertThat(recognized.get()).isEqualTo(25);
+    }
+
+    @Test
+    @DisplayName("Identische Seiten werden nur einmal erkannt")
+    void identicalPages_AreServedFromCache() throws Exception {
+        service.performOCROnPages(6, page -> page(page % 2));
+        outstanding.set(0);
+        service.performOCROnPages(2, this::page);
+
+        assertThat(recognized.get()).isEqualTo(2);
+        assertThat(service.getStats()).containsEntry("cacheHits", 6L);
+    }
+
+    @Test
+    @DisplayName("Rendern wartet, solange Pool-Größe + 1 Seiten unterwegs sind")
+    void rendering_IsBoundedByPool() throws Exception {
+        service.performOCROnPages(40, this::page);
+
+        assertThat(maxOutstanding.get()).isLessThanOrEqualTo(WORKERS + 1);
+    }
+
+    private BufferedImage page(int index) {
+        maxOutstanding.accumulateAndGet(outstanding.incrementAndGet(), Math::max);
+        BufferedImage image = new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, index);
+        return image;
+    }
+}
@@ -0,0 +1,60 @@
+package io.javafleet.fleetnavigator.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * JUnit-Tests für LogTemplateMiner
+ *
+ * Testet:
+ * - Zusammengesetzte Exception- und Error-Namen zählen als Fehler
+ * - Zeilen jenseits der Template-Obergrenze landen im Sammel-Template statt ungefiltert
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("LogTemplateMiner Tests")
+class LogTemplateMinerTest {
+
+    @Test
+    @DisplayName("NullPointerException und OutOfMemoryError werden als Fehler erkannt")
+    void compoundExceptionNamesAreErrors() {
+        LogTemplateMiner miner = new LogTemplateMiner(10, 1, line -> { });
+        miner.append("java.lang.NullPointerException: name is null\n");
+        miner.append("Caused by: java.lang.OutOfMemoryError: Java heap space\n");
+        miner.append("request handled in 5 ms\n");
+        miner.finish();
+
+        assertThat(miner.rankedTemplates())
+                .extracting(LogTemplateMiner.Template::severity)
+                .containsExactly(LogTemplateMiner.Severity.ERROR, LogTemplateMiner.Severity.ERROR,
+                        LogTemplateMiner.Severity.INFO);
+    }
+
+    @Test
+    @DisplayName("Überlauf wird je Schweregrad gesammelt, nur die ersten Zeilen gehen durch")
+    void overflowIsFoldedIntoOtherBucket() {
+        List<String> forwarded = new ArrayList<>();
+        LogTemplateMiner miner = new LogTemplateMiner(2, 2, forwarded::add);
+        miner.append("alpha started\n");
+        miner.append("beta stopped\n");
+        for (int i = 0; i < 50; i++) {
+            miner.append("unique" + (char) ('a' + i % 26) + (char) ('a' + i / 26) + " line\n");
+        }
+        miner.append("ERROR disk full\n");
+        miner.finish();
+
+        assertThat(miner.getTemplateCount()).isEqualTo(2);
+        assertThat(forwarded).hasSize(5).contains("ERROR disk full\n");
+        assertThat(miner.rankedTemplates())
+                .filteredOn(t -> t.pattern().equals(LogTemplateMiner.OTHER))
+                .extracting(LogTemplateMiner.Template::severity, LogTemplateMiner.Template::count)
+                .containsExactly(tuple(LogTemplateMiner.Severity.ERROR, 1L), tuple(LogTemplateMiner.Severity.INFO, 50L));
+        assertThat(miner.render(10_000)).contains("50× <sonstige>", "51 Zeilen ohne eigenes Template");
+    }
+}
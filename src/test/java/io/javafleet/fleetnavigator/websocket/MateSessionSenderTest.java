@@ -0,0 +1,141 @@
+package io.javafleet.fleetnavigator.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * JUnit-Tests für MateSessionSender
+ *
+ * Testet:
+ * - Control-Nachrichten werden vor Bulk-Nachrichten gesendet
+ * - Puffergrenze zählt UTF-8-Bytes, Bulk wird bei langsamem Empfänger abgelehnt
+ * - Überlauf auch im Control-Lane schließt die Session
+ * - close() verwirft die Queue, closeAfterFlush() sendet erst alles
+ *
+ * @author JavaFleet Systems Consulting
+ * @since 0.6.9
+ */
+@DisplayName("MateSessionSender Tests")
+class MateSessionSenderTest {
+
+    private WebSocketSession session;
+    private ManualExecutor writerPool;
+
+    @BeforeEach
+    void setUp() {
+        session = mock(WebSocketSession.class);
+        when(session.isOpen()).thenReturn(true);
+        when(session.getId()).thenReturn("session-1");
+        writerPool = new ManualExecutor();
+    }
+
+    @Test
+    @DisplayName("Control-Nachrichten überholen bereits eingereihte Bulk-Nachrichten")
+    void controlLaneGoesFirst() throws Exception {
+        MateSessionSender sender = new MateSessionSender(session, writerPool, 1024, 10_000);
+
+        assertThat(sender.enqueue("bulk-1", MateSessionSender.Lane.BULK)).isTrue();
+        assertThat(sender.enqueue("ping", MateSessionSender.Lane.CONTROL)).isTrue();
+        assertThat(sender.enqueue("bulk-2 äöü", MateSessionSender.Lane.BULK)).isTrue();
+        assertThat(sender.enqueue("cancel", MateSessionSender.Lane.CONTROL)).isTrue();
+        writerPool.runAll();
+
+        ArgumentCaptor<TextMessage> sent = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, times(4)).sendMessage(sent.capture());
+        assertThat(sent.getAllValues()).extracting(TextMessage::getPayload)
+                .containsExactly("ping", "cancel", "bulk-1", "bulk-2 äöü");
+        assertThat(sender.snapshot()).containsEntry("bufferedBytes", 0L).containsEntry("sent", 4L);
+    }
+
+    @Test
+    @DisplayName("Puffergrenze zählt UTF-8-Bytes und lehnt Bulk ab")
+    void bufferLimitCountsUtf8Bytes() throws Exception {
+        MateSessionSender sender = new MateSessionSender(session, writerPool, 10, 10_000);
+
+        // 5 chars, 10 bytes - fills the buffer exactly
+        assertThat(sender.enqueue("äöüäö", MateSessionSender.Lane.BULK)).isTrue();
+        // 7 chars would still fit, 14 bytes do not
+        assertThat(sender.enqueue("ää", MateSessionSender.Lane.BULK)).isFalse();
+        assertThat(sender.snapshot()).containsEntry("bufferedBytes", 10L).containsEntry("rejected", 1L);
+
+        // Control traffic still gets through up to twice the limit
+        assertThat(sender.enqueue("ok", MateSessionSender.Lane.CONTROL)).isTrue();
+        verify(session, never()).close(any());
+
+        writerPool.runAll();
+        verify(session, times(2)).sendMessage(any());
+        assertThat(sender.snapshot()).containsEntry("bufferedBytes", 0L);
+    }
+
+    @Test
+    @DisplayName("Staut sich auch Control-Verkehr, wird die Session geschlossen")
+    void controlOverflowClosesSession() throws Exception {
+        MateSessionSender sender = new MateSessionSender(session, writerPool, 10, 10_000);
+
+        assertThat(sender.enqueue("0123456789", MateSessionSender.Lane.BULK)).isTrue();
+        assertThat(sender.enqueue("ping-12345", MateSessionSender.Lane.CONTROL)).isTrue();
+        assertThat(sender.enqueue("ü", MateSessionSender.Lane.CONTROL)).isFalse();
+
+        ArgumentCaptor<CloseStatus> status = ArgumentCaptor.forClass(CloseStatus.class);
+        verify(session).close(status.capture());
+        assertThat(status.getValue().getCode()).isEqualTo(CloseStatus.SESSION_NOT_RELIABLE.getCode());
+
+        writerPool.runAll();
+        verify(session, never()).sendMessage(any());
+        assertThat(sender.enqueue("ping", MateSessionSender.Lane.CONTROL)).isFalse();
+    }
+
+    @Test
+    @DisplayName("close() verwirft die Queue, closeAfterFlush() sendet vorher alles")
+    void closeDropsQueueAndCloseAfterFlushSendsFirst() throws Exception {
+        MateSessionSender dropped = new MateSessionSender(session, writerPool, 1024, 10_000);
+        dropped.enqueue("verworfen", MateSessionSender.Lane.BULK);
+        dropped.close();
+        writerPool.runAll();
+
+        verify(session, never()).sendMessage(any());
+        assertThat(dropped.enqueue("zu spät", MateSessionSender.Lane.CONTROL)).isFalse();
+        assertThat(dropped.snapshot()).containsEntry("bufferedBytes", 0L).containsEntry("queuedBulk", 0);
+
+        MateSessionSender flushed = new MateSessionSender(session, writerPool, 1024, 10_000);
+        flushed.enqueue("auth_failed", MateSessionSender.Lane.CONTROL);
+        flushed.closeAfterFlush(CloseStatus.POLICY_VIOLATION);
+        writerPool.runAll();
+
+        var order = inOrder(session);
+        order.verify(session).sendMessage(new TextMessage("auth_failed"));
+        order.verify(session).close(CloseStatus.POLICY_VIOLATION);
+        assertThat(flushed.enqueue("danach", MateSessionSender.Lane.CONTROL)).isFalse();
+    }
+
+    /**
+     * Führt Drain-Aufträge erst auf Zuruf aus, damit die Queue im Test stehen bleibt
+     */
+    private static final class ManualExecutor implements Executor {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+}